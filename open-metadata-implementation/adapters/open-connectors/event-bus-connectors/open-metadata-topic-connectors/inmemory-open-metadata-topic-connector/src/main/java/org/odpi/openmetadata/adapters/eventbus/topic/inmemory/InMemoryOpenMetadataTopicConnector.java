@@ -61,6 +61,19 @@ public class InMemoryOpenMetadataTopicConnector extends OpenMetadataTopicConnect
     {
         this.putEvent(event);
 
+        super.signalIncomingEvents();
+    }
+
+
+    /**
+     * The listener thread is woken up by sendEvent() so it does not need to poll for events.
+     *
+     * @return true
+     */
+    @Override
+    protected boolean supportsIncomingEventSignal()
+    {
+        return true;
     }
 
 
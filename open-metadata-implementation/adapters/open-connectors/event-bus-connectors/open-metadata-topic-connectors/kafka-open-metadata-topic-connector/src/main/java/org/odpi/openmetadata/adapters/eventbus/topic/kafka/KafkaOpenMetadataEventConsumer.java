@@ -136,6 +136,8 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
        
         while (isRunning())
         {
+            boolean recordsReceived = false;
+
             try
             {
                 
@@ -167,6 +169,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                 final ConsumerRecords<String, String> records = consumer.poll(pollDuration);
                 
                 log.debug("Found records: " + records.count());
+                recordsReceived = ! records.isEmpty();
                 for (ConsumerRecord<String, String> record : records)
                 {
                     String json = record.value();
@@ -177,7 +180,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                         try
                         {
                             addUnprocessedEvent(record.partition(), record.topic(), event);
-                            connector.distributeToListeners(event);
+                            connector.distributeToListeners(event, new TopicPartition(record.topic(), record.partition()));
                         }
                         catch (Exception error)
                         {
@@ -233,7 +236,11 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
             }
             finally
             {
-                awaitNextPollingTime();
+                //Poll again straight away while records are arriving
+                if (! recordsReceived)
+                {
+                    awaitNextPollingTime();
+                }
             }
         }
 
@@ -54,7 +54,15 @@ public enum KafkaOpenMetadataEventConsumerProperty
      * used if auto commit is disabled in the Kafka consumer. 
      * 
      */
-    COMMIT_CHECK_INTERVAL_MS("commit_check_interval_ms", "5000");
+    COMMIT_CHECK_INTERVAL_MS("commit_check_interval_ms", "5000"),
+
+    /**
+     * The number of worker threads used to distribute events to the topic listeners.  Each partition
+     * has its own ordered lane so events from different partitions are processed concurrently.  Zero means
+     * all events are distributed in turn by the connector's listener thread.  The topic listeners must
+     * be able to receive events concurrently when this is set.
+     */
+    PARTITION_WORKER_THREADS("partition_worker_threads", "0");
 
 	private final String propertyName;
 	private final String defaultValue;
@@ -6,6 +6,7 @@ import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.DescribeClusterResult;
 import org.apache.kafka.clients.admin.KafkaAdminClient;
 import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.IncomingEvent;
@@ -45,6 +46,9 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     /* this buffer is for consumed events */
     private final List<IncomingEvent> incomingEventsList = Collections.synchronizedList(new ArrayList<>());
 
+    /* set up when events are distributed from each partition concurrently */
+    private KafkaPartitionEventLanes partitionEventLanes = null;
+
     private KafkaProducerExecutor executor = null;
 
     final String                   threadHeader = "Kafka-";
@@ -263,6 +267,13 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         }
 
         KafkaOpenMetadataEventConsumerConfiguration consumerConfig = new KafkaOpenMetadataEventConsumerConfiguration(consumerEgeriaProperties, auditLog);
+
+        int partitionWorkerThreads = consumerConfig.getIntProperty(KafkaOpenMetadataEventConsumerProperty.PARTITION_WORKER_THREADS);
+        if (partitionWorkerThreads > 0)
+        {
+            partitionEventLanes = new KafkaPartitionEventLanes(topicName, partitionWorkerThreads, super::distributeEvent);
+        }
+
         consumer = new KafkaOpenMetadataEventConsumer(topicName, serverId, consumerConfig, consumerProperties, this, auditLog);
         consumerThread = new Thread(consumer, threadHeader + "Consumer-" + topicName);
         consumerThread.start();
@@ -302,8 +313,8 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     {
         List<IncomingEvent> newEvents = null;
 
-        // This method is called periodically from a independent thread managed by OpenMetadataTopic
-        // (superclass) so it should not block.
+        // This method is called from an independent thread managed by OpenMetadataTopic
+        // (superclass) when events are signalled so it should not block.
 
         if ((incomingEventsList != null) && (!incomingEventsList.isEmpty()))
         {
@@ -326,6 +337,43 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     {
         log.debug("distribute event to listeners" + event);
         incomingEventsList.add(event);
+
+        super.signalIncomingEvents();
+    }
+
+
+    /**
+     * Distribute an event to the listeners.  If partition worker threads are configured, the event
+     * is passed to the lane for its partition.  Otherwise it is passed to the listener thread.
+     *
+     * @param event object containing the event properties.
+     * @param partition partition that the event was read from
+     */
+    void distributeToListeners(KafkaIncomingEvent event,
+                               TopicPartition     partition)
+    {
+        if (partitionEventLanes != null)
+        {
+            log.debug("distribute event to partition lane " + partition + ": " + event);
+            partitionEventLanes.distributeEvent(partition, event);
+        }
+        else
+        {
+            this.distributeToListeners(event);
+        }
+    }
+
+
+    /**
+     * The listener thread is woken up by distributeToListeners() as soon as events are consumed
+     * from Kafka so it does not need to poll for events.
+     *
+     * @return true
+     */
+    @Override
+    protected boolean supportsIncomingEventSignal()
+    {
+        return true;
     }
 
 
@@ -387,6 +435,11 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
         }
 
+        if (partitionEventLanes != null)
+        {
+            partitionEventLanes.shutdown();
+        }
+
         super.disconnect();
 
         auditLog.logMessage(actionDescription, KafkaOpenMetadataTopicConnectorAuditCode.SERVICE_SHUTDOWN.getMessageDefinition(topicName));
@@ -398,6 +451,9 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
      * @return int
      */
     int getNumberOfUnprocessedEvents() {
+        if (partitionEventLanes != null) {
+            return incomingEventsList.size() + partitionEventLanes.getNumberOfUnprocessedEvents();
+        }
     	return incomingEventsList.size();
     }
 
@@ -0,0 +1,212 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+
+/**
+ * KafkaPartitionEventLanes distributes the events received from Kafka to the topic listeners using a pool
+ * of worker threads.  Each partition has its own lane.  The events in a lane are distributed one at a time
+ * in offset order so the ordering guarantees of the partition are kept, while the events from different
+ * partitions are distributed concurrently.
+ * <br><br>
+ * The lanes do not commit offsets.  The consumer still commits the offset for a partition only when all of
+ * the earlier events in the partition have been fully processed.
+ */
+class KafkaPartitionEventLanes
+{
+    private static final Logger log = LoggerFactory.getLogger(KafkaPartitionEventLanes.class);
+
+    /*
+     * Maximum number of events distributed from a lane before its worker thread is offered to the other lanes.
+     */
+    private static final int MAX_EVENTS_PER_TURN = 50;
+
+    private final Map<TopicPartition, PartitionLane> lanes             = new ConcurrentHashMap<>();
+    private final AtomicInteger                      unprocessedEvents = new AtomicInteger(0);
+    private final ExecutorService                    workerPool;
+    private final Consumer<KafkaIncomingEvent>       eventDistributor;
+
+
+    /**
+     * Constructor.
+     *
+     * @param topicName name of the topic - used to name the threads
+     * @param workerThreads number of threads distributing events
+     * @param eventDistributor function that passes an event to the topic listeners
+     */
+    KafkaPartitionEventLanes(String                       topicName,
+                             int                          workerThreads,
+                             Consumer<KafkaIncomingEvent> eventDistributor)
+    {
+        final String        threadNamePrefix = "Kafka-PartitionWorker-" + topicName + "-";
+        final AtomicInteger threadCount      = new AtomicInteger(0);
+
+        this.eventDistributor = eventDistributor;
+        this.workerPool = Executors.newFixedThreadPool(workerThreads, (runnable) ->
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+
+    /**
+     * Add an event to the lane for its partition.
+     *
+     * @param partition partition that the event was read from
+     * @param event event to distribute
+     */
+    void distributeEvent(TopicPartition     partition,
+                         KafkaIncomingEvent event)
+    {
+        unprocessedEvents.incrementAndGet();
+
+        lanes.computeIfAbsent(partition, PartitionLane::new).addEvent(event);
+    }
+
+
+    /**
+     * Return the number of events waiting in the lanes.
+     *
+     * @return count of events
+     */
+    int getNumberOfUnprocessedEvents()
+    {
+        return unprocessedEvents.get();
+    }
+
+
+    /**
+     * Stop the worker threads.  Events that have not been distributed are discarded.  Their offsets are not
+     * committed so they are received again when the connector restarts.
+     */
+    void shutdown()
+    {
+        workerPool.shutdownNow();
+    }
+
+
+    /**
+     * The queue of events for a single partition.  At most one worker thread drains the queue at a time.
+     */
+    private class PartitionLane implements Runnable
+    {
+        private final TopicPartition            partition;
+        private final Queue<KafkaIncomingEvent> queue     = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean             scheduled = new AtomicBoolean(false);
+
+
+        PartitionLane(TopicPartition partition)
+        {
+            this.partition = partition;
+        }
+
+
+        /**
+         * Queue an event and make sure a worker thread is draining the lane.
+         *
+         * @param event event to distribute
+         */
+        void addEvent(KafkaIncomingEvent event)
+        {
+            queue.add(event);
+            this.schedule();
+        }
+
+
+        /**
+         * Request a worker thread if one is not already working on this lane.
+         */
+        private void schedule()
+        {
+            if (scheduled.compareAndSet(false, true))
+            {
+                try
+                {
+                    workerPool.execute(this);
+                }
+                catch (RejectedExecutionException error)
+                {
+                    log.debug("Discarding events for partition " + partition + " as the connector is disconnected");
+
+                    /*
+                     * The events are removed one at a time so that an event added while the lane is being
+                     * emptied is either counted and discarded here, or discarded by the thread that added it.
+                     */
+                    while (queue.poll() != null)
+                    {
+                        unprocessedEvents.decrementAndGet();
+                    }
+
+                    scheduled.set(false);
+
+                    if (! queue.isEmpty())
+                    {
+                        this.schedule();
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Distribute a batch of events from the lane.
+         */
+        @Override
+        public void run()
+        {
+            try
+            {
+                for (int eventCount = 0; eventCount < MAX_EVENTS_PER_TURN; eventCount++)
+                {
+                    KafkaIncomingEvent event = queue.poll();
+
+                    if (event == null)
+                    {
+                        break;
+                    }
+
+                    try
+                    {
+                        eventDistributor.accept(event);
+                    }
+                    catch (Throwable error)
+                    {
+                        log.error("Error distributing event from partition " + partition, error);
+                    }
+                    finally
+                    {
+                        unprocessedEvents.decrementAndGet();
+                    }
+                }
+            }
+            finally
+            {
+                scheduled.set(false);
+
+                if (! queue.isEmpty())
+                {
+                    this.schedule();
+                }
+            }
+        }
+    }
+}
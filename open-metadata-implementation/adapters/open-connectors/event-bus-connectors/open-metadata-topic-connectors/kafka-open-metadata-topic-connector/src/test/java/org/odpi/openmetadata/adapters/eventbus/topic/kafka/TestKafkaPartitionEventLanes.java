@@ -0,0 +1,188 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.common.TopicPartition;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Verify that KafkaPartitionEventLanes keeps the order of the events within a partition, counts the events
+ * that are waiting, and discards the waiting events when it is shut down.
+ */
+public class TestKafkaPartitionEventLanes
+{
+    private static final String TOPIC_NAME       = "testTopic";
+    private static final long   WAIT_TIME_MILLIS = 10000;
+
+
+    @Test
+    void testOrderWithinPartition()
+    {
+        final int partitionCount     = 4;
+        final int eventsPerPartition = 500;
+
+        Map<String, List<Long>>  receivedOffsets = new ConcurrentHashMap<>();
+        KafkaPartitionEventLanes lanes           = new KafkaPartitionEventLanes(TOPIC_NAME,
+                                                                                partitionCount,
+                                                                                (event) -> receivedOffsets.computeIfAbsent(event.getJson(),
+                                                                                                                           key -> Collections.synchronizedList(new ArrayList<>()))
+                                                                                                          .add(event.getOffset()));
+
+        try
+        {
+            for (long offset = 0; offset < eventsPerPartition; offset++)
+            {
+                for (int partition = 0; partition < partitionCount; partition++)
+                {
+                    lanes.distributeEvent(new TopicPartition(TOPIC_NAME, partition),
+                                          new KafkaIncomingEvent("partition" + partition, offset));
+                }
+            }
+
+            waitForNoUnprocessedEvents(lanes);
+
+            assertEquals(receivedOffsets.size(), partitionCount);
+
+            for (List<Long> offsets : receivedOffsets.values())
+            {
+                assertEquals(offsets.size(), eventsPerPartition);
+
+                for (int index = 0; index < eventsPerPartition; index++)
+                {
+                    assertEquals(offsets.get(index).longValue(), index);
+                }
+            }
+        }
+        finally
+        {
+            lanes.shutdown();
+        }
+    }
+
+
+    @Test
+    void testUnprocessedEventCount() throws InterruptedException
+    {
+        CountDownLatch           release        = new CountDownLatch(1);
+        AtomicInteger            receivedEvents = new AtomicInteger(0);
+        KafkaPartitionEventLanes lanes          = new KafkaPartitionEventLanes(TOPIC_NAME,
+                                                                               2,
+                                                                               (event) -> awaitRelease(release, receivedEvents));
+
+        try
+        {
+            for (long offset = 0; offset < 10; offset++)
+            {
+                lanes.distributeEvent(new TopicPartition(TOPIC_NAME, 0), new KafkaIncomingEvent("event", offset));
+            }
+            lanes.distributeEvent(new TopicPartition(TOPIC_NAME, 1), new KafkaIncomingEvent("event", 0));
+
+            /*
+             * An event that is being distributed is still counted until its listeners return.
+             */
+            assertEquals(lanes.getNumberOfUnprocessedEvents(), 11);
+
+            release.countDown();
+            waitForNoUnprocessedEvents(lanes);
+
+            assertEquals(receivedEvents.get(), 11);
+        }
+        finally
+        {
+            lanes.shutdown();
+        }
+    }
+
+
+    @Test
+    void testShutdownDiscardsWaitingEvents() throws InterruptedException
+    {
+        final int eventCount = 200;
+
+        CountDownLatch           started        = new CountDownLatch(1);
+        CountDownLatch           release        = new CountDownLatch(1);
+        AtomicInteger            receivedEvents = new AtomicInteger(0);
+        KafkaPartitionEventLanes lanes          = new KafkaPartitionEventLanes(TOPIC_NAME,
+                                                                               1,
+                                                                               (event) ->
+                                                                               {
+                                                                                   started.countDown();
+                                                                                   awaitRelease(release, receivedEvents);
+                                                                               });
+        TopicPartition           partition      = new TopicPartition(TOPIC_NAME, 0);
+
+        for (long offset = 0; offset < eventCount; offset++)
+        {
+            lanes.distributeEvent(partition, new KafkaIncomingEvent("event", offset));
+        }
+
+        assertTrue(started.await(WAIT_TIME_MILLIS, TimeUnit.MILLISECONDS));
+
+        lanes.shutdown();
+        release.countDown();
+
+        /*
+         * The lane finishes its current turn and then discards the rest of its events because it can not be
+         * rescheduled.  Events that arrive after the shutdown are discarded straight away.
+         */
+        waitForNoUnprocessedEvents(lanes);
+
+        lanes.distributeEvent(partition, new KafkaIncomingEvent("event", eventCount));
+
+        assertEquals(lanes.getNumberOfUnprocessedEvents(), 0);
+        assertTrue(receivedEvents.get() < eventCount);
+    }
+
+
+    /**
+     * Count an event once the test releases the listeners.
+     *
+     * @param release latch that the test counts down
+     * @param receivedEvents count of events received
+     */
+    private void awaitRelease(CountDownLatch release,
+                              AtomicInteger  receivedEvents)
+    {
+        try
+        {
+            release.await(WAIT_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        receivedEvents.incrementAndGet();
+    }
+
+
+    /**
+     * Wait for the lanes to finish with all of their events.
+     *
+     * @param lanes lanes to test
+     */
+    private void waitForNoUnprocessedEvents(KafkaPartitionEventLanes lanes)
+    {
+        long endTime = System.currentTimeMillis() + WAIT_TIME_MILLIS;
+
+        while ((lanes.getNumberOfUnprocessedEvents() > 0) && (System.currentTimeMillis() < endTime))
+        {
+            Thread.yield();
+        }
+
+        assertEquals(lanes.getNumberOfUnprocessedEvents(), 0);
+    }
+}
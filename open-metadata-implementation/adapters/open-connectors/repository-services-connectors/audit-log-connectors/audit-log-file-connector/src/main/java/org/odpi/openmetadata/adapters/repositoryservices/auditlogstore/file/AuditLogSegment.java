@@ -0,0 +1,304 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * AuditLogSegment describes one of the files of the segmented audit log.  Each segment is a file of
+ * newline-delimited JSON log records that is only ever appended to.  The segment keeps a sparse index of
+ * its contents in memory so that queries can skip the segments, and the blocks within a segment, that
+ * can not contain matching records.
+ * <ul>
+ *     <li>The time index records the range of time stamps and the file offset of every block of records.</li>
+ *     <li>The severity and component indexes record which severities and components appear in the segment.</li>
+ *     <li>The GUID index records the hash of each record's GUID along with its file offset.</li>
+ * </ul>
+ * The index is built as records are written and rebuilt from the file when the store is reopened.
+ */
+class AuditLogSegment
+{
+    /**
+     * Number of records in each block of the time index.
+     */
+    static final int RECORDS_PER_BLOCK = 64;
+
+    private final File   file;
+    private final long   segmentNumber;
+    private final long   creationTime;
+
+    private long         size         = 0;
+    private long         recordCount  = 0;
+    private long         minTimestamp = Long.MAX_VALUE;
+    private long         maxTimestamp = Long.MIN_VALUE;
+
+    private final Set<String>     severities = new HashSet<>();
+    private final Set<String>     components = new HashSet<>();
+    private final List<TimeBlock> timeBlocks = new ArrayList<>();
+
+    private int[]  guidHashes    = new int[RECORDS_PER_BLOCK];
+    private long[] recordOffsets = new long[RECORDS_PER_BLOCK];
+
+
+    /**
+     * Constructor.
+     *
+     * @param file file holding the records
+     * @param segmentNumber sequence number of the segment - segments are written in ascending order
+     * @param creationTime time that the segment was started
+     */
+    AuditLogSegment(File file,
+                    long segmentNumber,
+                    long creationTime)
+    {
+        this.file = file;
+        this.segmentNumber = segmentNumber;
+        this.creationTime = creationTime;
+    }
+
+
+    /**
+     * Add a record that has been written to the end of the segment to the index.
+     *
+     * @param offset file offset of the start of the record
+     * @param length number of bytes in the record including its line terminator
+     * @param guid unique identifier of the record
+     * @param timestamp time that the record was created
+     * @param severity severity of the record
+     * @param component name of the component that wrote the record
+     */
+    void recordAppended(long   offset,
+                        long   length,
+                        String guid,
+                        long   timestamp,
+                        String severity,
+                        String component)
+    {
+        int recordIndex = (int)recordCount;
+
+        if (recordIndex == guidHashes.length)
+        {
+            guidHashes = Arrays.copyOf(guidHashes, recordIndex * 2);
+            recordOffsets = Arrays.copyOf(recordOffsets, recordIndex * 2);
+        }
+
+        guidHashes[recordIndex] = (guid == null) ? 0 : guid.hashCode();
+        recordOffsets[recordIndex] = offset;
+
+        if (recordIndex % RECORDS_PER_BLOCK == 0)
+        {
+            timeBlocks.add(new TimeBlock(offset));
+        }
+
+        timeBlocks.get(timeBlocks.size() - 1).addRecord(timestamp);
+
+        if (severity != null)
+        {
+            severities.add(severity);
+        }
+
+        if (component != null)
+        {
+            components.add(component);
+        }
+
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        size = offset + length;
+        recordCount++;
+    }
+
+
+    /**
+     * Return whether the segment could hold records matching the query.
+     *
+     * @param startTime earliest time stamp
+     * @param endTime latest time stamp
+     * @param severity required severity or null for any
+     * @param component required component name or null for any
+     * @return boolean
+     */
+    boolean mayContain(long   startTime,
+                       long   endTime,
+                       String severity,
+                       String component)
+    {
+        if ((recordCount == 0) || (maxTimestamp < startTime) || (minTimestamp > endTime))
+        {
+            return false;
+        }
+
+        if ((severity != null) && (! severities.contains(severity)))
+        {
+            return false;
+        }
+
+        return (component == null) || (components.contains(component));
+    }
+
+
+    /**
+     * Return the blocks of records that overlap the time period.
+     *
+     * @param startTime earliest time stamp
+     * @param endTime latest time stamp
+     * @return list of blocks in file order
+     */
+    List<TimeBlock> getTimeBlocks(long startTime,
+                                  long endTime)
+    {
+        List<TimeBlock> matchingBlocks = new ArrayList<>();
+
+        for (TimeBlock timeBlock : timeBlocks)
+        {
+            if ((timeBlock.maxTimestamp >= startTime) && (timeBlock.minTimestamp <= endTime))
+            {
+                matchingBlocks.add(timeBlock);
+            }
+        }
+
+        return matchingBlocks;
+    }
+
+
+    /**
+     * Return the file offsets of the records whose GUID has the same hash as the requested GUID.
+     * The most recently written records are returned first.
+     *
+     * @param guid unique identifier of the record
+     * @return list of candidate file offsets
+     */
+    List<Long> getCandidateOffsets(String guid)
+    {
+        List<Long> offsets  = new ArrayList<>();
+        int        guidHash = guid.hashCode();
+
+        for (int recordIndex = (int)recordCount - 1; recordIndex >= 0; recordIndex--)
+        {
+            if (guidHashes[recordIndex] == guidHash)
+            {
+                offsets.add(recordOffsets[recordIndex]);
+            }
+        }
+
+        return offsets;
+    }
+
+
+    /**
+     * Return the file holding the records.
+     *
+     * @return file
+     */
+    File getFile()
+    {
+        return file;
+    }
+
+
+    /**
+     * Return the sequence number of the segment.
+     *
+     * @return long
+     */
+    long getSegmentNumber()
+    {
+        return segmentNumber;
+    }
+
+
+    /**
+     * Return the time that the segment was started.
+     *
+     * @return milliseconds since the epoch
+     */
+    long getCreationTime()
+    {
+        return creationTime;
+    }
+
+
+    /**
+     * Return the number of bytes written to the segment.
+     *
+     * @return long
+     */
+    long getSize()
+    {
+        return size;
+    }
+
+
+    /**
+     * Return the number of records in the segment.
+     *
+     * @return long
+     */
+    long getRecordCount()
+    {
+        return recordCount;
+    }
+
+
+    /**
+     * Return the latest time stamp of the records in the segment.
+     *
+     * @return milliseconds since the epoch
+     */
+    long getMaxTimestamp()
+    {
+        return maxTimestamp;
+    }
+
+
+    /**
+     * A block of consecutive records in the segment.
+     */
+    static class TimeBlock
+    {
+        private final long startOffset;
+        private int        recordCount  = 0;
+        private long       minTimestamp = Long.MAX_VALUE;
+        private long       maxTimestamp = Long.MIN_VALUE;
+
+        TimeBlock(long startOffset)
+        {
+            this.startOffset = startOffset;
+        }
+
+
+        void addRecord(long timestamp)
+        {
+            recordCount++;
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+        }
+
+
+        /**
+         * Return the file offset of the first record in the block.
+         *
+         * @return long
+         */
+        long getStartOffset()
+        {
+            return startOffset;
+        }
+
+
+        /**
+         * Return the number of records in the block.
+         *
+         * @return int
+         */
+        int getRecordCount()
+        {
+            return recordCount;
+        }
+    }
+}
@@ -0,0 +1,1005 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogReportingComponent;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuditLogSegmentStore manages a directory of audit log segments.  Records are written by a background
+ * thread that takes all of the records queued since its last write and appends them to the current segment
+ * with a single flush (group commit).  A new segment is started when the current one reaches its maximum
+ * size or age, and the oldest segments are deleted when the log exceeds its retention size or age.
+ * <br><br>
+ * Queries wait for the records already queued to be written and then use the sparse index of each
+ * segment to read only the blocks of records that may match.  The blocks are chosen and the segment
+ * files opened while the store is locked.  The files are then read without the lock so that queries
+ * do not hold up the writer or each other.
+ */
+class AuditLogSegmentStore implements Runnable
+{
+    private static final Logger log = LoggerFactory.getLogger(AuditLogSegmentStore.class);
+
+    private static final String segmentFilePrefix   = "audit-log-";
+    private static final String segmentFileSuffix   = ".ndjson";
+    private static final int    maxBatchSize        = 1000;
+    private static final long   idleWaitTime        = 1000;
+    private static final long   housekeepingInterval = 60000;
+    private static final long   closeWaitTime       = 10000;
+
+    /*
+     * Jackson readers and writers are thread-safe so they are shared by all of the stores.
+     */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectReader recordReader = objectMapper.readerFor(OMRSAuditLogRecord.class);
+    private static final ObjectWriter recordWriter = objectMapper.writerFor(OMRSAuditLogRecord.class);
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final long maxSegmentAge;
+    private final long retentionSize;
+    private final long retentionAge;
+
+    private final BlockingQueue<PendingRecord> pendingRecords    = new LinkedBlockingQueue<>();
+    private final AtomicLong                   queuedRecordCount = new AtomicLong(0);
+    private final Object                       writeMonitor      = new Object();
+    private long                               writtenRecordCount = 0;
+
+    private final List<AuditLogSegment> segments       = new ArrayList<>();
+    private AuditLogSegment             currentSegment = null;
+    private OutputStream                currentOutput  = null;
+
+    private volatile boolean running      = false;
+    private Thread           writerThread = null;
+
+
+    /**
+     * Constructor.
+     *
+     * @param directory directory holding the segments
+     * @param maxSegmentSize number of bytes written to a segment before a new segment is started
+     * @param maxSegmentAge number of milliseconds a segment is written to before a new segment is started - zero means no limit
+     * @param retentionSize maximum number of bytes kept in the log - zero means no limit
+     * @param retentionAge number of milliseconds that records are kept for - zero means no limit
+     */
+    AuditLogSegmentStore(File directory,
+                         long maxSegmentSize,
+                         long maxSegmentAge,
+                         long retentionSize,
+                         long retentionAge)
+    {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSegmentAge = maxSegmentAge;
+        this.retentionSize = retentionSize;
+        this.retentionAge = retentionAge;
+    }
+
+
+    /**
+     * Rebuild the index of the existing segments, start a new segment and start the writer thread.
+     *
+     * @throws IOException the directory is not usable
+     */
+    synchronized void open() throws IOException
+    {
+        FileUtils.forceMkdir(directory);
+
+        long   nextSegmentNumber = 1;
+        File[] segmentFiles      = directory.listFiles((dir, name) -> name.startsWith(segmentFilePrefix) && name.endsWith(segmentFileSuffix));
+
+        if (segmentFiles != null)
+        {
+            List<AuditLogSegment> existingSegments = new ArrayList<>();
+
+            for (File segmentFile : segmentFiles)
+            {
+                String fileName = segmentFile.getName();
+
+                try
+                {
+                    long segmentNumber = Long.parseLong(fileName.substring(segmentFilePrefix.length(),
+                                                                           fileName.length() - segmentFileSuffix.length()));
+
+                    existingSegments.add(new AuditLogSegment(segmentFile, segmentNumber, segmentFile.lastModified()));
+                }
+                catch (NumberFormatException error)
+                {
+                    log.debug("Ignoring file " + fileName + " in audit log directory");
+                }
+            }
+
+            existingSegments.sort((one, two) -> Long.compare(one.getSegmentNumber(), two.getSegmentNumber()));
+
+            for (AuditLogSegment segment : existingSegments)
+            {
+                this.loadSegment(segment);
+                segments.add(segment);
+                nextSegmentNumber = segment.getSegmentNumber() + 1;
+            }
+        }
+
+        this.startSegment(nextSegmentNumber);
+        this.applyRetention();
+
+        running = true;
+        writerThread = new Thread(this, "FileBasedAuditLogStore-Writer: " + directory.getName());
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+
+    /**
+     * Queue a log record to be written by the writer thread.
+     *
+     * @param logRecord log record
+     * @throws IOException the record can not be converted to JSON or the store is closed
+     */
+    void append(OMRSAuditLogRecord logRecord) throws IOException
+    {
+        if (! running)
+        {
+            throw new IOException("Audit log store " + directory.getPath() + " is not open");
+        }
+
+        pendingRecords.add(new PendingRecord(logRecord, recordWriter.writeValueAsString(logRecord)));
+        queuedRecordCount.incrementAndGet();
+    }
+
+
+    /**
+     * Write the queued records until the store is closed.
+     */
+    @Override
+    public void run()
+    {
+        List<PendingRecord> batch                = new ArrayList<>();
+        long                nextHousekeepingTime = System.currentTimeMillis() + housekeepingInterval;
+
+        while ((running) || (! pendingRecords.isEmpty()))
+        {
+            try
+            {
+                PendingRecord firstRecord = pendingRecords.poll(idleWaitTime, TimeUnit.MILLISECONDS);
+
+                if (firstRecord != null)
+                {
+                    batch.add(firstRecord);
+                    pendingRecords.drainTo(batch, maxBatchSize - 1);
+
+                    this.writeBatch(batch);
+                }
+
+                if (System.currentTimeMillis() >= nextHousekeepingTime)
+                {
+                    this.housekeeping();
+                    nextHousekeepingTime = System.currentTimeMillis() + housekeepingInterval;
+                }
+            }
+            catch (InterruptedException wakeUp)
+            {
+                log.debug("Audit log writer woken up");
+            }
+            catch (Exception error)
+            {
+                log.error("Unusable Server Audit Log Store :(", error);
+            }
+            finally
+            {
+                batch.clear();
+            }
+        }
+
+        synchronized (this)
+        {
+            this.closeCurrentOutput();
+        }
+    }
+
+
+    /**
+     * Append a batch of records to the current segment and flush them in one operation.  The waiting
+     * queries are released even if the write fails.
+     *
+     * @param batch records to write
+     * @throws IOException problem writing to the file
+     */
+    private void writeBatch(List<PendingRecord> batch) throws IOException
+    {
+        try
+        {
+            synchronized (this)
+            {
+                for (PendingRecord pendingRecord : batch)
+                {
+                    if (this.isSegmentComplete())
+                    {
+                        this.rollSegment();
+                    }
+
+                    byte[]             recordBytes = (pendingRecord.json + "\n").getBytes(StandardCharsets.UTF_8);
+                    OMRSAuditLogRecord logRecord   = pendingRecord.logRecord;
+                    long               offset      = currentSegment.getSize();
+
+                    currentOutput.write(recordBytes);
+                    currentSegment.recordAppended(offset,
+                                                  recordBytes.length,
+                                                  logRecord.getGUID(),
+                                                  getTimestamp(logRecord),
+                                                  logRecord.getSeverity(),
+                                                  getComponentName(logRecord));
+                }
+
+                currentOutput.flush();
+            }
+        }
+        finally
+        {
+            synchronized (writeMonitor)
+            {
+                writtenRecordCount += batch.size();
+                writeMonitor.notifyAll();
+            }
+        }
+    }
+
+
+    /**
+     * Start a new segment if the current one is too old and delete the segments that are outside of the
+     * retention period.
+     *
+     * @throws IOException problem with the files
+     */
+    private synchronized void housekeeping() throws IOException
+    {
+        if (this.isSegmentComplete())
+        {
+            this.rollSegment();
+        }
+        else
+        {
+            this.applyRetention();
+        }
+    }
+
+
+    /**
+     * Return whether the current segment should be closed before more records are written.
+     *
+     * @return boolean
+     */
+    private boolean isSegmentComplete()
+    {
+        if (currentSegment.getRecordCount() == 0)
+        {
+            return false;
+        }
+
+        if ((maxSegmentSize > 0) && (currentSegment.getSize() >= maxSegmentSize))
+        {
+            return true;
+        }
+
+        return (maxSegmentAge > 0) && (System.currentTimeMillis() - currentSegment.getCreationTime() >= maxSegmentAge);
+    }
+
+
+    /**
+     * Close the current segment and start the next one.
+     *
+     * @throws IOException problem with the files
+     */
+    private void rollSegment() throws IOException
+    {
+        this.closeCurrentOutput();
+        this.startSegment(currentSegment.getSegmentNumber() + 1);
+        this.applyRetention();
+    }
+
+
+    /**
+     * Create the file for a new segment.
+     *
+     * @param segmentNumber sequence number of the segment
+     * @throws IOException unable to create the file
+     */
+    private void startSegment(long segmentNumber) throws IOException
+    {
+        File segmentFile = new File(directory, String.format("%s%012d%s", segmentFilePrefix, segmentNumber, segmentFileSuffix));
+
+        currentSegment = new AuditLogSegment(segmentFile, segmentNumber, System.currentTimeMillis());
+        currentOutput = new BufferedOutputStream(new FileOutputStream(segmentFile, false), 65536);
+
+        segments.add(currentSegment);
+    }
+
+
+    /**
+     * Close the file of the current segment.
+     */
+    private void closeCurrentOutput()
+    {
+        if (currentOutput != null)
+        {
+            try
+            {
+                currentOutput.close();
+            }
+            catch (IOException error)
+            {
+                log.error("Unable to close audit log segment " + currentSegment.getFile().getPath(), error);
+            }
+
+            currentOutput = null;
+        }
+    }
+
+
+    /**
+     * Delete the oldest segments while the log is larger than its retention size or the segments only
+     * hold records that are older than the retention age.  The current segment is never deleted.
+     */
+    private void applyRetention()
+    {
+        if ((retentionSize <= 0) && (retentionAge <= 0))
+        {
+            return;
+        }
+
+        long totalSize = 0;
+
+        for (AuditLogSegment segment : segments)
+        {
+            totalSize += segment.getSize();
+        }
+
+        long                      oldestRetainedTime = System.currentTimeMillis() - retentionAge;
+        Iterator<AuditLogSegment> iterator           = segments.iterator();
+
+        while (iterator.hasNext())
+        {
+            AuditLogSegment segment = iterator.next();
+
+            if (segment == currentSegment)
+            {
+                break;
+            }
+
+            boolean tooLarge = (retentionSize > 0) && (totalSize > retentionSize);
+            boolean tooOld   = (retentionAge > 0) && (segment.getMaxTimestamp() < oldestRetainedTime);
+
+            if ((! tooLarge) && (! tooOld))
+            {
+                break;
+            }
+
+            log.debug("Deleting audit log segment " + segment.getFile().getPath());
+
+            if ((! segment.getFile().delete()) && (segment.getFile().exists()))
+            {
+                log.error("Unable to delete audit log segment " + segment.getFile().getPath());
+                break;
+            }
+
+            totalSize -= segment.getSize();
+            iterator.remove();
+        }
+    }
+
+
+    /**
+     * Rebuild the index of a segment from its file.  A partially written last record is ignored, as are
+     * unreadable records.  These are not counted in the index blocks so the queries skip them too.
+     *
+     * @param segment segment to load
+     * @throws IOException problem reading the file
+     */
+    private void loadSegment(AuditLogSegment segment) throws IOException
+    {
+        try (SegmentReader reader = new SegmentReader(segment.getFile()))
+        {
+            reader.readLines(0, (offset, length, line) ->
+            {
+                OMRSAuditLogRecord logRecord = readRecord(segment, offset, line);
+
+                if (logRecord != null)
+                {
+                    segment.recordAppended(offset,
+                                           length,
+                                           logRecord.getGUID(),
+                                           getTimestamp(logRecord),
+                                           logRecord.getSeverity(),
+                                           getComponentName(logRecord));
+                }
+
+                return true;
+            });
+        }
+    }
+
+
+    /**
+     * Parse a line of a segment.  An unreadable line is logged and skipped by every reader of the segment.
+     *
+     * @param segment segment that the line was read from
+     * @param offset file offset of the start of the line
+     * @param line contents of the line
+     * @return log record or null if the line is unreadable
+     */
+    private static OMRSAuditLogRecord readRecord(AuditLogSegment segment,
+                                                 long            offset,
+                                                 String          line)
+    {
+        try
+        {
+            return recordReader.readValue(line);
+        }
+        catch (IOException error)
+        {
+            log.error("Ignoring unreadable record at offset " + offset + " in audit log segment " + segment.getFile().getPath(), error);
+
+            return null;
+        }
+    }
+
+
+    /**
+     * Wait for the records that have already been queued to be written.
+     */
+    private void waitForPendingRecords()
+    {
+        long queuedRecords = queuedRecordCount.get();
+
+        synchronized (writeMonitor)
+        {
+            while ((writtenRecordCount < queuedRecords) && (writerThread != null) && (writerThread.isAlive()))
+            {
+                try
+                {
+                    writeMonitor.wait(idleWaitTime);
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the log records that match the query in the order that they were written.
+     *
+     * @param startDate start of time period - null means no lower bound
+     * @param endDate end of time period - null means no upper bound
+     * @param severity required severity - null means any
+     * @param component required component name - null means any
+     * @param offset number of matching records to skip
+     * @param maximumRecords maximum number of records to return - zero means no limit
+     * @return list of log records (may be empty)
+     * @throws IOException problem reading the segments
+     */
+    List<OMRSAuditLogRecord> findRecords(Date   startDate,
+                                         Date   endDate,
+                                         String severity,
+                                         String component,
+                                         int    offset,
+                                         int    maximumRecords) throws IOException
+    {
+        this.waitForPendingRecords();
+
+        long                  startTime = (startDate == null) ? Long.MIN_VALUE : startDate.getTime();
+        long                  endTime   = (endDate == null) ? Long.MAX_VALUE : endDate.getTime();
+        RecordCollector       collector = new RecordCollector(startTime, endTime, severity, component, offset, maximumRecords);
+        List<SegmentReadPlan> readPlans = new ArrayList<>();
+
+        try
+        {
+            /*
+             * The writer adds records to the index of the current segment, so the blocks to read are copied
+             * while the store is locked.  Every record in the copy has been flushed to the file.
+             */
+            synchronized (this)
+            {
+                for (AuditLogSegment segment : segments)
+                {
+                    if (segment.mayContain(startTime, endTime, severity, component))
+                    {
+                        SegmentReadPlan readPlan = openSegment(segment);
+
+                        if (readPlan != null)
+                        {
+                            readPlans.add(readPlan);
+
+                            for (AuditLogSegment.TimeBlock timeBlock : segment.getTimeBlocks(startTime, endTime))
+                            {
+                                readPlan.addBlock(timeBlock.getStartOffset(), timeBlock.getRecordCount());
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (SegmentReadPlan readPlan : readPlans)
+            {
+                for (int blockIndex = 0; blockIndex < readPlan.startOffsets.size(); blockIndex++)
+                {
+                    collector.startBlock(readPlan.segment, readPlan.recordCounts.get(blockIndex));
+                    readPlan.reader.readLines(readPlan.startOffsets.get(blockIndex), collector);
+
+                    if (collector.isFull())
+                    {
+                        return collector.getResults();
+                    }
+                }
+            }
+
+            return collector.getResults();
+        }
+        finally
+        {
+            closeSegments(readPlans);
+        }
+    }
+
+
+    /**
+     * Return the log record with the requested unique identifier.
+     *
+     * @param guid unique identifier of the record
+     * @return log record or null if it is not in the store
+     * @throws IOException problem reading the segments
+     */
+    OMRSAuditLogRecord getRecord(String guid) throws IOException
+    {
+        this.waitForPendingRecords();
+
+        List<SegmentReadPlan> readPlans = new ArrayList<>();
+
+        try
+        {
+            synchronized (this)
+            {
+                for (int segmentIndex = segments.size() - 1; segmentIndex >= 0; segmentIndex--)
+                {
+                    AuditLogSegment segment          = segments.get(segmentIndex);
+                    List<Long>      candidateOffsets = segment.getCandidateOffsets(guid);
+
+                    if (! candidateOffsets.isEmpty())
+                    {
+                        SegmentReadPlan readPlan = openSegment(segment);
+
+                        if (readPlan != null)
+                        {
+                            readPlans.add(readPlan);
+
+                            for (long offset : candidateOffsets)
+                            {
+                                readPlan.addBlock(offset, 1);
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (SegmentReadPlan readPlan : readPlans)
+            {
+                for (long offset : readPlan.startOffsets)
+                {
+                    List<OMRSAuditLogRecord> logRecords = new ArrayList<>();
+
+                    readPlan.reader.readLines(offset, (lineOffset, length, line) ->
+                    {
+                        OMRSAuditLogRecord logRecord = readRecord(readPlan.segment, lineOffset, line);
+
+                        if (logRecord != null)
+                        {
+                            logRecords.add(logRecord);
+                        }
+
+                        return false;
+                    });
+
+                    if ((! logRecords.isEmpty()) && (guid.equals(logRecords.get(0).getGUID())))
+                    {
+                        return logRecords.get(0);
+                    }
+                }
+            }
+
+            return null;
+        }
+        finally
+        {
+            closeSegments(readPlans);
+        }
+    }
+
+
+    /**
+     * Return the number of segments in the store.
+     *
+     * @return int
+     */
+    synchronized int getSegmentCount()
+    {
+        return segments.size();
+    }
+
+
+    /**
+     * Stop the writer thread once it has written the queued records.
+     */
+    void close()
+    {
+        running = false;
+
+        if (writerThread != null)
+        {
+            writerThread.interrupt();
+
+            try
+            {
+                writerThread.join(closeWaitTime);
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Open a segment for a query.  This is called while the store is locked so that the query can still
+     * read the segment if retention deletes it while the query is running.  A segment whose file has
+     * been removed from the directory is skipped.
+     *
+     * @param segment segment to open
+     * @return read plan with no blocks, or null if the file is missing
+     * @throws IOException problem opening the file
+     */
+    private static SegmentReadPlan openSegment(AuditLogSegment segment) throws IOException
+    {
+        try
+        {
+            return new SegmentReadPlan(segment, new SegmentReader(segment.getFile()));
+        }
+        catch (NoSuchFileException deleted)
+        {
+            log.error("Audit log segment " + segment.getFile().getPath() + " is missing");
+
+            return null;
+        }
+    }
+
+
+    /**
+     * Close the segments opened for a query.
+     *
+     * @param readPlans segments opened by the query
+     */
+    private static void closeSegments(List<SegmentReadPlan> readPlans)
+    {
+        for (SegmentReadPlan readPlan : readPlans)
+        {
+            try
+            {
+                readPlan.reader.close();
+            }
+            catch (IOException error)
+            {
+                log.error("Unable to close audit log segment " + readPlan.segment.getFile().getPath(), error);
+            }
+        }
+    }
+
+
+    /**
+     * Return the time stamp of a log record.
+     *
+     * @param logRecord log record
+     * @return milliseconds since the epoch - zero if not set
+     */
+    private static long getTimestamp(OMRSAuditLogRecord logRecord)
+    {
+        if (logRecord.getTimeStamp() == null)
+        {
+            return 0;
+        }
+
+        return logRecord.getTimeStamp().getTime();
+    }
+
+
+    /**
+     * Return the name of the component that wrote a log record.
+     *
+     * @param logRecord log record
+     * @return component name or null
+     */
+    private static String getComponentName(OMRSAuditLogRecord logRecord)
+    {
+        AuditLogReportingComponent reportingComponent = logRecord.getOriginatorComponent();
+
+        if (reportingComponent == null)
+        {
+            return null;
+        }
+
+        return reportingComponent.getComponentName();
+    }
+
+
+    /**
+     * Receives the lines read from a segment.
+     */
+    private interface LineHandler
+    {
+        /**
+         * Process a line.
+         *
+         * @param offset file offset of the start of the line
+         * @param length number of bytes in the line including its terminator
+         * @param line contents of the line
+         * @return true to continue reading
+         * @throws IOException problem processing the line
+         */
+        boolean processLine(long   offset,
+                            long   length,
+                            String line) throws IOException;
+    }
+
+
+    /**
+     * An open segment and the blocks that a query will read from it, copied from the segment's index
+     * while the store is locked.
+     */
+    private static class SegmentReadPlan
+    {
+        private final AuditLogSegment segment;
+        private final SegmentReader   reader;
+        private final List<Long>      startOffsets = new ArrayList<>();
+        private final List<Integer>   recordCounts = new ArrayList<>();
+
+        SegmentReadPlan(AuditLogSegment segment,
+                        SegmentReader   reader)
+        {
+            this.segment = segment;
+            this.reader = reader;
+        }
+
+
+        void addBlock(long startOffset,
+                      int  recordCount)
+        {
+            startOffsets.add(startOffset);
+            recordCounts.add(recordCount);
+        }
+    }
+
+
+    /**
+     * Reads the lines of a segment file through a single open channel.  Blocks are read in file order,
+     * so a block that starts within the bytes already buffered is read without going back to the file.
+     */
+    private static class SegmentReader implements Closeable
+    {
+        private final FileChannel channel;
+        private final ByteBuffer  buffer       = ByteBuffer.allocate(65536);
+        private long              bufferOffset = 0;
+
+        SegmentReader(File file) throws IOException
+        {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.buffer.limit(0);
+        }
+
+
+        /**
+         * Read complete lines starting at an offset.
+         *
+         * @param startOffset offset of the first line
+         * @param lineHandler receives each line - returns false to stop reading
+         * @throws IOException problem reading the file
+         */
+        void readLines(long        startOffset,
+                       LineHandler lineHandler) throws IOException
+        {
+            if ((startOffset >= bufferOffset) && (startOffset <= bufferOffset + buffer.limit()))
+            {
+                buffer.position((int)(startOffset - bufferOffset));
+            }
+            else
+            {
+                bufferOffset = startOffset;
+                buffer.clear().limit(0);
+            }
+
+            ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream(1024);
+            long                  lineOffset = startOffset;
+
+            while (true)
+            {
+                if (! buffer.hasRemaining())
+                {
+                    bufferOffset += buffer.limit();
+                    buffer.clear();
+
+                    int bytesRead = channel.read(buffer, bufferOffset);
+
+                    buffer.flip();
+
+                    if (bytesRead <= 0)
+                    {
+                        return;
+                    }
+                }
+
+                byte nextByte = buffer.get();
+
+                if (nextByte == '\n')
+                {
+                    String line     = new String(lineBuffer.toByteArray(), StandardCharsets.UTF_8);
+                    long   position = bufferOffset + buffer.position();
+
+                    lineBuffer.reset();
+
+                    if (! lineHandler.processLine(lineOffset, position - lineOffset, line))
+                    {
+                        return;
+                    }
+
+                    lineOffset = position;
+                }
+                else
+                {
+                    lineBuffer.write(nextByte);
+                }
+            }
+        }
+
+
+        @Override
+        public void close() throws IOException
+        {
+            channel.close();
+        }
+    }
+
+
+    /**
+     * A log record waiting to be written.
+     */
+    private static class PendingRecord
+    {
+        private final OMRSAuditLogRecord logRecord;
+        private final String             json;
+
+        PendingRecord(OMRSAuditLogRecord logRecord,
+                      String             json)
+        {
+            this.logRecord = logRecord;
+            this.json = json;
+        }
+    }
+
+
+    /**
+     * Filters the records read from the blocks of the segments and collects the requested page.
+     */
+    private static class RecordCollector implements LineHandler
+    {
+        private final long   startTime;
+        private final long   endTime;
+        private final String severity;
+        private final String component;
+        private final int    offset;
+        private final int    maximumRecords;
+
+        private final List<OMRSAuditLogRecord> results = new ArrayList<>();
+        private AuditLogSegment                segment          = null;
+        private int                            skippedRecords   = 0;
+        private int                            remainingInBlock = 0;
+
+        RecordCollector(long   startTime,
+                        long   endTime,
+                        String severity,
+                        String component,
+                        int    offset,
+                        int    maximumRecords)
+        {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.severity = severity;
+            this.component = component;
+            this.offset = offset;
+            this.maximumRecords = maximumRecords;
+        }
+
+
+        void startBlock(AuditLogSegment segment,
+                        int             recordCount)
+        {
+            this.segment = segment;
+            this.remainingInBlock = recordCount;
+        }
+
+
+        boolean isFull()
+        {
+            return (maximumRecords > 0) && (results.size() >= maximumRecords);
+        }
+
+
+        List<OMRSAuditLogRecord> getResults()
+        {
+            return results;
+        }
+
+
+        @Override
+        public boolean processLine(long   lineOffset,
+                                   long   length,
+                                   String line)
+        {
+            OMRSAuditLogRecord logRecord = readRecord(segment, lineOffset, line);
+
+            /*
+             * Unreadable lines were left out of the block's record count when the segment was loaded.
+             */
+            if (logRecord == null)
+            {
+                return true;
+            }
+
+            remainingInBlock--;
+
+            long timestamp = getTimestamp(logRecord);
+
+            if ((timestamp >= startTime) && (timestamp <= endTime) &&
+                ((severity == null) || (severity.equals(logRecord.getSeverity()))) &&
+                ((component == null) || (component.equals(getComponentName(logRecord)))))
+            {
+                if (skippedRecords < offset)
+                {
+                    skippedRecords++;
+                }
+                else
+                {
+                    results.add(logRecord);
+                }
+            }
+
+            return (remainingInBlock > 0) && (! this.isFull());
+        }
+    }
+}
@@ -3,8 +3,8 @@
 package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.io.FileUtils;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
@@ -18,19 +18,29 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
  * FileBasedAuditLogStoreConnector provides a connector implementation for a file based audit log.
- * The audit log is stored in a directory and each audit log record is stored as a file with a filename build
- * from the record's unique identifier (guid).
+ * The audit log is stored in a directory as a sequence of append-only segment files.  Each segment holds
+ * newline-delimited JSON audit log records and is indexed in memory so that the audit log can be queried
+ * by time, severity, component and unique identifier (guid).  Records written by earlier releases as one
+ * file per record can still be retrieved by their guid.
  */
 public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorBase
 {
     private static final String defaultDirectoryTemplate = "omag.server.auditlog";
 
+    private static final long   bytesPerMegabyte      = 1024 * 1024;
+    private static final long   millisecondsPerMinute = 60 * 1000;
+    private static final long   millisecondsPerDay    = 24 * 60 * millisecondsPerMinute;
+
     private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogStoreConnector.class);
 
-    private String configStoreTemplateName  = null;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String               configStoreTemplateName  = null;
+    private AuditLogSegmentStore segmentStore             = null;
 
 
     /**
@@ -42,7 +52,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
 
 
     /**
-     * Set up the name of the file store
+     * Set up the name of the file store, rebuild the index of the existing segments and start the writer.
      *
      * @throws ConnectorCheckedException something went wrong
      */
@@ -63,11 +73,30 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
             configStoreTemplateName = defaultDirectoryTemplate;
         }
 
+        Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+        long maxSegmentSize = getLongProperty(configurationProperties,
+                                              FileBasedAuditLogStoreProvider.maxSegmentSizeProperty,
+                                              FileBasedAuditLogStoreProvider.defaultMaxSegmentSize);
+        long maxSegmentAge  = getLongProperty(configurationProperties,
+                                              FileBasedAuditLogStoreProvider.maxSegmentAgeProperty,
+                                              FileBasedAuditLogStoreProvider.defaultMaxSegmentAge);
+        long retentionSize  = getLongProperty(configurationProperties,
+                                              FileBasedAuditLogStoreProvider.retentionSizeProperty,
+                                              0);
+        long retentionAge   = getLongProperty(configurationProperties,
+                                              FileBasedAuditLogStoreProvider.retentionAgeProperty,
+                                              0);
+
+        segmentStore = new AuditLogSegmentStore(new File(configStoreTemplateName),
+                                                maxSegmentSize * bytesPerMegabyte,
+                                                maxSegmentAge * millisecondsPerMinute,
+                                                retentionSize * bytesPerMegabyte,
+                                                retentionAge * millisecondsPerDay);
+
         try
         {
-            File         configStoreDirectory = new File(configStoreTemplateName);
-
-            FileUtils.forceMkdir(configStoreDirectory);
+            segmentStore.open();
         }
         catch (IOException ioException)
         {
@@ -76,6 +105,43 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     }
 
 
+    /**
+     * Extract a numeric configuration property.
+     *
+     * @param configurationProperties properties from the connection
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return value
+     */
+    private long getLongProperty(Map<String, Object> configurationProperties,
+                                 String              propertyName,
+                                 long                defaultValue)
+    {
+        if (configurationProperties != null)
+        {
+            Object propertyValue = configurationProperties.get(propertyName);
+
+            if (propertyValue instanceof Number)
+            {
+                return ((Number) propertyValue).longValue();
+            }
+            else if (propertyValue != null)
+            {
+                try
+                {
+                    return Long.parseLong(propertyValue.toString());
+                }
+                catch (NumberFormatException error)
+                {
+                    log.error("Ignoring invalid value " + propertyValue + " for audit log property " + propertyName);
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+
     /**
      * Store the audit log record in the audit log store.
      *
@@ -94,12 +160,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
         {
             try
             {
-                File configStoreFile =
-                        new File(configStoreTemplateName + "/log-record-" + logRecord.getGUID());
-                ObjectMapper objectMapper    = new ObjectMapper();
-
-                String configStoreFileContents = objectMapper.writeValueAsString(logRecord);
-                FileUtils.writeStringToFile(configStoreFile, configStoreFileContents, (String)null, false);
+                segmentStore.append(logRecord);
             }
             catch (IOException ioException)
             {
@@ -125,7 +186,34 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     {
         final String methodName = "getAuditLogRecord";
 
-        return null;
+        if (logRecordId == null)
+        {
+            return null;
+        }
+
+        try
+        {
+            OMRSAuditLogRecord logRecord = segmentStore.getRecord(logRecordId);
+
+            if (logRecord == null)
+            {
+                /*
+                 * Records written before the audit log was segmented are stored in their own file.
+                 */
+                File legacyRecordFile = new File(configStoreTemplateName + "/log-record-" + logRecordId);
+
+                if (legacyRecordFile.isFile())
+                {
+                    logRecord = objectMapper.readValue(legacyRecordFile, OMRSAuditLogRecord.class);
+                }
+            }
+
+            return logRecord;
+        }
+        catch (IOException ioException)
+        {
+            throw this.getStoreNotAvailableException(ioException, methodName);
+        }
     }
 
 
@@ -152,7 +240,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     {
         final String methodName = "getAuditLogRecordsByTimeStamp";
 
-        return null;
+        return this.findRecords(startDate, endDate, null, null, offset, maximumRecords, methodName);
     }
 
 
@@ -181,7 +269,7 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     {
         final String methodName = "getAuditLogRecordsBySeverity";
 
-        return null;
+        return this.findRecords(startDate, endDate, severity, null, offset, maximumRecords, methodName);
     }
 
 
@@ -210,18 +298,86 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     {
         final String methodName = "getAuditLogRecordsByComponent";
 
-        return null;
+        return this.findRecords(startDate, endDate, null, component, offset, maximumRecords, methodName);
     }
 
 
     /**
-     * Free up any resources held since the connector is no longer needed.
+     * Retrieve the log records that match a query from the segments.
+     *
+     * @param startDate start of time period - null means no lower bound
+     * @param endDate end of time period - null means no upper bound
+     * @param severity required severity - null means any
+     * @param component required component - null means any
+     * @param offset offset of full collection to begin the return results
+     * @param maximumRecords maximum number of log records to return - zero means no limit
+     * @param methodName calling method
+     * @return list of log records or null if there are none
+     * @throws RepositoryErrorException the segments can not be read
+     */
+    private List<OMRSAuditLogRecord> findRecords(Date   startDate,
+                                                 Date   endDate,
+                                                 String severity,
+                                                 String component,
+                                                 int    offset,
+                                                 int    maximumRecords,
+                                                 String methodName) throws RepositoryErrorException
+    {
+        try
+        {
+            List<OMRSAuditLogRecord> logRecords = segmentStore.findRecords(startDate,
+                                                                           endDate,
+                                                                           severity,
+                                                                           component,
+                                                                           Math.max(offset, 0),
+                                                                           maximumRecords);
+
+            if (logRecords.isEmpty())
+            {
+                return null;
+            }
+
+            return logRecords;
+        }
+        catch (IOException ioException)
+        {
+            throw this.getStoreNotAvailableException(ioException, methodName);
+        }
+    }
+
+
+    /**
+     * Build the exception returned when the segments can not be read.
+     *
+     * @param ioException error from the file system
+     * @param methodName calling method
+     * @return exception to throw
+     */
+    private RepositoryErrorException getStoreNotAvailableException(IOException ioException,
+                                                                   String      methodName)
+    {
+        return new RepositoryErrorException(OMRSErrorCode.AUDIT_LOG_STORE_NOT_AVAILABLE.getMessageDefinition(super.getDestinationName(),
+                                                                                                             ioException.getMessage()),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            ioException);
+    }
+
+
+    /**
+     * Free up any resources held since the connector is no longer needed.  The records that are waiting
+     * to be written are written before the segment is closed.
      *
      * @throws ConnectorCheckedException there is a problem within the connector.
      */
     @Override
     public  void disconnect() throws ConnectorCheckedException
     {
+        if (segmentStore != null)
+        {
+            segmentStore.close();
+        }
+
         super.disconnect();
     }
 }
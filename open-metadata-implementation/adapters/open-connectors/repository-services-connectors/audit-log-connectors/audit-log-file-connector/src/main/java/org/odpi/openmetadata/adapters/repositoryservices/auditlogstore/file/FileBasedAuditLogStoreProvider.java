@@ -5,6 +5,8 @@ package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreProviderBase;
 
+import java.util.List;
+
 /**
  * FileBasedAuditLogStoreProvider is the OCF connector provider for the file based audit log store.
  */
@@ -14,6 +16,29 @@ public class FileBasedAuditLogStoreProvider extends OMRSAuditLogStoreProviderBas
     private static final String  connectorTypeName = "File Based Audit Log Store Connector";
     private static final String  connectorTypeDescription = "Connector supports storing of audit log messages in a file.";
 
+    /**
+     * Size (in megabytes) that the current segment file reaches before a new segment is started.
+     */
+    public static final String maxSegmentSizeProperty = "maxSegmentSizeMB";
+
+    /**
+     * Time (in minutes) that records are written to a segment file before a new segment is started.
+     */
+    public static final String maxSegmentAgeProperty = "maxSegmentAgeMinutes";
+
+    /**
+     * Total size (in megabytes) of the segment files before the oldest segments are deleted.  Zero means no limit.
+     */
+    public static final String retentionSizeProperty = "retentionSizeMB";
+
+    /**
+     * Number of days that records are kept before the segments holding them are deleted.  Zero means no limit.
+     */
+    public static final String retentionAgeProperty = "retentionAgeDays";
+
+    static final long defaultMaxSegmentSize = 10;
+    static final long defaultMaxSegmentAge  = 24 * 60;
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * audit log store implementation.
@@ -32,6 +57,14 @@ public class FileBasedAuditLogStoreProvider extends OMRSAuditLogStoreProviderBas
         connectorType.setDescription(connectorTypeDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
 
+        List<String> recognizedConfigurationProperties = super.getRecognizedConfigurationProperties();
+        recognizedConfigurationProperties.add(maxSegmentSizeProperty);
+        recognizedConfigurationProperties.add(maxSegmentAgeProperty);
+        recognizedConfigurationProperties.add(retentionSizeProperty);
+        recognizedConfigurationProperties.add(retentionAgeProperty);
+
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
+
         super.connectorTypeBean = connectorType;
     }
 }
@@ -0,0 +1,255 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogReportingComponent;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Validate that AuditLogSegmentStore writes, rolls, queries, reopens and expires its segments.
+ */
+public class TestAuditLogSegmentStore
+{
+    private static final long BASE_TIME = 1600000000000L;
+
+    private File directory;
+
+
+    @BeforeMethod
+    void createDirectory() throws Exception
+    {
+        directory = Files.createTempDirectory("audit-log-test").toFile();
+    }
+
+
+    @AfterMethod
+    void deleteDirectory() throws Exception
+    {
+        FileUtils.deleteDirectory(directory);
+    }
+
+
+    @Test
+    void testQueries() throws Exception
+    {
+        AuditLogSegmentStore store = new AuditLogSegmentStore(directory, 4096, 0, 0, 0);
+
+        store.open();
+        appendRecords(store, 0, 200);
+
+        assertTrue(store.getSegmentCount() > 1);
+
+        List<OMRSAuditLogRecord> page = store.findRecords(null, null, null, null, 10, 5);
+
+        assertEquals(page.size(), 5);
+        assertEquals(page.get(0).getGUID(), "guid-10");
+        assertEquals(page.get(4).getGUID(), "guid-14");
+
+        List<OMRSAuditLogRecord> timeRange = store.findRecords(new Date(BASE_TIME + 100), new Date(BASE_TIME + 149), null, null, 0, 0);
+
+        assertEquals(timeRange.size(), 50);
+        assertEquals(timeRange.get(0).getGUID(), "guid-100");
+
+        List<OMRSAuditLogRecord> errors = store.findRecords(null, null, "Error", null, 0, 0);
+
+        assertEquals(errors.size(), 20);
+
+        List<OMRSAuditLogRecord> component = store.findRecords(null, null, null, "Component-3", 0, 0);
+
+        assertEquals(component.size(), 40);
+        assertTrue(store.findRecords(null, null, null, "Unknown", 0, 0).isEmpty());
+
+        assertEquals(store.getRecord("guid-123").getTimeStamp().getTime(), BASE_TIME + 123);
+        assertNull(store.getRecord("guid-999"));
+
+        store.close();
+    }
+
+
+    @Test
+    void testReopen() throws Exception
+    {
+        AuditLogSegmentStore store = new AuditLogSegmentStore(directory, 4096, 0, 0, 0);
+
+        store.open();
+        appendRecords(store, 0, 100);
+        store.close();
+
+        store = new AuditLogSegmentStore(directory, 4096, 0, 0, 0);
+        store.open();
+        appendRecords(store, 100, 10);
+
+        assertEquals(store.findRecords(null, null, null, null, 0, 0).size(), 110);
+        assertNotNull(store.getRecord("guid-42"));
+        assertNotNull(store.getRecord("guid-105"));
+
+        store.close();
+    }
+
+
+    @Test
+    void testRetention() throws Exception
+    {
+        AuditLogSegmentStore store = new AuditLogSegmentStore(directory, 4096, 0, 16384, 0);
+
+        store.open();
+        appendRecords(store, 0, 500);
+
+        List<OMRSAuditLogRecord> remaining = store.findRecords(null, null, null, null, 0, 0);
+
+        assertTrue(remaining.size() < 500);
+        assertEquals(remaining.get(remaining.size() - 1).getGUID(), "guid-499");
+        assertNull(store.getRecord("guid-0"));
+
+        store.close();
+    }
+
+
+    @Test
+    void testUnreadableRecords() throws Exception
+    {
+        AuditLogSegmentStore store = new AuditLogSegmentStore(directory, 1024 * 1024, 0, 0, 0);
+
+        store.open();
+        appendRecords(store, 0, 100);
+        store.close();
+
+        File[] segmentFiles = directory.listFiles();
+
+        assertNotNull(segmentFiles);
+        assertEquals(segmentFiles.length, 1);
+
+        List<String> lines = new ArrayList<>(Files.readAllLines(segmentFiles[0].toPath(), StandardCharsets.UTF_8));
+
+        lines.add(70, "{\"guid\":\"unreadable");
+        lines.add(10, "not a log record");
+        Files.write(segmentFiles[0].toPath(), lines, StandardCharsets.UTF_8);
+
+        store = new AuditLogSegmentStore(directory, 1024 * 1024, 0, 0, 0);
+        store.open();
+
+        List<OMRSAuditLogRecord> allRecords = store.findRecords(null, null, null, null, 0, 0);
+
+        assertEquals(allRecords.size(), 100);
+        assertEquals(allRecords.get(10).getGUID(), "guid-10");
+        assertEquals(allRecords.get(99).getGUID(), "guid-99");
+
+        List<OMRSAuditLogRecord> page = store.findRecords(null, null, null, null, 60, 10);
+
+        assertEquals(page.size(), 10);
+        assertEquals(page.get(0).getGUID(), "guid-60");
+        assertEquals(page.get(9).getGUID(), "guid-69");
+
+        assertEquals(store.findRecords(new Date(BASE_TIME + 64), new Date(BASE_TIME + 99), null, null, 0, 0).size(), 36);
+        assertNotNull(store.getRecord("guid-63"));
+        assertNotNull(store.getRecord("guid-99"));
+
+        store.close();
+    }
+
+
+    @Test
+    void testQueriesWhileWriting() throws Exception
+    {
+        AuditLogSegmentStore store = new AuditLogSegmentStore(directory, 4096, 0, 32768, 0);
+
+        store.open();
+
+        Thread writer = new Thread(() ->
+        {
+            try
+            {
+                appendRecords(store, 0, 2000);
+            }
+            catch (Exception error)
+            {
+                throw new IllegalStateException(error);
+            }
+        });
+
+        writer.start();
+
+        try
+        {
+            /*
+             * Each query sees a consecutive run of records even though segments are written, rolled and
+             * deleted while it reads them.
+             */
+            while (writer.isAlive())
+            {
+                List<OMRSAuditLogRecord> allRecords = store.findRecords(null, null, null, null, 0, 0);
+
+                if (! allRecords.isEmpty())
+                {
+                    int first = Integer.parseInt(allRecords.get(0).getGUID().substring("guid-".length()));
+
+                    for (int i = 0; i < allRecords.size(); i++)
+                    {
+                        assertEquals(allRecords.get(i).getGUID(), "guid-" + (first + i));
+                    }
+
+                    /*
+                     * The record may already have been deleted by retention.
+                     */
+                    String             lastGUID   = allRecords.get(allRecords.size() - 1).getGUID();
+                    OMRSAuditLogRecord lastRecord = store.getRecord(lastGUID);
+
+                    if (lastRecord != null)
+                    {
+                        assertEquals(lastRecord.getGUID(), lastGUID);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            writer.join();
+        }
+
+        List<OMRSAuditLogRecord> allRecords = store.findRecords(null, null, null, null, 0, 0);
+
+        assertEquals(allRecords.get(allRecords.size() - 1).getGUID(), "guid-1999");
+        assertNotNull(store.getRecord("guid-1999"));
+
+        store.close();
+    }
+
+
+    private void appendRecords(AuditLogSegmentStore store,
+                               int                  first,
+                               int                  count) throws Exception
+    {
+        for (int i = first; i < first + count; i++)
+        {
+            OMRSAuditLogRecord         logRecord          = new OMRSAuditLogRecord();
+            AuditLogReportingComponent reportingComponent = new AuditLogReportingComponent();
+
+            reportingComponent.setComponentName("Component-" + (i % 5));
+
+            logRecord.setGUID("guid-" + i);
+            logRecord.setTimeStamp(new Date(BASE_TIME + i));
+            logRecord.setSeverity((i % 10 == 0) ? "Error" : "Information");
+            logRecord.setOriginatorComponent(reportingComponent);
+            logRecord.setMessageText("Test message " + i);
+
+            store.append(logRecord);
+        }
+    }
+}
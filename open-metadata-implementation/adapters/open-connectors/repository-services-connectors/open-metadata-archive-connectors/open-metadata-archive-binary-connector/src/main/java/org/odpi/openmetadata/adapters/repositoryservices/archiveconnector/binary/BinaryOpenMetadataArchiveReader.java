@@ -0,0 +1,560 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.binary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+
+/**
+ * BinaryOpenMetadataArchiveReader reads an open metadata archive written by BinaryOpenMetadataArchiveWriter.
+ * The index at the start of the file is read when the reader is created, followed by the archive properties and
+ * type store.  The sections holding the entities, relationships and classifications are memory-mapped and decoded
+ * only as their batches are requested, so a server that needs just the types does not pay for the instances.
+ */
+class BinaryOpenMetadataArchiveReader implements OpenMetadataArchiveReader
+{
+    private static final int bufferSize = 65536;
+
+    /*
+     * Deflate can not expand data by more than this ratio, so no element in a compressed section can be longer than
+     * the section length multiplied by this ratio.  The lengths in the file are checked against these limits before
+     * any memory is allocated so that a corrupt file is reported rather than exhausting the heap.
+     */
+    private static final long maxInflationRatio = 1032L;
+    private static final int  maxArrayLength    = Integer.MAX_VALUE - 8;
+
+    /*
+     * The instance sections in the order that they are returned.
+     */
+    private static final BinaryOpenMetadataArchiveSection[] instanceSections = { BinaryOpenMetadataArchiveSection.ENTITIES,
+                                                                                  BinaryOpenMetadataArchiveSection.RELATIONSHIPS,
+                                                                                  BinaryOpenMetadataArchiveSection.CLASSIFICATIONS };
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryOpenMetadataArchiveReader.class);
+
+    private final ObjectMapper                                        objectMapper;
+    private final FileChannel                                         channel;
+    private final Map<BinaryOpenMetadataArchiveSection, SectionIndex> sectionIndexes = new EnumMap<>(BinaryOpenMetadataArchiveSection.class);
+
+    private OpenMetadataArchiveProperties archiveProperties = null;
+    private OpenMetadataArchiveTypeStore  archiveTypeStore  = null;
+
+    /*
+     * Variables used to step through the instance sections.
+     */
+    private int           currentSection = -1;
+    private SectionStream currentStream  = null;
+
+
+    /**
+     * Open the archive file, read its index and then its properties and type store.
+     *
+     * @param archiveFile file containing the archive
+     * @param objectMapper mapper for the archive elements
+     * @throws IOException the file can not be read or is not a binary open metadata archive
+     */
+    BinaryOpenMetadataArchiveReader(File         archiveFile,
+                                    ObjectMapper objectMapper) throws IOException
+    {
+        this.objectMapper = objectMapper;
+        this.channel      = FileChannel.open(archiveFile.toPath(), StandardOpenOption.READ);
+
+        try
+        {
+            readIndex(archiveFile.getName());
+
+            List<OpenMetadataArchiveProperties> properties = readSection(BinaryOpenMetadataArchiveSection.ARCHIVE_PROPERTIES);
+
+            if (! properties.isEmpty())
+            {
+                archiveProperties = properties.get(0);
+            }
+
+            if ((sectionIndexes.containsKey(BinaryOpenMetadataArchiveSection.ATTRIBUTE_TYPE_DEFS)) ||
+                (sectionIndexes.containsKey(BinaryOpenMetadataArchiveSection.NEW_TYPE_DEFS)) ||
+                (sectionIndexes.containsKey(BinaryOpenMetadataArchiveSection.TYPE_DEF_PATCHES)))
+            {
+                List<AttributeTypeDef> attributeTypeDefs = readSection(BinaryOpenMetadataArchiveSection.ATTRIBUTE_TYPE_DEFS);
+                List<TypeDef>          newTypeDefs       = readSection(BinaryOpenMetadataArchiveSection.NEW_TYPE_DEFS);
+                List<TypeDefPatch>     typeDefPatches    = readSection(BinaryOpenMetadataArchiveSection.TYPE_DEF_PATCHES);
+
+                archiveTypeStore = new OpenMetadataArchiveTypeStore();
+
+                archiveTypeStore.setAttributeTypeDefs(attributeTypeDefs.isEmpty() ? null : attributeTypeDefs);
+                archiveTypeStore.setNewTypeDefs(newTypeDefs.isEmpty() ? null : newTypeDefs);
+                archiveTypeStore.setTypeDefPatches(typeDefPatches.isEmpty() ? null : typeDefPatches);
+            }
+        }
+        catch (IOException | RuntimeException error)
+        {
+            channel.close();
+            throw error;
+        }
+    }
+
+
+    /**
+     * Read and validate the header and index at the start of the file.
+     *
+     * @param archiveName name of the file for messages
+     * @throws IOException the file is not a binary open metadata archive
+     */
+    private void readIndex(String archiveName) throws IOException
+    {
+        ByteBuffer header = readBytes(0, BinaryOpenMetadataArchiveSection.headerLength);
+
+        if (header.getInt() != BinaryOpenMetadataArchiveSection.magicNumber)
+        {
+            throw new IOException(archiveName + " is not a binary open metadata archive");
+        }
+
+        short version = header.getShort();
+
+        if (version > BinaryOpenMetadataArchiveSection.formatVersion)
+        {
+            throw new IOException(archiveName + " uses binary archive format version " + version +
+                                          " but only versions up to " + BinaryOpenMetadataArchiveSection.formatVersion + " are supported");
+        }
+
+        int        sectionCount = header.getShort();
+        ByteBuffer index        = readBytes(BinaryOpenMetadataArchiveSection.headerLength,
+                                            sectionCount * BinaryOpenMetadataArchiveSection.indexLength);
+        long       fileSize     = channel.size();
+
+        for (int i = 0; i < sectionCount; i++)
+        {
+            BinaryOpenMetadataArchiveSection section      = BinaryOpenMetadataArchiveSection.getSection(index.get());
+            SectionIndex                     sectionIndex = new SectionIndex(index.get(), index.getInt(), index.getLong(), index.getLong());
+
+            if ((sectionIndex.offset < 0) || (sectionIndex.length < 0) || (sectionIndex.offset + sectionIndex.length > fileSize))
+            {
+                throw new IOException(archiveName + " is truncated or corrupt");
+            }
+
+            if (section == null)
+            {
+                log.debug("Ignoring unknown section in " + archiveName);
+            }
+            else if (sectionIndex.elementCount > 0)
+            {
+                sectionIndexes.put(section, sectionIndex);
+            }
+        }
+    }
+
+
+    /**
+     * Read a block of bytes from the file.
+     *
+     * @param position offset of the first byte
+     * @param length number of bytes
+     * @return buffer ready to read
+     * @throws IOException the file is too short
+     */
+    private ByteBuffer readBytes(long position,
+                                 int  length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new IOException("Unexpected end of binary open metadata archive");
+            }
+        }
+
+        buffer.flip();
+
+        return buffer;
+    }
+
+
+    /**
+     * Read all of the elements in a section.
+     *
+     * @param section section to read
+     * @param <T> type of the elements
+     * @return list of elements (may be empty)
+     * @throws IOException the section can not be read
+     */
+    private <T> List<T> readSection(BinaryOpenMetadataArchiveSection section) throws IOException
+    {
+        List<T> elements = new ArrayList<>();
+
+        try (SectionStream sectionStream = openSection(section))
+        {
+            if (sectionStream != null)
+            {
+                sectionStream.readElements(elements, Integer.MAX_VALUE);
+            }
+        }
+
+        return elements;
+    }
+
+
+    /**
+     * Open a stream over the elements of a section.  The section is memory-mapped rather than read into the heap.
+     *
+     * @param section section to open
+     * @return stream or null if the section is empty
+     * @throws IOException the section can not be mapped
+     */
+    private SectionStream openSection(BinaryOpenMetadataArchiveSection section) throws IOException
+    {
+        SectionIndex sectionIndex = sectionIndexes.get(section);
+
+        if (sectionIndex == null)
+        {
+            return null;
+        }
+
+        /*
+         * A mapped buffer is limited to Integer.MAX_VALUE bytes.
+         */
+        if (sectionIndex.length > Integer.MAX_VALUE)
+        {
+            throw new IOException("Section " + section + " of the binary open metadata archive is " + sectionIndex.length +
+                                          " bytes long which is more than the maximum of " + Integer.MAX_VALUE);
+        }
+
+        ByteBuffer sectionBuffer = channel.map(FileChannel.MapMode.READ_ONLY, sectionIndex.offset, sectionIndex.length);
+
+        return new SectionStream(objectMapper.readerFor(section.getElementClass()), sectionBuffer, sectionIndex);
+    }
+
+
+    /**
+     * Return details of the archive.
+     *
+     * @return OpenMetadataArchiveProperties object or null if the archive has no header
+     */
+    @Override
+    public OpenMetadataArchiveProperties getArchiveProperties()
+    {
+        return archiveProperties;
+    }
+
+
+    /**
+     * Return the TypeStore for this archive.  The TypeStore contains TypeDefs and TypeDef patches.
+     *
+     * @return OpenMetadataArchiveTypeStore object or null if the archive has no types
+     */
+    @Override
+    public OpenMetadataArchiveTypeStore getArchiveTypeStore()
+    {
+        return archiveTypeStore;
+    }
+
+
+    /**
+     * Return the next batch of instances from the archive.  A batch contains instances of only one kind
+     * (entities, relationships or classifications).
+     *
+     * @param maxBatchSize maximum number of instances to return
+     * @return instance store holding the next batch of instances or null if all of the instances have been returned
+     * @throws IOException the archive could not be read
+     */
+    @SuppressWarnings(value = "unchecked")
+    @Override
+    public synchronized OpenMetadataArchiveInstanceStore getNextInstanceBatch(int maxBatchSize) throws IOException
+    {
+        while ((currentStream == null) || (! currentStream.hasMoreElements()))
+        {
+            if (currentStream != null)
+            {
+                currentStream.close();
+                currentStream = null;
+            }
+
+            currentSection ++;
+
+            if (currentSection >= instanceSections.length)
+            {
+                return null;
+            }
+
+            currentStream = openSection(instanceSections[currentSection]);
+        }
+
+        OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+        List<Object>                     batch         = new ArrayList<>();
+
+        currentStream.readElements(batch, Math.max(1, maxBatchSize));
+
+        switch (instanceSections[currentSection])
+        {
+            case ENTITIES:
+                instanceStore.setEntities((List<EntityDetail>) (List<?>) batch);
+                break;
+
+            case RELATIONSHIPS:
+                instanceStore.setRelationships((List<Relationship>) (List<?>) batch);
+                break;
+
+            case CLASSIFICATIONS:
+                instanceStore.setClassifications((List<ClassificationEntityExtension>) (List<?>) batch);
+                break;
+        }
+
+        return instanceStore;
+    }
+
+
+    /**
+     * Release the file.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (currentStream != null)
+        {
+            currentStream.close();
+            currentStream = null;
+        }
+
+        currentSection = instanceSections.length;
+
+        try
+        {
+            channel.close();
+        }
+        catch (IOException error)
+        {
+            log.debug("Unable to close binary open metadata archive", error);
+        }
+    }
+
+
+    /**
+     * SectionIndex is an entry from the index of the file.
+     */
+    private static class SectionIndex
+    {
+        private final byte flags;
+        private final int  elementCount;
+        private final long offset;
+        private final long length;
+
+
+        /**
+         * Constructor.
+         *
+         * @param flags section flags
+         * @param elementCount number of elements in the section
+         * @param offset offset of the section in the file
+         * @param length length of the section in bytes
+         */
+        SectionIndex(byte flags,
+                     int  elementCount,
+                     long offset,
+                     long length)
+        {
+            this.flags        = flags;
+            this.elementCount = elementCount;
+            this.offset       = offset;
+            this.length       = length;
+        }
+    }
+
+
+    /**
+     * SectionStream decodes the elements of a memory-mapped section in order.
+     */
+    private static class SectionStream implements AutoCloseable
+    {
+        private final ObjectReader    elementReader;
+        private final DataInputStream elementStream;
+        private final Inflater        inflater;
+        private final int             elementCount;
+        private final int             maxElementLength;
+        private int                   elementsRead = 0;
+
+
+        /**
+         * Constructor.
+         *
+         * @param elementReader reader for the class of element in the section
+         * @param sectionBuffer memory-mapped section
+         * @param sectionIndex index entry for the section
+         */
+        SectionStream(ObjectReader elementReader,
+                      ByteBuffer   sectionBuffer,
+                      SectionIndex sectionIndex)
+        {
+            InputStream sectionStream = new ByteBufferInputStream(sectionBuffer);
+
+            if ((sectionIndex.flags & BinaryOpenMetadataArchiveSection.compressedFlag) != 0)
+            {
+                this.inflater = new Inflater();
+                this.maxElementLength = (int) Math.min(maxArrayLength, sectionIndex.length * maxInflationRatio);
+                sectionStream = new InflaterInputStream(sectionStream, inflater, bufferSize);
+            }
+            else
+            {
+                this.inflater = null;
+                this.maxElementLength = (int) Math.min(maxArrayLength, sectionIndex.length);
+            }
+
+            this.elementReader = elementReader;
+            this.elementStream = new DataInputStream(new BufferedInputStream(sectionStream, bufferSize));
+            this.elementCount  = sectionIndex.elementCount;
+        }
+
+
+        /**
+         * Return whether there are elements still to read.
+         *
+         * @return boolean
+         */
+        boolean hasMoreElements()
+        {
+            return elementsRead < elementCount;
+        }
+
+
+        /**
+         * Decode the next elements of the section.
+         *
+         * @param elements list to add the elements to
+         * @param maxElements maximum number of elements to read
+         * @param <T> type of the elements
+         * @throws IOException the section is corrupt - for example, an element length is negative or longer than the section
+         */
+        <T> void readElements(List<T> elements,
+                              int     maxElements) throws IOException
+        {
+            int count = 0;
+
+            while ((count < maxElements) && (elementsRead < elementCount))
+            {
+                int elementLength = elementStream.readInt();
+
+                if ((elementLength < 0) || (elementLength > maxElementLength))
+                {
+                    throw new IOException("Binary open metadata archive is corrupt: element length " + elementLength +
+                                                  " is outside the range 0 to " + maxElementLength);
+                }
+
+                byte[] encodedElement = new byte[elementLength];
+
+                elementStream.readFully(encodedElement);
+                elements.add(elementReader.readValue(encodedElement));
+
+                elementsRead ++;
+                count ++;
+            }
+        }
+
+
+        /**
+         * Release the inflater.  The mapped buffer is released by the garbage collector.
+         */
+        @Override
+        public void close()
+        {
+            if (inflater != null)
+            {
+                inflater.end();
+            }
+        }
+    }
+
+
+    /**
+     * ByteBufferInputStream reads from a memory-mapped section.
+     */
+    private static class ByteBufferInputStream extends InputStream
+    {
+        private final ByteBuffer buffer;
+
+
+        /**
+         * Constructor.
+         *
+         * @param buffer buffer to read
+         */
+        ByteBufferInputStream(ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+
+        /**
+         * Read a single byte.
+         *
+         * @return byte or -1 at the end of the section
+         */
+        @Override
+        public int read()
+        {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+
+        /**
+         * Read a block of bytes.
+         *
+         * @param bytes array to fill
+         * @param offset start position in the array
+         * @param length maximum number of bytes
+         * @return number of bytes read or -1 at the end of the section
+         */
+        @Override
+        public int read(byte[] bytes, int offset, int length)
+        {
+            if (! buffer.hasRemaining())
+            {
+                return -1;
+            }
+
+            int count = Math.min(length, buffer.remaining());
+
+            buffer.get(bytes, offset, count);
+
+            return count;
+        }
+
+
+        /**
+         * Return the number of bytes left in the section.
+         *
+         * @return count
+         */
+        @Override
+        public int available()
+        {
+            return buffer.remaining();
+        }
+    }
+}
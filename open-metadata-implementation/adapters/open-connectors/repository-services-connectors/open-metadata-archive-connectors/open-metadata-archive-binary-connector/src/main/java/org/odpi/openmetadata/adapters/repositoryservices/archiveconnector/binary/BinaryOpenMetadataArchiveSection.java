@@ -0,0 +1,108 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.binary;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
+
+
+/**
+ * BinaryOpenMetadataArchiveSection lists the sections of a binary open metadata archive file.  The file is laid out
+ * as follows (all numbers are big-endian):
+ * <ul>
+ *     <li>Header: magic number (int), format version (short) and the number of sections (short).</li>
+ *     <li>Index: for each section, its identifier (byte), flags (byte), number of elements (int),
+ *     offset in the file (long) and length in bytes (long).</li>
+ *     <li>Sections: for each section, a sequence of elements, each stored as its length (int) followed by its
+ *     JSON encoding.  If the section is compressed, this sequence is deflated.</li>
+ * </ul>
+ * The sections are written in the order of this enumeration, so the types come before the instances, and the
+ * entities before the relationships and classifications that refer to them.
+ */
+enum BinaryOpenMetadataArchiveSection
+{
+    ARCHIVE_PROPERTIES  (1, OpenMetadataArchiveProperties.class),
+    ATTRIBUTE_TYPE_DEFS (2, AttributeTypeDef.class),
+    NEW_TYPE_DEFS       (3, TypeDef.class),
+    TYPE_DEF_PATCHES    (4, TypeDefPatch.class),
+    ENTITIES            (5, EntityDetail.class),
+    RELATIONSHIPS       (6, Relationship.class),
+    CLASSIFICATIONS     (7, ClassificationEntityExtension.class);
+
+    /*
+     * Values in the file header.
+     */
+    static final int   magicNumber   = 0x4F4D4152;   /* "OMAR" */
+    static final short formatVersion = 1;
+    static final int   headerLength  = 8;
+    static final int   indexLength   = 22;
+
+    /*
+     * Flag set on a section whose elements are deflated.
+     */
+    static final byte  compressedFlag = 0x01;
+
+    private final byte     sectionId;
+    private final Class<?> elementClass;
+
+
+    /**
+     * Constructor.
+     *
+     * @param sectionId identifier stored in the index
+     * @param elementClass class of the elements in the section
+     */
+    BinaryOpenMetadataArchiveSection(int      sectionId,
+                                     Class<?> elementClass)
+    {
+        this.sectionId    = (byte) sectionId;
+        this.elementClass = elementClass;
+    }
+
+
+    /**
+     * Return the identifier stored in the index.
+     *
+     * @return byte
+     */
+    byte getSectionId()
+    {
+        return sectionId;
+    }
+
+
+    /**
+     * Return the class of the elements in the section.
+     *
+     * @return class
+     */
+    Class<?> getElementClass()
+    {
+        return elementClass;
+    }
+
+
+    /**
+     * Return the section for an identifier read from the index.
+     *
+     * @param sectionId identifier
+     * @return section or null if the identifier is not known (for example, from a later format version)
+     */
+    static BinaryOpenMetadataArchiveSection getSection(byte sectionId)
+    {
+        for (BinaryOpenMetadataArchiveSection section : BinaryOpenMetadataArchiveSection.values())
+        {
+            if (section.sectionId == sectionId)
+            {
+                return section;
+            }
+        }
+
+        return null;
+    }
+}
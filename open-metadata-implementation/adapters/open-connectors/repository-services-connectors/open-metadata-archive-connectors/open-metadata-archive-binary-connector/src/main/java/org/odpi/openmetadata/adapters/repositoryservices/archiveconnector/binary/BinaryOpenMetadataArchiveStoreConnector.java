@@ -0,0 +1,288 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.binary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.binary.ffdc.BinaryOpenMetadataArchiveStoreConnectorAuditCode;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentsReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * BinaryOpenMetadataArchiveStoreConnector stores an open metadata archive in a compact, indexed binary file.
+ * The index at the start of the file locates each section so the types can be read without decoding
+ * the instances, and the instance sections are memory-mapped and streamed in batches when they are loaded.
+ * Archives are converted from the JSON format with OMRSArchiveConverter in repository-services-archive-utilities.
+ */
+public class BinaryOpenMetadataArchiveStoreConnector extends OpenMetadataArchiveStoreConnector
+{
+    /*
+     * This is the default name of the open metadata archive file that is used if there is no file name in the connection.
+     */
+    private static final String defaultFilename = "open.metadata.archive.bin";
+
+    /*
+     * Batch size used when the whole archive is requested.
+     */
+    private static final int    contentsBatchSize = 1000;
+
+    /*
+     * The object mapper is thread-safe once configured so it is shared by all of the connector instances.
+     */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /*
+     * Variables used in writing to the file.
+     */
+    private String archiveStoreName = null;
+
+    /*
+     * Variables used for logging and debug.
+     */
+    private static final Logger log = LoggerFactory.getLogger(BinaryOpenMetadataArchiveStoreConnector.class);
+
+
+    /**
+     * Default constructor
+     */
+    public BinaryOpenMetadataArchiveStoreConnector()
+    {
+    }
+
+
+    /**
+     * Retrieve the archive store information from the endpoint.
+     *
+     * @param connectorInstanceId   unique id for the connector instance   useful for messages etc
+     * @param connectionProperties   POJO for the configuration used to create the connector.
+     */
+    @Override
+    public void initialize(String connectorInstanceId, ConnectionProperties connectionProperties)
+    {
+        super.initialize(connectorInstanceId, connectionProperties);
+
+        EndpointProperties endpoint = connectionProperties.getEndpoint();
+
+        if (endpoint != null)
+        {
+            archiveStoreName = endpoint.getAddress();
+        }
+
+        if (archiveStoreName == null)
+        {
+            archiveStoreName = defaultFilename;
+        }
+    }
+
+
+    /**
+     * Return the contents of the archive.  All of the instances are read into memory so
+     * getArchiveReader() is preferred for large archives.
+     *
+     * @return OpenMetadataArchive object
+     */
+    @Override
+    public OpenMetadataArchive getArchiveContents()
+    {
+        OpenMetadataArchive newOpenMetadataArchive = new OpenMetadataArchive();
+
+        try (BinaryOpenMetadataArchiveReader archiveReader = openArchive())
+        {
+            List<EntityDetail>                  entities        = new ArrayList<>();
+            List<Relationship>                  relationships   = new ArrayList<>();
+            List<ClassificationEntityExtension> classifications = new ArrayList<>();
+            OpenMetadataArchiveInstanceStore    batch           = archiveReader.getNextInstanceBatch(contentsBatchSize);
+
+            while (batch != null)
+            {
+                if (batch.getEntities() != null)
+                {
+                    entities.addAll(batch.getEntities());
+                }
+                if (batch.getRelationships() != null)
+                {
+                    relationships.addAll(batch.getRelationships());
+                }
+                if (batch.getClassifications() != null)
+                {
+                    classifications.addAll(batch.getClassifications());
+                }
+
+                batch = archiveReader.getNextInstanceBatch(contentsBatchSize);
+            }
+
+            newOpenMetadataArchive.setArchiveProperties(archiveReader.getArchiveProperties());
+            newOpenMetadataArchive.setArchiveTypeStore(archiveReader.getArchiveTypeStore());
+
+            if ((! entities.isEmpty()) || (! relationships.isEmpty()) || (! classifications.isEmpty()))
+            {
+                OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+
+                instanceStore.setEntities(entities.isEmpty() ? null : entities);
+                instanceStore.setRelationships(relationships.isEmpty() ? null : relationships);
+                instanceStore.setClassifications(classifications.isEmpty() ? null : classifications);
+
+                newOpenMetadataArchive.setArchiveInstanceStore(instanceStore);
+            }
+        }
+        catch (IOException ioException)
+        {
+            logBadFile(ioException);
+
+            log.debug("Create empty archive", ioException);
+
+            newOpenMetadataArchive = new OpenMetadataArchive();
+        }
+
+        return newOpenMetadataArchive;
+    }
+
+
+    /**
+     * Return a reader for the archive.  The archive properties and types are read straight away and the
+     * instance sections are memory-mapped and decoded in batches as they are requested.
+     *
+     * @return OpenMetadataArchiveReader object
+     */
+    @Override
+    public OpenMetadataArchiveReader getArchiveReader()
+    {
+        try
+        {
+            return openArchive();
+        }
+        catch (IOException ioException)
+        {
+            logBadFile(ioException);
+
+            log.debug("Return empty archive", ioException);
+
+            return new OpenMetadataArchiveContentsReader(new OpenMetadataArchive());
+        }
+    }
+
+
+    /**
+     * Open the archive file.
+     *
+     * @return reader for the file
+     * @throws IOException the file can not be read
+     */
+    private BinaryOpenMetadataArchiveReader openArchive() throws IOException
+    {
+        log.debug("Retrieving open metadata archive from binary file");
+
+        if (auditLog != null)
+        {
+            final String actionDescription = "Opening open metadata archive";
+
+            auditLog.logMessage(actionDescription,
+                                BinaryOpenMetadataArchiveStoreConnectorAuditCode.OPENING_FILE.getMessageDefinition(archiveStoreName));
+        }
+
+        return new BinaryOpenMetadataArchiveReader(new File(archiveStoreName), objectMapper);
+    }
+
+
+    /**
+     * Log that the archive file could not be read.
+     *
+     * @param ioException exception from reading the file
+     */
+    private void logBadFile(IOException ioException)
+    {
+        if (auditLog != null)
+        {
+            final String actionDescription = "Unable to open file";
+
+            auditLog.logException(actionDescription,
+                                  BinaryOpenMetadataArchiveStoreConnectorAuditCode.BAD_FILE.getMessageDefinition(archiveStoreName,
+                                                                                                                 ioException.getClass().getName(),
+                                                                                                                 ioException.getMessage()),
+                                  ioException);
+        }
+    }
+
+
+    /**
+     * Set new contents into the archive.  This overrides any content previously stored.
+     *
+     * @param archiveContents   OpenMetadataArchive object
+     */
+    @Override
+    public void setArchiveContents(OpenMetadataArchive   archiveContents)
+    {
+        File    archiveStoreFile = new File(archiveStoreName);
+
+        try
+        {
+            log.debug("Writing binary open metadata archive: " + archiveStoreName);
+
+            if (archiveContents == null)
+            {
+                archiveStoreFile.delete();
+            }
+            else
+            {
+                new BinaryOpenMetadataArchiveWriter(objectMapper).writeArchive(archiveStoreFile, archiveContents);
+            }
+        }
+        catch (IOException   ioException)
+        {
+            if (auditLog != null)
+            {
+                final String actionDescription = "Unable to write file";
+
+                auditLog.logException(actionDescription,
+                                      BinaryOpenMetadataArchiveStoreConnectorAuditCode.BAD_WRITE.getMessageDefinition(archiveStoreName,
+                                                                                                                      ioException.getClass().getName(),
+                                                                                                                      ioException.getMessage()),
+                                      ioException);
+            }
+
+            log.debug("Unable to write binary open metadata archive", ioException);
+        }
+    }
+
+
+    /**
+     * Indicates that the connector is completely configured and can begin processing.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    @Override
+    public void start() throws ConnectorCheckedException
+    {
+        super.start();
+    }
+
+
+    /**
+     * Free up any resources held since the connector is no longer needed.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    @Override
+    public  void disconnect() throws ConnectorCheckedException
+    {
+        super.disconnect();
+
+        log.debug("Closing binary open metadata archive store.");
+    }
+}
@@ -0,0 +1,38 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.binary;
+
+
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreProviderBase;
+
+/**
+ * BinaryOpenMetadataArchiveStoreProvider is the OCF connector provider for the binary open metadata archive store.
+ */
+public class BinaryOpenMetadataArchiveStoreProvider extends OpenMetadataArchiveStoreProviderBase
+{
+    static final String  connectorTypeGUID = "86c16efa-5859-4c06-89dc-5b5dca705cee";
+    static final String  connectorTypeName = "Binary Open Metadata Archive Store Connector";
+    static final String  connectorTypeDescription = "Connector supports storing of an open metadata archive in an indexed binary file.";
+
+    /**
+     * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
+     * archive store implementation.
+     */
+    public BinaryOpenMetadataArchiveStoreProvider()
+    {
+        Class<BinaryOpenMetadataArchiveStoreConnector> connectorClass = BinaryOpenMetadataArchiveStoreConnector.class;
+
+        super.setConnectorClassName(connectorClass.getName());
+
+        ConnectorType connectorType = new ConnectorType();
+        connectorType.setType(ConnectorType.getConnectorTypeType());
+        connectorType.setGUID(connectorTypeGUID);
+        connectorType.setQualifiedName(connectorTypeName);
+        connectorType.setDisplayName(connectorTypeName);
+        connectorType.setDescription(connectorTypeDescription);
+        connectorType.setConnectorProviderClassName(this.getClass().getName());
+
+        super.connectorTypeBean = connectorType;
+    }
+}
@@ -0,0 +1,231 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.binary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+
+/**
+ * BinaryOpenMetadataArchiveWriter writes an open metadata archive in the binary format described in
+ * BinaryOpenMetadataArchiveSection.  The sections are written one after another and the index is filled in
+ * at the start of the file once their positions are known.
+ */
+class BinaryOpenMetadataArchiveWriter
+{
+    private static final int bufferSize = 65536;
+
+    private final ObjectWriter elementWriter;
+
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper mapper used to encode the elements
+     */
+    BinaryOpenMetadataArchiveWriter(ObjectMapper objectMapper)
+    {
+        this.elementWriter = objectMapper.writer();
+    }
+
+
+    /**
+     * Write the archive to a file, replacing any existing contents.
+     *
+     * @param archiveFile file to write
+     * @param archiveContents archive to write
+     * @throws IOException the file could not be written
+     */
+    void writeArchive(File                archiveFile,
+                      OpenMetadataArchive archiveContents) throws IOException
+    {
+        BinaryOpenMetadataArchiveSection[] sections = BinaryOpenMetadataArchiveSection.values();
+
+        ByteBuffer index = ByteBuffer.allocate(BinaryOpenMetadataArchiveSection.headerLength +
+                                               (sections.length * BinaryOpenMetadataArchiveSection.indexLength));
+
+        index.putInt(BinaryOpenMetadataArchiveSection.magicNumber);
+        index.putShort(BinaryOpenMetadataArchiveSection.formatVersion);
+        index.putShort((short) sections.length);
+
+        try (FileChannel channel = FileChannel.open(archiveFile.toPath(),
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            channel.position(index.capacity());
+
+            for (BinaryOpenMetadataArchiveSection section : sections)
+            {
+                long sectionOffset = channel.position();
+                int  elementCount  = writeSection(channel, getElements(section, archiveContents));
+
+                index.put(section.getSectionId());
+                index.put(BinaryOpenMetadataArchiveSection.compressedFlag);
+                index.putInt(elementCount);
+                index.putLong(sectionOffset);
+                index.putLong(channel.position() - sectionOffset);
+            }
+
+            index.flip();
+            channel.position(0);
+
+            while (index.hasRemaining())
+            {
+                channel.write(index);
+            }
+        }
+    }
+
+
+    /**
+     * Write the elements of a section at the current position of the channel.
+     *
+     * @param channel file channel
+     * @param elements elements of the section
+     * @return number of elements written
+     * @throws IOException the file could not be written
+     */
+    private int writeSection(FileChannel channel,
+                             List<?>     elements) throws IOException
+    {
+        Deflater             deflater         = new Deflater();
+        DeflaterOutputStream compressedStream = new DeflaterOutputStream(new UnclosedOutputStream(Channels.newOutputStream(channel)),
+                                                                         deflater,
+                                                                         bufferSize);
+        DataOutputStream     sectionStream    = new DataOutputStream(compressedStream);
+        int                  elementCount     = 0;
+
+        try
+        {
+            for (Object element : elements)
+            {
+                if (element != null)
+                {
+                    byte[] encodedElement = elementWriter.writeValueAsBytes(element);
+
+                    sectionStream.writeInt(encodedElement.length);
+                    sectionStream.write(encodedElement);
+                    elementCount ++;
+                }
+            }
+
+            sectionStream.flush();
+            compressedStream.finish();
+            compressedStream.flush();
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        return elementCount;
+    }
+
+
+    /**
+     * Return the elements of the archive that belong in a section.
+     *
+     * @param section section to write
+     * @param archiveContents archive
+     * @return list of elements (may be empty)
+     */
+    private List<?> getElements(BinaryOpenMetadataArchiveSection section,
+                                OpenMetadataArchive              archiveContents)
+    {
+        OpenMetadataArchiveTypeStore     typeStore     = archiveContents.getArchiveTypeStore();
+        OpenMetadataArchiveInstanceStore instanceStore = archiveContents.getArchiveInstanceStore();
+        List<?>                          elements      = null;
+
+        switch (section)
+        {
+            case ARCHIVE_PROPERTIES:
+                elements = Collections.singletonList(archiveContents.getArchiveProperties());
+                break;
+
+            case ATTRIBUTE_TYPE_DEFS:
+                elements = (typeStore == null) ? null : typeStore.getAttributeTypeDefs();
+                break;
+
+            case NEW_TYPE_DEFS:
+                elements = (typeStore == null) ? null : typeStore.getNewTypeDefs();
+                break;
+
+            case TYPE_DEF_PATCHES:
+                elements = (typeStore == null) ? null : typeStore.getTypeDefPatches();
+                break;
+
+            case ENTITIES:
+                elements = (instanceStore == null) ? null : instanceStore.getEntities();
+                break;
+
+            case RELATIONSHIPS:
+                elements = (instanceStore == null) ? null : instanceStore.getRelationships();
+                break;
+
+            case CLASSIFICATIONS:
+                elements = (instanceStore == null) ? null : instanceStore.getClassifications();
+                break;
+        }
+
+        return (elements == null) ? Collections.emptyList() : elements;
+    }
+
+
+    /**
+     * UnclosedOutputStream stops the section streams from closing the file channel.
+     */
+    private static class UnclosedOutputStream extends FilterOutputStream
+    {
+        /**
+         * Constructor.
+         *
+         * @param outputStream stream on the file channel
+         */
+        UnclosedOutputStream(OutputStream outputStream)
+        {
+            super(outputStream);
+        }
+
+
+        /**
+         * Write a block of bytes straight to the channel.
+         *
+         * @param bytes data
+         * @param offset start of the data
+         * @param length number of bytes
+         * @throws IOException the file could not be written
+         */
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException
+        {
+            out.write(bytes, offset, length);
+        }
+
+
+        /**
+         * Leave the channel open.
+         */
+        @Override
+        public void close()
+        {
+        }
+    }
+}
@@ -0,0 +1,456 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.file;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentsReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * FileBasedOpenMetadataArchiveReader reads an open metadata archive file with the Jackson streaming API.
+ * The archive properties and type store are read when the reader is created.  The entities, relationships and
+ * classifications are then read from the file one batch at a time, so the whole archive is never held in memory.
+ *
+ * Archives written from the OpenMetadataArchive bean have their instance store last, with the entities before the
+ * relationships and classifications.  Other layouts are also read correctly: if the instance store comes before the
+ * other sections it is skipped and found again with a second pass of the file, and any relationships or
+ * classifications found before the entities are held back until the entities have been returned.
+ */
+class FileBasedOpenMetadataArchiveReader implements OpenMetadataArchiveReader
+{
+    private static final String archivePropertiesField    = "archiveProperties";
+    private static final String archiveTypeStoreField     = "archiveTypeStore";
+    private static final String archiveInstanceStoreField = "archiveInstanceStore";
+    private static final String entitiesField             = "entities";
+    private static final String relationshipsField        = "relationships";
+    private static final String classificationsField      = "classifications";
+
+    private static final Logger log = LoggerFactory.getLogger(FileBasedOpenMetadataArchiveReader.class);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader entityReader;
+    private final ObjectReader relationshipReader;
+    private final ObjectReader classificationReader;
+    private final File         archiveFile;
+
+    private OpenMetadataArchiveProperties archiveProperties = null;
+    private OpenMetadataArchiveTypeStore  archiveTypeStore  = null;
+
+    /*
+     * Variables used to step through the instance store.
+     */
+    private JsonParser                          instanceParser          = null;
+    private String                              currentSection          = null;
+    private boolean                             entitiesComplete        = false;
+    private List<Relationship>                  deferredRelationships   = null;
+    private List<ClassificationEntityExtension> deferredClassifications = null;
+    private OpenMetadataArchiveContentsReader   deferredReader          = null;
+
+
+    /**
+     * Open the archive file and read its properties and type store.
+     *
+     * @param archiveFile file containing the archive
+     * @param objectMapper mapper for the archive contents
+     * @throws IOException the file can not be read or is not an open metadata archive
+     */
+    FileBasedOpenMetadataArchiveReader(File         archiveFile,
+                                       ObjectMapper objectMapper) throws IOException
+    {
+        this.archiveFile          = archiveFile;
+        this.objectMapper         = objectMapper;
+        this.entityReader         = objectMapper.readerFor(EntityDetail.class);
+        this.relationshipReader   = objectMapper.readerFor(Relationship.class);
+        this.classificationReader = objectMapper.readerFor(ClassificationEntityExtension.class);
+
+        boolean    instanceStoreSkipped = false;
+        JsonParser parser               = openArchive();
+
+        try
+        {
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                String fieldName = parser.getCurrentName();
+
+                parser.nextToken();
+
+                if (archivePropertiesField.equals(fieldName))
+                {
+                    archiveProperties = objectMapper.readValue(parser, OpenMetadataArchiveProperties.class);
+                }
+                else if (archiveTypeStoreField.equals(fieldName))
+                {
+                    archiveTypeStore = objectMapper.readValue(parser, OpenMetadataArchiveTypeStore.class);
+                }
+                else if (archiveInstanceStoreField.equals(fieldName) && (parser.currentToken() == JsonToken.START_OBJECT))
+                {
+                    if ((archiveProperties != null) && (archiveTypeStore != null))
+                    {
+                        /*
+                         * The header sections are complete so the instances can be streamed from here.
+                         */
+                        instanceParser = parser;
+                        return;
+                    }
+
+                    instanceStoreSkipped = true;
+                    parser.skipChildren();
+                }
+                else
+                {
+                    parser.skipChildren();
+                }
+            }
+        }
+        finally
+        {
+            if (instanceParser == null)
+            {
+                parser.close();
+            }
+        }
+
+        if (instanceStoreSkipped)
+        {
+            log.debug("Instance store precedes archive header in " + archiveFile.getName() + " - rereading file");
+
+            instanceParser = openInstanceStore();
+        }
+    }
+
+
+    /**
+     * Return details of the archive.
+     *
+     * @return OpenMetadataArchiveProperties object or null if the archive has no header
+     */
+    @Override
+    public OpenMetadataArchiveProperties getArchiveProperties()
+    {
+        return archiveProperties;
+    }
+
+
+    /**
+     * Return the TypeStore for this archive.  The TypeStore contains TypeDefs and TypeDef patches.
+     *
+     * @return OpenMetadataArchiveTypeStore object or null if the archive has no types
+     */
+    @Override
+    public OpenMetadataArchiveTypeStore getArchiveTypeStore()
+    {
+        return archiveTypeStore;
+    }
+
+
+    /**
+     * Return the next batch of instances from the archive.  A batch contains instances of only one kind
+     * (entities, relationships or classifications).
+     *
+     * @param maxBatchSize maximum number of instances to return
+     * @return instance store holding the next batch of instances or null if all of the instances have been returned
+     * @throws IOException the archive could not be read
+     */
+    @Override
+    public OpenMetadataArchiveInstanceStore getNextInstanceBatch(int maxBatchSize) throws IOException
+    {
+        OpenMetadataArchiveInstanceStore batch = null;
+
+        while ((batch == null) && (instanceParser != null))
+        {
+            if (currentSection == null)
+            {
+                if (instanceParser.nextToken() != JsonToken.FIELD_NAME)
+                {
+                    /*
+                     * End of the instance store.
+                     */
+                    closeParser();
+                    setUpDeferredReader();
+                }
+                else
+                {
+                    startSection(instanceParser.getCurrentName(), instanceParser.nextToken());
+                }
+            }
+            else
+            {
+                batch = readSectionBatch(maxBatchSize);
+            }
+        }
+
+        if ((batch == null) && (deferredReader != null))
+        {
+            batch = deferredReader.getNextInstanceBatch(maxBatchSize);
+        }
+
+        return batch;
+    }
+
+
+    /**
+     * Release the file.
+     */
+    @Override
+    public void close()
+    {
+        closeParser();
+
+        deferredRelationships   = null;
+        deferredClassifications = null;
+        deferredReader          = null;
+    }
+
+
+    /**
+     * Open a parser on the archive file, positioned inside the top level object.
+     *
+     * @return parser
+     * @throws IOException the file can not be read or is not a JSON object
+     */
+    private JsonParser openArchive() throws IOException
+    {
+        JsonParser parser = objectMapper.getFactory().createParser(archiveFile);
+
+        if (parser.nextToken() != JsonToken.START_OBJECT)
+        {
+            parser.close();
+            throw new JsonParseException(parser, "Open metadata archive " + archiveFile.getName() + " is not a JSON object");
+        }
+
+        return parser;
+    }
+
+
+    /**
+     * Open a parser on the archive file, positioned at the start of the instance store.
+     *
+     * @return parser
+     * @throws IOException the file can not be read
+     */
+    private JsonParser openInstanceStore() throws IOException
+    {
+        JsonParser parser = openArchive();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String fieldName = parser.getCurrentName();
+
+            if ((parser.nextToken() == JsonToken.START_OBJECT) && (archiveInstanceStoreField.equals(fieldName)))
+            {
+                return parser;
+            }
+
+            parser.skipChildren();
+        }
+
+        parser.close();
+        return null;
+    }
+
+
+    /**
+     * Start processing a field of the instance store.  Entities are streamed.  Relationships and classifications are
+     * streamed if the entities have all been returned, otherwise they are held until the end of the instance store.
+     *
+     * @param fieldName name of the field
+     * @param valueToken first token of the field's value
+     * @throws IOException the archive could not be read
+     */
+    private void startSection(String    fieldName,
+                              JsonToken valueToken) throws IOException
+    {
+        boolean isArray = (valueToken == JsonToken.START_ARRAY);
+
+        if (entitiesField.equals(fieldName))
+        {
+            if (isArray)
+            {
+                currentSection = fieldName;
+            }
+            else
+            {
+                entitiesComplete = true;
+                instanceParser.skipChildren();
+            }
+        }
+        else if (relationshipsField.equals(fieldName) && isArray)
+        {
+            if (entitiesComplete)
+            {
+                currentSection = fieldName;
+            }
+            else
+            {
+                deferredRelationships = objectMapper.readValue(instanceParser, new TypeReference<List<Relationship>>() {});
+            }
+        }
+        else if (classificationsField.equals(fieldName) && isArray)
+        {
+            if (entitiesComplete)
+            {
+                currentSection = fieldName;
+            }
+            else
+            {
+                deferredClassifications = objectMapper.readValue(instanceParser, new TypeReference<List<ClassificationEntityExtension>>() {});
+            }
+        }
+        else
+        {
+            instanceParser.skipChildren();
+        }
+    }
+
+
+    /**
+     * Read up to the requested number of instances from the current section.
+     *
+     * @param maxBatchSize maximum number of instances to return
+     * @return batch or null if the section ended with no more instances
+     * @throws IOException the archive could not be read
+     */
+    private OpenMetadataArchiveInstanceStore readSectionBatch(int maxBatchSize) throws IOException
+    {
+        OpenMetadataArchiveInstanceStore batch = new OpenMetadataArchiveInstanceStore();
+
+        if (relationshipsField.equals(currentSection))
+        {
+            List<Relationship> relationships = readSectionElements(relationshipReader, maxBatchSize);
+
+            if (relationships.isEmpty())
+            {
+                return null;
+            }
+
+            batch.setRelationships(relationships);
+        }
+        else if (classificationsField.equals(currentSection))
+        {
+            List<ClassificationEntityExtension> classifications = readSectionElements(classificationReader, maxBatchSize);
+
+            if (classifications.isEmpty())
+            {
+                return null;
+            }
+
+            batch.setClassifications(classifications);
+        }
+        else
+        {
+            List<EntityDetail> entities = readSectionElements(entityReader, maxBatchSize);
+
+            if (entities.isEmpty())
+            {
+                return null;
+            }
+
+            batch.setEntities(entities);
+        }
+
+        return batch;
+    }
+
+
+    /**
+     * Read up to the requested number of elements from the array of the current section.  The section is
+     * finished when the end of the array is reached.
+     *
+     * @param elementReader reader for the type of element in the section
+     * @param maxBatchSize maximum number of elements to return
+     * @param <T> type of element
+     * @return list of elements (empty if the section has ended)
+     * @throws IOException the archive could not be read
+     */
+    private <T> List<T> readSectionElements(ObjectReader elementReader,
+                                            int          maxBatchSize) throws IOException
+    {
+        List<T> elements = new ArrayList<>();
+
+        while (elements.size() < maxBatchSize)
+        {
+            if (instanceParser.nextToken() == JsonToken.END_ARRAY)
+            {
+                if (entitiesField.equals(currentSection))
+                {
+                    entitiesComplete = true;
+                }
+
+                currentSection = null;
+                break;
+            }
+
+            T element = elementReader.readValue(instanceParser);
+
+            if (element != null)
+            {
+                elements.add(element);
+            }
+        }
+
+        return elements;
+    }
+
+
+    /**
+     * Set up a reader for any relationships and classifications that were held back because they came
+     * before the entities.
+     */
+    private void setUpDeferredReader()
+    {
+        if ((deferredRelationships != null) || (deferredClassifications != null))
+        {
+            OpenMetadataArchiveInstanceStore deferredInstances = new OpenMetadataArchiveInstanceStore();
+            OpenMetadataArchive              deferredArchive   = new OpenMetadataArchive();
+
+            deferredInstances.setRelationships(deferredRelationships);
+            deferredInstances.setClassifications(deferredClassifications);
+            deferredArchive.setArchiveInstanceStore(deferredInstances);
+
+            deferredReader          = new OpenMetadataArchiveContentsReader(deferredArchive);
+            deferredRelationships   = null;
+            deferredClassifications = null;
+        }
+    }
+
+
+    /**
+     * Close the parser, ignoring any errors since the contents have been read.
+     */
+    private void closeParser()
+    {
+        if (instanceParser != null)
+        {
+            try
+            {
+                instanceParser.close();
+            }
+            catch (IOException error)
+            {
+                log.debug("Error closing " + archiveFile.getName(), error);
+            }
+
+            instanceParser = null;
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedExceptio
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentsReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
 import org.slf4j.Logger;
@@ -23,6 +25,11 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
      */
     private static final String defaultFilename = "open.metadata.archive";
 
+    /*
+     * The object mapper is thread-safe once configured so it is shared by all of the connector instances.
+     */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
     /*
      * Variables used in writing to the file.
      */
@@ -90,11 +97,7 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
                                     FileBasedOpenMetadataArchiveStoreConnectorAuditCode.OPENING_FILE.getMessageDefinition(archiveStoreName));
             }
 
-            String configStoreFileContents = FileUtils.readFileToString(archiveStoreFile, "UTF-8");
-
-            ObjectMapper objectMapper = new ObjectMapper();
-
-            newOpenMetadataArchive = objectMapper.readValue(configStoreFileContents, OpenMetadataArchive.class);
+            newOpenMetadataArchive = objectMapper.readValue(archiveStoreFile, OpenMetadataArchive.class);
         }
         catch (IOException ioException)
         {
@@ -122,6 +125,52 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
     }
 
 
+    /**
+     * Return a reader that streams the contents of the archive from the file.  The archive properties and types
+     * are read straight away and the instances are read in batches as they are requested, so the whole archive
+     * is not held in memory.
+     *
+     * @return OpenMetadataArchiveReader object
+     */
+    @Override
+    public OpenMetadataArchiveReader getArchiveReader()
+    {
+        File archiveStoreFile = new File(archiveStoreName);
+
+        try
+        {
+            log.debug("Streaming open metadata archive from file");
+
+            if (auditLog != null)
+            {
+                final String actionDescription = "Opening open metadata archive";
+
+                auditLog.logMessage(actionDescription,
+                                    FileBasedOpenMetadataArchiveStoreConnectorAuditCode.OPENING_FILE.getMessageDefinition(archiveStoreName));
+            }
+
+            return new FileBasedOpenMetadataArchiveReader(archiveStoreFile, objectMapper);
+        }
+        catch (IOException ioException)
+        {
+            if (auditLog != null)
+            {
+                final String actionDescription = "Unable to open file";
+
+                auditLog.logException(actionDescription,
+                                      FileBasedOpenMetadataArchiveStoreConnectorAuditCode.BAD_FILE.getMessageDefinition(archiveStoreName,
+                                                                                                                        ioException.getClass().getName(),
+                                                                                                                        ioException.getMessage()),
+                                      ioException);
+            }
+
+            log.debug("Return empty archive", ioException);
+
+            return new OpenMetadataArchiveContentsReader(new OpenMetadataArchive());
+        }
+    }
+
+
     /**
      * Set new contents into the archive.  This overrides any content previously stored.
      *
@@ -142,8 +191,6 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
             }
             else
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
                 String archiveStoreFileContents = objectMapper.writeValueAsString(archiveContents);
 
                 FileUtils.writeStringToFile(archiveStoreFile, archiveStoreFileContents, (String)null,false);
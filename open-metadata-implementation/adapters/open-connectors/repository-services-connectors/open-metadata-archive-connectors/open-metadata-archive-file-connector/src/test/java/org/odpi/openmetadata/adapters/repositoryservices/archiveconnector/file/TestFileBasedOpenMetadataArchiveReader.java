@@ -0,0 +1,281 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Test that the FileBasedOpenMetadataArchiveReader returns the contents of archives whose sections are not in
+ * the order that they are written from the OpenMetadataArchive bean.
+ */
+public class TestFileBasedOpenMetadataArchiveReader
+{
+    private static final String archiveGUID = "c5c5a1d8-0b6a-4d5e-9b2f-6f6c61f3a4c7";
+    private static final String archiveName = "TestArchive";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+
+    /**
+     * An instance store that comes before the archive properties and type store is skipped on the first pass
+     * of the file and read with a second pass.
+     *
+     * @throws IOException problem with the test archive
+     */
+    @Test
+    public void testHeaderAfterInstanceStore() throws IOException
+    {
+        String archive = "{" +
+                "\"archiveInstanceStore\":{" +
+                    "\"entities\":" + toJSON(getEntities("e1", "e2")) + "," +
+                    "\"relationships\":" + toJSON(getRelationships("r1")) + "}," +
+                "\"archiveProperties\":" + toJSON(getArchiveProperties()) + "," +
+                "\"archiveTypeStore\":" + toJSON(new OpenMetadataArchiveTypeStore()) +
+                "}";
+
+        FileBasedOpenMetadataArchiveReader reader = new FileBasedOpenMetadataArchiveReader(writeArchive(archive), objectMapper);
+
+        try
+        {
+            assertNotNull(reader.getArchiveProperties());
+            assertEquals(reader.getArchiveProperties().getArchiveGUID(), archiveGUID);
+            assertNotNull(reader.getArchiveTypeStore());
+
+            OpenMetadataArchiveInstanceStore batch = reader.getNextInstanceBatch(10);
+
+            assertNotNull(batch);
+            assertEquals(getEntityGUIDs(batch), Arrays.asList("e1", "e2"));
+            assertNull(batch.getRelationships());
+
+            batch = reader.getNextInstanceBatch(10);
+
+            assertNotNull(batch);
+            assertEquals(getRelationshipGUIDs(batch), Arrays.asList("r1"));
+
+            assertNull(reader.getNextInstanceBatch(10));
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+
+    /**
+     * Relationships and classifications that come before the entities in the instance store are held back
+     * and returned after all of the entities.
+     *
+     * @throws IOException problem with the test archive
+     */
+    @Test
+    public void testRelationshipsBeforeEntities() throws IOException
+    {
+        String archive = "{" +
+                "\"archiveProperties\":" + toJSON(getArchiveProperties()) + "," +
+                "\"archiveTypeStore\":" + toJSON(new OpenMetadataArchiveTypeStore()) + "," +
+                "\"archiveInstanceStore\":{" +
+                    "\"relationships\":" + toJSON(getRelationships("r1", "r2")) + "," +
+                    "\"classifications\":" + toJSON(getClassifications("c1")) + "," +
+                    "\"entities\":" + toJSON(getEntities("e1", "e2", "e3")) + "}" +
+                "}";
+
+        FileBasedOpenMetadataArchiveReader reader = new FileBasedOpenMetadataArchiveReader(writeArchive(archive), objectMapper);
+
+        try
+        {
+            assertEquals(reader.getArchiveProperties().getArchiveName(), archiveName);
+
+            List<String> entityGUIDs         = new ArrayList<>();
+            List<String> relationshipGUIDs   = new ArrayList<>();
+            int          classificationCount = 0;
+
+            OpenMetadataArchiveInstanceStore batch = reader.getNextInstanceBatch(2);
+
+            while (batch != null)
+            {
+                if (batch.getEntities() != null)
+                {
+                    /*
+                     * No entity may be returned after a relationship or classification.
+                     */
+                    assertEquals(relationshipGUIDs.size(), 0);
+                    assertEquals(classificationCount, 0);
+
+                    entityGUIDs.addAll(getEntityGUIDs(batch));
+                }
+
+                if (batch.getRelationships() != null)
+                {
+                    relationshipGUIDs.addAll(getRelationshipGUIDs(batch));
+                }
+
+                if (batch.getClassifications() != null)
+                {
+                    classificationCount += batch.getClassifications().size();
+                }
+
+                batch = reader.getNextInstanceBatch(2);
+            }
+
+            assertEquals(entityGUIDs, Arrays.asList("e1", "e2", "e3"));
+            assertEquals(relationshipGUIDs, Arrays.asList("r1", "r2"));
+            assertEquals(classificationCount, 1);
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+
+    /**
+     * Write the archive to a temporary file.
+     *
+     * @param archive JSON archive
+     * @return file
+     * @throws IOException unable to write the file
+     */
+    private File writeArchive(String archive) throws IOException
+    {
+        File archiveFile = File.createTempFile("TestFileBasedOpenMetadataArchiveReader", ".json");
+
+        archiveFile.deleteOnExit();
+        Files.write(archiveFile.toPath(), archive.getBytes(StandardCharsets.UTF_8));
+
+        return archiveFile;
+    }
+
+
+    private String toJSON(Object bean) throws IOException
+    {
+        return objectMapper.writeValueAsString(bean);
+    }
+
+
+    /*
+     * The elements are written one at a time so that each includes its type id.
+     */
+    private String toJSON(List<?> beans) throws IOException
+    {
+        StringBuilder json = new StringBuilder("[");
+
+        for (Object bean : beans)
+        {
+            if (json.length() > 1)
+            {
+                json.append(",");
+            }
+
+            json.append(objectMapper.writeValueAsString(bean));
+        }
+
+        return json.append("]").toString();
+    }
+
+
+    private OpenMetadataArchiveProperties getArchiveProperties()
+    {
+        OpenMetadataArchiveProperties archiveProperties = new OpenMetadataArchiveProperties();
+
+        archiveProperties.setArchiveGUID(archiveGUID);
+        archiveProperties.setArchiveName(archiveName);
+
+        return archiveProperties;
+    }
+
+
+    private List<EntityDetail> getEntities(String... guids)
+    {
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (String guid : guids)
+        {
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID(guid);
+            entities.add(entity);
+        }
+
+        return entities;
+    }
+
+
+    private List<Relationship> getRelationships(String... guids)
+    {
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (String guid : guids)
+        {
+            Relationship relationship = new Relationship();
+
+            relationship.setGUID(guid);
+            relationships.add(relationship);
+        }
+
+        return relationships;
+    }
+
+
+    private List<ClassificationEntityExtension> getClassifications(String... entityGUIDs)
+    {
+        List<ClassificationEntityExtension> classifications = new ArrayList<>();
+
+        for (String entityGUID : entityGUIDs)
+        {
+            ClassificationEntityExtension classification = new ClassificationEntityExtension();
+            EntityProxy                   entityProxy    = new EntityProxy();
+
+            entityProxy.setGUID(entityGUID);
+            classification.setEntityToClassify(entityProxy);
+            classifications.add(classification);
+        }
+
+        return classifications;
+    }
+
+
+    private List<String> getEntityGUIDs(OpenMetadataArchiveInstanceStore batch)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (EntityDetail entity : batch.getEntities())
+        {
+            guids.add(entity.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    private List<String> getRelationshipGUIDs(OpenMetadataArchiveInstanceStore batch)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (Relationship relationship : batch.getRelationships())
+        {
+            guids.add(relationship.getGUID());
+        }
+
+        return guids;
+    }
+}
@@ -229,6 +229,29 @@ public class GraphOMRSConstants {
         return PROPERTY_KEY_PREFIX_CLASSIFICATION + propertyName;
     }
 
+    /*
+     *  HISTORY
+     *
+     *  Each stored version of an entity or relationship is also recorded in a history vertex (label EntityHistory
+     *  or RelationshipHistory) that holds the serialized instance.  The history vertices are found through the
+     *  GUID of the instance (and for relationships the GUIDs of the entities at each end).
+     */
+
+    public static final String PROPERTY_KEY_PREFIX_HISTORY                 = "vh";
+
+    public static final String PROPERTY_NAME_VERSION_TIME                  = "versionTime";
+    public static final String PROPERTY_NAME_ENTITY_ONE_GUID               = "entityOneGUID";
+    public static final String PROPERTY_NAME_ENTITY_TWO_GUID               = "entityTwoGUID";
+    public static final String PROPERTY_NAME_INSTANCE                      = "instance";
+
+    public static final String PROPERTY_KEY_HISTORY_GUID                   = PROPERTY_KEY_PREFIX_HISTORY + PROPERTY_NAME_GUID;
+    public static final String PROPERTY_KEY_HISTORY_VERSION                = PROPERTY_KEY_PREFIX_HISTORY + PROPERTY_NAME_VERSION;
+    public static final String PROPERTY_KEY_HISTORY_VERSION_TIME           = PROPERTY_KEY_PREFIX_HISTORY + PROPERTY_NAME_VERSION_TIME;
+    public static final String PROPERTY_KEY_HISTORY_ENTITY_ONE_GUID        = PROPERTY_KEY_PREFIX_HISTORY + PROPERTY_NAME_ENTITY_ONE_GUID;
+    public static final String PROPERTY_KEY_HISTORY_ENTITY_TWO_GUID        = PROPERTY_KEY_PREFIX_HISTORY + PROPERTY_NAME_ENTITY_TWO_GUID;
+    public static final String PROPERTY_KEY_HISTORY_INSTANCE               = PROPERTY_KEY_PREFIX_HISTORY + PROPERTY_NAME_INSTANCE;
+
+
     /*
      * Constant separator for qualifiedPropertyNames for type-defined attributes. The separator is inserted
      * between the type name and the (short) property name. It serves no function purpose but improves readability
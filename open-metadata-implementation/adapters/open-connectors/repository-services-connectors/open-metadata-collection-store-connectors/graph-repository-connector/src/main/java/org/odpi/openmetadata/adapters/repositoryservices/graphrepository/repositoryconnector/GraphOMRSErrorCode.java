@@ -146,6 +146,16 @@ public enum GraphOMRSErrorCode implements ExceptionMessageSet
             "The search properties contains a values that do not match the type of property {0} - reported by the {1} method of class {2} to open metadata repository {3}",
             "The system is unable to perform the request because the provided values do not match the type of the property.",
             "Correct the caller's code and retry the request."),
+    INSTANCE_HISTORY_ERROR(
+            400, "OMRS-GRAPH-REPOSITORY-400-030",
+            "The attempt to access the history of the instance with GUID {0} failed in {1} method of class {2} to open metadata repository {3}",
+            "The system was unable to read or write the stored versions of the instance.",
+            "Check the repository logs for the cause of the failure and retry the request."),
+    NO_PREVIOUS_VERSION(
+            400, "OMRS-GRAPH-REPOSITORY-400-031",
+            "There is no previous version of the instance with GUID {0} to restore in {1} method of class {2} to open metadata repository {3}",
+            "The system is unable to undo the last update because the history of the instance only holds its current version.",
+            "Check that the instance has been updated since it was created and that its history has not been pruned."),
 
     ;
 
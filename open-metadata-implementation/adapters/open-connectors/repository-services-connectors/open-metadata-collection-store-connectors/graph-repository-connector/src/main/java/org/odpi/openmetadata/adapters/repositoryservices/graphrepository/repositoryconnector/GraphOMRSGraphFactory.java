@@ -284,6 +284,11 @@ public class GraphOMRSGraphFactory {
                 management.makeVertexLabel("Entity").make();
             if (management.getVertexLabel("Classification") == null)
                 management.makeVertexLabel("Classification").make();
+            // History vertices hold the stored versions of entities and relationships
+            if (management.getVertexLabel("EntityHistory") == null)
+                management.makeVertexLabel("EntityHistory").make();
+            if (management.getVertexLabel("RelationshipHistory") == null)
+                management.makeVertexLabel("RelationshipHistory").make();
             // Each edge has a label that reflects the TypeDefCategory - i.e. Relationship
             if (management.getEdgeLabel("Relationship") == null)
                 management.makeEdgeLabel("Relationship").make();
@@ -399,6 +404,22 @@ public class GraphOMRSGraphFactory {
             createMixedIndexForVertexCoreProperty(PROPERTY_NAME_REPLICATED_BY,            PROPERTY_KEY_CLASSIFICATION_REPLICATED_BY);
             createMixedIndexForVertexCoreProperty(PROPERTY_NAME_MAPPING_PROPERTIES,       PROPERTY_KEY_CLASSIFICATION_MAPPING_PROPERTIES);
 
+            /*
+             *  History indexes
+             */
+
+            // A history vertex has the following properties and indexes:
+            // guid                                -   composite   - not unique because there is a vertex per version of the instance
+            // version                             -   none
+            // versionTime                         -   none        - the versions of one instance are always retrieved together
+            // entityOneGUID                       -   composite   - relationship history only
+            // entityTwoGUID                       -   composite   - relationship history only
+            // instance                            -   none        - serialized instance
+
+            createCompositeIndexForVertexProperty(PROPERTY_KEY_HISTORY_GUID,             String.class, false);
+            createCompositeIndexForVertexProperty(PROPERTY_KEY_HISTORY_ENTITY_ONE_GUID,  String.class, false);
+            createCompositeIndexForVertexProperty(PROPERTY_KEY_HISTORY_ENTITY_TWO_GUID,  String.class, false);
+
         }
         catch (Exception e) {
 
@@ -562,6 +583,14 @@ public class GraphOMRSGraphFactory {
             return;
         }
 
+        createCompositeIndexForVertexProperty(propertyKeyName, clazz, unique);
+    }
+
+    private void createCompositeIndexForVertexProperty(String propertyKeyName, Class clazz, boolean unique)
+    {
+
+        final String methodName = "createCompositeIndexForVertexProperty";
+
         String indexName = "vertexIndexComposite" + propertyKeyName;
         log.info("INDEX CREATE {}", indexName);
 
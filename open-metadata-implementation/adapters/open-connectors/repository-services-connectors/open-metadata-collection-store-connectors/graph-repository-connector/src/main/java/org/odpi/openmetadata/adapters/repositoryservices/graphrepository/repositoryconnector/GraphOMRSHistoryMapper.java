@@ -0,0 +1,176 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+
+import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.*;
+
+
+/**
+ * GraphOMRSHistoryMapper maps the versions of entities and relationships to and from the history vertices of the
+ * graph.  A history vertex holds one version of an instance in serialized form, together with the properties
+ * needed to locate it: the GUID of the instance, its version number and the time that the version became current
+ * (its update time, or its create time if it has never been updated).  The history vertices of a relationship also
+ * hold the GUIDs of the entities at each end.
+ */
+public class GraphOMRSHistoryMapper {
+
+    private static final Logger log = LoggerFactory.getLogger(GraphOMRSHistoryMapper.class);
+
+    private String repositoryName;
+
+    GraphOMRSHistoryMapper(String repositoryName) {
+
+        this.repositoryName = repositoryName;
+    }
+
+
+    private Object getVertexProperty(Vertex vertex, String propName)
+    {
+        VertexProperty vp = vertex.property(propName);
+        if (vp == null || !vp.isPresent())
+            return null;
+        else
+            return vp.value();
+    }
+
+
+    /**
+     * Return the time that a version of an instance became current.
+     *
+     * @param instance version of the instance
+     * @return update time, or create time if never updated (zero if neither is set)
+     */
+    static long getVersionTime(InstanceAuditHeader instance)
+    {
+        Date versionTime = instance.getUpdateTime();
+
+        if (versionTime == null)
+        {
+            versionTime = instance.getCreateTime();
+        }
+
+        return (versionTime == null) ? 0L : versionTime.getTime();
+    }
+
+
+    // Inbound methods - i.e. writing to store
+
+    void mapEntityDetailToVertex(EntityDetail entity, Vertex vertex)
+            throws RepositoryErrorException
+    {
+        final String methodName = "mapEntityDetailToVertex";
+
+        mapInstanceToVertex(entity, vertex, methodName);
+    }
+
+
+    void mapRelationshipToVertex(Relationship relationship, Vertex vertex)
+            throws RepositoryErrorException
+    {
+        final String methodName = "mapRelationshipToVertex";
+
+        mapInstanceToVertex(relationship, vertex, methodName);
+
+        if (relationship.getEntityOneProxy() != null && relationship.getEntityOneProxy().getGUID() != null) {
+            vertex.property(PROPERTY_KEY_HISTORY_ENTITY_ONE_GUID, relationship.getEntityOneProxy().getGUID());
+        }
+        if (relationship.getEntityTwoProxy() != null && relationship.getEntityTwoProxy().getGUID() != null) {
+            vertex.property(PROPERTY_KEY_HISTORY_ENTITY_TWO_GUID, relationship.getEntityTwoProxy().getGUID());
+        }
+    }
+
+
+    private void mapInstanceToVertex(InstanceHeader instance, Vertex vertex, String methodName)
+            throws RepositoryErrorException
+    {
+        String jsonString;
+        try {
+            jsonString = GraphOMRSJsonCodec.writeValueAsString(instance);
+        } catch (Throwable exc) {
+            log.error("{} Caught exception serializing version {} of instance {}", methodName, instance.getVersion(), instance.getGUID());
+            throw new RepositoryErrorException(GraphOMRSErrorCode.INSTANCE_HISTORY_ERROR.getMessageDefinition(instance.getGUID(), methodName,
+                                                                                                              this.getClass().getName(),
+                                                                                                              repositoryName),
+                    this.getClass().getName(),
+                    methodName, exc);
+        }
+
+        vertex.property(PROPERTY_KEY_HISTORY_GUID, instance.getGUID());
+        vertex.property(PROPERTY_KEY_HISTORY_VERSION, instance.getVersion());
+        vertex.property(PROPERTY_KEY_HISTORY_VERSION_TIME, getVersionTime(instance));
+        vertex.property(PROPERTY_KEY_HISTORY_INSTANCE, jsonString);
+    }
+
+
+    // Outbound methods - i.e. reading from store
+
+    long getVersion(Vertex vertex)
+    {
+        Long version = (Long) getVertexProperty(vertex, PROPERTY_KEY_HISTORY_VERSION);
+
+        return (version == null) ? 0L : version;
+    }
+
+
+    long getVersionTime(Vertex vertex)
+    {
+        Long versionTime = (Long) getVertexProperty(vertex, PROPERTY_KEY_HISTORY_VERSION_TIME);
+
+        return (versionTime == null) ? 0L : versionTime;
+    }
+
+
+    String getGUID(Vertex vertex)
+    {
+        return (String) getVertexProperty(vertex, PROPERTY_KEY_HISTORY_GUID);
+    }
+
+
+    EntityDetail mapVertexToEntityDetail(Vertex vertex)
+            throws RepositoryErrorException
+    {
+        final String methodName = "mapVertexToEntityDetail";
+
+        return mapVertexToInstance(vertex, EntityDetail.class, methodName);
+    }
+
+
+    Relationship mapVertexToRelationship(Vertex vertex)
+            throws RepositoryErrorException
+    {
+        final String methodName = "mapVertexToRelationship";
+
+        return mapVertexToInstance(vertex, Relationship.class, methodName);
+    }
+
+
+    private <T extends InstanceHeader> T mapVertexToInstance(Vertex vertex, Class<T> instanceClass, String methodName)
+            throws RepositoryErrorException
+    {
+        String jsonString = (String) getVertexProperty(vertex, PROPERTY_KEY_HISTORY_INSTANCE);
+
+        try {
+            return GraphOMRSJsonCodec.readInstance(jsonString, instanceClass);
+        } catch (Throwable exc) {
+            log.error("{} caught exception {}", methodName, exc.getMessage());
+            throw new RepositoryErrorException(GraphOMRSErrorCode.INSTANCE_HISTORY_ERROR.getMessageDefinition(getGUID(vertex), methodName,
+                                                                                                              this.getClass().getName(),
+                                                                                                              repositoryName),
+                    this.getClass().getName(),
+                    methodName, exc);
+        }
+    }
+}
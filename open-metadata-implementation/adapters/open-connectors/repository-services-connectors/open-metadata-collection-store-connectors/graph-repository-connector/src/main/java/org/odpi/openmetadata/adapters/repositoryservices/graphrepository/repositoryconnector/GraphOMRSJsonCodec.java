@@ -0,0 +1,124 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * GraphOMRSJsonCodec serializes and deserializes the values that the graph mappers store as JSON strings on vertices
+ * and edges: instance properties, maintainedBy lists, mapping properties and the versions held in the history.
+ * The readers and writer are built once from a single ObjectMapper and shared by all of the mappers - they are
+ * immutable and safe to use from many threads, and reusing them avoids creating an ObjectMapper (and rebuilding its
+ * serializers and deserializers) for every value that is mapped.
+ *
+ * The values remain JSON text because the maintainedBy and mappingProperties values are indexed as text for searches,
+ * and because graphs created by earlier releases can then be read without migration.
+ */
+class GraphOMRSJsonCodec
+{
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final ObjectWriter writer                   = objectMapper.writer();
+    private static final ObjectReader instancePropertiesReader = objectMapper.readerFor(InstanceProperties.class);
+    private static final ObjectReader maintainedByReader       = objectMapper.readerFor(new TypeReference<List<String>>() {});
+    private static final ObjectReader mappingPropertiesReader  = objectMapper.readerFor(new TypeReference<Map<String, Serializable>>() {});
+    private static final ObjectReader entityDetailReader       = objectMapper.readerFor(EntityDetail.class);
+    private static final ObjectReader relationshipReader       = objectMapper.readerFor(Relationship.class);
+
+
+    /**
+     * Private constructor - the codec only has static methods.
+     */
+    private GraphOMRSJsonCodec()
+    {
+    }
+
+
+    /**
+     * Serialize a value to JSON.
+     *
+     * @param value value to serialize
+     * @return JSON string
+     * @throws JsonProcessingException the value could not be serialized
+     */
+    static String writeValueAsString(Object value) throws JsonProcessingException
+    {
+        return writer.writeValueAsString(value);
+    }
+
+
+    /**
+     * Deserialize instance properties.
+     *
+     * @param json serialized properties
+     * @return instance properties
+     * @throws JsonProcessingException the JSON is not valid instance properties
+     */
+    static InstanceProperties readInstanceProperties(String json) throws JsonProcessingException
+    {
+        return instancePropertiesReader.readValue(json);
+    }
+
+
+    /**
+     * Deserialize a maintainedBy list.
+     *
+     * @param json serialized list of user ids
+     * @return list of user ids
+     * @throws JsonProcessingException the JSON is not a list of strings
+     */
+    static List<String> readMaintainedBy(String json) throws JsonProcessingException
+    {
+        return maintainedByReader.readValue(json);
+    }
+
+
+    /**
+     * Deserialize mapping properties.
+     *
+     * @param json serialized map
+     * @return mapping properties
+     * @throws JsonProcessingException the JSON is not a map
+     */
+    static Map<String, Serializable> readMappingProperties(String json) throws JsonProcessingException
+    {
+        return mappingPropertiesReader.readValue(json);
+    }
+
+
+    /**
+     * Deserialize a stored version of an entity or relationship.
+     *
+     * @param json serialized instance
+     * @param instanceClass EntityDetail or Relationship
+     * @param <T> type of instance
+     * @return instance
+     * @throws JsonProcessingException the JSON is not an instance of the requested class
+     */
+    static <T> T readInstance(String json, Class<T> instanceClass) throws JsonProcessingException
+    {
+        if (instanceClass == EntityDetail.class)
+        {
+            return entityDetailReader.readValue(json);
+        }
+        else if (instanceClass == Relationship.class)
+        {
+            return relationshipReader.readValue(json);
+        }
+
+        return objectMapper.readValue(json, instanceClass);
+    }
+}
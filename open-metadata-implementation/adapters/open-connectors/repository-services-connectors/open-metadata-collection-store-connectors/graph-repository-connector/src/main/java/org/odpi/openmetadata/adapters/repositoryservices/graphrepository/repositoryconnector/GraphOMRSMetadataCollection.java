@@ -5,6 +5,7 @@ package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.reposi
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSDynamicTypeMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
@@ -54,6 +55,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -70,7 +72,9 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
     private static final Logger log = LoggerFactory.getLogger(GraphOMRSMetadataCollection.class);
 
-    private GraphOMRSMetadataStore graphStore = null;
+    private GraphOMRSMetadataStore  graphStore = null;
+    private GraphOMRSQueryPlanCache queryPlanCache;
+    private int                     referenceCopyBatchSize = GraphOMRSRepositoryConnectorProvider.defaultReferenceCopyBatchSize;
 
     /**
      * Constructor ensures the metadata collection is linked to its connector and knows its metadata collection Id.
@@ -82,6 +86,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
      * @param repositoryValidator  - class used to validate type definitions and instances.
      * @param metadataCollectionId - unique Identifier of the metadata collection Id.
      * @param auditLog             - logging destination
+     * @param storageProperties    - configuration properties for the graph database, the batch size for
+     *                             saving reference copies and the retention policy for the version history
      */
     GraphOMRSMetadataCollection(GraphOMRSRepositoryConnector parentConnector,
                                 String                       repositoryName,
@@ -103,9 +109,33 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
          */
         this.parentConnector = parentConnector;
 
+        this.queryPlanCache = new GraphOMRSQueryPlanCache(repositoryName, metadataCollectionId, repositoryHelper);
+
+        /*
+         * The batch size and history retention policy are properties of the connector rather than the graph database
+         * so they are removed before the storage properties are passed on.
+         */
+        if (storageProperties != null)
+        {
+            storageProperties = new HashMap<>(storageProperties);
+        }
+
+        this.referenceCopyBatchSize = this.removeIntegerProperty(storageProperties,
+                                                                 GraphOMRSRepositoryConnectorProvider.referenceCopyBatchSizeProperty,
+                                                                 GraphOMRSRepositoryConnectorProvider.defaultReferenceCopyBatchSize);
+
+        int historyMaxVersions = this.removeIntegerProperty(storageProperties,
+                                                            GraphOMRSRepositoryConnectorProvider.historyMaxVersionsProperty,
+                                                            GraphOMRSRepositoryConnectorProvider.defaultHistoryMaxVersions);
+
+        int historyRetentionDays = this.removeIntegerProperty(storageProperties,
+                                                              GraphOMRSRepositoryConnectorProvider.historyRetentionDaysProperty,
+                                                              GraphOMRSRepositoryConnectorProvider.defaultHistoryRetentionDays);
+
         try {
             this.graphStore = new GraphOMRSMetadataStore(metadataCollectionId, repositoryName, repositoryHelper, auditLog,
                     storageProperties);
+            this.graphStore.setHistoryRetention(historyMaxVersions, historyRetentionDays);
         }
         catch(RepositoryErrorException e) {
             /*
@@ -118,6 +148,40 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    /*
+     * Remove a connector property from the storage properties and return its integer value, or the default value
+     * if the property is not set or is not a valid integer.
+     */
+    private int removeIntegerProperty(Map<String, Object> storageProperties,
+                                      String              propertyName,
+                                      int                 defaultValue)
+    {
+        final String methodName = "removeIntegerProperty";
+
+        if (storageProperties == null || !storageProperties.containsKey(propertyName))
+        {
+            return defaultValue;
+        }
+
+        Object propertyValue = storageProperties.remove(propertyName);
+
+        if (propertyValue instanceof Number)
+        {
+            return ((Number) propertyValue).intValue();
+        }
+
+        try
+        {
+            return Integer.parseInt(String.valueOf(propertyValue));
+        }
+        catch (NumberFormatException e)
+        {
+            log.error("{} ignoring invalid {} value {}", methodName, propertyName, propertyValue);
+            return defaultValue;
+        }
+    }
+
+
     // verifyTypeDef will always return result from superclass because all knowledge of types is delegated to the RCM.
     @Override
     public boolean verifyTypeDef(String  userId,
@@ -421,6 +485,82 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // getEntityDetail - as it was at the asOfTime
+    @Override
+    public EntityDetail getEntityDetail(String     userId,
+                                        String     guid,
+                                        Date       asOfTime)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            EntityNotKnownException,
+            EntityProxyOnlyException,
+            UserNotAuthorizedException
+    {
+        final String methodName = "getEntityDetail";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstanceParameterValidation(userId, guid, asOfTime, methodName);
+
+        /*
+         * Perform operation
+         */
+
+        EntityDetail entity;
+
+        if (asOfTime == null) {
+            entity = graphStore.getEntityDetailFromStore(guid);
+        }
+        else {
+            entity = graphStore.getEntityDetailFromStore(guid, asOfTime);
+        }
+
+        repositoryValidator.validateEntityFromStore(repositoryName, guid, entity, methodName);
+        repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
+
+        return entity;
+    }
+
+
+    // getEntityDetailHistory
+    @Override
+    public List<EntityDetail> getEntityDetailHistory(String                 userId,
+                                                     String                 guid,
+                                                     Date                   fromTime,
+                                                     Date                   toTime,
+                                                     int                    startFromElement,
+                                                     int                    pageSize,
+                                                     HistorySequencingOrder sequencingOrder)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            EntityNotKnownException,
+            EntityProxyOnlyException,
+            UserNotAuthorizedException
+    {
+        final String methodName = "getEntityDetailHistory";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstanceHistoryParameterValidation(userId, guid, fromTime, toTime, methodName);
+
+        /*
+         * Perform operation
+         */
+
+        List<EntityDetail> versions = graphStore.getEntityDetailHistoryFromStore(guid, fromTime, toTime);
+
+        if (versions.isEmpty()) {
+            repositoryValidator.validateEntityFromStore(repositoryName, guid, null, methodName);
+        }
+
+        return getHistoryPage(versions, startFromElement, pageSize, sequencingOrder);
+    }
+
+
     // addRelationship
     @Override
     public Relationship addRelationship(String               userId,
@@ -608,6 +748,109 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // getRelationship - as it was at the asOfTime
+    @Override
+    public Relationship getRelationship(String    userId,
+                                        String    guid,
+                                        Date      asOfTime)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            RelationshipNotKnownException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationship";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstanceParameterValidation(userId, guid, asOfTime, methodName);
+
+        /*
+         * Process operation
+         */
+        Relationship  relationship;
+
+        if (asOfTime == null) {
+            relationship = graphStore.getRelationshipFromStore(guid);
+        }
+        else {
+            relationship = graphStore.getRelationshipFromStore(guid, asOfTime);
+        }
+
+        repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
+        repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
+
+        return relationship;
+    }
+
+
+    // getRelationshipHistory
+    @Override
+    public List<Relationship> getRelationshipHistory(String                 userId,
+                                                     String                 guid,
+                                                     Date                   fromTime,
+                                                     Date                   toTime,
+                                                     int                    startFromElement,
+                                                     int                    pageSize,
+                                                     HistorySequencingOrder sequencingOrder)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            RelationshipNotKnownException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipHistory";
+
+        /*
+         * Validate parameters
+         */
+        super.getInstanceHistoryParameterValidation(userId, guid, fromTime, toTime, methodName);
+
+        /*
+         * Process operation
+         */
+        List<Relationship> versions = graphStore.getRelationshipHistoryFromStore(guid, fromTime, toTime);
+
+        if (versions.isEmpty()) {
+            repositoryValidator.validateRelationshipFromStore(repositoryName, guid, null, methodName);
+        }
+
+        return getHistoryPage(versions, startFromElement, pageSize, sequencingOrder);
+    }
+
+
+    /**
+     * Return the requested page of the versions of an instance.  The versions are supplied oldest first and
+     * are returned newest first unless the sequencing order is FORWARDS.
+     *
+     * @param versions versions of the instance, oldest first
+     * @param startFromElement the starting element number of the versions to return
+     * @param pageSize the maximum number of versions to return.  Zero means unrestricted.
+     * @param sequencingOrder order of the versions
+     * @param <T> type of instance
+     * @return list of versions or null if the page is empty
+     */
+    private <T> List<T> getHistoryPage(List<T>                versions,
+                                       int                    startFromElement,
+                                       int                    pageSize,
+                                       HistorySequencingOrder sequencingOrder)
+    {
+        if (sequencingOrder != HistorySequencingOrder.FORWARDS) {
+            Collections.reverse(versions);
+        }
+
+        int fromElement = Math.max(startFromElement, 0);
+        int toElement   = (pageSize > 0) ? (int) Math.min((long) fromElement + pageSize, versions.size()) : versions.size();
+
+        if (fromElement >= toElement) {
+            return null;
+        }
+
+        return new ArrayList<>(versions.subList(fromElement, toElement));
+    }
+
+
     // updateEntityStatus
     @Override
     public EntityDetail updateEntityStatus(String           userId,
@@ -805,6 +1048,77 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // undoEntityUpdate
+    @Override
+    public EntityDetail undoEntityUpdate(String    userId,
+                                         String    entityGUID)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            EntityNotKnownException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "undoEntityUpdate";
+        final String  parameterName = "entityGUID";
+
+        /*
+         * Validate parameters
+         */
+        super.manageInstanceParameterValidation(userId, entityGUID, parameterName, methodName);
+
+        /*
+         * Locate the current and previous versions of the entity
+         */
+        EntityDetail entity;
+        try {
+
+            entity = graphStore.getEntityDetailFromStore(entityGUID);
+
+        }
+        catch (EntityProxyOnlyException e) {
+            log.warn("{} entity wth GUID {} is only a proxy", methodName, entityGUID);
+
+            throw new EntityNotKnownException(OMRSErrorCode.ENTITY_PROXY_ONLY.getMessageDefinition(methodName,
+                                                                                                   this.getClass().getName(),
+                                                                                                   repositoryName),
+                    this.getClass().getName(),
+                    methodName,
+                    e);
+        }
+
+        repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entity, methodName);
+        repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
+        repositoryValidator.validateEntityCanBeUpdated(repositoryName, metadataCollectionId, entity, methodName);
+
+        List<EntityDetail> versions = graphStore.getLatestEntityVersionsFromStore(entityGUID, 2);
+
+        if (versions.size() < 2) {
+            log.error("{} there is no previous version of entity with GUID {}", methodName, entityGUID);
+
+            throw new InvalidParameterException(GraphOMRSErrorCode.NO_PREVIOUS_VERSION.getMessageDefinition(entityGUID,
+                                                                                                            methodName,
+                                                                                                            this.getClass().getName(),
+                                                                                                            repositoryName),
+                    this.getClass().getName(),
+                    methodName,
+                    parameterName);
+        }
+
+        /*
+         * Validation complete - restore the previous version as a new version of the entity
+         */
+        EntityDetail   restoredEntity = new EntityDetail(versions.get(0));
+
+        restoredEntity = repositoryHelper.incrementVersion(userId, entity, restoredEntity);
+
+        repositoryValidator.validateEntityIsNotDeleted(repositoryName, restoredEntity, methodName);
+
+        graphStore.updateEntityInStore(restoredEntity);
+
+        return restoredEntity;
+    }
+
+
     // updateRelationshipStatus
     @Override
     public Relationship updateRelationshipStatus(String           userId,
@@ -958,6 +1272,60 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    // undoRelationshipUpdate
+    @Override
+    public Relationship undoRelationshipUpdate(String    userId,
+                                               String    relationshipGUID)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            RelationshipNotKnownException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "undoRelationshipUpdate";
+        final String  parameterName = "relationshipGUID";
+
+        /*
+         * Validate parameters
+         */
+        super.manageInstanceParameterValidation(userId, relationshipGUID, parameterName, methodName);
+
+        /*
+         * Locate the current and previous versions of the relationship
+         */
+        Relationship  relationship = this.getRelationship(userId, relationshipGUID);
+
+        repositoryValidator.validateRelationshipCanBeUpdated(repositoryName, metadataCollectionId, relationship, methodName);
+
+        List<Relationship> versions = graphStore.getLatestRelationshipVersionsFromStore(relationshipGUID, 2);
+
+        if (versions.size() < 2) {
+            log.error("{} there is no previous version of relationship with GUID {}", methodName, relationshipGUID);
+
+            throw new InvalidParameterException(GraphOMRSErrorCode.NO_PREVIOUS_VERSION.getMessageDefinition(relationshipGUID,
+                                                                                                            methodName,
+                                                                                                            this.getClass().getName(),
+                                                                                                            repositoryName),
+                    this.getClass().getName(),
+                    methodName,
+                    parameterName);
+        }
+
+        /*
+         * Validation complete - restore the previous version as a new version of the relationship
+         */
+        Relationship   restoredRelationship = new Relationship(versions.get(0));
+
+        restoredRelationship = repositoryHelper.incrementVersion(userId, relationship, restoredRelationship);
+
+        repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, restoredRelationship, methodName);
+
+        graphStore.updateRelationshipInStore(restoredRelationship);
+
+        return restoredRelationship;
+    }
+
+
     // purgeEntity
     @Override
     public void purgeEntity(String    userId,
@@ -1143,16 +1511,15 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
         repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entity, methodName);
         repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
 
-        List<Relationship> entityRelationships = new ArrayList<>();
-
-        if (asOfTime != null) {
-            log.error("{} does not support asOfTime searches", methodName);
+        List<Relationship> filteredRelationships = new ArrayList<>();
+        List<Relationship> relationships;
 
-            super.reportUnsupportedOptionalFunction(methodName);
+        if (asOfTime == null) {
+            relationships = graphStore.getRelationshipsForEntity(entityGUID);
+        }
+        else {
+            relationships = graphStore.getRelationshipsForEntity(entityGUID, asOfTime);
         }
-
-        List<Relationship> filteredRelationships = new ArrayList<>();
-        List<Relationship> relationships = graphStore.getRelationshipsForEntity(entityGUID);
 
         for (Relationship  relationship : relationships) {
 
@@ -1241,13 +1608,10 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
         }
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new   GraphOMRSQueryPlan(repositoryName,
-                                                                metadataCollectionId,
-                                                                repositoryHelper,
-                                                                TypeDefCategory.ENTITY_DEF,
-                                                                matchProperties,
-                                                                entityTypeGUID,
-                                                                null);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(TypeDefCategory.ENTITY_DEF,
+                                                                   matchProperties,
+                                                                   entityTypeGUID,
+                                                                   null);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -1270,24 +1634,24 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<EntityDetail> foundEntities = null;
 
-        // If there were any dups there must be horizontal duplication (across the types within the valid type set).
-        if (queryPlan.getQueryStrategy() == GraphOMRSQueryPlan.QueryStrategy.Iterate)
-        {
-            // If there are dups in the property maps perform a per-type query
-            foundEntities = findEntitiesByPropertyIteratively(validTypeNames,
-                                                              matchProperties,
-                                                              matchCriteria);
-        }
-        else
-        {
-            // If there are no dups in property maps perform a delegated query.
-            foundEntities = graphStore.findEntitiesByPropertyForTypes(validTypeNames,
-                                                                      filterTypeName,
-                                                                      qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                      shortPropertyNameToQualifiedPropertyNames,
-                                                                      matchProperties,
-                                                                      matchCriteria);
-        }
+        /*
+         * The status and classification limits, and where possible the sequencing and paging, are applied in the traversal
+         */
+        GraphOMRSQueryPage queryPage = new GraphOMRSQueryPage(limitResultsByStatus,
+                                                              limitResultsByClassification,
+                                                              sequencingOrder,
+                                                              fromEntityElement,
+                                                              pageSize);
+
+        // Search all of the valid types in a single traversal
+        foundEntities = graphStore.findEntitiesByPropertyForTypes(validTypeNames,
+                                                                  filterTypeName,
+                                                                  qualifiedPropertyNameToTypeDefinedAttribute,
+                                                                  shortPropertyNameToQualifiedPropertyNames,
+                                                                  queryPlan.getQualifiedPropertyNameToTypeNames(),
+                                                                  matchProperties,
+                                                                  matchCriteria,
+                                                                  queryPage);
         // Process list of returned entities from sub-methods
         if (foundEntities != null)
         {
@@ -1308,7 +1672,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
             }
             // Perform sequencing and paging
             // Eliminate soft deleted entities and apply status and classification filtering if any was requested
-            entities = repositoryHelper.formatEntityResults(retainedEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+            entities = repositoryHelper.formatEntityResults(retainedEntities, queryPage.getResultsFromElement(), sequencingProperty, sequencingOrder, pageSize);
         }
 
         return entities;
@@ -1319,167 +1683,6 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
 
 
-    // findEntitiesByPropertyIteratively
-    public List<EntityDetail> findEntitiesByPropertyIteratively(List<String>                  validTypeNames,
-                                                                InstanceProperties            matchProperties,
-                                                                MatchCriteria                 matchCriteria)
-    throws
-    InvalidParameterException,
-    RepositoryErrorException,
-    TypeErrorException,
-    PropertyErrorException
-    {
-        final String methodName = "findEntitiesByPropertyIteratively";
-        List<EntityDetail> returnEntities = null;
-        // Iterate over the validTypeNames and perform a per-type query for each valid type
-        for (String typeName : validTypeNames)
-        {
-            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
-
-            // Invoke a type specific search. The search will expect the regexp to match fully to the value.
-            List<EntityDetail> entitiesForCurrentType = graphStore.findEntitiesByPropertyForType(typeName, matchProperties, matchCriteria, true);
-
-            if (entitiesForCurrentType != null && !entitiesForCurrentType.isEmpty())
-            {
-                if (returnEntities == null)
-                {
-                    returnEntities = new ArrayList<>();
-                }
-                log.info("{}: for type {} found {} entities", methodName, typeDef.getName(), entitiesForCurrentType.size());
-                returnEntities.addAll(entitiesForCurrentType);
-            }
-            else
-            {
-                log.info("{}: for type {} found no entities", methodName, typeDef.getName());
-            }
-        }
-        return returnEntities;
-    }
-
-
-
-    // findEntitiesIteratively
-    public List<EntityDetail> findEntitiesIteratively(List<String>                  validTypeNames,
-                                                      SearchProperties              searchProperties,
-                                                      MatchCriteria                 matchCriteria)
-    throws
-        InvalidParameterException,
-        RepositoryErrorException,
-        FunctionNotSupportedException
-    {
-        final String methodName = "findEntitiesIteratively";
-        List<EntityDetail> returnEntities = null;
-
-        // Iterate over the validTypeNames and perform a per-type query for each valid type
-        for (String typeName : validTypeNames)
-        {
-            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
-
-            // Invoke a type specific search. The search will expect the regexp to match fully to the value.
-            List<EntityDetail> entitiesForCurrentType = graphStore.findEntitiesForType(typeName,
-                                                                                       searchProperties,
-                                                                                       true);
-
-            if (entitiesForCurrentType != null && !entitiesForCurrentType.isEmpty())
-            {
-                if (returnEntities == null)
-                {
-                    returnEntities = new ArrayList<>();
-                }
-                log.info("{}: for type {} found {} entities", methodName, typeDef.getName(), entitiesForCurrentType.size());
-                returnEntities.addAll(entitiesForCurrentType);
-            }
-            else
-            {
-                log.info("{}: for type {} found no entities", methodName, typeDef.getName());
-            }
-        }
-        return returnEntities;
-    }
-
-
-
-    // findRelationshipsForTypes
-    public List<Relationship> findRelationshipsForTypes(List<String>                  validTypeNames,
-                                                        SearchProperties              searchProperties,
-                                                        MatchCriteria                 matchCriteria)
-    throws
-        InvalidParameterException,
-        RepositoryErrorException,
-        FunctionNotSupportedException
-    {
-        final String methodName = "findRelationshipsForTypes";
-        List<Relationship> returnRelationships = null;
-
-        // Iterate over the validTypeNames and perform a per-type query for each valid type
-        for (String typeName : validTypeNames)
-        {
-            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
-
-            // Invoke a type specific search. The search will expect the regexp to match fully to the value.
-            List<Relationship> relationshipsForCurrentType = graphStore.findRelationshipsForType(typeName,
-                                                                                                 searchProperties,
-                                                                                                 true);
-
-            if (relationshipsForCurrentType != null && !relationshipsForCurrentType.isEmpty())
-            {
-                if (returnRelationships == null)
-                {
-                    returnRelationships = new ArrayList<>();
-                }
-                log.info("{}: for type {} found {} relationships", methodName, typeDef.getName(), relationshipsForCurrentType.size());
-                returnRelationships.addAll(relationshipsForCurrentType);
-            }
-            else
-            {
-                log.info("{}: for type {} found no relationships", methodName, typeDef.getName());
-            }
-        }
-        return returnRelationships;
-    }
-
-
-
-
-    // findRelationshipsByPropertyIteratively
-    public List<Relationship> findRelationshipsByPropertyIteratively(List<String>                  validTypeNames,
-                                                                     InstanceProperties            matchProperties,
-                                                                     MatchCriteria                 matchCriteria)
-    throws
-        InvalidParameterException,
-        RepositoryErrorException
-    {
-        final String methodName = "findRelationshipsByPropertyIteratively";
-        List<Relationship> returnRelationships = null;
-        // Iterate over the validTypeNames and perform a per-type query for each valid type
-        for (String typeName : validTypeNames)
-        {
-            TypeDef typeDef = repositoryHelper.getTypeDefByName(repositoryName, typeName);
-
-            // Invoke a type specific search. The search will expect the regexp to match fully to the value.
-            List<Relationship> relationshipsForCurrentType = graphStore.findRelationshipsByPropertyForType(typeName,
-                                                                                                           matchProperties,
-                                                                                                           matchCriteria,
-                                                                                                           true);
-
-            if (relationshipsForCurrentType != null && !relationshipsForCurrentType.isEmpty())
-            {
-                if (returnRelationships == null)
-                {
-                    returnRelationships = new ArrayList<>();
-                }
-                log.info("{}: for type {} found {} relationships", methodName, typeDef.getName(), relationshipsForCurrentType.size());
-                returnRelationships.addAll(relationshipsForCurrentType);
-            }
-            else
-            {
-                log.info("{}: for type {} found no relationships", methodName, typeDef.getName());
-            }
-        }
-        return returnRelationships;
-    }
-
-
     // findRelationshipsByProperty
     @Override
     public  List<Relationship> findRelationshipsByProperty(String                    userId,
@@ -1535,13 +1738,10 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
          */
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new GraphOMRSQueryPlan(repositoryName,
-                                                              metadataCollectionId,
-                                                              repositoryHelper,
-                                                              TypeDefCategory.RELATIONSHIP_DEF,
-                                                              matchProperties,
-                                                              relationshipTypeGUID,
-                                                              null);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(TypeDefCategory.RELATIONSHIP_DEF,
+                                                                   matchProperties,
+                                                                   relationshipTypeGUID,
+                                                                   null);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -1565,24 +1765,24 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<Relationship> foundRelationships = null;
 
-        // If there were any dups there must be horizontal duplication (across the types within the valid type set).
-        if (queryPlan.getQueryStrategy() == GraphOMRSQueryPlan.QueryStrategy.Iterate)
-        {
-            // If there are dups in the property maps perform a per-type query
-            foundRelationships = findRelationshipsByPropertyIteratively(validTypeNames,
-                                                                        matchProperties,
-                                                                        matchCriteria);
-        }
-        else
-        {
-            // If there are no dups in property maps perform a delegated query.
-            foundRelationships = graphStore.findRelationshipsByPropertyForTypes(validTypeNames,
-                                                                                filterTypeName,
-                                                                                qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                                shortPropertyNameToQualifiedPropertyNames,
-                                                                                matchProperties,
-                                                                                matchCriteria);
-        }
+        /*
+         * The status limit, and where possible the sequencing and paging, are applied in the traversal
+         */
+        GraphOMRSQueryPage queryPage = new GraphOMRSQueryPage(limitResultsByStatus,
+                                                              null,
+                                                              sequencingOrder,
+                                                              fromRelationshipElement,
+                                                              pageSize);
+
+        // Search all of the valid types in a single traversal
+        foundRelationships = graphStore.findRelationshipsByPropertyForTypes(validTypeNames,
+                                                                            filterTypeName,
+                                                                            qualifiedPropertyNameToTypeDefinedAttribute,
+                                                                            shortPropertyNameToQualifiedPropertyNames,
+                                                                            queryPlan.getQualifiedPropertyNameToTypeNames(),
+                                                                            matchProperties,
+                                                                            matchCriteria,
+                                                                            queryPage);
 
         List<Relationship> relationships = null;
 
@@ -1603,7 +1803,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
             }
             // Perform sequencing and paging
 
-            relationships = repositoryHelper.formatRelationshipResults(retainedRelationships, fromRelationshipElement, sequencingProperty, sequencingOrder, pageSize);
+            relationships = repositoryHelper.formatRelationshipResults(retainedRelationships, queryPage.getResultsFromElement(), sequencingProperty, sequencingOrder, pageSize);
         }
 
         return relationships;
@@ -1682,12 +1882,9 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new   GraphOMRSQueryPlan(repositoryName,
-                                                                metadataCollectionId,
-                                                                repositoryHelper,
-                                                                TypeDefCategory.ENTITY_DEF,
-                                                                entityTypeGUID,
-                                                                null);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(TypeDefCategory.ENTITY_DEF,
+                                                                   entityTypeGUID,
+                                                                   null);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -1710,13 +1907,23 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<EntityDetail> foundEntities = null;
 
+        /*
+         * The status and classification limits, and where possible the sequencing and paging, are applied in the traversal
+         */
+        GraphOMRSQueryPage queryPage = new GraphOMRSQueryPage(limitResultsByStatus,
+                                                              limitResultsByClassification,
+                                                              sequencingOrder,
+                                                              fromEntityElement,
+                                                              pageSize);
+
         // For this find method the property maps will drive the query and there is no need to decide whether to iterate or delegate.
 
         foundEntities = findEntitiesByPropertyValueForTypes(validTypeNames,
                                                             filterTypeName,
                                                             qualifiedPropertyNameToTypeDefinedAttribute,
                                                             shortPropertyNameToQualifiedPropertyNames,
-                                                            searchCriteria);
+                                                            searchCriteria,
+                                                            queryPage);
 
         if (foundEntities != null)
         {
@@ -1736,7 +1943,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                 }
             }
             // Perform sequencing and paging
-            entities = repositoryHelper.formatEntityResults(retainedEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+            entities = repositoryHelper.formatEntityResults(retainedEntities, queryPage.getResultsFromElement(), sequencingProperty, sequencingOrder, pageSize);
         }
 
         return entities;
@@ -1795,12 +2002,9 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new   GraphOMRSQueryPlan(repositoryName,
-                                                                metadataCollectionId,
-                                                                repositoryHelper,
-                                                                TypeDefCategory.RELATIONSHIP_DEF,
-                                                                relationshipTypeGUID,
-                                                                null);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(TypeDefCategory.RELATIONSHIP_DEF,
+                                                                   relationshipTypeGUID,
+                                                                   null);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -1821,11 +2025,21 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
             return null;
         }
 
+        /*
+         * The status limit, and where possible the sequencing and paging, are applied in the traversal
+         */
+        GraphOMRSQueryPage queryPage = new GraphOMRSQueryPage(limitResultsByStatus,
+                                                              null,
+                                                              sequencingOrder,
+                                                              fromRelationshipElement,
+                                                              pageSize);
+
         List<Relationship> foundRelationships = findRelationshipsByPropertyValueForTypes(validTypeNames,
                                                                                          filterTypeName,
                                                                                          qualifiedPropertyNameToTypeDefinedAttribute,
                                                                                          shortPropertyNameToQualifiedPropertyNames,
-                                                                                         searchCriteria);
+                                                                                         searchCriteria,
+                                                                                         queryPage);
 
         List<Relationship> relationships = null;
 
@@ -1844,7 +2058,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                 }
             }
             // Perform sequencing and paging
-            relationships = repositoryHelper.formatRelationshipResults(retainedRelationships, fromRelationshipElement, sequencingProperty, sequencingOrder, pageSize);
+            relationships = repositoryHelper.formatRelationshipResults(retainedRelationships, queryPage.getResultsFromElement(), sequencingProperty, sequencingOrder, pageSize);
         }
 
         return relationships;
@@ -1859,7 +2073,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                                                                    String                         filterTypeName,
                                                                    Map<String, TypeDefAttribute>  qualifiedPropertyNameToTypeDefinedAttribute,
                                                                    Map<String, List<String>>      shortPropertyNameToQualifiedPropertyNames,
-                                                                   String                         searchCriteria)
+                                                                   String                         searchCriteria,
+                                                                   GraphOMRSQueryPage             queryPage)
     throws
         InvalidParameterException,
         RepositoryErrorException
@@ -1887,7 +2102,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                                                                                              qualifiedPropertyNameToTypeDefinedAttribute,
                                                                                              shortPropertyNameToQualifiedPropertyNames,
                                                                                              matchProperties,
-                                                                                             MatchCriteria.ANY);
+                                                                                             MatchCriteria.ANY,
+                                                                                             queryPage);
 
         return matchingEntities;
 
@@ -1901,7 +2117,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                                                                         String                         filterTypeName,
                                                                         Map<String, TypeDefAttribute>  qualifiedPropertyNameToTypeDefinedAttribute,
                                                                         Map<String, List<String>>      shortPropertyNameToQualifiedPropertyNames,
-                                                                        String                         searchCriteria)
+                                                                        String                         searchCriteria,
+                                                                        GraphOMRSQueryPage             queryPage)
     throws
     InvalidParameterException,
     TypeErrorException,
@@ -1933,7 +2150,8 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                                                                                                        qualifiedPropertyNameToTypeDefinedAttribute,
                                                                                                        shortPropertyNameToQualifiedPropertyNames,
                                                                                                        matchProperties,
-                                                                                                       MatchCriteria.ANY);
+                                                                                                       MatchCriteria.ANY,
+                                                                                                       queryPage);
 
         return matchingRelationships;
 
@@ -1996,13 +2214,10 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
         }
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new GraphOMRSQueryPlan(repositoryName,
-                                                              metadataCollectionId,
-                                                              repositoryHelper,
-                                                              TypeDefCategory.ENTITY_DEF,
-                                                              matchProperties,
-                                                              entityTypeGUID,
-                                                              entitySubtypeGUIDs);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(TypeDefCategory.ENTITY_DEF,
+                                                                   matchProperties,
+                                                                   entityTypeGUID,
+                                                                   entitySubtypeGUIDs);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -2025,23 +2240,24 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<EntityDetail> foundEntities = null;
 
-        // If there were any dups there must be horizontal duplication (across the types within the valid type set).
-        if (queryPlan.getQueryStrategy() == GraphOMRSQueryPlan.QueryStrategy.Iterate)
-        {
-            // If there are dups in the property maps perform a per-type query
-            foundEntities = findEntitiesIteratively(validTypeNames,
-                                                    matchProperties,
-                                                    MatchCriteria.ANY);
-        }
-        else
-        {
-            // If there are no dups in property maps perform a delegated query.
-            foundEntities = graphStore.findEntitiesForTypes(validTypeNames,
-                                                            filterTypeName,
-                                                            qualifiedPropertyNameToTypeDefinedAttribute,
-                                                            shortPropertyNameToQualifiedPropertyNames,
-                                                            matchProperties);
-        }
+        /*
+         * The status limit, and where possible the sequencing and paging, are applied in the traversal. The classifications
+         * are matched after the entities are retrieved, so in that case the whole result set is retrieved for paging.
+         */
+        GraphOMRSQueryPage queryPage = new GraphOMRSQueryPage(limitResultsByStatus,
+                                                              null,
+                                                              sequencingOrder,
+                                                              fromEntityElement,
+                                                              (matchClassifications == null) ? pageSize : 0);
+
+        // Search all of the valid types in a single traversal
+        foundEntities = graphStore.findEntitiesForTypes(validTypeNames,
+                                                        filterTypeName,
+                                                        qualifiedPropertyNameToTypeDefinedAttribute,
+                                                        shortPropertyNameToQualifiedPropertyNames,
+                                                        queryPlan.getQualifiedPropertyNameToTypeNames(),
+                                                        matchProperties,
+                                                        queryPage);
 
 
         if (foundEntities != null)
@@ -2063,7 +2279,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                 }
             }
             // Perform sequencing and paging
-            entities = repositoryHelper.formatEntityResults(retainedEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+            entities = repositoryHelper.formatEntityResults(retainedEntities, queryPage.getResultsFromElement(), sequencingProperty, sequencingOrder, pageSize);
         }
 
         return entities;
@@ -2158,13 +2374,10 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
          */
 
         // Generate a query plan
-        GraphOMRSQueryPlan queryPlan = new GraphOMRSQueryPlan(repositoryName,
-                                                              metadataCollectionId,
-                                                              repositoryHelper,
-                                                              TypeDefCategory.RELATIONSHIP_DEF,
-                                                              matchProperties,
-                                                              relationshipTypeGUID,
-                                                              relationshipSubtypeGUIDs);
+        GraphOMRSQueryPlan queryPlan = queryPlanCache.getQueryPlan(TypeDefCategory.RELATIONSHIP_DEF,
+                                                                   matchProperties,
+                                                                   relationshipTypeGUID,
+                                                                   relationshipSubtypeGUIDs);
 
         /* Map from qualifiedPropertyName to TDA */
         Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute = queryPlan.getQualifiedPropertyNameToTypeDefinedAttribute();
@@ -2187,23 +2400,23 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
 
         List<Relationship> foundRelationships = null;
 
-        // If there were any dups there must be horizontal duplication (across the types within the valid type set).
-        if (queryPlan.getQueryStrategy() == GraphOMRSQueryPlan.QueryStrategy.Iterate)
-        {
-            // If there are dups in the property maps perform a per-type query
-            foundRelationships = findRelationshipsForTypes(validTypeNames,
-                                                           matchProperties,
-                                                           MatchCriteria.ANY);
-        }
-        else
-        {
-            // If there are no dups in property maps perform a delegated query.
-            foundRelationships = graphStore.findRelationshipsForTypes(validTypeNames,
-                                                                      filterTypeName,
-                                                                      qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                      shortPropertyNameToQualifiedPropertyNames,
-                                                                      matchProperties);
-        }
+        /*
+         * The status limit, and where possible the sequencing and paging, are applied in the traversal
+         */
+        GraphOMRSQueryPage queryPage = new GraphOMRSQueryPage(limitResultsByStatus,
+                                                              null,
+                                                              sequencingOrder,
+                                                              fromRelationshipElement,
+                                                              pageSize);
+
+        // Search all of the valid types in a single traversal
+        foundRelationships = graphStore.findRelationshipsForTypes(validTypeNames,
+                                                                  filterTypeName,
+                                                                  qualifiedPropertyNameToTypeDefinedAttribute,
+                                                                  shortPropertyNameToQualifiedPropertyNames,
+                                                                  queryPlan.getQualifiedPropertyNameToTypeNames(),
+                                                                  matchProperties,
+                                                                  queryPage);
 
 
         List<Relationship> relationships = null;
@@ -2226,7 +2439,7 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
                 }
             }
             // Perform sequencing and paging
-            relationships = repositoryHelper.formatRelationshipResults(retainedRelationships, fromRelationshipElement, sequencingProperty, sequencingOrder, pageSize);
+            relationships = repositoryHelper.formatRelationshipResults(retainedRelationships, queryPage.getResultsFromElement(), sequencingProperty, sequencingOrder, pageSize);
         }
 
         return relationships;
@@ -3807,6 +4020,43 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    /*
+     * All of the instances are validated before any are saved.  They are then saved in graph transactions of up to
+     * referenceCopyBatchSize instances rather than in a transaction per instance.
+     */
+    @Override
+    public void saveInstanceReferenceCopies(String          userId,
+                                            InstanceGraph   instances)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeErrorException,
+            EntityNotKnownException,
+            PropertyErrorException,
+            EntityConflictException,
+            RelationshipConflictException,
+            InvalidEntityException,
+            InvalidRelationshipException,
+            FunctionNotSupportedException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "saveInstanceReferenceCopies";
+
+        /*
+         * Validate parameters
+         */
+        InstanceGraph referenceCopies = super.referenceInstancesParameterValidation(userId, instances, methodName);
+
+
+        /*
+         * Save instances
+         */
+        graphStore.saveInstanceReferenceCopiesToStore(referenceCopies.getEntities(),
+                                                      referenceCopies.getRelationships(),
+                                                      referenceCopyBatchSize);
+    }
+
+
     @Override
     public void purgeRelationshipReferenceCopy(String   userId,
                                                String   relationshipGUID,
@@ -4,15 +4,22 @@
 package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
 
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import com.sleepycat.je.LockConflictException;
 import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.attribute.Text;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.locking.PermanentLockingException;
+import org.janusgraph.diskstorage.locking.TemporaryLockingException;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ArrayPropertyValue;
@@ -21,6 +28,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
@@ -52,6 +60,8 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -59,6 +69,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.P.eq;
 import static org.apache.tinkerpop.gremlin.process.traversal.P.gt;
@@ -73,9 +87,16 @@ import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.out;
 
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_CLASSIFICATION_CLASSIFICATION_NAME;
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_ENTITY_GUID;
+import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_RELATIONSHIP_UPDATE_TIME;
+import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_RELATIONSHIP_CREATE_TIME;
+import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_ENTITY_UPDATE_TIME;
+import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_ENTITY_CREATE_TIME;
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_ENTITY_IS_PROXY;
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_ENTITY_CURRENT_STATUS;
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_ENTITY_TYPE_NAME;
+import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_HISTORY_ENTITY_ONE_GUID;
+import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_HISTORY_ENTITY_TWO_GUID;
+import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_HISTORY_GUID;
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_PREFIX_CLASSIFICATION;
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_PREFIX_ENTITY;
 import static org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector.GraphOMRSConstants.PROPERTY_KEY_PREFIX_RELATIONSHIP;
@@ -100,6 +121,14 @@ import static org.odpi.openmetadata.repositoryservices.connectors.stores.metadat
  * GraphOMRSMetadataStore provides the graph store for the GraphRepositoryConnector
  * The Graph Store is implemented using JanusGraph and is used to store instances.
  * There is no type graph because the RCM is used to get any information about TypeDefs and AttributeTypeDefs.
+ *
+ * The store is called concurrently.  Each method works in the JanusGraph transaction that is bound to the calling
+ * thread, which it commits or rolls back before returning, so requests on different threads run in parallel and
+ * JanusGraph isolates their changes.  A write that fails because of lock contention with another transaction (for
+ * example, two requests saving the same instance) is rolled back and retried a small number of times, after a short
+ * randomized wait, before the failure is returned to the caller.  Relationship edges are not covered by a unique
+ * index, so the transactions that may create the edge for a relationship are also serialized by a lock chosen from
+ * the relationship's GUID.  This stops two concurrent saves of the same relationship from both creating an edge.
  */
 class GraphOMRSMetadataStore {
 
@@ -118,6 +147,19 @@ class GraphOMRSMetadataStore {
     private GraphOMRSRelationshipMapper relationshipMapper;
     private GraphOMRSEntityMapper entityMapper;
     private GraphOMRSClassificationMapper classificationMapper;
+    private GraphOMRSHistoryMapper historyMapper;
+
+    // Retention policy for the version history of each instance - zero means no limit
+    private volatile int  historyMaxVersions   = GraphOMRSRepositoryConnectorProvider.defaultHistoryMaxVersions;
+    private volatile long historyRetentionTime = 0L;
+
+    // Retry policy for transactions that fail because of lock contention
+    static final int  maxTransactionAttempts = 10;
+    static final long transactionRetryWait   = 20L;
+
+    // Striped locks serializing the transactions that may create the edge for a relationship
+    private static final int      relationshipLockStripes = 64;
+    private final ReentrantLock[] relationshipLocks       = new ReentrantLock[relationshipLockStripes];
 
 
     /**
@@ -163,7 +205,116 @@ class GraphOMRSMetadataStore {
         this.relationshipMapper = new GraphOMRSRelationshipMapper(metadataCollectionId, repositoryName, repositoryHelper);
         this.entityMapper = new GraphOMRSEntityMapper(metadataCollectionId, repositoryName, repositoryHelper);
         this.classificationMapper = new GraphOMRSClassificationMapper(metadataCollectionId, repositoryName, repositoryHelper);
+        this.historyMapper = new GraphOMRSHistoryMapper(repositoryName);
+
+        for (int i = 0; i < relationshipLockStripes; i++)
+        {
+            relationshipLocks[i] = new ReentrantLock();
+        }
+    }
+
+
+    /*
+     * Lock the stripes for the supplied relationship GUIDs.  The stripes are always locked in ascending order so that
+     * two threads locking overlapping sets of relationships can not deadlock.  The returned locks must be passed to
+     * unlockRelationships in a finally block.
+     */
+    private List<ReentrantLock> lockRelationships(Collection<String> relationshipGUIDs)
+    {
+        Set<Integer> stripes = new TreeSet<>();
+
+        for (String relationshipGUID : relationshipGUIDs)
+        {
+            if (relationshipGUID != null)
+            {
+                stripes.add(Math.floorMod(relationshipGUID.hashCode(), relationshipLockStripes));
+            }
+        }
+
+        List<ReentrantLock> locks = new ArrayList<>();
+
+        for (int stripe : stripes)
+        {
+            relationshipLocks[stripe].lock();
+            locks.add(relationshipLocks[stripe]);
+        }
+
+        return locks;
+    }
+
+
+    /*
+     * Release the locks returned by lockRelationships.
+     */
+    private static void unlockRelationships(List<ReentrantLock> locks)
+    {
+        for (ReentrantLock lock : locks)
+        {
+            lock.unlock();
+        }
+    }
+
 
+    /*
+     * Decide whether an operation that has failed should be retried.  Only failures caused by lock contention with
+     * a concurrent transaction are retried, up to maxTransactionAttempts in total.  Before a retry, the transaction of
+     * the current thread is rolled back and the thread waits for a random time that grows with each attempt so that
+     * the competing transactions are unlikely to collide again.
+     */
+    private boolean retryAfterLockContention(Exception exception,
+                                             int       attempt,
+                                             String    methodName)
+    {
+        if (attempt >= maxTransactionAttempts || !isLockContention(exception))
+        {
+            return false;
+        }
+
+        log.debug("{} retrying after lock contention on attempt {}: {}", methodName, attempt, exception.getMessage());
+
+        if (instanceGraph.tx().isOpen())
+        {
+            instanceGraph.tx().rollback();
+        }
+
+        try
+        {
+            Thread.sleep(getRetryWait(attempt));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        return true;
+    }
+
+
+    /*
+     * Return the time to wait before retrying after the supplied attempt: a random time of at least a millisecond
+     * and at most transactionRetryWait milliseconds for each attempt so far.
+     */
+    static long getRetryWait(int attempt)
+    {
+        return ThreadLocalRandom.current().nextLong(1L, transactionRetryWait * attempt + 1);
+    }
+
+
+    static boolean isLockContention(Throwable exception)
+    {
+        for (Throwable cause = exception; cause != null; cause = (cause.getCause() == cause) ? null : cause.getCause())
+        {
+            if (cause instanceof TemporaryLockingException
+                    || cause instanceof PermanentLockingException
+                    || cause instanceof TemporaryBackendException
+                    || cause instanceof LockConflictException)
+            {
+                return true;
+            }
+        }
+
+        return false;
     }
 
 
@@ -173,7 +324,31 @@ class GraphOMRSMetadataStore {
     // so we COULD re-spin it, we should NOT do that here - it should be in the MDC layer and RepoHelper layer.
     // Therefore if we get a GUID clash here we throw an exception.
     //
-    synchronized EntityDetail createEntityInStore(EntityDetail entity)
+    EntityDetail createEntityInStore(EntityDetail entity)
+
+    throws RepositoryErrorException,
+           InvalidParameterException
+    {
+        final String methodName = "createEntityInStore";
+
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                return tryCreateEntityInStore(entity);
+            }
+            catch (RepositoryErrorException | RuntimeException e)
+            {
+                if (!retryAfterLockContention(e, attempt, methodName))
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    private EntityDetail tryCreateEntityInStore(EntityDetail entity)
 
     throws RepositoryErrorException,
            InvalidParameterException
@@ -265,6 +440,8 @@ class GraphOMRSMetadataStore {
                 }
             }
 
+            addEntityToHistory(g, entity);
+
         }
         catch (Exception e)
         {
@@ -292,14 +469,56 @@ class GraphOMRSMetadataStore {
     // If the MDC found that an entity (of any description, entity, proxy or reference copy) is present - then it will not have asked you to create the proxy
     // So - if we do find that there is a GUID clash then throw exception.
     //
-    synchronized void createEntityProxyInStore(EntityProxy entityProxy)
+    void createEntityProxyInStore(EntityProxy entityProxy)
 
     throws RepositoryErrorException,
            InvalidParameterException
     {
         final String methodName = "createEntityProxyInStore";
 
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                tryCreateEntityProxyInStore(entityProxy);
+                return;
+            }
+            catch (RepositoryErrorException | RuntimeException e)
+            {
+                if (!retryAfterLockContention(e, attempt, methodName))
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    private void tryCreateEntityProxyInStore(EntityProxy entityProxy)
+
+    throws RepositoryErrorException,
+           InvalidParameterException
+    {
         GraphTraversalSource g = instanceGraph.traversal();
+
+        this.createEntityProxyInTransaction(g, entityProxy);
+
+        g.tx().commit();
+    }
+
+
+    /*
+     * Create the vertex for an entity proxy in the current transaction.  The transaction is rolled back on error and
+     * otherwise left for the caller to commit.
+     */
+    private void createEntityProxyInTransaction(GraphTraversalSource g,
+                                                EntityProxy          entityProxy)
+
+    throws RepositoryErrorException,
+           InvalidParameterException
+    {
+        final String methodName = "createEntityProxyInStore";
+
         Iterator<Vertex> vertexIt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityProxy.getGUID());
         if (vertexIt.hasNext())
         {
@@ -350,9 +569,6 @@ class GraphOMRSMetadataStore {
                     this.getClass().getName(),
                     methodName, e);
         }
-
-        g.tx().commit();
-
     }
 
 
@@ -392,7 +608,52 @@ class GraphOMRSMetadataStore {
      *         else
      *             error
      */
-    synchronized void saveEntityReferenceCopyToStore(EntityDetail entity)
+    void saveEntityReferenceCopyToStore(EntityDetail entity)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+
+    {
+        final String methodName = "saveEntityReferenceCopyToStore";
+
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                trySaveEntityReferenceCopyToStore(entity);
+                return;
+            }
+            catch (RepositoryErrorException | RuntimeException e)
+            {
+                if (!retryAfterLockContention(e, attempt, methodName))
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    private void trySaveEntityReferenceCopyToStore(EntityDetail entity)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+
+    {
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        this.saveEntityReferenceCopyInTransaction(g, entity);
+
+        g.tx().commit();
+    }
+
+
+    /*
+     * Create or update the vertex for an entity reference copy in the current transaction.  The transaction is
+     * rolled back on error and otherwise left for the caller to commit.
+     */
+    private void saveEntityReferenceCopyInTransaction(GraphTraversalSource g,
+                                                      EntityDetail         entity)
 
     throws InvalidParameterException,
            RepositoryErrorException
@@ -403,7 +664,6 @@ class GraphOMRSMetadataStore {
 
         Vertex vertex;
 
-        GraphTraversalSource g = instanceGraph.traversal();
         Iterator<Vertex> vertexIt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entity.getGUID());
 
         if (vertexIt.hasNext())
@@ -475,6 +735,8 @@ class GraphOMRSMetadataStore {
                 }
             }
 
+            addEntityToHistory(g, entity);
+
         }
         catch (Exception e)
         {
@@ -489,13 +751,10 @@ class GraphOMRSMetadataStore {
                     this.getClass().getName(),
                     methodName, e);
         }
-
-
-        g.tx().commit();
     }
 
 
-    synchronized EntityDetail getEntityDetailFromStore(String guid)
+    EntityDetail getEntityDetailFromStore(String guid)
 
     throws EntityNotKnownException,
            EntityProxyOnlyException,
@@ -592,7 +851,7 @@ class GraphOMRSMetadataStore {
         return entity;
     }
 
-    synchronized EntitySummary getEntitySummaryFromStore(String guid)
+    EntitySummary getEntitySummaryFromStore(String guid)
 
     throws EntityNotKnownException,
            RepositoryErrorException
@@ -662,7 +921,7 @@ class GraphOMRSMetadataStore {
     }
 
 
-    synchronized EntityProxy getEntityProxyFromStore(String guid)
+    EntityProxy getEntityProxyFromStore(String guid)
 
     throws RepositoryErrorException
 
@@ -721,7 +980,42 @@ class GraphOMRSMetadataStore {
     // This method needs to locate the vertices so that the edge can be created in the graph.
     // If either of these fails then throw exception
     //
-    synchronized void createRelationshipInStore(Relationship relationship)
+    void createRelationshipInStore(Relationship relationship)
+
+    throws RepositoryErrorException,
+           InvalidParameterException
+
+    {
+        final String methodName = "createRelationshipInStore";
+
+        List<ReentrantLock> locks = lockRelationships(Collections.singletonList(relationship.getGUID()));
+
+        try
+        {
+            for (int attempt = 1; ; attempt++)
+            {
+                try
+                {
+                    tryCreateRelationshipInStore(relationship);
+                    return;
+                }
+                catch (RepositoryErrorException | RuntimeException e)
+                {
+                    if (!retryAfterLockContention(e, attempt, methodName))
+                    {
+                        throw e;
+                    }
+                }
+            }
+        }
+        finally
+        {
+            unlockRelationships(locks);
+        }
+    }
+
+
+    private void tryCreateRelationshipInStore(Relationship relationship)
 
     throws RepositoryErrorException,
            InvalidParameterException
@@ -793,6 +1087,8 @@ class GraphOMRSMetadataStore {
 
             relationshipMapper.mapRelationshipToEdge(relationship, edge);
 
+            addRelationshipToHistory(g, relationship);
+
         }
         catch (Exception e)
         {
@@ -862,79 +1158,245 @@ class GraphOMRSMetadataStore {
      *       - else metadataCollectionId is not local and values match
      *             update existing edge by mapping relationship
      */
-    synchronized void saveRelationshipReferenceCopyToStore(Relationship relationship)
+    void saveRelationshipReferenceCopyToStore(Relationship relationship)
 
     throws InvalidParameterException,
            RepositoryErrorException
 
     {
+        final String methodName = "saveRelationshipReferenceCopyToStore";
+
+        List<ReentrantLock> locks = lockRelationships(Collections.singletonList(relationship.getGUID()));
+
+        try
+        {
+            for (int attempt = 1; ; attempt++)
+            {
+                try
+                {
+                    trySaveRelationshipReferenceCopyToStore(relationship);
+                    return;
+                }
+                catch (RepositoryErrorException | RuntimeException e)
+                {
+                    if (!retryAfterLockContention(e, attempt, methodName))
+                    {
+                        throw e;
+                    }
+                }
+            }
+        }
+        finally
+        {
+            unlockRelationships(locks);
+        }
+    }
+
+
+    private void trySaveRelationshipReferenceCopyToStore(Relationship relationship)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
 
+    {
         final String methodName = "saveRelationshipReferenceCopyToStore";
 
         GraphTraversalSource g = instanceGraph.traversal();
 
-        Vertex vertex;
+        this.saveRelationshipReferenceCopyInTransaction(g, relationship);
 
-        // Process end 1
-        EntityProxy entityOne = relationship.getEntityOneProxy();
+        log.debug("{} Commit tx containing creation or update of edge", methodName);
+        g.tx().commit();
+    }
 
-        Iterator<Vertex> vertexIt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityOne.getGUID());
 
-        if (vertexIt.hasNext())
-        {
+    /*
+     * Save a batch of reference copies.  The entities are saved first and then the relationships (creating proxies
+     * for any ends that are not known).  Rather than committing a transaction for each instance, the instances are
+     * saved in transactions of up to batchSize instances.  A batchSize of zero or less saves all of the instances in
+     * a single transaction.  A transaction that fails because of lock contention is retried on its own.
+     *
+     * If an instance can not be saved, the transaction holding the current chunk is rolled back and an exception is
+     * thrown.  The chunks that were committed before the failure remain in the store.
+     */
+    void saveInstanceReferenceCopiesToStore(List<EntityDetail> entities,
+                                            List<Relationship> relationships,
+                                            int                batchSize)
 
-            /*
-             * There is a vertex for the entity.
-             * It could be the master, a ref copy or a proxy. In any of these cases
-             * it will be reused.
-             * There is no point performing validation checks on type, home metadataCollection, etc
-             * because there could be pending events that this repository has not seen yet. Any
-             * updates to the entity will be handled via entity instance events.
-             */
+    throws InvalidParameterException,
+           RepositoryErrorException
 
-            vertex = vertexIt.next();
-            log.debug("{} found existing vertex for end1 {}", methodName, vertex);
+    {
+        List<InstanceHeader> instances = new ArrayList<>();
 
-        }
-        else
+        if (entities != null)
         {
-            // Entity does not exist, create proxy
-            createEntityProxyInStore(entityOne);
+            instances.addAll(entities);
         }
 
-        // Process end 2
-        EntityProxy entityTwo = relationship.getEntityTwoProxy();
-        vertexIt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityTwo.getGUID());
-
-        if (vertexIt.hasNext())
+        if (relationships != null)
         {
+            instances.addAll(relationships);
+        }
 
-            /*
-             * There is a vertex for the entity.
-             * It could be the master, a ref copy or a proxy. In any of these cases
-             * it will be reused.
-             * There is no point performing validation checks on type, home metadataCollection, etc
-             * because there could be pending events that this repository has not seen yet. Any
-             * updates to the entity will be handled via entity instance events.
-             */
+        int chunkSize = (batchSize > 0) ? batchSize : Math.max(instances.size(), 1);
 
-            vertex = vertexIt.next();
-            log.debug("{} found existing vertex for end2 {}", methodName, vertex);
-        }
-        else
+        for (int chunkStart = 0; chunkStart < instances.size(); chunkStart += chunkSize)
         {
-            // Entity does not exist, create proxy
-            createEntityProxyInStore(entityTwo);
+            this.saveReferenceCopyChunkToStore(instances.subList(chunkStart, Math.min(chunkStart + chunkSize, instances.size())));
         }
+    }
 
 
-        /*
-         * Both ends have been checked and there are vertices for both.
-         * Because we might have either created or retrieved the vertices for the entities, re-fetch them here
-         * and throw an exception on any error.
-         */
+    private void saveReferenceCopyChunkToStore(List<InstanceHeader> instances)
 
-        Vertex vertexOne = null;
+    throws InvalidParameterException,
+           RepositoryErrorException
+
+    {
+        final String methodName = "saveReferenceCopyChunkToStore";
+
+        List<String> relationshipGUIDs = new ArrayList<>();
+
+        for (InstanceHeader instance : instances)
+        {
+            if (instance instanceof Relationship)
+            {
+                relationshipGUIDs.add(instance.getGUID());
+            }
+        }
+
+        List<ReentrantLock> locks = lockRelationships(relationshipGUIDs);
+
+        try
+        {
+            for (int attempt = 1; ; attempt++)
+            {
+                try
+                {
+                    trySaveReferenceCopyChunkToStore(instances);
+                    return;
+                }
+                catch (RepositoryErrorException | RuntimeException e)
+                {
+                    if (!retryAfterLockContention(e, attempt, methodName))
+                    {
+                        throw e;
+                    }
+                }
+            }
+        }
+        finally
+        {
+            unlockRelationships(locks);
+        }
+    }
+
+
+    private void trySaveReferenceCopyChunkToStore(List<InstanceHeader> instances)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+
+    {
+        final String methodName = "saveReferenceCopyChunkToStore";
+
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        for (InstanceHeader instance : instances)
+        {
+            if (instance instanceof EntityDetail)
+            {
+                this.saveEntityReferenceCopyInTransaction(g, (EntityDetail) instance);
+            }
+            else
+            {
+                this.saveRelationshipReferenceCopyInTransaction(g, (Relationship) instance);
+            }
+        }
+
+        log.debug("{} Commit tx containing {} reference copies", methodName, instances.size());
+        g.tx().commit();
+    }
+
+
+    /*
+     * Create or update the edge for a relationship reference copy, along with proxies for any ends that are not
+     * known, in the current transaction.  The transaction is rolled back on error and otherwise left for the
+     * caller to commit.
+     */
+    private void saveRelationshipReferenceCopyInTransaction(GraphTraversalSource g,
+                                                            Relationship         relationship)
+
+    throws InvalidParameterException,
+           RepositoryErrorException
+
+    {
+
+        final String methodName = "saveRelationshipReferenceCopyToStore";
+
+        Vertex vertex;
+
+        // Process end 1
+        EntityProxy entityOne = relationship.getEntityOneProxy();
+
+        Iterator<Vertex> vertexIt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityOne.getGUID());
+
+        if (vertexIt.hasNext())
+        {
+
+            /*
+             * There is a vertex for the entity.
+             * It could be the master, a ref copy or a proxy. In any of these cases
+             * it will be reused.
+             * There is no point performing validation checks on type, home metadataCollection, etc
+             * because there could be pending events that this repository has not seen yet. Any
+             * updates to the entity will be handled via entity instance events.
+             */
+
+            vertex = vertexIt.next();
+            log.debug("{} found existing vertex for end1 {}", methodName, vertex);
+
+        }
+        else
+        {
+            // Entity does not exist, create proxy
+            this.createEntityProxyInTransaction(g, entityOne);
+        }
+
+        // Process end 2
+        EntityProxy entityTwo = relationship.getEntityTwoProxy();
+        vertexIt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityTwo.getGUID());
+
+        if (vertexIt.hasNext())
+        {
+
+            /*
+             * There is a vertex for the entity.
+             * It could be the master, a ref copy or a proxy. In any of these cases
+             * it will be reused.
+             * There is no point performing validation checks on type, home metadataCollection, etc
+             * because there could be pending events that this repository has not seen yet. Any
+             * updates to the entity will be handled via entity instance events.
+             */
+
+            vertex = vertexIt.next();
+            log.debug("{} found existing vertex for end2 {}", methodName, vertex);
+        }
+        else
+        {
+            // Entity does not exist, create proxy
+            this.createEntityProxyInTransaction(g, entityTwo);
+        }
+
+
+        /*
+         * Both ends have been checked and there are vertices for both.
+         * Because we might have either created or retrieved the vertices for the entities, re-fetch them here
+         * and throw an exception on any error.
+         */
+
+        Vertex vertexOne = null;
         Vertex vertexTwo = null;
 
         vertexIt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityOne.getGUID());
@@ -1022,6 +1484,8 @@ class GraphOMRSMetadataStore {
 
             relationshipMapper.mapRelationshipToEdge(relationship, edge);
 
+            addRelationshipToHistory(g, relationship);
+
         }
         catch (Exception e)
         {
@@ -1037,13 +1501,10 @@ class GraphOMRSMetadataStore {
                     this.getClass().getName(),
                     methodName, e);
         }
-
-        log.debug("{} Commit tx containing creation or update of edge", methodName);
-        g.tx().commit();
     }
 
 
-    synchronized Relationship getRelationshipFromStore(String guid)
+    Relationship getRelationshipFromStore(String guid)
 
     throws RepositoryErrorException
 
@@ -1118,7 +1579,33 @@ class GraphOMRSMetadataStore {
     }
 
 
-    synchronized void updateEntityInStore(EntityDetail entity)
+    void updateEntityInStore(EntityDetail entity)
+
+    throws RepositoryErrorException
+
+    {
+        final String methodName = "updateEntityInStore";
+
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                tryUpdateEntityInStore(entity);
+                return;
+            }
+            catch (RepositoryErrorException | RuntimeException e)
+            {
+                if (!retryAfterLockContention(e, attempt, methodName))
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    // Package-private so that tests can simulate lock contention
+    void tryUpdateEntityInStore(EntityDetail entity)
 
     throws RepositoryErrorException
 
@@ -1152,6 +1639,8 @@ class GraphOMRSMetadataStore {
                     entityMapper.mapEntityDetailToVertex(entity, vertex);
 
                     updateEntityClassifications(entity, vertex, g);
+
+                    addEntityToHistory(g, entity);
                 }
 
             }
@@ -1272,7 +1761,32 @@ class GraphOMRSMetadataStore {
 
 
     // updateRelationshipInStore
-    synchronized void updateRelationshipInStore(Relationship relationship)
+    void updateRelationshipInStore(Relationship relationship)
+
+    throws RepositoryErrorException
+
+    {
+        final String methodName = "updateRelationshipInStore";
+
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                tryUpdateRelationshipInStore(relationship);
+                return;
+            }
+            catch (RepositoryErrorException | RuntimeException e)
+            {
+                if (!retryAfterLockContention(e, attempt, methodName))
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    private void tryUpdateRelationshipInStore(Relationship relationship)
 
     throws RepositoryErrorException
 
@@ -1295,6 +1809,8 @@ class GraphOMRSMetadataStore {
 
                 relationshipMapper.mapRelationshipToEdge(relationship, edge);
 
+                addRelationshipToHistory(g, relationship);
+
             }
             catch (Exception e)
             {
@@ -1314,164 +1830,673 @@ class GraphOMRSMetadataStore {
         g.tx().commit();
     }
 
-    // removeEntityFromStore
-    //
-    // This method will remove the entity vertex and any classifier edges and classification vertices linked off it
+    // removeEntityFromStore
+    //
+    // This method will remove the entity vertex and any classifier edges and classification vertices linked off it
+
+    void removeEntityFromStore(String entityGUID)
+    {
+        final String methodName = "removeEntityFromStore";
+
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                tryRemoveEntityFromStore(entityGUID);
+                return;
+            }
+            catch (RuntimeException e)
+            {
+                if (!retryAfterLockContention(e, attempt, methodName))
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    private void tryRemoveEntityFromStore(String entityGUID)
+    {
+        final String methodName = "removeEntityFromStore";
+
+        // Look in the graph
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        GraphTraversal<Vertex, Vertex> gt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityGUID);
+
+        // Only looking for non-proxy entities:
+        gt = gt.has(PROPERTY_KEY_ENTITY_IS_PROXY, false);
+
+        if (gt.hasNext())
+        {
+            Vertex vertex = gt.next();
+
+            Boolean isProxy = entityMapper.isProxy(vertex);
+            if (!isProxy)
+            {
+
+                log.debug("{} found entity vertex {} to be removed", methodName, vertex);
+
+                // Look for associated classifications.
+                Iterator<Edge> classifierEdges = vertex.edges(Direction.OUT, "Classifier");
+                while (classifierEdges.hasNext())
+                {
+                    Edge classifierEdge = classifierEdges.next();
+                    Vertex classificationVertex = classifierEdge.inVertex();
+                    // Get the classification's name for debug/info only
+                    Classification existingClassification = new Classification();
+                    try
+                    {
+                        classificationMapper.mapVertexToClassification(classificationVertex, existingClassification);
+                    }
+                    catch (Exception e)
+                    {
+                        log.error("{} caught exception from classification mapper for classification {}", methodName, existingClassification.getName());
+                        // Nothing you can do - just keep going
+                    }
+                    log.debug("{} removing classification {} from entity", methodName, existingClassification.getName());
+                    classifierEdge.remove();
+                    classificationVertex.remove();
+                }
+
+                // Finally remove the entity vertex...
+                vertex.remove();
+
+                log.debug("{} removed entity vertex with guid {}", methodName, entityGUID);
+            }
+        }
+
+        removeHistory(g, "EntityHistory", entityGUID);
+
+        g.tx().commit();
+
+    }
+
+
+    // removeRelationshipFromStore
+    void removeRelationshipFromStore(String relationshipGUID)
+    {
+        final String methodName = "removeRelationshipFromStore";
+
+        for (int attempt = 1; ; attempt++)
+        {
+            try
+            {
+                tryRemoveRelationshipFromStore(relationshipGUID);
+                return;
+            }
+            catch (RuntimeException e)
+            {
+                if (!retryAfterLockContention(e, attempt, methodName))
+                {
+                    throw e;
+                }
+            }
+        }
+    }
+
+
+    private void tryRemoveRelationshipFromStore(String relationshipGUID)
+    {
+        final String methodName = "removeRelationshipFromStore";
+
+        // Look in the graph
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        Iterator<Edge> edgeIt = g.E().hasLabel("Relationship").has(PROPERTY_KEY_RELATIONSHIP_GUID, relationshipGUID);
+        if (edgeIt.hasNext())
+        {
+            Edge edge = edgeIt.next();
+            log.debug("{} found existing edge {}", methodName, edge);
+            edge.remove();
+            log.debug("{} removed relationship edge with guid {}", methodName, relationshipGUID);
+        }
+
+        removeHistory(g, "RelationshipHistory", relationshipGUID);
+
+        g.tx().commit();
+
+    }
+
+    // getRelationshipsForEntity
+    List<Relationship> getRelationshipsForEntity(String entityGUID)
+
+    throws RepositoryErrorException
+
+    {
+        final String methodName = "getRelationshipsForEntity";
+
+        List<Relationship> relationships = new ArrayList<>();
+
+        // Look in the graph
+        GraphTraversalSource g = instanceGraph.traversal();
+        Iterator<Vertex> vi = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityGUID);
+        if (vi.hasNext())
+        {
+            Vertex vertex = vi.next();
+            log.debug("{} found entity vertex {}", methodName, vertex);
+
+            Iterator<Edge> edges = vertex.edges(Direction.BOTH, "Relationship");
+            log.debug("{} entity has these edges {}", methodName, edges);
+            while (edges.hasNext())
+            {
+                Edge edge = edges.next();
+                log.debug("{} entity has edge {}", methodName, edge);
+
+                Relationship relationship = new Relationship();
+                relationshipMapper.mapEdgeToRelationship(edge, relationship);
+
+                // Set the relationship ends...
+                try
+                {
+
+                    vertex = edge.outVertex();
+
+                    // Could test here whether each vertex is for a proxy, but it doesn't matter whether the vertex represents a full entity
+                    // (i.e. EntityDetail of a local/reference copy) as opposed to an EntityProxy. It can be retrieved as a proxy anyway...
+
+                    if (vertex != null)
+                    {
+                        log.debug("{} entity vertex {}", methodName, vertex);
+                        EntityProxy entityOneProxy = new EntityProxy();
+                        entityMapper.mapVertexToEntityProxy(vertex, entityOneProxy);
+                        log.debug("{} entityOneProxy {}", methodName, entityOneProxy);
+                        relationship.setEntityOneProxy(entityOneProxy);
+                    }
+
+                    vertex = edge.inVertex();
+
+                    if (vertex != null)
+                    {
+                        log.debug("{} entity vertex {}", methodName, vertex);
+                        EntityProxy entityTwoProxy = new EntityProxy();
+                        entityMapper.mapVertexToEntityProxy(vertex, entityTwoProxy);
+                        log.debug("{} entityTwoProxy {}", methodName, entityTwoProxy);
+                        relationship.setEntityTwoProxy(entityTwoProxy);
+                    }
+
+                }
+                catch (Exception e)
+                {
+                    log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
+                    g.tx().rollback();
+
+                    throw new RepositoryErrorException(
+                            GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND.getMessageDefinition(
+                                    entityMapper.getEntityGUID(vertex), methodName,
+                                    this.getClass().getName(),
+                                    repositoryName),
+                            this.getClass().getName(),
+                            methodName, e);
+                }
+
+                relationships.add(relationship);
+            }
+        }
+
+        g.tx().commit();
+
+        return relationships;
+    }
+
+
+    /*
+     * Version history
+     *
+     * Every version of an entity or relationship that is written to the store is also recorded in a history vertex,
+     * in the same transaction as the write.  The history vertices of an instance are located with a single lookup of
+     * the composite index on the instance GUID, so historical reads and undo do not need to scan the graph.  The
+     * versions are ordered by the time that each became current (the update time, or create time for the first
+     * version) and version number.  A version remains current until the next version is stored.
+     *
+     * Each time a version is recorded, the history of the instance is pruned to the retention policy: the oldest
+     * versions beyond the maximum number of versions are removed, as are versions that were replaced before the
+     * retention period.  The latest version is never removed.  The history is removed when the instance is purged.
+     *
+     * Instances that were stored before the history was recorded have no history vertices.  For these instances
+     * the stored version is treated as the only version.
+     */
+
+
+    // setHistoryRetention
+    void setHistoryRetention(int  maxVersions,
+                             int  retentionDays)
+    {
+        this.historyMaxVersions   = maxVersions;
+        this.historyRetentionTime = (retentionDays > 0) ? TimeUnit.DAYS.toMillis(retentionDays) : 0L;
+    }
+
+
+    // addEntityToHistory
+    private void addEntityToHistory(GraphTraversalSource g,
+                                    EntityDetail         entity)
+
+    throws RepositoryErrorException
+
+    {
+        List<Vertex> versions = getHistoryVertices(g, "EntityHistory", entity.getGUID());
+        Vertex historyVertex = getHistoryVertexForVersion(g, "EntityHistory", versions, entity);
+
+        historyMapper.mapEntityDetailToVertex(entity, historyVertex);
+
+        pruneHistory(versions, historyVertex);
+    }
+
+
+    // addRelationshipToHistory
+    private void addRelationshipToHistory(GraphTraversalSource g,
+                                          Relationship         relationship)
+
+    throws RepositoryErrorException
+
+    {
+        List<Vertex> versions = getHistoryVertices(g, "RelationshipHistory", relationship.getGUID());
+        Vertex historyVertex = getHistoryVertexForVersion(g, "RelationshipHistory", versions, relationship);
+
+        historyMapper.mapRelationshipToVertex(relationship, historyVertex);
+
+        pruneHistory(versions, historyVertex);
+    }
+
+
+    /*
+     * Return the history vertex to hold a version of an instance.  If the same version has already been recorded
+     * (for example, when a reference copy is saved again) its vertex is reused, otherwise a new vertex is added.
+     */
+    private Vertex getHistoryVertexForVersion(GraphTraversalSource g,
+                                              String               label,
+                                              List<Vertex>         versions,
+                                              InstanceHeader       instance)
+    {
+        long versionTime = GraphOMRSHistoryMapper.getVersionTime(instance);
+
+        for (Vertex version : versions)
+        {
+            if (historyMapper.getVersion(version) == instance.getVersion() && historyMapper.getVersionTime(version) == versionTime)
+            {
+                versions.remove(version);
+                return version;
+            }
+        }
+
+        return g.addV(label).next();
+    }
+
+
+    /*
+     * Remove the versions of an instance that are outside the retention policy.  The versions are the existing
+     * history vertices (oldest first) and the vertex that has just been recorded.
+     */
+    private void pruneHistory(List<Vertex> versions,
+                              Vertex       latestVersion)
+    {
+        final String methodName = "pruneHistory";
+
+        if (historyMaxVersions <= 0 && historyRetentionTime <= 0)
+        {
+            return;
+        }
+
+        versions.add(latestVersion);
+        sortHistory(versions);
+
+        int removeCount = 0;
+
+        if (historyMaxVersions > 0 && versions.size() > historyMaxVersions)
+        {
+            removeCount = versions.size() - historyMaxVersions;
+        }
+
+        if (historyRetentionTime > 0)
+        {
+            long retentionStart = System.currentTimeMillis() - historyRetentionTime;
+
+            // A version is outside the retention period if the version that replaced it was stored before the period started
+            while (removeCount < versions.size() - 1 && historyMapper.getVersionTime(versions.get(removeCount + 1)) < retentionStart)
+            {
+                removeCount++;
+            }
+        }
+
+        for (int i = 0; i < removeCount; i++)
+        {
+            log.debug("{} removing version {} of instance {} from history", methodName, historyMapper.getVersion(versions.get(i)), historyMapper.getGUID(versions.get(i)));
+            versions.get(i).remove();
+        }
+    }
+
+
+    // removeHistory
+    private void removeHistory(GraphTraversalSource g,
+                               String               label,
+                               String               guid)
+    {
+        for (Vertex version : getHistoryVertices(g, label, guid))
+        {
+            version.remove();
+        }
+    }
+
+
+    // getHistoryVertices - returns the recorded versions of an instance, oldest first
+    private List<Vertex> getHistoryVertices(GraphTraversalSource g,
+                                            String               label,
+                                            String               guid)
+    {
+        List<Vertex> versions = g.V().hasLabel(label).has(PROPERTY_KEY_HISTORY_GUID, guid).toList();
+
+        sortHistory(versions);
+
+        return versions;
+    }
+
+
+    private void sortHistory(List<Vertex> versions)
+    {
+        versions.sort(Comparator.comparingLong((Vertex version) -> historyMapper.getVersionTime(version))
+                                .thenComparingLong(version -> historyMapper.getVersion(version)));
+    }
+
+
+    /*
+     * Return the index of the version that was current at the asOfTime, or -1 if the instance had not been stored
+     * by that time.
+     */
+    private int getVersionIndexAsOfTime(List<Vertex> versions,
+                                        Date         asOfTime)
+    {
+        int versionIndex = -1;
+
+        for (int i = 0; i < versions.size() && historyMapper.getVersionTime(versions.get(i)) <= asOfTime.getTime(); i++)
+        {
+            versionIndex = i;
+        }
+
+        return versionIndex;
+    }
+
+
+    /*
+     * Return the indexes of the versions that were current at some time between the fromTime (inclusive) and the
+     * toTime (exclusive).  A null fromTime or toTime leaves that end of the range open.
+     */
+    private List<Integer> getVersionIndexesInRange(List<Long> versionTimes,
+                                                   Date       fromTime,
+                                                   Date       toTime)
+    {
+        List<Integer> versionIndexes = new ArrayList<>();
+
+        for (int i = 0; i < versionTimes.size(); i++)
+        {
+            boolean currentBeforeToTime = (toTime == null) || (versionTimes.get(i) < toTime.getTime());
+            boolean currentAfterFromTime = (fromTime == null) || (i == versionTimes.size() - 1) || (versionTimes.get(i + 1) > fromTime.getTime());
+
+            if (currentBeforeToTime && currentAfterFromTime)
+            {
+                versionIndexes.add(i);
+            }
+        }
+
+        return versionIndexes;
+    }
+
+
+    // getEntityDetailFromStore - as it was at the asOfTime, or null if it had not been stored by then
+    EntityDetail getEntityDetailFromStore(String guid,
+                                          Date   asOfTime)
+
+    throws EntityNotKnownException,
+           EntityProxyOnlyException,
+           RepositoryErrorException
+    {
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        List<Vertex> versions = getHistoryVertices(g, "EntityHistory", guid);
+
+        if (versions.isEmpty())
+        {
+            g.tx().commit();
+
+            EntityDetail entity = getEntityDetailFromStore(guid);
+
+            return (GraphOMRSHistoryMapper.getVersionTime(entity) <= asOfTime.getTime()) ? entity : null;
+        }
+
+        EntityDetail entity = null;
+
+        int versionIndex = getVersionIndexAsOfTime(versions, asOfTime);
+        if (versionIndex >= 0)
+        {
+            entity = historyMapper.mapVertexToEntityDetail(versions.get(versionIndex));
+        }
+
+        g.tx().commit();
+
+        return entity;
+    }
+
+
+    // getEntityDetailHistoryFromStore - returns the versions in the time range, oldest first
+    List<EntityDetail> getEntityDetailHistoryFromStore(String guid,
+                                                       Date   fromTime,
+                                                       Date   toTime)
+
+    throws EntityNotKnownException,
+           EntityProxyOnlyException,
+           RepositoryErrorException
+    {
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        List<Vertex> versions = getHistoryVertices(g, "EntityHistory", guid);
+
+        List<EntityDetail> entities = new ArrayList<>();
+
+        if (versions.isEmpty())
+        {
+            g.tx().commit();
+
+            EntityDetail entity = getEntityDetailFromStore(guid);
+
+            if (!getVersionIndexesInRange(Collections.singletonList(GraphOMRSHistoryMapper.getVersionTime(entity)), fromTime, toTime).isEmpty())
+            {
+                entities.add(entity);
+            }
+
+            return entities;
+        }
+
+        for (int versionIndex : getVersionIndexesInRange(getVersionTimes(versions), fromTime, toTime))
+        {
+            entities.add(historyMapper.mapVertexToEntityDetail(versions.get(versionIndex)));
+        }
+
+        g.tx().commit();
+
+        return entities;
+    }
+
+
+    // getLatestEntityVersionsFromStore - returns up to versionCount of the most recent versions, oldest first
+    List<EntityDetail> getLatestEntityVersionsFromStore(String guid,
+                                                        int    versionCount)
+
+    throws RepositoryErrorException
+    {
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        List<Vertex> versions = getHistoryVertices(g, "EntityHistory", guid);
+
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (int i = Math.max(0, versions.size() - versionCount); i < versions.size(); i++)
+        {
+            entities.add(historyMapper.mapVertexToEntityDetail(versions.get(i)));
+        }
+
+        g.tx().commit();
+
+        return entities;
+    }
+
+
+    // getRelationshipFromStore - as it was at the asOfTime, or null if it had not been stored by then
+    Relationship getRelationshipFromStore(String guid,
+                                          Date   asOfTime)
+
+    throws RepositoryErrorException
+    {
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        List<Vertex> versions = getHistoryVertices(g, "RelationshipHistory", guid);
+
+        if (versions.isEmpty())
+        {
+            g.tx().commit();
+
+            Relationship relationship = getRelationshipFromStore(guid);
+
+            return (relationship != null && GraphOMRSHistoryMapper.getVersionTime(relationship) <= asOfTime.getTime()) ? relationship : null;
+        }
+
+        Relationship relationship = null;
+
+        int versionIndex = getVersionIndexAsOfTime(versions, asOfTime);
+        if (versionIndex >= 0)
+        {
+            relationship = historyMapper.mapVertexToRelationship(versions.get(versionIndex));
+        }
+
+        g.tx().commit();
+
+        return relationship;
+    }
+
 
-    synchronized void removeEntityFromStore(String entityGUID)
-    {
-        final String methodName = "removeEntityFromStore";
+    // getRelationshipHistoryFromStore - returns the versions in the time range, oldest first
+    List<Relationship> getRelationshipHistoryFromStore(String guid,
+                                                       Date   fromTime,
+                                                       Date   toTime)
 
-        // Look in the graph
+    throws RepositoryErrorException
+    {
         GraphTraversalSource g = instanceGraph.traversal();
 
-        GraphTraversal<Vertex, Vertex> gt = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityGUID);
+        List<Vertex> versions = getHistoryVertices(g, "RelationshipHistory", guid);
 
-        // Only looking for non-proxy entities:
-        gt = gt.has(PROPERTY_KEY_ENTITY_IS_PROXY, false);
+        List<Relationship> relationships = new ArrayList<>();
 
-        if (gt.hasNext())
+        if (versions.isEmpty())
         {
-            Vertex vertex = gt.next();
-
-            Boolean isProxy = entityMapper.isProxy(vertex);
-            if (!isProxy)
-            {
+            g.tx().commit();
 
-                log.debug("{} found entity vertex {} to be removed", methodName, vertex);
+            Relationship relationship = getRelationshipFromStore(guid);
 
-                // Look for associated classifications.
-                Iterator<Edge> classifierEdges = vertex.edges(Direction.OUT, "Classifier");
-                while (classifierEdges.hasNext())
-                {
-                    Edge classifierEdge = classifierEdges.next();
-                    Vertex classificationVertex = classifierEdge.inVertex();
-                    // Get the classification's name for debug/info only
-                    Classification existingClassification = new Classification();
-                    try
-                    {
-                        classificationMapper.mapVertexToClassification(classificationVertex, existingClassification);
-                    }
-                    catch (Exception e)
-                    {
-                        log.error("{} caught exception from classification mapper for classification {}", methodName, existingClassification.getName());
-                        // Nothing you can do - just keep going
-                    }
-                    log.debug("{} removing classification {} from entity", methodName, existingClassification.getName());
-                    classifierEdge.remove();
-                    classificationVertex.remove();
-                }
+            if (relationship != null
+                    && !getVersionIndexesInRange(Collections.singletonList(GraphOMRSHistoryMapper.getVersionTime(relationship)), fromTime, toTime).isEmpty())
+            {
+                relationships.add(relationship);
+            }
 
-                // Finally remove the entity vertex...
-                vertex.remove();
+            return relationships;
+        }
 
-                log.debug("{} removed entity vertex with guid {}", methodName, entityGUID);
-            }
+        for (int versionIndex : getVersionIndexesInRange(getVersionTimes(versions), fromTime, toTime))
+        {
+            relationships.add(historyMapper.mapVertexToRelationship(versions.get(versionIndex)));
         }
+
         g.tx().commit();
 
+        return relationships;
     }
 
 
-    // removeRelationshipFromStore
-    synchronized void removeRelationshipFromStore(String relationshipGUID)
-    {
-        final String methodName = "removeRelationshipFromStore";
+    // getLatestRelationshipVersionsFromStore - returns up to versionCount of the most recent versions, oldest first
+    List<Relationship> getLatestRelationshipVersionsFromStore(String guid,
+                                                              int    versionCount)
 
-        // Look in the graph
+    throws RepositoryErrorException
+    {
         GraphTraversalSource g = instanceGraph.traversal();
 
-        Iterator<Edge> edgeIt = g.E().hasLabel("Relationship").has(PROPERTY_KEY_RELATIONSHIP_GUID, relationshipGUID);
-        if (edgeIt.hasNext())
+        List<Vertex> versions = getHistoryVertices(g, "RelationshipHistory", guid);
+
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (int i = Math.max(0, versions.size() - versionCount); i < versions.size(); i++)
         {
-            Edge edge = edgeIt.next();
-            log.debug("{} found existing edge {}", methodName, edge);
-            edge.remove();
-            log.debug("{} removed relationship edge with guid {}", methodName, relationshipGUID);
+            relationships.add(historyMapper.mapVertexToRelationship(versions.get(i)));
         }
+
         g.tx().commit();
 
+        return relationships;
     }
 
-    // getRelationshipsForEntity
-    synchronized List<Relationship> getRelationshipsForEntity(String entityGUID)
 
-    throws RepositoryErrorException
+    // getRelationshipsForEntity - as they were at the asOfTime
+    List<Relationship> getRelationshipsForEntity(String entityGUID,
+                                                 Date   asOfTime)
 
+    throws RepositoryErrorException
     {
-        final String methodName = "getRelationshipsForEntity";
+        GraphTraversalSource g = instanceGraph.traversal();
 
-        List<Relationship> relationships = new ArrayList<>();
+        // The versions of each relationship that has had the entity at either end
+        Map<String, List<Vertex>> relationshipVersions = new HashMap<>();
+        Set<Object> versionIds = new HashSet<>();
 
-        // Look in the graph
-        GraphTraversalSource g = instanceGraph.traversal();
-        Iterator<Vertex> vi = g.V().hasLabel("Entity").has(PROPERTY_KEY_ENTITY_GUID, entityGUID);
-        if (vi.hasNext())
-        {
-            Vertex vertex = vi.next();
-            log.debug("{} found entity vertex {}", methodName, vertex);
+        List<Vertex> entityVersions = g.V().hasLabel("RelationshipHistory").has(PROPERTY_KEY_HISTORY_ENTITY_ONE_GUID, entityGUID).toList();
+        entityVersions.addAll(g.V().hasLabel("RelationshipHistory").has(PROPERTY_KEY_HISTORY_ENTITY_TWO_GUID, entityGUID).toList());
 
-            Iterator<Edge> edges = vertex.edges(Direction.BOTH, "Relationship");
-            log.debug("{} entity has these edges {}", methodName, edges);
-            while (edges.hasNext())
+        for (Vertex version : entityVersions)
+        {
+            if (versionIds.add(version.id()))
             {
-                Edge edge = edges.next();
-                log.debug("{} entity has edge {}", methodName, edge);
-
-                Relationship relationship = new Relationship();
-                relationshipMapper.mapEdgeToRelationship(edge, relationship);
+                relationshipVersions.computeIfAbsent(historyMapper.getGUID(version), guid -> new ArrayList<>()).add(version);
+            }
+        }
 
-                // Set the relationship ends...
-                try
-                {
+        List<Relationship> relationships = new ArrayList<>();
 
-                    vertex = edge.outVertex();
+        for (List<Vertex> versions : relationshipVersions.values())
+        {
+            sortHistory(versions);
 
-                    // Could test here whether each vertex is for a proxy, but it doesn't matter whether the vertex represents a full entity
-                    // (i.e. EntityDetail of a local/reference copy) as opposed to an EntityProxy. It can be retrieved as a proxy anyway...
+            int versionIndex = getVersionIndexAsOfTime(versions, asOfTime);
+            if (versionIndex >= 0)
+            {
+                relationships.add(historyMapper.mapVertexToRelationship(versions.get(versionIndex)));
+            }
+        }
 
-                    if (vertex != null)
-                    {
-                        log.debug("{} entity vertex {}", methodName, vertex);
-                        EntityProxy entityOneProxy = new EntityProxy();
-                        entityMapper.mapVertexToEntityProxy(vertex, entityOneProxy);
-                        log.debug("{} entityOneProxy {}", methodName, entityOneProxy);
-                        relationship.setEntityOneProxy(entityOneProxy);
-                    }
+        g.tx().commit();
 
-                    vertex = edge.inVertex();
+        // Add the relationships that were stored before the history was recorded
+        for (Relationship relationship : getRelationshipsForEntity(entityGUID))
+        {
+            if (!relationshipVersions.containsKey(relationship.getGUID())
+                    && GraphOMRSHistoryMapper.getVersionTime(relationship) <= asOfTime.getTime())
+            {
+                relationships.add(relationship);
+            }
+        }
 
-                    if (vertex != null)
-                    {
-                        log.debug("{} entity vertex {}", methodName, vertex);
-                        EntityProxy entityTwoProxy = new EntityProxy();
-                        entityMapper.mapVertexToEntityProxy(vertex, entityTwoProxy);
-                        log.debug("{} entityTwoProxy {}", methodName, entityTwoProxy);
-                        relationship.setEntityTwoProxy(entityTwoProxy);
-                    }
+        return relationships;
+    }
 
-                }
-                catch (Exception e)
-                {
-                    log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
-                    g.tx().rollback();
 
-                    throw new RepositoryErrorException(
-                            GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND.getMessageDefinition(
-                                    entityMapper.getEntityGUID(vertex), methodName,
-                                    this.getClass().getName(),
-                                    repositoryName),
-                            this.getClass().getName(),
-                            methodName, e);
-                }
+    private List<Long> getVersionTimes(List<Vertex> versions)
+    {
+        List<Long> versionTimes = new ArrayList<>();
 
-                relationships.add(relationship);
-            }
+        for (Vertex version : versions)
+        {
+            versionTimes.add(historyMapper.getVersionTime(version));
         }
 
-        g.tx().commit();
-
-        return relationships;
+        return versionTimes;
     }
 
 
@@ -1918,8 +2943,10 @@ class GraphOMRSMetadataStore {
                                                       String                         filterTypeName,
                                                       Map<String, TypeDefAttribute>  qualifiedPropertyNameToTypeDefinedAttribute,
                                                       Map<String, List<String>>      shortPropertyNameToQualifiedPropertyNames,
+                                                      Map<String, List<String>>      qualifiedPropertyNameToTypeNames,
                                                       InstanceProperties             matchProperties,
-                                                      MatchCriteria                  matchCriteria)
+                                                      MatchCriteria                  matchCriteria,
+                                                      GraphOMRSQueryPage             queryPage)
 
     throws InvalidParameterException,
            RepositoryErrorException
@@ -2074,48 +3101,49 @@ class GraphOMRSMetadataStore {
 
                     if (qNameList != null && !qNameList.isEmpty())
                     {
-                        // You could add a double check here - that there is exactly one entry in the list. It has already been checked by the caller.
-                        String qualifiedName = qNameList.get(0);
-
-                        if (qualifiedName != null)
+                        // Process each qualified name - a short name maps to more than one if unrelated valid types define it.
+                        for (String qualifiedName : qNameList)
                         {
-                            /*
-                             * For the qualifiedName perform type checking between the match property and TDA
-                             */
-
-                            TypeDefAttribute propertyDef = qualifiedPropertyNameToTypeDefinedAttribute.get(qualifiedName);
-                            PrimitiveDefCategory pdCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
-                            AttributeTypeDef atd = propertyDef.getAttributeType();
-                            AttributeTypeDefCategory atdCat = atd.getCategory();
-                            if (atdCat == PRIMITIVE)
-                            {
-                                PrimitiveDef pdef = (PrimitiveDef) atd;
-                                pdCat = pdef.getPrimitiveDefCategory();
-                            }
-
-                            PrimitiveDefCategory mpCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
-                            InstancePropertyValue mpv = matchProperties.getPropertyValue(propName);
-                            InstancePropertyCategory mpvCat = mpv.getInstancePropertyCategory();
-                            if (mpvCat == InstancePropertyCategory.PRIMITIVE)
-                            {
-                                PrimitivePropertyValue ppv = (PrimitivePropertyValue) mpv;
-                                mpCat = ppv.getPrimitiveDefCategory();
-                            }
-                            else
-                            {
-                                log.debug("{} non-primitive match property {} ignored", methodName, propName);
-                            }
-
-                            if (mpCat == pdCat && mpCat != PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN)
+                            if (qualifiedName != null)
                             {
                                 /*
-                                 * Types match
-                                 *
-                                 * Qualify and prefix the property name ready for graph search
+                                 * For the qualifiedName perform type checking between the match property and TDA
                                  */
-                                String matchedPropName = PROPERTY_KEY_PREFIX_ENTITY + qualifiedName;
-                                GraphOMRSGraphFactory.MixedIndexMapping mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
-                                matchedPropToMapping.put(matchedPropName, mapping);
+
+                                TypeDefAttribute propertyDef = qualifiedPropertyNameToTypeDefinedAttribute.get(qualifiedName);
+                                PrimitiveDefCategory pdCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
+                                AttributeTypeDef atd = propertyDef.getAttributeType();
+                                AttributeTypeDefCategory atdCat = atd.getCategory();
+                                if (atdCat == PRIMITIVE)
+                                {
+                                    PrimitiveDef pdef = (PrimitiveDef) atd;
+                                    pdCat = pdef.getPrimitiveDefCategory();
+                                }
+
+                                PrimitiveDefCategory mpCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
+                                InstancePropertyValue mpv = matchProperties.getPropertyValue(propName);
+                                InstancePropertyCategory mpvCat = mpv.getInstancePropertyCategory();
+                                if (mpvCat == InstancePropertyCategory.PRIMITIVE)
+                                {
+                                    PrimitivePropertyValue ppv = (PrimitivePropertyValue) mpv;
+                                    mpCat = ppv.getPrimitiveDefCategory();
+                                }
+                                else
+                                {
+                                    log.debug("{} non-primitive match property {} ignored", methodName, propName);
+                                }
+
+                                if (mpCat == pdCat && mpCat != PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN)
+                                {
+                                    /*
+                                     * Types match
+                                     *
+                                     * Qualify and prefix the property name ready for graph search
+                                     */
+                                    String matchedPropName = PROPERTY_KEY_PREFIX_ENTITY + qualifiedName;
+                                    GraphOMRSGraphFactory.MixedIndexMapping mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
+                                    matchedPropToMapping.put(matchedPropName, mapping);
+                                }
                             }
                         }
                     }
@@ -2236,6 +3264,10 @@ class GraphOMRSMetadataStore {
                                     break;
 
                             }
+                            if (matchedPropToMapping.size() > 1)
+                            {
+                                t = restrictToDefiningTypes(t, thisMatchedPropName, PROPERTY_KEY_PREFIX_ENTITY, PROPERTY_KEY_ENTITY_TYPE_NAME, qualifiedPropertyNameToTypeNames);
+                            }
                             log.debug("{} primitive match property has property criterion {}", methodName, t);
                             localCriteria.add(t);
                         }
@@ -2245,8 +3277,8 @@ class GraphOMRSMetadataStore {
                         }
                     }
 
-                    /* Add a criterion to the overall traversal */
-                    propCriteria.add(localCriteria.get(0));
+                    /* Add a criterion to the overall traversal - matching any of the qualified names of the property */
+                    propCriteria.add(combineLocalCriteria(localCriteria));
 
                 }
             }
@@ -2325,6 +3357,13 @@ class GraphOMRSMetadataStore {
         }
 
 
+        /*
+         * Apply the status and classification limits and select the requested page
+         */
+
+        gt = applyEntityQueryPage(gt, queryPage);
+
+
         /*
          * Iterate the traversal
          */
@@ -2379,7 +3418,8 @@ class GraphOMRSMetadataStore {
                                                            Map<String, TypeDefAttribute>  qualifiedPropertyNameToTypeDefinedAttribute,
                                                            Map<String, List<String>>      shortPropertyNameToQualifiedPropertyNames,
                                                            InstanceProperties             matchProperties,
-                                                           MatchCriteria                  matchCriteria)
+                                                           MatchCriteria                  matchCriteria,
+                                                           GraphOMRSQueryPage             queryPage)
 
     throws InvalidParameterException,
            RepositoryErrorException
@@ -2784,6 +3824,13 @@ class GraphOMRSMetadataStore {
         }
 
 
+        /*
+         * Apply the status and classification limits and select the requested page
+         */
+
+        gt = applyEntityQueryPage(gt, queryPage);
+
+
         /*
          * Iterate the traversal
          */
@@ -3264,8 +4311,10 @@ class GraphOMRSMetadataStore {
                                                            String                         filterTypeName,
                                                            Map<String, TypeDefAttribute>  qualifiedPropertyNameToTypeDefinedAttribute,
                                                            Map<String, List<String>>      shortPropertyNameToQualifiedPropertyNames,
+                                                           Map<String, List<String>>      qualifiedPropertyNameToTypeNames,
                                                            InstanceProperties             matchProperties,
-                                                           MatchCriteria                  matchCriteria)
+                                                           MatchCriteria                  matchCriteria,
+                                                           GraphOMRSQueryPage             queryPage)
 
     throws InvalidParameterException,
            RepositoryErrorException
@@ -3415,48 +4464,49 @@ class GraphOMRSMetadataStore {
 
                     if (qNameList != null && !qNameList.isEmpty())
                     {
-                        // You could add a double check here - that there is exactly one entry in the list. It has already been checked by the caller.
-                        String qualifiedName = qNameList.get(0);
-
-                        if (qualifiedName != null)
-                        {
-                            /*
-                             * For the qualifiedName perform type checking between the match property and TDA
-                             */
-
-                            TypeDefAttribute propertyDef = qualifiedPropertyNameToTypeDefinedAttribute.get(qualifiedName);
-                            PrimitiveDefCategory pdCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
-                            AttributeTypeDef atd = propertyDef.getAttributeType();
-                            AttributeTypeDefCategory atdCat = atd.getCategory();
-                            if (atdCat == PRIMITIVE)
-                            {
-                                PrimitiveDef pdef = (PrimitiveDef) atd;
-                                pdCat = pdef.getPrimitiveDefCategory();
-                            }
-
-                            PrimitiveDefCategory mpCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
-                            InstancePropertyValue mpv = matchProperties.getPropertyValue(propName);
-                            InstancePropertyCategory mpvCat = mpv.getInstancePropertyCategory();
-                            if (mpvCat == InstancePropertyCategory.PRIMITIVE)
-                            {
-                                PrimitivePropertyValue ppv = (PrimitivePropertyValue) mpv;
-                                mpCat = ppv.getPrimitiveDefCategory();
-                            }
-                            else
-                            {
-                                log.debug("{} non-primitive match property {} ignored", methodName, propName);
-                            }
-
-                            if (mpCat == pdCat && mpCat != PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN)
+                        // Process each qualified name - a short name maps to more than one if unrelated valid types define it.
+                        for (String qualifiedName : qNameList)
+                        {
+                            if (qualifiedName != null)
                             {
                                 /*
-                                 * Types match
-                                 *
-                                 * Qualify and prefix the property name ready for graph search
+                                 * For the qualifiedName perform type checking between the match property and TDA
                                  */
-                                String matchedPropName = PROPERTY_KEY_PREFIX_RELATIONSHIP + qualifiedName;
-                                GraphOMRSGraphFactory.MixedIndexMapping mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
-                                matchedPropToMapping.put(matchedPropName, mapping);
+
+                                TypeDefAttribute propertyDef = qualifiedPropertyNameToTypeDefinedAttribute.get(qualifiedName);
+                                PrimitiveDefCategory pdCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
+                                AttributeTypeDef atd = propertyDef.getAttributeType();
+                                AttributeTypeDefCategory atdCat = atd.getCategory();
+                                if (atdCat == PRIMITIVE)
+                                {
+                                    PrimitiveDef pdef = (PrimitiveDef) atd;
+                                    pdCat = pdef.getPrimitiveDefCategory();
+                                }
+
+                                PrimitiveDefCategory mpCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
+                                InstancePropertyValue mpv = matchProperties.getPropertyValue(propName);
+                                InstancePropertyCategory mpvCat = mpv.getInstancePropertyCategory();
+                                if (mpvCat == InstancePropertyCategory.PRIMITIVE)
+                                {
+                                    PrimitivePropertyValue ppv = (PrimitivePropertyValue) mpv;
+                                    mpCat = ppv.getPrimitiveDefCategory();
+                                }
+                                else
+                                {
+                                    log.debug("{} non-primitive match property {} ignored", methodName, propName);
+                                }
+
+                                if (mpCat == pdCat && mpCat != PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN)
+                                {
+                                    /*
+                                     * Types match
+                                     *
+                                     * Qualify and prefix the property name ready for graph search
+                                     */
+                                    String matchedPropName = PROPERTY_KEY_PREFIX_RELATIONSHIP + qualifiedName;
+                                    GraphOMRSGraphFactory.MixedIndexMapping mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
+                                    matchedPropToMapping.put(matchedPropName, mapping);
+                                }
                             }
                         }
                     }
@@ -3577,6 +4627,10 @@ class GraphOMRSMetadataStore {
                                     break;
 
                             }
+                            if (matchedPropToMapping.size() > 1)
+                            {
+                                t = restrictToDefiningTypes(t, thisMatchedPropName, PROPERTY_KEY_PREFIX_RELATIONSHIP, PROPERTY_KEY_RELATIONSHIP_TYPE_NAME, qualifiedPropertyNameToTypeNames);
+                            }
                             log.debug("{} primitive match property has property criterion {}", methodName, t);
                             localCriteria.add(t);
                         }
@@ -3586,8 +4640,8 @@ class GraphOMRSMetadataStore {
                         }
                     }
 
-                    /* Add a criterion to the overall traversal */
-                    propCriteria.add(localCriteria.get(0));
+                    /* Add a criterion to the overall traversal - matching any of the qualified names of the property */
+                    propCriteria.add(combineLocalCriteria(localCriteria));
 
                 }
             }
@@ -3666,6 +4720,13 @@ class GraphOMRSMetadataStore {
         }
 
 
+        /*
+         * Apply the status and classification limits and select the requested page
+         */
+
+        gt = applyRelationshipQueryPage(gt, queryPage);
+
+
         /*
          * Iterate the traversal
          */
@@ -3735,7 +4796,8 @@ class GraphOMRSMetadataStore {
                                                                 Map<String, TypeDefAttribute>  qualifiedPropertyNameToTypeDefinedAttribute,
                                                                 Map<String, List<String>>      shortPropertyNameToQualifiedPropertyNames,
                                                                 InstanceProperties             matchProperties,
-                                                                MatchCriteria                  matchCriteria)
+                                                                MatchCriteria                  matchCriteria,
+                                                                GraphOMRSQueryPage             queryPage)
 
     throws InvalidParameterException,
            RepositoryErrorException
@@ -4136,6 +5198,13 @@ class GraphOMRSMetadataStore {
         }
 
 
+        /*
+         * Apply the status and classification limits and select the requested page
+         */
+
+        gt = applyRelationshipQueryPage(gt, queryPage);
+
+
         /*
          * Iterate the traversal
          */
@@ -6054,7 +7123,9 @@ class GraphOMRSMetadataStore {
                                             String                         filterTypeName,
                                             Map<String, TypeDefAttribute>  qualifiedPropertyNameToTypeDefinedAttribute,
                                             Map<String, List<String>>      shortPropertyNameToQualifiedPropertyNames,
-                                            SearchProperties               searchProperties)
+                                            Map<String, List<String>>      qualifiedPropertyNameToTypeNames,
+                                            SearchProperties               searchProperties,
+                                            GraphOMRSQueryPage             queryPage)
 
     throws InvalidParameterException,
            RepositoryErrorException,
@@ -6146,7 +7217,8 @@ class GraphOMRSMetadataStore {
             {
                 List<GraphTraversal<Vertex, Vertex>> propCriteria = processEntitySearchPropertiesForTypes(searchProperties,
                                                                                                           qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                                                          shortPropertyNameToQualifiedPropertyNames);
+                                                                                                          shortPropertyNameToQualifiedPropertyNames,
+                                                                                                          qualifiedPropertyNameToTypeNames);
 
                 /*
                  * Use the MatchCriteria to combine the properCriteria into the overall graph traversal.
@@ -6225,6 +7297,13 @@ class GraphOMRSMetadataStore {
         }
 
 
+        /*
+         * Apply the status and classification limits and select the requested page
+         */
+
+        gt = applyEntityQueryPage(gt, queryPage);
+
+
         List<EntityDetail> entities = new ArrayList<>();
 
         /*
@@ -6277,7 +7356,9 @@ class GraphOMRSMetadataStore {
                                                  String                         filterTypeName,
                                                  Map<String, TypeDefAttribute>  qualifiedPropertyNameToTypeDefinedAttribute,
                                                  Map<String, List<String>>      shortPropertyNameToQualifiedPropertyNames,
-                                                 SearchProperties               searchProperties)
+                                                 Map<String, List<String>>      qualifiedPropertyNameToTypeNames,
+                                                 SearchProperties               searchProperties,
+                                                 GraphOMRSQueryPage             queryPage)
 
     throws InvalidParameterException,
            RepositoryErrorException,
@@ -6330,7 +7411,8 @@ class GraphOMRSMetadataStore {
             {
                 List<GraphTraversal<Edge, Edge>> propCriteria = processRelationshipSearchPropertiesForTypes(searchProperties,
                                                                                                       qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                                                      shortPropertyNameToQualifiedPropertyNames);
+                                                                                                      shortPropertyNameToQualifiedPropertyNames,
+                                                                                                      qualifiedPropertyNameToTypeNames);
 
                 /*
                  * Use the MatchCriteria to combine the properCriteria into the overall graph traversal.
@@ -6409,6 +7491,13 @@ class GraphOMRSMetadataStore {
         }
 
 
+        /*
+         * Apply the status and classification limits and select the requested page
+         */
+
+        gt = applyRelationshipQueryPage(gt, queryPage);
+
+
         List<Relationship> relationships = new ArrayList<>();
 
         /*
@@ -6869,7 +7958,8 @@ class GraphOMRSMetadataStore {
      */
     private List<GraphTraversal<Vertex, Vertex>> processEntitySearchPropertiesForTypes(SearchProperties                searchProperties,
                                                                                        Map<String, TypeDefAttribute>    qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                                       Map<String, List<String>>        shortPropertyNameToQualifiedPropertyNames)
+                                                                                       Map<String, List<String>>        shortPropertyNameToQualifiedPropertyNames,
+                                                                                       Map<String, List<String>>        qualifiedPropertyNameToTypeNames)
 
     throws InvalidParameterException,
            FunctionNotSupportedException
@@ -6901,6 +7991,7 @@ class GraphOMRSMetadataStore {
                 GraphTraversal<Vertex, Vertex> propertyCriterion = parseEntityPropertyConditionToCriterionForTypes(propertyName,
                                                                                                                    qualifiedPropertyNameToTypeDefinedAttribute,
                                                                                                                    shortPropertyNameToQualifiedPropertyNames,
+                                                                                                                   qualifiedPropertyNameToTypeNames,
                                                                                                                    operator,
                                                                                                                    value);
 
@@ -6919,7 +8010,8 @@ class GraphOMRSMetadataStore {
 
                 List<GraphTraversal<Vertex, Vertex>> subCriteria = processEntitySearchPropertiesForTypes(nestedConditions,
                                                                                                          qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                                                         shortPropertyNameToQualifiedPropertyNames);
+                                                                                                         shortPropertyNameToQualifiedPropertyNames,
+                                                                                                         qualifiedPropertyNameToTypeNames);
 
                 GraphTraversal<Vertex, Vertex> propertyCriterion = new DefaultGraphTraversal<>();
 
@@ -6984,7 +8076,8 @@ class GraphOMRSMetadataStore {
      */
     private List<GraphTraversal<Edge, Edge>> processRelationshipSearchPropertiesForTypes(SearchProperties                searchProperties,
                                                                                          Map<String, TypeDefAttribute>    qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                                         Map<String, List<String>>        shortPropertyNameToQualifiedPropertyNames)
+                                                                                         Map<String, List<String>>        shortPropertyNameToQualifiedPropertyNames,
+                                                                                         Map<String, List<String>>        qualifiedPropertyNameToTypeNames)
 
     throws InvalidParameterException,
            FunctionNotSupportedException
@@ -7016,6 +8109,7 @@ class GraphOMRSMetadataStore {
                 GraphTraversal<Edge, Edge> propertyCriterion = parseRelationshipPropertyConditionToCriterionForTypes(propertyName,
                                                                                                                      qualifiedPropertyNameToTypeDefinedAttribute,
                                                                                                                      shortPropertyNameToQualifiedPropertyNames,
+                                                                                                                     qualifiedPropertyNameToTypeNames,
                                                                                                                      operator,
                                                                                                                      value);
 
@@ -7034,7 +8128,8 @@ class GraphOMRSMetadataStore {
 
                 List<GraphTraversal<Edge, Edge>> subCriteria = processRelationshipSearchPropertiesForTypes(nestedConditions,
                                                                                                            qualifiedPropertyNameToTypeDefinedAttribute,
-                                                                                                           shortPropertyNameToQualifiedPropertyNames);
+                                                                                                           shortPropertyNameToQualifiedPropertyNames,
+                                                                                                           qualifiedPropertyNameToTypeNames);
 
                 GraphTraversal<Edge, Edge> propertyCriterion = new DefaultGraphTraversal<>();
 
@@ -7421,6 +8516,7 @@ class GraphOMRSMetadataStore {
     private GraphTraversal<Vertex, Vertex> parseEntityPropertyConditionToCriterionForTypes(String                        propName,
                                                                                            Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute,
                                                                                            Map<String, List<String>>     shortPropertyNameToQualifiedPropertyNames,
+                                                                                           Map<String, List<String>>     qualifiedPropertyNameToTypeNames,
                                                                                            PropertyComparisonOperator    operator,
                                                                                            InstancePropertyValue         value)
 
@@ -7588,46 +8684,48 @@ class GraphOMRSMetadataStore {
             if (qNameList != null && !qNameList.isEmpty())
             {
 
-                // This method cannot handle dups so just take the first element of the list.
-                String qualifiedName = qNameList.get(0);
-                if (qualifiedName != null)
+                // Process each qualified name - a short name maps to more than one if unrelated valid types define it.
+                for (String qualifiedName : qNameList)
                 {
-                    /*
-                     * For the qualifiedName perform type checking between the match property and TDA
-                     */
+                    if (qualifiedName != null)
+                    {
+                        /*
+                         * For the qualifiedName perform type checking between the match property and TDA
+                         */
 
-                    TypeDefAttribute propertyDef = qualifiedPropertyNameToTypeDefinedAttribute.get(qualifiedName);
-                    AttributeTypeDef atd = propertyDef.getAttributeType();
+                        TypeDefAttribute propertyDef = qualifiedPropertyNameToTypeDefinedAttribute.get(qualifiedName);
+                        AttributeTypeDef atd = propertyDef.getAttributeType();
 
-                    PrimitiveDefCategory pdCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
-                    AttributeTypeDefCategory atdCat = atd.getCategory();
-                    if (atdCat == PRIMITIVE)
-                    {
-                        PrimitiveDef pdef = (PrimitiveDef) atd;
-                        pdCat = pdef.getPrimitiveDefCategory();
-                    }
+                        PrimitiveDefCategory pdCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
+                        AttributeTypeDefCategory atdCat = atd.getCategory();
+                        if (atdCat == PRIMITIVE)
+                        {
+                            PrimitiveDef pdef = (PrimitiveDef) atd;
+                            pdCat = pdef.getPrimitiveDefCategory();
+                        }
 
-                    PrimitiveDefCategory mpCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
-                    InstancePropertyCategory mpvCat = value.getInstancePropertyCategory();
-                    if (mpvCat == InstancePropertyCategory.PRIMITIVE)
-                    {
-                        PrimitivePropertyValue ppv = (PrimitivePropertyValue) value;
-                        mpCat = ppv.getPrimitiveDefCategory();
-                    }
-                    else
-                    {
-                        log.debug("{} non-primitive match property {} ignored", methodName, propName);
-                    }
+                        PrimitiveDefCategory mpCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
+                        InstancePropertyCategory mpvCat = value.getInstancePropertyCategory();
+                        if (mpvCat == InstancePropertyCategory.PRIMITIVE)
+                        {
+                            PrimitivePropertyValue ppv = (PrimitivePropertyValue) value;
+                            mpCat = ppv.getPrimitiveDefCategory();
+                        }
+                        else
+                        {
+                            log.debug("{} non-primitive match property {} ignored", methodName, propName);
+                        }
 
-                    if (mpCat == pdCat && mpCat != PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN)
-                    {
-                        /*
-                         * Types match.
-                         * Qualify and prefix the property name ready for graph search
-                         */
-                        String matchedPropName = PROPERTY_KEY_PREFIX_ENTITY + qualifiedName;
-                        mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
-                        matchedPropToMapping.put(matchedPropName, mapping);
+                        if (mpCat == pdCat && mpCat != PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN)
+                        {
+                            /*
+                             * Types match.
+                             * Qualify and prefix the property name ready for graph search
+                             */
+                            String matchedPropName = PROPERTY_KEY_PREFIX_ENTITY + qualifiedName;
+                            mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
+                            matchedPropToMapping.put(matchedPropName, mapping);
+                        }
                     }
                 }
             }
@@ -7682,6 +8780,10 @@ class GraphOMRSMetadataStore {
                             t = vertexApplyOperatorToObject(thisMatchedPropName, operator, primValue);
                             break;
                     }
+                    if (matchedPropToMapping.size() > 1)
+                    {
+                        t = restrictToDefiningTypes(t, thisMatchedPropName, PROPERTY_KEY_PREFIX_ENTITY, PROPERTY_KEY_ENTITY_TYPE_NAME, qualifiedPropertyNameToTypeNames);
+                    }
                     log.debug("{} primitive search property has property criterion {}", methodName, t);
                     localCriteria.add(t);
                 }
@@ -7691,8 +8793,8 @@ class GraphOMRSMetadataStore {
                 }
             }
 
-            /* Add a criterion to the overall traversal */
-            propertyCriterion = localCriteria.get(0);
+            /* Add a criterion to the overall traversal - matching any of the qualified names of the property */
+            propertyCriterion = combineLocalCriteria(localCriteria);
         }
         else
         {
@@ -8004,6 +9106,7 @@ class GraphOMRSMetadataStore {
     private GraphTraversal<Edge, Edge> parseRelationshipPropertyConditionToCriterionForTypes(String                        propName,
                                                                                              Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute,
                                                                                              Map<String, List<String>>     shortPropertyNameToQualifiedPropertyNames,
+                                                                                             Map<String, List<String>>     qualifiedPropertyNameToTypeNames,
                                                                                              PropertyComparisonOperator    operator,
                                                                                              InstancePropertyValue         value)
 
@@ -8173,46 +9276,48 @@ class GraphOMRSMetadataStore {
             if (qNameList != null && !qNameList.isEmpty())
             {
 
-                // This method cannot handle dups so just take the first element of the list.
-                String qualifiedName = qNameList.get(0);
-                if (qualifiedName != null)
+                // Process each qualified name - a short name maps to more than one if unrelated valid types define it.
+                for (String qualifiedName : qNameList)
                 {
-                    /*
-                     * For the qualifiedName perform type checking between the match property and TDA
-                     */
+                    if (qualifiedName != null)
+                    {
+                        /*
+                         * For the qualifiedName perform type checking between the match property and TDA
+                         */
 
-                    TypeDefAttribute propertyDef = qualifiedPropertyNameToTypeDefinedAttribute.get(qualifiedName);
-                    AttributeTypeDef atd = propertyDef.getAttributeType();
+                        TypeDefAttribute propertyDef = qualifiedPropertyNameToTypeDefinedAttribute.get(qualifiedName);
+                        AttributeTypeDef atd = propertyDef.getAttributeType();
 
-                    PrimitiveDefCategory pdCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
-                    AttributeTypeDefCategory atdCat = atd.getCategory();
-                    if (atdCat == PRIMITIVE)
-                    {
-                        PrimitiveDef pdef = (PrimitiveDef) atd;
-                        pdCat = pdef.getPrimitiveDefCategory();
-                    }
+                        PrimitiveDefCategory pdCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
+                        AttributeTypeDefCategory atdCat = atd.getCategory();
+                        if (atdCat == PRIMITIVE)
+                        {
+                            PrimitiveDef pdef = (PrimitiveDef) atd;
+                            pdCat = pdef.getPrimitiveDefCategory();
+                        }
 
-                    PrimitiveDefCategory mpCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
-                    InstancePropertyCategory mpvCat = value.getInstancePropertyCategory();
-                    if (mpvCat == InstancePropertyCategory.PRIMITIVE)
-                    {
-                        PrimitivePropertyValue ppv = (PrimitivePropertyValue) value;
-                        mpCat = ppv.getPrimitiveDefCategory();
-                    }
-                    else
-                    {
-                        log.debug("{} non-primitive match property {} ignored", methodName, propName);
-                    }
+                        PrimitiveDefCategory mpCat = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN;
+                        InstancePropertyCategory mpvCat = value.getInstancePropertyCategory();
+                        if (mpvCat == InstancePropertyCategory.PRIMITIVE)
+                        {
+                            PrimitivePropertyValue ppv = (PrimitivePropertyValue) value;
+                            mpCat = ppv.getPrimitiveDefCategory();
+                        }
+                        else
+                        {
+                            log.debug("{} non-primitive match property {} ignored", methodName, propName);
+                        }
 
-                    if (mpCat == pdCat && mpCat != PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN)
-                    {
-                        /*
-                         * Types match.
-                         * Qualify and prefix the property name ready for graph search
-                         */
-                        String matchedPropName = PROPERTY_KEY_PREFIX_RELATIONSHIP + qualifiedName;
-                        mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
-                        matchedPropToMapping.put(matchedPropName, mapping);
+                        if (mpCat == pdCat && mpCat != PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN)
+                        {
+                            /*
+                             * Types match.
+                             * Qualify and prefix the property name ready for graph search
+                             */
+                            String matchedPropName = PROPERTY_KEY_PREFIX_RELATIONSHIP + qualifiedName;
+                            mapping = GraphOMRSGraphFactory.MixedIndexMapping.String;
+                            matchedPropToMapping.put(matchedPropName, mapping);
+                        }
                     }
                 }
             }
@@ -8267,6 +9372,10 @@ class GraphOMRSMetadataStore {
                             t = edgeApplyOperatorToObject(thisMatchedPropName, operator, primValue);
                             break;
                     }
+                    if (matchedPropToMapping.size() > 1)
+                    {
+                        t = restrictToDefiningTypes(t, thisMatchedPropName, PROPERTY_KEY_PREFIX_RELATIONSHIP, PROPERTY_KEY_RELATIONSHIP_TYPE_NAME, qualifiedPropertyNameToTypeNames);
+                    }
                     log.debug("{} primitive search property has property criterion {}", methodName, t);
                     localCriteria.add(t);
                 }
@@ -8276,8 +9385,8 @@ class GraphOMRSMetadataStore {
                 }
             }
 
-            /* Add a criterion to the overall traversal */
-            propertyCriterion = localCriteria.get(0);
+            /* Add a criterion to the overall traversal - matching any of the qualified names of the property */
+            propertyCriterion = combineLocalCriteria(localCriteria);
         }
         else
         {
@@ -8304,6 +9413,208 @@ class GraphOMRSMetadataStore {
 
 
 
+    /*
+     * Combine the criteria for the qualified names that a short property name maps to. A single criterion is used as is;
+     * several criteria are combined so that an instance matches if it matches any of them.
+     */
+    private <E extends Element> GraphTraversal<E, E> combineLocalCriteria(List<GraphTraversal<E, E>> localCriteria)
+    {
+        if (localCriteria.size() == 1)
+        {
+            return localCriteria.get(0);
+        }
+
+        GraphTraversal<E, E> t = new DefaultGraphTraversal<>();
+        return t.or(localCriteria.toArray(new GraphTraversal[0]));
+    }
+
+
+    /*
+     * Restrict the criterion for one of the qualified names of a property to the instances of the types that store the property
+     * under that qualified name. When the criteria for the qualified names are combined this gives the same results as a separate
+     * search of each type, including for operators (such as IS_NULL) that match an instance that does not have the property.
+     */
+    private <E extends Element> GraphTraversal<E, E> restrictToDefiningTypes(GraphTraversal<E, E>      criterion,
+                                                                             String                    propertyKey,
+                                                                             String                    propertyKeyPrefix,
+                                                                             String                    typeNamePropertyKey,
+                                                                             Map<String, List<String>> qualifiedPropertyNameToTypeNames)
+    {
+        List<String> typeNames = null;
+        if (qualifiedPropertyNameToTypeNames != null && propertyKey.startsWith(propertyKeyPrefix))
+        {
+            typeNames = qualifiedPropertyNameToTypeNames.get(propertyKey.substring(propertyKeyPrefix.length()));
+        }
+
+        if (typeNames == null || typeNames.isEmpty())
+        {
+            return criterion;
+        }
+
+        GraphTraversal<E, E> t = new DefaultGraphTraversal<>();
+        return t.has(typeNamePropertyKey, within(typeNames)).and(criterion);
+    }
+
+
+    /*
+     * Apply the status and classification limits of a query page to a traversal of entities and, if the sequencing
+     * order permits, sequence the entities and select the page.
+     */
+    private GraphTraversal<Vertex, Vertex> applyEntityQueryPage(GraphTraversal<Vertex, Vertex> gt,
+                                                                GraphOMRSQueryPage             queryPage)
+    {
+        if (queryPage == null)
+        {
+            return gt;
+        }
+
+        gt = applyStatusLimit(gt, PROPERTY_KEY_ENTITY_CURRENT_STATUS, queryPage.getLimitResultsByStatus());
+
+        if (queryPage.getLimitResultsByClassification() != null)
+        {
+            List<String> classificationNames = new ArrayList<>();
+            for (String classificationName : queryPage.getLimitResultsByClassification())
+            {
+                if (classificationName != null)
+                {
+                    classificationNames.add(classificationName);
+                }
+            }
+
+            if (classificationNames.isEmpty())
+            {
+                // No entity can have one of the (null) classifications
+                return gt.limit(0);
+            }
+
+            gt = gt.where(out("Classifier").has(PROPERTY_KEY_CLASSIFICATION_CLASSIFICATION_NAME, within(classificationNames)));
+        }
+
+        return applyPageSelection(gt,
+                                  queryPage,
+                                  PROPERTY_KEY_ENTITY_GUID,
+                                  PROPERTY_KEY_ENTITY_CREATE_TIME,
+                                  PROPERTY_KEY_ENTITY_UPDATE_TIME);
+    }
+
+
+    /*
+     * Apply the status limit of a query page to a traversal of relationships and, if the sequencing order permits,
+     * sequence the relationships and select the page.
+     */
+    private GraphTraversal<Edge, Edge> applyRelationshipQueryPage(GraphTraversal<Edge, Edge> gt,
+                                                                  GraphOMRSQueryPage         queryPage)
+    {
+        if (queryPage == null)
+        {
+            return gt;
+        }
+
+        gt = applyStatusLimit(gt, PROPERTY_KEY_RELATIONSHIP_CURRENT_STATUS, queryPage.getLimitResultsByStatus());
+
+        return applyPageSelection(gt,
+                                  queryPage,
+                                  PROPERTY_KEY_RELATIONSHIP_GUID,
+                                  PROPERTY_KEY_RELATIONSHIP_CREATE_TIME,
+                                  PROPERTY_KEY_RELATIONSHIP_UPDATE_TIME);
+    }
+
+
+    /*
+     * Only accept instances with one of the requested statuses. If no statuses are requested, exclude soft-deleted instances.
+     */
+    private <E extends Element> GraphTraversal<E, E> applyStatusLimit(GraphTraversal<E, E> gt,
+                                                                      String               statusPropertyKey,
+                                                                      List<InstanceStatus> limitResultsByStatus)
+    {
+        if (limitResultsByStatus == null)
+        {
+            return gt.not(__.has(statusPropertyKey, InstanceStatus.DELETED.getOrdinal()));
+        }
+
+        List<Integer> statusOrdinals = new ArrayList<>();
+        for (InstanceStatus status : limitResultsByStatus)
+        {
+            if (status != null)
+            {
+                statusOrdinals.add(status.getOrdinal());
+            }
+        }
+
+        if (statusOrdinals.isEmpty())
+        {
+            // No instance can have one of the (null) statuses
+            return gt.limit(0);
+        }
+
+        return gt.has(statusPropertyKey, within(statusOrdinals));
+    }
+
+
+    /*
+     * If the page can be selected in the traversal, sequence the instances by the requested header property and select the
+     * range of the page. Instances without the property are sequenced as if it had the lowest possible value, which is how
+     * the repository helper sequences instances without a value.
+     */
+    private <E extends Element> GraphTraversal<E, E> applyPageSelection(GraphTraversal<E, E> gt,
+                                                                        GraphOMRSQueryPage   queryPage,
+                                                                        String               guidPropertyKey,
+                                                                        String               createTimePropertyKey,
+                                                                        String               updateTimePropertyKey)
+    {
+        if (!queryPage.isPageSelectedByTraversal())
+        {
+            return gt;
+        }
+
+        if (queryPage.getSequencingOrder() != null)
+        {
+            switch (queryPage.getSequencingOrder())
+            {
+                case GUID:
+                    gt = gt.order().by(guidPropertyKey, Order.asc);
+                    break;
+
+                case CREATION_DATE_OLDEST:
+                    gt = gt.order().by(valueOrLowest(createTimePropertyKey), Order.asc);
+                    break;
+
+                case CREATION_DATE_RECENT:
+                    gt = gt.order().by(valueOrLowest(createTimePropertyKey), Order.desc);
+                    break;
+
+                case LAST_UPDATE_OLDEST:
+                    gt = gt.order().by(valueOrLowest(updateTimePropertyKey), Order.asc);
+                    break;
+
+                case LAST_UPDATE_RECENT:
+                    gt = gt.order().by(valueOrLowest(updateTimePropertyKey), Order.desc);
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        long fromElement = queryPage.getFromElement();
+
+        return gt.range(fromElement, fromElement + queryPage.getPageSize());
+    }
+
+
+    /*
+     * Return the date held in a property, or the lowest date if the instance does not have the property.
+     * A choose step is used rather than coalesce because coalesce takes a generic varargs array of traversals.
+     */
+    private <E extends Element> Traversal<E, Object> valueOrLowest(String datePropertyKey)
+    {
+        return __.<E, E, Object>choose(__.<E>has(datePropertyKey),
+                                       __.<E, Object>values(datePropertyKey),
+                                       __.<Object>constant(new Date(Long.MIN_VALUE)));
+    }
+
+
+
     /*
      * The entity search contains a PropertyCondition that uses the 'IN' operator, which is for testing a property
      * against an array of acceptable values.
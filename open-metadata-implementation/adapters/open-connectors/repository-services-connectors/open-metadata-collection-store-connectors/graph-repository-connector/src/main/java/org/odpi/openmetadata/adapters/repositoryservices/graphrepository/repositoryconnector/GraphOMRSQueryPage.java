@@ -0,0 +1,126 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+
+import java.util.List;
+
+
+/**
+ * GraphOMRSQueryPage describes the page of results requested from a find method, so that the graph store can apply
+ * the status and classification limits in the graph traversal and, where the sequencing order is based on the
+ * instance header, also sequence the results and select the requested page in the traversal.  Only the instances
+ * in the page are then mapped from the graph.
+ */
+class GraphOMRSQueryPage
+{
+    private final List<InstanceStatus> limitResultsByStatus;
+    private final List<String>         limitResultsByClassification;
+    private final SequencingOrder      sequencingOrder;
+    private final int                  fromElement;
+    private final int                  pageSize;
+
+
+    /**
+     * Constructor.
+     *
+     * @param limitResultsByStatus statuses of the instances to return (null for any status other than DELETED)
+     * @param limitResultsByClassification names of the classifications that a returned entity must have one of (null for no limit)
+     * @param sequencingOrder requested order of the results
+     * @param fromElement starting element of the page
+     * @param pageSize maximum number of results (0 for no limit)
+     */
+    GraphOMRSQueryPage(List<InstanceStatus> limitResultsByStatus,
+                       List<String>         limitResultsByClassification,
+                       SequencingOrder      sequencingOrder,
+                       int                  fromElement,
+                       int                  pageSize)
+    {
+        this.limitResultsByStatus         = limitResultsByStatus;
+        this.limitResultsByClassification = limitResultsByClassification;
+        this.sequencingOrder              = sequencingOrder;
+        this.fromElement                  = fromElement;
+        this.pageSize                     = pageSize;
+    }
+
+
+    List<InstanceStatus> getLimitResultsByStatus()
+    {
+        return limitResultsByStatus;
+    }
+
+
+    List<String> getLimitResultsByClassification()
+    {
+        return limitResultsByClassification;
+    }
+
+
+    SequencingOrder getSequencingOrder()
+    {
+        return sequencingOrder;
+    }
+
+
+    int getFromElement()
+    {
+        return fromElement;
+    }
+
+
+    int getPageSize()
+    {
+        return pageSize;
+    }
+
+
+    /**
+     * Return whether the traversal selects the page.  This is possible when a page size is requested and the
+     * results are either unordered or sequenced by a property of the instance header - results sequenced by a
+     * type-defined property are sorted after they are mapped, because the property may be stored under a
+     * different key for each type.
+     *
+     * @return boolean
+     */
+    boolean isPageSelectedByTraversal()
+    {
+        if (pageSize <= 0)
+        {
+            return false;
+        }
+
+        if (sequencingOrder == null)
+        {
+            return true;
+        }
+
+        switch (sequencingOrder)
+        {
+            case ANY:
+            case GUID:
+            case CREATION_DATE_RECENT:
+            case CREATION_DATE_OLDEST:
+            case LAST_UPDATE_RECENT:
+            case LAST_UPDATE_OLDEST:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+
+    /**
+     * Return the element of the returned results that the page starts from - zero if the traversal has already
+     * selected the page.
+     *
+     * @return starting element for formatting the results
+     */
+    int getResultsFromElement()
+    {
+        return isPageSelectedByTraversal() ? 0 : fromElement;
+    }
+}
@@ -23,26 +23,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 
+/**
+ * GraphOMRSQueryPlan holds the information needed to search for instances of a set of types in a single graph
+ * traversal: the names of the valid types and the mapping from the short names of the searched properties to the
+ * qualified names that they are stored under in the graph.  Where a short name maps to more than one qualified name
+ * (because unrelated types define properties with the same name) the plan also records which of the valid types
+ * store the property under each qualified name, so that the traversal can test each qualified name only on the
+ * instances of the types that define it.
+ * <br><br>
+ * A plan depends only on the shape of a query (category, filter type, subtypes and searched property names) and on
+ * the active types, so it is immutable once generated and can be shared by searches with the same shape.
+ */
 public class GraphOMRSQueryPlan {
 
     private static final Logger log = LoggerFactory.getLogger(GraphOMRSQueryPlan.class);
 
-    public enum QueryStrategy
-    {
-        Iterate,
-        Delegate
-    }
-
 
-    private QueryStrategy                 queryStrategy;
     private Map<String, TypeDefAttribute> qualifiedPropertyNameToTypeDefinedAttribute;
     private Map<String, List<String>>     shortPropertyNameToQualifiedPropertyNames;
+    private Map<String, List<String>>     qualifiedPropertyNameToTypeNames;
     private List<String>                  validTypeNames;
     private String                        filterTypeName;
 
@@ -121,6 +127,29 @@ public class GraphOMRSQueryPlan {
     }
 
 
+    /*
+     * Property names constructor - for callers that have already extracted the names of the searched properties
+     */
+    GraphOMRSQueryPlan(String                repositoryName,
+                       String                metadataCollectionId,
+                       OMRSRepositoryHelper  repositoryHelper,
+                       TypeDefCategory       typeDefCategory,
+                       List<String>          queryPropertyNames,
+                       String                filterTypeGUID,
+                       List<String>          subTypeGUIDs)
+
+    throws TypeErrorException
+    {
+        generateQueryPlan(repositoryName,
+                          metadataCollectionId,
+                          repositoryHelper,
+                          typeDefCategory,
+                          queryPropertyNames,
+                          filterTypeGUID,
+                          subTypeGUIDs);
+    }
+
+
     /*
      * SearchProperties constructor - for APIs accepting searchCritera parameter
      */
@@ -146,11 +175,6 @@ public class GraphOMRSQueryPlan {
 
 
 
-    public QueryStrategy getQueryStrategy()
-    {
-        return queryStrategy;
-    }
-
     public Map<String, TypeDefAttribute>  getQualifiedPropertyNameToTypeDefinedAttribute()
     {
         return qualifiedPropertyNameToTypeDefinedAttribute;
@@ -161,6 +185,11 @@ public class GraphOMRSQueryPlan {
         return shortPropertyNameToQualifiedPropertyNames;
     }
 
+    public Map<String, List<String>>  getQualifiedPropertyNameToTypeNames()
+    {
+        return qualifiedPropertyNameToTypeNames;
+    }
+
     public List<String>  getValidTypeNames()
     {
         return validTypeNames;
@@ -191,6 +220,7 @@ public class GraphOMRSQueryPlan {
          */
         qualifiedPropertyNameToTypeDefinedAttribute = new HashMap<>();
         shortPropertyNameToQualifiedPropertyNames = new HashMap<>();
+        qualifiedPropertyNameToTypeNames = new HashMap<>();
         filterTypeName = null;
         validTypeNames = new ArrayList<>();
 
@@ -211,7 +241,6 @@ public class GraphOMRSQueryPlan {
 
         TypeDefGallery activeTypes = repositoryHelper.getActiveTypeDefGallery();
         List<TypeDef> allTypeDefs = activeTypes.getTypeDefs();
-        boolean dups = false;
 
         /*
          * Types are not presented in any particular order. Not top-down, nor bottom-up.
@@ -236,6 +265,24 @@ public class GraphOMRSQueryPlan {
                          */
                         validTypeNames.add(typeName);
 
+                        /*
+                         * Record the qualified name that this type stores each of the searched properties under (including
+                         * inherited properties). Where a short name has more than one qualified name, this is used to test
+                         * each qualified name only on instances of the types that define it.
+                         */
+                        Map<String, String> typeQualifiedPropertyNames = mapperUtils.getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
+                        if (queryPropertyNames != null)
+                        {
+                            for (String shortName : queryPropertyNames)
+                            {
+                                String qualifiedName = typeQualifiedPropertyNames.get(shortName);
+                                if (qualifiedName != null)
+                                {
+                                    qualifiedPropertyNameToTypeNames.computeIfAbsent(qualifiedName, k -> new ArrayList<>()).add(typeName);
+                                }
+                            }
+                        }
+
                         /*
                          * Check the properties for the valid type and add them to the property maps. This will populate the map of
                          * short property name to qualified names (potentially 1:N) and the map of qualified name to TDA (1:1).
@@ -250,7 +297,8 @@ public class GraphOMRSQueryPlan {
                          * propertyKey used to store the vertex.
                          *
                          * Vertical duplicates are benign and are eliminated in the above processing, but horizontal duplicates may
-                         * remain. These are the basis for the selection of the query strategy.
+                         * remain. A search tests each of the qualified names of a horizontally duplicated property on the instances
+                         * of the types that define it (see qualifiedPropertyNameToTypeNames).
                          */
 
                         Map<String, String> qualifiedPropertyNames;
@@ -261,7 +309,7 @@ public class GraphOMRSQueryPlan {
                             /*
                              * Process all properties (including inherited)
                              */
-                            qualifiedPropertyNames = mapperUtils.getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
+                            qualifiedPropertyNames = typeQualifiedPropertyNames;
                             /*
                              * The unique  property names eliminate vertical dups - i.e. if supertype and subtype both have a property
                              * with the same name
@@ -287,14 +335,10 @@ public class GraphOMRSQueryPlan {
                                         qNameList = new ArrayList<>();
                                         shortPropertyNameToQualifiedPropertyNames.put(shortName, qNameList);
                                     }
-                                    else
+                                    if (!qNameList.contains(qualifiedName))
                                     {
-                                        /*
-                                         * Since there was already a qNameList entry for this short name there must be a dup
-                                         */
-                                        dups = true;
+                                        qNameList.add(qualifiedName);
                                     }
-                                    qNameList.add(qualifiedName);
                                 }
                             }
                         }
@@ -306,7 +350,7 @@ public class GraphOMRSQueryPlan {
                              * being processed in arbitrary order, there would be a risk of overwriting the supertype's def
                              * with the subtype's def.
                              */
-                            qualifiedPropertyNames = mapperUtils.getQualifiedPropertyNamesForTypeDef(typeDef, repositoryName, repositoryHelper);
+                            qualifiedPropertyNames = typeQualifiedPropertyNames;
                             /*
                              * Create a de-duplicated map of short property name to TDA
                              */
@@ -350,10 +394,6 @@ public class GraphOMRSQueryPlan {
                                                  * vertically duped property, and could be ignored.
                                                  */
                                                 qNameList.add(qualifiedName);
-                                                /*
-                                                 * Since there was already a different qNameList entry for this short name there must be a dup
-                                                 */
-                                                dups = true;
                                             }
                                         }
                                     }
@@ -364,15 +404,22 @@ public class GraphOMRSQueryPlan {
                 }
             }
         }
-        if (dups)
+
+        /*
+         * The plan may be shared by concurrent searches so make it read-only.
+         */
+        for (Map.Entry<String, List<String>> entry : shortPropertyNameToQualifiedPropertyNames.entrySet())
         {
-            queryStrategy = QueryStrategy.Iterate;
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
         }
-        else
+        for (Map.Entry<String, List<String>> entry : qualifiedPropertyNameToTypeNames.entrySet())
         {
-            queryStrategy = QueryStrategy.Delegate;
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
         }
-        return;
+        qualifiedPropertyNameToTypeDefinedAttribute = Collections.unmodifiableMap(qualifiedPropertyNameToTypeDefinedAttribute);
+        shortPropertyNameToQualifiedPropertyNames = Collections.unmodifiableMap(shortPropertyNameToQualifiedPropertyNames);
+        qualifiedPropertyNameToTypeNames = Collections.unmodifiableMap(qualifiedPropertyNameToTypeNames);
+        validTypeNames = Collections.unmodifiableList(validTypeNames);
     }
 
 
@@ -384,7 +431,7 @@ public class GraphOMRSQueryPlan {
      */
 
     // This method is package private - it is used locally and also by the GraphOMRSMetadataCollection class
-    boolean validatePropertyCondition(PropertyCondition condition, String repositoryName)
+    static boolean validatePropertyCondition(PropertyCondition condition, String repositoryName)
 
     throws InvalidParameterException
     {
@@ -412,9 +459,9 @@ public class GraphOMRSQueryPlan {
             throw new InvalidParameterException(
                     GraphOMRSErrorCode.INVALID_PROPERTY_CONDITION.getMessageDefinition(
                             methodName,
-                            this.getClass().getName(),
+                            GraphOMRSQueryPlan.class.getName(),
                             repositoryName),
-                    this.getClass().getName(),
+                    GraphOMRSQueryPlan.class.getName(),
                     methodName,
                     "searchProperties");
         }
@@ -431,7 +478,7 @@ public class GraphOMRSQueryPlan {
      * @param searchProperties - the SearchProperties type parameter to be analysed
      * @return a list of (Strinng) type property names
      */
-    List<String> extractPropertyNamesFromSearchProperties(SearchProperties searchProperties, String repositoryName)
+    static List<String> extractPropertyNamesFromSearchProperties(SearchProperties searchProperties, String repositoryName)
 
     throws InvalidParameterException
     {
@@ -496,7 +543,7 @@ public class GraphOMRSQueryPlan {
      * @param matchProperties - the InstanceProperties type parameter to be analysed
      * @return a list of (Strinng) type property names
      */
-    List<String> extractPropertyNamesFromMatchProperties(InstanceProperties matchProperties)
+    static List<String> extractPropertyNamesFromMatchProperties(InstanceProperties matchProperties)
     {
 
         List<String> propertyNames = null;
@@ -0,0 +1,195 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+
+/**
+ * GraphOMRSQueryPlanCache holds the query plans used by the find methods of the graph metadata collection.  Plans are
+ * keyed by the shape of the query - the category of instance, the filter type, the subtypes and the names of the
+ * searched properties - so that searches of the same shape with different values reuse the plan rather than walking
+ * the type hierarchy again.  The plans are derived from the active types, so the cache is cleared whenever the
+ * repository helper reports a new version of the active types.  The number of plans is bounded, and the least
+ * recently used plan is discarded when the cache is full.
+ */
+class GraphOMRSQueryPlanCache
+{
+    static final int                   defaultMaxQueryPlans = 500;
+
+    private final String               repositoryName;
+    private final String               metadataCollectionId;
+    private final OMRSRepositoryHelper repositoryHelper;
+
+    private final Map<String, GraphOMRSQueryPlan> queryPlans;
+    private volatile long                         activeTypesVersion = 0L;
+
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryName name of the repository (used for messages)
+     * @param metadataCollectionId unique identifier of the metadata collection
+     * @param repositoryHelper helper providing the active types
+     */
+    GraphOMRSQueryPlanCache(String               repositoryName,
+                            String               metadataCollectionId,
+                            OMRSRepositoryHelper repositoryHelper)
+    {
+        this(repositoryName, metadataCollectionId, repositoryHelper, defaultMaxQueryPlans);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryName name of the repository (used for messages)
+     * @param metadataCollectionId unique identifier of the metadata collection
+     * @param repositoryHelper helper providing the active types
+     * @param maxQueryPlans maximum number of plans to keep
+     */
+    GraphOMRSQueryPlanCache(String               repositoryName,
+                            String               metadataCollectionId,
+                            OMRSRepositoryHelper repositoryHelper,
+                            int                  maxQueryPlans)
+    {
+        this.repositoryName       = repositoryName;
+        this.metadataCollectionId = metadataCollectionId;
+        this.repositoryHelper     = repositoryHelper;
+
+        this.queryPlans = Collections.synchronizedMap(new LinkedHashMap<String, GraphOMRSQueryPlan>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, GraphOMRSQueryPlan> eldest)
+            {
+                return size() > maxQueryPlans;
+            }
+        });
+    }
+
+
+    /**
+     * Return the plan for a search with match properties.
+     *
+     * @param typeDefCategory category of the instances to find
+     * @param matchProperties properties to match
+     * @param filterTypeGUID optional type to limit the results to
+     * @param subTypeGUIDs optional subtypes of the filter type to limit the results to
+     * @return query plan
+     * @throws TypeErrorException the filter type is not known
+     */
+    GraphOMRSQueryPlan getQueryPlan(TypeDefCategory    typeDefCategory,
+                                    InstanceProperties matchProperties,
+                                    String             filterTypeGUID,
+                                    List<String>       subTypeGUIDs) throws TypeErrorException
+    {
+        return getQueryPlanForPropertyNames(typeDefCategory,
+                                            GraphOMRSQueryPlan.extractPropertyNamesFromMatchProperties(matchProperties),
+                                            filterTypeGUID,
+                                            subTypeGUIDs);
+    }
+
+
+    /**
+     * Return the plan for a search with search properties.
+     *
+     * @param typeDefCategory category of the instances to find
+     * @param searchProperties property conditions to match
+     * @param filterTypeGUID optional type to limit the results to
+     * @param subTypeGUIDs optional subtypes of the filter type to limit the results to
+     * @return query plan
+     * @throws InvalidParameterException a property condition is not valid
+     * @throws TypeErrorException the filter type is not known
+     */
+    GraphOMRSQueryPlan getQueryPlan(TypeDefCategory  typeDefCategory,
+                                    SearchProperties searchProperties,
+                                    String           filterTypeGUID,
+                                    List<String>     subTypeGUIDs) throws InvalidParameterException,
+                                                                          TypeErrorException
+    {
+        return getQueryPlanForPropertyNames(typeDefCategory,
+                                            GraphOMRSQueryPlan.extractPropertyNamesFromSearchProperties(searchProperties, repositoryName),
+                                            filterTypeGUID,
+                                            subTypeGUIDs);
+    }
+
+
+    /**
+     * Return the plan for a search that covers all of the properties of the types (for example a search criteria).
+     *
+     * @param typeDefCategory category of the instances to find
+     * @param filterTypeGUID optional type to limit the results to
+     * @param subTypeGUIDs optional subtypes of the filter type to limit the results to
+     * @return query plan
+     * @throws TypeErrorException the filter type is not known
+     */
+    GraphOMRSQueryPlan getQueryPlan(TypeDefCategory typeDefCategory,
+                                    String          filterTypeGUID,
+                                    List<String>    subTypeGUIDs) throws TypeErrorException
+    {
+        return getQueryPlanForPropertyNames(typeDefCategory, null, filterTypeGUID, subTypeGUIDs);
+    }
+
+
+    /**
+     * Return the cached plan for the shape of the query, generating it if this shape has not been planned
+     * since the active types last changed.
+     *
+     * @param typeDefCategory category of the instances to find
+     * @param queryPropertyNames short names of the searched properties, or null for all properties
+     * @param filterTypeGUID optional type to limit the results to
+     * @param subTypeGUIDs optional subtypes of the filter type to limit the results to
+     * @return query plan
+     * @throws TypeErrorException the filter type is not known
+     */
+    private GraphOMRSQueryPlan getQueryPlanForPropertyNames(TypeDefCategory typeDefCategory,
+                                                            List<String>    queryPropertyNames,
+                                                            String          filterTypeGUID,
+                                                            List<String>    subTypeGUIDs) throws TypeErrorException
+    {
+        long currentVersion = repositoryHelper.getActiveTypesVersion();
+
+        if (currentVersion != activeTypesVersion)
+        {
+            queryPlans.clear();
+            activeTypesVersion = currentVersion;
+        }
+
+        String queryShape = currentVersion + ":" +
+                            typeDefCategory + ":" +
+                            filterTypeGUID + ":" +
+                            subTypeGUIDs + ":" +
+                            ((queryPropertyNames == null) ? null : new TreeSet<>(queryPropertyNames));
+
+        GraphOMRSQueryPlan queryPlan = queryPlans.get(queryShape);
+
+        if (queryPlan == null)
+        {
+            queryPlan = new GraphOMRSQueryPlan(repositoryName,
+                                               metadataCollectionId,
+                                               repositoryHelper,
+                                               typeDefCategory,
+                                               queryPropertyNames,
+                                               filterTypeGUID,
+                                               subTypeGUIDs);
+
+            queryPlans.put(queryShape, queryPlan);
+        }
+
+        return queryPlan;
+    }
+}
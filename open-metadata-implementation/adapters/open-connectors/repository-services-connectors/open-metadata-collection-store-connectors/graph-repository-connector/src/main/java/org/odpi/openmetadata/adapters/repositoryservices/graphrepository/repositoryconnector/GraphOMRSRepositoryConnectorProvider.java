@@ -24,6 +24,32 @@ public class GraphOMRSRepositoryConnectorProvider extends OMRSRepositoryConnecto
     static final String  connectorTypeName        = "OMRS Graph Repository Connector";
     static final String  connectorTypeDescription = "OMRS Repository Connector that uses graph repository store.";
 
+    /**
+     * Maximum number of reference copies saved in one graph transaction when a batch of instances is saved with
+     * saveInstanceReferenceCopies.  This property is removed from the configuration properties before the
+     * remaining properties are passed to the graph database.
+     */
+    public static final String  referenceCopyBatchSizeProperty = "referenceCopyBatchSize";
+
+    static final int     defaultReferenceCopyBatchSize = 1000;
+
+    /**
+     * Maximum number of versions of each entity and relationship that are kept in the version history used for
+     * historical queries and undo.  Zero means no limit.  This property is removed from the configuration
+     * properties before the remaining properties are passed to the graph database.
+     */
+    public static final String  historyMaxVersionsProperty = "historyMaxVersions";
+
+    /**
+     * Number of days that a replaced version of an entity or relationship is kept in the version history.
+     * Zero means no limit.  This property is removed from the configuration properties before the remaining
+     * properties are passed to the graph database.
+     */
+    public static final String  historyRetentionDaysProperty = "historyRetentionDays";
+
+    static final int     defaultHistoryMaxVersions   = 100;
+    static final int     defaultHistoryRetentionDays = 0;
+
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
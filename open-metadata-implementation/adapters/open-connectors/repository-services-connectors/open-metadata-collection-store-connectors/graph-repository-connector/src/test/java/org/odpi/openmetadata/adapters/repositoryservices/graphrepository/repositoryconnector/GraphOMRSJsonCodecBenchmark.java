@@ -0,0 +1,121 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphOMRSJsonCodecBenchmark measures the round trip of the serialized values that the entity mapper stores on
+ * an entity vertex (instance properties, maintainedBy and mappingProperties) - first with a new ObjectMapper
+ * for each value, as the mappers used to do, and then with the shared readers and writer of GraphOMRSJsonCodec.
+ * It is not run as part of the unit tests.  Run the main method (with the test classpath) to execute the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GraphOMRSJsonCodecBenchmark
+{
+    private InstanceProperties        properties;
+    private List<String>              maintainedBy;
+    private Map<String, Serializable> mappingProperties;
+
+
+    /**
+     * Create the values to serialize.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        properties = new InstanceProperties();
+
+        for (int i = 0; i < 10; i++)
+        {
+            PrimitivePropertyValue value = new PrimitivePropertyValue();
+
+            value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+            value.setTypeName(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING.getName());
+            value.setPrimitiveValue("value of property " + i);
+            properties.setProperty("property" + i, value);
+        }
+
+        maintainedBy = new ArrayList<>();
+        maintainedBy.add("garygeeke");
+        maintainedBy.add("erinoverview");
+
+        mappingProperties = new HashMap<>();
+        mappingProperties.put("sourceName", "benchmark");
+        mappingProperties.put("sourceId", 42);
+    }
+
+
+    /**
+     * Round trip the values with a new ObjectMapper for each value.
+     *
+     * @param blackhole consumer of the results
+     * @throws Exception the values could not be serialized
+     */
+    @Benchmark
+    public void newObjectMapper(Blackhole blackhole) throws Exception
+    {
+        String propertiesJSON = new ObjectMapper().writeValueAsString(properties);
+        String maintainedByJSON = new ObjectMapper().writeValueAsString(maintainedBy);
+        String mappingPropertiesJSON = new ObjectMapper().writeValueAsString(mappingProperties);
+
+        blackhole.consume(new ObjectMapper().readValue(propertiesJSON, InstanceProperties.class));
+        blackhole.consume(new ObjectMapper().readValue(maintainedByJSON, List.class));
+        blackhole.consume(new ObjectMapper().readValue(mappingPropertiesJSON, new TypeReference<Map<String, Serializable>>() {}));
+    }
+
+
+    /**
+     * Round trip the values with the shared codec.
+     *
+     * @param blackhole consumer of the results
+     * @throws Exception the values could not be serialized
+     */
+    @Benchmark
+    public void sharedCodec(Blackhole blackhole) throws Exception
+    {
+        String propertiesJSON = GraphOMRSJsonCodec.writeValueAsString(properties);
+        String maintainedByJSON = GraphOMRSJsonCodec.writeValueAsString(maintainedBy);
+        String mappingPropertiesJSON = GraphOMRSJsonCodec.writeValueAsString(mappingProperties);
+
+        blackhole.consume(GraphOMRSJsonCodec.readInstanceProperties(propertiesJSON));
+        blackhole.consume(GraphOMRSJsonCodec.readMaintainedBy(maintainedByJSON));
+        blackhole.consume(GraphOMRSJsonCodec.readMappingProperties(mappingPropertiesJSON));
+    }
+
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args ignored
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder().include(GraphOMRSJsonCodecBenchmark.class.getSimpleName()).build();
+
+        new Runner(options).run();
+    }
+}
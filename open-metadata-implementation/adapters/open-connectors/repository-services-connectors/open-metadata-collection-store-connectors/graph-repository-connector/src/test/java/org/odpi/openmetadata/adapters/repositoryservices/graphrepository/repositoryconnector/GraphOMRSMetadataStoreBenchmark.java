@@ -0,0 +1,183 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * GraphOMRSMetadataStoreBenchmark measures the number of entity reads and entity updates per second that the
+ * GraphOMRSMetadataStore completes as the number of concurrent threads increases.  The store uses the embedded
+ * BerkeleyDB storage and Lucene index configured by GraphOMRSGraphFactory, in a new temporary directory for each run.
+ * It is not run as part of the unit tests.  Run the main method (with the test classpath) to execute the
+ * benchmark at 1, 4, 16 and 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GraphOMRSMetadataStoreBenchmark
+{
+    private static final String REPOSITORY_NAME        = "benchmark-repository";
+    private static final String METADATA_COLLECTION_ID = "benchmark-metadata-collection";
+    private static final String TYPE_NAME              = "BenchmarkEntity";
+    private static final String TYPE_GUID              = "benchmark-entity-type-guid";
+
+    @Param({"10000"})
+    public int entityCount;
+
+    private GraphOMRSMetadataStore store;
+
+
+    /**
+     * Create the store and load it with entities.
+     *
+     * @throws Exception the store could not be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        File storageDirectory = Files.createTempDirectory("graph-store-benchmark").toFile();
+
+        Map<String, Object> storageProperties = new HashMap<>();
+        storageProperties.put("storage.backend", "berkeleyje");
+        storageProperties.put("storage.directory", new File(storageDirectory, "berkeley").getPath());
+        storageProperties.put("index.search.backend", "lucene");
+        storageProperties.put("index.search.directory", new File(storageDirectory, "searchindex").getPath());
+
+        store = new GraphOMRSMetadataStore(METADATA_COLLECTION_ID,
+                                           REPOSITORY_NAME,
+                                           getRepositoryHelper(),
+                                           mock(AuditLog.class, withSettings().stubOnly()),
+                                           storageProperties);
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            store.createEntityInStore(getEntity(i, 1L));
+        }
+    }
+
+
+    /**
+     * Read a random entity.
+     *
+     * @return entity
+     * @throws Exception the read failed
+     */
+    @Benchmark
+    public EntityDetail read() throws Exception
+    {
+        return store.getEntityDetailFromStore(getGUID(ThreadLocalRandom.current().nextInt(entityCount)));
+    }
+
+
+    /**
+     * Update a random entity.
+     *
+     * @throws Exception the update failed
+     */
+    @Benchmark
+    public void write() throws Exception
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        store.updateEntityInStore(getEntity(random.nextInt(entityCount), random.nextLong(2L, Long.MAX_VALUE)));
+    }
+
+
+    /**
+     * Run the benchmark at each number of threads.
+     *
+     * @param args ignored
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        for (int threads : new int[]{1, 4, 16, 64})
+        {
+            Options options = new OptionsBuilder().include(GraphOMRSMetadataStoreBenchmark.class.getSimpleName())
+                                                  .threads(threads)
+                                                  .build();
+
+            new Runner(options).run();
+        }
+    }
+
+
+    private OMRSRepositoryHelper getRepositoryHelper() throws Exception
+    {
+        EntityDef typeDef = new EntityDef();
+
+        typeDef.setGUID(TYPE_GUID);
+        typeDef.setName(TYPE_NAME);
+        typeDef.setCategory(TypeDefCategory.ENTITY_DEF);
+
+        InstanceType instanceType = new InstanceType();
+
+        instanceType.setTypeDefCategory(TypeDefCategory.ENTITY_DEF);
+        instanceType.setTypeDefGUID(TYPE_GUID);
+        instanceType.setTypeDefName(TYPE_NAME);
+
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class, withSettings().stubOnly());
+
+        when(repositoryHelper.getTypeDefByName(anyString(), anyString())).thenReturn(typeDef);
+        when(repositoryHelper.getNewInstanceType(anyString(), any(TypeDefSummary.class))).thenReturn(instanceType);
+
+        return repositoryHelper;
+    }
+
+
+    private String getGUID(int index)
+    {
+        return "entity-" + index;
+    }
+
+
+    private EntityDetail getEntity(int index, long version)
+    {
+        EntityDetail entity       = new EntityDetail();
+        InstanceType instanceType = new InstanceType();
+
+        instanceType.setTypeDefCategory(TypeDefCategory.ENTITY_DEF);
+        instanceType.setTypeDefGUID(TYPE_GUID);
+        instanceType.setTypeDefName(TYPE_NAME);
+
+        entity.setGUID(getGUID(index));
+        entity.setType(instanceType);
+        entity.setMetadataCollectionId(METADATA_COLLECTION_ID);
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setVersion(version);
+        entity.setCreatedBy("benchmark");
+        entity.setCreateTime(new Date(0L));
+        entity.setUpdateTime((version > 1L) ? new Date() : null);
+
+        return entity;
+    }
+}
@@ -0,0 +1,405 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.RelationshipDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify which versions of an instance the graph store keeps in its version history, and which it drops, as
+ * instances are created, updated, deleted and purged.  The store uses the embedded BerkeleyDB storage and Lucene
+ * index in a new temporary directory.
+ */
+public class GraphOMRSMetadataStoreHistoryTest
+{
+    private static final String repositoryName       = "GraphHistoryTest";
+    private static final String metadataCollectionId = "GraphHistoryTestMDC";
+    private static final String entityTypeName       = "HistoryTestEntity";
+    private static final String entityTypeGUID       = "history-test-entity-type-guid";
+    private static final String relationshipTypeName = "HistoryTestRelationship";
+    private static final String relationshipTypeGUID = "history-test-relationship-type-guid";
+
+    private static final long hour = TimeUnit.HOURS.toMillis(1);
+    private static final long day  = TimeUnit.DAYS.toMillis(1);
+
+    private GraphOMRSMetadataStore store;
+
+
+    /**
+     * Create the store.
+     *
+     * @throws Exception the store could not be created
+     */
+    @BeforeClass
+    public void setUpStore() throws Exception
+    {
+        File storageDirectory = Files.createTempDirectory("graph-store-history-test").toFile();
+
+        Map<String, Object> storageProperties = new HashMap<>();
+        storageProperties.put("storage.backend", "berkeleyje");
+        storageProperties.put("storage.directory", new File(storageDirectory, "berkeley").getPath());
+        storageProperties.put("index.search.backend", "lucene");
+        storageProperties.put("index.search.directory", new File(storageDirectory, "searchindex").getPath());
+
+        store = new GraphOMRSMetadataStore(metadataCollectionId,
+                                           repositoryName,
+                                           getRepositoryHelper(),
+                                           mock(AuditLog.class, withSettings().stubOnly()),
+                                           storageProperties);
+    }
+
+
+    /**
+     * Restore the default retention policy before each test.
+     */
+    @BeforeMethod
+    public void resetRetention()
+    {
+        store.setHistoryRetention(GraphOMRSRepositoryConnectorProvider.defaultHistoryMaxVersions, 0);
+    }
+
+
+    /**
+     * Creating an entity records its first version, which was not current before the entity was created.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testCreateRecordsFirstVersion() throws Exception
+    {
+        long startTime = System.currentTimeMillis() - day;
+
+        EntityDetail entity = getEntity(UUID.randomUUID().toString(), 1L, startTime, null, InstanceStatus.ACTIVE);
+
+        store.createEntityInStore(entity);
+
+        assertVersions(store.getLatestEntityVersionsFromStore(entity.getGUID(), 10), 1L);
+        assertEquals(store.getEntityDetailFromStore(entity.getGUID(), new Date(startTime)).getVersion(), 1L);
+        assertNull(store.getEntityDetailFromStore(entity.getGUID(), new Date(startTime - 1)));
+    }
+
+
+    /**
+     * Each update records a new version, and saving a version that is already recorded does not add another.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testUpdateKeepsEachVersion() throws Exception
+    {
+        long   startTime = System.currentTimeMillis() - day;
+        String guid      = createEntityWithUpdates(startTime, 4);
+
+        assertVersions(store.getLatestEntityVersionsFromStore(guid, 10), 1L, 2L, 3L, 4L);
+
+        store.updateEntityInStore(getEntity(guid, 4L, startTime, startTime + 3 * hour, InstanceStatus.ACTIVE));
+
+        assertVersions(store.getLatestEntityVersionsFromStore(guid, 10), 1L, 2L, 3L, 4L);
+        assertEquals(store.getEntityDetailFromStore(guid, new Date(startTime + hour + 1)).getVersion(), 2L);
+        assertVersions(store.getEntityDetailHistoryFromStore(guid, new Date(startTime + hour + 1), new Date(startTime + 3 * hour)), 2L, 3L);
+    }
+
+
+    /**
+     * Updates beyond the maximum number of versions drop the oldest versions, which can then no longer be read.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testUpdateDropsVersionsBeyondMaximum() throws Exception
+    {
+        store.setHistoryRetention(3, 0);
+
+        long   startTime = System.currentTimeMillis() - day;
+        String guid      = createEntityWithUpdates(startTime, 5);
+
+        assertVersions(store.getLatestEntityVersionsFromStore(guid, 10), 3L, 4L, 5L);
+        assertNull(store.getEntityDetailFromStore(guid, new Date(startTime + hour)));
+        assertEquals(store.getEntityDetailFromStore(guid, new Date(startTime + 2 * hour)).getVersion(), 3L);
+    }
+
+
+    /**
+     * Updates drop the versions that were replaced before the retention period, but keep the version that was
+     * current at the start of the period and the latest version, however old.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testUpdateDropsVersionsReplacedBeforeRetentionPeriod() throws Exception
+    {
+        store.setHistoryRetention(0, 1);
+
+        long         now    = System.currentTimeMillis();
+        EntityDetail entity = getEntity(UUID.randomUUID().toString(), 1L, now - 4 * day, null, InstanceStatus.ACTIVE);
+
+        store.createEntityInStore(entity);
+
+        assertVersions(store.getLatestEntityVersionsFromStore(entity.getGUID(), 10), 1L);
+
+        store.updateEntityInStore(getEntity(entity.getGUID(), 2L, now - 4 * day, now - 3 * day, InstanceStatus.ACTIVE));
+        store.updateEntityInStore(getEntity(entity.getGUID(), 3L, now - 4 * day, now - 2 * day, InstanceStatus.ACTIVE));
+
+        assertVersions(store.getLatestEntityVersionsFromStore(entity.getGUID(), 10), 3L);
+
+        store.updateEntityInStore(getEntity(entity.getGUID(), 4L, now - 4 * day, now - hour, InstanceStatus.ACTIVE));
+
+        assertVersions(store.getLatestEntityVersionsFromStore(entity.getGUID(), 10), 3L, 4L);
+    }
+
+
+    /**
+     * A soft delete is recorded as a new version, and the versions before the delete are kept.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testDeleteKeepsHistory() throws Exception
+    {
+        long   startTime = System.currentTimeMillis() - day;
+        String guid      = createEntityWithUpdates(startTime, 2);
+
+        store.updateEntityInStore(getEntity(guid, 3L, startTime, startTime + 2 * hour, InstanceStatus.DELETED));
+
+        List<EntityDetail> versions = store.getLatestEntityVersionsFromStore(guid, 10);
+
+        assertVersions(versions, 1L, 2L, 3L);
+        assertEquals(versions.get(2).getStatus(), InstanceStatus.DELETED);
+        assertEquals(store.getEntityDetailFromStore(guid, new Date(startTime + hour)).getStatus(), InstanceStatus.ACTIVE);
+    }
+
+
+    /**
+     * Purging an entity drops its whole history.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testPurgeDropsHistory() throws Exception
+    {
+        long   startTime = System.currentTimeMillis() - day;
+        String guid      = createEntityWithUpdates(startTime, 3);
+
+        store.removeEntityFromStore(guid);
+
+        assertTrue(store.getLatestEntityVersionsFromStore(guid, 10).isEmpty());
+    }
+
+
+    /**
+     * The history of a relationship is kept and dropped in the same way as that of an entity.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testRelationshipHistory() throws Exception
+    {
+        store.setHistoryRetention(2, 0);
+
+        long         startTime = System.currentTimeMillis() - day;
+        EntityDetail entityOne = getEntity(UUID.randomUUID().toString(), 1L, startTime, null, InstanceStatus.ACTIVE);
+        EntityDetail entityTwo = getEntity(UUID.randomUUID().toString(), 1L, startTime, null, InstanceStatus.ACTIVE);
+
+        store.createEntityInStore(entityOne);
+        store.createEntityInStore(entityTwo);
+
+        String guid = UUID.randomUUID().toString();
+
+        store.createRelationshipInStore(getRelationship(guid, entityOne, entityTwo, 1L, startTime, null, InstanceStatus.ACTIVE));
+
+        assertVersions(store.getLatestRelationshipVersionsFromStore(guid, 10), 1L);
+        assertNull(store.getRelationshipFromStore(guid, new Date(startTime - 1)));
+
+        store.updateRelationshipInStore(getRelationship(guid, entityOne, entityTwo, 2L, startTime, startTime + hour, InstanceStatus.ACTIVE));
+        store.updateRelationshipInStore(getRelationship(guid, entityOne, entityTwo, 3L, startTime, startTime + 2 * hour, InstanceStatus.DELETED));
+
+        assertVersions(store.getLatestRelationshipVersionsFromStore(guid, 10), 2L, 3L);
+        assertNull(store.getRelationshipFromStore(guid, new Date(startTime)));
+        assertEquals(store.getRelationshipFromStore(guid, new Date(startTime + hour)).getVersion(), 2L);
+        assertVersions(store.getRelationshipsForEntity(entityOne.getGUID(), new Date(startTime + hour)), 2L);
+
+        store.removeRelationshipFromStore(guid);
+
+        assertTrue(store.getLatestRelationshipVersionsFromStore(guid, 10).isEmpty());
+    }
+
+
+    /**
+     * Create an entity and update it so that it has the requested number of versions, each an hour after the last.
+     *
+     * @param startTime create time of the entity
+     * @param versionCount number of versions
+     * @return unique identifier of the entity
+     * @throws Exception the entity could not be stored
+     */
+    private String createEntityWithUpdates(long startTime,
+                                           int  versionCount) throws Exception
+    {
+        String guid = UUID.randomUUID().toString();
+
+        store.createEntityInStore(getEntity(guid, 1L, startTime, null, InstanceStatus.ACTIVE));
+
+        for (long version = 2L; version <= versionCount; version++)
+        {
+            store.updateEntityInStore(getEntity(guid, version, startTime, startTime + (version - 1) * hour, InstanceStatus.ACTIVE));
+        }
+
+        return guid;
+    }
+
+
+    /**
+     * Check the version numbers of a list of instances.
+     *
+     * @param instances instances in the order returned by the store
+     * @param expectedVersions expected version numbers in the same order
+     */
+    private void assertVersions(List<? extends InstanceAuditHeader> instances,
+                                Long...                             expectedVersions)
+    {
+        List<Long> versions = new ArrayList<>();
+
+        for (InstanceAuditHeader instance : instances)
+        {
+            versions.add(instance.getVersion());
+        }
+
+        assertEquals(versions, Arrays.asList(expectedVersions));
+    }
+
+
+    private EntityDetail getEntity(String         guid,
+                                   long           version,
+                                   long           createTime,
+                                   Long           updateTime,
+                                   InstanceStatus status)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setType(getInstanceType(TypeDefCategory.ENTITY_DEF, entityTypeGUID, entityTypeName));
+        setAuditHeader(entity, version, createTime, updateTime, status);
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(String         guid,
+                                         EntityDetail   entityOne,
+                                         EntityDetail   entityTwo,
+                                         long           version,
+                                         long           createTime,
+                                         Long           updateTime,
+                                         InstanceStatus status)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setType(getInstanceType(TypeDefCategory.RELATIONSHIP_DEF, relationshipTypeGUID, relationshipTypeName));
+        relationship.setEntityOneProxy(getEntityProxy(entityOne));
+        relationship.setEntityTwoProxy(getEntityProxy(entityTwo));
+        setAuditHeader(relationship, version, createTime, updateTime, status);
+
+        return relationship;
+    }
+
+
+    private EntityProxy getEntityProxy(EntityDetail entity)
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(entity.getGUID());
+        entityProxy.setType(entity.getType());
+        entityProxy.setMetadataCollectionId(metadataCollectionId);
+
+        return entityProxy;
+    }
+
+
+    private void setAuditHeader(InstanceAuditHeader instance,
+                                long                version,
+                                long                createTime,
+                                Long                updateTime,
+                                InstanceStatus      status)
+    {
+        instance.setMetadataCollectionId(metadataCollectionId);
+        instance.setStatus(status);
+        instance.setVersion(version);
+        instance.setCreatedBy("test");
+        instance.setCreateTime(new Date(createTime));
+        instance.setUpdateTime((updateTime == null) ? null : new Date(updateTime));
+    }
+
+
+    private static InstanceType getInstanceType(TypeDefCategory category,
+                                                String          guid,
+                                                String          name)
+    {
+        InstanceType instanceType = new InstanceType();
+
+        instanceType.setTypeDefCategory(category);
+        instanceType.setTypeDefGUID(guid);
+        instanceType.setTypeDefName(name);
+
+        return instanceType;
+    }
+
+
+    private OMRSRepositoryHelper getRepositoryHelper() throws Exception
+    {
+        TypeDef entityDef = new EntityDef();
+
+        entityDef.setGUID(entityTypeGUID);
+        entityDef.setName(entityTypeName);
+
+        TypeDef relationshipDef = new RelationshipDef();
+
+        relationshipDef.setGUID(relationshipTypeGUID);
+        relationshipDef.setName(relationshipTypeName);
+
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class, withSettings().stubOnly());
+
+        when(repositoryHelper.getTypeDefByName(anyString(), anyString())).thenAnswer(
+                invocation -> relationshipTypeName.equals(invocation.getArgument(1)) ? relationshipDef : entityDef);
+        when(repositoryHelper.getNewInstanceType(anyString(), any(TypeDefSummary.class))).thenAnswer(
+                invocation -> getInstanceType(invocation.<TypeDefSummary>getArgument(1).getCategory(),
+                                              invocation.<TypeDefSummary>getArgument(1).getGUID(),
+                                              invocation.<TypeDefSummary>getArgument(1).getName()));
+
+        return repositoryHelper;
+    }
+}
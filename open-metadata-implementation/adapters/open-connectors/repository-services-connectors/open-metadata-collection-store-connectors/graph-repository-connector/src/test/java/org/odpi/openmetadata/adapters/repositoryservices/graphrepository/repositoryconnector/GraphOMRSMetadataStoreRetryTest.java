@@ -0,0 +1,245 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.locking.PermanentLockingException;
+import org.janusgraph.diskstorage.locking.TemporaryLockingException;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that the graph store retries a write that fails because of lock contention, waits longer before each
+ * successive attempt, and gives up after the maximum number of attempts or when the failure is not caused by lock
+ * contention.  The lock contention is simulated by failing the single attempt at an entity update.
+ */
+public class GraphOMRSMetadataStoreRetryTest
+{
+    private static final String repositoryName       = "GraphRetryTest";
+    private static final String metadataCollectionId = "GraphRetryTestMDC";
+
+    private GraphOMRSMetadataStore realStore;
+    private GraphOMRSMetadataStore store;
+
+
+    /**
+     * Create the store.
+     *
+     * @throws Exception the store could not be created
+     */
+    @BeforeClass
+    public void setUpStore() throws Exception
+    {
+        File storageDirectory = Files.createTempDirectory("graph-store-retry-test").toFile();
+
+        Map<String, Object> storageProperties = new HashMap<>();
+        storageProperties.put("storage.backend", "berkeleyje");
+        storageProperties.put("storage.directory", new File(storageDirectory, "berkeley").getPath());
+        storageProperties.put("index.search.backend", "lucene");
+        storageProperties.put("index.search.directory", new File(storageDirectory, "searchindex").getPath());
+
+        realStore = new GraphOMRSMetadataStore(metadataCollectionId,
+                                               repositoryName,
+                                               mock(OMRSRepositoryHelper.class, withSettings().stubOnly()),
+                                               mock(AuditLog.class, withSettings().stubOnly()),
+                                               storageProperties);
+    }
+
+
+    /**
+     * Give each test a fresh record of the attempts.
+     */
+    @BeforeMethod
+    public void setUpSpy()
+    {
+        store = spy(realStore);
+    }
+
+
+    /**
+     * A write that meets lock contention is retried until it succeeds.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testRetryUntilSuccess() throws Exception
+    {
+        EntityDetail entity = new EntityDetail();
+
+        doThrow(getLockContention()).doThrow(getLockContention())
+                                    .doNothing()
+                                    .when(store).tryUpdateEntityInStore(any());
+
+        store.updateEntityInStore(entity);
+
+        verify(store, times(3)).tryUpdateEntityInStore(entity);
+    }
+
+
+    /**
+     * A write that always meets lock contention is attempted the maximum number of times, with a wait before each
+     * retry, and then fails with the exception from the last attempt.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testGiveUpAfterMaximumAttempts() throws Exception
+    {
+        RuntimeException lockContention = getLockContention();
+
+        doThrow(lockContention).when(store).tryUpdateEntityInStore(any());
+
+        long startTime = System.nanoTime();
+
+        try
+        {
+            store.updateEntityInStore(new EntityDetail());
+            fail("The update succeeded");
+        }
+        catch (RuntimeException e)
+        {
+            assertSame(e, lockContention);
+        }
+
+        long waitTime = (System.nanoTime() - startTime) / 1000000;
+
+        verify(store, times(GraphOMRSMetadataStore.maxTransactionAttempts)).tryUpdateEntityInStore(any());
+
+        /*
+         * There is a wait of at least a millisecond before each retry.
+         */
+        assertTrue(waitTime >= GraphOMRSMetadataStore.maxTransactionAttempts - 1, "Waited " + waitTime + "ms");
+    }
+
+
+    /**
+     * A write that fails for a reason other than lock contention is not retried.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testNoRetryForOtherFailures() throws Exception
+    {
+        RuntimeException failure = new IllegalStateException("not a lock failure");
+
+        doThrow(failure).when(store).tryUpdateEntityInStore(any());
+
+        try
+        {
+            store.updateEntityInStore(new EntityDetail());
+            fail("The update succeeded");
+        }
+        catch (RuntimeException e)
+        {
+            assertSame(e, failure);
+        }
+
+        verify(store, times(1)).tryUpdateEntityInStore(any());
+    }
+
+
+    /**
+     * A thread that is interrupted while it waits to retry gives up and keeps its interrupt status.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testGiveUpWhenInterrupted() throws Exception
+    {
+        RuntimeException lockContention = getLockContention();
+
+        doThrow(lockContention).when(store).tryUpdateEntityInStore(any());
+
+        Thread.currentThread().interrupt();
+
+        try
+        {
+            store.updateEntityInStore(new EntityDetail());
+            fail("The update succeeded");
+        }
+        catch (RuntimeException e)
+        {
+            assertSame(e, lockContention);
+        }
+        finally
+        {
+            assertTrue(Thread.interrupted());
+        }
+
+        verify(store, times(1)).tryUpdateEntityInStore(any());
+    }
+
+
+    /**
+     * The wait before a retry is at least a millisecond and its upper limit grows with each attempt.
+     */
+    @Test
+    public void testRetryWaitGrowsWithAttempts()
+    {
+        for (int attempt = 1; attempt < GraphOMRSMetadataStore.maxTransactionAttempts; attempt++)
+        {
+            long longestWait = 0L;
+
+            for (int i = 0; i < 1000; i++)
+            {
+                long wait = GraphOMRSMetadataStore.getRetryWait(attempt);
+
+                assertTrue(wait >= 1L && wait <= GraphOMRSMetadataStore.transactionRetryWait * attempt, "Wait " + wait + " for attempt " + attempt);
+
+                longestWait = Math.max(longestWait, wait);
+            }
+
+            assertTrue(longestWait > GraphOMRSMetadataStore.transactionRetryWait * (attempt - 1), "Longest wait " + longestWait + " for attempt " + attempt);
+        }
+    }
+
+
+    /**
+     * Lock contention is recognised anywhere in the chain of causes.
+     */
+    @Test
+    public void testLockContentionIsRecognised()
+    {
+        assertTrue(GraphOMRSMetadataStore.isLockContention(new TemporaryLockingException("busy")));
+        assertTrue(GraphOMRSMetadataStore.isLockContention(new PermanentLockingException("expired")));
+        assertTrue(GraphOMRSMetadataStore.isLockContention(new TemporaryBackendException("busy")));
+        assertTrue(GraphOMRSMetadataStore.isLockContention(getLockContention()));
+
+        assertFalse(GraphOMRSMetadataStore.isLockContention(new IllegalStateException("not a lock failure")));
+        assertFalse(GraphOMRSMetadataStore.isLockContention(new RuntimeException(new IllegalStateException("not a lock failure"))));
+        assertFalse(GraphOMRSMetadataStore.isLockContention(null));
+    }
+
+
+    /**
+     * Return the exception that JanusGraph throws when a transaction can not get a lock.
+     *
+     * @return exception wrapping a locking failure
+     */
+    private RuntimeException getLockContention()
+    {
+        return new RuntimeException("Could not commit transaction", new TemporaryLockingException("Lock is held by another transaction"));
+    }
+}
@@ -0,0 +1,448 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyComparisonOperator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyCondition;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefAttribute;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefGallery;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRepositoryPropertiesUtilities;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the query plan cache reuses plans for searches of the same shape, builds new plans when the
+ * active types change, discards the least recently used plans when it is full, and that the plans it returns
+ * are the same as the plans built directly from the search parameters.
+ */
+public class GraphOMRSQueryPlanCacheTest
+{
+    private static final String repositoryName       = "GraphQueryPlanTest";
+    private static final String metadataCollectionId = "GraphQueryPlanTestMDC";
+    private static final String sourceName           = "GraphOMRSQueryPlanCacheTest";
+
+    private static final String referenceableGUID = "referenceable-guid";
+    private static final String assetGUID         = "asset-guid";
+    private static final String dataSetGUID       = "data-set-guid";
+    private static final String processGUID       = "process-guid";
+    private static final String noteGUID          = "note-guid";
+
+    private final OMRSRepositoryPropertiesUtilities propertiesUtilities = new OMRSRepositoryPropertiesUtilities();
+
+    private Map<String, TypeDef> activeTypeDefs;
+    private long                 activeTypesVersion;
+    private OMRSRepositoryHelper repositoryHelper;
+
+
+    /**
+     * Set up a repository helper over a small type hierarchy.  The unrelated Note type defines its own
+     * name property so that searches on name span more than one qualified property name.
+     *
+     * @throws Exception mock setup failure
+     */
+    @BeforeMethod
+    public void setUp() throws Exception
+    {
+        activeTypeDefs     = new LinkedHashMap<>();
+        activeTypesVersion = 0L;
+        repositoryHelper   = mock(OMRSRepositoryHelper.class);
+
+        when(repositoryHelper.getActiveTypesVersion()).thenAnswer(invocation -> activeTypesVersion);
+        when(repositoryHelper.getActiveTypeDefGallery()).thenAnswer(invocation -> getActiveTypeDefGallery());
+        when(repositoryHelper.getTypeDefByName(any(), any())).thenAnswer(invocation -> activeTypeDefs.get(invocation.<String>getArgument(1)));
+        when(repositoryHelper.getTypeDef(any(), any(), any(), any())).thenAnswer(invocation -> getTypeDefByGUID(invocation.getArgument(2)));
+        when(repositoryHelper.isTypeOf(any(), any(), any())).thenAnswer(invocation -> isTypeOf(invocation.getArgument(1), invocation.getArgument(2)));
+
+        addTypeDef(getEntityDef(referenceableGUID, "Referenceable", null, "qualifiedName"));
+        addTypeDef(getEntityDef(assetGUID, "Asset", "Referenceable", "name", "description"));
+        addTypeDef(getEntityDef(dataSetGUID, "DataSet", "Asset", "formula"));
+        addTypeDef(getEntityDef(processGUID, "Process", "Asset", "formula"));
+        addTypeDef(getEntityDef(noteGUID, "Note", null, "name", "text"));
+    }
+
+
+    /**
+     * Searches with the same shape share a plan, whatever the values searched for and the order of the properties.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testPlanIsReused() throws Exception
+    {
+        GraphOMRSQueryPlanCache cache = new GraphOMRSQueryPlanCache(repositoryName, metadataCollectionId, repositoryHelper);
+
+        GraphOMRSQueryPlan plan = cache.getQueryPlan(TypeDefCategory.ENTITY_DEF,
+                                                     getMatchProperties("name", "first", "description", "one"),
+                                                     assetGUID,
+                                                     null);
+
+        assertSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF,
+                                      getMatchProperties("description", "two", "name", "second"),
+                                      assetGUID,
+                                      null), plan);
+        assertSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF,
+                                      getSearchProperties("name", "description"),
+                                      assetGUID,
+                                      null), plan);
+
+        /*
+         * The type hierarchy is only walked when the plan is built.
+         */
+        verify(repositoryHelper, times(1)).getActiveTypeDefGallery();
+
+        assertNotSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF,
+                                         getMatchProperties("name", "first"),
+                                         assetGUID,
+                                         null), plan);
+        assertNotSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF,
+                                         getMatchProperties("name", "first", "description", "one"),
+                                         assetGUID,
+                                         Collections.singletonList(dataSetGUID)), plan);
+        assertNotSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, assetGUID, null), plan);
+    }
+
+
+    /**
+     * Adding or updating an active type replaces the cached plans with plans that reflect the change.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testPlanIsInvalidatedByTypeChange() throws Exception
+    {
+        GraphOMRSQueryPlanCache cache = new GraphOMRSQueryPlanCache(repositoryName, metadataCollectionId, repositoryHelper);
+
+        GraphOMRSQueryPlan plan = cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, getMatchProperties("formula", "x"), assetGUID, null);
+
+        assertEquals(plan.getValidTypeNames().size(), 3);
+        assertEquals(plan.getShortPropertyNameToQualifiedPropertyNames().get("formula").size(), 2);
+
+        /*
+         * A new subtype of Asset is picked up by the next search.
+         */
+        addTypeDef(getEntityDef("report-guid", "Report", "Asset", "formula"));
+
+        GraphOMRSQueryPlan newPlan = cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, getMatchProperties("formula", "x"), assetGUID, null);
+
+        assertNotSame(newPlan, plan);
+        assertTrue(newPlan.getValidTypeNames().contains("Report"));
+        assertEquals(newPlan.getShortPropertyNameToQualifiedPropertyNames().get("formula").size(), 3);
+        assertSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, getMatchProperties("formula", "y"), assetGUID, null), newPlan);
+
+        /*
+         * An update that moves the formula property up to Asset changes the qualified name it is stored under.
+         */
+        addTypeDef(getEntityDef(assetGUID, "Asset", "Referenceable", "name", "description", "formula"));
+
+        GraphOMRSQueryPlan updatedPlan = cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, getMatchProperties("formula", "x"), assetGUID, null);
+
+        assertNotSame(updatedPlan, newPlan);
+        assertEquals(updatedPlan.getShortPropertyNameToQualifiedPropertyNames().get("formula"),
+                     Collections.singletonList("Assetxformula"));
+    }
+
+
+    /**
+     * A full cache discards the plan that was used least recently.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testLeastRecentlyUsedPlanIsDiscarded() throws Exception
+    {
+        GraphOMRSQueryPlanCache cache = new GraphOMRSQueryPlanCache(repositoryName, metadataCollectionId, repositoryHelper, 2);
+
+        GraphOMRSQueryPlan assetPlan   = cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, assetGUID, null);
+        GraphOMRSQueryPlan dataSetPlan = cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, dataSetGUID, null);
+
+        /*
+         * Using the asset plan makes the data set plan the eldest.
+         */
+        assertSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, assetGUID, null), assetPlan);
+
+        GraphOMRSQueryPlan notePlan = cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, noteGUID, null);
+
+        assertSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, assetGUID, null), assetPlan);
+        assertSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, noteGUID, null), notePlan);
+        assertNotSame(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, dataSetGUID, null), dataSetPlan);
+    }
+
+
+    /**
+     * The cached plans are the same as the plans built directly from the search parameters (as the find
+     * methods did before the cache) for each shape of search, both before and after a type change.
+     *
+     * @throws Exception test failure
+     */
+    @Test
+    public void testCachedPlanMatchesUncachedPlan() throws Exception
+    {
+        GraphOMRSQueryPlanCache cache = new GraphOMRSQueryPlanCache(repositoryName, metadataCollectionId, repositoryHelper);
+
+        for (int pass = 0; pass < 2; pass++)
+        {
+            for (String filterTypeGUID : Arrays.asList(null, referenceableGUID, assetGUID, dataSetGUID, noteGUID))
+            {
+                InstanceProperties matchProperties = getMatchProperties("name", "a", "formula", "b");
+                SearchProperties   searchProperties = getSearchProperties("qualifiedName", "name", "text");
+
+                assertSamePlan(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, matchProperties, filterTypeGUID, null),
+                               new GraphOMRSQueryPlan(repositoryName,
+                                                      metadataCollectionId,
+                                                      repositoryHelper,
+                                                      TypeDefCategory.ENTITY_DEF,
+                                                      matchProperties,
+                                                      filterTypeGUID,
+                                                      null));
+                assertSamePlan(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, searchProperties, filterTypeGUID, null),
+                               new GraphOMRSQueryPlan(repositoryName,
+                                                      metadataCollectionId,
+                                                      repositoryHelper,
+                                                      TypeDefCategory.ENTITY_DEF,
+                                                      searchProperties,
+                                                      filterTypeGUID,
+                                                      null));
+                assertSamePlan(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, filterTypeGUID, null),
+                               new GraphOMRSQueryPlan(repositoryName,
+                                                      metadataCollectionId,
+                                                      repositoryHelper,
+                                                      TypeDefCategory.ENTITY_DEF,
+                                                      filterTypeGUID,
+                                                      null));
+            }
+
+            List<String> subTypeGUIDs = Collections.singletonList(processGUID);
+
+            assertSamePlan(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, assetGUID, subTypeGUIDs),
+                           new GraphOMRSQueryPlan(repositoryName,
+                                                  metadataCollectionId,
+                                                  repositoryHelper,
+                                                  TypeDefCategory.ENTITY_DEF,
+                                                  assetGUID,
+                                                  subTypeGUIDs));
+
+            addTypeDef(getEntityDef("report-guid", "Report", "Asset", "formula", "text"));
+        }
+
+        assertTrue(cache.getQueryPlan(TypeDefCategory.ENTITY_DEF, assetGUID, null).getValidTypeNames().contains("Report"));
+    }
+
+
+    /**
+     * Check that two plans describe the same search.
+     *
+     * @param cachedPlan plan from the cache
+     * @param uncachedPlan plan built directly
+     */
+    private void assertSamePlan(GraphOMRSQueryPlan cachedPlan,
+                                GraphOMRSQueryPlan uncachedPlan)
+    {
+        assertEquals(cachedPlan.getFilterTypeName(), uncachedPlan.getFilterTypeName());
+        assertEquals(new ArrayList<>(cachedPlan.getValidTypeNames()), new ArrayList<>(uncachedPlan.getValidTypeNames()));
+        assertEquals(cachedPlan.getShortPropertyNameToQualifiedPropertyNames(), uncachedPlan.getShortPropertyNameToQualifiedPropertyNames());
+        assertEquals(cachedPlan.getQualifiedPropertyNameToTypeNames(), uncachedPlan.getQualifiedPropertyNameToTypeNames());
+        assertEquals(cachedPlan.getQualifiedPropertyNameToTypeDefinedAttribute(), uncachedPlan.getQualifiedPropertyNameToTypeDefinedAttribute());
+    }
+
+
+    /**
+     * Add or update an active type, changing the version of the active types as the repository content
+     * manager does.
+     *
+     * @param typeDef type to add
+     */
+    private void addTypeDef(TypeDef typeDef)
+    {
+        activeTypeDefs.put(typeDef.getName(), typeDef);
+        activeTypesVersion++;
+    }
+
+
+    /**
+     * Return the active types.
+     *
+     * @return type gallery
+     */
+    private TypeDefGallery getActiveTypeDefGallery()
+    {
+        TypeDefGallery typeDefGallery = new TypeDefGallery();
+
+        typeDefGallery.setTypeDefs(new ArrayList<>(activeTypeDefs.values()));
+
+        return typeDefGallery;
+    }
+
+
+    /**
+     * Return the active type with the requested unique identifier.
+     *
+     * @param guid unique identifier of the type
+     * @return type or null
+     */
+    private TypeDef getTypeDefByGUID(String guid)
+    {
+        for (TypeDef typeDef : activeTypeDefs.values())
+        {
+            if (typeDef.getGUID().equals(guid))
+            {
+                return typeDef;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Test whether a type is the expected type or one of its subtypes.
+     *
+     * @param actualTypeName name of the type to test
+     * @param expectedTypeName name of the expected type
+     * @return boolean
+     */
+    private boolean isTypeOf(String actualTypeName,
+                             String expectedTypeName)
+    {
+        TypeDef typeDef = activeTypeDefs.get(actualTypeName);
+
+        while (typeDef != null)
+        {
+            if (typeDef.getName().equals(expectedTypeName))
+            {
+                return true;
+            }
+
+            typeDef = (typeDef.getSuperType() == null) ? null : activeTypeDefs.get(typeDef.getSuperType().getName());
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Build an entity type with string properties.
+     *
+     * @param guid unique identifier of the type
+     * @param name name of the type
+     * @param superTypeName name of the super type, or null
+     * @param propertyNames names of the properties defined by this type
+     * @return entity type
+     */
+    private EntityDef getEntityDef(String    guid,
+                                   String    name,
+                                   String    superTypeName,
+                                   String... propertyNames)
+    {
+        EntityDef entityDef = new EntityDef();
+
+        entityDef.setGUID(guid);
+        entityDef.setName(name);
+
+        if (superTypeName != null)
+        {
+            TypeDefLink superType = new TypeDefLink();
+
+            superType.setGUID(activeTypeDefs.get(superTypeName).getGUID());
+            superType.setName(superTypeName);
+            entityDef.setSuperType(superType);
+        }
+
+        List<TypeDefAttribute> propertiesDefinition = new ArrayList<>();
+
+        for (String propertyName : propertyNames)
+        {
+            TypeDefAttribute attribute = new TypeDefAttribute();
+
+            attribute.setAttributeName(propertyName);
+            attribute.setAttributeType(new PrimitiveDef(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING));
+            propertiesDefinition.add(attribute);
+        }
+
+        entityDef.setPropertiesDefinition(propertiesDefinition);
+
+        return entityDef;
+    }
+
+
+    /**
+     * Build match properties from pairs of property names and string values.
+     *
+     * @param namesAndValues property names each followed by its value
+     * @return match properties
+     */
+    private InstanceProperties getMatchProperties(String... namesAndValues)
+    {
+        InstanceProperties properties = null;
+
+        for (int i = 0; i < namesAndValues.length; i = i + 2)
+        {
+            properties = propertiesUtilities.addStringPropertyToInstance(sourceName,
+                                                                         properties,
+                                                                         namesAndValues[i],
+                                                                         namesAndValues[i + 1],
+                                                                         sourceName);
+        }
+
+        return properties;
+    }
+
+
+    /**
+     * Build search properties that test each of the named properties for a value.
+     *
+     * @param propertyNames names of the properties to search
+     * @return search properties
+     */
+    private SearchProperties getSearchProperties(String... propertyNames)
+    {
+        List<PropertyCondition> conditions = new ArrayList<>();
+
+        for (String propertyName : propertyNames)
+        {
+            PrimitivePropertyValue value = new PrimitivePropertyValue();
+
+            value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+            value.setPrimitiveValue("value");
+
+            PropertyCondition condition = new PropertyCondition();
+
+            condition.setProperty(propertyName);
+            condition.setOperator(PropertyComparisonOperator.LIKE);
+            condition.setValue(value);
+            conditions.add(condition);
+        }
+
+        SearchProperties searchProperties = new SearchProperties();
+
+        searchProperties.setConditions(conditions);
+
+        return searchProperties;
+    }
+}
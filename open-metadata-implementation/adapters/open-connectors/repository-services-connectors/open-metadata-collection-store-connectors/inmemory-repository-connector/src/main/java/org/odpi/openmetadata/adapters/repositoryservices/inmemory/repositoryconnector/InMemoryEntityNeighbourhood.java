@@ -21,6 +21,7 @@ class InMemoryEntityNeighbourhood
     private String                    repositoryName;
     private Map<String, EntityDetail> entityStore;
     private Map<String, Relationship> relationshipStore;
+    private InMemoryOMRSMetadataStore repositoryStore        = null;
     private String                    rootEntityGUID;
     private List<String>              entityTypeGUIDs;
     private List<String>              relationshipTypeGUIDs;
@@ -84,6 +85,112 @@ class InMemoryEntityNeighbourhood
         initializeMaps();
     }
 
+
+    /**
+     * Constructor for a query against the current contents of the repository.  Rather than building the
+     * entity to relationship maps for the whole store, the neighbourhood is traversed using the repository
+     * store's adjacency index.  The instances retrieved are cached so that the graph returned is consistent
+     * with the instances that were verified.
+     *
+     * @param repositoryHelper             helper methods when calling the repository connector
+     * @param repositoryName               name of this repository
+     * @param repositoryValidator          repository validator
+     * @param repositoryStore              live repository store
+     * @param rootEntityGUID               the starting point of the query.
+     * @param entityTypeGUIDs              list of entity types to include in the query results.  Null means include
+     *                                     all entities found, irrespective of their type.
+     * @param relationshipTypeGUIDs        list of relationship types to include in the query results.  Null means include
+     *                                     all entities found, irrespective of their type.
+     * @param limitResultsByStatus         By default, relationships in all statuses are returned.  However, it is possible
+     *                                     to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                                     status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param level                        the number of the relationships out from the starting entity that the query will traverse to
+     */
+    InMemoryEntityNeighbourhood(OMRSRepositoryHelper      repositoryHelper,
+                                String                    repositoryName,
+                                OMRSRepositoryValidator   repositoryValidator,
+                                InMemoryOMRSMetadataStore repositoryStore,
+                                String                    rootEntityGUID,
+                                List<String>              entityTypeGUIDs,
+                                List<String>              relationshipTypeGUIDs,
+                                List<InstanceStatus>      limitResultsByStatus,
+                                List<String>              limitResultsByClassification,
+                                int                       level)
+    {
+        this.repositoryHelper = repositoryHelper;
+        this.repositoryName = repositoryName;
+        this.repositoryValidator = repositoryValidator;
+        this.repositoryStore = repositoryStore;
+        this.entityStore = new HashMap<>();
+        this.relationshipStore = new HashMap<>();
+        this.rootEntityGUID = rootEntityGUID;
+        this.entityTypeGUIDs = entityTypeGUIDs;
+        this.relationshipTypeGUIDs = relationshipTypeGUIDs;
+        this.limitResultsByStatus = limitResultsByStatus;
+        this.limitResultsByClassification = limitResultsByClassification;
+        /*
+         * limit the level to 100 in case the algorithm gets into a circularity - hopefully this is sufficiently high for in memory demo use cases.
+         */
+        if (level < 0 || level > 100)
+        {
+            level = 100;
+        }
+        this.level = level;
+    }
+
+
+    /**
+     * Return the entity for the guid.  When working from the live store, the entity is retrieved once and cached.
+     *
+     * @param guid unique identifier of the entity
+     * @return entity or null if not known
+     */
+    private EntityDetail getEntity(String guid)
+    {
+        if ((repositoryStore != null) && (guid != null) && (! entityStore.containsKey(guid)))
+        {
+            entityStore.put(guid, repositoryStore.getEntity(guid));
+        }
+
+        return entityStore.get(guid);
+    }
+
+
+    /**
+     * Return the relationship for the guid.  When working from the live store, the relationship is retrieved
+     * once and cached.
+     *
+     * @param guid unique identifier of the relationship
+     * @return relationship or null if not known
+     */
+    private Relationship getRelationship(String guid)
+    {
+        if ((repositoryStore != null) && (guid != null) && (! relationshipStore.containsKey(guid)))
+        {
+            relationshipStore.put(guid, repositoryStore.getRelationship(guid));
+        }
+
+        return relationshipStore.get(guid);
+    }
+
+
+    /**
+     * Return the guids of the relationships that are attached to the entity.
+     *
+     * @param entityGuid unique identifier of the entity
+     * @return set of relationship guids (may be null)
+     */
+    private Set<String> getRelationshipGUIDs(String entityGuid)
+    {
+        if (repositoryStore != null)
+        {
+            return entityToRelationships.computeIfAbsent(entityGuid, guid -> repositoryStore.getRelationshipGUIDsForEntity(guid));
+        }
+
+        return entityToRelationships.get(entityGuid);
+    }
+
     /**
      * Initialize maps that help us traverse between entities and relationships using their guids
      */
@@ -159,8 +266,8 @@ class InMemoryEntityNeighbourhood
         {
             String relationshipEnd1Guid = getEnd1EntityGUID(relationship);
             String relationshipEnd2Guid = getEnd2EntityGUID(relationship);
-            EntityDetail entity1 = entityStore.get(relationshipEnd1Guid);
-            EntityDetail entity2 = entityStore.get(relationshipEnd2Guid);
+            EntityDetail entity1 = getEntity(relationshipEnd1Guid);
+            EntityDetail entity2 = getEntity(relationshipEnd2Guid);
             if (relationshipTypeGUIDs != null)
             {
                 for (String relationshipTypeGUID : relationshipTypeGUIDs)
@@ -352,18 +459,18 @@ class InMemoryEntityNeighbourhood
          * add the root entity so the returned graph is consistent.
          */
         List<Relationship> relationshipList = new ArrayList<>();
-        EntityDetail rootEntity = (entityStore.get(rootEntityGUID));
+        EntityDetail rootEntity = getEntity(rootEntityGUID);
         entityList.add(rootEntity);
         for (String entityGuid : this.graphEntities)
         {
             if (!entityGuid.equals(rootEntityGUID))
             {
-                entityList.add(this.entityStore.get(entityGuid));
+                entityList.add(getEntity(entityGuid));
             }
         }
         for (String relationshipGuid : this.graphRelationships)
         {
-            relationshipList.add(this.relationshipStore.get(relationshipGuid));
+            relationshipList.add(getRelationship(relationshipGuid));
         }
         return new InstanceGraph(entityList, relationshipList);
     }
@@ -387,14 +494,15 @@ class InMemoryEntityNeighbourhood
                 graphEntities.add(entityGuid);
             }
             if (currentLevel < this.level) {
-                Set<String> relationships = this.entityToRelationships.get(entityGuid);
+                Set<String> relationships = this.getRelationshipGUIDs(entityGuid);
                 if (relationships != null) {
                     for (String relationshipGuid : relationships) {
-                        Relationship relationship = this.relationshipStore.get(relationshipGuid);
+                        Relationship relationship = this.getRelationship(relationshipGuid);
                         /*
-                         * Check to see if we have already visited this relationship
+                         * Check to see if we have already visited this relationship (or if it has been removed
+                         * from the live store since its guid was retrieved)
                          */
-                        if (!visitedRelationships.contains(relationshipGuid)) {
+                        if (relationship != null && !visitedRelationships.contains(relationshipGuid)) {
                             if (verifyRelationshipForEntityNeighbourhood(relationship)) {
                                 /*
                                  * valid relationship and entities
@@ -0,0 +1,302 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+
+import java.util.*;
+
+/**
+ * InMemoryOMRSInstanceIndex maintains the secondary indexes for one of the instance stores of the
+ * InMemoryOMRSMetadataStore.  Instances are indexed by the GUID of their type (and each of its super types),
+ * by the names of their classifications and by the values of their string properties.  The indexes are used
+ * to select a set of candidate instances for a query before the full matching logic of the repository
+ * validator is applied, so they only need to return a superset of the instances that will eventually match.
+ * <br><br>
+ * This class is not thread-safe.  The InMemoryOMRSMetadataStore guards each index with a read/write lock.
+ */
+class InMemoryOMRSInstanceIndex
+{
+    private final Map<String, Set<String>>              typeIndex               = new HashMap<>();
+    private final Map<String, Set<String>>              classificationIndex     = new HashMap<>();
+    private final Map<String, Map<String, Set<String>>> stringPropertyIndex     = new HashMap<>();
+    private final Map<String, Set<String>>              nonStringPropertyIndex  = new HashMap<>();
+
+
+    /**
+     * Default constructor
+     */
+    InMemoryOMRSInstanceIndex()
+    {
+    }
+
+
+    /**
+     * Add the instance to the indexes.
+     *
+     * @param instance header of the instance (supplies the GUID and type)
+     * @param properties properties of the instance (may be null)
+     * @param classifications classifications of the instance (null for relationships)
+     */
+    void addInstance(InstanceHeader       instance,
+                     InstanceProperties   properties,
+                     List<Classification> classifications)
+    {
+        String guid = instance.getGUID();
+
+        if (guid != null)
+        {
+            for (String typeGUID : this.getTypeGUIDs(instance))
+            {
+                typeIndex.computeIfAbsent(typeGUID, key -> new HashSet<>()).add(guid);
+            }
+
+            for (String classificationName : this.getClassificationNames(classifications))
+            {
+                classificationIndex.computeIfAbsent(classificationName, key -> new HashSet<>()).add(guid);
+            }
+
+            if ((properties != null) && (properties.getInstanceProperties() != null))
+            {
+                for (Map.Entry<String, InstancePropertyValue> property : properties.getInstanceProperties().entrySet())
+                {
+                    String stringValue = this.getStringValue(property.getValue());
+
+                    if (stringValue != null)
+                    {
+                        stringPropertyIndex.computeIfAbsent(property.getKey(), key -> new HashMap<>())
+                                           .computeIfAbsent(stringValue, key -> new HashSet<>()).add(guid);
+                    }
+                    else if (property.getValue() != null)
+                    {
+                        nonStringPropertyIndex.computeIfAbsent(property.getKey(), key -> new HashSet<>()).add(guid);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Remove the instance from the indexes.  The values supplied must be those that were used when the
+     * instance was added.
+     *
+     * @param instance header of the instance (supplies the GUID and type)
+     * @param properties properties of the instance (may be null)
+     * @param classifications classifications of the instance (null for relationships)
+     */
+    void removeInstance(InstanceHeader       instance,
+                        InstanceProperties   properties,
+                        List<Classification> classifications)
+    {
+        String guid = instance.getGUID();
+
+        if (guid != null)
+        {
+            for (String typeGUID : this.getTypeGUIDs(instance))
+            {
+                this.removeFromIndex(typeIndex, typeGUID, guid);
+            }
+
+            for (String classificationName : this.getClassificationNames(classifications))
+            {
+                this.removeFromIndex(classificationIndex, classificationName, guid);
+            }
+
+            if ((properties != null) && (properties.getInstanceProperties() != null))
+            {
+                for (Map.Entry<String, InstancePropertyValue> property : properties.getInstanceProperties().entrySet())
+                {
+                    String stringValue = this.getStringValue(property.getValue());
+
+                    if (stringValue != null)
+                    {
+                        Map<String, Set<String>> valueIndex = stringPropertyIndex.get(property.getKey());
+
+                        if (valueIndex != null)
+                        {
+                            this.removeFromIndex(valueIndex, stringValue, guid);
+
+                            if (valueIndex.isEmpty())
+                            {
+                                stringPropertyIndex.remove(property.getKey());
+                            }
+                        }
+                    }
+                    else if (property.getValue() != null)
+                    {
+                        this.removeFromIndex(nonStringPropertyIndex, property.getKey(), guid);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the GUIDs of the instances that are of the requested type or one of its subtypes.
+     *
+     * @param typeGUID unique identifier of the type
+     * @return set of instance GUIDs (never null)
+     */
+    Set<String> getGUIDsForType(String typeGUID)
+    {
+        return typeIndex.getOrDefault(typeGUID, Collections.emptySet());
+    }
+
+
+    /**
+     * Return the GUIDs of the instances that carry the named classification.
+     *
+     * @param classificationName name of the classification
+     * @return set of instance GUIDs (never null)
+     */
+    Set<String> getGUIDsForClassification(String classificationName)
+    {
+        return classificationIndex.getOrDefault(classificationName, Collections.emptySet());
+    }
+
+
+    /**
+     * Return the GUIDs of the instances that could match an exact value for the named property.  This is the
+     * instances where the property is a string with the requested value plus the instances where the property
+     * has a value that is not a string (since the validator compares these in their string form).
+     *
+     * @param propertyName name of the property
+     * @param exactValue literal value of the property
+     * @return set of instance GUIDs (never null)
+     */
+    Set<String> getGUIDsForPropertyValue(String propertyName,
+                                         String exactValue)
+    {
+        Set<String>              stringMatches = null;
+        Set<String>              nonStringValues = nonStringPropertyIndex.get(propertyName);
+        Map<String, Set<String>> valueIndex = stringPropertyIndex.get(propertyName);
+
+        if (valueIndex != null)
+        {
+            stringMatches = valueIndex.get(exactValue);
+        }
+
+        if (nonStringValues == null)
+        {
+            return stringMatches == null ? Collections.emptySet() : stringMatches;
+        }
+        else if (stringMatches == null)
+        {
+            return nonStringValues;
+        }
+
+        Set<String> results = new HashSet<>(stringMatches);
+        results.addAll(nonStringValues);
+
+        return results;
+    }
+
+
+    /**
+     * Return the GUID of the instance's type along with the GUIDs of all of its super types.
+     *
+     * @param instance instance to test
+     * @return list of type GUIDs
+     */
+    private List<String> getTypeGUIDs(InstanceHeader instance)
+    {
+        List<String> typeGUIDs    = new ArrayList<>();
+        InstanceType instanceType = instance.getType();
+
+        if (instanceType != null)
+        {
+            if (instanceType.getTypeDefGUID() != null)
+            {
+                typeGUIDs.add(instanceType.getTypeDefGUID());
+            }
+
+            if (instanceType.getTypeDefSuperTypes() != null)
+            {
+                for (TypeDefLink superType : instanceType.getTypeDefSuperTypes())
+                {
+                    if ((superType != null) && (superType.getGUID() != null))
+                    {
+                        typeGUIDs.add(superType.getGUID());
+                    }
+                }
+            }
+        }
+
+        return typeGUIDs;
+    }
+
+
+    /**
+     * Return the names of the supplied classifications.
+     *
+     * @param classifications list of classifications (may be null)
+     * @return list of names
+     */
+    private List<String> getClassificationNames(List<Classification> classifications)
+    {
+        List<String> classificationNames = new ArrayList<>();
+
+        if (classifications != null)
+        {
+            for (Classification classification : classifications)
+            {
+                if ((classification != null) && (classification.getName() != null))
+                {
+                    classificationNames.add(classification.getName());
+                }
+            }
+        }
+
+        return classificationNames;
+    }
+
+
+    /**
+     * Return the value of a string primitive property.
+     *
+     * @param propertyValue value to test
+     * @return string value or null if this is not a string primitive
+     */
+    private String getStringValue(InstancePropertyValue propertyValue)
+    {
+        if (propertyValue instanceof PrimitivePropertyValue)
+        {
+            Object primitiveValue = ((PrimitivePropertyValue) propertyValue).getPrimitiveValue();
+
+            if (primitiveValue instanceof String)
+            {
+                return (String) primitiveValue;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Remove an instance GUID from one of the indexes, removing the key if it has no more instances.
+     *
+     * @param index index to update
+     * @param key key within the index
+     * @param guid instance GUID
+     */
+    private void removeFromIndex(Map<String, Set<String>> index,
+                                 String                   key,
+                                 String                   guid)
+    {
+        Set<String> guids = index.get(key);
+
+        if (guids != null)
+        {
+            guids.remove(guid);
+
+            if (guids.isEmpty())
+            {
+                index.remove(key);
+            }
+        }
+    }
+}
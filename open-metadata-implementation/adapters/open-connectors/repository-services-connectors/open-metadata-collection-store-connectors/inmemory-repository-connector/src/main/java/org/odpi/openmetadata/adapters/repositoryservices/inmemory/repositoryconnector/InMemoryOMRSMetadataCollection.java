@@ -6,11 +6,12 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSInstancePageCollector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRegexMatcher;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -23,6 +24,21 @@ import java.util.*;
 public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectionBase
 {
     private InMemoryOMRSMetadataStore  repositoryStore = new InMemoryOMRSMetadataStore();
+    private int                        referenceCopyBatchSize = InMemoryOMRSRepositoryConnectorProvider.defaultReferenceCopyBatchSize;
+
+    /*
+     * Names of match properties that the repository validator also tests against the instance header.
+     */
+    private static final Set<String>   headerPropertyNames = new HashSet<>(Arrays.asList("metadataCollectionId",
+                                                                                         "metadataCollectionName",
+                                                                                         "typeName",
+                                                                                         "typeGUID",
+                                                                                         "createdBy",
+                                                                                         "updatedBy",
+                                                                                         "createTime",
+                                                                                         "updateTime",
+                                                                                         "effectiveFrom",
+                                                                                         "effectiveTo"));
 
 
     /**
@@ -53,6 +69,18 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Set up the maximum number of reference copies that are saved under one acquisition of the store's locks
+     * by saveInstanceReferenceCopies.
+     *
+     * @param referenceCopyBatchSize batch size (zero or less means the whole batch is saved together)
+     */
+    void setReferenceCopyBatchSize(int referenceCopyBatchSize)
+    {
+        this.referenceCopyBatchSize = referenceCopyBatchSize;
+    }
+
+
     /* ===================================================
      * Group 3: Locating entity and relationship instances
      */
@@ -216,7 +244,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        EntityDetail  entity = repositoryStore.timeWarpEntityStore(asOfTime).get(guid);
+        EntityDetail  entity = repositoryStore.getEntity(guid, asOfTime);
         if (entity == null)
         {
             EntityProxy  entityProxy = repositoryStore.getEntityProxy(guid);
@@ -303,11 +331,9 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entity, methodName);
         repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
 
-        List<Relationship> entityRelationships = new ArrayList<>();
-
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        OMRSInstancePageCollector<Relationship> pageCollector = repositoryHelper.getRelationshipPageCollector(fromRelationshipElement, sequencingProperty, sequencingOrder, pageSize);
 
-        for (Relationship  storedRelationship : relationshipStore.values())
+        for (Relationship  storedRelationship : this.getCandidateRelationshipsForEntity(entityGUID, relationshipTypeGUID, asOfTime))
         {
             if (storedRelationship != null)
             {
@@ -319,29 +345,22 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                        entityGUID,
                                                        storedRelationship))
                     {
-                        if (relationshipTypeGUID == null)
-                        {
-                            entityRelationships.add(storedRelationship);
-                        }
-                        else if (relationshipTypeGUID.equals(storedRelationship.getType().getTypeDefGUID()))
+                        if ((relationshipTypeGUID == null) ||
+                            (relationshipTypeGUID.equals(storedRelationship.getType().getTypeDefGUID())))
                         {
-                            entityRelationships.add(storedRelationship);
+                            pageCollector.addInstance(storedRelationship);
+
+                            if (pageCollector.isComplete())
+                            {
+                                break;
+                            }
                         }
                     }
                 }
             }
         }
 
-        if (entityRelationships.isEmpty())
-        {
-            return null;
-        }
-
-        return repositoryHelper.formatRelationshipResults(entityRelationships,
-                                                          fromRelationshipElement,
-                                                          sequencingProperty,
-                                                          sequencingOrder,
-                                                          pageSize);
+        return pageCollector.getPage();
     }
 
 
@@ -416,13 +435,20 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
-         */
-        List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
-
-        for (EntityDetail  entity : entityStore.values())
+         * The store's indexes narrow the entities to test to those of the right type, with at least one of the
+         * requested classifications and with any exact match property values.  Each candidate is then verified
+         * against the full criteria.  The matching entities are passed to a page collector that only retains
+         * the entities needed for the requested page.
+         */
+        OMRSInstancePageCollector<EntityDetail> pageCollector     = repositoryHelper.getEntityPageCollector(fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        Collection<EntityDetail>                candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                                               entityTypeGUID,
+                                                                                               null,
+                                                                                               limitResultsByClassification,
+                                                                                               null,
+                                                                                               this.getExactMatchProperties(matchProperties, matchCriteria));
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -435,12 +461,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                               matchCriteria
                                                                               )))
                 {
-                    foundEntities.add(entity);
+                    pageCollector.addInstance(entity);
+
+                    if (pageCollector.isComplete())
+                    {
+                        break;
+                    }
                 }
             }
         }
 
-        return repositoryHelper.formatEntityResults(foundEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        return pageCollector.getPage();
     }
 
 
@@ -513,13 +544,18 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
-         */
-        List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
-
-        for (EntityDetail  entity : entityStore.values())
+         * The store's indexes narrow the entities to test using the type, classification and exact match
+         * property criteria.  Each candidate is then verified against the full criteria.
+         */
+        OMRSInstancePageCollector<EntityDetail> pageCollector     = repositoryHelper.getEntityPageCollector(fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        Collection<EntityDetail>                candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                                               entityTypeGUID,
+                                                                                               entitySubtypeGUIDs,
+                                                                                               this.getClassificationNames(matchClassifications, MatchCriteria.ANY),
+                                                                                               this.getClassificationNames(matchClassifications, MatchCriteria.ALL),
+                                                                                               this.getExactMatchProperties(matchProperties));
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -528,12 +564,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                     (repositoryValidator.verifyMatchingClassifications(matchClassifications, entity)) &&
                     (repositoryValidator.verifyMatchingInstancePropertyValues(matchProperties, entity, entity.getProperties())))
                 {
-                    foundEntities.add(entity);
+                    pageCollector.addInstance(entity);
+
+                    if (pageCollector.isComplete())
+                    {
+                        break;
+                    }
                 }
             }
         }
 
-        return repositoryHelper.formatEntityResults(foundEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        return pageCollector.getPage();
     }
 
 
@@ -611,16 +652,14 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The store's classification index supplies the entities to test.
          */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
-        List<EntityDetail>          foundEntities = new ArrayList<>();
+        OMRSInstancePageCollector<EntityDetail> pageCollector = repositoryHelper.getEntityPageCollector(fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
 
         List<String>                classificationList = new ArrayList<>();
         classificationList.add(classificationName);
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : this.getCandidateEntities(asOfTime, entityTypeGUID, null, null, classificationList, null))
         {
             if (entity != null)
             {
@@ -649,7 +688,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                             ))
 
                                     {
-                                        foundEntities.add(entity);
+                                        pageCollector.addInstance(entity);
                                     }
                                     break;
                                 }
@@ -660,7 +699,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             }
         }
 
-        return repositoryHelper.formatEntityResults(foundEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        return pageCollector.getPage();
     }
 
 
@@ -736,12 +775,14 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Process operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The search criteria may match any string property so only the type and classification indexes
+         * can be used to narrow the entities to test.  The search criteria is compiled once for all of the
+         * candidates.
          */
-        List<EntityDetail>   foundEntities = new ArrayList<>();
+        OMRSInstancePageCollector<EntityDetail> pageCollector = repositoryHelper.getEntityPageCollector(fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        OMRSRegexMatcher                        searchMatcher = this.getSearchMatcher(searchCriteria, methodName);
 
-        for (EntityDetail  entity : repositoryStore.timeWarpEntityStore(asOfTime).values())
+        for (EntityDetail  entity : this.getCandidateEntities(asOfTime, entityTypeGUID, null, limitResultsByClassification, null, null))
         {
             if (entity != null)
             {
@@ -750,15 +791,20 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                     (repositoryValidator.verifyEntityIsClassified(limitResultsByClassification, entity)) &&
                     (repositoryValidator.verifyInstancePropertiesMatchSearchCriteria(repositoryName,
                                                                                     entity.getProperties(),
-                                                                                    searchCriteria,
+                                                                                    searchMatcher,
                                                                                     methodName)))
                 {
-                    foundEntities.add(entity);
+                    pageCollector.addInstance(entity);
+
+                    if (pageCollector.isComplete())
+                    {
+                        break;
+                    }
                 }
             }
         }
 
-        return repositoryHelper.formatEntityResults(foundEntities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        return pageCollector.getPage();
     }
 
 
@@ -865,7 +911,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        Relationship  relationship = repositoryStore.timeWarpRelationshipStore(asOfTime).get(guid);
+        Relationship  relationship = repositoryStore.getRelationship(guid, asOfTime);
 
         repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
         repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
@@ -946,13 +992,16 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all of
-         * the stored entities.
+         * The store's indexes narrow the relationships to test using the type and exact match property criteria.
+         * Each candidate is then verified against the full criteria.
          */
-        List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        OMRSInstancePageCollector<Relationship> pageCollector          = repositoryHelper.getRelationshipPageCollector(fromRelationshipElement, sequencingProperty, sequencingOrder, pageSize);
+        Collection<Relationship>                candidateRelationships = this.getCandidateRelationships(asOfTime,
+                                                                                                         relationshipTypeGUID,
+                                                                                                         relationshipSubtypeGUIDs,
+                                                                                                         this.getExactMatchProperties(matchProperties));
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -960,16 +1009,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                     (repositoryValidator.verifyInstanceHasRightStatus(limitResultsByStatus, relationship)) &&
                     (repositoryValidator.verifyMatchingInstancePropertyValues(matchProperties, relationship, relationship.getProperties())))
                 {
-                    foundRelationships.add(relationship);
+                    pageCollector.addInstance(relationship);
+
+                    if (pageCollector.isComplete())
+                    {
+                        break;
+                    }
                 }
             }
         }
 
-        return repositoryHelper.formatRelationshipResults(foundRelationships,
-                fromRelationshipElement,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize);
+        return pageCollector.getPage();
     }
 
 
@@ -1048,13 +1098,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all of
-         * the stored entities.
+         * The store's indexes narrow the relationships to test using the type and exact match property criteria.
+         * Each candidate is then verified against the full criteria.
          */
-        List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        OMRSInstancePageCollector<Relationship> pageCollector          = repositoryHelper.getRelationshipPageCollector(fromRelationshipElement, sequencingProperty, sequencingOrder, pageSize);
+        Collection<Relationship>                candidateRelationships = this.getCandidateRelationships(asOfTime,
+                                                                                                         relationshipTypeGUID,
+                                                                                                         null,
+                                                                                                         this.getExactMatchProperties(matchProperties,
+                                                                                                                                      matchCriteria));
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : candidateRelationships)
         {
             if (relationship != null)
             {
@@ -1065,16 +1119,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                               relationship.getProperties(),
                                                                               matchCriteria)))
                 {
-                    foundRelationships.add(relationship);
+                    pageCollector.addInstance(relationship);
+
+                    if (pageCollector.isComplete())
+                    {
+                        break;
+                    }
                 }
             }
         }
 
-        return repositoryHelper.formatRelationshipResults(foundRelationships,
-                                         fromRelationshipElement,
-                                         sequencingProperty,
-                                         sequencingOrder,
-                                         pageSize);
+        return pageCollector.getPage();
     }
 
 
@@ -1147,12 +1202,13 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating a relationship since it iterates through all of
-         * the stored relationships.
+         * The search criteria may match any string property so only the type index can be used to narrow
+         * the relationships to test.  The search criteria is compiled once for all of the candidates.
          */
-        List<Relationship>  foundRelationships = new ArrayList<>();
+        OMRSInstancePageCollector<Relationship> pageCollector = repositoryHelper.getRelationshipPageCollector(fromRelationshipElement, sequencingProperty, sequencingOrder, pageSize);
+        OMRSRegexMatcher                        searchMatcher = this.getSearchMatcher(searchCriteria, methodName);
 
-        for (Relationship  relationship : repositoryStore.timeWarpRelationshipStore(asOfTime).values())
+        for (Relationship  relationship : this.getCandidateRelationships(asOfTime, relationshipTypeGUID, null, null))
         {
             if (relationship != null)
             {
@@ -1160,19 +1216,20 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                     (repositoryValidator.verifyInstanceHasRightStatus(limitResultsByStatus, relationship)) &&
                     (repositoryValidator.verifyInstancePropertiesMatchSearchCriteria(repositoryName,
                                                                                      relationship.getProperties(),
-                                                                                     searchCriteria,
+                                                                                     searchMatcher,
                                                                                      methodName)))
                 {
-                    foundRelationships.add(relationship);
+                    pageCollector.addInstance(relationship);
+
+                    if (pageCollector.isComplete())
+                    {
+                        break;
+                    }
                 }
             }
         }
 
-        return repositoryHelper.formatRelationshipResults(foundRelationships,
-                                         fromRelationshipElement,
-                                         sequencingProperty,
-                                         sequencingOrder,
-                                         pageSize);
+        return pageCollector.getPage();
     }
 
 
@@ -1263,23 +1320,44 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             }
         }
 
-        /*
-         * Time warp the stores
-         */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        InMemoryEntityNeighbourhood inMemoryEntityNeighbourhood;
 
-        InMemoryEntityNeighbourhood inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
-                                                                                                  repositoryName,
-                                                                                                  repositoryValidator,
-                                                                                                  entityStore,
-                                                                                                  relationshipStore,
-                                                                                                  entityGUID,
-                                                                                                  entityTypeGUIDs,
-                                                                                                  relationshipTypeGUIDs,
-                                                                                                  limitResultsByStatus,
-                                                                                                  limitResultsByClassification,
-                                                                                                  level);
+        if (asOfTime == null)
+        {
+            /*
+             * Traverse the live store using its adjacency index.
+             */
+            inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
+                                                                          repositoryName,
+                                                                          repositoryValidator,
+                                                                          repositoryStore,
+                                                                          entityGUID,
+                                                                          entityTypeGUIDs,
+                                                                          relationshipTypeGUIDs,
+                                                                          limitResultsByStatus,
+                                                                          limitResultsByClassification,
+                                                                          level);
+        }
+        else
+        {
+            /*
+             * Time warp the stores
+             */
+            Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+            Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+
+            inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
+                                                                          repositoryName,
+                                                                          repositoryValidator,
+                                                                          entityStore,
+                                                                          relationshipStore,
+                                                                          entityGUID,
+                                                                          entityTypeGUIDs,
+                                                                          relationshipTypeGUIDs,
+                                                                          limitResultsByStatus,
+                                                                          limitResultsByClassification,
+                                                                          level);
+        }
 
 
         return inMemoryEntityNeighbourhood.createInstanceGraph();
@@ -1749,26 +1827,18 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         repositoryValidator.validateInstanceStatusForDelete(repositoryName, entity, methodName);
 
         /*
-         * Locate/delete relationships for entity
+         * Locate/delete relationships for entity.  These come straight from the store's adjacency index.
          */
         try
         {
-            List<Relationship> relationships = this.getRelationshipsForEntity(userId,
-                                                                              obsoleteEntityGUID,
-                                                                              null,
-                                                                              0,
-                                                                              null,
-                                                                              null,
-                                                                              null,
-                                                                              null,
-                                                                              10000);
+            List<Relationship> relationships = repositoryStore.getRelationshipsForEntity(obsoleteEntityGUID, null);
 
 
             if (relationships != null)
             {
                 for (Relationship relationship : relationships)
                 {
-                    if (relationship != null)
+                    if ((relationship != null) && (relationship.getStatus() != InstanceStatus.DELETED))
                     {
                         InstanceType type = relationship.getType();
                         if (type != null)
@@ -1871,19 +1941,12 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
 
         /*
-         * Locate/purge relationships for entity
+         * Locate/purge relationships for entity.  These come straight from the store's adjacency index since
+         * the entity is already deleted and all of its relationships, whatever their status, must be removed.
          */
         try
         {
-            List<Relationship> relationships = this.getRelationshipsForEntity(userId,
-                                                                              deletedEntityGUID,
-                                                                              null,
-                                                                              0,
-                                                                              null,
-                                                                              null,
-                                                                              null,
-                                                                              null,
-                                                                              10000);
+            List<Relationship> relationships = repositoryStore.getRelationshipsForEntity(deletedEntityGUID, null);
 
 
             if (relationships != null)
@@ -3077,15 +3140,20 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                 {
                     if (relationship != null)
                     {
+                        /*
+                         * Work on a copy so the store can remove the old version from its indexes.
+                         */
+                        Relationship updatedRelationship = new Relationship(relationship);
+
                         if (relationship.getEntityOneProxy().getGUID().equals(entityGUID))
                         {
-                            relationship.setEntityOneProxy(newEntityProxy);
+                            updatedRelationship.setEntityOneProxy(newEntityProxy);
                         }
                         else if (relationship.getEntityTwoProxy().getGUID().equals(entityGUID))
                         {
-                            relationship.setEntityTwoProxy(newEntityProxy);
+                            updatedRelationship.setEntityTwoProxy(newEntityProxy);
                         }
-                        repositoryStore.updateRelationshipInStore(relationship);
+                        repositoryStore.updateRelationshipInStore(updatedRelationship);
                     }
                 }
             }
@@ -3960,6 +4028,101 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Save the entities and relationships supplied in the instance graph as a reference copies.
+     * The id of the home metadata collection is already set up in the instances.
+     * Any instances from the home metadata collection are ignored.
+     * <br><br>
+     * All of the instances are validated before any are saved.  They are then saved in chunks of
+     * referenceCopyBatchSize instances, each under a single acquisition of the store's write lock, rather
+     * than taking the lock once for each instance.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param instances instances to save.
+     * @throws InvalidParameterException the relationship is null.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws EntityNotKnownException one of the entities identified by the relationship is not found in the
+     *                                   metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for this relationship's type.
+     * @throws EntityConflictException the new entity conflicts with an existing entity.
+     * @throws InvalidEntityException the new entity has invalid contents.
+     * @throws RelationshipConflictException the new relationship conflicts with an existing relationship.
+     * @throws InvalidRelationshipException the new relationship has invalid contents.
+     * @throws FunctionNotSupportedException the repository does not support reference copies of instances.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void saveInstanceReferenceCopies(String          userId,
+                                            InstanceGraph   instances) throws InvalidParameterException,
+                                                                              RepositoryErrorException,
+                                                                              TypeErrorException,
+                                                                              EntityNotKnownException,
+                                                                              PropertyErrorException,
+                                                                              EntityConflictException,
+                                                                              RelationshipConflictException,
+                                                                              InvalidEntityException,
+                                                                              InvalidRelationshipException,
+                                                                              FunctionNotSupportedException,
+                                                                              UserNotAuthorizedException
+    {
+        final String  methodName = "saveInstanceReferenceCopies";
+
+        /*
+         * Validate parameters
+         */
+        InstanceGraph referenceCopies = super.referenceInstancesParameterValidation(userId, instances, methodName);
+
+        List<EntityDetail> entities = referenceCopies.getEntities();
+
+        if (entities != null)
+        {
+            for (List<EntityDetail> batch : this.getBatches(entities))
+            {
+                repositoryStore.saveReferenceEntitiesToStore(batch);
+            }
+        }
+
+        List<Relationship> relationships = referenceCopies.getRelationships();
+
+        if (relationships != null)
+        {
+            for (List<Relationship> batch : this.getBatches(relationships))
+            {
+                repositoryStore.saveReferenceRelationshipsToStore(batch);
+            }
+        }
+    }
+
+
+    /**
+     * Divide a list of instances into batches of at most referenceCopyBatchSize instances.
+     *
+     * @param instances instances to save
+     * @param <T> type of instance
+     * @return list of batches
+     */
+    private <T> List<List<T>> getBatches(List<T> instances)
+    {
+        if ((referenceCopyBatchSize <= 0) || (instances.size() <= referenceCopyBatchSize))
+        {
+            return Collections.singletonList(instances);
+        }
+
+        List<List<T>> batches = new ArrayList<>();
+
+        for (int startIndex = 0; startIndex < instances.size(); startIndex = startIndex + referenceCopyBatchSize)
+        {
+            batches.add(instances.subList(startIndex, Math.min(startIndex + referenceCopyBatchSize, instances.size())));
+        }
+
+        return batches;
+    }
+
+
     /**
      * Remove the reference copy of the relationship from the local repository. This method can be used to
      * remove reference copies from the local cohort, repositories that have left the cohort,
@@ -4019,4 +4182,252 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             super.reportRelationshipNotKnown(relationshipGUID, methodName);
         }
     }
+
+
+    /* ======================================================
+     * Private methods for selecting the instances to test from the store's indexes
+     */
+
+    /**
+     * Return the entities that need to be tested for a query.  Current queries use the store's indexes.
+     * Historical queries use the time-warped store since the indexes only cover the latest versions.
+     *
+     * @param asOfTime time of the query (null means now)
+     * @param typeGUID unique identifier of the entity type (or null)
+     * @param subtypeGUIDs unique identifiers of the subtypes (or null)
+     * @param anyOfClassifications names of classifications where at least one must be present (or null)
+     * @param allOfClassifications names of classifications that must all be present (or null)
+     * @param exactPropertyValues literal values that properties must have (or null)
+     * @return collection of candidate entities
+     */
+    private Collection<EntityDetail> getCandidateEntities(Date                asOfTime,
+                                                          String              typeGUID,
+                                                          List<String>        subtypeGUIDs,
+                                                          List<String>        anyOfClassifications,
+                                                          List<String>        allOfClassifications,
+                                                          Map<String, String> exactPropertyValues)
+    {
+        if (asOfTime != null)
+        {
+            return repositoryStore.timeWarpEntityStore(asOfTime).values();
+        }
+
+        return repositoryStore.getCandidateEntities(typeGUID,
+                                                    subtypeGUIDs,
+                                                    anyOfClassifications,
+                                                    allOfClassifications,
+                                                    exactPropertyValues);
+    }
+
+
+    /**
+     * Return the relationships that need to be tested for a query.  Current queries use the store's indexes.
+     * Historical queries use the time-warped store since the indexes only cover the latest versions.
+     *
+     * @param asOfTime time of the query (null means now)
+     * @param typeGUID unique identifier of the relationship type (or null)
+     * @param subtypeGUIDs unique identifiers of the subtypes (or null)
+     * @param exactPropertyValues literal values that properties must have (or null)
+     * @return collection of candidate relationships
+     */
+    private Collection<Relationship> getCandidateRelationships(Date                asOfTime,
+                                                               String              typeGUID,
+                                                               List<String>        subtypeGUIDs,
+                                                               Map<String, String> exactPropertyValues)
+    {
+        if (asOfTime != null)
+        {
+            return repositoryStore.timeWarpRelationshipStore(asOfTime).values();
+        }
+
+        return repositoryStore.getCandidateRelationships(typeGUID, subtypeGUIDs, exactPropertyValues);
+    }
+
+
+    /**
+     * Return the relationships that need to be tested when retrieving the relationships for an entity.
+     * Current queries use the store's adjacency index.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @param relationshipTypeGUID unique identifier of the relationship type (null means all types)
+     * @param asOfTime time of the query (null means now)
+     * @return collection of candidate relationships
+     */
+    private Collection<Relationship> getCandidateRelationshipsForEntity(String entityGUID,
+                                                                        String relationshipTypeGUID,
+                                                                        Date   asOfTime)
+    {
+        if (asOfTime != null)
+        {
+            return repositoryStore.timeWarpRelationshipStore(asOfTime).values();
+        }
+
+        return repositoryStore.getRelationshipsForEntity(entityGUID, relationshipTypeGUID);
+    }
+
+
+    /**
+     * Extract the string properties that must match a literal value for an instance to match the supplied
+     * match properties.  This is only possible when all of the properties must match and the property value
+     * is an exact match regular expression.  Properties that could also be matched against the instance header
+     * disable the extraction since they may be counted twice by the validator.
+     *
+     * @param matchProperties properties to match (may be null)
+     * @param matchCriteria how the properties are to be matched
+     * @return map of property name to literal value, or null if none can be used
+     */
+    private Map<String, String> getExactMatchProperties(InstanceProperties matchProperties,
+                                                        MatchCriteria      matchCriteria)
+    {
+        if ((matchProperties == null) || (matchProperties.getInstanceProperties() == null) || (matchCriteria != MatchCriteria.ALL))
+        {
+            return null;
+        }
+
+        Map<String, String> exactPropertyValues = new HashMap<>();
+
+        for (Map.Entry<String, InstancePropertyValue> matchProperty : matchProperties.getInstanceProperties().entrySet())
+        {
+            if (headerPropertyNames.contains(matchProperty.getKey()))
+            {
+                return null;
+            }
+
+            String matchValue = this.getStringPrimitiveValue(matchProperty.getValue());
+
+            if ((matchValue != null) && (repositoryHelper.isExactMatchRegex(matchValue, false)))
+            {
+                exactPropertyValues.put(matchProperty.getKey(), repositoryHelper.getUnqualifiedLiteralString(matchValue));
+            }
+        }
+
+        return exactPropertyValues.isEmpty() ? null : exactPropertyValues;
+    }
+
+
+    /**
+     * Extract the string properties that must match a literal value for an instance to match the supplied
+     * search properties.  This is only possible when all of the top-level conditions must match and the
+     * condition is an equality test (or a like test with an exact match regular expression) on a string value.
+     *
+     * @param matchProperties search properties (may be null)
+     * @return map of property name to literal value, or null if none can be used
+     */
+    private Map<String, String> getExactMatchProperties(SearchProperties matchProperties)
+    {
+        if ((matchProperties == null) || (matchProperties.getConditions() == null) || (matchProperties.getMatchCriteria() != MatchCriteria.ALL))
+        {
+            return null;
+        }
+
+        Map<String, String> exactPropertyValues = new HashMap<>();
+
+        for (PropertyCondition condition : matchProperties.getConditions())
+        {
+            if ((condition != null) && (condition.getProperty() != null) && (condition.getNestedConditions() == null))
+            {
+                String matchValue = this.getStringPrimitiveValue(condition.getValue());
+
+                if (matchValue != null)
+                {
+                    if (condition.getOperator() == PropertyComparisonOperator.EQ)
+                    {
+                        exactPropertyValues.put(condition.getProperty(), matchValue);
+                    }
+                    else if ((condition.getOperator() == PropertyComparisonOperator.LIKE) &&
+                             (repositoryHelper.isExactMatchRegex(matchValue, false)))
+                    {
+                        exactPropertyValues.put(condition.getProperty(), repositoryHelper.getUnqualifiedLiteralString(matchValue));
+                    }
+                }
+            }
+        }
+
+        return exactPropertyValues.isEmpty() ? null : exactPropertyValues;
+    }
+
+
+    /**
+     * Return the names of the classifications from the search classifications when they are combined with
+     * the requested match criteria.
+     *
+     * @param matchClassifications classification conditions (may be null)
+     * @param matchCriteria match criteria that the conditions must be combined with
+     * @return list of classification names, or null if none can be used
+     */
+    private List<String> getClassificationNames(SearchClassifications matchClassifications,
+                                                MatchCriteria         matchCriteria)
+    {
+        if ((matchClassifications == null) ||
+            (matchClassifications.getConditions() == null) ||
+            (matchClassifications.getMatchCriteria() != matchCriteria))
+        {
+            return null;
+        }
+
+        List<String> classificationNames = new ArrayList<>();
+
+        for (ClassificationCondition condition : matchClassifications.getConditions())
+        {
+            if ((condition != null) && (condition.getName() != null))
+            {
+                classificationNames.add(condition.getName());
+            }
+        }
+
+        return classificationNames.isEmpty() ? null : classificationNames;
+    }
+
+
+    /**
+     * Return the value of a string primitive property value.
+     *
+     * @param propertyValue property value (may be null)
+     * @return string value or null if this is not a string primitive
+     */
+    private String getStringPrimitiveValue(InstancePropertyValue propertyValue)
+    {
+        if (propertyValue instanceof PrimitivePropertyValue)
+        {
+            PrimitivePropertyValue primitivePropertyValue = (PrimitivePropertyValue) propertyValue;
+
+            if ((primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING) &&
+                (primitivePropertyValue.getPrimitiveValue() instanceof String))
+            {
+                return (String) primitivePropertyValue.getPrimitiveValue();
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Compile the search criteria of a find by property value request so that the regular expression
+     * is not compiled again for each candidate instance.
+     *
+     * @param searchCriteria regular expression supplied by the caller
+     * @param methodName calling method
+     * @return compiled search criteria
+     * @throws RepositoryErrorException the search criteria is not a valid regular expression
+     */
+    private OMRSRegexMatcher getSearchMatcher(String searchCriteria,
+                                              String methodName) throws RepositoryErrorException
+    {
+        try
+        {
+            return OMRSRegexMatcher.getMatcher(searchCriteria);
+        }
+        catch (Exception error)
+        {
+            throw new RepositoryErrorException(OMRSErrorCode.BAD_PROPERTY_FOR_INSTANCE.getMessageDefinition(error.getClass().getName(),
+                                                                                                            searchCriteria,
+                                                                                                            methodName,
+                                                                                                            repositoryName,
+                                                                                                            error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+    }
 }
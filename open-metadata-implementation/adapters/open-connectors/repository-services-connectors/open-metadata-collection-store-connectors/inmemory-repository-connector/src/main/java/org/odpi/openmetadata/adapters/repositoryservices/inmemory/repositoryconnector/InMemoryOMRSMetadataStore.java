@@ -5,21 +5,53 @@ package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositorycon
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * InMemoryOMRSMetadataStore provides the in memory stores for the InMemoryRepositoryConnector
+ * InMemoryOMRSMetadataStore provides the in memory stores for the InMemoryRepositoryConnector.
+ * <br><br>
+ * The active stores are concurrent maps so that lookups by GUID and copies of a whole store do not need to
+ * lock.  The history stores, secondary indexes and adjacency index are guarded by one read/write lock for
+ * entities and one for relationships.  Updates take the write lock of the store they change; queries that use
+ * the indexes or history take the read lock, so readers only wait for writers of the same kind of instance.
  */
 class InMemoryOMRSMetadataStore
 {
     private String                                 repositoryName           = null;
-    private volatile Map<String, EntityDetail>     entityStore              = new HashMap<>();
-    private volatile Map<String, EntityProxy>      entityProxyStore         = new HashMap<>();
-    private volatile List<EntityDetail>            entityHistoryStore       = new ArrayList<>();
-    private volatile Map<String, Relationship>     relationshipStore        = new HashMap<>();
-    private volatile List<Relationship>            relationshipHistoryStore = new ArrayList<>();
+    private final Map<String, EntityDetail>        entityStore              = new ConcurrentHashMap<>();
+    private final Map<String, EntityProxy>         entityProxyStore         = new ConcurrentHashMap<>();
+    private final Map<String, Relationship>        relationshipStore        = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock                    entityLock               = new ReentrantReadWriteLock();
+    private final ReadWriteLock                    relationshipLock         = new ReentrantReadWriteLock();
+
+    /*
+     * The history stores hold the previous versions of each instance as a timeline keyed by the time that the
+     * version became current (its update time, or create time if it has never been updated) and its version
+     * number, so versions written in the same millisecond, or without a time, are all kept.  The current
+     * version is held in the active store.
+     */
+    private final Map<String, NavigableMap<VersionKey, EntityDetail>> entityHistoryStore       = new HashMap<>();
+    private final Map<String, NavigableMap<VersionKey, Relationship>> relationshipHistoryStore = new HashMap<>();
+
+    /*
+     * Secondary indexes over the active stores.  They are maintained whenever an instance is added to, replaced in,
+     * or removed from the entityStore or relationshipStore.
+     */
+    private final InMemoryOMRSInstanceIndex        entityIndex              = new InMemoryOMRSInstanceIndex();
+    private final InMemoryOMRSInstanceIndex        relationshipIndex        = new InMemoryOMRSInstanceIndex();
+
+    /*
+     * Adjacency index from an entity GUID to the GUIDs of the relationships that have the entity at either end,
+     * bucketed by relationship type GUID.
+     */
+    private final Map<String, Map<String, Set<String>>> entityRelationshipIndex = new HashMap<>();
 
 
     /**
@@ -46,7 +78,7 @@ class InMemoryOMRSMetadataStore
      *
      * @return list of EntityDetail objects
      */
-    synchronized List<EntityDetail>   getEntities()
+    List<EntityDetail>   getEntities()
     {
         return new ArrayList<>(entityStore.values());
     }
@@ -58,9 +90,9 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntityDetail  getEntity(String   guid)
+    EntityDetail  getEntity(String   guid)
     {
-        return entityStore.get(guid);
+        return guid == null ? null : entityStore.get(guid);
     }
 
 
@@ -70,93 +102,206 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier
      * @return entity proxy object
      */
-    synchronized EntityProxy  getEntityProxy(String   guid)
+    EntityProxy  getEntityProxy(String   guid)
     {
-        return entityProxyStore.get(guid);
+        return guid == null ? null : entityProxyStore.get(guid);
     }
 
 
     /**
-     * Return an entity store that contains entities as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the current entities that could satisfy the supplied criteria.  The indexes are used to narrow the
+     * entities returned, but the result is a superset of the matching entities: the caller must still verify
+     * each entity against its full search criteria.  A null criteria value means there is no restriction of that
+     * kind.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return entity store for the requested time
+     * @param typeGUID unique identifier of the type that the entities must be an instance of (including subtypes)
+     * @param subtypeGUIDs list of type GUIDs where the entities must be an instance of at least one
+     * @param anyOfClassifications list of classification names where the entities must have at least one
+     * @param allOfClassifications list of classification names where the entities must have all of them
+     * @param exactPropertyValues map of property name to literal value that the entities must have
+     * @return list of candidate entities
      */
-    synchronized Map<String, EntityDetail>  timeWarpEntityStore(Date         asOfTime)
+    List<EntityDetail> getCandidateEntities(String              typeGUID,
+                                            List<String>        subtypeGUIDs,
+                                            List<String>        anyOfClassifications,
+                                            List<String>        allOfClassifications,
+                                            Map<String, String> exactPropertyValues)
     {
-        if (asOfTime == null)
+        entityLock.readLock().lock();
+
+        try
         {
-            return new HashMap<>(entityStore);
-        }
+            List<Set<String>> restrictions = new ArrayList<>();
 
-        Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+            if (typeGUID != null)
+            {
+                restrictions.add(entityIndex.getGUIDsForType(typeGUID));
+            }
 
-        /*
-         * First step through the current relationship store and extract all of the relationships that were
-         * last updated before the asOfTime.
-         */
-        for (EntityDetail  entity : entityStore.values())
-        {
-            if (entity != null)
+            if (subtypeGUIDs != null)
             {
-                if (entity.getUpdateTime() != null)
+                Set<String> subtypeMatches = new HashSet<>();
+
+                for (String subtypeGUID : subtypeGUIDs)
                 {
-                    String entityGUID = entity.getGUID();
+                    subtypeMatches.addAll(entityIndex.getGUIDsForType(subtypeGUID));
+                }
 
-                    if (entityGUID != null)
-                    {
-                        if (! entity.getUpdateTime().after(asOfTime))
-                        {
-                            timeWarpedEntityStore.put(entityGUID, entity);
-                        }
-                    }
+                restrictions.add(subtypeMatches);
+            }
+
+            if (anyOfClassifications != null)
+            {
+                Set<String> classificationMatches = new HashSet<>();
+
+                for (String classificationName : anyOfClassifications)
+                {
+                    classificationMatches.addAll(entityIndex.getGUIDsForClassification(classificationName));
                 }
-                else if (entity.getCreateTime() != null)
+
+                restrictions.add(classificationMatches);
+            }
+
+            if (allOfClassifications != null)
+            {
+                for (String classificationName : allOfClassifications)
                 {
-                    if (! entity.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedEntityStore.put(entity.getGUID(), entity);
-                    }
+                    restrictions.add(entityIndex.getGUIDsForClassification(classificationName));
+                }
+            }
+
+            if (exactPropertyValues != null)
+            {
+                for (Map.Entry<String, String> exactPropertyValue : exactPropertyValues.entrySet())
+                {
+                    restrictions.add(entityIndex.getGUIDsForPropertyValue(exactPropertyValue.getKey(), exactPropertyValue.getValue()));
+                }
+            }
+
+            if (restrictions.isEmpty())
+            {
+                return new ArrayList<>(entityStore.values());
+            }
+
+            List<EntityDetail> candidates = new ArrayList<>();
+
+            for (String guid : this.intersectRestrictions(restrictions))
+            {
+                EntityDetail entity = entityStore.get(guid);
+
+                if (entity != null)
+                {
+                    candidates.add(entity);
                 }
             }
+
+            return candidates;
+        }
+        finally
+        {
+            entityLock.readLock().unlock();
         }
+    }
 
-        /*
-         * Now step through the history store picking up the versions of other entities that were active
-         * at the time of the asOfTime.
-         */
-        for (EntityDetail oldEntity : entityHistoryStore)
+
+    /**
+     * Return the entity identified by the guid as it was at the time supplied in the asOfTime parameter.
+     *
+     * @param guid - unique identifier for the entity
+     * @param asOfTime - time for the store (or null means now)
+     * @return entity object or null if the entity did not exist at that time
+     */
+    EntityDetail  getEntity(String   guid,
+                            Date     asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            return guid == null ? null : entityStore.get(guid);
+        }
+
+        entityLock.readLock().lock();
+
+        try
+        {
+            return this.getVersionAsOfTime(entityStore.get(guid), entityHistoryStore.get(guid), asOfTime);
+        }
+        finally
+        {
+            entityLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Return the previous versions of an entity, oldest first.
+     *
+     * @param guid - unique identifier for the entity
+     * @return list of the versions in the entity's history timeline (empty if there are none)
+     */
+    List<EntityDetail>  getEntityHistory(String   guid)
+    {
+        entityLock.readLock().lock();
+
+        try
         {
-            if (oldEntity != null)
+            NavigableMap<VersionKey, EntityDetail> history = entityHistoryStore.get(guid);
+
+            if (history == null)
             {
-                String entityGUID = oldEntity.getGUID();
+                return new ArrayList<>();
+            }
 
-                if (oldEntity.getUpdateTime() != null)
-                {
-                    if (! oldEntity.getUpdateTime().after(asOfTime))
-                    {
-                        EntityDetail newerEntity = timeWarpedEntityStore.put(entityGUID, oldEntity);
+            return new ArrayList<>(history.values());
+        }
+        finally
+        {
+            entityLock.readLock().unlock();
+        }
+    }
 
-                        if (newerEntity != null)
-                        {
-                            timeWarpedEntityStore.put(entityGUID, newerEntity);
-                        }
-                        break;
-                    }
-                }
-                else if (oldEntity.getCreateTime() != null)
+
+    /**
+     * Return an entity store that contains entities as they were at the time supplied in the asOfTime
+     * parameter.  The current store is returned directly when no time is supplied; it must not be modified.
+     *
+     * @param asOfTime - time for the store (or null means now)
+     * @return entity store for the requested time
+     */
+    Map<String, EntityDetail>  timeWarpEntityStore(Date         asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            return Collections.unmodifiableMap(entityStore);
+        }
+
+        entityLock.readLock().lock();
+
+        try
+        {
+            Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+
+            /*
+             * Each entity in the current store is mapped to the version that was current at the asOfTime.  This is
+             * either the current version or the latest version in its history timeline at or before the asOfTime.
+             */
+            for (Map.Entry<String, EntityDetail> currentEntity : entityStore.entrySet())
+            {
+                EntityDetail entity = this.getVersionAsOfTime(currentEntity.getValue(),
+                                                              entityHistoryStore.get(currentEntity.getKey()),
+                                                              asOfTime);
+
+                if (entity != null)
                 {
-                    if (! oldEntity.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedEntityStore.put(entityGUID, oldEntity);
-                        break;
-                    }
+                    timeWarpedEntityStore.put(currentEntity.getKey(), entity);
                 }
             }
-        }
 
-        return timeWarpedEntityStore;
+            return timeWarpedEntityStore;
+        }
+        finally
+        {
+            entityLock.readLock().unlock();
+        }
     }
 
 
@@ -165,7 +310,7 @@ class InMemoryOMRSMetadataStore
      *
      * @return list of relationships
      */
-    synchronized List<Relationship>   getRelationships()
+    List<Relationship>   getRelationships()
     {
         return new ArrayList<>(relationshipStore.values());
     }
@@ -177,93 +322,225 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the relationship
      * @return relationship object
      */
-    protected synchronized Relationship  getRelationship(String   guid)
+    protected Relationship  getRelationship(String   guid)
     {
-        return relationshipStore.get(guid);
+        return guid == null ? null : relationshipStore.get(guid);
     }
 
+
     /**
-     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the current relationships that could satisfy the supplied criteria.  As with getCandidateEntities,
+     * the result is a superset of the matching relationships and each one must be verified by the caller.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return relationship store for the requested time
+     * @param typeGUID unique identifier of the type that the relationships must be an instance of (including subtypes)
+     * @param subtypeGUIDs list of type GUIDs where the relationships must be an instance of at least one
+     * @param exactPropertyValues map of property name to literal value that the relationships must have
+     * @return list of candidate relationships
      */
-    synchronized Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    List<Relationship> getCandidateRelationships(String              typeGUID,
+                                                 List<String>        subtypeGUIDs,
+                                                 Map<String, String> exactPropertyValues)
     {
-        if (asOfTime == null)
+        relationshipLock.readLock().lock();
+
+        try
+        {
+            List<Set<String>> restrictions = new ArrayList<>();
+
+            if (typeGUID != null)
+            {
+                restrictions.add(relationshipIndex.getGUIDsForType(typeGUID));
+            }
+
+            if (subtypeGUIDs != null)
+            {
+                Set<String> subtypeMatches = new HashSet<>();
+
+                for (String subtypeGUID : subtypeGUIDs)
+                {
+                    subtypeMatches.addAll(relationshipIndex.getGUIDsForType(subtypeGUID));
+                }
+
+                restrictions.add(subtypeMatches);
+            }
+
+            if (exactPropertyValues != null)
+            {
+                for (Map.Entry<String, String> exactPropertyValue : exactPropertyValues.entrySet())
+                {
+                    restrictions.add(relationshipIndex.getGUIDsForPropertyValue(exactPropertyValue.getKey(), exactPropertyValue.getValue()));
+                }
+            }
+
+            if (restrictions.isEmpty())
+            {
+                return new ArrayList<>(relationshipStore.values());
+            }
+
+            List<Relationship> candidates = new ArrayList<>();
+
+            for (String guid : this.intersectRestrictions(restrictions))
+            {
+                Relationship relationship = relationshipStore.get(guid);
+
+                if (relationship != null)
+                {
+                    candidates.add(relationship);
+                }
+            }
+
+            return candidates;
+        }
+        finally
         {
-            return new HashMap<>(relationshipStore);
+            relationshipLock.readLock().unlock();
         }
+    }
 
-        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
 
+    /**
+     * Return the current relationships that have the requested entity at either end.  The relationships are
+     * returned irrespective of their status.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @param relationshipTypeGUID unique identifier of the relationship type to return (null means all types).
+     *                             This is an exact match - subtypes are not included.
+     * @return list of relationships
+     */
+    List<Relationship> getRelationshipsForEntity(String   entityGUID,
+                                                 String   relationshipTypeGUID)
+    {
+        relationshipLock.readLock().lock();
 
-        /*
-         * First step through the current relationship store and extract all of the relationships that were
-         * last updated before the asOfTime.
-         */
-        for (Relationship  relationship : relationshipStore.values())
+        try
         {
-            if (relationship != null)
+            List<Relationship>       relationships = new ArrayList<>();
+            Map<String, Set<String>> relationshipGUIDsByType = entityRelationshipIndex.get(entityGUID);
+
+            if (relationshipGUIDsByType != null)
             {
-                if (relationship.getUpdateTime() != null)
+                if (relationshipTypeGUID == null)
                 {
-                    String relationshipGUID = relationship.getGUID();
-
-                    if (relationshipGUID != null)
+                    for (Set<String> relationshipGUIDs : relationshipGUIDsByType.values())
                     {
-                        if (! relationship.getUpdateTime().after(asOfTime))
-                        {
-                            timeWarpedRelationshipStore.put(relationshipGUID, relationship);
-                        }
+                        this.addRelationships(relationshipGUIDs, relationships);
                     }
                 }
-                else if (relationship.getCreateTime() != null)
+                else
                 {
-                    if (! relationship.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedRelationshipStore.put(relationship.getGUID(), relationship);
-                    }
+                    this.addRelationships(relationshipGUIDsByType.get(relationshipTypeGUID), relationships);
                 }
             }
+
+            return relationships;
+        }
+        finally
+        {
+            relationshipLock.readLock().unlock();
         }
+    }
 
-        /*
-         * Now step through the history store picking up the versions of other relationships that were active
-         * at the time of the asOfTime.
-         */
-        for (Relationship oldRelationship : relationshipHistoryStore)
+
+    /**
+     * Return the GUIDs of the current relationships that have the requested entity at either end.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return set of relationship GUIDs (empty if the entity has no relationships)
+     */
+    Set<String> getRelationshipGUIDsForEntity(String   entityGUID)
+    {
+        relationshipLock.readLock().lock();
+
+        try
         {
-            if (oldRelationship != null)
-            {
-                String relationshipGUID = oldRelationship.getGUID();
+            Set<String>              relationshipGUIDs = new HashSet<>();
+            Map<String, Set<String>> relationshipGUIDsByType = entityRelationshipIndex.get(entityGUID);
 
-                if (oldRelationship.getUpdateTime() != null)
+            if (relationshipGUIDsByType != null)
+            {
+                for (Set<String> relationshipGUIDsForType : relationshipGUIDsByType.values())
                 {
-                    if (! oldRelationship.getUpdateTime().after(asOfTime))
-                    {
-                        Relationship newerRelationship = timeWarpedRelationshipStore.put(relationshipGUID, oldRelationship);
-
-                        if (newerRelationship != null)
-                        {
-                            timeWarpedRelationshipStore.put(relationshipGUID, newerRelationship);
-                        }
-                        break;
-                    }
+                    relationshipGUIDs.addAll(relationshipGUIDsForType);
                 }
-                else if (oldRelationship.getCreateTime() != null)
+            }
+
+            return relationshipGUIDs;
+        }
+        finally
+        {
+            relationshipLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Return the relationship identified by the guid as it was at the time supplied in the asOfTime parameter.
+     *
+     * @param guid - unique identifier for the relationship
+     * @param asOfTime - time for the store (or null means now)
+     * @return relationship object or null if the relationship did not exist at that time
+     */
+    Relationship  getRelationship(String   guid,
+                                  Date     asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            return guid == null ? null : relationshipStore.get(guid);
+        }
+
+        relationshipLock.readLock().lock();
+
+        try
+        {
+            return this.getVersionAsOfTime(relationshipStore.get(guid), relationshipHistoryStore.get(guid), asOfTime);
+        }
+        finally
+        {
+            relationshipLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
+     * parameter.  The current store is returned directly when no time is supplied; it must not be modified.
+     *
+     * @param asOfTime - time for the store (or null means now)
+     * @return relationship store for the requested time
+     */
+    Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            return Collections.unmodifiableMap(relationshipStore);
+        }
+
+        relationshipLock.readLock().lock();
+
+        try
+        {
+            Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+
+            /*
+             * Each relationship in the current store is mapped to the version that was current at the asOfTime.
+             */
+            for (Map.Entry<String, Relationship> currentRelationship : relationshipStore.entrySet())
+            {
+                Relationship relationship = this.getVersionAsOfTime(currentRelationship.getValue(),
+                                                                    relationshipHistoryStore.get(currentRelationship.getKey()),
+                                                                    asOfTime);
+
+                if (relationship != null)
                 {
-                    if (! oldRelationship.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedRelationshipStore.put(relationshipGUID, oldRelationship);
-                        break;
-                    }
+                    timeWarpedRelationshipStore.put(currentRelationship.getKey(), relationship);
                 }
             }
-        }
 
-        return timeWarpedRelationshipStore;
+            return timeWarpedRelationshipStore;
+        }
+        finally
+        {
+            relationshipLock.readLock().unlock();
+        }
     }
 
     /**
@@ -272,22 +549,30 @@ class InMemoryOMRSMetadataStore
      * @param entity - new version of the entity
      * @return entity with potentially updated GUID
      */
-    synchronized EntityDetail createEntityInStore(EntityDetail    entity)
+    EntityDetail createEntityInStore(EntityDetail    entity)
     {
-        /*
-         * There is a small chance the randomly generated GUID will clash with an existing relationship.
-         * If this happens a new GUID is generated for the relationship and the process repeats.
-         */
-        EntityDetail existingEntity = entityStore.put(entity.getGUID(), entity);
+        entityLock.writeLock().lock();
 
-        while (existingEntity != null)
+        try
         {
-            entityStore.put(entity.getGUID(), existingEntity);
-            entity.setGUID(UUID.randomUUID().toString());
-            existingEntity = entityStore.put(entity.getGUID(), entity);
-        }
+            /*
+             * There is a small chance the randomly generated GUID will clash with an existing entity.
+             * If this happens a new GUID is generated for the entity and the process repeats.  The existing
+             * entity is never displaced, so concurrent readers do not see it disappear.
+             */
+            while (entityStore.putIfAbsent(entity.getGUID(), entity) != null)
+            {
+                entity.setGUID(UUID.randomUUID().toString());
+            }
 
-        return entity;
+            this.indexEntity(entity);
+
+            return entity;
+        }
+        finally
+        {
+            entityLock.writeLock().unlock();
+        }
     }
 
 
@@ -297,22 +582,29 @@ class InMemoryOMRSMetadataStore
      * @param relationship - new version of the relationship
      * @return relationship with potentially updated GUID
      */
-    synchronized Relationship createRelationshipInStore(Relationship    relationship)
+    Relationship createRelationshipInStore(Relationship    relationship)
     {
-        /*
-         * There is a small chance the randomly generated GUID will clash with an existing relationship.
-         * If this happens a new GUID is generated for the relationship and the process repeats.
-         */
-        Relationship existingRelationship = relationshipStore.put(relationship.getGUID(), relationship);
+        relationshipLock.writeLock().lock();
 
-        while (existingRelationship != null)
+        try
         {
-            relationshipStore.put(relationship.getGUID(), existingRelationship);
-            relationship.setGUID(UUID.randomUUID().toString());
-            existingRelationship = relationshipStore.put(relationship.getGUID(), relationship);
-        }
+            /*
+             * There is a small chance the randomly generated GUID will clash with an existing relationship.
+             * If this happens a new GUID is generated for the relationship and the process repeats.
+             */
+            while (relationshipStore.putIfAbsent(relationship.getGUID(), relationship) != null)
+            {
+                relationship.setGUID(UUID.randomUUID().toString());
+            }
 
-        return relationship;
+            this.indexRelationship(relationship);
+
+            return relationship;
+        }
+        finally
+        {
+            relationshipLock.writeLock().unlock();
+        }
     }
 
 
@@ -321,7 +613,7 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void addEntityProxyToStore(EntityProxy    entityProxy)
+    void addEntityProxyToStore(EntityProxy    entityProxy)
     {
         entityProxyStore.put(entityProxy.getGUID(), entityProxy);
     }
@@ -329,17 +621,23 @@ class InMemoryOMRSMetadataStore
 
     /**
      * Maintain a history of entities as they are stored into the entity store to ensure old version can be restored.
-     * The history is maintained with the latest changes first in the list.
+     * The replaced version is added to the entity's history timeline.
      *
      * @param entity - new version of the entity
      */
-    synchronized void updateEntityInStore(EntityDetail entity)
+    void updateEntityInStore(EntityDetail entity)
     {
-        EntityDetail oldEntity = entityStore.put(entity.getGUID(), entity);
+        entityLock.writeLock().lock();
+
+        try
+        {
+            EntityDetail oldEntity = this.replaceEntity(entity);
 
-        if (oldEntity != null)
+            this.addToHistory(entityHistoryStore, oldEntity);
+        }
+        finally
         {
-            entityHistoryStore.add(0, oldEntity);
+            entityLock.writeLock().unlock();
         }
     }
 
@@ -349,7 +647,7 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void updateEntityProxyInStore(EntityProxy entityProxy)
+    void updateEntityProxyInStore(EntityProxy entityProxy)
     {
         entityProxyStore.put(entityProxy.getGUID(), entityProxy);
     }
@@ -357,18 +655,24 @@ class InMemoryOMRSMetadataStore
 
     /**
      * Maintain a history of relationships as they are stored into the relationship store to ensure old version
-     * can be restored.  The history is maintained with the latest changes first in the list.
+     * can be restored.  The replaced version is added to the relationship's history timeline.
      *
      * @param relationship - new version of the relationship
      */
-    synchronized void updateRelationshipInStore(Relationship    relationship)
+    void updateRelationshipInStore(Relationship    relationship)
     {
+        relationshipLock.writeLock().lock();
+
+        try
+        {
 
-        Relationship    oldRelationship = relationshipStore.put(relationship.getGUID(), relationship);
+            Relationship    oldRelationship = this.replaceRelationship(relationship);
 
-        if (oldRelationship != null)
+            this.addToHistory(relationshipHistoryStore, oldRelationship);
+        }
+        finally
         {
-            relationshipHistoryStore.add(0, oldRelationship);
+            relationshipLock.writeLock().unlock();
         }
     }
 
@@ -379,132 +683,208 @@ class InMemoryOMRSMetadataStore
      *
      * @param entity - object to save
      */
-    synchronized void saveReferenceEntityToStore(EntityDetail    entity)
+    void saveReferenceEntityToStore(EntityDetail    entity)
     {
-        entityStore.put(entity.getGUID(), entity);
-    }
+        entityLock.writeLock().lock();
 
-
-    /**
+        try
+        {
+            this.replaceEntity(entity);
+        }
+        finally
+        {
+            entityLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
      * Save a reference copy of a relationship to the active store.  Reference copies are not maintained in the
      * history store.
      *
      * @param relationship - object to save
      */
-    synchronized void saveReferenceRelationshipToStore(Relationship    relationship)
+    void saveReferenceRelationshipToStore(Relationship    relationship)
     {
-        relationshipStore.put(relationship.getGUID(), relationship);
+        relationshipLock.writeLock().lock();
+
+        try
+        {
+            this.replaceRelationship(relationship);
+        }
+        finally
+        {
+            relationshipLock.writeLock().unlock();
+        }
     }
 
 
     /**
-     * Retrieve the previous version of a Relationship.  This is the first instance of this element that
-     * appears in the history.
+     * Save a batch of reference copies of entities to the active store under a single acquisition of the
+     * entity lock.  Any proxies for the entities are removed since the full entities are now known.
      *
-     * @param guid - unique identifier for the required element
-     * @return - previous version of this relationship - or null if not found
+     * @param entities - objects to save
      */
-    synchronized Relationship retrievePreviousVersionOfRelationship(String   guid)
+    void saveReferenceEntitiesToStore(List<EntityDetail>    entities)
     {
-        if (guid != null)
+        entityLock.writeLock().lock();
+
+        try
+        {
+            for (EntityDetail entity : entities)
+            {
+                this.replaceEntity(entity);
+                entityProxyStore.remove(entity.getGUID());
+            }
+        }
+        finally
         {
-            Relationship  currentVersionOfRelationship = relationshipStore.get(guid);
+            entityLock.writeLock().unlock();
+        }
+    }
 
-            long versionNumber = 0;
 
-            if (currentVersionOfRelationship != null)
+    /**
+     * Save a batch of reference copies of relationships, along with the proxies for their ends, to the active
+     * store under a single acquisition of the relationship lock.
+     *
+     * @param relationships - objects to save
+     */
+    void saveReferenceRelationshipsToStore(List<Relationship>    relationships)
+    {
+        relationshipLock.writeLock().lock();
+
+        try
+        {
+            for (Relationship relationship : relationships)
             {
-                versionNumber = currentVersionOfRelationship.getVersion() + 1;
+                this.addEntityProxyToStore(relationship.getEntityOneProxy());
+                this.addEntityProxyToStore(relationship.getEntityTwoProxy());
+                this.replaceRelationship(relationship);
             }
+        }
+        finally
+        {
+            relationshipLock.writeLock().unlock();
+        }
+    }
 
 
-            for (Relationship relationship : relationshipHistoryStore)
+    /**
+     * Retrieve the previous version of a Relationship.  This is the latest version in the relationship's
+     * history timeline.
+     *
+     * @param guid - unique identifier for the required element
+     * @return - previous version of this relationship - or null if not found
+     */
+    Relationship retrievePreviousVersionOfRelationship(String   guid)
+    {
+        relationshipLock.writeLock().lock();
+
+        try
+        {
+            if (guid != null)
             {
-                if (relationship != null)
+                NavigableMap<VersionKey, Relationship> history = relationshipHistoryStore.get(guid);
+
+                if ((history != null) && (! history.isEmpty()))
                 {
-                    if (guid.equals(relationship.getGUID()))
-                    {
-                        if (versionNumber == 0)
-                        {
-                            versionNumber = relationship.getVersion() + 1;
-                        }
-                        /*
-                         * Clone the head (most recent) version in the history, set its version number to the next version
-                         * and insert the new clone into the current store (under key GUID). Also, take the 'current version'
-                         * (as was at start of method) and shunt that into the history. Do not remove anything from the history.
-                         * Remember also to set the updateTime to NOW - otherwise the historical copy will appear to have been
-                         * updated longer ago than was really the case.
-                         */
-                        Relationship newRelationship = new Relationship(relationship);
-                        newRelationship.setVersion(versionNumber);
-                        Date restoreTime = new Date();
-                        newRelationship.setUpdateTime(restoreTime);
-                        relationshipStore.put(guid, newRelationship);
-                        relationshipHistoryStore.add(0, currentVersionOfRelationship);
-                        return newRelationship;
+                    Relationship  currentVersionOfRelationship = relationshipStore.get(guid);
+                    Relationship  relationship = history.lastEntry().getValue();
+
+                    long versionNumber;
 
+                    if (currentVersionOfRelationship != null)
+                    {
+                        versionNumber = currentVersionOfRelationship.getVersion() + 1;
                     }
+                    else
+                    {
+                        versionNumber = relationship.getVersion() + 1;
+                    }
+
+                    /*
+                     * Clone the head (most recent) version in the history, set its version number to the next version
+                     * and insert the new clone into the current store (under key GUID). Also, take the 'current version'
+                     * (as was at start of method) and shunt that into the history. Do not remove anything from the history.
+                     * Remember also to set the updateTime to NOW - otherwise the historical copy will appear to have been
+                     * updated longer ago than was really the case.
+                     */
+                    Relationship newRelationship = new Relationship(relationship);
+                    newRelationship.setVersion(versionNumber);
+                    Date restoreTime = new Date();
+                    newRelationship.setUpdateTime(restoreTime);
+                    this.replaceRelationship(newRelationship);
+                    this.addToHistory(relationshipHistoryStore, currentVersionOfRelationship);
+                    return newRelationship;
                 }
             }
-        }
 
-        return null;
+            return null;
+        }
+        finally
+        {
+            relationshipLock.writeLock().unlock();
+        }
     }
 
 
     /**
      * Retrieve the previous version of an Entity from the history store and restore it in the entity store.
-     * This is the first instance of this element that appears in the history.
+     * This is the latest version in the entity's history timeline.
      *
      * @param guid - unique identifier for the required element
      * @return - previous version of this Entity - or null if not found
      */
-    synchronized EntityDetail retrievePreviousVersionOfEntity(String   guid)
+    EntityDetail retrievePreviousVersionOfEntity(String   guid)
     {
-        if (guid != null)
-        {
-            EntityDetail  currentVersionOfEntity = entityStore.get(guid);
-
-            long versionNumber = 0;
+        entityLock.writeLock().lock();
 
-            if (currentVersionOfEntity != null)
+        try
+        {
+            if (guid != null)
             {
-                versionNumber = currentVersionOfEntity.getVersion() + 1;
-            }
+                NavigableMap<VersionKey, EntityDetail> history = entityHistoryStore.get(guid);
 
-            for (EntityDetail entity : entityHistoryStore)
-            {
-                if (entity != null)
+                if ((history != null) && (! history.isEmpty()))
                 {
-                    if (guid.equals(entity.getGUID()))
-                    {
-                        if (versionNumber == 0)
-                        {
-                            versionNumber = entity.getVersion() + 1;
-                        }
+                    EntityDetail  currentVersionOfEntity = entityStore.get(guid);
+                    EntityDetail  entity = history.lastEntry().getValue();
 
-                        /*
-                         * Clone the head (most recent) version in the history, set its version number to the next version
-                         * and insert the new clone into the current store (under key GUID). Also, take the 'current version'
-                         * (as was at start of method) and shunt that into the history. Do not remove anything from the history.
-                         * Remember also to set the updateTime to NOW - otherwise the historical copy will appear to have been
-                         * updated longer ago than was really the case.
-                         *
-                         */
-                        EntityDetail newEntity = new EntityDetail(entity);
-                        newEntity.setVersion(versionNumber);
-                        Date restoreTime = new Date();
-                        newEntity.setUpdateTime(restoreTime);
-                        entityStore.put(guid, newEntity);
-                        entityHistoryStore.add(0, currentVersionOfEntity);
-                        return newEntity;
+                    long versionNumber;
 
+                    if (currentVersionOfEntity != null)
+                    {
+                        versionNumber = currentVersionOfEntity.getVersion() + 1;
+                    }
+                    else
+                    {
+                        versionNumber = entity.getVersion() + 1;
                     }
+
+                    /*
+                     * Clone the head (most recent) version in the history, set its version number to the next version
+                     * and insert the new clone into the current store (under key GUID). Also, take the 'current version'
+                     * (as was at start of method) and shunt that into the history. Do not remove anything from the history.
+                     * Remember also to set the updateTime to NOW - otherwise the historical copy will appear to have been
+                     * updated longer ago than was really the case.
+                     */
+                    EntityDetail newEntity = new EntityDetail(entity);
+                    newEntity.setVersion(versionNumber);
+                    Date restoreTime = new Date();
+                    newEntity.setUpdateTime(restoreTime);
+                    this.replaceEntity(newEntity);
+                    this.addToHistory(entityHistoryStore, currentVersionOfEntity);
+                    return newEntity;
                 }
             }
-        }
 
-        return null;
+            return null;
+        }
+        finally
+        {
+            entityLock.writeLock().unlock();
+        }
     }
 
 
@@ -513,19 +893,20 @@ class InMemoryOMRSMetadataStore
      *
      * @param entity - entity to remove
      */
-    synchronized void removeEntityFromStore(EntityDetail     entity)
+    void removeEntityFromStore(EntityDetail     entity)
     {
-        String entityGUID = entity.getGUID();
-        entityStore.remove(entityGUID);
-        List<EntityDetail> purgedHistory = new ArrayList<>();
-        for (EntityDetail history : entityHistoryStore)
+        entityLock.writeLock().lock();
+
+        try
         {
-            if (history != null && !entityGUID.equals(history.getGUID()))
-            {
-                purgedHistory.add(history);
-            }
+            String entityGUID = entity.getGUID();
+            this.unindexEntity(entityStore.remove(entityGUID));
+            entityHistoryStore.remove(entityGUID);
+        }
+        finally
+        {
+            entityLock.writeLock().unlock();
         }
-        entityHistoryStore = purgedHistory;
     }
 
 
@@ -534,21 +915,23 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - entity to remove
      */
-    synchronized void removeReferenceEntityFromStore(String     guid)
+    void removeReferenceEntityFromStore(String     guid)
     {
-        EntityDetail entity = entityStore.remove(guid);
+        entityLock.writeLock().lock();
 
-        if (entity != null)
+        try
         {
-            List<EntityDetail> purgedHistory = new ArrayList<>();
-            for (EntityDetail history : entityHistoryStore)
+            EntityDetail entity = entityStore.remove(guid);
+
+            if (entity != null)
             {
-                if (history != null && !guid.equals(history.getGUID()))
-                {
-                    purgedHistory.add(history);
-                }
+                this.unindexEntity(entity);
+                entityHistoryStore.remove(guid);
             }
-            entityHistoryStore = purgedHistory;
+        }
+        finally
+        {
+            entityLock.writeLock().unlock();
         }
     }
 
@@ -558,7 +941,7 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - entity proxy to remove
      */
-    synchronized void removeEntityProxyFromStore(String     guid)
+    void removeEntityProxyFromStore(String     guid)
     {
         entityProxyStore.remove(guid);
     }
@@ -569,19 +952,20 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - relationship to remove
      */
-    synchronized void removeRelationshipFromStore(Relationship     relationship)
+    void removeRelationshipFromStore(Relationship     relationship)
     {
-        String relationshipGUID = relationship.getGUID();
-        relationshipStore.remove(relationshipGUID);
-        List<Relationship> purgedHistory = new ArrayList<>();
-        for (Relationship history : relationshipHistoryStore)
+        relationshipLock.writeLock().lock();
+
+        try
         {
-            if (history != null && !relationshipGUID.equals(history.getGUID()))
-            {
-                purgedHistory.add(history);
-            }
+            String relationshipGUID = relationship.getGUID();
+            this.unindexRelationship(relationshipStore.remove(relationshipGUID));
+            relationshipHistoryStore.remove(relationshipGUID);
+        }
+        finally
+        {
+            relationshipLock.writeLock().unlock();
         }
-        relationshipHistoryStore = purgedHistory;
     }
 
 
@@ -590,22 +974,409 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - relationship to remove
      */
-    synchronized void removeReferenceRelationshipFromStore(String     guid)
+    void removeReferenceRelationshipFromStore(String     guid)
+    {
+        relationshipLock.writeLock().lock();
+
+        try
+        {
+            Relationship  relationship = relationshipStore.remove(guid);
+
+            if (relationship != null)
+            {
+                this.unindexRelationship(relationship);
+                relationshipHistoryStore.remove(guid);
+            }
+        }
+        finally
+        {
+            relationshipLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Add a replaced version of an instance to its history timeline.
+     *
+     * @param historyStore history store for the kind of instance
+     * @param oldVersion version that has been replaced in the active store (may be null)
+     * @param <T> type of instance
+     */
+    private <T extends InstanceHeader> void addToHistory(Map<String, NavigableMap<VersionKey, T>> historyStore,
+                                                         T                                        oldVersion)
+    {
+        if ((oldVersion != null) && (oldVersion.getGUID() != null))
+        {
+            Date versionTime = this.getVersionTime(oldVersion);
+
+            historyStore.computeIfAbsent(oldVersion.getGUID(), key -> new TreeMap<>())
+                        .put(new VersionKey(versionTime == null ? Long.MIN_VALUE : versionTime.getTime(),
+                                            oldVersion.getVersion()),
+                             oldVersion);
+        }
+    }
+
+
+    /**
+     * Return the version of an instance that was current at the asOfTime.  This is the current version if it
+     * was last changed at or before the asOfTime, otherwise it is the latest version in the history timeline
+     * at or before the asOfTime.
+     *
+     * @param currentVersion version in the active store (may be null)
+     * @param history history timeline for the instance (may be null)
+     * @param asOfTime time of interest
+     * @param <T> type of instance
+     * @return version of the instance or null if it did not exist at the asOfTime
+     */
+    private <T extends InstanceHeader> T getVersionAsOfTime(T                           currentVersion,
+                                                            NavigableMap<VersionKey, T> history,
+                                                            Date                        asOfTime)
+    {
+        if (currentVersion != null)
+        {
+            Date versionTime = this.getVersionTime(currentVersion);
+
+            if ((versionTime != null) && (! versionTime.after(asOfTime)))
+            {
+                return currentVersion;
+            }
+        }
+
+        if (history != null)
+        {
+            Map.Entry<VersionKey, T> historicalVersion = history.floorEntry(new VersionKey(asOfTime.getTime(), Long.MAX_VALUE));
+
+            if (historicalVersion != null)
+            {
+                return historicalVersion.getValue();
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the time that a version of an instance became current.
+     *
+     * @param instance version of the instance
+     * @return update time, or create time if never updated (may be null)
+     */
+    private Date getVersionTime(InstanceHeader  instance)
+    {
+        if (instance.getUpdateTime() != null)
+        {
+            return instance.getUpdateTime();
+        }
+
+        return instance.getCreateTime();
+    }
+
+
+    /**
+     * Replace (or add) an entity in the active store, keeping the indexes in step.
+     *
+     * @param entity new version of the entity
+     * @return previous version of the entity or null if it is new
+     */
+    private EntityDetail replaceEntity(EntityDetail    entity)
+    {
+        EntityDetail oldEntity = entityStore.put(entity.getGUID(), entity);
+
+        this.unindexEntity(oldEntity);
+        this.indexEntity(entity);
+
+        return oldEntity;
+    }
+
+
+    /**
+     * Replace (or add) a relationship in the active store, keeping the indexes in step.
+     *
+     * @param relationship new version of the relationship
+     * @return previous version of the relationship or null if it is new
+     */
+    private Relationship replaceRelationship(Relationship    relationship)
+    {
+        Relationship oldRelationship = relationshipStore.put(relationship.getGUID(), relationship);
+
+        this.unindexRelationship(oldRelationship);
+        this.indexRelationship(relationship);
+
+        return oldRelationship;
+    }
+
+
+    /**
+     * Add an entity to the indexes.
+     *
+     * @param entity entity from the active store
+     */
+    private void indexEntity(EntityDetail    entity)
+    {
+        if (entity != null)
+        {
+            entityIndex.addInstance(entity, entity.getProperties(), entity.getClassifications());
+        }
+    }
+
+
+    /**
+     * Remove an entity from the indexes.
+     *
+     * @param entity entity that has been replaced or removed from the active store (may be null)
+     */
+    private void unindexEntity(EntityDetail    entity)
     {
-        Relationship  relationship = relationshipStore.remove(guid);
+        if (entity != null)
+        {
+            entityIndex.removeInstance(entity, entity.getProperties(), entity.getClassifications());
+        }
+    }
+
+
+    /**
+     * Add a relationship to the indexes.
+     *
+     * @param relationship relationship from the active store
+     */
+    private void indexRelationship(Relationship    relationship)
+    {
+        if (relationship != null)
+        {
+            relationshipIndex.addInstance(relationship, relationship.getProperties(), null);
+
+            String relationshipTypeGUID = this.getTypeGUID(relationship);
+
+            for (String entityGUID : this.getEndGUIDs(relationship))
+            {
+                entityRelationshipIndex.computeIfAbsent(entityGUID, key -> new HashMap<>())
+                                       .computeIfAbsent(relationshipTypeGUID, key -> new HashSet<>()).add(relationship.getGUID());
+            }
+        }
+    }
 
+
+    /**
+     * Remove a relationship from the indexes.
+     *
+     * @param relationship relationship that has been replaced or removed from the active store (may be null)
+     */
+    private void unindexRelationship(Relationship    relationship)
+    {
         if (relationship != null)
         {
-            List<Relationship> purgedHistory = new ArrayList<>();
-            for (Relationship history : relationshipHistoryStore)
+            relationshipIndex.removeInstance(relationship, relationship.getProperties(), null);
+
+            String relationshipTypeGUID = this.getTypeGUID(relationship);
+
+            for (String entityGUID : this.getEndGUIDs(relationship))
+            {
+                Map<String, Set<String>> relationshipGUIDsByType = entityRelationshipIndex.get(entityGUID);
+
+                if (relationshipGUIDsByType != null)
+                {
+                    Set<String> relationshipGUIDs = relationshipGUIDsByType.get(relationshipTypeGUID);
+
+                    if (relationshipGUIDs != null)
+                    {
+                        relationshipGUIDs.remove(relationship.getGUID());
+
+                        if (relationshipGUIDs.isEmpty())
+                        {
+                            relationshipGUIDsByType.remove(relationshipTypeGUID);
+                        }
+                    }
+
+                    if (relationshipGUIDsByType.isEmpty())
+                    {
+                        entityRelationshipIndex.remove(entityGUID);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the GUIDs of the entities at each end of a relationship.
+     *
+     * @param relationship relationship to query
+     * @return list of entity GUIDs
+     */
+    private List<String> getEndGUIDs(Relationship    relationship)
+    {
+        List<String> endGUIDs = new ArrayList<>();
+
+        if ((relationship.getEntityOneProxy() != null) && (relationship.getEntityOneProxy().getGUID() != null))
+        {
+            endGUIDs.add(relationship.getEntityOneProxy().getGUID());
+        }
+
+        if ((relationship.getEntityTwoProxy() != null) && (relationship.getEntityTwoProxy().getGUID() != null))
+        {
+            endGUIDs.add(relationship.getEntityTwoProxy().getGUID());
+        }
+
+        return endGUIDs;
+    }
+
+
+    /**
+     * Return the GUID of the relationship's type.  This is used as the bucket key in the adjacency index.
+     *
+     * @param relationship relationship to query
+     * @return type GUID (or an empty string if the type is missing)
+     */
+    private String getTypeGUID(Relationship    relationship)
+    {
+        if ((relationship.getType() != null) && (relationship.getType().getTypeDefGUID() != null))
+        {
+            return relationship.getType().getTypeDefGUID();
+        }
+
+        return "";
+    }
+
+
+    /**
+     * Add the relationships identified by the supplied GUIDs to the list.
+     *
+     * @param relationshipGUIDs GUIDs of relationships (may be null)
+     * @param relationships list to add to
+     */
+    private void addRelationships(Set<String>        relationshipGUIDs,
+                                  List<Relationship> relationships)
+    {
+        if (relationshipGUIDs != null)
+        {
+            for (String relationshipGUID : relationshipGUIDs)
             {
-                if (history != null && !guid.equals(history.getGUID()))
+                Relationship relationship = relationshipStore.get(relationshipGUID);
+
+                if (relationship != null)
                 {
-                    purgedHistory.add(history);
+                    relationships.add(relationship);
                 }
             }
-            relationshipHistoryStore = purgedHistory;
         }
     }
 
+
+    /**
+     * Return the GUIDs that are present in every one of the supplied index results.  The smallest set
+     * drives the intersection.
+     *
+     * @param restrictions list of sets of GUIDs from the indexes
+     * @return list of GUIDs
+     */
+    private List<String> intersectRestrictions(List<Set<String>> restrictions)
+    {
+        restrictions.sort(Comparator.comparingInt(Set::size));
+
+        List<String> results  = new ArrayList<>();
+        Set<String>  smallest = restrictions.get(0);
+
+        for (String guid : smallest)
+        {
+            boolean inAll = true;
+
+            for (Set<String> restriction : restrictions)
+            {
+                if ((restriction != smallest) && (! restriction.contains(guid)))
+                {
+                    inAll = false;
+                    break;
+                }
+            }
+
+            if (inAll)
+            {
+                results.add(guid);
+            }
+        }
+
+        return results;
+    }
+
+
+    /**
+     * VersionKey orders the versions in a history timeline by the time that they became current and then by
+     * their version number.
+     */
+    private static class VersionKey implements Comparable<VersionKey>
+    {
+        private final long versionTime;
+        private final long version;
+
+
+        /**
+         * Constructor.
+         *
+         * @param versionTime time that the version became current (Long.MIN_VALUE if not known)
+         * @param version version number
+         */
+        VersionKey(long versionTime,
+                   long version)
+        {
+            this.versionTime = versionTime;
+            this.version = version;
+        }
+
+
+        /**
+         * Order by time and then by version number.
+         *
+         * @param other key to compare with
+         * @return negative, zero or positive as this key is before, equal to or after the other key
+         */
+        @Override
+        public int compareTo(VersionKey other)
+        {
+            int result = Long.compare(versionTime, other.versionTime);
+
+            if (result == 0)
+            {
+                result = Long.compare(version, other.version);
+            }
+
+            return result;
+        }
+
+
+        /**
+         * Compare the values of the supplied object with those stored in the current object.
+         *
+         * @param objectToCompare supplied object
+         * @return boolean result of comparison
+         */
+        @Override
+        public boolean equals(Object objectToCompare)
+        {
+            if (this == objectToCompare)
+            {
+                return true;
+            }
+            if (! (objectToCompare instanceof VersionKey))
+            {
+                return false;
+            }
+
+            VersionKey that = (VersionKey) objectToCompare;
+
+            return (versionTime == that.versionTime) && (version == that.version);
+        }
+
+
+        /**
+         * Return a hash code based on the values of this object.
+         *
+         * @return int hash code
+         */
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(versionTime, version);
+        }
+    }
 }
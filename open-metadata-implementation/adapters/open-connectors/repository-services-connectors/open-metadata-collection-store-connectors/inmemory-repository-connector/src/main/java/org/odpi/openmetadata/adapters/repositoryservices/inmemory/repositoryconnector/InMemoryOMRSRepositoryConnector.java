@@ -5,6 +5,8 @@ package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositorycon
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 
+import java.util.Map;
+
 /**
  * The InMemoryOMRSRepositoryConnector is a connector to a local in memory repository.  It is used for test,
  * small scale fixed or temporary repositories where the initial content comes from open metadata archives and
@@ -38,11 +40,57 @@ public class InMemoryOMRSRepositoryConnector extends OMRSRepositoryConnector
             /*
              * Initialize the metadata collection only once the connector is properly set up.
              */
-            super.metadataCollection = new InMemoryOMRSMetadataCollection(this,
-                                                                          super.serverName,
-                                                                          repositoryHelper,
-                                                                          repositoryValidator,
-                                                                          metadataCollectionId);
+            InMemoryOMRSMetadataCollection inMemoryMetadataCollection = new InMemoryOMRSMetadataCollection(this,
+                                                                                                           super.serverName,
+                                                                                                           repositoryHelper,
+                                                                                                           repositoryValidator,
+                                                                                                           metadataCollectionId);
+
+            inMemoryMetadataCollection.setReferenceCopyBatchSize(this.getReferenceCopyBatchSize());
+
+            super.metadataCollection = inMemoryMetadataCollection;
+        }
+    }
+
+
+    /**
+     * Extract the batch size for saving reference copies from the configuration properties of the connection.
+     * The default is used if the property is not set or is not a number.
+     *
+     * @return batch size
+     */
+    private int getReferenceCopyBatchSize()
+    {
+        final String propertyName = InMemoryOMRSRepositoryConnectorProvider.referenceCopyBatchSizeProperty;
+
+        if (connectionBean != null)
+        {
+            Map<String, Object> configurationProperties = connectionBean.getConfigurationProperties();
+
+            if (configurationProperties != null)
+            {
+                Object propertyValue = configurationProperties.get(propertyName);
+
+                if (propertyValue instanceof Number)
+                {
+                    return ((Number) propertyValue).intValue();
+                }
+                else if (propertyValue != null)
+                {
+                    try
+                    {
+                        return Integer.parseInt(propertyValue.toString());
+                    }
+                    catch (NumberFormatException error)
+                    {
+                        /*
+                         * Use the default.
+                         */
+                    }
+                }
+            }
         }
+
+        return InMemoryOMRSRepositoryConnectorProvider.defaultReferenceCopyBatchSize;
     }
 }
\ No newline at end of file
@@ -7,6 +7,9 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorTyp
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnectorProviderBase;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * In the Open Connector Framework (OCF), a ConnectorProvider is a factory for a specific type of connector.
  * The InMemoryOMRSRepositoryConnectorProvider is the connector provider for the InMemoryOMRSRepositoryConnector.
@@ -23,6 +26,14 @@ public class InMemoryOMRSRepositoryConnectorProvider extends OMRSRepositoryConne
     static final String  connectorTypeName = "OMRS In Memory Repository Connector";
     static final String  connectorTypeDescription = "OMRS Repository Connector that uses an in-memory store.";
 
+    /**
+     * Maximum number of reference copies saved under one acquisition of the store's locks when a batch of
+     * instances is saved with saveInstanceReferenceCopies.
+     */
+    public static final String referenceCopyBatchSizeProperty = "referenceCopyBatchSize";
+
+    static final int     defaultReferenceCopyBatchSize = 1000;
+
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -42,6 +53,11 @@ public class InMemoryOMRSRepositoryConnectorProvider extends OMRSRepositoryConne
         connectorType.setDescription(connectorTypeDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
 
+        List<String> recognizedConfigurationProperties = new ArrayList<>();
+        recognizedConfigurationProperties.add(referenceCopyBatchSizeProperty);
+
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
+
         super.connectorTypeBean = connectorType;
         super.setConnectorComponentDescription(OMRSAuditingComponent.INMEM_REPOSITORY_CONNECTOR);
     }
@@ -0,0 +1,186 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InMemoryOMRSMetadataStoreBenchmark measures the throughput of a mixed read/write workload against the
+ * InMemoryOMRSMetadataStore as the number of threads increases.  It is not run as part of the unit tests.
+ * Run the main method (with the test classpath) to execute the benchmark at 1, 2, 4, 8, 16 and 32 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryOMRSMetadataStoreBenchmark
+{
+    private static final String REFERENCEABLE_GUID = "referenceable-guid";
+    private static final String RELATIONSHIP_GUID  = "relationship-type-guid";
+    private static final int    TYPE_COUNT         = 10;
+
+    @Param({"10000"})
+    public int entityCount;
+
+    @Param({"10"})
+    public int writePercentage;
+
+    private InMemoryOMRSMetadataStore store;
+
+
+    /**
+     * Load the store with entities spread over a number of types and a chain of relationships between them.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        store = new InMemoryOMRSMetadataStore();
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            store.createEntityInStore(getEntity(i, 1L));
+        }
+
+        for (int i = 0; i < entityCount - 1; i++)
+        {
+            store.createRelationshipInStore(getRelationship(i));
+        }
+    }
+
+
+    /**
+     * Mixed workload: most operations are a lookup by GUID, an indexed search or a neighbourhood query; the
+     * remainder update a random entity.
+     *
+     * @param blackhole sink for the results
+     */
+    @Benchmark
+    public void mixedReadWrite(Blackhole blackhole)
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int               index  = random.nextInt(entityCount);
+
+        if (random.nextInt(100) < writePercentage)
+        {
+            store.updateEntityInStore(getEntity(index, random.nextLong(2L, Long.MAX_VALUE)));
+            return;
+        }
+
+        switch (random.nextInt(3))
+        {
+            case 0:
+                blackhole.consume(store.getEntity(getEntityGUID(index)));
+                break;
+
+            case 1:
+                blackhole.consume(store.getCandidateEntities(getTypeGUID(index),
+                                                             null,
+                                                             null,
+                                                             null,
+                                                             Collections.singletonMap("qualifiedName", getQualifiedName(index))));
+                break;
+
+            default:
+                blackhole.consume(store.getRelationshipsForEntity(getEntityGUID(index), null));
+                break;
+        }
+    }
+
+
+    /**
+     * Run the benchmark at increasing thread counts.
+     *
+     * @param args ignored
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32})
+        {
+            Options options = new OptionsBuilder().include(InMemoryOMRSMetadataStoreBenchmark.class.getSimpleName())
+                                                  .threads(threads)
+                                                  .build();
+
+            new Runner(options).run();
+        }
+    }
+
+
+    private EntityDetail getEntity(int  index,
+                                   long version)
+    {
+        EntityDetail entity    = new EntityDetail();
+        InstanceType type      = new InstanceType();
+        TypeDefLink  superType = new TypeDefLink();
+
+        superType.setGUID(REFERENCEABLE_GUID);
+        type.setTypeDefGUID(getTypeGUID(index));
+        type.setTypeDefSuperTypes(Collections.singletonList(superType));
+
+        PrimitivePropertyValue value = new PrimitivePropertyValue();
+        value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        value.setPrimitiveValue(getQualifiedName(index));
+
+        InstanceProperties properties = new InstanceProperties();
+        properties.setProperty("qualifiedName", value);
+
+        entity.setGUID(getEntityGUID(index));
+        entity.setType(type);
+        entity.setVersion(version);
+        entity.setProperties(properties);
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(int index)
+    {
+        Relationship relationship = new Relationship();
+        InstanceType type         = new InstanceType();
+        EntityProxy  entityOne    = new EntityProxy();
+        EntityProxy  entityTwo    = new EntityProxy();
+
+        type.setTypeDefGUID(RELATIONSHIP_GUID);
+        entityOne.setGUID(getEntityGUID(index));
+        entityTwo.setGUID(getEntityGUID(index + 1));
+
+        relationship.setGUID("relationship-" + index);
+        relationship.setType(type);
+        relationship.setEntityOneProxy(entityOne);
+        relationship.setEntityTwoProxy(entityTwo);
+
+        return relationship;
+    }
+
+
+    private String getEntityGUID(int index)
+    {
+        return "entity-" + index;
+    }
+
+
+    private String getTypeGUID(int index)
+    {
+        return "type-" + (index % TYPE_COUNT);
+    }
+
+
+    private String getQualifiedName(int index)
+    {
+        return "qualifiedName-" + index;
+    }
+}
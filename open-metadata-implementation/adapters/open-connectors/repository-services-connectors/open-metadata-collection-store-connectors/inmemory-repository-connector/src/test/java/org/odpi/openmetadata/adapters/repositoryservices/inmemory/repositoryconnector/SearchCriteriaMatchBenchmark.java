@@ -0,0 +1,166 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRegexMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * SearchCriteriaMatchBenchmark measures the time taken to test the qualifiedName of a large number of
+ * synthetic entities against a search regular expression, comparing String.matches (which compiles the
+ * regular expression for every entity) with an OMRSRegexMatcher compiled once for the search.
+ * It is not run as part of the unit tests.  Run the main method (with the test classpath) to execute it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchCriteriaMatchBenchmark
+{
+    @Param({"1000000"})
+    public int entityCount;
+
+    @Param({"exact", "startsWith", "contains", "caseInsensitiveContains", "regex"})
+    public String searchType;
+
+    private List<EntityDetail> entities;
+    private String             searchCriteria;
+
+
+    /**
+     * Create the entities and the search criteria.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        entities = new ArrayList<>(entityCount);
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            entities.add(getEntity(i));
+        }
+
+        String searchString = "qualifiedName-" + (entityCount / 2);
+
+        switch (searchType)
+        {
+            case "exact":
+                searchCriteria = Pattern.quote(searchString);
+                break;
+
+            case "startsWith":
+                searchCriteria = Pattern.quote(searchString) + ".*";
+                break;
+
+            case "contains":
+                searchCriteria = ".*" + Pattern.quote(searchString) + ".*";
+                break;
+
+            case "caseInsensitiveContains":
+                searchCriteria = "(?i).*" + Pattern.quote(searchString.toUpperCase()) + ".*";
+                break;
+
+            default:
+                searchCriteria = "qualifiedName-[0-9]*5";
+                break;
+        }
+    }
+
+
+    /**
+     * Test each entity with String.matches.
+     *
+     * @return number of matching entities
+     */
+    @Benchmark
+    public int stringMatches()
+    {
+        int matchCount = 0;
+
+        for (EntityDetail entity : entities)
+        {
+            if (getQualifiedName(entity).matches(searchCriteria))
+            {
+                matchCount++;
+            }
+        }
+
+        return matchCount;
+    }
+
+
+    /**
+     * Test each entity with a matcher compiled once for the search.
+     *
+     * @return number of matching entities
+     */
+    @Benchmark
+    public int compiledMatcher()
+    {
+        OMRSRegexMatcher searchMatcher = OMRSRegexMatcher.getMatcher(searchCriteria);
+        int              matchCount    = 0;
+
+        for (EntityDetail entity : entities)
+        {
+            if (searchMatcher.matches(getQualifiedName(entity)))
+            {
+                matchCount++;
+            }
+        }
+
+        return matchCount;
+    }
+
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args ignored
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder().include(SearchCriteriaMatchBenchmark.class.getSimpleName())
+                                              .build();
+
+        new Runner(options).run();
+    }
+
+
+    private String getQualifiedName(EntityDetail entity)
+    {
+        PrimitivePropertyValue value = (PrimitivePropertyValue) entity.getProperties().getPropertyValue("qualifiedName");
+
+        return (String) value.getPrimitiveValue();
+    }
+
+
+    private EntityDetail getEntity(int index)
+    {
+        EntityDetail           entity     = new EntityDetail();
+        InstanceProperties     properties = new InstanceProperties();
+        PrimitivePropertyValue value      = new PrimitivePropertyValue();
+
+        value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        value.setPrimitiveValue("qualifiedName-" + index);
+        properties.setProperty("qualifiedName", value);
+
+        entity.setGUID("entity-" + index);
+        entity.setProperties(properties);
+
+        return entity;
+    }
+}
@@ -0,0 +1,305 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.testng.annotations.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestInMemoryOMRSMetadataStore
+{
+    private static final String REFERENCEABLE_GUID = "referenceable-guid";
+    private static final String ASSET_GUID         = "asset-guid";
+    private static final String GLOSSARY_GUID      = "glossary-guid";
+    private static final String RELATIONSHIP_GUID  = "relationship-type-guid";
+
+    @Test
+    void testTypeIndexIncludesSuperTypes()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        store.createEntityInStore(getEntity("1111", ASSET_GUID, "asset1", null));
+        store.createEntityInStore(getEntity("2222", GLOSSARY_GUID, "glossary1", null));
+
+        assertEquals(getGUIDs(store.getCandidateEntities(ASSET_GUID, null, null, null, null)), Collections.singleton("1111"));
+        assertEquals(getGUIDs(store.getCandidateEntities(REFERENCEABLE_GUID, null, null, null, null)),
+                     new HashSet<>(Arrays.asList("1111", "2222")));
+        assertEquals(getGUIDs(store.getCandidateEntities(null, null, null, null, null)),
+                     new HashSet<>(Arrays.asList("1111", "2222")));
+    }
+
+
+    @Test
+    void testIndexesFollowUpdates()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        store.createEntityInStore(getEntity("1111", ASSET_GUID, "asset1", null));
+
+        EntityDetail updatedEntity = getEntity("1111", ASSET_GUID, "asset2", "Confidentiality");
+        store.updateEntityInStore(updatedEntity);
+
+        assertTrue(store.getCandidateEntities(null, null, null, null, Collections.singletonMap("qualifiedName", "asset1")).isEmpty());
+        assertEquals(getGUIDs(store.getCandidateEntities(null, null, null, null, Collections.singletonMap("qualifiedName", "asset2"))),
+                     Collections.singleton("1111"));
+        assertEquals(getGUIDs(store.getCandidateEntities(null, null, null, Collections.singletonList("Confidentiality"), null)),
+                     Collections.singleton("1111"));
+
+        store.removeEntityFromStore(updatedEntity);
+
+        assertTrue(store.getCandidateEntities(ASSET_GUID, null, null, null, null).isEmpty());
+        assertTrue(store.getCandidateEntities(null, null, Collections.singletonList("Confidentiality"), null, null).isEmpty());
+    }
+
+
+    @Test
+    void testRelationshipEndIndex()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        store.createRelationshipInStore(getRelationship("3333", "1111", "2222"));
+        store.createRelationshipInStore(getRelationship("4444", "2222", "5555"));
+
+        assertEquals(store.getRelationshipsForEntity("1111", null).size(), 1);
+        assertEquals(store.getRelationshipsForEntity("2222", null).size(), 2);
+        assertEquals(store.getRelationshipsForEntity("2222", RELATIONSHIP_GUID).size(), 2);
+        assertTrue(store.getRelationshipsForEntity("2222", "other-type-guid").isEmpty());
+        assertEquals(store.getRelationshipGUIDsForEntity("2222"), new HashSet<>(Arrays.asList("3333", "4444")));
+        assertEquals(getGUIDs(store.getCandidateRelationships(RELATIONSHIP_GUID, null, null)),
+                     new HashSet<>(Arrays.asList("3333", "4444")));
+
+        store.removeReferenceRelationshipFromStore("3333");
+
+        assertTrue(store.getRelationshipsForEntity("1111", null).isEmpty());
+        assertEquals(store.getRelationshipsForEntity("2222", null).size(), 1);
+    }
+
+
+    @Test
+    void testReferenceCopyBatches()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+        EntityProxy               proxy = new EntityProxy();
+
+        proxy.setGUID("1111");
+        store.addEntityProxyToStore(proxy);
+
+        store.saveReferenceEntitiesToStore(Arrays.asList(getEntity("1111", ASSET_GUID, "asset1", null),
+                                                         getEntity("2222", GLOSSARY_GUID, "glossary1", null)));
+
+        assertNull(store.getEntityProxy("1111"));
+        assertEquals(getGUIDs(store.getCandidateEntities(REFERENCEABLE_GUID, null, null, null, null)),
+                     new HashSet<>(Arrays.asList("1111", "2222")));
+
+        store.saveReferenceRelationshipsToStore(Arrays.asList(getRelationship("3333", "1111", "5555"),
+                                                              getRelationship("4444", "2222", "5555")));
+
+        assertEquals(store.getEntityProxy("5555").getGUID(), "5555");
+        assertEquals(store.getRelationshipGUIDsForEntity("5555"), new HashSet<>(Arrays.asList("3333", "4444")));
+        assertEquals(store.getRelationshipsForEntity("1111", RELATIONSHIP_GUID).size(), 1);
+    }
+
+
+    @Test
+    void testHistoryTimeline()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        EntityDetail version1 = getEntity("1111", ASSET_GUID, "asset1", null);
+        version1.setVersion(1L);
+        version1.setCreateTime(new Date(1000L));
+        store.createEntityInStore(version1);
+
+        EntityDetail version2 = getEntity("1111", ASSET_GUID, "asset2", null);
+        version2.setVersion(2L);
+        version2.setCreateTime(new Date(1000L));
+        version2.setUpdateTime(new Date(2000L));
+        store.updateEntityInStore(version2);
+
+        EntityDetail version3 = getEntity("1111", ASSET_GUID, "asset3", null);
+        version3.setVersion(3L);
+        version3.setCreateTime(new Date(1000L));
+        version3.setUpdateTime(new Date(3000L));
+        store.updateEntityInStore(version3);
+
+        assertNull(store.getEntity("1111", new Date(500L)));
+        assertEquals(store.getEntity("1111", new Date(1500L)).getVersion(), 1L);
+        assertEquals(store.getEntity("1111", new Date(2000L)).getVersion(), 2L);
+        assertEquals(store.getEntity("1111", new Date(5000L)).getVersion(), 3L);
+        assertEquals(store.timeWarpEntityStore(new Date(2500L)).get("1111").getVersion(), 2L);
+        assertTrue(store.timeWarpEntityStore(new Date(500L)).isEmpty());
+
+        EntityDetail restored = store.retrievePreviousVersionOfEntity("1111");
+
+        assertEquals(restored.getVersion(), 4L);
+        assertEquals(restored.getProperties(), version2.getProperties());
+        assertEquals(store.getEntity("1111").getVersion(), 4L);
+        assertEquals(store.getEntity("1111", new Date(3500L)).getVersion(), 3L);
+
+        store.removeEntityFromStore(restored);
+
+        assertNull(store.retrievePreviousVersionOfEntity("1111"));
+    }
+
+
+    @Test
+    void testHistoryKeepsVersionsWithSameTime()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        EntityDetail version1 = getEntity("1111", ASSET_GUID, "asset1", null);
+        version1.setVersion(1L);
+        store.createEntityInStore(version1);
+
+        EntityDetail version2 = getEntity("1111", ASSET_GUID, "asset2", null);
+        version2.setVersion(2L);
+        store.updateEntityInStore(version2);
+
+        EntityDetail version3 = getEntity("1111", ASSET_GUID, "asset3", null);
+        version3.setVersion(3L);
+        version3.setUpdateTime(new Date(1000L));
+        store.updateEntityInStore(version3);
+
+        EntityDetail version4 = getEntity("1111", ASSET_GUID, "asset4", null);
+        version4.setVersion(4L);
+        version4.setUpdateTime(new Date(1000L));
+        store.updateEntityInStore(version4);
+
+        EntityDetail version5 = getEntity("1111", ASSET_GUID, "asset5", null);
+        version5.setVersion(5L);
+        version5.setUpdateTime(new Date(2000L));
+        store.updateEntityInStore(version5);
+
+        List<Long> versions = new ArrayList<>();
+        for (EntityDetail version : store.getEntityHistory("1111"))
+        {
+            versions.add(version.getVersion());
+        }
+
+        assertEquals(versions, Arrays.asList(1L, 2L, 3L, 4L));
+        assertEquals(store.getEntity("1111", new Date(1500L)).getVersion(), 4L);
+        assertEquals(store.getEntity("1111", new Date(500L)).getVersion(), 2L);
+    }
+
+
+    @Test
+    void testConcurrentUpdates() throws Exception
+    {
+        InMemoryOMRSMetadataStore store   = new InMemoryOMRSMetadataStore();
+        ExecutorService           workers = Executors.newFixedThreadPool(8);
+        List<Future<?>>           results = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++)
+        {
+            final String prefix = "thread" + thread + "-";
+
+            results.add(workers.submit(() ->
+            {
+                for (int i = 0; i < 200; i++)
+                {
+                    store.createEntityInStore(getEntity(prefix + i, ASSET_GUID, prefix + i, null));
+                    store.updateEntityInStore(getEntity(prefix + i, ASSET_GUID, prefix + "updated" + i, null));
+                    store.createRelationshipInStore(getRelationship(prefix + "relationship" + i, prefix + i, "hub"));
+                    store.getCandidateEntities(ASSET_GUID, null, null, null, null);
+                    store.getRelationshipsForEntity("hub", null);
+                }
+            }));
+        }
+
+        for (Future<?> result : results)
+        {
+            result.get(60, TimeUnit.SECONDS);
+        }
+
+        workers.shutdown();
+
+        assertEquals(store.getEntities().size(), 1600);
+        assertEquals(store.getCandidateEntities(ASSET_GUID, null, null, null, null).size(), 1600);
+        assertTrue(store.getCandidateEntities(null, null, null, null, Collections.singletonMap("qualifiedName", "thread3-7")).isEmpty());
+        assertEquals(getGUIDs(store.getCandidateEntities(null, null, null, null, Collections.singletonMap("qualifiedName", "thread3-updated7"))),
+                     Collections.singleton("thread3-7"));
+        assertEquals(store.getRelationshipsForEntity("hub", null).size(), 1600);
+    }
+
+
+    private EntityDetail getEntity(String guid,
+                                   String typeGUID,
+                                   String qualifiedName,
+                                   String classificationName)
+    {
+        EntityDetail entity = new EntityDetail();
+        InstanceType type   = new InstanceType();
+        TypeDefLink  superType = new TypeDefLink();
+
+        superType.setGUID(REFERENCEABLE_GUID);
+        type.setTypeDefGUID(typeGUID);
+        type.setTypeDefSuperTypes(Collections.singletonList(superType));
+
+        PrimitivePropertyValue value = new PrimitivePropertyValue();
+        value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        value.setPrimitiveValue(qualifiedName);
+
+        InstanceProperties properties = new InstanceProperties();
+        properties.setProperty("qualifiedName", value);
+
+        entity.setGUID(guid);
+        entity.setType(type);
+        entity.setProperties(properties);
+
+        if (classificationName != null)
+        {
+            Classification classification = new Classification();
+            classification.setName(classificationName);
+            entity.setClassifications(Collections.singletonList(classification));
+        }
+
+        return entity;
+    }
+
+
+    private Relationship getRelationship(String guid,
+                                         String entityOneGUID,
+                                         String entityTwoGUID)
+    {
+        Relationship relationship = new Relationship();
+        InstanceType type         = new InstanceType();
+        EntityProxy  entityOne    = new EntityProxy();
+        EntityProxy  entityTwo    = new EntityProxy();
+
+        type.setTypeDefGUID(RELATIONSHIP_GUID);
+        entityOne.setGUID(entityOneGUID);
+        entityTwo.setGUID(entityTwoGUID);
+
+        relationship.setGUID(guid);
+        relationship.setType(type);
+        relationship.setEntityOneProxy(entityOne);
+        relationship.setEntityTwoProxy(entityTwo);
+
+        return relationship;
+    }
+
+
+    private Set<String> getGUIDs(List<? extends InstanceHeader> instances)
+    {
+        Set<String> guids = new HashSet<>();
+
+        for (InstanceHeader instance : instances)
+        {
+            guids.add(instance.getGUID());
+        }
+
+        return guids;
+    }
+}
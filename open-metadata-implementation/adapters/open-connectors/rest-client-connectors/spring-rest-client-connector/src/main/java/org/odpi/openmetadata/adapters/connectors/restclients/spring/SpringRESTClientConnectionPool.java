@@ -0,0 +1,257 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.restclients.spring;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * SpringRESTClientConnectionPool holds a pool of persistent HTTP connections that is shared by all of the
+ * SpringRESTClientConnectors in the process that have the same pool settings.  Each OMAS client, view service and
+ * REST repository connector creates its own connector, so sharing the pool means connections (and their TLS sessions)
+ * to a server platform are reused across all of them rather than opened for each call.
+ *
+ * The TLS settings are taken from the defaults of HttpsURLConnection when the pool is created, so a platform
+ * started with strict.ssl=false accepts the same certificates as it did with the JDK transport.  The proxy
+ * settings (http.proxyHost, https.proxyHost, http.nonProxyHosts etc) are also taken from the system properties,
+ * as they are by the JDK transport.
+ *
+ * Each pool counts the connectors using it and is closed when the last of them disconnects.
+ */
+class SpringRESTClientConnectionPool
+{
+    private static final Logger log = LoggerFactory.getLogger(SpringRESTClientConnectionPool.class);
+
+    /*
+     * Pools are shared by all connectors with the same settings.  A pool is removed when its last connector
+     * disconnects.
+     */
+    private static final Map<String, SpringRESTClientConnectionPool> connectionPools = new HashMap<>();
+
+    private final String                             poolName;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient                httpClient;
+    private final ClientHttpRequestFactory           requestFactory;
+
+    private int                                      connectorCount = 0;
+
+
+    /**
+     * Create a new pool.
+     *
+     * @param poolName name of the pool made from its settings
+     * @param maxConnections maximum open connections
+     * @param maxConnectionsPerRoute maximum open connections to one server platform
+     * @param connectTimeout connect timeout in milliseconds
+     * @param readTimeout read timeout in milliseconds
+     * @param connectionRequestTimeout time to wait for a connection from the pool in milliseconds
+     * @param idleConnectionTimeout time in seconds before an idle connection is closed
+     * @param compression request compressed responses
+     */
+    private SpringRESTClientConnectionPool(String  poolName,
+                                           int     maxConnections,
+                                           int     maxConnectionsPerRoute,
+                                           int     connectTimeout,
+                                           int     readTimeout,
+                                           int     connectionRequestTimeout,
+                                           int     idleConnectionTimeout,
+                                           boolean compression)
+    {
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                                                                                 .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                                                                                 .register("https", getSSLSocketFactory())
+                                                                                 .build();
+
+        this.poolName          = poolName;
+        this.connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout(connectTimeout)
+                                                   .setSocketTimeout(readTimeout)
+                                                   .setConnectionRequestTimeout(connectionRequestTimeout)
+                                                   .build();
+
+        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+                                                               .setConnectionManager(connectionManager)
+                                                               .setDefaultRequestConfig(requestConfig)
+                                                               .evictExpiredConnections()
+                                                               .evictIdleConnections(idleConnectionTimeout, TimeUnit.SECONDS)
+                                                               .disableCookieManagement()
+                                                               .useSystemProperties();
+
+        if (! compression)
+        {
+            httpClientBuilder.disableContentCompression();
+        }
+
+        this.httpClient     = httpClientBuilder.build();
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+
+        log.debug("Created REST client connection pool " + poolName);
+    }
+
+
+    /**
+     * Return the pool for the requested settings, creating it if this is the first connector to use them.
+     * Each call must be matched by a call to releaseConnectionPool when the connector disconnects.
+     *
+     * @param maxConnections maximum open connections
+     * @param maxConnectionsPerRoute maximum open connections to one server platform
+     * @param connectTimeout connect timeout in milliseconds
+     * @param readTimeout read timeout in milliseconds
+     * @param connectionRequestTimeout time to wait for a connection from the pool in milliseconds
+     * @param idleConnectionTimeout time in seconds before an idle connection is closed
+     * @param compression request compressed responses
+     * @return shared pool
+     */
+    static synchronized SpringRESTClientConnectionPool getConnectionPool(int     maxConnections,
+                                                                         int     maxConnectionsPerRoute,
+                                                                         int     connectTimeout,
+                                                                         int     readTimeout,
+                                                                         int     connectionRequestTimeout,
+                                                                         int     idleConnectionTimeout,
+                                                                         boolean compression)
+    {
+        String poolName = maxConnections + "/" + maxConnectionsPerRoute + "/" + connectTimeout + "/" + readTimeout + "/" +
+                                  connectionRequestTimeout + "/" + idleConnectionTimeout + "/" + compression;
+
+        SpringRESTClientConnectionPool connectionPool = connectionPools.get(poolName);
+
+        if (connectionPool == null)
+        {
+            connectionPool = new SpringRESTClientConnectionPool(poolName,
+                                                                maxConnections,
+                                                                maxConnectionsPerRoute,
+                                                                connectTimeout,
+                                                                readTimeout,
+                                                                connectionRequestTimeout,
+                                                                idleConnectionTimeout,
+                                                                compression);
+
+            connectionPools.put(poolName, connectionPool);
+        }
+
+        connectionPool.connectorCount++;
+
+        return connectionPool;
+    }
+
+
+    /**
+     * Record that a connector has stopped using a pool.  The pool is closed when no connectors are using it.
+     *
+     * @param connectionPool pool returned by getConnectionPool
+     */
+    static synchronized void releaseConnectionPool(SpringRESTClientConnectionPool connectionPool)
+    {
+        connectionPool.connectorCount--;
+
+        if (connectionPool.connectorCount <= 0)
+        {
+            connectionPools.remove(connectionPool.poolName);
+
+            try
+            {
+                connectionPool.httpClient.close();
+
+                log.debug("Closed REST client connection pool " + connectionPool.poolName);
+            }
+            catch (IOException error)
+            {
+                log.debug("Unable to close REST client connection pool " + connectionPool.poolName, error);
+            }
+        }
+    }
+
+
+    /**
+     * Return whether a pool with the requested name is in use.
+     *
+     * @param poolName name of the pool made from its settings
+     * @return boolean
+     */
+    static synchronized boolean isConnectionPoolInUse(String poolName)
+    {
+        return connectionPools.containsKey(poolName);
+    }
+
+
+    /**
+     * Build the factory for TLS connections from the defaults set on HttpsURLConnection.  The JDK only consults the
+     * default hostname verifier when the standard check fails, so the same is done here.
+     *
+     * @return socket factory
+     */
+    private static SSLConnectionSocketFactory getSSLSocketFactory()
+    {
+        final HostnameVerifier standardVerifier = new DefaultHostnameVerifier();
+        final HostnameVerifier defaultVerifier  = HttpsURLConnection.getDefaultHostnameVerifier();
+
+        HostnameVerifier hostnameVerifier = standardVerifier;
+
+        if ((defaultVerifier != null) && (! defaultVerifier.getClass().getName().startsWith("javax.net.ssl.")))
+        {
+            hostnameVerifier = (hostName, session) -> standardVerifier.verify(hostName, session) || defaultVerifier.verify(hostName, session);
+        }
+
+        return new SSLConnectionSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory(), hostnameVerifier);
+    }
+
+
+    /**
+     * Return the factory that the RestTemplate uses to issue requests through the pool.
+     *
+     * @return request factory
+     */
+    ClientHttpRequestFactory getRequestFactory()
+    {
+        return requestFactory;
+    }
+
+
+    /**
+     * Return the current usage of the pool.
+     *
+     * @return map of statistic name to value
+     */
+    Map<String, Object> getStatistics()
+    {
+        PoolStats           poolStats  = connectionManager.getTotalStats();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+
+        statistics.put("poolName", poolName);
+        statistics.put("maxConnections", poolStats.getMax());
+        statistics.put("leasedConnections", poolStats.getLeased());
+        statistics.put("availableConnections", poolStats.getAvailable());
+        statistics.put("pendingRequests", poolStats.getPending());
+        statistics.put("routes", connectionManager.getRoutes().size());
+
+        return statistics;
+    }
+}
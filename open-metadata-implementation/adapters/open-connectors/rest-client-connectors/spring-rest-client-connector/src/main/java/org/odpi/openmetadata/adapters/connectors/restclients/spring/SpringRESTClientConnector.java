@@ -6,6 +6,7 @@ import org.codehaus.plexus.util.Base64;
 import org.odpi.openmetadata.adapters.connectors.restclients.RESTClientConnector;
 import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.RESTClientConnectorErrorCode;
 import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.exceptions.RESTServerException;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.slf4j.Logger;
@@ -15,6 +16,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
@@ -25,6 +27,7 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -34,10 +37,11 @@ import java.util.List;
  */
 public class SpringRESTClientConnector extends RESTClientConnector
 {
-    private RestTemplate restTemplate;
-    private String       serverName               = null;
-    private String       serverPlatformURLRoot    = null;
-    private HttpHeaders  basicAuthorizationHeader = null;
+    private RestTemplate                   restTemplate;
+    private SpringRESTClientConnectionPool connectionPool           = null;
+    private String                         serverName               = null;
+    private String                         serverPlatformURLRoot    = null;
+    private HttpHeaders                    basicAuthorizationHeader = null;
 
     private static final Logger log = LoggerFactory.getLogger(SpringRESTClientConnector.class);
 
@@ -114,6 +118,176 @@ public class SpringRESTClientConnector extends RESTClientConnector
             log.debug("Using no authentication to call server " + this.serverName + " on platform " + this.serverPlatformURLRoot + ".");
 
         }
+
+        this.setHttpClient(connectionProperties.getConfigurationProperties());
+    }
+
+
+    /**
+     * Select the HTTP transport for the REST template from the configuration properties of the connection.
+     * Unless the JDK transport is requested, calls go through a pool of persistent connections that is shared
+     * with the other connectors in the process that have the same pool settings.
+     *
+     * @param configurationProperties configuration properties from the connection (may be null)
+     */
+    private void setHttpClient(Map<String, Object> configurationProperties)
+    {
+        this.releaseConnectionPool();
+
+        Object httpClient = (configurationProperties == null) ? null : configurationProperties.get(SpringRESTClientConnectorProvider.httpClientProperty);
+
+        if ((httpClient != null) && (SpringRESTClientConnectorProvider.jdkHttpClient.equalsIgnoreCase(httpClient.toString())))
+        {
+            log.debug("Using JDK HTTP client to call server " + this.serverName + " on platform " + this.serverPlatformURLRoot + ".");
+
+            restTemplate.setRequestFactory(new SimpleClientHttpRequestFactory());
+            return;
+        }
+
+        int maxConnections         = this.getIntegerProperty(configurationProperties,
+                                                             SpringRESTClientConnectorProvider.maxConnectionsProperty,
+                                                             SpringRESTClientConnectorProvider.defaultMaxConnections);
+        int maxConnectionsPerRoute = this.getIntegerProperty(configurationProperties,
+                                                             SpringRESTClientConnectorProvider.maxConnectionsPerRouteProperty,
+                                                             maxConnections);
+
+        /*
+         * The per-route limit can not be used beyond the total so the total is raised to match it.
+         */
+        if (maxConnections < maxConnectionsPerRoute)
+        {
+            maxConnections = maxConnectionsPerRoute;
+        }
+
+        connectionPool = SpringRESTClientConnectionPool.getConnectionPool(
+                maxConnections,
+                maxConnectionsPerRoute,
+                this.getIntegerProperty(configurationProperties,
+                                        SpringRESTClientConnectorProvider.connectTimeoutProperty,
+                                        SpringRESTClientConnectorProvider.defaultConnectTimeout),
+                this.getIntegerProperty(configurationProperties,
+                                        SpringRESTClientConnectorProvider.readTimeoutProperty,
+                                        SpringRESTClientConnectorProvider.defaultReadTimeout),
+                this.getIntegerProperty(configurationProperties,
+                                        SpringRESTClientConnectorProvider.connectionRequestTimeoutProperty,
+                                        SpringRESTClientConnectorProvider.defaultConnectionRequestTimeout),
+                this.getIntegerProperty(configurationProperties,
+                                        SpringRESTClientConnectorProvider.idleConnectionTimeoutProperty,
+                                        SpringRESTClientConnectorProvider.defaultIdleConnectionTimeout),
+                this.getBooleanProperty(configurationProperties,
+                                        SpringRESTClientConnectorProvider.compressionProperty,
+                                        true));
+
+        restTemplate.setRequestFactory(connectionPool.getRequestFactory());
+    }
+
+
+    /**
+     * Stop using the shared connection pool so that it can be closed once no connectors are using it.
+     */
+    private synchronized void releaseConnectionPool()
+    {
+        if (connectionPool != null)
+        {
+            SpringRESTClientConnectionPool.releaseConnectionPool(connectionPool);
+
+            connectionPool = null;
+        }
+    }
+
+
+    /**
+     * Free up the connection pool since the connector is no longer needed.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    @Override
+    public void disconnect() throws ConnectorCheckedException
+    {
+        this.releaseConnectionPool();
+
+        super.disconnect();
+    }
+
+
+    /**
+     * Extract a number from the configuration properties.  The default is used if the property is not set or
+     * is not a number.
+     *
+     * @param configurationProperties configuration properties from the connection (may be null)
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
+     */
+    private int getIntegerProperty(Map<String, Object> configurationProperties,
+                                   String              propertyName,
+                                   int                 defaultValue)
+    {
+        if (configurationProperties != null)
+        {
+            Object propertyValue = configurationProperties.get(propertyName);
+
+            if (propertyValue instanceof Number)
+            {
+                return ((Number) propertyValue).intValue();
+            }
+            else if (propertyValue != null)
+            {
+                try
+                {
+                    return Integer.parseInt(propertyValue.toString());
+                }
+                catch (NumberFormatException error)
+                {
+                    log.debug("Ignoring " + propertyName + " value " + propertyValue + " for server " + this.serverName + ".");
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Extract a flag from the configuration properties.  The default is used if the property is not set.
+     *
+     * @param configurationProperties configuration properties from the connection (may be null)
+     * @param propertyName name of the property
+     * @param defaultValue value to use if the property is not set
+     * @return property value
+     */
+    private boolean getBooleanProperty(Map<String, Object> configurationProperties,
+                                       String              propertyName,
+                                       boolean             defaultValue)
+    {
+        if (configurationProperties != null)
+        {
+            Object propertyValue = configurationProperties.get(propertyName);
+
+            if (propertyValue != null)
+            {
+                return Boolean.parseBoolean(propertyValue.toString());
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Return the current usage of the connection pool that this connector's calls go through.  The pool is
+     * shared with the other connectors in the process that have the same pool settings.
+     *
+     * @return map of statistic name to value, or null if the JDK transport is in use
+     */
+    public Map<String, Object> getConnectionPoolStatistics()
+    {
+        if (connectionPool == null)
+        {
+            return null;
+        }
+
+        return connectionPool.getStatistics();
     }
 
 
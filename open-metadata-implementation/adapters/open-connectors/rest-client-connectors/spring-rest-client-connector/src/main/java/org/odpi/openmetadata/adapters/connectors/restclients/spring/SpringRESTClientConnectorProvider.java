@@ -6,6 +6,9 @@ import org.odpi.openmetadata.adapters.connectors.restclients.RESTClientConnector
 import org.odpi.openmetadata.frameworks.connectors.ConnectorProviderBase;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * SpringRESTClientConnectorProvider provides the connector provider for the SpringRESTClientConnector.
@@ -16,6 +19,57 @@ public class SpringRESTClientConnectorProvider extends RESTClientConnectorProvid
     static final String  connectorTypeName = "Spring REST Client Connector";
     static final String  connectorTypeDescription = "Connector that calls the REST API of a remote server using Spring.";
 
+    /**
+     * HTTP transport used to issue the calls: "pooled" (the default) uses a shared pool of persistent connections
+     * managed by Apache HttpClient; "jdk" uses a new java.net.HttpURLConnection for each call.
+     */
+    public static final String httpClientProperty = "httpClient";
+
+    /**
+     * Maximum number of open connections in the pool across all of the servers called.
+     */
+    public static final String maxConnectionsProperty = "maxConnections";
+
+    /**
+     * Maximum number of open connections in the pool to a single server platform.  It defaults to the value of
+     * maxConnections so that a server that only calls one platform (the usual case) can use the whole pool.
+     */
+    public static final String maxConnectionsPerRouteProperty = "maxConnectionsPerRoute";
+
+    /**
+     * Time in milliseconds to wait for a connection to the server platform to be established (0 means no limit).
+     */
+    public static final String connectTimeoutProperty = "connectTimeoutMillis";
+
+    /**
+     * Time in milliseconds to wait for data from the server platform once connected (0 means no limit).
+     */
+    public static final String readTimeoutProperty = "readTimeoutMillis";
+
+    /**
+     * Time in milliseconds to wait for a connection from the pool when all are in use (0 means no limit).
+     */
+    public static final String connectionRequestTimeoutProperty = "connectionRequestTimeoutMillis";
+
+    /**
+     * Time in seconds after which idle connections in the pool are closed.
+     */
+    public static final String idleConnectionTimeoutProperty = "idleConnectionTimeoutSeconds";
+
+    /**
+     * Set to false to stop the pooled transport asking for compressed (gzip or deflate) responses.
+     */
+    public static final String compressionProperty = "compression";
+
+    static final String  pooledHttpClient = "pooled";
+    static final String  jdkHttpClient    = "jdk";
+
+    static final int     defaultMaxConnections           = 200;
+    static final int     defaultConnectTimeout           = 30000;
+    static final int     defaultReadTimeout              = 0;
+    static final int     defaultConnectionRequestTimeout = 30000;
+    static final int     defaultIdleConnectionTimeout    = 60;
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * REST Client Connector implementation.
@@ -34,6 +88,18 @@ public class SpringRESTClientConnectorProvider extends RESTClientConnectorProvid
         connectorType.setDescription(connectorTypeDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
 
+        List<String> recognizedConfigurationProperties = new ArrayList<>();
+        recognizedConfigurationProperties.add(httpClientProperty);
+        recognizedConfigurationProperties.add(maxConnectionsProperty);
+        recognizedConfigurationProperties.add(maxConnectionsPerRouteProperty);
+        recognizedConfigurationProperties.add(connectTimeoutProperty);
+        recognizedConfigurationProperties.add(readTimeoutProperty);
+        recognizedConfigurationProperties.add(connectionRequestTimeoutProperty);
+        recognizedConfigurationProperties.add(idleConnectionTimeoutProperty);
+        recognizedConfigurationProperties.add(compressionProperty);
+
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
+
         super.connectorTypeBean = connectorType;
     }
 }
@@ -0,0 +1,230 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.restclients.spring;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.odpi.openmetadata.adapters.connectors.restclients.RESTClientConnector;
+import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.exceptions.RESTServerException;
+import org.odpi.openmetadata.frameworks.connectors.ConnectorBroker;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * SpringRESTClientConnectorBenchmark measures the latency distribution of REST calls through the
+ * SpringRESTClientConnector to an embedded HTTP server, with the JDK transport and with the pooled transport.
+ * The server returns a JSON response similar in size to a page of metadata instances and compresses it when the
+ * client asks.  It is not run as part of the unit tests.  Run the main method (with the test classpath) to execute
+ * the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class SpringRESTClientConnectorBenchmark
+{
+    private static final String URL_TEMPLATE = "/servers/{0}/open-metadata/repository-services/instances";
+
+    @Param({"jdk", "pooled"})
+    public String httpClient;
+
+    @Param({"true", "false"})
+    public boolean compression;
+
+    @Param({"16384"})
+    public int responseSize;
+
+    private HttpServer          server;
+    private ExecutorService     serverExecutor;
+    private RESTClientConnector clientConnector;
+    private String              urlTemplate;
+
+
+    /**
+     * Start the embedded server and create the connector.
+     *
+     * @throws Exception the server or connector could not be started
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        byte[] response           = getResponse(responseSize);
+        byte[] compressedResponse = compress(response);
+
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server         = HttpServer.create(new InetSocketAddress("localhost", 0), 256);
+
+        server.createContext("/servers", exchange -> sendResponse(exchange, response, compressedResponse));
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        Endpoint endpoint = new Endpoint();
+
+        endpoint.setAddress("http://localhost:" + server.getAddress().getPort());
+        endpoint.setDisplayName("benchmarkServer");
+
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.httpClientProperty, httpClient);
+        configurationProperties.put(SpringRESTClientConnectorProvider.compressionProperty, compression);
+
+        Connection connection = new Connection();
+
+        connection.setEndpoint(endpoint);
+        connection.setConnectorType(new SpringRESTClientConnectorProvider().getConnectorType());
+        connection.setConfigurationProperties(configurationProperties);
+
+        clientConnector = (RESTClientConnector) new ConnectorBroker().getConnector(connection);
+        urlTemplate     = endpoint.getAddress() + URL_TEMPLATE;
+    }
+
+
+    /**
+     * Print the pool statistics and stop the embedded server.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        Map<String, Object> statistics = ((SpringRESTClientConnector) clientConnector).getConnectionPoolStatistics();
+
+        if (statistics != null)
+        {
+            System.out.println("Connection pool: " + statistics);
+        }
+
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+
+    /**
+     * Issue a GET call to the embedded server.
+     *
+     * @return response body
+     * @throws RESTServerException the call failed
+     */
+    @Benchmark
+    public String getCall() throws RESTServerException
+    {
+        return clientConnector.callGetRESTCall("getCall", String.class, urlTemplate, "benchmarkServer");
+    }
+
+
+    /**
+     * Send the response, compressed if the client accepts gzip.
+     *
+     * @param exchange HTTP exchange
+     * @param response uncompressed response
+     * @param compressedResponse compressed response
+     * @throws IOException the response could not be sent
+     */
+    private static void sendResponse(HttpExchange exchange,
+                                     byte[]       response,
+                                     byte[]       compressedResponse) throws IOException
+    {
+        List<String> acceptEncoding = exchange.getRequestHeaders().get("Accept-Encoding");
+        byte[]       body           = response;
+
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+
+        if ((acceptEncoding != null) && (acceptEncoding.toString().contains("gzip")))
+        {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            body = compressedResponse;
+        }
+
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream responseBody = exchange.getResponseBody())
+        {
+            responseBody.write(body);
+        }
+    }
+
+
+    /**
+     * Build a JSON response of approximately the requested size.
+     *
+     * @param size size in bytes
+     * @return response
+     */
+    private static byte[] getResponse(int size)
+    {
+        StringBuilder response = new StringBuilder("{\"class\":\"EntityListResponse\",\"relatedHTTPCode\":200,\"entities\":[");
+        int           index    = 0;
+
+        while (response.length() < size)
+        {
+            if (index > 0)
+            {
+                response.append(',');
+            }
+
+            response.append("{\"class\":\"EntityDetail\",\"guid\":\"guid-").append(index)
+                    .append("\",\"status\":\"ACTIVE\",\"properties\":{\"qualifiedName\":\"Benchmark::Entity::").append(index)
+                    .append("\",\"description\":\"Entity returned by the embedded server for the benchmark\"}}");
+            index ++;
+        }
+
+        response.append("]}");
+
+        return response.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Compress a response with gzip.
+     *
+     * @param response uncompressed response
+     * @return compressed response
+     * @throws IOException unexpected error from the compressor
+     */
+    private static byte[] compress(byte[] response) throws IOException
+    {
+        ByteArrayOutputStream compressedResponse = new ByteArrayOutputStream();
+
+        try (GZIPOutputStream compressor = new GZIPOutputStream(compressedResponse))
+        {
+            compressor.write(response);
+        }
+
+        return compressedResponse.toByteArray();
+    }
+
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args ignored
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder().include(SpringRESTClientConnectorBenchmark.class.getSimpleName())
+                                              .build();
+
+        new Runner(options).run();
+    }
+}
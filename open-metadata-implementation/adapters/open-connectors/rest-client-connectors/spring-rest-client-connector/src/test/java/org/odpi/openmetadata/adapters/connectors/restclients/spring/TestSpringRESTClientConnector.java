@@ -0,0 +1,200 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.restclients.spring;
+
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Validate the selection of the HTTP transport from the configuration properties of the connection, and the
+ * sharing and release of the connection pools.
+ */
+public class TestSpringRESTClientConnector
+{
+    @Test
+    void testJDKHttpClient() throws Exception
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.httpClientProperty, "JDK");
+
+        SpringRESTClientConnector connector = getConnector(configurationProperties);
+
+        assertNull(connector.getConnectionPoolStatistics());
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    void testDefaultPooledHttpClient() throws Exception
+    {
+        SpringRESTClientConnector connector  = getConnector(null);
+        Map<String, Object>       statistics = connector.getConnectionPoolStatistics();
+
+        assertNotNull(statistics);
+        assertEquals(statistics.get("poolName"), getPoolName(SpringRESTClientConnectorProvider.defaultMaxConnections,
+                                                             SpringRESTClientConnectorProvider.defaultMaxConnections,
+                                                             SpringRESTClientConnectorProvider.defaultConnectTimeout,
+                                                             SpringRESTClientConnectorProvider.defaultReadTimeout,
+                                                             SpringRESTClientConnectorProvider.defaultConnectionRequestTimeout,
+                                                             SpringRESTClientConnectorProvider.defaultIdleConnectionTimeout,
+                                                             true));
+        assertEquals(statistics.get("maxConnections"), SpringRESTClientConnectorProvider.defaultMaxConnections);
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    void testConfigurationProperties() throws Exception
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.httpClientProperty, SpringRESTClientConnectorProvider.pooledHttpClient);
+        configurationProperties.put(SpringRESTClientConnectorProvider.maxConnectionsProperty, 10);
+        configurationProperties.put(SpringRESTClientConnectorProvider.maxConnectionsPerRouteProperty, "5");
+        configurationProperties.put(SpringRESTClientConnectorProvider.connectTimeoutProperty, 1000L);
+        configurationProperties.put(SpringRESTClientConnectorProvider.readTimeoutProperty, "2000");
+        configurationProperties.put(SpringRESTClientConnectorProvider.connectionRequestTimeoutProperty, "not a number");
+        configurationProperties.put(SpringRESTClientConnectorProvider.idleConnectionTimeoutProperty, 30);
+        configurationProperties.put(SpringRESTClientConnectorProvider.compressionProperty, "false");
+
+        SpringRESTClientConnector connector  = getConnector(configurationProperties);
+        Map<String, Object>       statistics = connector.getConnectionPoolStatistics();
+
+        assertEquals(statistics.get("poolName"), getPoolName(10,
+                                                             5,
+                                                             1000,
+                                                             2000,
+                                                             SpringRESTClientConnectorProvider.defaultConnectionRequestTimeout,
+                                                             30,
+                                                             false));
+        assertEquals(statistics.get("maxConnections"), 10);
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    void testPerRouteLimitRaisesTotal() throws Exception
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.maxConnectionsProperty, 4);
+        configurationProperties.put(SpringRESTClientConnectorProvider.maxConnectionsPerRouteProperty, 8);
+
+        SpringRESTClientConnector connector = getConnector(configurationProperties);
+
+        assertEquals(connector.getConnectionPoolStatistics().get("maxConnections"), 8);
+
+        connector.disconnect();
+    }
+
+
+    @Test
+    void testPoolSharedAndReleased() throws Exception
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.maxConnectionsProperty, 3);
+
+        SpringRESTClientConnector firstConnector  = getConnector(configurationProperties);
+        SpringRESTClientConnector secondConnector = getConnector(configurationProperties);
+        String                    poolName        = firstConnector.getConnectionPoolStatistics().get("poolName").toString();
+
+        assertEquals(secondConnector.getConnectionPoolStatistics().get("poolName"), poolName);
+        assertTrue(SpringRESTClientConnectionPool.isConnectionPoolInUse(poolName));
+
+        firstConnector.disconnect();
+
+        assertNull(firstConnector.getConnectionPoolStatistics());
+        assertTrue(SpringRESTClientConnectionPool.isConnectionPoolInUse(poolName));
+
+        secondConnector.disconnect();
+
+        assertFalse(SpringRESTClientConnectionPool.isConnectionPoolInUse(poolName));
+
+        /*
+         * A connector that starts later gets a new pool.
+         */
+        SpringRESTClientConnector thirdConnector = getConnector(configurationProperties);
+
+        assertTrue(SpringRESTClientConnectionPool.isConnectionPoolInUse(poolName));
+
+        thirdConnector.disconnect();
+
+        assertFalse(SpringRESTClientConnectionPool.isConnectionPoolInUse(poolName));
+    }
+
+
+    @Test
+    void testReinitializeReleasesPool() throws Exception
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.maxConnectionsProperty, 6);
+
+        SpringRESTClientConnector connector = getConnector(configurationProperties);
+        String                    poolName  = connector.getConnectionPoolStatistics().get("poolName").toString();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.httpClientProperty, SpringRESTClientConnectorProvider.jdkHttpClient);
+
+        connector.initialize("testConnector", getConnectionProperties(configurationProperties));
+
+        assertNull(connector.getConnectionPoolStatistics());
+        assertFalse(SpringRESTClientConnectionPool.isConnectionPoolInUse(poolName));
+
+        connector.disconnect();
+    }
+
+
+    private SpringRESTClientConnector getConnector(Map<String, Object> configurationProperties) throws Exception
+    {
+        SpringRESTClientConnector connector = new SpringRESTClientConnector();
+
+        connector.initialize("testConnector", getConnectionProperties(configurationProperties));
+
+        return connector;
+    }
+
+
+    private ConnectionProperties getConnectionProperties(Map<String, Object> configurationProperties)
+    {
+        Connection connection = new Connection();
+        Endpoint   endpoint   = new Endpoint();
+
+        endpoint.setAddress("http://localhost:9443");
+        endpoint.setDisplayName("testServer");
+
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        return new ConnectionProperties(connection);
+    }
+
+
+    private String getPoolName(int     maxConnections,
+                               int     maxConnectionsPerRoute,
+                               int     connectTimeout,
+                               int     readTimeout,
+                               int     connectionRequestTimeout,
+                               int     idleConnectionTimeout,
+                               boolean compression)
+    {
+        return maxConnections + "/" + maxConnectionsPerRoute + "/" + connectTimeout + "/" + readTimeout + "/" +
+                       connectionRequestTimeout + "/" + idleConnectionTimeout + "/" + compression;
+    }
+}
@@ -30,6 +30,14 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  *         enterpriseOMRSTopicProtocolVersion - the protocol version for the events passed on the
  *                                            enterprise OMRS topic.
  *     </li>
+ *     <li>
+ *         maxFederationWorkerThreads - maximum number of threads used to issue federated queries to the members
+ *                                    of the cohort(s) in parallel.  Zero means use the default.
+ *     </li>
+ *     <li>
+ *         federationMemberTimeout - number of milliseconds to wait for each member of the cohort(s) to respond to
+ *                                 a federated query.  Zero means wait until the member responds.
+ *     </li>
  * </ul>
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
@@ -43,6 +51,8 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     private String                           enterpriseMetadataCollectionId     = null;
     private Connection                       enterpriseOMRSTopicConnection      = null;
     private OpenMetadataEventProtocolVersion enterpriseOMRSTopicProtocolVersion = null;
+    private int                              maxFederationWorkerThreads         = 0;
+    private long                             federationMemberTimeout            = 0;
 
 
     /**
@@ -62,6 +72,16 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     public EnterpriseAccessConfig(EnterpriseAccessConfig  template)
     {
         super(template);
+
+        if (template != null)
+        {
+            enterpriseMetadataCollectionName = template.getEnterpriseMetadataCollectionName();
+            enterpriseMetadataCollectionId = template.getEnterpriseMetadataCollectionId();
+            enterpriseOMRSTopicConnection = template.getEnterpriseOMRSTopicConnection();
+            enterpriseOMRSTopicProtocolVersion = template.getEnterpriseOMRSTopicProtocolVersion();
+            maxFederationWorkerThreads = template.getMaxFederationWorkerThreads();
+            federationMemberTimeout = template.getFederationMemberTimeout();
+        }
     }
 
 
@@ -179,6 +199,52 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return the maximum number of threads used to issue federated queries to the members of the cohort(s)
+     * in parallel.
+     *
+     * @return number of threads (zero means use the default)
+     */
+    public int getMaxFederationWorkerThreads()
+    {
+        return maxFederationWorkerThreads;
+    }
+
+
+    /**
+     * Set up the maximum number of threads used to issue federated queries to the members of the cohort(s)
+     * in parallel.
+     *
+     * @param maxFederationWorkerThreads number of threads (zero means use the default)
+     */
+    public void setMaxFederationWorkerThreads(int maxFederationWorkerThreads)
+    {
+        this.maxFederationWorkerThreads = maxFederationWorkerThreads;
+    }
+
+
+    /**
+     * Return the number of milliseconds to wait for each member of the cohort(s) to respond to a federated query.
+     *
+     * @return timeout in milliseconds (zero means wait until the member responds)
+     */
+    public long getFederationMemberTimeout()
+    {
+        return federationMemberTimeout;
+    }
+
+
+    /**
+     * Set up the number of milliseconds to wait for each member of the cohort(s) to respond to a federated query.
+     *
+     * @param federationMemberTimeout timeout in milliseconds (zero means wait until the member responds)
+     */
+    public void setFederationMemberTimeout(long federationMemberTimeout)
+    {
+        this.federationMemberTimeout = federationMemberTimeout;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -57,6 +57,11 @@ import java.util.Objects;
  *         APIs that can change metadata in the repository without going through the OMRS interfaces.
  *         It maps the proprietary events from the local repository to the OMRS Events.
  *     </li>
+ *     <li>
+ *         instanceBatchSize - minimum number of new instances created in one request (or loaded from an
+ *         open metadata archive) that are sent from the local repository as a single batch instances event.
+ *         Zero (the default) means each new instance is sent in its own event.
+ *     </li>
  * </ul>
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
@@ -76,6 +81,7 @@ public class LocalRepositoryConfig extends AdminServicesConfigHeader
     private OpenMetadataExchangeRule eventsToSendRule                = null;
     private List<TypeDefSummary>     selectedTypesToSend             = null;
     private Connection               eventMapperConnection           = null;
+    private int                      instanceBatchSize               = 0;
 
 
     /**
@@ -109,6 +115,7 @@ public class LocalRepositoryConfig extends AdminServicesConfigHeader
             this.eventsToSendRule = template.getEventsToSendRule();
             this.selectedTypesToSend = template.getSelectedTypesToSend();
             this.eventMapperConnection = template.getEventMapperConnection();
+            this.instanceBatchSize = template.getInstanceBatchSize();
         }
     }
 
@@ -391,6 +398,32 @@ public class LocalRepositoryConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return the minimum number of new instances created in one request (or loaded from an open metadata archive)
+     * that are sent from the local repository as a single batch instances event.  Zero means each new instance
+     * is sent in its own event.
+     *
+     * @return instance batch size
+     */
+    public int getInstanceBatchSize()
+    {
+        return instanceBatchSize;
+    }
+
+
+    /**
+     * Set up the minimum number of new instances created in one request (or loaded from an open metadata archive)
+     * that are sent from the local repository as a single batch instances event.  Zero means each new instance
+     * is sent in its own event.
+     *
+     * @param instanceBatchSize instance batch size
+     */
+    public void setInstanceBatchSize(int instanceBatchSize)
+    {
+        this.instanceBatchSize = instanceBatchSize;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -410,6 +443,7 @@ public class LocalRepositoryConfig extends AdminServicesConfigHeader
                 ", eventsToSendRule=" + eventsToSendRule +
                 ", selectedTypesToSend=" + selectedTypesToSend +
                 ", eventMapperConnection=" + eventMapperConnection +
+                ", instanceBatchSize=" + instanceBatchSize +
                 '}';
     }
 
@@ -441,7 +475,8 @@ public class LocalRepositoryConfig extends AdminServicesConfigHeader
                 Objects.equals(selectedTypesToSave, that.selectedTypesToSave) &&
                 eventsToSendRule == that.eventsToSendRule &&
                 Objects.equals(selectedTypesToSend, that.selectedTypesToSend) &&
-                Objects.equals(eventMapperConnection, that.eventMapperConnection);
+                Objects.equals(eventMapperConnection, that.eventMapperConnection) &&
+                instanceBatchSize == that.instanceBatchSize;
     }
 
 
@@ -456,6 +491,7 @@ public class LocalRepositoryConfig extends AdminServicesConfigHeader
         return Objects.hash(getMetadataCollectionId(), getMetadataCollectionName(), getLocalRepositoryMode(),
                             getLocalRepositoryLocalConnection(), getLocalRepositoryRemoteConnection(),
                             getEventsToSaveRule(), getSelectedTypesToSave(),
-                            getEventsToSendRule(), getSelectedTypesToSend(), getEventMapperConnection());
+                            getEventsToSendRule(), getSelectedTypesToSend(), getEventMapperConnection(),
+                            getInstanceBatchSize());
     }
 }
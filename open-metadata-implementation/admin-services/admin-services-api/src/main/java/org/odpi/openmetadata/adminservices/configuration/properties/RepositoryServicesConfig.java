@@ -33,6 +33,14 @@ import java.util.Objects;
  *         The archives are managed by the OMRSArchiveManager.
  *     </li>
  *     <li>
+ *         archiveInstanceBatchSize is the number of instances read from an open metadata archive at a time
+ *         when it is loaded into the local repository.  Zero (the default) means the OMRSArchiveManager's default.
+ *     </li>
+ *     <li>
+ *         archiveInstanceLoadThreads is the number of threads that pass the instances from an open metadata
+ *         archive to the local repository.  Zero (the default) means the OMRSArchiveManager's default.
+ *     </li>
+ *     <li>
  *         localRepositoryConfig describes the properties used to manage the local metadata repository for this server.
  *     </li>
  *     <li>
@@ -54,6 +62,8 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
 
     private List<Connection>       auditLogConnections            = new ArrayList<>();
     private List<Connection>       openMetadataArchiveConnections = new ArrayList<>();
+    private int                    archiveInstanceBatchSize       = 0;
+    private int                    archiveInstanceLoadThreads     = 0;
     private LocalRepositoryConfig  localRepositoryConfig          = null;
     private EnterpriseAccessConfig enterpriseAccessConfig         = null;
     private List<CohortConfig>     cohortConfigList               = new ArrayList<>();
@@ -81,6 +91,8 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
         {
             this.auditLogConnections = template.getAuditLogConnections();
             this.openMetadataArchiveConnections = template.getOpenMetadataArchiveConnections();
+            this.archiveInstanceBatchSize = template.getArchiveInstanceBatchSize();
+            this.archiveInstanceLoadThreads = template.getArchiveInstanceLoadThreads();
             this.localRepositoryConfig = template.getLocalRepositoryConfig();
             this.enterpriseAccessConfig = template.getEnterpriseAccessConfig();
             this.cohortConfigList = template.getCohortConfigList();
@@ -156,6 +168,54 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return the number of instances read from an open metadata archive at a time when it is loaded into the
+     * local repository.  Zero means the default.
+     *
+     * @return instance batch size
+     */
+    public int getArchiveInstanceBatchSize()
+    {
+        return archiveInstanceBatchSize;
+    }
+
+
+    /**
+     * Set up the number of instances read from an open metadata archive at a time when it is loaded into the
+     * local repository.  Zero means the default.
+     *
+     * @param archiveInstanceBatchSize instance batch size
+     */
+    public void setArchiveInstanceBatchSize(int archiveInstanceBatchSize)
+    {
+        this.archiveInstanceBatchSize = archiveInstanceBatchSize;
+    }
+
+
+    /**
+     * Return the number of threads that pass the instances from an open metadata archive to the local repository.
+     * Zero means the default.
+     *
+     * @return number of threads
+     */
+    public int getArchiveInstanceLoadThreads()
+    {
+        return archiveInstanceLoadThreads;
+    }
+
+
+    /**
+     * Set up the number of threads that pass the instances from an open metadata archive to the local repository.
+     * One means the instances are loaded on the thread that starts the server.  Zero means the default.
+     *
+     * @param archiveInstanceLoadThreads number of threads
+     */
+    public void setArchiveInstanceLoadThreads(int archiveInstanceLoadThreads)
+    {
+        this.archiveInstanceLoadThreads = archiveInstanceLoadThreads;
+    }
+
+
     /**
      * Return the configuration properties for the local repository.
      *
@@ -248,6 +308,8 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
         return "RepositoryServicesConfig{" +
                 "auditLogConnections=" + auditLogConnections +
                 ", openMetadataArchiveConnections=" + openMetadataArchiveConnections +
+                ", archiveInstanceBatchSize=" + archiveInstanceBatchSize +
+                ", archiveInstanceLoadThreads=" + archiveInstanceLoadThreads +
                 ", localRepositoryConfig=" + localRepositoryConfig +
                 ", enterpriseAccessConfig=" + enterpriseAccessConfig +
                 ", cohortConfigList=" + cohortConfigList +
@@ -273,7 +335,9 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
             return false;
         }
         RepositoryServicesConfig that = (RepositoryServicesConfig) objectToCompare;
-        return Objects.equals(getAuditLogConnections(), that.getAuditLogConnections()) &&
+        return getArchiveInstanceBatchSize() == that.getArchiveInstanceBatchSize() &&
+                getArchiveInstanceLoadThreads() == that.getArchiveInstanceLoadThreads() &&
+                Objects.equals(getAuditLogConnections(), that.getAuditLogConnections()) &&
                 Objects.equals(getOpenMetadataArchiveConnections(), that.getOpenMetadataArchiveConnections()) &&
                 Objects.equals(getLocalRepositoryConfig(), that.getLocalRepositoryConfig()) &&
                 Objects.equals(getEnterpriseAccessConfig(), that.getEnterpriseAccessConfig()) &&
@@ -289,7 +353,8 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
     @Override
     public int hashCode()
     {
-        return Objects.hash(getAuditLogConnections(), getOpenMetadataArchiveConnections(), getLocalRepositoryConfig(),
-                            getEnterpriseAccessConfig(), getCohortConfigList());
+        return Objects.hash(getAuditLogConnections(), getOpenMetadataArchiveConnections(), getArchiveInstanceBatchSize(),
+                            getArchiveInstanceLoadThreads(), getLocalRepositoryConfig(), getEnterpriseAccessConfig(),
+                            getCohortConfigList());
     }
 }
@@ -83,6 +83,22 @@ public enum OMAGAdminAuditCode implements AuditLogMessageSet
                             "Review the shutdown messages to ensure that all of the subsystems have successfully released the" +
                                     "resources that they were using.  Restart the server whenever its services are needed again."),
 
+    SERVICE_STARTUP_TIME("OMAG-ADMIN-0008",
+                         OMRSAuditLogRecordSeverity.STARTUP,
+                         "The {0} service started in {1} milliseconds in the {2} server",
+                         "The operational admin services record how long each service took to start.  Independent services, such as " +
+                                 "the access services, are started in parallel so the time for the server to start is less than the sum " +
+                                 "of these times.",
+                         "Use these times to find the services that slow down the start up of the server.  The same times are " +
+                                 "returned with the server's status from the platform services."),
+
+    SERVICE_STARTUP_SKIPPED("OMAG-ADMIN-0009",
+                            OMRSAuditLogRecordSeverity.STARTUP,
+                            "The {0} service was not started in the {1} server because the {2} service failed to start",
+                            "The operational admin services stop starting new services as soon as one fails.  Services that were " +
+                                    "already starting are allowed to finish and are then shutdown with the rest of the server.",
+                            "Correct the cause of the failure reported for the named service and restart the server."),
+
     STARTING_ACCESS_SERVICES("OMAG-ADMIN-0010",
         OMRSAuditLogRecordSeverity.STARTUP,
         "The Open Metadata Access Services (OMASs) are starting",
@@ -90,7 +106,7 @@ public enum OMAGAdminAuditCode implements AuditLogMessageSet
                 "These provide specialist APIs for accessing open metadata.  Many of the access services support " +
                 "both a REST API and event-based interaction through a topic.  They also support options that " +
                 "control their behavior and the scope of the metadata that they work with.  The access service " +
-                "subsystems are started one at a time.  A fatal error in any of them prevents the server from starting.",
+                "subsystems are started in parallel.  A fatal error in any of them prevents the server from starting.",
         "The server's configuration document lists the access services that should be started in this server.  " +
                 "Verify that the expected access services are started and that they each report that their components are " +
                 "working correctly."),
@@ -172,7 +188,7 @@ public enum OMAGAdminAuditCode implements AuditLogMessageSet
             "The Open Metadata View Services (OMVSs) are starting",
             "The operational admin services are initializing the view service subsystems in a metadata server instance.  " +
                     "These provide specialist task orientated APIs for viewing open metadata.  The view services support " +
-                    "a REST API. The view service subsystems are started one at a time.  A fatal error in any of them prevents the server from starting.",
+                    "a REST API. The view service subsystems are started in parallel.  A fatal error in any of them prevents the server from starting.",
             "The server's configuration document lists the view services that should be started in this server.  " +
                     "Verify that the expected view services are started and that they each report that their components are " +
                     "working correctly."),
@@ -397,6 +397,11 @@ public enum OMAGAdminErrorCode implements ExceptionMessageSet
             "This is likely to be either an operational or logic error. Look for other errors in the audit log.  Validate the request.  " +
                                                 "If you are stuck, raise an issue."),
 
+    SERVER_STARTUP_FAILED(500, "OMAG-ADMIN-500-005",
+            "The {0} server failed to start.  The error message was {1}",
+            "The system is unable to start the server.  Servers in the same start up list that had not begun to start are not started.",
+            "Look for the errors reported by the server in its audit log.  Correct the problem and restart the servers."),
+
     CLIENT_SIDE_REST_API_ERROR(503, "OMAG-ADMIN-503-001",
             "A client-side exception was received from API call {0} to OMAG Server Platform at {1}.  The error message was {2}",
             "The server has issued a call to the open metadata admin service REST API in a remote server and has received an exception from the " +
@@ -18,6 +18,8 @@ import org.odpi.openmetadata.commonservices.ffdc.RESTCallLogger;
 import org.odpi.openmetadata.commonservices.ffdc.RESTCallToken;
 import org.odpi.openmetadata.commonservices.ffdc.exceptions.PropertyServerException;
 import org.odpi.openmetadata.commonservices.ffdc.rest.VoidResponse;
+import org.odpi.openmetadata.commonservices.generichandlers.AnchorCache;
+import org.odpi.openmetadata.commonservices.generichandlers.AnchorCacheListener;
 import org.odpi.openmetadata.commonservices.multitenant.OMAGServerPlatformInstanceMap;
 import org.odpi.openmetadata.commonservices.ocf.metadatamanagement.admin.OCFMetadataOperationalServices;
 import org.odpi.openmetadata.conformance.server.ConformanceSuiteOperationalServices;
@@ -37,7 +39,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OMAGServerOperationalServices will provide support to start, manage and stop services in the OMAG Server.
@@ -55,6 +60,23 @@ public class OMAGServerOperationalServices
     private static RESTCallLogger restCallLogger = new RESTCallLogger(LoggerFactory.getLogger(OMAGServerOperationalServices.class),
                                                                       CommonServicesDescription.ADMIN_OPERATIONAL_SERVICES.getServiceName());
 
+    /*
+     * The maximum number of services (or servers) that are started at the same time.
+     */
+    private static volatile int maxStartupThreads = 8;
+
+
+    /**
+     * Set the maximum number of services in a server, or servers in the startup list, that are started at the same time.
+     * A value of 1 or less starts them one at a time.
+     *
+     * @param maxThreads maximum number of threads used for starting services
+     */
+    public static void setMaxStartupThreads(int maxThreads)
+    {
+        maxStartupThreads = maxThreads;
+    }
+
     /*
      * =============================================================
      * Initialization and shutdown
@@ -62,9 +84,9 @@ public class OMAGServerOperationalServices
 
     /**
      * Activate the list of open metadata and governance servers using the stored configuration information.
-     * The code works through the list, starting each server in turn.  It stops if one of the servers fails to
-     * start and returns the error.  Otherwise it continues through the list, returning the successful
-     * start up messages.
+     * The servers are started concurrently.  If one of the servers fails to start, no more servers are started
+     * and the error from the first failing server in the list is returned.  Otherwise the successful
+     * start up messages are returned in the order of the list.
      *
      * @param userId  user that is issuing the request
      * @param serverNames  list of server names
@@ -76,6 +98,8 @@ public class OMAGServerOperationalServices
     public SuccessMessageResponse activateServerListWithStoredConfig(String       userId,
                                                                      List<String> serverNames)
     {
+        final String methodName = "activateServerListWithStoredConfig";
+
         String                 startUpMessage = null;
         SuccessMessageResponse response       = new SuccessMessageResponse();
 
@@ -83,29 +107,65 @@ public class OMAGServerOperationalServices
 
         if (serverNames != null)
         {
+            OMAGServerStartupOrchestrator       orchestrator      = new OMAGServerStartupOrchestrator("platform", maxStartupThreads);
+            Map<String, SuccessMessageResponse> serverResponses   = new ConcurrentHashMap<>();
+            List<String>                        activeServerNames = new ArrayList<>();
+
             for (String serverName : serverNames)
             {
-                if (serverName != null)
+                if ((serverName != null) && (! activeServerNames.contains(serverName.trim())))
                 {
-                    response = activateWithStoredConfig(userId, serverName.trim());
+                    final String activeServerName = serverName.trim();
 
-                    if (response.getRelatedHTTPCode() == 200)
+                    activeServerNames.add(activeServerName);
+                    orchestrator.addTask(activeServerName, () ->
                     {
-                        String serverStartUpMessage = "OMAG Server '" + serverName + "' successful start , with message: " +
-                                response.getSuccessMessage() + System.lineSeparator();
-                        if (startUpMessage == null)
-                        {
-                            startUpMessage = serverStartUpMessage;
-                        }
-                        else
+                        SuccessMessageResponse serverResponse = activateWithStoredConfig(userId, activeServerName);
+
+                        serverResponses.put(activeServerName, serverResponse);
+
+                        if (serverResponse.getRelatedHTTPCode() != 200)
                         {
-                            startUpMessage += serverStartUpMessage;
+                            throw new OMAGConfigurationErrorException(OMAGAdminErrorCode.SERVER_STARTUP_FAILED.getMessageDefinition(activeServerName,
+                                                                                                                                    serverResponse.getExceptionErrorMessage()),
+                                                                      this.getClass().getName(),
+                                                                      methodName);
                         }
-                    }
-                    else
-                    {
-                        break;
-                    }
+                    });
+                }
+            }
+
+            try
+            {
+                orchestrator.run();
+            }
+            catch (OMAGConfigurationErrorException error)
+            {
+                /*
+                 * The failing server's own response describes the error.
+                 */
+                SuccessMessageResponse failedResponse = serverResponses.get(orchestrator.getFailedTask());
+
+                if (failedResponse != null)
+                {
+                    return failedResponse;
+                }
+
+                exceptionHandler.captureConfigurationErrorException(response, error);
+                return response;
+            }
+
+            for (String serverName : activeServerNames)
+            {
+                String serverStartUpMessage = "OMAG Server '" + serverName + "' successful start , with message: " +
+                        serverResponses.get(serverName).getSuccessMessage() + System.lineSeparator();
+                if (startUpMessage == null)
+                {
+                    startUpMessage = serverStartUpMessage;
+                }
+                else
+                {
+                    startUpMessage += serverStartUpMessage;
                 }
             }
         }
@@ -114,10 +174,7 @@ public class OMAGServerOperationalServices
             startUpMessage = "No OMAG servers listed in startup configuration";
         }
 
-        if (response.getRelatedHTTPCode() == 200)
-        {
-            response.setSuccessMessage(new Date().toString() + " " + startUpMessage);
-        }
+        response.setSuccessMessage(new Date().toString() + " " + startUpMessage);
 
         return response;
     }
@@ -189,6 +246,7 @@ public class OMAGServerOperationalServices
         RESTCallToken token = restCallLogger.logRESTCall(serverName, userId, methodName);
 
         List<String>                    activatedServiceList = new ArrayList<>();
+        Map<String, Long>               serviceStartupTimes  = new LinkedHashMap<>();
         OMAGOperationalServicesInstance instance             = null;
         SuccessMessageResponse          response             = new SuccessMessageResponse();
 
@@ -255,6 +313,7 @@ public class OMAGServerOperationalServices
              * (Even the governance servers need the audit log.)
              */
             OMRSOperationalServices         operationalRepositoryServices;
+            long                            repositoryServicesStartTime = System.currentTimeMillis();
 
             operationalRepositoryServices = new OMRSOperationalServices(configuration.getLocalServerName(),
                                                                         configuration.getLocalServerType(),
@@ -312,6 +371,12 @@ public class OMAGServerOperationalServices
                  * This server is a source of metadata and is capable of joining an open metadata repository cohort.
                  */
                 operationalRepositoryServices.initializeCohortMember(configuration.getRepositoryServicesConfig());
+                logStartupTime(CommonServicesDescription.REPOSITORY_SERVICES.getServiceName(),
+                               repositoryServicesStartTime,
+                               serverName,
+                               serviceStartupTimes,
+                               auditLog,
+                               actionDescription);
 
                 /*
                  * Set up the server instance - ensure it is active and the security has been set up correctly.
@@ -331,6 +396,22 @@ public class OMAGServerOperationalServices
                  */
                 operationalRepositoryServices.setSecurityVerifier(securityVerifier);
 
+                /*
+                 * The enterprise topic connector supplies events from the local repository and the cohorts.
+                 */
+                OMRSTopicConnector enterpriseTopicConnector = operationalRepositoryServices.getEnterpriseOMRSTopicConnector();
+
+                /*
+                 * The generic handlers used by the OCF metadata management and the access services share a cache of the anchors
+                 * of the elements they retrieve.  It is only set up when the enterprise topic is available to report the changes
+                 * that make its content out of date.
+                 */
+                if (enterpriseTopicConnector != null)
+                {
+                    enterpriseTopicConnector.registerListener(new AnchorCacheListener(AnchorCache.createAnchorCache(serverName)),
+                                                              CommonServicesDescription.ADMIN_OPERATIONAL_SERVICES.getServiceName());
+                }
+
                 /*
                  * Next initialize the Open Connector Framework (OCF) metadata services.  These services are only initialized
                  * if the enterprise repository services are enabled.  They support requests for metadata from connectors running
@@ -345,6 +426,7 @@ public class OMAGServerOperationalServices
                      * The enterprise repository services have been requested so OCF metadata management can be started.
                      */
                     OCFMetadataOperationalServices operationalOCFMetadataServices;
+                    long                           ocfMetadataServicesStartTime = System.currentTimeMillis();
 
                     operationalOCFMetadataServices = new OCFMetadataOperationalServices(configuration.getLocalServerName(),
                                                                                         enterpriseRepositoryConnector,
@@ -358,6 +440,12 @@ public class OMAGServerOperationalServices
 
                     instance.setOperationalOCFMetadataServices(operationalOCFMetadataServices);
                     activatedServiceList.add(CommonServicesDescription.OCF_METADATA_MANAGEMENT.getServiceName());
+                    logStartupTime(CommonServicesDescription.OCF_METADATA_MANAGEMENT.getServiceName(),
+                                   ocfMetadataServicesStartTime,
+                                   serverName,
+                                   serviceStartupTimes,
+                                   auditLog,
+                                   actionDescription);
                 }
 
                 /*
@@ -370,8 +458,6 @@ public class OMAGServerOperationalServices
                  * Each access service is given access to the events from open metadata repository cohorts that this server connects to.
                  * The enterprise topic connector supplies these events.  The access service registers a listener with it to receive them.
                  */
-                OMRSTopicConnector        enterpriseTopicConnector = operationalRepositoryServices.getEnterpriseOMRSTopicConnector();
-
                 initializeAccessServices(instance,
                                          configuration.getAccessServicesConfig(),
                                          operationalRepositoryServices,
@@ -379,6 +465,7 @@ public class OMAGServerOperationalServices
                                          configuration.getLocalServerUserId(),
                                          serverName,
                                          activatedServiceList,
+                                         serviceStartupTimes,
                                          auditLog);
 
                 /*
@@ -387,6 +474,8 @@ public class OMAGServerOperationalServices
                  */
                 if (ServerTypeClassification.CONFORMANCE_SERVER.equals(serverTypeClassification))
                 {
+                    long conformanceSuiteStartTime = System.currentTimeMillis();
+
                     ConformanceSuiteOperationalServices
                             operationalConformanceSuiteServices = new ConformanceSuiteOperationalServices(configuration.getLocalServerName(),
                                                                                                           configuration.getLocalServerUserId(),
@@ -403,6 +492,12 @@ public class OMAGServerOperationalServices
                                                                            GovernanceServicesDescription.CONFORMANCE_SUITE_SERVICES.getServiceWiki()));
 
                     activatedServiceList.add(GovernanceServicesDescription.CONFORMANCE_SUITE_SERVICES.getServiceName());
+                    logStartupTime(GovernanceServicesDescription.CONFORMANCE_SUITE_SERVICES.getServiceName(),
+                                   conformanceSuiteStartTime,
+                                   serverName,
+                                   serviceStartupTimes,
+                                   auditLog,
+                                   actionDescription);
                 }
 
                 /*
@@ -432,6 +527,12 @@ public class OMAGServerOperationalServices
                  * Set up the repository services REST API
                  */
                 operationalRepositoryServices.initializeViewServer(configuration.getRepositoryServicesConfig());
+                logStartupTime(CommonServicesDescription.REPOSITORY_SERVICES.getServiceName(),
+                               repositoryServicesStartTime,
+                               serverName,
+                               serviceStartupTimes,
+                               auditLog,
+                               actionDescription);
 
                 /*
                  * Set up the server instance - ensure it is active and the security has been set up correctly.
@@ -455,6 +556,7 @@ public class OMAGServerOperationalServices
                                        configuration.getLocalServerUserId(),
                                        serverName,
                                        activatedServiceList,
+                                       serviceStartupTimes,
                                        configuration.getMaxPageSize(),
                                        auditLog);
             }
@@ -464,6 +566,12 @@ public class OMAGServerOperationalServices
                  * Set up the repository services REST API
                  */
                 operationalRepositoryServices.initializeGovernanceServer(configuration.getRepositoryServicesConfig());
+                logStartupTime(CommonServicesDescription.REPOSITORY_SERVICES.getServiceName(),
+                               repositoryServicesStartTime,
+                               serverName,
+                               serviceStartupTimes,
+                               auditLog,
+                               actionDescription);
 
                 /*
                  * Governance servers are varied in nature.  Many host connectors that exchange metadata with third party technologies.
@@ -490,6 +598,9 @@ public class OMAGServerOperationalServices
                  */
                 try
                 {
+                    long governanceServicesStartTime = System.currentTimeMillis();
+                    int  activatedServiceCount       = activatedServiceList.size();
+
                     auditLog.logMessage(actionDescription,
                                         OMAGAdminAuditCode.STARTING_GOVERNANCE_SERVICES.getMessageDefinition(serverTypeClassifier.getServerType().getServerTypeName(),
                                                                                                              serverName));
@@ -503,6 +614,19 @@ public class OMAGServerOperationalServices
                     auditLog.logMessage(actionDescription,
                                         OMAGAdminAuditCode.GOVERNANCE_SERVICES_STARTED.getMessageDefinition(serverTypeClassifier.getServerType().getServerTypeName(),
                                                                                                             serverName));
+
+                    /*
+                     * The governance services subsystem adds its own name to the list of activated services last.
+                     */
+                    if (activatedServiceList.size() > activatedServiceCount)
+                    {
+                        logStartupTime(activatedServiceList.get(activatedServiceList.size() - 1),
+                                       governanceServicesStartTime,
+                                       serverName,
+                                       serviceStartupTimes,
+                                       auditLog,
+                                       actionDescription);
+                    }
                 }
                 catch (OMAGConfigurationErrorException  error)
                 {
@@ -543,6 +667,11 @@ public class OMAGServerOperationalServices
                                 OMAGAdminAuditCode.SERVER_STARTUP_SUCCESS.getMessageDefinition(serverName,
                                                                                                activatedServiceList.toString()));
 
+            /*
+             * The start up times are returned with the server's status.
+             */
+            platformInstanceMap.setServiceStartupTimes(serverName, serviceStartupTimes);
+
             response.setSuccessMessage(successMessage);
         }
         catch (UserNotAuthorizedException error)
@@ -620,7 +749,9 @@ public class OMAGServerOperationalServices
 
 
     /**
-     * Start up the access services.
+     * Start up the access services.  The access services do not depend on one another so they are started in parallel.
+     * If one fails, no more are started and those that did start are saved in the instance so they are shutdown
+     * with the rest of the server.
      *
      * @param instance server instance
      * @param accessServiceConfigList configured access services
@@ -629,6 +760,8 @@ public class OMAGServerOperationalServices
      * @param localServerUserId servers userId
      * @param serverName server name
      * @param activatedServiceList list of services (subsystems) running in the server
+     * @param serviceStartupTimes map of service name to start up time in milliseconds
+     * @param auditLog audit log
      * @throws OMAGConfigurationErrorException problem with the configuration
      */
     @SuppressWarnings(value = "deprecation")
@@ -639,6 +772,7 @@ public class OMAGServerOperationalServices
                                           String                          localServerUserId,
                                           String                          serverName,
                                           List<String>                    activatedServiceList,
+                                          Map<String, Long>               serviceStartupTimes,
                                           OMRSAuditLog                    auditLog) throws OMAGConfigurationErrorException
     {
         final String methodName = "initializeAccessServices";
@@ -655,8 +789,18 @@ public class OMAGServerOperationalServices
             int  configuredAccessServiceCount = 0;
             int  enabledAccessServiceCount = 0;
 
-            for (AccessServiceConfig  accessServiceConfig : accessServiceConfigList)
+            /*
+             * The admin objects are saved in the order of the configuration so the list of running services does not
+             * depend on which access service finished first.
+             */
+            OMAGServerStartupOrchestrator orchestrator        = new OMAGServerStartupOrchestrator(serverName, maxStartupThreads);
+            AccessServiceAdmin[]          accessServiceAdmins = new AccessServiceAdmin[accessServiceConfigList.size()];
+
+            for (int configIndex = 0; configIndex < accessServiceConfigList.size(); configIndex ++)
             {
+                final int                 accessServiceIndex  = configIndex;
+                final AccessServiceConfig accessServiceConfig = accessServiceConfigList.get(configIndex);
+
                 /*
                  * Connected Asset OMAS and Data Platform OMAS have been removed but may be present in some older configuration documents.
                  * The are skipped over if present.
@@ -670,57 +814,58 @@ public class OMAGServerOperationalServices
                     {
                         enabledAccessServiceCount ++;
 
-                        try
-                        {
-                            AccessServiceAdmin accessServiceAdmin = this.getAccessServiceAdminClass(accessServiceConfig, auditLog, serverName);
-
-                            /*
-                             * Each access service has its own audit log instance.
-                             */
-                            OMRSAuditLog accessServicesAuditLog
-                                    = operationalRepositoryServices.getAuditLog(accessServiceConfig.getAccessServiceId(),
-                                                                                accessServiceConfig.getAccessServiceFullName(),
-                                                                                accessServiceConfig.getAccessServiceDescription(),
-                                                                                accessServiceConfig.getAccessServiceWiki());
-
-                            /*
-                             * We will switch to the new version of this method once all access services have move from using OMRSAuditLog to
-                             * AuditLog.  The default implementation of this method delegates to the new version of the method so
-                             */
-                            accessServiceAdmin.initialize(accessServiceConfig,
-                                                          enterpriseTopicConnector,
-                                                          operationalRepositoryServices.getEnterpriseOMRSRepositoryConnector(accessServiceConfig.getAccessServiceFullName()),
-                                                          accessServicesAuditLog,
-                                                          localServerUserId);
-                            operationalAccessServiceAdminList.add(accessServiceAdmin);
-                            activatedServiceList.add(accessServiceConfig.getAccessServiceFullName());
-
-                        }
-                        catch (OMAGConfigurationErrorException error)
-                        {
-                            auditLog.logException(methodName,
-                                                  OMAGAdminAuditCode.ACCESS_SERVICE_INSTANCE_FAILURE.getMessageDefinition(accessServiceConfig.getAccessServiceName(),
-                                                                                                                          error.getMessage()),
-                                                  accessServiceConfig.toString(),
-                                                  error);
-                            throw error;
-                        }
-                        catch (Exception error)
+                        orchestrator.addTask(accessServiceConfig.getAccessServiceFullName(), () ->
                         {
-                            auditLog.logException(methodName,
-                                                  OMAGAdminAuditCode.ACCESS_SERVICE_INSTANCE_FAILURE.getMessageDefinition(error.getMessage(),
-                                                                                                                          accessServiceConfig.getAccessServiceName(),
-                                                                                                                          error.getMessage()),
-                                                  accessServiceConfig.toString(),
-                                                  error);
-
-                            throw new OMAGConfigurationErrorException(OMAGAdminErrorCode.UNEXPECTED_INITIALIZATION_EXCEPTION.getMessageDefinition(serverName,
-                                                                                                                                                  accessServiceConfig.getAccessServiceName(),
-                                                                                                                                                  error.getMessage()),
-                                                                      this.getClass().getName(),
-                                                                      methodName,
-                                                                      error);
-                        }
+                            try
+                            {
+                                AccessServiceAdmin accessServiceAdmin = this.getAccessServiceAdminClass(accessServiceConfig, auditLog, serverName);
+
+                                /*
+                                 * Each access service has its own audit log instance.
+                                 */
+                                OMRSAuditLog accessServicesAuditLog
+                                        = operationalRepositoryServices.getAuditLog(accessServiceConfig.getAccessServiceId(),
+                                                                                    accessServiceConfig.getAccessServiceFullName(),
+                                                                                    accessServiceConfig.getAccessServiceDescription(),
+                                                                                    accessServiceConfig.getAccessServiceWiki());
+
+                                /*
+                                 * We will switch to the new version of this method once all access services have move from using OMRSAuditLog to
+                                 * AuditLog.  The default implementation of this method delegates to the new version of the method so
+                                 */
+                                accessServiceAdmin.initialize(accessServiceConfig,
+                                                              enterpriseTopicConnector,
+                                                              operationalRepositoryServices.getEnterpriseOMRSRepositoryConnector(accessServiceConfig.getAccessServiceFullName()),
+                                                              accessServicesAuditLog,
+                                                              localServerUserId);
+                                accessServiceAdmins[accessServiceIndex] = accessServiceAdmin;
+                            }
+                            catch (OMAGConfigurationErrorException error)
+                            {
+                                auditLog.logException(methodName,
+                                                      OMAGAdminAuditCode.ACCESS_SERVICE_INSTANCE_FAILURE.getMessageDefinition(accessServiceConfig.getAccessServiceName(),
+                                                                                                                              error.getMessage()),
+                                                      accessServiceConfig.toString(),
+                                                      error);
+                                throw error;
+                            }
+                            catch (Exception error)
+                            {
+                                auditLog.logException(methodName,
+                                                      OMAGAdminAuditCode.ACCESS_SERVICE_INSTANCE_FAILURE.getMessageDefinition(error.getMessage(),
+                                                                                                                              accessServiceConfig.getAccessServiceName(),
+                                                                                                                              error.getMessage()),
+                                                      accessServiceConfig.toString(),
+                                                      error);
+
+                                throw new OMAGConfigurationErrorException(OMAGAdminErrorCode.UNEXPECTED_INITIALIZATION_EXCEPTION.getMessageDefinition(serverName,
+                                                                                                                                                      accessServiceConfig.getAccessServiceName(),
+                                                                                                                                                      error.getMessage()),
+                                                                          this.getClass().getName(),
+                                                                          methodName,
+                                                                          error);
+                            }
+                        });
                     }
                     else
                     {
@@ -731,6 +876,24 @@ public class OMAGServerOperationalServices
                 }
             }
 
+            try
+            {
+                orchestrator.run();
+            }
+            finally
+            {
+                for (int configIndex = 0; configIndex < accessServiceAdmins.length; configIndex ++)
+                {
+                    if (accessServiceAdmins[configIndex] != null)
+                    {
+                        operationalAccessServiceAdminList.add(accessServiceAdmins[configIndex]);
+                        activatedServiceList.add(accessServiceConfigList.get(configIndex).getAccessServiceFullName());
+                    }
+                }
+
+                logStartupTimes(orchestrator, serverName, serviceStartupTimes, auditLog, actionDescription);
+            }
+
             auditLog.logMessage(actionDescription,
                                 OMAGAdminAuditCode.ALL_ACCESS_SERVICES_STARTED.getMessageDefinition(Integer.toString(enabledAccessServiceCount),
                                                                                                     Integer.toString(configuredAccessServiceCount)));
@@ -746,7 +909,9 @@ public class OMAGServerOperationalServices
 
 
     /**
-     * Start up the view services.
+     * Start up the view services.  The view services do not depend on one another so they are started in parallel.
+     * If one fails, no more are started and those that did start are saved in the instance so they are shutdown
+     * with the rest of the server.
      *
      * @param instance                      server instance
      * @param viewServiceConfigList         configured view services
@@ -754,6 +919,7 @@ public class OMAGServerOperationalServices
      * @param localServerUserId             servers userId
      * @param serverName                    server name
      * @param activatedServiceList          list of services (subsystems) running in the server
+     * @param serviceStartupTimes           map of service name to start up time in milliseconds
      * @param maxPageSize                   maximum page size. 0 means unlimited
      * @param auditLog                      audit log
      * @throws OMAGConfigurationErrorException problem with the configuration
@@ -764,6 +930,7 @@ public class OMAGServerOperationalServices
                                         String                          localServerUserId,
                                         String                          serverName,
                                         List<String>                    activatedServiceList,
+                                        Map<String, Long>               serviceStartupTimes,
                                         int                             maxPageSize,
                                         OMRSAuditLog                    auditLog) throws OMAGConfigurationErrorException
     {
@@ -781,61 +948,68 @@ public class OMAGServerOperationalServices
             int configuredViewServiceCount = 0;
             int enabledViewServiceCount = 0;
 
-            for (ViewServiceConfig viewServiceConfig : viewServiceConfigList)
+            OMAGServerStartupOrchestrator orchestrator      = new OMAGServerStartupOrchestrator(serverName, maxStartupThreads);
+            ViewServiceAdmin[]            viewServiceAdmins = new ViewServiceAdmin[viewServiceConfigList.size()];
+
+            for (int configIndex = 0; configIndex < viewServiceConfigList.size(); configIndex ++)
             {
+                final int               viewServiceIndex  = configIndex;
+                final ViewServiceConfig viewServiceConfig = viewServiceConfigList.get(configIndex);
+
                 configuredViewServiceCount++;
 
                 if (ServiceOperationalStatus.ENABLED.equals(viewServiceConfig.getViewServiceOperationalStatus()))
                 {
                     enabledViewServiceCount++;
 
-                    try
+                    orchestrator.addTask(viewServiceConfig.getViewServiceFullName(), () ->
                     {
-                        ViewServiceAdmin viewServiceAdmin = this.getViewServiceAdminClass(viewServiceConfig, auditLog, serverName);
-
-                        /*
-                         * Each view service has its own audit log instance.
-                         */
-                        OMRSAuditLog viewServicesAuditLog
-                                = operationalRepositoryServices.getAuditLog(viewServiceConfig.getViewServiceId(),
-                                                                            viewServiceConfig.getViewServiceFullName(),
-                                                                            viewServiceConfig.getViewServiceDescription(),
-                                                                            viewServiceConfig.getViewServiceWiki());
-
-                        viewServiceAdmin.initialize(serverName,
-                                                    viewServiceConfig,
-                                                    viewServicesAuditLog,
-                                                    localServerUserId,
-                                                    maxPageSize);
-                        operationalViewServiceAdminList.add(viewServiceAdmin);
-                        activatedServiceList.add(viewServiceConfig.getViewServiceFullName());
+                        try
+                        {
+                            ViewServiceAdmin viewServiceAdmin = this.getViewServiceAdminClass(viewServiceConfig, auditLog, serverName);
 
-                    }
-                    catch (OMAGConfigurationErrorException error)
-                    {
-                        auditLog.logException(methodName,
-                                              OMAGAdminAuditCode.VIEW_SERVICE_INSTANCE_FAILURE.getMessageDefinition(viewServiceConfig.getViewServiceName(),
-                                                                                                                    error.getMessage()),
-                                              viewServiceConfig.toString(),
-                                              error);
-                        throw error;
-                    }
-                    catch (Exception error)
-                    {
-                        auditLog.logException(methodName,
-                                              OMAGAdminAuditCode.VIEW_SERVICE_INSTANCE_FAILURE.getMessageDefinition(error.getMessage(),
-                                                                                                                    viewServiceConfig.getViewServiceName(),
-                                                                                                                    error.getMessage()),
-                                              viewServiceConfig.toString(),
-                                              error);
-
-                        throw new OMAGConfigurationErrorException(OMAGAdminErrorCode.UNEXPECTED_INITIALIZATION_EXCEPTION.getMessageDefinition(serverName,
-                                                                                                                                              viewServiceConfig.getViewServiceName(),
-                                                                                                                                              error.getMessage()),
-                                                                  this.getClass().getName(),
-                                                                  methodName,
-                                                                  error);
-                    }
+                            /*
+                             * Each view service has its own audit log instance.
+                             */
+                            OMRSAuditLog viewServicesAuditLog
+                                    = operationalRepositoryServices.getAuditLog(viewServiceConfig.getViewServiceId(),
+                                                                                viewServiceConfig.getViewServiceFullName(),
+                                                                                viewServiceConfig.getViewServiceDescription(),
+                                                                                viewServiceConfig.getViewServiceWiki());
+
+                            viewServiceAdmin.initialize(serverName,
+                                                        viewServiceConfig,
+                                                        viewServicesAuditLog,
+                                                        localServerUserId,
+                                                        maxPageSize);
+                            viewServiceAdmins[viewServiceIndex] = viewServiceAdmin;
+                        }
+                        catch (OMAGConfigurationErrorException error)
+                        {
+                            auditLog.logException(methodName,
+                                                  OMAGAdminAuditCode.VIEW_SERVICE_INSTANCE_FAILURE.getMessageDefinition(viewServiceConfig.getViewServiceName(),
+                                                                                                                        error.getMessage()),
+                                                  viewServiceConfig.toString(),
+                                                  error);
+                            throw error;
+                        }
+                        catch (Exception error)
+                        {
+                            auditLog.logException(methodName,
+                                                  OMAGAdminAuditCode.VIEW_SERVICE_INSTANCE_FAILURE.getMessageDefinition(error.getMessage(),
+                                                                                                                        viewServiceConfig.getViewServiceName(),
+                                                                                                                        error.getMessage()),
+                                                  viewServiceConfig.toString(),
+                                                  error);
+
+                            throw new OMAGConfigurationErrorException(OMAGAdminErrorCode.UNEXPECTED_INITIALIZATION_EXCEPTION.getMessageDefinition(serverName,
+                                                                                                                                                  viewServiceConfig.getViewServiceName(),
+                                                                                                                                                  error.getMessage()),
+                                                                      this.getClass().getName(),
+                                                                      methodName,
+                                                                      error);
+                        }
+                    });
                 }
                 else
                 {
@@ -846,6 +1020,24 @@ public class OMAGServerOperationalServices
 
             }
 
+            try
+            {
+                orchestrator.run();
+            }
+            finally
+            {
+                for (int configIndex = 0; configIndex < viewServiceAdmins.length; configIndex ++)
+                {
+                    if (viewServiceAdmins[configIndex] != null)
+                    {
+                        operationalViewServiceAdminList.add(viewServiceAdmins[configIndex]);
+                        activatedServiceList.add(viewServiceConfigList.get(configIndex).getViewServiceFullName());
+                    }
+                }
+
+                logStartupTimes(orchestrator, serverName, serviceStartupTimes, auditLog, actionDescription);
+            }
+
             auditLog.logMessage(actionDescription,
                                 OMAGAdminAuditCode.ALL_VIEW_SERVICES_STARTED.getMessageDefinition(Integer.toString(enabledViewServiceCount),
                                                                                                   Integer.toString(configuredViewServiceCount)));
@@ -859,6 +1051,70 @@ public class OMAGServerOperationalServices
     }
 
 
+    /**
+     * Record the time a service took to start in the audit log and in the server's map of start up times.
+     *
+     * @param serviceName name of the service
+     * @param startTime time the service began to start (from System.currentTimeMillis())
+     * @param serverName name of the server
+     * @param serviceStartupTimes map of service name to start up time in milliseconds
+     * @param auditLog audit log
+     * @param actionDescription calling activity
+     */
+    private void logStartupTime(String            serviceName,
+                                long              startTime,
+                                String            serverName,
+                                Map<String, Long> serviceStartupTimes,
+                                OMRSAuditLog      auditLog,
+                                String            actionDescription)
+    {
+        long startupTime = System.currentTimeMillis() - startTime;
+
+        serviceStartupTimes.put(serviceName, startupTime);
+        auditLog.logMessage(actionDescription,
+                            OMAGAdminAuditCode.SERVICE_STARTUP_TIME.getMessageDefinition(serviceName,
+                                                                                         Long.toString(startupTime),
+                                                                                         serverName));
+    }
+
+
+    /**
+     * Record the times that the services started by an orchestrator took to start, and the services that were not
+     * started because another service failed.
+     *
+     * @param orchestrator orchestrator that has run
+     * @param serverName name of the server
+     * @param serviceStartupTimes map of service name to start up time in milliseconds
+     * @param auditLog audit log
+     * @param actionDescription calling activity
+     */
+    private void logStartupTimes(OMAGServerStartupOrchestrator orchestrator,
+                                 String                        serverName,
+                                 Map<String, Long>             serviceStartupTimes,
+                                 OMRSAuditLog                  auditLog,
+                                 String                        actionDescription)
+    {
+        Map<String, Long> startupTimes = orchestrator.getStartupTimes();
+
+        for (String serviceName : startupTimes.keySet())
+        {
+            serviceStartupTimes.put(serviceName, startupTimes.get(serviceName));
+            auditLog.logMessage(actionDescription,
+                                OMAGAdminAuditCode.SERVICE_STARTUP_TIME.getMessageDefinition(serviceName,
+                                                                                             Long.toString(startupTimes.get(serviceName)),
+                                                                                             serverName));
+        }
+
+        for (String serviceName : orchestrator.getSkippedTasks())
+        {
+            auditLog.logMessage(actionDescription,
+                                OMAGAdminAuditCode.SERVICE_STARTUP_SKIPPED.getMessageDefinition(serviceName,
+                                                                                                serverName,
+                                                                                                orchestrator.getFailedTask()));
+        }
+    }
+
+
     /**
      * Create an instance of the access service's admin class from the class name in the configuration.
      *
@@ -1224,6 +1480,8 @@ public class OMAGServerOperationalServices
                     instance.getOperationalRepositoryServices().disconnect(permanentDeactivation);
                 }
 
+                AnchorCache.removeAnchorCache(serverName);
+
                 instanceHandler.removeServerServiceInstance(serverName);
 
                 if (auditLog != null)
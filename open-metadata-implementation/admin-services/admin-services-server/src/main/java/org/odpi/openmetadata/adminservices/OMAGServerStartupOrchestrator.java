@@ -0,0 +1,418 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adminservices;
+
+import org.odpi.openmetadata.adminservices.ffdc.OMAGAdminErrorCode;
+import org.odpi.openmetadata.adminservices.ffdc.exception.OMAGConfigurationErrorException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OMAGServerStartupOrchestrator starts a set of named services (or servers) concurrently.  Each task is added with
+ * the names of the tasks that must finish before it can begin.  These must already have been added, so the tasks
+ * always form a graph without cycles and the order that they were added is a valid order to run them one at a time.
+ * Once a task fails, no more tasks are started.  Those already running are allowed to finish so they can be shutdown
+ * cleanly by the caller.  The time that each successful task took is recorded.
+ */
+class OMAGServerStartupOrchestrator
+{
+    /**
+     * StartupTask is the work to start one service.
+     */
+    interface StartupTask
+    {
+        /**
+         * Start the service.
+         *
+         * @throws OMAGConfigurationErrorException the service failed to start
+         */
+        void start() throws OMAGConfigurationErrorException;
+    }
+
+
+    /**
+     * TaskDefinition holds a task and the names of the tasks it depends on.
+     */
+    private static class TaskDefinition
+    {
+        private final String       taskName;
+        private final List<String> prerequisites;
+        private final StartupTask  task;
+
+        /**
+         * Constructor.
+         *
+         * @param taskName unique name of the task
+         * @param prerequisites names of the tasks that must finish first
+         * @param task work to do
+         */
+        TaskDefinition(String       taskName,
+                       List<String> prerequisites,
+                       StartupTask  task)
+        {
+            this.taskName      = taskName;
+            this.prerequisites = prerequisites;
+            this.task          = task;
+        }
+    }
+
+
+    /**
+     * TaskResult is returned from a task running on a startup thread.
+     */
+    private static class TaskResult
+    {
+        private final TaskDefinition                  taskDefinition;
+        private final long                            startupTime;
+        private final OMAGConfigurationErrorException error;
+
+        /**
+         * Constructor.
+         *
+         * @param taskDefinition task that ran
+         * @param startupTime elapsed time in milliseconds
+         * @param error exception from the task or null if it succeeded
+         */
+        TaskResult(TaskDefinition                  taskDefinition,
+                   long                            startupTime,
+                   OMAGConfigurationErrorException error)
+        {
+            this.taskDefinition = taskDefinition;
+            this.startupTime    = startupTime;
+            this.error          = error;
+        }
+    }
+
+
+    private final String                      serverName;
+    private final int                         maxThreads;
+    private final Map<String, TaskDefinition> taskDefinitions = new LinkedHashMap<>();
+    private final Map<String, Long>           startupTimes    = new HashMap<>();
+    private final List<String>                skippedTasks    = new ArrayList<>();
+    private       String                      failedTask      = null;
+
+
+    /**
+     * Constructor.
+     *
+     * @param serverName name of the server (or platform) being started - used in thread names and error messages
+     * @param maxThreads maximum number of tasks to run at once - 1 or less means run the tasks one at a time
+     *                   on the calling thread
+     */
+    OMAGServerStartupOrchestrator(String serverName,
+                                  int    maxThreads)
+    {
+        this.serverName = serverName;
+        this.maxThreads = maxThreads;
+    }
+
+
+    /**
+     * Add a task to the graph.
+     *
+     * @param taskName unique name of the task
+     * @param prerequisites names of tasks, already added, that must finish before this task starts
+     * @param task work to do
+     * @throws IllegalArgumentException the name is already used or a prerequisite has not been added
+     */
+    void addTask(String       taskName,
+                 List<String> prerequisites,
+                 StartupTask  task)
+    {
+        if (taskDefinitions.containsKey(taskName))
+        {
+            throw new IllegalArgumentException("Startup task " + taskName + " is already defined");
+        }
+
+        List<String> taskPrerequisites = new ArrayList<>();
+
+        if (prerequisites != null)
+        {
+            for (String prerequisite : prerequisites)
+            {
+                if (! taskDefinitions.containsKey(prerequisite))
+                {
+                    throw new IllegalArgumentException("Startup task " + taskName + " depends on unknown task " + prerequisite);
+                }
+
+                taskPrerequisites.add(prerequisite);
+            }
+        }
+
+        taskDefinitions.put(taskName, new TaskDefinition(taskName, taskPrerequisites, task));
+    }
+
+
+    /**
+     * Add a task that has no prerequisites.
+     *
+     * @param taskName unique name of the task
+     * @param task work to do
+     */
+    void addTask(String      taskName,
+                 StartupTask task)
+    {
+        addTask(taskName, null, task);
+    }
+
+
+    /**
+     * Run all of the tasks.  If any task fails, the exception from the failed task that was added first is
+     * thrown after all running tasks have finished.
+     *
+     * @throws OMAGConfigurationErrorException a task failed
+     */
+    void run() throws OMAGConfigurationErrorException
+    {
+        int threadCount = Math.min(maxThreads, taskDefinitions.size());
+
+        if (threadCount <= 1)
+        {
+            runInline();
+        }
+        else
+        {
+            runConcurrently(threadCount);
+        }
+    }
+
+
+    /**
+     * Run the tasks one at a time in the order they were added.
+     *
+     * @throws OMAGConfigurationErrorException a task failed
+     */
+    private void runInline() throws OMAGConfigurationErrorException
+    {
+        OMAGConfigurationErrorException error = null;
+
+        for (TaskDefinition taskDefinition : taskDefinitions.values())
+        {
+            if (error == null)
+            {
+                TaskResult result = runTask(taskDefinition);
+
+                if (result.error == null)
+                {
+                    startupTimes.put(taskDefinition.taskName, result.startupTime);
+                }
+                else
+                {
+                    failedTask = taskDefinition.taskName;
+                    error      = result.error;
+                }
+            }
+            else
+            {
+                skippedTasks.add(taskDefinition.taskName);
+            }
+        }
+
+        if (error != null)
+        {
+            throw error;
+        }
+    }
+
+
+    /**
+     * Run the tasks on a pool of threads, starting each task as soon as its prerequisites have finished.
+     *
+     * @param threadCount number of threads in the pool
+     * @throws OMAGConfigurationErrorException a task failed
+     */
+    private void runConcurrently(int threadCount) throws OMAGConfigurationErrorException
+    {
+        final String methodName = "run";
+
+        AtomicInteger threadNumber = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, runnable ->
+        {
+            Thread thread = new Thread(runnable, "OMAGServerStartup-" + serverName + "-" + threadNumber.incrementAndGet());
+
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        CompletionService<TaskResult>                completionService = new ExecutorCompletionService<>(executor);
+        List<TaskDefinition>                         waitingTasks      = new ArrayList<>(taskDefinitions.values());
+        Set<String>                                  finishedTasks     = new HashSet<>();
+        Map<String, OMAGConfigurationErrorException> errors            = new HashMap<>();
+        int                                          runningTaskCount  = 0;
+
+        try
+        {
+            do
+            {
+                /*
+                 * Start every waiting task whose prerequisites have finished, up to the number of threads.
+                 */
+                if (errors.isEmpty())
+                {
+                    List<TaskDefinition> readyTasks = new ArrayList<>();
+
+                    for (TaskDefinition taskDefinition : waitingTasks)
+                    {
+                        if ((runningTaskCount + readyTasks.size() < threadCount) && (finishedTasks.containsAll(taskDefinition.prerequisites)))
+                        {
+                            readyTasks.add(taskDefinition);
+                        }
+                    }
+
+                    for (TaskDefinition taskDefinition : readyTasks)
+                    {
+                        waitingTasks.remove(taskDefinition);
+                        completionService.submit(() -> runTask(taskDefinition));
+                        runningTaskCount ++;
+                    }
+                }
+
+                if (runningTaskCount > 0)
+                {
+                    TaskResult result = completionService.take().get();
+
+                    runningTaskCount --;
+
+                    if (result.error == null)
+                    {
+                        finishedTasks.add(result.taskDefinition.taskName);
+                        startupTimes.put(result.taskDefinition.taskName, result.startupTime);
+                    }
+                    else
+                    {
+                        errors.put(result.taskDefinition.taskName, result.error);
+                    }
+                }
+            }
+            while ((runningTaskCount > 0) || ((errors.isEmpty()) && (! waitingTasks.isEmpty())));
+        }
+        catch (InterruptedException | ExecutionException error)
+        {
+            if (error instanceof InterruptedException)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            executor.shutdownNow();
+
+            throw new OMAGConfigurationErrorException(OMAGAdminErrorCode.SERVER_STARTUP_FAILED.getMessageDefinition(serverName,
+                                                                                                                    error.getMessage()),
+                                                      this.getClass().getName(),
+                                                      methodName,
+                                                      error);
+        }
+
+        executor.shutdown();
+
+        for (TaskDefinition taskDefinition : waitingTasks)
+        {
+            skippedTasks.add(taskDefinition.taskName);
+        }
+
+        /*
+         * Report the failure of the task that was added first so the error is the same from one start up to the next.
+         */
+        for (String taskName : taskDefinitions.keySet())
+        {
+            if (errors.containsKey(taskName))
+            {
+                failedTask = taskName;
+                throw errors.get(taskName);
+            }
+        }
+    }
+
+
+    /**
+     * Run a single task, timing it and capturing any error.  Unchecked exceptions and errors are converted to
+     * configuration errors so they are reported as the failure of this task in the same way as other start up
+     * failures, rather than ending the start up and interrupting the tasks that are still running.
+     *
+     * @param taskDefinition task to run
+     * @return result of the task
+     */
+    private TaskResult runTask(TaskDefinition taskDefinition)
+    {
+        final String methodName = "runTask";
+
+        long startTime = System.currentTimeMillis();
+
+        try
+        {
+            taskDefinition.task.start();
+
+            return new TaskResult(taskDefinition, System.currentTimeMillis() - startTime, null);
+        }
+        catch (OMAGConfigurationErrorException error)
+        {
+            return new TaskResult(taskDefinition, System.currentTimeMillis() - startTime, error);
+        }
+        catch (Throwable error)
+        {
+            return new TaskResult(taskDefinition,
+                                  System.currentTimeMillis() - startTime,
+                                  new OMAGConfigurationErrorException(OMAGAdminErrorCode.UNEXPECTED_INITIALIZATION_EXCEPTION.getMessageDefinition(serverName,
+                                                                                                                                                 taskDefinition.taskName,
+                                                                                                                                                 error.getMessage()),
+                                                                      this.getClass().getName(),
+                                                                      methodName,
+                                                                      error));
+        }
+    }
+
+
+    /**
+     * Return the time in milliseconds that each successful task took, in the order that the tasks were added.
+     *
+     * @return map of task name to elapsed time
+     */
+    Map<String, Long> getStartupTimes()
+    {
+        Map<String, Long> orderedStartupTimes = new LinkedHashMap<>();
+
+        for (String taskName : taskDefinitions.keySet())
+        {
+            if (startupTimes.containsKey(taskName))
+            {
+                orderedStartupTimes.put(taskName, startupTimes.get(taskName));
+            }
+        }
+
+        return orderedStartupTimes;
+    }
+
+
+    /**
+     * Return the names of the tasks that were not started because another task failed.
+     *
+     * @return list of task names in the order they were added
+     */
+    List<String> getSkippedTasks()
+    {
+        return Collections.unmodifiableList(skippedTasks);
+    }
+
+
+    /**
+     * Return the name of the task whose failure stopped the start up.
+     *
+     * @return task name or null if all tasks succeeded
+     */
+    String getFailedTask()
+    {
+        return failedTask;
+    }
+}
@@ -0,0 +1,240 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adminservices;
+
+import org.odpi.openmetadata.adminservices.ffdc.OMAGAdminErrorCode;
+import org.odpi.openmetadata.adminservices.ffdc.exception.OMAGConfigurationErrorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verify the ordering, error handling and timing of the start up orchestrator.
+ */
+public class TestOMAGServerStartupOrchestrator
+{
+    private static final String SERVER_NAME = "testServer";
+
+
+    /**
+     * Return a task that records its name when it runs.
+     *
+     * @param taskName name of the task
+     * @param startedTasks list of tasks that have run
+     * @return task
+     */
+    private OMAGServerStartupOrchestrator.StartupTask getTask(String       taskName,
+                                                              List<String> startedTasks)
+    {
+        return () -> startedTasks.add(taskName);
+    }
+
+
+    /**
+     * Return a task that fails.
+     *
+     * @param taskName name of the task
+     * @return task
+     */
+    private OMAGServerStartupOrchestrator.StartupTask getFailingTask(String taskName)
+    {
+        return () ->
+        {
+            throw new OMAGConfigurationErrorException(OMAGAdminErrorCode.SERVER_STARTUP_FAILED.getMessageDefinition(SERVER_NAME, taskName),
+                                                      this.getClass().getName(),
+                                                      "getFailingTask");
+        };
+    }
+
+
+    /**
+     * Tasks with prerequisites only start once their prerequisites have finished.
+     *
+     * @throws OMAGConfigurationErrorException unexpected failure
+     */
+    @Test
+    public void testPrerequisitesRunFirst() throws OMAGConfigurationErrorException
+    {
+        List<String>                  startedTasks = Collections.synchronizedList(new ArrayList<>());
+        OMAGServerStartupOrchestrator orchestrator = new OMAGServerStartupOrchestrator(SERVER_NAME, 4);
+
+        orchestrator.addTask("repository", getTask("repository", startedTasks));
+        orchestrator.addTask("access1", Collections.singletonList("repository"), getTask("access1", startedTasks));
+        orchestrator.addTask("access2", Collections.singletonList("repository"), getTask("access2", startedTasks));
+        orchestrator.addTask("topic", Arrays.asList("access1", "access2"), getTask("topic", startedTasks));
+
+        orchestrator.run();
+
+        assertEquals(4, startedTasks.size());
+        assertEquals("repository", startedTasks.get(0));
+        assertEquals("topic", startedTasks.get(3));
+        assertEquals(Arrays.asList("repository", "access1", "access2", "topic"), new ArrayList<>(orchestrator.getStartupTimes().keySet()));
+        assertTrue(orchestrator.getSkippedTasks().isEmpty());
+        assertNull(orchestrator.getFailedTask());
+    }
+
+
+    /**
+     * Independent tasks run at the same time.  Each task waits for the other to start, so this only
+     * completes if both are running concurrently.
+     *
+     * @throws OMAGConfigurationErrorException unexpected failure
+     */
+    @Test
+    public void testIndependentTasksRunConcurrently() throws OMAGConfigurationErrorException
+    {
+        CountDownLatch                bothStarted  = new CountDownLatch(2);
+        OMAGServerStartupOrchestrator orchestrator = new OMAGServerStartupOrchestrator(SERVER_NAME, 2);
+
+        OMAGServerStartupOrchestrator.StartupTask task = () ->
+        {
+            bothStarted.countDown();
+
+            try
+            {
+                if (! bothStarted.await(10, TimeUnit.SECONDS))
+                {
+                    throw new IllegalStateException("Tasks did not run concurrently");
+                }
+            }
+            catch (InterruptedException error)
+            {
+                throw new IllegalStateException(error);
+            }
+        };
+
+        orchestrator.addTask("access1", task);
+        orchestrator.addTask("access2", task);
+
+        orchestrator.run();
+
+        assertEquals(2, orchestrator.getStartupTimes().size());
+    }
+
+
+    /**
+     * Once a task fails, no more tasks are started and the error from the failed task is returned.
+     */
+    @Test
+    public void testFailFast()
+    {
+        List<String>                  startedTasks = Collections.synchronizedList(new ArrayList<>());
+        OMAGServerStartupOrchestrator orchestrator = new OMAGServerStartupOrchestrator(SERVER_NAME, 2);
+
+        orchestrator.addTask("repository", getTask("repository", startedTasks));
+        orchestrator.addTask("access1", Collections.singletonList("repository"), getFailingTask("access1"));
+        orchestrator.addTask("access2", Collections.singletonList("access1"), getTask("access2", startedTasks));
+        orchestrator.addTask("access3", Collections.singletonList("access2"), getTask("access3", startedTasks));
+
+        OMAGConfigurationErrorException error = assertThrows(OMAGConfigurationErrorException.class, orchestrator::run);
+
+        assertTrue(error.getReportedErrorMessage().contains("access1"));
+        assertEquals("access1", orchestrator.getFailedTask());
+        assertEquals(Collections.singletonList("repository"), startedTasks);
+        assertEquals(Arrays.asList("access2", "access3"), orchestrator.getSkippedTasks());
+        assertEquals(Collections.singletonList("repository"), new ArrayList<>(orchestrator.getStartupTimes().keySet()));
+    }
+
+
+    /**
+     * An error thrown by a task is reported as the failure of that task and the tasks that are already
+     * running are left to finish.
+     */
+    @Test
+    public void testErrorReportedAsTaskFailure()
+    {
+        CountDownLatch                errorThrown  = new CountDownLatch(1);
+        List<String>                  interrupted  = Collections.synchronizedList(new ArrayList<>());
+        OMAGServerStartupOrchestrator orchestrator = new OMAGServerStartupOrchestrator(SERVER_NAME, 2);
+
+        orchestrator.addTask("access1", () ->
+        {
+            errorThrown.countDown();
+            throw new LinkageError("access1 class is missing");
+        });
+        orchestrator.addTask("access2", () ->
+        {
+            try
+            {
+                errorThrown.await(10, TimeUnit.SECONDS);
+                Thread.sleep(100);
+            }
+            catch (InterruptedException error)
+            {
+                interrupted.add("access2");
+            }
+        });
+
+        OMAGConfigurationErrorException error = assertThrows(OMAGConfigurationErrorException.class, orchestrator::run);
+
+        assertTrue(error.getReportedErrorMessage().contains("access1 class is missing"));
+        assertTrue(error.getCause() instanceof LinkageError);
+        assertEquals("access1", orchestrator.getFailedTask());
+        assertEquals(Collections.singletonList("access2"), new ArrayList<>(orchestrator.getStartupTimes().keySet()));
+        assertTrue(interrupted.isEmpty());
+    }
+
+
+    /**
+     * When several tasks fail, the error from the task added first is returned.
+     */
+    @Test
+    public void testFirstDeclaredFailureReported()
+    {
+        OMAGServerStartupOrchestrator orchestrator = new OMAGServerStartupOrchestrator(SERVER_NAME, 2);
+
+        orchestrator.addTask("access1", getFailingTask("access1"));
+        orchestrator.addTask("access2", getFailingTask("access2"));
+
+        assertThrows(OMAGConfigurationErrorException.class, orchestrator::run);
+        assertEquals("access1", orchestrator.getFailedTask());
+    }
+
+
+    /**
+     * With one thread the tasks run on the calling thread in the order they were added.  Unchecked exceptions
+     * are returned as configuration errors.
+     */
+    @Test
+    public void testInline()
+    {
+        List<String>                  startedTasks = new ArrayList<>();
+        OMAGServerStartupOrchestrator orchestrator = new OMAGServerStartupOrchestrator(SERVER_NAME, 1);
+        Thread                        callerThread = Thread.currentThread();
+
+        orchestrator.addTask("repository", getTask("repository", startedTasks));
+        orchestrator.addTask("thread", () -> assertSame(callerThread, Thread.currentThread()));
+        orchestrator.addTask("access1", () -> { throw new IllegalStateException("bad access service"); });
+        orchestrator.addTask("access2", getTask("access2", startedTasks));
+
+        OMAGConfigurationErrorException error = assertThrows(OMAGConfigurationErrorException.class, orchestrator::run);
+
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertEquals(Collections.singletonList("repository"), startedTasks);
+        assertEquals(Collections.singletonList("access2"), orchestrator.getSkippedTasks());
+    }
+
+
+    /**
+     * Prerequisites must be added before the tasks that depend on them.
+     */
+    @Test
+    public void testUnknownPrerequisite()
+    {
+        OMAGServerStartupOrchestrator orchestrator = new OMAGServerStartupOrchestrator(SERVER_NAME, 2);
+
+        orchestrator.addTask("repository", () -> { });
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> orchestrator.addTask("access1", Collections.singletonList("topic"), () -> { }));
+        assertThrows(IllegalArgumentException.class,
+                     () -> orchestrator.addTask("repository", () -> { }));
+    }
+}
@@ -0,0 +1,611 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.generichandlers;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AnchorCache is shared by all of the generic handlers in a server.  It saves the results of the two lookups that are made
+ * when an element that has an anchor (such as a schema attribute or a comment) is retrieved:
+ * <ul>
+ *     <li>The unique identifier of the anchor when it is found by walking the relationships because the element does not
+ *     have the Anchors classification.</li>
+ *     <li>The anchor entity itself, which holds the properties (such as the zones of an asset) needed to decide whether the
+ *     element is visible to the caller.  The entity is saved for each user that retrieved it so the checks made by the
+ *     repository when an entity is retrieved have been made for that user.</li>
+ * </ul>
+ * The cache is kept up to date by the AnchorCacheListener, which receives the OMRS instance events from the enterprise topic.
+ * This means the cache is only created for servers that have the enterprise topic.  Both parts of the cache are bounded.  The
+ * least recently used entries are removed when they are full.  A value retrieved from the repository is only saved if no
+ * change that affects it was reported while it was being retrieved.
+ */
+public class AnchorCache
+{
+    private static final int defaultMaxElements       = 10000;
+    private static final int defaultMaxAnchors        = 1000;
+    private static final int defaultMaxAnchorEntities = 10000;
+
+    private static final Map<String, AnchorCache> serverAnchorCaches = new ConcurrentSkipListMap<>();
+
+    private final int maxAnchorEntities;
+
+    /*
+     * The element to anchor mappings, and for each anchor the elements mapped to it.  Both are guarded by anchorGUIDs.
+     */
+    private final Map<String, String>                    anchorGUIDs;
+    private final Map<String, Set<String>>               anchoredElements = new HashMap<>();
+
+    /*
+     * The copies of each anchor entity for each user, and the number of copies.  Both are guarded by anchorEntities.
+     */
+    private final Map<String, Map<String, EntityDetail>> anchorEntities;
+    private int                                          anchorEntityCount = 0;
+
+    /*
+     * The change count at which each recently changed element was last affected by a relationship change.  An entry
+     * that is removed to keep the map bounded raises relationshipChangeFloor so that saves started before it are refused.
+     * Both are guarded by anchorGUIDs.
+     */
+    private final Map<String, Long>                      relationshipChanges;
+    private long                                         relationshipChangeFloor = 0;
+
+    private final AtomicLong changeCount        = new AtomicLong(0);
+    private final AtomicLong lastEntityChange   = new AtomicLong(0);
+    private final AtomicLong anchorGUIDHits     = new AtomicLong(0);
+    private final AtomicLong anchorGUIDMisses   = new AtomicLong(0);
+    private final AtomicLong anchorEntityHits   = new AtomicLong(0);
+    private final AtomicLong anchorEntityMisses = new AtomicLong(0);
+
+
+    /**
+     * Constructor with the default sizes.
+     */
+    public AnchorCache()
+    {
+        this(defaultMaxElements, defaultMaxAnchors, defaultMaxAnchorEntities);
+    }
+
+
+    /**
+     * Constructor with the default limit on the copies of the anchor entities.
+     *
+     * @param maxElements maximum number of element to anchor mappings to keep
+     * @param maxAnchors maximum number of anchor entities to keep
+     */
+    public AnchorCache(int maxElements,
+                       int maxAnchors)
+    {
+        this(maxElements, maxAnchors, defaultMaxAnchorEntities);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param maxElements maximum number of element to anchor mappings to keep
+     * @param maxAnchors maximum number of anchor entities to keep
+     * @param maxAnchorEntities maximum number of copies of the anchor entities to keep across all anchors and users
+     */
+    public AnchorCache(int maxElements,
+                       int maxAnchors,
+                       int maxAnchorEntities)
+    {
+        this.maxAnchorEntities = Math.max(maxAnchorEntities, 1);
+
+        this.anchorGUIDs = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+            {
+                if (size() > maxElements)
+                {
+                    removeAnchoredElement(eldest.getKey(), eldest.getValue());
+
+                    return true;
+                }
+
+                return false;
+            }
+        };
+
+        this.anchorEntities = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, EntityDetail>> eldest)
+            {
+                if (size() > maxAnchors)
+                {
+                    anchorEntityCount -= eldest.getValue().size();
+
+                    return true;
+                }
+
+                return false;
+            }
+        };
+
+        this.relationshipChanges = new LinkedHashMap<>(16, 0.75f, false)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest)
+            {
+                if (size() > maxElements)
+                {
+                    relationshipChangeFloor = Math.max(relationshipChangeFloor, eldest.getValue());
+
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+
+    /**
+     * Create the anchor cache for a server.  This replaces any cache left from a previous run of the server.
+     *
+     * @param serverName name of the server
+     * @return new cache
+     */
+    public static AnchorCache createAnchorCache(String serverName)
+    {
+        AnchorCache anchorCache = new AnchorCache();
+
+        serverAnchorCaches.put(serverName, anchorCache);
+
+        return anchorCache;
+    }
+
+
+    /**
+     * Return the anchor cache for a server.
+     *
+     * @param serverName name of the server
+     * @return cache or null if the server does not have one
+     */
+    public static AnchorCache getAnchorCache(String serverName)
+    {
+        if (serverName == null)
+        {
+            return null;
+        }
+
+        return serverAnchorCaches.get(serverName);
+    }
+
+
+    /**
+     * Remove the anchor cache for a server when it shuts down.
+     *
+     * @param serverName name of the server
+     */
+    public static void removeAnchorCache(String serverName)
+    {
+        if (serverName != null)
+        {
+            serverAnchorCaches.remove(serverName);
+        }
+    }
+
+
+    /**
+     * Return the number of changes reported to the cache.  This is read before retrieving a value from the repository and passed
+     * when the value is saved.
+     *
+     * @return count
+     */
+    long getChangeCount()
+    {
+        return changeCount.get();
+    }
+
+
+    /**
+     * Return the unique identifier of the anchor for an element.
+     *
+     * @param elementGUID unique identifier of the element
+     * @return anchor unique identifier or null if it is not known
+     */
+    String getAnchorGUID(String elementGUID)
+    {
+        String anchorGUID;
+
+        synchronized (anchorGUIDs)
+        {
+            anchorGUID = anchorGUIDs.get(elementGUID);
+        }
+
+        if (anchorGUID == null)
+        {
+            anchorGUIDMisses.incrementAndGet();
+        }
+        else
+        {
+            anchorGUIDHits.incrementAndGet();
+        }
+
+        return anchorGUID;
+    }
+
+
+    /**
+     * Save the unique identifier of the anchor for an element.  It is not saved if the element or the anchor were changed
+     * while the anchor was being derived.
+     *
+     * @param elementGUID unique identifier of the element
+     * @param anchorGUID unique identifier of its anchor
+     * @param retrievalChangeCount change count from before the anchor was derived
+     */
+    void saveAnchorGUID(String elementGUID,
+                        String anchorGUID,
+                        long   retrievalChangeCount)
+    {
+        if ((elementGUID != null) && (anchorGUID != null))
+        {
+            synchronized (anchorGUIDs)
+            {
+                if ((lastEntityChange.get() <= retrievalChangeCount) &&
+                    (relationshipChangeFloor <= retrievalChangeCount) &&
+                    (relationshipChanges.getOrDefault(elementGUID, 0L) <= retrievalChangeCount) &&
+                    (relationshipChanges.getOrDefault(anchorGUID, 0L) <= retrievalChangeCount))
+                {
+                    String oldAnchorGUID = anchorGUIDs.put(elementGUID, anchorGUID);
+
+                    if (oldAnchorGUID != null)
+                    {
+                        this.removeAnchoredElement(elementGUID, oldAnchorGUID);
+                    }
+
+                    anchoredElements.computeIfAbsent(anchorGUID, anchor -> new HashSet<>()).add(elementGUID);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Remove an element from the reverse index of an anchor.  The caller holds the lock on anchorGUIDs.
+     *
+     * @param elementGUID unique identifier of the element
+     * @param anchorGUID unique identifier of its anchor
+     */
+    private void removeAnchoredElement(String elementGUID,
+                                       String anchorGUID)
+    {
+        Set<String> elementGUIDs = anchoredElements.get(anchorGUID);
+
+        if (elementGUIDs != null)
+        {
+            elementGUIDs.remove(elementGUID);
+
+            if (elementGUIDs.isEmpty())
+            {
+                anchoredElements.remove(anchorGUID);
+            }
+        }
+    }
+
+
+    /**
+     * Return a copy of an anchor entity that was retrieved by the user.
+     *
+     * @param userId calling user
+     * @param anchorGUID unique identifier of the anchor
+     * @return copy of the entity or null if it is not known
+     */
+    EntityDetail getAnchorEntity(String userId,
+                                 String anchorGUID)
+    {
+        EntityDetail anchorEntity = null;
+
+        synchronized (anchorEntities)
+        {
+            Map<String, EntityDetail> userAnchorEntities = anchorEntities.get(anchorGUID);
+
+            if (userAnchorEntities != null)
+            {
+                anchorEntity = userAnchorEntities.get(userId);
+            }
+        }
+
+        if (anchorEntity == null)
+        {
+            anchorEntityMisses.incrementAndGet();
+
+            return null;
+        }
+
+        anchorEntityHits.incrementAndGet();
+
+        return new EntityDetail(anchorEntity);
+    }
+
+
+    /**
+     * Save a copy of an anchor entity retrieved by the user.  The least recently used anchors are removed when the total
+     * number of copies is over the limit.  If a single anchor has more copies than the limit, its oldest copies are removed.
+     *
+     * @param userId calling user
+     * @param anchorEntity entity retrieved from the repository
+     * @param retrievalChangeCount change count from before the entity was retrieved
+     */
+    void saveAnchorEntity(String       userId,
+                          EntityDetail anchorEntity,
+                          long         retrievalChangeCount)
+    {
+        if ((userId != null) && (anchorEntity != null) && (anchorEntity.getGUID() != null))
+        {
+            EntityDetail savedEntity = new EntityDetail(anchorEntity);
+
+            synchronized (anchorEntities)
+            {
+                if (lastEntityChange.get() <= retrievalChangeCount)
+                {
+                    Map<String, EntityDetail> userAnchorEntities = anchorEntities.computeIfAbsent(anchorEntity.getGUID(),
+                                                                                                  anchorGUID -> new LinkedHashMap<>());
+
+                    if (userAnchorEntities.put(userId, savedEntity) == null)
+                    {
+                        anchorEntityCount++;
+                    }
+
+                    Iterator<Map<String, EntityDetail>> anchorIterator = anchorEntities.values().iterator();
+
+                    while ((anchorEntityCount > maxAnchorEntities) && (anchorIterator.hasNext()))
+                    {
+                        Map<String, EntityDetail> eldestAnchorEntities = anchorIterator.next();
+
+                        if (eldestAnchorEntities != userAnchorEntities)
+                        {
+                            anchorEntityCount -= eldestAnchorEntities.size();
+                            anchorIterator.remove();
+                        }
+                    }
+
+                    Iterator<String> userIterator = userAnchorEntities.keySet().iterator();
+
+                    while ((anchorEntityCount > maxAnchorEntities) && (userIterator.hasNext()))
+                    {
+                        if (! userId.equals(userIterator.next()))
+                        {
+                            anchorEntityCount--;
+                            userIterator.remove();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * An entity has changed.  Any saved anchor for the entity is removed along with any copies of the entity
+     * saved as an anchor.
+     *
+     * @param entityGUID unique identifier of the entity
+     */
+    public void entityChanged(String entityGUID)
+    {
+        if (entityGUID != null)
+        {
+            lastEntityChange.accumulateAndGet(changeCount.incrementAndGet(), Math::max);
+
+            synchronized (anchorGUIDs)
+            {
+                String anchorGUID = anchorGUIDs.remove(entityGUID);
+
+                if (anchorGUID != null)
+                {
+                    this.removeAnchoredElement(entityGUID, anchorGUID);
+                }
+            }
+
+            synchronized (anchorEntities)
+            {
+                Map<String, EntityDetail> userAnchorEntities = anchorEntities.remove(entityGUID);
+
+                if (userAnchorEntities != null)
+                {
+                    anchorEntityCount -= userAnchorEntities.size();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * A relationship between two entities has changed.  The anchors of the elements are found by walking a chain of
+     * relationships towards the anchor, so the saved anchors are removed for the two ends, for the elements anchored
+     * to either end, and for the elements that share an anchor with either end.  A change further along the chain, between
+     * entities that have no saved anchor, is not seen.  This is why the cache only holds the anchors of elements that can
+     * not have the Anchors classification.  The saved anchor entities are not affected.
+     *
+     * @param end1GUID unique identifier of the entity at one end of the relationship
+     * @param end2GUID unique identifier of the entity at the other end of the relationship
+     */
+    public void relationshipChanged(String end1GUID,
+                                    String end2GUID)
+    {
+        if ((end1GUID == null) && (end2GUID == null))
+        {
+            this.relationshipChanged();
+            return;
+        }
+
+        synchronized (anchorGUIDs)
+        {
+            long        relationshipChange = changeCount.incrementAndGet();
+            Set<String> changedGUIDs       = new HashSet<>();
+
+            for (String endGUID : new String[]{ end1GUID, end2GUID })
+            {
+                if (endGUID != null)
+                {
+                    changedGUIDs.add(endGUID);
+
+                    String anchorGUID = anchorGUIDs.get(endGUID);
+
+                    if (anchorGUID != null)
+                    {
+                        changedGUIDs.add(anchorGUID);
+                    }
+                }
+            }
+
+            Set<String> elementGUIDs = new HashSet<>(changedGUIDs);
+
+            for (String changedGUID : changedGUIDs)
+            {
+                Set<String> anchoredElementGUIDs = anchoredElements.remove(changedGUID);
+
+                if (anchoredElementGUIDs != null)
+                {
+                    elementGUIDs.addAll(anchoredElementGUIDs);
+                }
+
+                relationshipChanges.remove(changedGUID);
+                relationshipChanges.put(changedGUID, relationshipChange);
+            }
+
+            for (String elementGUID : elementGUIDs)
+            {
+                String anchorGUID = anchorGUIDs.remove(elementGUID);
+
+                if (anchorGUID != null)
+                {
+                    this.removeAnchoredElement(elementGUID, anchorGUID);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * A relationship has changed but its ends are not known.  All of the saved anchors for the elements are removed.
+     * The saved anchor entities are not affected.
+     */
+    public void relationshipChanged()
+    {
+        synchronized (anchorGUIDs)
+        {
+            relationshipChangeFloor = changeCount.incrementAndGet();
+
+            anchorGUIDs.clear();
+            anchoredElements.clear();
+            relationshipChanges.clear();
+        }
+    }
+
+
+    /**
+     * Remove all of the content of the cache.  This is used when the changes to the instances are not known.
+     */
+    public void clear()
+    {
+        lastEntityChange.accumulateAndGet(changeCount.incrementAndGet(), Math::max);
+
+        synchronized (anchorGUIDs)
+        {
+            anchorGUIDs.clear();
+            anchoredElements.clear();
+            relationshipChanges.clear();
+        }
+
+        synchronized (anchorEntities)
+        {
+            anchorEntities.clear();
+            anchorEntityCount = 0;
+        }
+    }
+
+
+    /**
+     * Return the number of copies of anchor entities in the cache.
+     *
+     * @return count
+     */
+    int getAnchorEntityCount()
+    {
+        synchronized (anchorEntities)
+        {
+            return anchorEntityCount;
+        }
+    }
+
+
+    /**
+     * Return the number of times that an anchor unique identifier was found in the cache.
+     *
+     * @return count
+     */
+    public long getAnchorGUIDHits()
+    {
+        return anchorGUIDHits.get();
+    }
+
+
+    /**
+     * Return the number of times that an anchor unique identifier was not found in the cache.
+     *
+     * @return count
+     */
+    public long getAnchorGUIDMisses()
+    {
+        return anchorGUIDMisses.get();
+    }
+
+
+    /**
+     * Return the number of times that an anchor entity was found in the cache.
+     *
+     * @return count
+     */
+    public long getAnchorEntityHits()
+    {
+        return anchorEntityHits.get();
+    }
+
+
+    /**
+     * Return the number of times that an anchor entity was not found in the cache.
+     *
+     * @return count
+     */
+    public long getAnchorEntityMisses()
+    {
+        return anchorEntityMisses.get();
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of the cache metrics
+     */
+    @Override
+    public String toString()
+    {
+        return "AnchorCache{" +
+                       "anchorGUIDHits=" + anchorGUIDHits +
+                       ", anchorGUIDMisses=" + anchorGUIDMisses +
+                       ", anchorEntityHits=" + anchorEntityHits +
+                       ", anchorEntityMisses=" + anchorEntityMisses +
+                       '}';
+    }
+}
@@ -0,0 +1,169 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.generichandlers;
+
+import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSTopicListener;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
+
+/**
+ * AnchorCacheListener receives the OMRS instance events from the enterprise topic and removes the content of the
+ * anchor cache that they make out of date.
+ */
+public class AnchorCacheListener implements OMRSTopicListener
+{
+    private final AnchorCache anchorCache;
+
+
+    /**
+     * Constructor.
+     *
+     * @param anchorCache cache to maintain
+     */
+    public AnchorCacheListener(AnchorCache anchorCache)
+    {
+        this.anchorCache = anchorCache;
+    }
+
+
+    /**
+     * Registry events are ignored.
+     *
+     * @param event inbound event
+     */
+    @Override
+    public void processRegistryEvent(OMRSRegistryEvent event)
+    {
+    }
+
+
+    /**
+     * TypeDef events are ignored.
+     *
+     * @param event inbound event
+     */
+    @Override
+    public void processTypeDefEvent(OMRSTypeDefEvent event)
+    {
+    }
+
+
+    /**
+     * Remove the content of the cache that is affected by a change to an instance.
+     *
+     * @param event inbound event
+     */
+    @Override
+    public void processInstanceEvent(OMRSInstanceEvent event)
+    {
+        if ((event == null) || (event.getInstanceEventType() == null))
+        {
+            return;
+        }
+
+        switch (event.getInstanceEventType())
+        {
+            case NEW_ENTITY_EVENT:
+            case UPDATED_ENTITY_EVENT:
+            case UNDONE_ENTITY_EVENT:
+            case CLASSIFIED_ENTITY_EVENT:
+            case DECLASSIFIED_ENTITY_EVENT:
+            case RECLASSIFIED_ENTITY_EVENT:
+            case DELETED_ENTITY_EVENT:
+            case PURGED_ENTITY_EVENT:
+            case RESTORED_ENTITY_EVENT:
+            case RE_IDENTIFIED_ENTITY_EVENT:
+            case RETYPED_ENTITY_EVENT:
+            case RE_HOMED_ENTITY_EVENT:
+            case REFRESHED_ENTITY_EVENT:
+            case DELETE_PURGED_ENTITY_EVENT:
+                anchorCache.entityChanged(event.getInstanceGUID());
+                anchorCache.entityChanged(event.getOriginalInstanceGUID());
+                anchorCache.entityChanged(this.getGUID(event.getEntity()));
+                anchorCache.entityChanged(this.getGUID(event.getOriginalEntity()));
+                break;
+
+            case NEW_RELATIONSHIP_EVENT:
+            case UPDATED_RELATIONSHIP_EVENT:
+            case UNDONE_RELATIONSHIP_EVENT:
+            case DELETED_RELATIONSHIP_EVENT:
+            case PURGED_RELATIONSHIP_EVENT:
+            case RESTORED_RELATIONSHIP_EVENT:
+            case RE_IDENTIFIED_RELATIONSHIP_EVENT:
+            case RETYPED_RELATIONSHIP_EVENT:
+            case RE_HOMED_RELATIONSHIP_EVENT:
+            case REFRESHED_RELATIONSHIP_EVENT:
+            case DELETE_PURGED_RELATIONSHIP_EVENT:
+                if ((event.getRelationship() == null) && (event.getOriginalRelationship() == null))
+                {
+                    anchorCache.relationshipChanged();
+                }
+                else
+                {
+                    this.relationshipChanged(event.getRelationship());
+                    this.relationshipChanged(event.getOriginalRelationship());
+                }
+                break;
+
+            case BATCH_INSTANCES_EVENT:
+                anchorCache.clear();
+                break;
+
+            default:
+                break;
+        }
+    }
+
+
+    /**
+     * Remove the saved anchors affected by a change to a relationship from an event.
+     *
+     * @param relationship relationship or null
+     */
+    private void relationshipChanged(Relationship relationship)
+    {
+        if (relationship != null)
+        {
+            anchorCache.relationshipChanged(this.getGUID(relationship.getEntityOneProxy()),
+                                            this.getGUID(relationship.getEntityTwoProxy()));
+        }
+    }
+
+
+    /**
+     * Return the unique identifier of an entity from an event.
+     *
+     * @param entity entity or null
+     * @return unique identifier or null
+     */
+    private String getGUID(EntityDetail entity)
+    {
+        if (entity == null)
+        {
+            return null;
+        }
+
+        return entity.getGUID();
+    }
+
+
+    /**
+     * Return the unique identifier of the entity at one end of a relationship.
+     *
+     * @param entityProxy end of the relationship or null
+     * @return unique identifier or null
+     */
+    private String getGUID(EntityProxy entityProxy)
+    {
+        if (entityProxy == null)
+        {
+            return null;
+        }
+
+        return entityProxy.getGUID();
+    }
+}
@@ -0,0 +1,115 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.generichandlers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * EntitySearchCursors remembers where each page of a filtered entity search ended in the repository's results.
+ * The handlers filter the entities returned from the repository (for example, to remove entities in zones that
+ * the service does not support) so the startFrom of a request does not match a position in the repository's
+ * results.  Without a cursor, every page has to be retrieved from the start of the query with the earlier
+ * visible entities skipped.  When a cursor is saved for the page that the caller asks for next, the search can
+ * resume at that position instead.  Only the most recently used cursors are kept.
+ */
+class EntitySearchCursors
+{
+    private static final int defaultMaxCursors = 1000;
+
+    private final Map<String, Integer> cursors;
+
+
+    /**
+     * Constructor with the default number of cursors.
+     */
+    EntitySearchCursors()
+    {
+        this(defaultMaxCursors);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param maxCursors maximum number of cursors to keep
+     */
+    EntitySearchCursors(int maxCursors)
+    {
+        this.cursors = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest)
+            {
+                return size() > maxCursors;
+            }
+        };
+    }
+
+
+    /**
+     * Return the key that identifies a search.  Every parameter that affects which entities are retrieved or
+     * which of them are visible to the caller must be included.
+     *
+     * @param searchParameters parameters of the search
+     * @return key
+     */
+    static String getSearchKey(Object... searchParameters)
+    {
+        StringBuilder searchKey = new StringBuilder();
+
+        for (Object searchParameter : searchParameters)
+        {
+            searchKey.append(searchParameter).append('\u0000');
+        }
+
+        return searchKey.toString();
+    }
+
+
+    /**
+     * Return the position in the repository's results where the page of visible entities starting at startFrom
+     * begins.
+     *
+     * @param searchKey key for the search
+     * @param startFrom index of the first visible entity requested
+     * @return repository position or null if it is not known
+     */
+    Integer getCursor(String searchKey,
+                      int    startFrom)
+    {
+        if (startFrom == 0)
+        {
+            return 0;
+        }
+
+        synchronized (cursors)
+        {
+            return cursors.get(startFrom + "\u0000" + searchKey);
+        }
+    }
+
+
+    /**
+     * Save the position in the repository's results where the page of visible entities starting at startFrom
+     * begins.
+     *
+     * @param searchKey key for the search
+     * @param startFrom index of a visible entity
+     * @param repositoryPosition position of this entity in the repository's results
+     */
+    void saveCursor(String searchKey,
+                    int    startFrom,
+                    int    repositoryPosition)
+    {
+        if (startFrom > 0)
+        {
+            synchronized (cursors)
+            {
+                cursors.put(startFrom + "\u0000" + searchKey, repositoryPosition);
+            }
+        }
+    }
+}
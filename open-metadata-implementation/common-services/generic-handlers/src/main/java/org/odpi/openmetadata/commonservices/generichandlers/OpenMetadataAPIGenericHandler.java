@@ -14,10 +14,13 @@ import org.odpi.openmetadata.metadatasecurity.server.OpenMetadataServerSecurityV
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyComparisonOperator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyCondition;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.ClassificationErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
@@ -51,6 +54,8 @@ public class OpenMetadataAPIGenericHandler<B>
 
     protected RepositoryErrorHandler             errorHandler;
 
+    private final EntitySearchCursors            searchCursors = new EntitySearchCursors();
+
     private static final Logger log = LoggerFactory.getLogger(OpenMetadataAPIGenericHandler.class);
 
     protected AuditLog                           auditLog;
@@ -2860,6 +2865,25 @@ public class OpenMetadataAPIGenericHandler<B>
     }
 
 
+    /**
+     * Remove the anchors found by walking the relationships from the anchor cache.  This is called when this handler changes the
+     * relationships of an element rather than waiting for the events that report the change.
+     *
+     * @param targetGUID unique identifier of the element whose relationships have changed
+     * @param originalAnchorGUID the original anchor guid - may be null
+     */
+    private void clearDerivedAnchorGUIDs(String targetGUID,
+                                         String originalAnchorGUID)
+    {
+        AnchorCache anchorCache = AnchorCache.getAnchorCache(serverName);
+
+        if (anchorCache != null)
+        {
+            anchorCache.relationshipChanged(targetGUID, originalAnchorGUID);
+        }
+    }
+
+
     /**
      * Validates that the current anchorGUID is correct and updates it if it is not.
      *
@@ -2883,6 +2907,11 @@ public class OpenMetadataAPIGenericHandler<B>
                                                                 PropertyServerException,
                                                                 UserNotAuthorizedException
     {
+        /*
+         * The relationships have just changed so any anchors found by walking them earlier may be wrong.
+         */
+        this.clearDerivedAnchorGUIDs(targetGUID, originalAnchorGUID);
+
         /*
          * Find out the anchorGUID by following the relationships
          */
@@ -2933,6 +2962,11 @@ public class OpenMetadataAPIGenericHandler<B>
                                                                         PropertyServerException,
                                                                         UserNotAuthorizedException
     {
+        /*
+         * The relationships have just changed so any anchors found by walking them earlier may be wrong.
+         */
+        this.clearDerivedAnchorGUIDs(targetGUID, originalAnchorGUID);
+
         /*
          * Find out the anchorGUID by following the relationships
          */
@@ -3100,10 +3134,34 @@ public class OpenMetadataAPIGenericHandler<B>
          * The exception occurs where the entity is not being managed by this handler, or something equivalent that maintains the Anchors
          * classification.
          */
-        String anchorGUID = this.getAnchorGUIDFromAnchorsClassification(connectToEntity, methodName);
+        String      anchorGUID  = this.getAnchorGUIDFromAnchorsClassification(connectToEntity, methodName);
+        AnchorCache anchorCache = AnchorCache.getAnchorCache(serverName);
+
+        if ((anchorCache != null) && (isUpdate))
+        {
+            /*
+             * The cached copy of this element, if it is an anchor, is about to be out of date.
+             */
+            anchorCache.entityChanged(connectToGUID);
+        }
+
+        if ((anchorGUID == null) && (anchorCache != null))
+        {
+            /*
+             * The classification is missing - the relationships may have been walked already.
+             */
+            anchorGUID = anchorCache.getAnchorGUID(connectToGUID);
+        }
 
         if (anchorGUID == null)
         {
+            long changeCount = 0;
+
+            if (anchorCache != null)
+            {
+                changeCount = anchorCache.getChangeCount();
+            }
+
             /*
              * The classification is missing - so walk the relationships to find the anchor if it exists.
              */
@@ -3112,9 +3170,15 @@ public class OpenMetadataAPIGenericHandler<B>
             if (anchorGUID != null)
             {
                 /*
-                 * The anchor has been found so store it in the classification so it is easy to find next time.
+                 * The anchor has been found so store it in the classification so it is easy to find next time.  The classification
+                 * can not be stored in some elements (such as reference copies) so the anchor is also saved in the cache.
                  */
                 maintainAnchorGUIDInClassification(connectToGUID, connectToEntity, anchorGUID, methodName);
+
+                if (anchorCache != null)
+                {
+                    anchorCache.saveAnchorGUID(connectToGUID, anchorGUID, changeCount);
+                }
             }
         }
 
@@ -3128,11 +3192,49 @@ public class OpenMetadataAPIGenericHandler<B>
 
             if (! anchorGUID.equals(connectToEntity.getGUID()))
             {
-                anchorEntity = repositoryHandler.getEntityByGUID(userId,
-                                                                 anchorGUID,
-                                                                 anchorGUIDParameterName,
-                                                                 OpenMetadataAPIMapper.REFERENCEABLE_TYPE_NAME,
-                                                                 methodName);
+                if (anchorCache == null)
+                {
+                    anchorEntity = repositoryHandler.getEntityByGUID(userId,
+                                                                     anchorGUID,
+                                                                     anchorGUIDParameterName,
+                                                                     OpenMetadataAPIMapper.REFERENCEABLE_TYPE_NAME,
+                                                                     methodName);
+                }
+                else if (isUpdate)
+                {
+                    /*
+                     * The caller updates the anchor (for example, with the LatestChange classification) so it is retrieved
+                     * from the repository and removed from the cache.
+                     */
+                    anchorCache.entityChanged(anchorGUID);
+
+                    anchorEntity = repositoryHandler.getEntityByGUID(userId,
+                                                                     anchorGUID,
+                                                                     anchorGUIDParameterName,
+                                                                     OpenMetadataAPIMapper.REFERENCEABLE_TYPE_NAME,
+                                                                     methodName);
+                }
+                else
+                {
+                    /*
+                     * Many elements share the same anchor, so for reads the copy of the anchor that this user retrieved
+                     * earlier is used if it has not changed since.
+                     */
+                    anchorEntity = anchorCache.getAnchorEntity(userId, anchorGUID);
+
+                    if (anchorEntity == null)
+                    {
+                        long changeCount = anchorCache.getChangeCount();
+
+                        anchorEntity = repositoryHandler.getEntityByGUID(userId,
+                                                                         anchorGUID,
+                                                                         anchorGUIDParameterName,
+                                                                         OpenMetadataAPIMapper.REFERENCEABLE_TYPE_NAME,
+                                                                         methodName);
+
+                        anchorCache.saveAnchorEntity(userId, anchorEntity, changeCount);
+                    }
+                }
             }
         }
 
@@ -4828,39 +4930,51 @@ public class OpenMetadataAPIGenericHandler<B>
                                                                                           PropertyServerException,
                                                                                           UserNotAuthorizedException
     {
-        TemplateProgress templateProgress = createBeanFromTemplate(userId,
-                                                                   externalSourceGUID,
-                                                                   externalSourceName,
-                                                                   true,
-                                                                   new TemplateProgress(),
-                                                                   templateGUID,
-                                                                   templateGUIDParameterName,
-                                                                   entityTypeGUID,
-                                                                   entityTypeName,
-                                                                   uniqueParameterValue,
-                                                                   uniqueParameterName,
-                                                                   propertyBuilder,
-                                                                   methodName);
+        /*
+         * A template may be copied into many new entities and relationships, so their events are sent together.
+         */
+        repositoryHandler.startInstanceBatch();
 
-        if (templateProgress != null)
+        try
         {
-            /*
-             * This relationship shows where the property values for the new bean came from.  It enables traceability.  Also, if the template is
-             * updated, there is a possibility of making complementary changes to the entities that were derived from it.
-             */
-            repositoryHandler.createRelationship(localServerUserId,
-                                                 OpenMetadataAPIMapper.SOURCED_FROM_RELATIONSHIP_TYPE_GUID,
-                                                 externalSourceGUID,
-                                                 externalSourceName,
-                                                 templateProgress.newBeanGUID,
-                                                 templateGUID,
-                                                 null,
-                                                 methodName);
+            TemplateProgress templateProgress = createBeanFromTemplate(userId,
+                                                                       externalSourceGUID,
+                                                                       externalSourceName,
+                                                                       true,
+                                                                       new TemplateProgress(),
+                                                                       templateGUID,
+                                                                       templateGUIDParameterName,
+                                                                       entityTypeGUID,
+                                                                       entityTypeName,
+                                                                       uniqueParameterValue,
+                                                                       uniqueParameterName,
+                                                                       propertyBuilder,
+                                                                       methodName);
+
+            if (templateProgress != null)
+            {
+                /*
+                 * This relationship shows where the property values for the new bean came from.  It enables traceability.  Also, if the template is
+                 * updated, there is a possibility of making complementary changes to the entities that were derived from it.
+                 */
+                repositoryHandler.createRelationship(localServerUserId,
+                                                     OpenMetadataAPIMapper.SOURCED_FROM_RELATIONSHIP_TYPE_GUID,
+                                                     externalSourceGUID,
+                                                     externalSourceName,
+                                                     templateProgress.newBeanGUID,
+                                                     templateGUID,
+                                                     null,
+                                                     methodName);
 
-            return templateProgress.newBeanGUID;
-        }
+                return templateProgress.newBeanGUID;
+            }
 
-        return null;
+            return null;
+        }
+        finally
+        {
+            repositoryHandler.endInstanceBatch();
+        }
     }
 
 
@@ -8301,6 +8415,309 @@ public class OpenMetadataAPIGenericHandler<B>
     }
 
 
+    /**
+     * Return a search properties object that matches the search value in any of the named properties.
+     * It is the equivalent of getSearchInstanceProperties for use with findEntities.
+     *
+     * @param searchValue regular expression to match
+     * @param specificMatchPropertyNames list of property names to look in
+     * @param methodName calling method
+     * @return search properties object
+     */
+    private SearchProperties getSearchProperties(String       searchValue,
+                                                 List<String> specificMatchPropertyNames,
+                                                 String       methodName)
+    {
+        InstanceProperties      properties = this.getSearchInstanceProperties(searchValue, specificMatchPropertyNames, methodName);
+        List<PropertyCondition> conditions = new ArrayList<>();
+        Iterator<String>        propertyNames = properties.getPropertyNames();
+
+        while (propertyNames.hasNext())
+        {
+            String            propertyName = propertyNames.next();
+            PropertyCondition condition    = new PropertyCondition();
+
+            condition.setProperty(propertyName);
+            condition.setOperator(PropertyComparisonOperator.LIKE);
+            condition.setValue(properties.getPropertyValue(propertyName));
+
+            conditions.add(condition);
+        }
+
+        SearchProperties searchProperties = new SearchProperties();
+
+        searchProperties.setConditions(conditions);
+        searchProperties.setMatchCriteria(MatchCriteria.ANY);
+
+        return searchProperties;
+    }
+
+
+    /**
+     * Return the classification condition that the repository can use to remove entities that would be
+     * filtered out by the handler because they do not have the required classification.  The omitted and Memento
+     * classifications are left to the handler.  They apply to almost every search, and a repository (or cohort
+     * member) at an earlier release can not process a NONE condition for an entity with no classifications.
+     * Classifications that are not known to the repository are left to the handler too, since searching
+     * for them would fail.
+     *
+     * @param requiredClassificationName  String the name of the classification that must be on the entity
+     * @return search classifications or null if there is nothing to add to the query
+     */
+    private SearchClassifications getSearchClassifications(String requiredClassificationName)
+    {
+        if ((requiredClassificationName == null) || (! isClassificationType(requiredClassificationName)))
+        {
+            return null;
+        }
+
+        SearchClassifications searchClassifications = repositoryHelper.getSearchClassificationsFromList(Collections.singletonList(requiredClassificationName));
+
+        searchClassifications.setMatchCriteria(MatchCriteria.ALL);
+
+        return searchClassifications;
+    }
+
+
+    /**
+     * Return whether the name is a classification type known to the repository.
+     *
+     * @param typeName name of the type
+     * @return boolean flag
+     */
+    private boolean isClassificationType(String typeName)
+    {
+        TypeDef typeDef = repositoryHelper.getTypeDefByName(serviceName, typeName);
+
+        return (typeDef != null) && (typeDef.getCategory() == TypeDefCategory.CLASSIFICATION_DEF);
+    }
+
+
+    /**
+     * Base on the parameters, load an appropriate repository helper iterator.  Where possible, the required
+     * classification is added to the query so the repository only returns entities that have it.
+     * This is not possible for a search string that can match any property since the repository's
+     * findEntitiesByPropertyValue does not support classification conditions.
+     *
+     * @param userId calling user
+     * @param searchString search string (or null to just return entities of a specific type)
+     * @param resultTypeGUID type identifier of entities to return
+     * @param resultTypeName type name of entities to return
+     * @param specificMatchPropertyNames list of property names to look in (or null to search any string property)
+     * @param exactValueMatch should the value be treated as a literal or a RegEx?
+     * @param requiredClassificationName  String the name of the classification that must be on the entity
+     * @param sequencingPropertyName should the results be sequenced?
+     * @param startFrom  index of the list to start from (0 for start)
+     * @param queryPageSize maximum number of values to return
+     * @param methodName calling method
+     * @return configured iterator
+     */
+    RepositoryIteratorForEntities getEntitySearchIterator(String       userId,
+                                                          String       searchString,
+                                                          String       resultTypeGUID,
+                                                          String       resultTypeName,
+                                                          List<String> specificMatchPropertyNames,
+                                                          boolean      exactValueMatch,
+                                                          String       requiredClassificationName,
+                                                          String       sequencingPropertyName,
+                                                          int          startFrom,
+                                                          int          queryPageSize,
+                                                          String       methodName)
+    {
+        SearchClassifications searchClassifications = this.getSearchClassifications(requiredClassificationName);
+
+        if ((searchClassifications != null) &&
+                    ((searchString == null) || ((specificMatchPropertyNames != null) && (! specificMatchPropertyNames.isEmpty()))))
+        {
+            SearchProperties searchProperties = null;
+            SequencingOrder  sequencingOrder  = SequencingOrder.GUID;
+
+            if (searchString != null)
+            {
+                String searchValue = searchString;
+
+                if (exactValueMatch)
+                {
+                    searchValue = repositoryHelper.getExactMatchRegex(searchString);
+                }
+
+                searchProperties = this.getSearchProperties(searchValue, specificMatchPropertyNames, methodName);
+            }
+
+            if (sequencingPropertyName != null)
+            {
+                sequencingOrder = SequencingOrder.PROPERTY_ASCENDING;
+            }
+
+            return new RepositoryFindEntitiesIterator(repositoryHandler,
+                                                      userId,
+                                                      resultTypeGUID,
+                                                      null,
+                                                      searchProperties,
+                                                      null,
+                                                      searchClassifications,
+                                                      null,
+                                                      sequencingPropertyName,
+                                                      sequencingOrder,
+                                                      startFrom,
+                                                      queryPageSize,
+                                                      methodName);
+        }
+
+        return this.getEntitySearchIterator(userId,
+                                            searchString,
+                                            resultTypeGUID,
+                                            resultTypeName,
+                                            specificMatchPropertyNames,
+                                            exactValueMatch,
+                                            sequencingPropertyName,
+                                            startFrom,
+                                            queryPageSize,
+                                            methodName);
+    }
+
+
+    /**
+     * Return a page of the entities from a search that are visible to the caller.  The search is resumed from
+     * the end of the previous page if the caller has just retrieved it.  Otherwise, the search starts from
+     * the beginning and the visible entities before startFrom are skipped.
+     *
+     * @param userId calling user
+     * @param searchString search string (or null to just return entities of a specific type)
+     * @param resultTypeGUID type identifier of entities to return
+     * @param resultTypeName type name of entities to return
+     * @param specificMatchPropertyNames list of property names to look in (or null to search any string property)
+     * @param exactValueMatch should the value be treated as a literal or a RegEx?
+     * @param requiredClassificationName  String the name of the classification that must be on the entity
+     * @param omittedClassificationName   String the name of a classification that must not be on the entity
+     * @param forLineage boolean indicating whether the entity is being retrieved for a lineage request or not
+     * @param serviceSupportedZones list of supported zones for this service
+     * @param sequencingPropertyName should the results be sequenced?
+     * @param entityParameterName parameter description
+     * @param startFrom  index of the list to start from (0 for start)
+     * @param queryPageSize maximum number of values to return
+     * @param methodName calling method
+     * @return list of entities or null
+     * @throws PropertyServerException there is a problem retrieving information from the repositories.
+     * @throws UserNotAuthorizedException the requesting user is not authorized to issue this request.
+     */
+    private List<EntityDetail> getEntitiesFromSearch(String       userId,
+                                                     String       searchString,
+                                                     String       resultTypeGUID,
+                                                     String       resultTypeName,
+                                                     List<String> specificMatchPropertyNames,
+                                                     boolean      exactValueMatch,
+                                                     String       requiredClassificationName,
+                                                     String       omittedClassificationName,
+                                                     boolean      forLineage,
+                                                     List<String> serviceSupportedZones,
+                                                     String       sequencingPropertyName,
+                                                     String       entityParameterName,
+                                                     int          startFrom,
+                                                     int          queryPageSize,
+                                                     String       methodName) throws PropertyServerException,
+                                                                                     UserNotAuthorizedException
+    {
+        String searchKey = EntitySearchCursors.getSearchKey(userId,
+                                                            searchString,
+                                                            resultTypeGUID,
+                                                            specificMatchPropertyNames,
+                                                            exactValueMatch,
+                                                            requiredClassificationName,
+                                                            omittedClassificationName,
+                                                            forLineage,
+                                                            serviceSupportedZones,
+                                                            sequencingPropertyName);
+
+        Integer repositoryStartFrom = searchCursors.getCursor(searchKey, startFrom);
+        int     skippedValues       = 0;
+
+        if (repositoryStartFrom == null)
+        {
+            repositoryStartFrom = 0;
+            skippedValues       = startFrom;
+        }
+
+        RepositoryIteratorForEntities iterator = this.getEntitySearchIterator(userId,
+                                                                              searchString,
+                                                                              resultTypeGUID,
+                                                                              resultTypeName,
+                                                                              specificMatchPropertyNames,
+                                                                              exactValueMatch,
+                                                                              requiredClassificationName,
+                                                                              sequencingPropertyName,
+                                                                              repositoryStartFrom,
+                                                                              queryPageSize,
+                                                                              methodName);
+        List<EntityDetail> results;
+
+        try
+        {
+            results = this.getEntitiesByValue(userId,
+                                              iterator,
+                                              entityParameterName,
+                                              resultTypeName,
+                                              requiredClassificationName,
+                                              omittedClassificationName,
+                                              forLineage,
+                                              serviceSupportedZones,
+                                              skippedValues,
+                                              queryPageSize,
+                                              methodName);
+        }
+        catch (PropertyServerException error)
+        {
+            if (! (iterator instanceof RepositoryFindEntitiesIterator))
+            {
+                throw error;
+            }
+
+            /*
+             * The repository could not process the classification condition (for example, it does not support
+             * findEntities) so the search is repeated with the classification checked by the handler alone.
+             * No cursor is saved since its position would not match the query with the condition.
+             */
+            if (log.isDebugEnabled())
+            {
+                log.debug("Repeating search without classification condition", error);
+            }
+
+            iterator = this.getEntitySearchIterator(userId,
+                                                    searchString,
+                                                    resultTypeGUID,
+                                                    resultTypeName,
+                                                    specificMatchPropertyNames,
+                                                    exactValueMatch,
+                                                    sequencingPropertyName,
+                                                    0,
+                                                    queryPageSize,
+                                                    methodName);
+
+            return this.getEntitiesByValue(userId,
+                                           iterator,
+                                           entityParameterName,
+                                           resultTypeName,
+                                           requiredClassificationName,
+                                           omittedClassificationName,
+                                           forLineage,
+                                           serviceSupportedZones,
+                                           startFrom,
+                                           queryPageSize,
+                                           methodName);
+        }
+
+        /*
+         * A full page means the caller may ask for the next one.
+         */
+        if ((results != null) && (queryPageSize > 0) && (results.size() == queryPageSize))
+        {
+            searchCursors.saveCursor(searchKey, startFrom + queryPageSize, iterator.getNextPosition());
+        }
+
+        return results;
+    }
+
+
     /**
      * Return the unique identifier of the entity that has the supplied unique name. An exception is thrown if
      * multiple entities are found with this name.
@@ -9306,95 +9723,25 @@ public class OpenMetadataAPIGenericHandler<B>
 
         int queryPageSize = invalidParameterHandler.validatePaging(startFrom, pageSize, methodName);
 
-        RepositoryIteratorForEntities iterator = getEntitySearchIterator(userId,
-                                                                         null,
-                                                                         resultTypeGUID,
-                                                                         resultTypeName,
-                                                                         null,
-                                                                         false,
-                                                                         sequencingPropertyName,
-                                                                         0,
-                                                                         queryPageSize,
-                                                                         methodName);
-
-
         /*
-         * The loop is necessary because some of the entities returned may not be visible to the calling user.
-         * Once they are filtered out, more entities need to be retrieved to fill the gaps.
+         * Some of the entities returned may not be visible to the calling user.  They are filtered out as the
+         * page is assembled, and the search resumes from the end of the previous page if it is known.
          */
-        List<EntityDetail>  results = new ArrayList<>();
-        String entityParameterName = "Entity of type" + resultTypeName;
-        int skippedValues = 0;
-
-        while (iterator.moreToReceive() && ((queryPageSize == 0) || (results.size() < queryPageSize)))
-        {
-            EntityDetail entity = iterator.getNext();
-
-            if (entity != null)
-            {
-                try
-                {
-                    validateAnchorEntity(userId,
-                                         entity.getGUID(),
-                                         resultTypeName,
-                                         entity,
-                                         entityParameterName,
-                                         false,
-                                         serviceSupportedZones,
-                                         methodName);
-
-                    boolean beanArchived = false;
-
-                    try
-                    {
-                        /*
-                         * The Memento classification means the entity is archived and should only be returned for lineage requests.
-                         * This method is not to be used for lineage requests.
-                         */
-                        if (repositoryHelper.getClassificationFromEntity(serviceName, entity, OpenMetadataAPIMapper.MEMENTO_CLASSIFICATION_TYPE_NAME, methodName) != null)
-                        {
-                            beanArchived = true;
-                        }
-                    }
-                    catch (ClassificationErrorException error)
-                    {
-                        /*
-                         * Since this classification is not supported, it can not be attached to the entity.
-                         */
-                    }
-
-                    if (! beanArchived)
-                    {
-                        /*
-                         * Valid entity to return since no exception occurred and it is not archived.
-                         */
-                        if (skippedValues < startFrom)
-                        {
-                            skippedValues ++;
-                        }
-                        else
-                        {
-                            results.add(entity);
-                        }
-                    }
-                }
-                catch (InvalidParameterException | PropertyServerException | UserNotAuthorizedException invisibleEntity)
-                {
-                    /*
-                     * Skipping entity
-                     */
-                }
-            }
-        }
-
-        if (results.isEmpty())
-        {
-            return null;
-        }
-        else
-        {
-            return results;
-        }
+        return this.getEntitiesFromSearch(userId,
+                                          null,
+                                          resultTypeGUID,
+                                          resultTypeName,
+                                          null,
+                                          false,
+                                          null,
+                                          null,
+                                          false,
+                                          serviceSupportedZones,
+                                          sequencingPropertyName,
+                                          "Entity of type" + resultTypeName,
+                                          startFrom,
+                                          queryPageSize,
+                                          methodName);
     }
 
 
@@ -9684,33 +10031,24 @@ public class OpenMetadataAPIGenericHandler<B>
         int queryPageSize = invalidParameterHandler.validatePaging(startFrom, pageSize, methodName);
 
         /*
-         * Notice that the startFrom is 0 - is allows the filtering process to skip over the right number of
-         * elements.
+         * The required classification is added to the query where possible.  The search resumes from the end of
+         * the previous page if it is known, otherwise the filtering process skips over the right number of elements.
          */
-        RepositoryIteratorForEntities iterator = getEntitySearchIterator(userId,
-                                                                         value,
-                                                                         resultTypeGUID,
-                                                                         resultTypeName,
-                                                                         specificMatchPropertyNames,
-                                                                         exactValueMatch,
-                                                                         sequencingPropertyName,
-                                                                         0,
-                                                                         queryPageSize,
-                                                                         methodName);
-
-        String entityParameterName = "Entity from search of value " + value;
-
-        return getEntitiesByValue(userId,
-                                  iterator,
-                                  entityParameterName,
-                                  resultTypeName,
-                                  requiredClassificationName,
-                                  omittedClassificationName,
-                                  forLineage,
-                                  serviceSupportedZones,
-                                  startFrom,
-                                  queryPageSize,
-                                  methodName);
+        return this.getEntitiesFromSearch(userId,
+                                          value,
+                                          resultTypeGUID,
+                                          resultTypeName,
+                                          specificMatchPropertyNames,
+                                          exactValueMatch,
+                                          requiredClassificationName,
+                                          omittedClassificationName,
+                                          forLineage,
+                                          serviceSupportedZones,
+                                          sequencingPropertyName,
+                                          "Entity from search of value " + value,
+                                          startFrom,
+                                          queryPageSize,
+                                          methodName);
     }
 
 
@@ -9803,9 +10141,9 @@ public class OpenMetadataAPIGenericHandler<B>
                         catch (ClassificationErrorException error)
                         {
                             /*
-                             * Since this classification is not supported, it can not be attached to the entity
+                             * The entity does not have this classification.  The result of the earlier checks
+                             * is kept so an entity without the required classification is still skipped.
                              */
-                            beanValid = true;
                         }
                     }
 
@@ -9821,9 +10159,9 @@ public class OpenMetadataAPIGenericHandler<B>
                         catch (ClassificationErrorException error)
                         {
                             /*
-                             * Since this classification is not supported, it can not be attached to the entity
+                             * The entity does not have this classification.  The result of the earlier checks
+                             * is kept so an entity without the required classification is still skipped.
                              */
-                            beanValid = true;
                         }
                     }
                 }
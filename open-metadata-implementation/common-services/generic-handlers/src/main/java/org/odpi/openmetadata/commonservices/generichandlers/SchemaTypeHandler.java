@@ -101,27 +101,39 @@ public class SchemaTypeHandler<B> extends SchemaElementHandler<B>
     {
         final String schemaTypeGUIDParameterName = "schemaTypeGUID";
 
-        String schemaTypeGUID = this.createBeanInRepository(userId,
-                                                            externalSourceGUID,
-                                                            externalSourceName,
-                                                            schemaTypeBuilder.getTypeGUID(),
-                                                            schemaTypeBuilder.getTypeName(),
-                                                            schemaTypeBuilder.getQualifiedName(),
-                                                            OpenMetadataAPIMapper.QUALIFIED_NAME_PROPERTY_NAME,
-                                                            schemaTypeBuilder,
-                                                            methodName);
-
-
-        addEmbeddedTypes(userId,
-                         externalSourceGUID,
-                         externalSourceName,
-                         schemaTypeGUID,
-                         schemaTypeGUIDParameterName,
-                         schemaTypeBuilder.getTypeName(),
-                         schemaTypeBuilder,
-                         methodName);
+        /*
+         * The embedded schema types are created in the same request, so their events are sent together.
+         */
+        repositoryHandler.startInstanceBatch();
+
+        try
+        {
+            String schemaTypeGUID = this.createBeanInRepository(userId,
+                                                                externalSourceGUID,
+                                                                externalSourceName,
+                                                                schemaTypeBuilder.getTypeGUID(),
+                                                                schemaTypeBuilder.getTypeName(),
+                                                                schemaTypeBuilder.getQualifiedName(),
+                                                                OpenMetadataAPIMapper.QUALIFIED_NAME_PROPERTY_NAME,
+                                                                schemaTypeBuilder,
+                                                                methodName);
 
-        return schemaTypeGUID;
+
+            addEmbeddedTypes(userId,
+                             externalSourceGUID,
+                             externalSourceName,
+                             schemaTypeGUID,
+                             schemaTypeGUIDParameterName,
+                             schemaTypeBuilder.getTypeName(),
+                             schemaTypeBuilder,
+                             methodName);
+
+            return schemaTypeGUID;
+        }
+        finally
+        {
+            repositoryHandler.endInstanceBatch();
+        }
     }
 
 
@@ -0,0 +1,281 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.generichandlers;
+
+import org.mockito.Mockito;
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.InMemoryOMRSRepositoryConnectorProvider;
+import org.odpi.openmetadata.adminservices.configuration.properties.OpenMetadataExchangeRule;
+import org.odpi.openmetadata.commonservices.ffdc.InvalidParameterHandler;
+import org.odpi.openmetadata.commonservices.repositoryhandler.RepositoryErrorHandler;
+import org.odpi.openmetadata.commonservices.repositoryhandler.RepositoryHandler;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
+import org.odpi.openmetadata.repositoryservices.archivemanager.OMRSArchiveManager;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventExchangeRule;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.ClassificationErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSConnectorProvider;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentManager;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AnchorCacheBenchmark measures the time taken to read the columns of a schema through the generic handler.  The schema
+ * is a ComplexSchemaType attached to an Asset, with each column a SchemaAttribute attached to the schema type.  Each column
+ * that is read is checked against its anchor (the asset), with and without the anchor cache.  The repository either
+ * supports the Anchors classification (so the handler stores it in each column the first time the column is read) or
+ * rejects it, as a repository that does not support this type does (so the relationships are walked to find the anchor).
+ * It is not run as part of the unit tests.  Run the main method (with the test classpath) to execute it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnchorCacheBenchmark
+{
+    private static final String USER_ID                     = "benchmarkUser";
+    private static final String SERVICE_NAME                = "AnchorCacheBenchmark";
+    private static final String SERVER_NAME                 = "benchmarkServer";
+    private static final String LOCAL_METADATA_COLLECTION   = "localMetadataCollectionId";
+    private static final String METHOD_NAME                 = "readSchema";
+    private static final int    MAX_PAGE_SIZE               = 1000;
+
+    @Param({"500"})
+    public int columnCount;
+
+    @Param({"true", "false"})
+    public boolean anchorsSupported;
+
+    @Param({"false", "true"})
+    public boolean anchorCacheEnabled;
+
+    private OMRSRepositoryContentHelper                             repositoryHelper;
+    private OMRSMetadataCollection                                  metadataCollection;
+    private OpenMetadataAPIGenericHandler<OpenMetadataAPIDummyBean> handler;
+    private String                                                  schemaTypeGUID;
+
+
+    /**
+     * Create an in-memory repository containing the asset, its schema type and the columns.
+     *
+     * @throws Exception the repository could not be set up
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        OMRSAuditLog                 auditLog       = Mockito.mock(OMRSAuditLog.class, Mockito.withSettings().stubOnly());
+        OMRSRepositoryContentManager contentManager = new OMRSRepositoryContentManager(USER_ID, auditLog);
+
+        repositoryHelper = new OMRSRepositoryContentHelper(contentManager);
+
+        Connection    connection    = new Connection();
+        ConnectorType connectorType = new ConnectorType();
+
+        connectorType.setConnectorProviderClassName(InMemoryOMRSRepositoryConnectorProvider.class.getName());
+        connection.setConnectorType(connectorType);
+
+        /*
+         * The in-memory repository is wrapped by the local repository connector, as it is in a metadata server, so the
+         * instances it creates are filled out correctly.
+         */
+        OMRSRepositoryEventExchangeRule exchangeRule = new OMRSRepositoryEventExchangeRule(OpenMetadataExchangeRule.ALL, null);
+        OMRSRepositoryEventManager      eventManager = new OMRSRepositoryEventManager("benchmark outbound",
+                                                                                      exchangeRule,
+                                                                                      new OMRSRepositoryContentValidator(contentManager),
+                                                                                      auditLog);
+
+        LocalOMRSRepositoryConnector repositoryConnector = (LocalOMRSRepositoryConnector) new LocalOMRSConnectorProvider(LOCAL_METADATA_COLLECTION,
+                                                                                                                         connection,
+                                                                                                                         null,
+                                                                                                                         eventManager,
+                                                                                                                         contentManager,
+                                                                                                                         exchangeRule).getConnector(connection);
+
+        repositoryConnector.setRepositoryHelper(repositoryHelper);
+        repositoryConnector.setRepositoryValidator(new OMRSRepositoryContentValidator(contentManager));
+        repositoryConnector.setAuditLog(auditLog);
+        repositoryConnector.setMetadataCollectionId(LOCAL_METADATA_COLLECTION);
+        contentManager.setupEventProcessor(repositoryConnector, eventManager);
+        eventManager.start();
+        repositoryConnector.start();
+
+        /*
+         * The types are loaded once the local repository is known so they are added to it.
+         */
+        new OMRSArchiveManager(null, auditLog).setLocalRepository(LOCAL_METADATA_COLLECTION, contentManager, null);
+
+        metadataCollection = repositoryConnector.getMetadataCollection();
+
+        if (! anchorsSupported)
+        {
+            metadataCollection = Mockito.spy(metadataCollection);
+
+            Mockito.doThrow(new ClassificationErrorException(OMRSErrorCode.UNSUPPORTED_CLASSIFICATION.getMessageDefinition(OpenMetadataAPIMapper.ANCHORS_CLASSIFICATION_TYPE_NAME,
+                                                                                                                            LOCAL_METADATA_COLLECTION),
+                                                             this.getClass().getName(),
+                                                             METHOD_NAME))
+                   .when(metadataCollection)
+                   .classifyEntity(Mockito.anyString(),
+                                   Mockito.anyString(),
+                                   Mockito.eq(OpenMetadataAPIMapper.ANCHORS_CLASSIFICATION_TYPE_NAME),
+                                   Mockito.any(),
+                                   Mockito.any(),
+                                   Mockito.any(),
+                                   Mockito.any(),
+                                   Mockito.any());
+        }
+
+        InvalidParameterHandler invalidParameterHandler = new InvalidParameterHandler();
+
+        invalidParameterHandler.setMaxPagingSize(MAX_PAGE_SIZE);
+
+        RepositoryHandler repositoryHandler = new RepositoryHandler(auditLog,
+                                                                    new RepositoryErrorHandler(repositoryHelper, SERVICE_NAME, SERVER_NAME, auditLog),
+                                                                    metadataCollection,
+                                                                    MAX_PAGE_SIZE);
+
+        handler = new OpenMetadataAPIGenericHandler<>(new OpenMetadataAPIDummyBeanConverter<>(repositoryHelper, SERVICE_NAME, SERVER_NAME),
+                                                      OpenMetadataAPIDummyBean.class,
+                                                      SERVICE_NAME,
+                                                      SERVER_NAME,
+                                                      invalidParameterHandler,
+                                                      repositoryHandler,
+                                                      repositoryHelper,
+                                                      USER_ID,
+                                                      null,
+                                                      null,
+                                                      null,
+                                                      null,
+                                                      auditLog);
+
+        EntityDetail asset      = addEntity(OpenMetadataAPIMapper.ASSET_TYPE_NAME, "asset");
+        EntityDetail schemaType = addEntity(OpenMetadataAPIMapper.COMPLEX_SCHEMA_TYPE_TYPE_NAME, "asset.schema");
+
+        addRelationship(OpenMetadataAPIMapper.ASSET_TO_SCHEMA_TYPE_TYPE_NAME, asset, schemaType);
+
+        for (int i = 0; i < columnCount; i++)
+        {
+            addRelationship(OpenMetadataAPIMapper.TYPE_TO_ATTRIBUTE_RELATIONSHIP_TYPE_NAME,
+                            schemaType,
+                            addEntity(OpenMetadataAPIMapper.SCHEMA_ATTRIBUTE_TYPE_NAME, "asset.schema.column" + i));
+        }
+
+        schemaTypeGUID = schemaType.getGUID();
+
+        if (anchorCacheEnabled)
+        {
+            AnchorCache.createAnchorCache(SERVER_NAME);
+        }
+        else
+        {
+            AnchorCache.removeAnchorCache(SERVER_NAME);
+        }
+    }
+
+
+    /**
+     * Print the cache metrics.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        AnchorCache anchorCache = AnchorCache.getAnchorCache(SERVER_NAME);
+
+        if (anchorCache != null)
+        {
+            System.out.println(anchorCache);
+        }
+
+        AnchorCache.removeAnchorCache(SERVER_NAME);
+    }
+
+
+    /**
+     * Read all of the columns of the schema.
+     *
+     * @return number of columns
+     * @throws Exception the columns could not be read
+     */
+    @Benchmark
+    public int readSchema() throws Exception
+    {
+        List<EntityDetail> columns = handler.getAttachedEntities(USER_ID,
+                                                                 schemaTypeGUID,
+                                                                 "schemaTypeGUID",
+                                                                 OpenMetadataAPIMapper.COMPLEX_SCHEMA_TYPE_TYPE_NAME,
+                                                                 OpenMetadataAPIMapper.TYPE_TO_ATTRIBUTE_RELATIONSHIP_TYPE_GUID,
+                                                                 OpenMetadataAPIMapper.TYPE_TO_ATTRIBUTE_RELATIONSHIP_TYPE_NAME,
+                                                                 OpenMetadataAPIMapper.SCHEMA_ATTRIBUTE_TYPE_NAME,
+                                                                 null,
+                                                                 null,
+                                                                 false,
+                                                                 null,
+                                                                 0,
+                                                                 columnCount,
+                                                                 METHOD_NAME);
+
+        return columns.size();
+    }
+
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args ignored
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder().include(AnchorCacheBenchmark.class.getSimpleName())
+                                              .build();
+
+        new Runner(options).run();
+    }
+
+
+    private EntityDetail addEntity(String typeName,
+                                   String qualifiedName) throws Exception
+    {
+        InstanceProperties properties = repositoryHelper.addStringPropertyToInstance(SERVICE_NAME,
+                                                                                     null,
+                                                                                     OpenMetadataAPIMapper.QUALIFIED_NAME_PROPERTY_NAME,
+                                                                                     qualifiedName,
+                                                                                     METHOD_NAME);
+
+        return metadataCollection.addEntity(USER_ID,
+                                            repositoryHelper.getTypeDefByName(SERVICE_NAME, typeName).getGUID(),
+                                            properties,
+                                            null,
+                                            InstanceStatus.ACTIVE);
+    }
+
+
+    private void addRelationship(String       typeName,
+                                 EntityDetail end1,
+                                 EntityDetail end2) throws Exception
+    {
+        metadataCollection.addRelationship(USER_ID,
+                                           repositoryHelper.getTypeDefByName(SERVICE_NAME, typeName).getGUID(),
+                                           null,
+                                           end1.getGUID(),
+                                           end2.getGUID(),
+                                           InstanceStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,254 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.generichandlers;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Verify that AnchorCache returns saved anchors until they are changed and that AnchorCacheListener removes
+ * the content affected by each instance event.
+ */
+public class AnchorCacheTest
+{
+    /**
+     * Return an entity with the requested unique identifier.
+     *
+     * @param guid unique identifier
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+
+        return entity;
+    }
+
+
+    /**
+     * Return a relationship between two entities.
+     *
+     * @param end1GUID unique identifier of the entity at end 1
+     * @param end2GUID unique identifier of the entity at end 2
+     * @return relationship
+     */
+    private Relationship getRelationship(String end1GUID,
+                                         String end2GUID)
+    {
+        Relationship relationship = new Relationship();
+        EntityProxy  end1         = new EntityProxy();
+        EntityProxy  end2         = new EntityProxy();
+
+        end1.setGUID(end1GUID);
+        end2.setGUID(end2GUID);
+
+        relationship.setEntityOneProxy(end1);
+        relationship.setEntityTwoProxy(end2);
+
+        return relationship;
+    }
+
+
+    /**
+     * Saved anchors are returned and counted.
+     */
+    @Test public void testSaveAndGet()
+    {
+        AnchorCache anchorCache = new AnchorCache();
+
+        assertNull(anchorCache.getAnchorGUID("column1"));
+        assertNull(anchorCache.getAnchorEntity("testUser", "asset1"));
+
+        anchorCache.saveAnchorGUID("column1", "asset1", anchorCache.getChangeCount());
+        anchorCache.saveAnchorEntity("testUser", getEntity("asset1"), anchorCache.getChangeCount());
+
+        assertEquals(anchorCache.getAnchorGUID("column1"), "asset1");
+        assertEquals(anchorCache.getAnchorEntity("testUser", "asset1").getGUID(), "asset1");
+        assertNull(anchorCache.getAnchorEntity("otherUser", "asset1"));
+
+        assertEquals(anchorCache.getAnchorGUIDHits(), 1);
+        assertEquals(anchorCache.getAnchorGUIDMisses(), 1);
+        assertEquals(anchorCache.getAnchorEntityHits(), 1);
+        assertEquals(anchorCache.getAnchorEntityMisses(), 2);
+    }
+
+
+    /**
+     * A value retrieved before a change is not saved.
+     */
+    @Test public void testChangeDuringRetrieval()
+    {
+        AnchorCache anchorCache = new AnchorCache();
+        long        changeCount = anchorCache.getChangeCount();
+
+        anchorCache.entityChanged("asset1");
+        anchorCache.saveAnchorGUID("column1", "asset1", changeCount);
+        anchorCache.saveAnchorEntity("testUser", getEntity("asset1"), changeCount);
+
+        assertNull(anchorCache.getAnchorGUID("column1"));
+        assertNull(anchorCache.getAnchorEntity("testUser", "asset1"));
+    }
+
+
+    /**
+     * Only the most recently used anchors are kept.
+     */
+    @Test public void testEviction()
+    {
+        AnchorCache anchorCache = new AnchorCache(2, 1);
+
+        anchorCache.saveAnchorGUID("column1", "asset1", anchorCache.getChangeCount());
+        anchorCache.saveAnchorGUID("column2", "asset1", anchorCache.getChangeCount());
+        assertEquals(anchorCache.getAnchorGUID("column1"), "asset1");
+        anchorCache.saveAnchorGUID("column3", "asset1", anchorCache.getChangeCount());
+
+        assertEquals(anchorCache.getAnchorGUID("column1"), "asset1");
+        assertNull(anchorCache.getAnchorGUID("column2"));
+
+        anchorCache.saveAnchorEntity("testUser", getEntity("asset1"), anchorCache.getChangeCount());
+        anchorCache.saveAnchorEntity("testUser", getEntity("asset2"), anchorCache.getChangeCount());
+
+        assertNull(anchorCache.getAnchorEntity("testUser", "asset1"));
+        assertNotNull(anchorCache.getAnchorEntity("testUser", "asset2"));
+    }
+
+
+    /**
+     * Entity events remove the entity and relationship events remove the anchors found by walking the relationships.
+     */
+    @Test public void testListener()
+    {
+        AnchorCache         anchorCache = new AnchorCache();
+        AnchorCacheListener listener    = new AnchorCacheListener(anchorCache);
+
+        anchorCache.saveAnchorGUID("column1", "asset1", anchorCache.getChangeCount());
+        anchorCache.saveAnchorEntity("testUser", getEntity("asset1"), anchorCache.getChangeCount());
+        anchorCache.saveAnchorEntity("testUser", getEntity("asset2"), anchorCache.getChangeCount());
+
+        listener.processInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, getEntity("asset2"), getEntity("asset2")));
+
+        assertEquals(anchorCache.getAnchorGUID("column1"), "asset1");
+        assertNotNull(anchorCache.getAnchorEntity("testUser", "asset1"));
+        assertNull(anchorCache.getAnchorEntity("testUser", "asset2"));
+
+        listener.processInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT, new Relationship()));
+
+        assertNull(anchorCache.getAnchorGUID("column1"));
+        assertNotNull(anchorCache.getAnchorEntity("testUser", "asset1"));
+    }
+
+
+    /**
+     * A relationship event only removes the anchors of the elements connected to its ends.
+     */
+    @Test public void testRelationshipEventIsScoped()
+    {
+        AnchorCache         anchorCache = new AnchorCache();
+        AnchorCacheListener listener    = new AnchorCacheListener(anchorCache);
+
+        anchorCache.saveAnchorGUID("column1", "asset1", anchorCache.getChangeCount());
+        anchorCache.saveAnchorGUID("column2", "asset1", anchorCache.getChangeCount());
+        anchorCache.saveAnchorGUID("column3", "asset2", anchorCache.getChangeCount());
+        anchorCache.saveAnchorGUID("term1", "glossary1", anchorCache.getChangeCount());
+
+        /*
+         * column1 shares its anchor with column2.
+         */
+        listener.processInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT, getRelationship("column1", "table1")));
+
+        assertNull(anchorCache.getAnchorGUID("column1"));
+        assertNull(anchorCache.getAnchorGUID("column2"));
+        assertEquals(anchorCache.getAnchorGUID("column3"), "asset2");
+        assertEquals(anchorCache.getAnchorGUID("term1"), "glossary1");
+
+        /*
+         * An anchor at one end removes the elements anchored to it.
+         */
+        listener.processInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.DELETED_RELATIONSHIP_EVENT, getRelationship("asset2", "schema2")));
+
+        assertNull(anchorCache.getAnchorGUID("column3"));
+        assertEquals(anchorCache.getAnchorGUID("term1"), "glossary1");
+    }
+
+
+    /**
+     * A relationship change only stops the saving of the anchors that it affects.
+     */
+    @Test public void testRelationshipChangeDuringRetrieval()
+    {
+        AnchorCache anchorCache = new AnchorCache();
+        long        changeCount = anchorCache.getChangeCount();
+
+        anchorCache.relationshipChanged("column1", "table1");
+
+        anchorCache.saveAnchorGUID("column1", "asset1", changeCount);
+        anchorCache.saveAnchorGUID("column2", "table1", changeCount);
+        anchorCache.saveAnchorGUID("term1", "glossary1", changeCount);
+        anchorCache.saveAnchorEntity("testUser", getEntity("asset1"), changeCount);
+
+        assertNull(anchorCache.getAnchorGUID("column1"));
+        assertNull(anchorCache.getAnchorGUID("column2"));
+        assertEquals(anchorCache.getAnchorGUID("term1"), "glossary1");
+        assertNotNull(anchorCache.getAnchorEntity("testUser", "asset1"));
+    }
+
+
+    /**
+     * The total number of copies of the anchor entities is bounded.
+     */
+    @Test public void testAnchorEntityLimit()
+    {
+        AnchorCache anchorCache = new AnchorCache(10, 10, 3);
+
+        anchorCache.saveAnchorEntity("user1", getEntity("asset1"), anchorCache.getChangeCount());
+        anchorCache.saveAnchorEntity("user2", getEntity("asset1"), anchorCache.getChangeCount());
+        anchorCache.saveAnchorEntity("user1", getEntity("asset2"), anchorCache.getChangeCount());
+        anchorCache.saveAnchorEntity("user2", getEntity("asset2"), anchorCache.getChangeCount());
+
+        assertEquals(anchorCache.getAnchorEntityCount(), 2);
+        assertNull(anchorCache.getAnchorEntity("user1", "asset1"));
+        assertNotNull(anchorCache.getAnchorEntity("user1", "asset2"));
+        assertNotNull(anchorCache.getAnchorEntity("user2", "asset2"));
+
+        /*
+         * A single anchor can not hold more copies than the limit.
+         */
+        for (int user = 1; user <= 5; user++)
+        {
+            anchorCache.saveAnchorEntity("user" + user, getEntity("asset3"), anchorCache.getChangeCount());
+        }
+
+        assertEquals(anchorCache.getAnchorEntityCount(), 3);
+        assertNull(anchorCache.getAnchorEntity("user2", "asset2"));
+        assertNull(anchorCache.getAnchorEntity("user2", "asset3"));
+        assertNotNull(anchorCache.getAnchorEntity("user5", "asset3"));
+
+        anchorCache.entityChanged("asset3");
+
+        assertEquals(anchorCache.getAnchorEntityCount(), 0);
+    }
+
+
+    /**
+     * Caches are registered for each server.
+     */
+    @Test public void testServerCaches()
+    {
+        AnchorCache anchorCache = AnchorCache.createAnchorCache("testServer");
+
+        assertSame(AnchorCache.getAnchorCache("testServer"), anchorCache);
+        assertNull(AnchorCache.getAnchorCache("otherServer"));
+
+        AnchorCache.removeAnchorCache("testServer");
+
+        assertNull(AnchorCache.getAnchorCache("testServer"));
+    }
+}
@@ -0,0 +1,66 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.generichandlers;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.*;
+
+/**
+ * Verify that EntitySearchCursors returns the saved position for the matching search and page.
+ */
+public class EntitySearchCursorsTest
+{
+    /**
+     * A saved cursor is returned for the same search and page only.
+     */
+    @Test public void testSaveAndGet()
+    {
+        EntitySearchCursors searchCursors = new EntitySearchCursors();
+        String              searchKey     = EntitySearchCursors.getSearchKey("testUser", "Asset", Collections.singletonList("data-lake"));
+        String              otherUserKey  = EntitySearchCursors.getSearchKey("otherUser", "Asset", Collections.singletonList("data-lake"));
+        String              otherZoneKey  = EntitySearchCursors.getSearchKey("testUser", "Asset", Arrays.asList("data-lake", "quarantine"));
+
+        assertEquals(searchCursors.getCursor(searchKey, 0), Integer.valueOf(0));
+        assertNull(searchCursors.getCursor(searchKey, 10));
+
+        searchCursors.saveCursor(searchKey, 10, 37);
+
+        assertEquals(searchCursors.getCursor(searchKey, 10), Integer.valueOf(37));
+        assertNull(searchCursors.getCursor(searchKey, 20));
+        assertNull(searchCursors.getCursor(otherUserKey, 10));
+        assertNull(searchCursors.getCursor(otherZoneKey, 10));
+    }
+
+
+    /**
+     * Null parameters are part of the key.
+     */
+    @Test public void testNullParameters()
+    {
+        assertNotEquals(EntitySearchCursors.getSearchKey("testUser", null, "Asset"),
+                        EntitySearchCursors.getSearchKey("testUser", "Asset", null));
+    }
+
+
+    /**
+     * Only the most recently used cursors are kept.
+     */
+    @Test public void testEviction()
+    {
+        EntitySearchCursors searchCursors = new EntitySearchCursors(2);
+
+        searchCursors.saveCursor("search1", 10, 11);
+        searchCursors.saveCursor("search2", 10, 12);
+        assertEquals(searchCursors.getCursor("search1", 10), Integer.valueOf(11));
+
+        searchCursors.saveCursor("search3", 10, 13);
+
+        assertEquals(searchCursors.getCursor("search1", 10), Integer.valueOf(11));
+        assertNull(searchCursors.getCursor("search2", 10));
+        assertEquals(searchCursors.getCursor("search3", 10), Integer.valueOf(13));
+    }
+}
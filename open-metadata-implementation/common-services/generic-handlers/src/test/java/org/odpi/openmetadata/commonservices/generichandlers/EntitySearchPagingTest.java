@@ -0,0 +1,517 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.generichandlers;
+
+import org.mockito.Mockito;
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.InMemoryOMRSRepositoryConnectorProvider;
+import org.odpi.openmetadata.adminservices.configuration.properties.OpenMetadataExchangeRule;
+import org.odpi.openmetadata.commonservices.ffdc.InvalidParameterHandler;
+import org.odpi.openmetadata.commonservices.repositoryhandler.RepositoryErrorHandler;
+import org.odpi.openmetadata.commonservices.repositoryhandler.RepositoryHandler;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.UserNotAuthorizedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
+import org.odpi.openmetadata.metadatasecurity.ffdc.OpenMetadataSecurityErrorCode;
+import org.odpi.openmetadata.metadatasecurity.properties.Asset;
+import org.odpi.openmetadata.metadatasecurity.server.OpenMetadataServerSecurityVerifier;
+import org.odpi.openmetadata.repositoryservices.archivemanager.OMRSArchiveManager;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.FunctionNotSupportedException;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventExchangeRule;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSConnectorProvider;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentManager;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentValidator;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Verify that a page of a filtered entity search that is resumed from a saved cursor returns the same entities
+ * as the same page retrieved by skipping the visible entities from the start of the query.  The search runs
+ * against an in-memory repository with a security verifier that hides some of the assets from the caller.
+ */
+public class EntitySearchPagingTest
+{
+    private static final String userId                  = "testUser";
+    private static final String serviceName             = "EntitySearchPagingTest";
+    private static final String serverName              = "testServer";
+    private static final String localMetadataCollection = "localMetadataCollectionId";
+    private static final String methodName              = "getPage";
+    private static final String hiddenAssetPrefix       = "hidden.";
+    private static final int    assetCount              = 50;
+    private static final int    pageSize                = 7;
+    private static final int    maxPageSize             = 1000;
+
+    private OMRSRepositoryContentHelper repositoryHelper;
+    private OMRSMetadataCollection      repositoryMetadataCollection;
+    private OMRSMetadataCollection      metadataCollection;
+    private final List<Integer>         repositoryStartPositions = Collections.synchronizedList(new ArrayList<>());
+    private final List<String>          visibleQualifiedNames    = new ArrayList<>();
+    private final List<String>          originQualifiedNames     = new ArrayList<>();
+
+
+    /**
+     * Create an in-memory repository containing the assets.  Every third asset is hidden from the caller and
+     * every other asset has an AssetOrigin classification.
+     *
+     * @throws Exception the repository could not be set up
+     */
+    @BeforeClass
+    public void setUp() throws Exception
+    {
+        OMRSAuditLog                 auditLog       = Mockito.mock(OMRSAuditLog.class, Mockito.withSettings().stubOnly());
+        OMRSRepositoryContentManager contentManager = new OMRSRepositoryContentManager(userId, auditLog);
+
+        repositoryHelper = new OMRSRepositoryContentHelper(contentManager);
+
+        Connection    connection    = new Connection();
+        ConnectorType connectorType = new ConnectorType();
+
+        connectorType.setConnectorProviderClassName(InMemoryOMRSRepositoryConnectorProvider.class.getName());
+        connection.setConnectorType(connectorType);
+
+        OMRSRepositoryEventExchangeRule exchangeRule = new OMRSRepositoryEventExchangeRule(OpenMetadataExchangeRule.ALL, null);
+        OMRSRepositoryEventManager      eventManager = new OMRSRepositoryEventManager("test outbound",
+                                                                                      exchangeRule,
+                                                                                      new OMRSRepositoryContentValidator(contentManager),
+                                                                                      auditLog);
+
+        LocalOMRSRepositoryConnector repositoryConnector = (LocalOMRSRepositoryConnector) new LocalOMRSConnectorProvider(localMetadataCollection,
+                                                                                                                         connection,
+                                                                                                                         null,
+                                                                                                                         eventManager,
+                                                                                                                         contentManager,
+                                                                                                                         exchangeRule).getConnector(connection);
+
+        repositoryConnector.setRepositoryHelper(repositoryHelper);
+        repositoryConnector.setRepositoryValidator(new OMRSRepositoryContentValidator(contentManager));
+        repositoryConnector.setAuditLog(auditLog);
+        repositoryConnector.setMetadataCollectionId(localMetadataCollection);
+        contentManager.setupEventProcessor(repositoryConnector, eventManager);
+        eventManager.start();
+        repositoryConnector.start();
+
+        new OMRSArchiveManager(null, auditLog).setLocalRepository(localMetadataCollection, contentManager, null);
+
+        /*
+         * The position that each query is started from is recorded so the tests can show where each page began.
+         */
+        repositoryMetadataCollection = repositoryConnector.getMetadataCollection();
+        metadataCollection = Mockito.spy(repositoryMetadataCollection);
+
+        Mockito.doAnswer(invocation ->
+                         {
+                             repositoryStartPositions.add(invocation.getArgument(4));
+                             return invocation.callRealMethod();
+                         })
+               .when(metadataCollection)
+               .findEntitiesByProperty(Mockito.any(),
+                                       Mockito.any(),
+                                       Mockito.any(),
+                                       Mockito.any(),
+                                       Mockito.anyInt(),
+                                       Mockito.any(),
+                                       Mockito.any(),
+                                       Mockito.any(),
+                                       Mockito.any(),
+                                       Mockito.any(),
+                                       Mockito.anyInt());
+
+        Mockito.doAnswer(invocation ->
+                         {
+                             repositoryStartPositions.add(invocation.getArgument(3));
+                             return invocation.callRealMethod();
+                         })
+               .when(metadataCollection)
+               .findEntitiesByPropertyValue(Mockito.any(),
+                                            Mockito.any(),
+                                            Mockito.any(),
+                                            Mockito.anyInt(),
+                                            Mockito.any(),
+                                            Mockito.any(),
+                                            Mockito.any(),
+                                            Mockito.any(),
+                                            Mockito.any(),
+                                            Mockito.anyInt());
+
+        Mockito.doAnswer(invocation ->
+                         {
+                             repositoryStartPositions.add(invocation.getArgument(4));
+                             return invocation.callRealMethod();
+                         })
+               .when(metadataCollection)
+               .findEntities(Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.anyInt(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.anyInt());
+
+        for (int i = 0; i < assetCount; i++)
+        {
+            String qualifiedName = String.format("asset.%03d", i);
+
+            if (i % 3 == 1)
+            {
+                qualifiedName = hiddenAssetPrefix + qualifiedName;
+            }
+            else
+            {
+                visibleQualifiedNames.add(qualifiedName);
+
+                if (i % 2 == 0)
+                {
+                    originQualifiedNames.add(qualifiedName);
+                }
+            }
+
+            EntityDetail asset = addAsset(qualifiedName);
+
+            if (i % 2 == 0)
+            {
+                metadataCollection.classifyEntity(userId,
+                                                  asset.getGUID(),
+                                                  OpenMetadataAPIMapper.ASSET_ORIGIN_CLASSIFICATION_NAME,
+                                                  null);
+            }
+        }
+
+        /*
+         * The hidden assets sort after the visible ones, so they are moved to the front to be filtered out of
+         * the early pages too.
+         */
+        for (int i = 0; i < assetCount; i = i + 3)
+        {
+            EntityDetail asset = addAsset(String.format("a.%sasset.%03d", hiddenAssetPrefix, i));
+
+            if (i % 2 == 0)
+            {
+                metadataCollection.classifyEntity(userId,
+                                                  asset.getGUID(),
+                                                  OpenMetadataAPIMapper.ASSET_ORIGIN_CLASSIFICATION_NAME,
+                                                  null);
+            }
+        }
+
+        Collections.sort(visibleQualifiedNames);
+        Collections.sort(originQualifiedNames);
+    }
+
+
+    /**
+     * Paging through the assets of a type from a single handler resumes each page from the cursor saved by the
+     * previous one and returns the same entities as skipping to each page with a new handler.
+     *
+     * @throws Exception the search failed
+     */
+    @Test public void testEntitiesByType() throws Exception
+    {
+        testPaging(null, null, visibleQualifiedNames);
+    }
+
+
+    /**
+     * Paging through the assets matching a value behaves the same as paging through the assets of a type.
+     *
+     * @throws Exception the search failed
+     */
+    @Test public void testEntitiesByValue() throws Exception
+    {
+        testPaging(".*asset.*", null, visibleQualifiedNames);
+    }
+
+
+    /**
+     * Paging through the assets with a required classification, which is added to the repository query, returns
+     * only the visible assets with that classification.
+     *
+     * @throws Exception the search failed
+     */
+    @Test public void testEntitiesWithRequiredClassification() throws Exception
+    {
+        testPaging(".*asset.*", OpenMetadataAPIMapper.ASSET_ORIGIN_CLASSIFICATION_NAME, originQualifiedNames);
+    }
+
+
+    /**
+     * A repository that can not process the classification condition is searched again without it, and the
+     * handler removes the assets without the required classification.
+     *
+     * @throws Exception the search failed
+     */
+    @Test public void testRequiredClassificationFallback() throws Exception
+    {
+        OMRSMetadataCollection unsupportedMetadataCollection = Mockito.spy(repositoryMetadataCollection);
+
+        Mockito.doThrow(new FunctionNotSupportedException(OMRSErrorCode.METHOD_NOT_IMPLEMENTED.getMessageDefinition("findEntities",
+                                                                                                                   this.getClass().getName(),
+                                                                                                                   serverName),
+                                                          this.getClass().getName(),
+                                                          methodName))
+               .when(unsupportedMetadataCollection)
+               .findEntities(Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.anyInt(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.any(),
+                             Mockito.anyInt());
+
+        OpenMetadataAPIGenericHandler<OpenMetadataAPIDummyBean> handler = getHandler(unsupportedMetadataCollection);
+        List<String>                                            results = new ArrayList<>();
+        int                                                     startFrom = 0;
+
+        while (true)
+        {
+            List<String> page = getPage(handler, ".*asset.*", OpenMetadataAPIMapper.ASSET_ORIGIN_CLASSIFICATION_NAME, startFrom);
+
+            if (page == null)
+            {
+                break;
+            }
+
+            results.addAll(page);
+            startFrom = startFrom + pageSize;
+        }
+
+        assertEquals(results, originQualifiedNames);
+    }
+
+
+    /**
+     * Retrieve every page of the search with both approaches and compare the results.
+     *
+     * @param searchString value to match in the qualified name or null for all the assets
+     * @param requiredClassificationName classification that the assets must have or null for any asset
+     * @param expectedResults qualified names of the assets that the search should return
+     * @throws Exception the search failed
+     */
+    private void testPaging(String       searchString,
+                            String       requiredClassificationName,
+                            List<String> expectedResults) throws Exception
+    {
+        OpenMetadataAPIGenericHandler<OpenMetadataAPIDummyBean> cursorHandler  = getHandler();
+        List<String>                                            resumedResults = new ArrayList<>();
+        List<String>                                            skippedResults = new ArrayList<>();
+        int                                                     startFrom      = 0;
+        boolean                                                 cursorSaved    = false;
+
+        while (true)
+        {
+            repositoryStartPositions.clear();
+
+            List<String>  resumedPage           = getPage(cursorHandler, searchString, requiredClassificationName, startFrom);
+            List<Integer> resumedStartPositions = new ArrayList<>(repositoryStartPositions);
+
+            repositoryStartPositions.clear();
+
+            List<String>  skippedPage           = getPage(getHandler(), searchString, requiredClassificationName, startFrom);
+
+            assertEquals(resumedPage, skippedPage, "Page starting at " + startFrom);
+
+            /*
+             * The skip-based page always reads from the start of the query.  A page that follows a full page is
+             * resumed after the hidden assets that were read for the earlier pages.
+             */
+            assertEquals((int)repositoryStartPositions.get(0), 0);
+
+            if (cursorSaved)
+            {
+                assertTrue(resumedStartPositions.get(0) > startFrom, "Page starting at " + startFrom + " began at " + resumedStartPositions);
+            }
+
+            if (resumedPage == null)
+            {
+                break;
+            }
+
+            resumedResults.addAll(resumedPage);
+            skippedResults.addAll(skippedPage);
+
+            cursorSaved = (resumedPage.size() == pageSize);
+            startFrom   = startFrom + pageSize;
+        }
+
+        /*
+         * A search by type alone is not sequenced by the repository, so only the pages are compared in order.
+         */
+        Collections.sort(resumedResults);
+        Collections.sort(skippedResults);
+
+        assertEquals(resumedResults, expectedResults);
+        assertEquals(skippedResults, expectedResults);
+    }
+
+
+    /**
+     * Return a new handler with no saved cursors.  Its security verifier rejects the hidden assets.
+     *
+     * @return handler
+     */
+    private OpenMetadataAPIGenericHandler<OpenMetadataAPIDummyBean> getHandler()
+    {
+        return getHandler(metadataCollection);
+    }
+
+
+    /**
+     * Return a new handler with no saved cursors that calls the supplied metadata collection.
+     *
+     * @param handlerMetadataCollection metadata collection to search
+     * @return handler
+     */
+    private OpenMetadataAPIGenericHandler<OpenMetadataAPIDummyBean> getHandler(OMRSMetadataCollection handlerMetadataCollection)
+    {
+        OMRSAuditLog            auditLog                = Mockito.mock(OMRSAuditLog.class, Mockito.withSettings().stubOnly());
+        InvalidParameterHandler invalidParameterHandler = new InvalidParameterHandler();
+
+        invalidParameterHandler.setMaxPagingSize(maxPageSize);
+
+        RepositoryHandler repositoryHandler = new RepositoryHandler(auditLog,
+                                                                    new RepositoryErrorHandler(repositoryHelper, serviceName, serverName, auditLog),
+                                                                    handlerMetadataCollection,
+                                                                    maxPageSize);
+
+        OpenMetadataServerSecurityVerifier securityVerifier = new OpenMetadataServerSecurityVerifier()
+        {
+            @Override
+            public void validateUserForAssetRead(String userId,
+                                                 Asset  asset) throws UserNotAuthorizedException
+            {
+                if (asset.getQualifiedName().contains(hiddenAssetPrefix))
+                {
+                    throw new UserNotAuthorizedException(OpenMetadataSecurityErrorCode.UNAUTHORIZED_ASSET_ACCESS.getMessageDefinition(userId,
+                                                                                                                                     asset.getQualifiedName()),
+                                                         this.getClass().getName(),
+                                                         methodName,
+                                                         userId);
+                }
+            }
+        };
+
+        return new OpenMetadataAPIGenericHandler<>(new OpenMetadataAPIDummyBeanConverter<>(repositoryHelper, serviceName, serverName),
+                                                   OpenMetadataAPIDummyBean.class,
+                                                   serviceName,
+                                                   serverName,
+                                                   invalidParameterHandler,
+                                                   repositoryHandler,
+                                                   repositoryHelper,
+                                                   userId,
+                                                   securityVerifier,
+                                                   null,
+                                                   null,
+                                                   null,
+                                                   auditLog);
+    }
+
+
+    /**
+     * Return the qualified names of a page of the visible assets.
+     *
+     * @param handler handler to search with
+     * @param searchString value to match in the qualified name or null for all the assets
+     * @param requiredClassificationName classification that the assets must have or null for any asset
+     * @param startFrom index of the first visible asset to return
+     * @return qualified names or null if there are no more assets
+     * @throws Exception the search failed
+     */
+    private List<String> getPage(OpenMetadataAPIGenericHandler<OpenMetadataAPIDummyBean> handler,
+                                 String                                                  searchString,
+                                 String                                                  requiredClassificationName,
+                                 int                                                     startFrom) throws Exception
+    {
+        List<EntityDetail> entities;
+
+        if (searchString == null)
+        {
+            entities = handler.getEntitiesByType(userId,
+                                                 OpenMetadataAPIMapper.ASSET_TYPE_GUID,
+                                                 OpenMetadataAPIMapper.ASSET_TYPE_NAME,
+                                                 null,
+                                                 OpenMetadataAPIMapper.QUALIFIED_NAME_PROPERTY_NAME,
+                                                 startFrom,
+                                                 pageSize,
+                                                 methodName);
+        }
+        else
+        {
+            entities = handler.getEntitiesByValue(userId,
+                                                  searchString,
+                                                  "searchString",
+                                                  OpenMetadataAPIMapper.ASSET_TYPE_GUID,
+                                                  OpenMetadataAPIMapper.ASSET_TYPE_NAME,
+                                                  Collections.singletonList(OpenMetadataAPIMapper.QUALIFIED_NAME_PROPERTY_NAME),
+                                                  false,
+                                                  requiredClassificationName,
+                                                  null,
+                                                  false,
+                                                  null,
+                                                  OpenMetadataAPIMapper.QUALIFIED_NAME_PROPERTY_NAME,
+                                                  startFrom,
+                                                  pageSize,
+                                                  methodName);
+        }
+
+        if (entities == null)
+        {
+            return null;
+        }
+
+        List<String> qualifiedNames = new ArrayList<>();
+
+        for (EntityDetail entity : entities)
+        {
+            qualifiedNames.add(repositoryHelper.getStringProperty(serviceName,
+                                                                  OpenMetadataAPIMapper.QUALIFIED_NAME_PROPERTY_NAME,
+                                                                  entity.getProperties(),
+                                                                  methodName));
+        }
+
+        return qualifiedNames;
+    }
+
+
+    /**
+     * Add an asset to the repository.
+     *
+     * @param qualifiedName unique name of the asset
+     * @return new entity
+     * @throws Exception the repository rejected the asset
+     */
+    private EntityDetail addAsset(String qualifiedName) throws Exception
+    {
+        InstanceProperties properties = repositoryHelper.addStringPropertyToInstance(serviceName,
+                                                                                     null,
+                                                                                     OpenMetadataAPIMapper.QUALIFIED_NAME_PROPERTY_NAME,
+                                                                                     qualifiedName,
+                                                                                     methodName);
+
+        return metadataCollection.addEntity(userId,
+                                            OpenMetadataAPIMapper.ASSET_TYPE_GUID,
+                                            properties,
+                                            null,
+                                            InstanceStatus.ACTIVE);
+    }
+}
@@ -12,12 +12,14 @@ import org.odpi.openmetadata.metadatasecurity.ffdc.OpenMetadataSecurityErrorCode
 
 
 /**
- * OpenMetadataPlatformSecurityVerifier provides the plug-in point for the open metadata platform connector
+ * OpenMetadataPlatformSecurityVerifier provides the plug-in point for the open metadata platform connector.
+ * The validate methods are called on inbound requests so they read the connector without taking a lock.
+ * The connector is only published once it has started.
  */
 public class OpenMetadataPlatformSecurityVerifier
 {
-    private static Connection                            platformSecurityConnection = null;
-    private static OpenMetadataPlatformSecurityConnector platformSecurityConnector  = null;
+    private static volatile Connection                            platformSecurityConnection = null;
+    private static volatile OpenMetadataPlatformSecurityConnector platformSecurityConnector  = null;
 
     /**
      * Override the default location of the configuration documents.
@@ -47,13 +49,14 @@ public class OpenMetadataPlatformSecurityVerifier
 
         try
         {
-            ConnectorBroker connectorBroker = new ConnectorBroker();
-            Connector       newConnector    = connectorBroker.getConnector(connection);
+            ConnectorBroker                       connectorBroker   = new ConnectorBroker();
+            Connector                             newConnector      = connectorBroker.getConnector(connection);
+            OpenMetadataPlatformSecurityConnector securityConnector = (OpenMetadataPlatformSecurityConnector)newConnector;
 
-            platformSecurityConnector = (OpenMetadataPlatformSecurityConnector)newConnector;
+            securityConnector.setServerPlatformURL(serverPlatformURL);
+            securityConnector.start();
 
-            platformSecurityConnector.setServerPlatformURL(serverPlatformURL);
-            platformSecurityConnector.start();
+            platformSecurityConnector  = securityConnector;
             platformSecurityConnection = connection;
         }
         catch (Throwable error)
@@ -122,11 +125,13 @@ public class OpenMetadataPlatformSecurityVerifier
      *
      * @throws UserNotAuthorizedException the user is not authorized to access this platform
      */
-    public static synchronized void  validateUserForNewServer(String   userId) throws UserNotAuthorizedException
+    public static void  validateUserForNewServer(String   userId) throws UserNotAuthorizedException
     {
-        if (platformSecurityConnector != null)
+        OpenMetadataPlatformSecurityConnector securityConnector = platformSecurityConnector;
+
+        if (securityConnector != null)
         {
-            platformSecurityConnector.validateUserForNewServer(userId);
+            securityConnector.validateUserForNewServer(userId);
         }
     }
 
@@ -138,11 +143,13 @@ public class OpenMetadataPlatformSecurityVerifier
      *
      * @throws UserNotAuthorizedException the user is not authorized to issue operator commands to this platform
      */
-    public static synchronized void  validateUserAsOperatorForPlatform(String   userId) throws UserNotAuthorizedException
+    public static void  validateUserAsOperatorForPlatform(String   userId) throws UserNotAuthorizedException
     {
-        if (platformSecurityConnector != null)
+        OpenMetadataPlatformSecurityConnector securityConnector = platformSecurityConnector;
+
+        if (securityConnector != null)
         {
-            platformSecurityConnector.validateUserAsOperatorForPlatform(userId);
+            securityConnector.validateUserAsOperatorForPlatform(userId);
         }
     }
 
@@ -154,11 +161,13 @@ public class OpenMetadataPlatformSecurityVerifier
      *
      * @throws UserNotAuthorizedException the user is not authorized to issue diagnostic commands to this platform
      */
-    public static synchronized void  validateUserAsInvestigatorForPlatform(String   userId) throws UserNotAuthorizedException
+    public static void  validateUserAsInvestigatorForPlatform(String   userId) throws UserNotAuthorizedException
     {
-        if (platformSecurityConnector != null)
+        OpenMetadataPlatformSecurityConnector securityConnector = platformSecurityConnector;
+
+        if (securityConnector != null)
         {
-            platformSecurityConnector.validateUserAsInvestigatorForPlatform(userId);
+            securityConnector.validateUserAsInvestigatorForPlatform(userId);
         }
     }
 }
@@ -16,15 +16,19 @@ import java.util.*;
 /**
  * OMAGServerInstance represents an instance of a service in an OMAG Server.
  * It is also responsible for registering itself in the instance map.
+ *
+ * The service instance map is read on every inbound REST request so it is replaced (copy-on-write) when
+ * services register and unregister, and read without a lock.
  */
 class OMAGServerInstance
 {
-    private String                                 serverName;
-    private String                                 serverType;
-    private List<OMAGServerInstanceHistory>        serverHistory      = new ArrayList<>();
-    private Map<String, OMAGServerServiceInstance> serviceInstanceMap = new HashMap<>();
-    private Date                                   serverStartTime    = new Date();
-    private OpenMetadataServerSecurityVerifier     securityVerifier   = new OpenMetadataServerSecurityVerifier();
+    private          String                                 serverName;
+    private volatile String                                 serverType;
+    private          List<OMAGServerInstanceHistory>        serverHistory       = new ArrayList<>();
+    private volatile Map<String, OMAGServerServiceInstance> serviceInstanceMap  = new HashMap<>();
+    private          Date                                   serverStartTime     = new Date();
+    private volatile Map<String, Long>                      serviceStartupTimes = null;
+    private final    OpenMetadataServerSecurityVerifier     securityVerifier    = new OpenMetadataServerSecurityVerifier();
 
 
     /**
@@ -76,7 +80,44 @@ class OMAGServerInstance
      */
     void initialize()
     {
-        serverStartTime    = new Date();
+        serverStartTime     = new Date();
+        serviceStartupTimes = null;
+    }
+
+
+    /**
+     * Save the time that each service took to start.
+     *
+     * @param serviceStartupTimes map of service name to startup time in milliseconds
+     */
+    void setServiceStartupTimes(Map<String, Long> serviceStartupTimes)
+    {
+        if (serviceStartupTimes == null)
+        {
+            this.serviceStartupTimes = null;
+        }
+        else
+        {
+            this.serviceStartupTimes = new LinkedHashMap<>(serviceStartupTimes);
+        }
+    }
+
+
+    /**
+     * Return the time that each service took to start when the server last started.
+     *
+     * @return map of service name to startup time in milliseconds (or null if not known)
+     */
+    Map<String, Long> getServiceStartupTimes()
+    {
+        Map<String, Long> startupTimes = serviceStartupTimes;
+
+        if (startupTimes == null)
+        {
+            return null;
+        }
+
+        return new LinkedHashMap<>(startupTimes);
     }
 
 
@@ -181,7 +222,7 @@ class OMAGServerInstance
      *
      * @return connector
      */
-    synchronized OpenMetadataServerSecurityVerifier  getSecurityVerifier()
+    OpenMetadataServerSecurityVerifier  getSecurityVerifier()
     {
         return securityVerifier;
     }
@@ -198,8 +239,12 @@ class OMAGServerInstance
     {
         if (serviceInstance != null)
         {
-            serviceInstanceMap.put(serviceName, serviceInstance);
+            Map<String, OMAGServerServiceInstance> newServiceInstanceMap = new HashMap<>(serviceInstanceMap);
+
+            newServiceInstanceMap.put(serviceName, serviceInstance);
             serviceInstance.setSecurityVerifier(securityVerifier);
+
+            serviceInstanceMap = newServiceInstanceMap;
         }
     }
 
@@ -215,10 +260,10 @@ class OMAGServerInstance
      * @throws UserNotAuthorizedException calling user not authorized to call the request
      * @throws PropertyServerException service is not running in this server
      */
-    synchronized OMAGServerServiceInstance getRegisteredService(String    userId,
-                                                                String    serviceName,
-                                                                String    serviceOperationName) throws UserNotAuthorizedException,
-                                                                                                       PropertyServerException
+    OMAGServerServiceInstance getRegisteredService(String    userId,
+                                                   String    serviceName,
+                                                   String    serviceOperationName) throws UserNotAuthorizedException,
+                                                                                          PropertyServerException
     {
         try
         {
@@ -252,7 +297,14 @@ class OMAGServerInstance
      */
     synchronized  void unRegisterService(String   serviceName)
     {
-        serviceInstanceMap.remove(serviceName);
+        if (serviceInstanceMap.containsKey(serviceName))
+        {
+            Map<String, OMAGServerServiceInstance> newServiceInstanceMap = new HashMap<>(serviceInstanceMap);
+
+            newServiceInstanceMap.remove(serviceName);
+
+            serviceInstanceMap = newServiceInstanceMap;
+        }
     }
 
 
@@ -267,11 +319,13 @@ class OMAGServerInstance
         this.serverHistory.add(new OMAGServerInstanceHistory(this.serverStartTime, new Date()));
         this.serverStartTime = null;
 
-        if (!serviceInstanceMap.isEmpty())
+        Map<String, OMAGServerServiceInstance> residualServiceInstanceMap = serviceInstanceMap;
+
+        if (!residualServiceInstanceMap.isEmpty())
         {
             this.serviceInstanceMap = new HashMap<>();
             throw new PropertyServerException(OMAGServerInstanceErrorCode.SERVICES_NOT_SHUTDOWN.getMessageDefinition(serverName,
-                                                                                                                     serviceInstanceMap.keySet().toString()),
+                                                                                                                     residualServiceInstanceMap.keySet().toString()),
                                               this.getClass().getName(),
                                               methodName);
         }
@@ -25,12 +25,38 @@ import java.util.*;
  * service instances for the requested server.  It manages the server name to server instance mapping.
  * The map is maintained in a static so it is scoped to the class loader.
  *
- * Instances of this class call the synchronized static methods to work with the map.
+ * Every inbound REST request looks up its server in the map, so reads do not take a lock.  The maps are
+ * held in an immutable snapshot that is replaced (copy-on-write) by the synchronized static methods that
+ * activate and deactivate servers.  Instances of this class call the static methods to work with the map.
  */
 public class OMAGServerPlatformInstanceMap
 {
-    private static Map<String, OMAGServerInstance> activeServerInstanceMap   = new HashMap<>();
-    private static Map<String, OMAGServerInstance> inActiveServerInstanceMap = new HashMap<>();
+    private static volatile ServerInstanceMaps serverInstanceMaps = new ServerInstanceMaps(new HashMap<>(), new HashMap<>());
+
+
+    /**
+     * ServerInstanceMaps is an immutable snapshot of the active and inactive servers.  Both maps are replaced
+     * together so a reader never sees a server that is moving between them in neither (or both) maps.
+     */
+    private static class ServerInstanceMaps
+    {
+        private final Map<String, OMAGServerInstance> activeServerInstanceMap;
+        private final Map<String, OMAGServerInstance> inActiveServerInstanceMap;
+
+
+        /**
+         * Create a snapshot from the supplied maps.  The maps must not be changed afterwards.
+         *
+         * @param activeServerInstanceMap server name to instance for running servers
+         * @param inActiveServerInstanceMap server name to instance for servers that have been shutdown
+         */
+        ServerInstanceMaps(Map<String, OMAGServerInstance> activeServerInstanceMap,
+                           Map<String, OMAGServerInstance> inActiveServerInstanceMap)
+        {
+            this.activeServerInstanceMap   = activeServerInstanceMap;
+            this.inActiveServerInstanceMap = inActiveServerInstanceMap;
+        }
+    }
 
 
     /**
@@ -389,13 +415,18 @@ public class OMAGServerPlatformInstanceMap
      */
     private static synchronized OMAGServerInstance getActiveServerInstance(String serverName)
     {
+        ServerInstanceMaps currentMaps = serverInstanceMaps;
+
         /*
          * Is this a server that is currently running?
          */
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        OMAGServerInstance  serverInstance = currentMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance == null)
         {
+            Map<String, OMAGServerInstance> activeServerInstanceMap   = new HashMap<>(currentMaps.activeServerInstanceMap);
+            Map<String, OMAGServerInstance> inActiveServerInstanceMap = new HashMap<>(currentMaps.inActiveServerInstanceMap);
+
             /*
              * Is this a known server that is currently inactive?
              */
@@ -417,6 +448,8 @@ public class OMAGServerPlatformInstanceMap
                 activeServerInstanceMap.put(serverName, serverInstance);
                 inActiveServerInstanceMap.remove(serverName);
             }
+
+            serverInstanceMaps = new ServerInstanceMaps(activeServerInstanceMap, inActiveServerInstanceMap);
         }
 
         return serverInstance;
@@ -479,14 +512,14 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      * @throws InvalidParameterException the server name is not known
      */
-    private static synchronized String getServerInstanceType(String  userId,
-                                                             String  serverName,
-                                                             String  serviceOperationName) throws InvalidParameterException,
-                                                                                                  UserNotAuthorizedException
+    private static String getServerInstanceType(String  userId,
+                                                String  serverName,
+                                                String  serviceOperationName) throws InvalidParameterException,
+                                                                                     UserNotAuthorizedException
     {
         validateUserAsInvestigatorForPlatform(userId);
 
-        OMAGServerInstance serverInstance = activeServerInstanceMap.get(serverName);
+        OMAGServerInstance serverInstance = serverInstanceMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance != null)
         {
@@ -514,12 +547,12 @@ public class OMAGServerPlatformInstanceMap
      * @return boolean
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized boolean isServerInstanceActive(String  userId,
-                                                               String  serverName) throws UserNotAuthorizedException
+    private static boolean isServerInstanceActive(String  userId,
+                                                  String  serverName) throws UserNotAuthorizedException
     {
         validateUserAsInvestigatorForPlatform(userId);
 
-        return (activeServerInstanceMap.get(serverName) != null);
+        return (serverInstanceMaps.activeServerInstanceMap.get(serverName) != null);
     }
 
 
@@ -534,13 +567,15 @@ public class OMAGServerPlatformInstanceMap
      * @return boolean
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized boolean isServerInstanceKnown(String  userId,
-                                                              String  serverName) throws UserNotAuthorizedException
+    private static boolean isServerInstanceKnown(String  userId,
+                                                 String  serverName) throws UserNotAuthorizedException
     {
         validateUserAsInvestigatorForPlatform(userId);
 
-        return ((activeServerInstanceMap.get(serverName) != null) ||
-                (inActiveServerInstanceMap.get(serverName) != null));
+        ServerInstanceMaps currentMaps = serverInstanceMaps;
+
+        return ((currentMaps.activeServerInstanceMap.get(serverName) != null) ||
+                (currentMaps.inActiveServerInstanceMap.get(serverName) != null));
     }
 
 
@@ -557,14 +592,14 @@ public class OMAGServerPlatformInstanceMap
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      * @throws PropertyServerException the service name is not know - indicating a logic error
      */
-    private static synchronized OMAGServerServiceInstance getInstanceForPlatform(String  userId,
-                                                                                 String  serverName,
-                                                                                 String  serviceName,
-                                                                                 String  serviceOperationName) throws InvalidParameterException,
-                                                                                                                      UserNotAuthorizedException,
-                                                                                                                      PropertyServerException
+    private static OMAGServerServiceInstance getInstanceForPlatform(String  userId,
+                                                                    String  serverName,
+                                                                    String  serviceName,
+                                                                    String  serviceOperationName) throws InvalidParameterException,
+                                                                                                         UserNotAuthorizedException,
+                                                                                                         PropertyServerException
     {
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        OMAGServerInstance  serverInstance = serverInstanceMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance != null)
         {
@@ -602,7 +637,7 @@ public class OMAGServerPlatformInstanceMap
      * @return list of OMAG server names
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized List<String> getActiveServerListForPlatform(String userId) throws UserNotAuthorizedException
+    private static List<String> getActiveServerListForPlatform(String userId) throws UserNotAuthorizedException
     {
         try
         {
@@ -613,7 +648,7 @@ public class OMAGServerPlatformInstanceMap
             throw new UserNotAuthorizedException(error);
         }
 
-        Set<String>  activeServerSet = activeServerInstanceMap.keySet();
+        Set<String>  activeServerSet = serverInstanceMaps.activeServerInstanceMap.keySet();
 
         if (activeServerSet.isEmpty())
         {
@@ -633,7 +668,7 @@ public class OMAGServerPlatformInstanceMap
      * @return list of OMAG server names
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized List<String> getKnownServerListForPlatform(String userId) throws UserNotAuthorizedException
+    private static List<String> getKnownServerListForPlatform(String userId) throws UserNotAuthorizedException
     {
         try
         {
@@ -644,8 +679,10 @@ public class OMAGServerPlatformInstanceMap
             throw new UserNotAuthorizedException(error);
         }
 
-        List<String> knownServerList = new ArrayList<>(activeServerInstanceMap.keySet());
-        knownServerList.addAll(inActiveServerInstanceMap.keySet());
+        ServerInstanceMaps currentMaps     = serverInstanceMaps;
+        List<String>       knownServerList = new ArrayList<>(currentMaps.activeServerInstanceMap.keySet());
+
+        knownServerList.addAll(currentMaps.inActiveServerInstanceMap.keySet());
 
         if (knownServerList.isEmpty())
         {
@@ -665,8 +702,8 @@ public class OMAGServerPlatformInstanceMap
      * @param serverInstance instance for the server
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized void validateUserAsServerInvestigator(String              userId,
-                                                                      OMAGServerInstance  serverInstance) throws UserNotAuthorizedException
+    private static void validateUserAsServerInvestigator(String              userId,
+                                                         OMAGServerInstance  serverInstance) throws UserNotAuthorizedException
     {
         if (serverInstance != null)
         {
@@ -694,17 +731,18 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException the serverName is not known.
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized  Date getServerStartTimeFromPlatform(String  userId,
-                                                                     String  serverName) throws InvalidParameterException,
-                                                                                                UserNotAuthorizedException
+    private static Date getServerStartTimeFromPlatform(String  userId,
+                                                       String  serverName) throws InvalidParameterException,
+                                                                                  UserNotAuthorizedException
     {
         final String  methodName = "getServerStartTimeFromPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        ServerInstanceMaps  currentMaps    = serverInstanceMaps;
+        OMAGServerInstance  serverInstance = currentMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance == null)
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = currentMaps.inActiveServerInstanceMap.get(serverName);
         }
 
         if (serverInstance != null)
@@ -731,17 +769,18 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException the serverName is not known.
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized  Date getServerEndTimeFromPlatform(String  userId,
-                                                                   String  serverName) throws InvalidParameterException,
-                                                                                              UserNotAuthorizedException
+    private static Date getServerEndTimeFromPlatform(String  userId,
+                                                     String  serverName) throws InvalidParameterException,
+                                                                                UserNotAuthorizedException
     {
         final String  methodName = "getServerEndTimeFromPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        ServerInstanceMaps  currentMaps    = serverInstanceMaps;
+        OMAGServerInstance  serverInstance = currentMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance == null)
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = currentMaps.inActiveServerInstanceMap.get(serverName);
         }
 
         if (serverInstance != null)
@@ -768,17 +807,18 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException the serverName is not known.
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized  List<OMAGServerInstanceHistory> getServerHistoryFromPlatform(String  userId,
-                                                                                              String  serverName) throws InvalidParameterException,
-                                                                                                                         UserNotAuthorizedException
+    private static List<OMAGServerInstanceHistory> getServerHistoryFromPlatform(String  userId,
+                                                                                String  serverName) throws InvalidParameterException,
+                                                                                                           UserNotAuthorizedException
     {
         final String  methodName = "getServerHistoryFromPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        ServerInstanceMaps  currentMaps    = serverInstanceMaps;
+        OMAGServerInstance  serverInstance = currentMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance == null)
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = currentMaps.inActiveServerInstanceMap.get(serverName);
         }
 
         if (serverInstance != null)
@@ -795,6 +835,62 @@ public class OMAGServerPlatformInstanceMap
         return null;
     }
 
+
+    /**
+     * Return the time that each service took to start when the server last started.
+     *
+     * @param userId calling user or null if it is an anonymous request
+     * @param serverName name of the server
+     * @return map of service name to startup time in milliseconds
+     * @throws InvalidParameterException the serverName is not known.
+     * @throws UserNotAuthorizedException the user is not authorized to issue the request.
+     */
+    private static Map<String, Long> getServiceStartupTimesFromPlatform(String  userId,
+                                                                        String  serverName) throws InvalidParameterException,
+                                                                                                   UserNotAuthorizedException
+    {
+        final String  methodName = "getServiceStartupTimesFromPlatform";
+
+        ServerInstanceMaps  currentMaps    = serverInstanceMaps;
+        OMAGServerInstance  serverInstance = currentMaps.activeServerInstanceMap.get(serverName);
+
+        if (serverInstance == null)
+        {
+            serverInstance = currentMaps.inActiveServerInstanceMap.get(serverName);
+        }
+
+        if (serverInstance != null)
+        {
+            validateUserAsServerInvestigator(userId, serverInstance);
+
+            return serverInstance.getServiceStartupTimes();
+        }
+        else
+        {
+            handleBadServerName(userId, serverName, methodName);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Save the time that each service took to start in an active server.
+     *
+     * @param serverName name of the server
+     * @param serviceStartupTimes map of service name to startup time in milliseconds
+     */
+    private static void setServiceStartupTimesForPlatform(String            serverName,
+                                                          Map<String, Long> serviceStartupTimes)
+    {
+        OMAGServerInstance  serverInstance = serverInstanceMaps.activeServerInstanceMap.get(serverName);
+
+        if (serverInstance != null)
+        {
+            serverInstance.setServiceStartupTimes(serviceStartupTimes);
+        }
+    }
+
     /**
      * Return the list of services running in an OMAG Server that is running on this OMAG Server Platform.
      *
@@ -804,13 +900,14 @@ public class OMAGServerPlatformInstanceMap
      * @throws InvalidParameterException the server name is not known
      * @throws UserNotAuthorizedException the user is not authorized to issue the request.
      */
-    private static synchronized List<String>   getActiveServiceListForServerOnPlatform(String userId,
-                                                                                       String serverName) throws InvalidParameterException,
-                                                                                                                 UserNotAuthorizedException
+    private static List<String>   getActiveServiceListForServerOnPlatform(String userId,
+                                                                          String serverName) throws InvalidParameterException,
+                                                                                                    UserNotAuthorizedException
     {
         final String  methodName = "getActiveServiceListForServerOnPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        ServerInstanceMaps  currentMaps    = serverInstanceMaps;
+        OMAGServerInstance  serverInstance = currentMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance != null)
         {
@@ -820,7 +917,7 @@ public class OMAGServerPlatformInstanceMap
         }
         else /* server is not active */
         {
-            serverInstance = inActiveServerInstanceMap.get(serverName);
+            serverInstance = currentMaps.inActiveServerInstanceMap.get(serverName);
 
             if (serverInstance != null)
             {
@@ -845,7 +942,7 @@ public class OMAGServerPlatformInstanceMap
     private static synchronized void removeInstanceForPlatform(String   serverName,
                                                                String   serviceName)
     {
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        OMAGServerInstance  serverInstance = serverInstanceMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance != null)
         {
@@ -868,7 +965,8 @@ public class OMAGServerPlatformInstanceMap
                                                        String   methodName) throws InvalidParameterException,
                                                                                    PropertyServerException
     {
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        ServerInstanceMaps  currentMaps    = serverInstanceMaps;
+        OMAGServerInstance  serverInstance = currentMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance == null)
         {
@@ -886,8 +984,13 @@ public class OMAGServerPlatformInstanceMap
             }
             finally
             {
+                Map<String, OMAGServerInstance> activeServerInstanceMap   = new HashMap<>(currentMaps.activeServerInstanceMap);
+                Map<String, OMAGServerInstance> inActiveServerInstanceMap = new HashMap<>(currentMaps.inActiveServerInstanceMap);
+
                 inActiveServerInstanceMap.put(serverName, serverInstance);
                 activeServerInstanceMap.remove(serverName);
+
+                serverInstanceMaps = new ServerInstanceMaps(activeServerInstanceMap, inActiveServerInstanceMap);
             }
         }
     }
@@ -902,12 +1005,12 @@ public class OMAGServerPlatformInstanceMap
      * @return OpenMetadataServerSecurityVerifier object - never null
      * @throws InvalidParameterException the server name is not known
      */
-    private static synchronized OpenMetadataServerSecurityVerifier getServerSecurityVerifierForPlatform(String    userId,
-                                                                                                        String    serverName) throws InvalidParameterException
+    private static OpenMetadataServerSecurityVerifier getServerSecurityVerifierForPlatform(String    userId,
+                                                                                           String    serverName) throws InvalidParameterException
     {
         final String  methodName = "getServerSecurityVerifierForPlatform";
 
-        OMAGServerInstance  serverInstance = activeServerInstanceMap.get(serverName);
+        OMAGServerInstance  serverInstance = serverInstanceMaps.activeServerInstanceMap.get(serverName);
 
         if (serverInstance != null)
         {
@@ -1061,6 +1164,37 @@ public class OMAGServerPlatformInstanceMap
     }
 
 
+    /**
+     * Return the time that each service took to start when the server last started.
+     *
+     * @param userId calling user or null if it is an anonymous request
+     * @param serverName name of the server
+     * @return map of service name to startup time in milliseconds
+     * @throws InvalidParameterException the serverName is not known.
+     * @throws UserNotAuthorizedException the user is not authorized to issue the request.
+     */
+    public Map<String, Long> getServiceStartupTimes(String  userId,
+                                                    String  serverName) throws InvalidParameterException,
+                                                                               UserNotAuthorizedException
+    {
+        return OMAGServerPlatformInstanceMap.getServiceStartupTimesFromPlatform(userId, serverName);
+    }
+
+
+    /**
+     * Save the time that each service took to start.  This is called by the operational services once the
+     * server has started.
+     *
+     * @param serverName name of the server
+     * @param serviceStartupTimes map of service name to startup time in milliseconds
+     */
+    public void setServiceStartupTimes(String            serverName,
+                                       Map<String, Long> serviceStartupTimes)
+    {
+        OMAGServerPlatformInstanceMap.setServiceStartupTimesForPlatform(serverName, serviceStartupTimes);
+    }
+
+
     /**
      * Add a new service instance to the server map.
      *
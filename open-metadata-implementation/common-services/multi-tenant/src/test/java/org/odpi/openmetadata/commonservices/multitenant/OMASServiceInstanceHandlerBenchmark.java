@@ -0,0 +1,140 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.multitenant;
+
+import org.odpi.openmetadata.adminservices.configuration.registration.AccessServiceDescription;
+import org.odpi.openmetadata.commonservices.ffdc.exceptions.InvalidParameterException;
+import org.odpi.openmetadata.commonservices.ffdc.exceptions.PropertyServerException;
+import org.odpi.openmetadata.commonservices.ffdc.exceptions.UserNotAuthorizedException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OMASServiceInstanceHandlerBenchmark measures the cost of the instance lookup that starts every REST call
+ * to an access service when many request threads call it at once.  The platform hosts a number of servers,
+ * each running the same access service, and each call picks a server at random.  It is not run as part of
+ * the unit tests.  Run the main method (with the test classpath) to execute the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OMASServiceInstanceHandlerBenchmark
+{
+    private static final String USER_ID        = "benchmarkUser";
+    private static final String OPERATION_NAME = "getServerServiceInstance";
+
+    @Param({"1", "16"})
+    public int serverCount;
+
+    private OMASServiceInstanceHandler      instanceHandler;
+    private List<OMAGServerServiceInstance> serviceInstances;
+    private String[]                        serverNames;
+
+
+    /**
+     * Minimal access service instance registered for each server.
+     */
+    private static class BenchmarkServiceInstance extends OMAGServerServiceInstance
+    {
+        /**
+         * Register the instance in the platform instance map.
+         *
+         * @param serverName name of the server
+         * @param serviceName name of the access service
+         */
+        BenchmarkServiceInstance(String serverName,
+                                 String serviceName)
+        {
+            super(serverName, serviceName, 500);
+        }
+    }
+
+
+    /**
+     * Register the access service for each server.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        final String serviceName = AccessServiceDescription.ASSET_CATALOG_OMAS.getAccessServiceFullName();
+
+        instanceHandler  = new OMASServiceInstanceHandler(serviceName);
+        serviceInstances = new ArrayList<>();
+        serverNames      = new String[serverCount];
+
+        for (int i = 0; i < serverCount; i++)
+        {
+            serverNames[i] = "benchmarkServer" + i;
+            serviceInstances.add(new BenchmarkServiceInstance(serverNames[i], serviceName));
+        }
+    }
+
+
+    /**
+     * Unregister the services and shut down the servers.
+     *
+     * @throws InvalidParameterException a server is not known
+     * @throws PropertyServerException a server still has services registered
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws InvalidParameterException, PropertyServerException
+    {
+        OMAGServerPlatformInstanceMap platformInstanceMap = new OMAGServerPlatformInstanceMap();
+
+        for (OMAGServerServiceInstance serviceInstance : serviceInstances)
+        {
+            serviceInstance.shutdown();
+        }
+
+        for (String serverName : serverNames)
+        {
+            platformInstanceMap.shutdownServerInstance(USER_ID, serverName, OPERATION_NAME);
+        }
+    }
+
+
+    /**
+     * Look up the service instance for a randomly chosen server.
+     *
+     * @return service instance
+     * @throws InvalidParameterException the server is not known
+     * @throws UserNotAuthorizedException the user is not authorized
+     * @throws PropertyServerException the service is not registered
+     */
+    @Benchmark
+    @Threads(16)
+    public OMAGServerServiceInstance getServerServiceInstance() throws InvalidParameterException,
+                                                                       UserNotAuthorizedException,
+                                                                       PropertyServerException
+    {
+        String serverName = serverNames[ThreadLocalRandom.current().nextInt(serverCount)];
+
+        return instanceHandler.getServerServiceInstance(USER_ID, serverName, OPERATION_NAME);
+    }
+
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args ignored
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder().include(OMASServiceInstanceHandlerBenchmark.class.getSimpleName())
+                                              .build();
+
+        new Runner(options).run();
+    }
+}
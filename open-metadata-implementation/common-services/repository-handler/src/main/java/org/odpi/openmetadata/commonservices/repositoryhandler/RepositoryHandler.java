@@ -55,6 +55,26 @@ public class RepositoryHandler
     }
 
 
+    /**
+     * Start an instance batch on the calling thread before creating many instances in one request.
+     * The events for the new instances are sent together when endInstanceBatch() is called.  Every call
+     * must be matched by a call to endInstanceBatch() in a finally block.
+     */
+    public void startInstanceBatch()
+    {
+        metadataCollection.startInstanceBatch();
+    }
+
+
+    /**
+     * End the instance batch on the calling thread and send the events for the instances that it created.
+     */
+    public void endInstanceBatch()
+    {
+        metadataCollection.endInstanceBatch();
+    }
+
+
     /**
      * Validate that the supplied GUID is for a real entity and map exceptions if not
      *
@@ -69,6 +69,23 @@ public abstract class RepositoryIteratorForEntities
                                                     PropertyServerException;
 
 
+    /**
+     * Return the position in the repository's results of the entity that the next call to getNext will return.
+     * This can be passed as the startingFrom value of a new iterator to resume the same query from this point.
+     *
+     * @return position of the next entity (0 for the first)
+     */
+    public int getNextPosition()
+    {
+        if (entitiesCache == null)
+        {
+            return startingFrom;
+        }
+
+        return startingFrom - entitiesCache.size();
+    }
+
+
     /**
      * Return the next entity.  It returns null if nothing left to retrieve.
      *
@@ -23,12 +23,13 @@ public class ServerStatusResponse extends FFDCResponseBase
 {
     private static final long    serialVersionUID = 1L;
 
-    private String                          serverName      = null;
-    private String                          serverType      = null;
-    private boolean                         isActive        = true;
-    private Date                            serverStartTime = null;
-    private Date                            serverEndTime   = null;
-    private List<OMAGServerInstanceHistory> serverHistory   = null;
+    private String                          serverName          = null;
+    private String                          serverType          = null;
+    private boolean                         isActive            = true;
+    private Date                            serverStartTime     = null;
+    private Date                            serverEndTime       = null;
+    private List<OMAGServerInstanceHistory> serverHistory       = null;
+    private Map<String, Long>               serviceStartupTimes = null;
 
 
     /**
@@ -56,6 +57,7 @@ public class ServerStatusResponse extends FFDCResponseBase
             serverStartTime = template.getServerStartTime();
             serverEndTime = template.getServerEndTime();
             serverHistory = template.getServerHistory();
+            serviceStartupTimes = template.getServiceStartupTimes();
         }
     }
 
@@ -200,6 +202,39 @@ public class ServerStatusResponse extends FFDCResponseBase
     }
 
 
+    /**
+     * Return the time in milliseconds that each service took to start when the server last started.
+     *
+     * @return map of service name to startup time
+     */
+    public Map<String, Long> getServiceStartupTimes()
+    {
+        if (serviceStartupTimes == null)
+        {
+            return null;
+        }
+        else if (serviceStartupTimes.isEmpty())
+        {
+            return null;
+        }
+        else
+        {
+            return new LinkedHashMap<>(serviceStartupTimes);
+        }
+    }
+
+
+    /**
+     * Set up the time in milliseconds that each service took to start when the server last started.
+     *
+     * @param serviceStartupTimes map of service name to startup time
+     */
+    public void setServiceStartupTimes(Map<String, Long> serviceStartupTimes)
+    {
+        this.serviceStartupTimes = serviceStartupTimes;
+    }
+
+
 
     /**
      * JSON-like toString
@@ -215,6 +250,7 @@ public class ServerStatusResponse extends FFDCResponseBase
                 ", serverStartTime=" + serverStartTime +
                 ", serverEndTime=" + serverEndTime +
                 ", serverHistory=" + serverHistory +
+                ", serviceStartupTimes=" + serviceStartupTimes +
                 ", relatedHTTPCode=" + getRelatedHTTPCode() +
                 ", exceptionClassName='" + getExceptionClassName() + '\'' +
                 ", exceptionErrorMessage='" + getExceptionErrorMessage() + '\'' +
@@ -251,7 +287,8 @@ public class ServerStatusResponse extends FFDCResponseBase
               Objects.equals(getServerName(), that.getServerName()) &&
               Objects.equals(getServerStartTime(), that.getServerStartTime()) &&
               Objects.equals(getServerEndTime(), that.getServerEndTime()) &&
-              Objects.equals(getServerHistory(), that.getServerHistory());
+              Objects.equals(getServerHistory(), that.getServerHistory()) &&
+              Objects.equals(getServiceStartupTimes(), that.getServiceStartupTimes());
 
     }
 
@@ -264,6 +301,6 @@ public class ServerStatusResponse extends FFDCResponseBase
     @Override
     public int hashCode()
     {
-        return Objects.hash(super.hashCode(), getServerName(), isActive(), getServerStartTime(), getServerEndTime(), getServerHistory());
+        return Objects.hash(super.hashCode(), getServerName(), isActive(), getServerStartTime(), getServerEndTime(), getServerHistory(), getServiceStartupTimes());
     }
 }
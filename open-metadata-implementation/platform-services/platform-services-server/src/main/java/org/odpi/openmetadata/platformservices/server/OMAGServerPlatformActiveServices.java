@@ -349,6 +349,7 @@ public class OMAGServerPlatformActiveServices
             response.setServerStartTime(serverInstanceMap.getServerStartTime(userId, serverName));
             response.setServerEndTime(serverInstanceMap.getServerEndTime(userId, serverName));
             response.setServerHistory(serverInstanceMap.getServerHistory(userId, serverName));
+            response.setServiceStartupTimes(serverInstanceMap.getServiceStartupTimes(userId, serverName));
         }
         catch (Exception error)
         {
@@ -0,0 +1,476 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.future.CompletedFuture;
+import org.odpi.openmetadata.repositoryservices.events.future.OMRSFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+
+/**
+ * OMRSEventDispatcher passes the events received by an OMRSTopicConnector to its registered listeners.
+ * Each listener has its own bounded queue of events that is drained in order by a small pool of threads
+ * owned by the connector.  This means a slow listener only delays its own events (until its queue is full)
+ * rather than the events for the other listeners, and the work is not mixed up with the JVM's common
+ * fork-join pool that is shared by the rest of the platform.
+ * <br><br>
+ * When the dispatcher is configured with no threads, the events are passed to each listener in turn
+ * on the thread that received them.
+ */
+class OMRSEventDispatcher
+{
+    private static final Logger log = LoggerFactory.getLogger(OMRSEventDispatcher.class);
+
+    static final int DEFAULT_DISPATCH_THREADS     = 4;
+    static final int DEFAULT_LISTENER_QUEUE_DEPTH = 100;
+
+    /*
+     * Maximum number of events a listener processes before it gives up its thread to the other listeners.
+     */
+    private static final int MAX_EVENTS_PER_TURN = 10;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    /*
+     * Time the receiving thread waits for space in a full queue before checking whether the dispatcher
+     * has been shut down.
+     */
+    private static final long ENQUEUE_WAIT_MILLIS = 100;
+
+    private final List<ListenerLane>  lanes = new CopyOnWriteArrayList<>();
+    private final ThreadPoolExecutor  executor;
+    private final int                 listenerQueueDepth;
+
+    private volatile boolean          isShutdown = false;
+
+
+    /**
+     * Constructor.
+     *
+     * @param topicName name of the topic - used to name the threads
+     * @param dispatchThreads number of threads that call the listeners - zero or less means call the listeners
+     *                        on the receiving thread
+     * @param listenerQueueDepth maximum number of events that can wait for each listener
+     */
+    OMRSEventDispatcher(String topicName,
+                        int    dispatchThreads,
+                        int    listenerQueueDepth)
+    {
+        if (dispatchThreads > 0)
+        {
+            this.executor = new ThreadPoolExecutor(dispatchThreads,
+                                                   dispatchThreads,
+                                                   60,
+                                                   TimeUnit.SECONDS,
+                                                   new LinkedBlockingQueue<>(),
+                                                   new DispatchThreadFactory(topicName));
+            this.executor.allowCoreThreadTimeOut(true);
+            this.listenerQueueDepth = Math.max(listenerQueueDepth, 1);
+        }
+        else
+        {
+            this.executor = null;
+            this.listenerQueueDepth = 0;
+        }
+    }
+
+
+    /**
+     * Add a listener to receive the events.
+     *
+     * @param listener wrapped listener
+     */
+    void addListener(OMRSTopicListenerWrapper listener)
+    {
+        lanes.add(new ListenerLane(listener));
+    }
+
+
+    /**
+     * Pass an event to each of the listeners.  The call blocks if one of the listener's queues is full.
+     * The returned future completes when all of the listeners have processed the event, including any
+     * asynchronous processing they registered with the {@link OMRSEventProcessingContext}.  Once the
+     * dispatcher is shut down, the event is discarded and the future never completes.
+     *
+     * @param messageId unique identifier of the event on the topic
+     * @param eventAction processing to perform for each listener
+     * @return future for the processing of the event
+     * @throws InterruptedException the receiving thread was interrupted while waiting for space in a listener's queue
+     */
+    OMRSFuture dispatchEvent(String                      messageId,
+                             Consumer<OMRSTopicListener> eventAction) throws InterruptedException
+    {
+        if (executor == null)
+        {
+            for (ListenerLane lane : lanes)
+            {
+                lane.processEvent(eventAction);
+            }
+
+            return CompletedFuture.INSTANCE;
+        }
+
+        List<ListenerLane>     currentLanes = new ArrayList<>(lanes);
+        DispatchedEventFuture  eventFuture  = new DispatchedEventFuture(currentLanes.size());
+
+        for (ListenerLane lane : currentLanes)
+        {
+            lane.enqueue(new QueuedEvent(messageId, eventAction, eventFuture));
+        }
+
+        return eventFuture;
+    }
+
+
+    /**
+     * Return the current statistics for each listener.
+     *
+     * @return list of metrics in the order the listeners were registered
+     */
+    List<OMRSTopicListenerMetrics> getListenerMetrics()
+    {
+        List<OMRSTopicListenerMetrics> metrics = new ArrayList<>();
+
+        for (ListenerLane lane : lanes)
+        {
+            metrics.add(lane.getMetrics());
+        }
+
+        return metrics;
+    }
+
+
+    /**
+     * Stop the threads.  Events that are still queued, or that a receiving thread is waiting to queue,
+     * are discarded without completing their futures so that they are not recorded as processed.
+     */
+    void shutdown()
+    {
+        isShutdown = true;
+
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * An event waiting in a listener's queue.
+     */
+    private static class QueuedEvent
+    {
+        private final String                      messageId;
+        private final Consumer<OMRSTopicListener> eventAction;
+        private final DispatchedEventFuture       eventFuture;
+        private final long                        queuedTime = System.nanoTime();
+
+        QueuedEvent(String                      messageId,
+                    Consumer<OMRSTopicListener> eventAction,
+                    DispatchedEventFuture       eventFuture)
+        {
+            this.messageId = messageId;
+            this.eventAction = eventAction;
+            this.eventFuture = eventFuture;
+        }
+    }
+
+
+    /**
+     * The queue of events for a single listener.  At most one thread drains the queue at a time so the
+     * listener sees the events in the order they were received from the topic.
+     */
+    private class ListenerLane implements Runnable
+    {
+        private final OMRSTopicListenerWrapper  listener;
+        private final BlockingQueue<QueuedEvent> queue;
+        private final AtomicBoolean             scheduled = new AtomicBoolean(false);
+
+        private long eventsProcessed     = 0;
+        private long totalLatency        = 0;
+        private long maximumLatency      = 0;
+        private long totalQueueWaitTime  = 0;
+
+
+        ListenerLane(OMRSTopicListenerWrapper listener)
+        {
+            this.listener = listener;
+            this.queue = new LinkedBlockingQueue<>(Math.max(listenerQueueDepth, 1));
+        }
+
+
+        /**
+         * Add an event to the queue, waiting for space if the listener has fallen behind.  The wait ends
+         * and the event is discarded if the dispatcher is shut down, since the queue will not be drained.
+         *
+         * @param queuedEvent event
+         * @throws InterruptedException interrupted while waiting
+         */
+        void enqueue(QueuedEvent queuedEvent) throws InterruptedException
+        {
+            while (! queue.offer(queuedEvent, ENQUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS))
+            {
+                if (isShutdown)
+                {
+                    log.debug("Discarding event " + queuedEvent.messageId + " for " + listener.getServiceName() + " as the connector is disconnected");
+                    return;
+                }
+            }
+
+            this.schedule();
+        }
+
+
+        /**
+         * Request a thread to drain the queue if one is not already working on it.
+         */
+        private void schedule()
+        {
+            if (scheduled.compareAndSet(false, true))
+            {
+                try
+                {
+                    executor.execute(this);
+                }
+                catch (RejectedExecutionException error)
+                {
+                    log.debug("Discarding " + queue.size() + " events for " + listener.getServiceName() + " as the connector is disconnected");
+
+                    queue.clear();
+                    scheduled.set(false);
+                }
+            }
+        }
+
+
+        /**
+         * Drain a batch of events from the queue.
+         */
+        @Override
+        public void run()
+        {
+            try
+            {
+                for (int eventCount = 0; (eventCount < MAX_EVENTS_PER_TURN) && (! isShutdown); eventCount++)
+                {
+                    QueuedEvent queuedEvent = queue.poll();
+
+                    if (queuedEvent == null)
+                    {
+                        break;
+                    }
+
+                    this.processQueuedEvent(queuedEvent);
+                }
+            }
+            finally
+            {
+                scheduled.set(false);
+
+                if (! queue.isEmpty())
+                {
+                    this.schedule();
+                }
+            }
+        }
+
+
+        /**
+         * Pass a queued event to the listener on a dispatch thread.  The thread is given its own event processing
+         * context so any asynchronous processing started by the listener is added to the event's future.
+         *
+         * @param queuedEvent event
+         */
+        private void processQueuedEvent(QueuedEvent queuedEvent)
+        {
+            InternalOMRSEventProcessingContext.clear();
+            InternalOMRSEventProcessingContext context = InternalOMRSEventProcessingContext.getInstance();
+            context.setCurrentMessageId(queuedEvent.messageId);
+
+            long startTime = System.nanoTime();
+
+            try
+            {
+                queuedEvent.eventAction.accept(listener);
+            }
+            finally
+            {
+                long endTime = System.nanoTime();
+
+                this.recordEvent(startTime - queuedEvent.queuedTime, endTime - startTime);
+
+                OMRSFuture asyncProcessingResult = context.getOverallAsyncProcessingResult();
+                InternalOMRSEventProcessingContext.clear();
+
+                queuedEvent.eventFuture.listenerComplete(asyncProcessingResult);
+            }
+        }
+
+
+        /**
+         * Pass an event to the listener on the receiving thread.
+         *
+         * @param eventAction processing to perform
+         */
+        void processEvent(Consumer<OMRSTopicListener> eventAction)
+        {
+            long startTime = System.nanoTime();
+
+            try
+            {
+                eventAction.accept(listener);
+            }
+            finally
+            {
+                this.recordEvent(0, System.nanoTime() - startTime);
+            }
+        }
+
+
+        /**
+         * Update the statistics for the listener.
+         *
+         * @param queueWaitTime time the event was queued (nanoseconds)
+         * @param latency time the listener took to process the event (nanoseconds)
+         */
+        private synchronized void recordEvent(long queueWaitTime,
+                                              long latency)
+        {
+            eventsProcessed++;
+            totalLatency += latency;
+            totalQueueWaitTime += queueWaitTime;
+
+            if (latency > maximumLatency)
+            {
+                maximumLatency = latency;
+            }
+        }
+
+
+        /**
+         * Return a snapshot of the statistics for the listener.
+         *
+         * @return metrics
+         */
+        synchronized OMRSTopicListenerMetrics getMetrics()
+        {
+            long averageLatency       = 0;
+            long averageQueueWaitTime = 0;
+
+            if (eventsProcessed > 0)
+            {
+                averageLatency = totalLatency / eventsProcessed / NANOS_PER_MILLI;
+                averageQueueWaitTime = totalQueueWaitTime / eventsProcessed / NANOS_PER_MILLI;
+            }
+
+            return new OMRSTopicListenerMetrics(listener.getServiceName(),
+                                                queue.size(),
+                                                listenerQueueDepth,
+                                                eventsProcessed,
+                                                averageLatency,
+                                                maximumLatency / NANOS_PER_MILLI,
+                                                averageQueueWaitTime);
+        }
+    }
+
+
+    /**
+     * The future for an event that has been queued for the listeners.  It is done when every listener has
+     * processed the event and the asynchronous processing that they started is done.
+     */
+    private static class DispatchedEventFuture implements OMRSFuture
+    {
+        private final AtomicInteger    outstandingListeners;
+        private final List<OMRSFuture> asyncProcessingResults = Collections.synchronizedList(new ArrayList<>());
+
+        DispatchedEventFuture(int listenerCount)
+        {
+            this.outstandingListeners = new AtomicInteger(listenerCount);
+        }
+
+
+        /**
+         * Record that a listener has finished with the event.
+         *
+         * @param asyncProcessingResult asynchronous processing started by the listener
+         */
+        void listenerComplete(OMRSFuture asyncProcessingResult)
+        {
+            if ((asyncProcessingResult != null) && (asyncProcessingResult != CompletedFuture.INSTANCE))
+            {
+                asyncProcessingResults.add(asyncProcessingResult);
+            }
+
+            outstandingListeners.decrementAndGet();
+        }
+
+
+        /**
+         * Checks whether processing for the future has completed.
+         *
+         * @return boolean
+         */
+        @Override
+        public boolean isDone()
+        {
+            if (outstandingListeners.get() > 0)
+            {
+                return false;
+            }
+
+            synchronized (asyncProcessingResults)
+            {
+                for (OMRSFuture asyncProcessingResult : asyncProcessingResults)
+                {
+                    if (! asyncProcessingResult.isDone())
+                    {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        }
+    }
+
+
+    /**
+     * Creates daemon threads named after the topic.
+     */
+    private static class DispatchThreadFactory implements ThreadFactory
+    {
+        private final String        threadNamePrefix;
+        private final AtomicInteger threadCount = new AtomicInteger(0);
+
+        DispatchThreadFactory(String topicName)
+        {
+            this.threadNamePrefix = "OMRSTopicDispatcher: " + topicName + " - ";
+        }
+
+
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
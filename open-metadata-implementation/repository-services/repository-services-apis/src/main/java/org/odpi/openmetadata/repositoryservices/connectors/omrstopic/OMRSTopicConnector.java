@@ -3,6 +3,8 @@
 package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.connectors.Connector;
@@ -19,6 +21,7 @@ import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
 import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
 import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
 import org.odpi.openmetadata.repositoryservices.events.beans.v1.OMRSEventV1;
+import org.odpi.openmetadata.repositoryservices.events.future.OMRSFuture;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
 import org.slf4j.Logger;
@@ -26,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -53,6 +57,13 @@ import java.util.List;
  *         connectors that implement OpenMetadataTopic.
  *     </li>
  * </ul>
+ * <p>
+ *     Inbound events are parsed once and then queued for each OMRSTopicListener.  The listeners are called
+ *     by a bounded pool of threads owned by this connector.  The number of threads is set by the
+ *     dispatchThreads configuration property and the number of events that can wait for each listener
+ *     is set by the listenerQueueDepth configuration property.  Setting dispatchThreads to zero
+ *     causes the listeners to be called on the thread that received the event.
+ * </p>
  */
 public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
                                                                  VirtualConnectorExtension,
@@ -61,15 +72,27 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 {
     private static final Logger       log      = LoggerFactory.getLogger(OMRSTopicConnector.class);
 
+    private static final String dispatchThreadsProperty    = "dispatchThreads";
+    private static final String listenerQueueDepthProperty = "listenerQueueDepth";
+
+    /*
+     * Jackson readers and writers are thread-safe and expensive to create so they are shared by all connectors.
+     */
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectReader eventReader  = objectMapper.readerFor(OMRSEventBean.class);
+    private static final ObjectWriter eventWriter  = objectMapper.writer();
+
     private List<Connector> embeddedConnectors = null;
 
-    private List<OMRSTopicListener>          internalTopicListeners = new ArrayList<>();
+    private List<OMRSTopicListenerWrapper>   internalTopicListeners = new ArrayList<>();
     private List<OpenMetadataTopicConnector> eventBusConnectors     = new ArrayList<>();
 
     private String                    connectionName       = OMRSAuditingComponent.OMRS_TOPIC_CONNECTOR.getComponentName();
     private String                    topicName = "<Unknown>";
     private OMRSEventProtocolVersion  eventProtocolVersion = OMRSEventProtocolVersion.V1;
 
+    private volatile OMRSEventDispatcher eventDispatcher = null;
+
     protected AuditLog auditLog = null;
 
 
@@ -135,7 +158,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         if (topicListener != null)
         {
-            internalTopicListeners.add(new OMRSTopicListenerWrapper(topicListener, auditLog));
+            this.addListener(new OMRSTopicListenerWrapper(topicListener, auditLog));
         }
         else
         {
@@ -161,9 +184,9 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         if (topicListener != null)
         {
-            internalTopicListeners.add(new OMRSTopicListenerWrapper(topicListener,
-                                                                    serviceName,
-                                                                    auditLog.createNewAuditLog(OMRSAuditingComponent.ENTERPRISE_TOPIC_LISTENER)));
+            this.addListener(new OMRSTopicListenerWrapper(topicListener,
+                                                          serviceName,
+                                                          auditLog.createNewAuditLog(OMRSAuditingComponent.ENTERPRISE_TOPIC_LISTENER)));
         }
         else
         {
@@ -176,6 +199,76 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     }
 
 
+    /**
+     * Save a wrapped listener and pass it to the event dispatcher if the connector is started.
+     *
+     * @param topicListener wrapped listener
+     */
+    private synchronized void addListener(OMRSTopicListenerWrapper topicListener)
+    {
+        internalTopicListeners.add(topicListener);
+
+        if (eventDispatcher != null)
+        {
+            eventDispatcher.addListener(topicListener);
+        }
+    }
+
+
+    /**
+     * Return the current event processing statistics for each of the registered listeners.
+     *
+     * @return list of metrics in the order that the listeners registered
+     */
+    public synchronized List<OMRSTopicListenerMetrics> getListenerMetrics()
+    {
+        if (eventDispatcher == null)
+        {
+            return new ArrayList<>();
+        }
+
+        return eventDispatcher.getListenerMetrics();
+    }
+
+
+    /**
+     * Create the event dispatcher using the configuration properties from the connection.
+     */
+    private synchronized void createEventDispatcher()
+    {
+        int dispatchThreads    = OMRSEventDispatcher.DEFAULT_DISPATCH_THREADS;
+        int listenerQueueDepth = OMRSEventDispatcher.DEFAULT_LISTENER_QUEUE_DEPTH;
+
+        if (super.connectionProperties != null)
+        {
+            Map<String, Object> configurationProperties = super.connectionProperties.getConfigurationProperties();
+
+            if (configurationProperties != null)
+            {
+                Object configuredDispatchThreads    = configurationProperties.get(dispatchThreadsProperty);
+                Object configuredListenerQueueDepth = configurationProperties.get(listenerQueueDepthProperty);
+
+                if (configuredDispatchThreads instanceof Integer)
+                {
+                    dispatchThreads = (Integer)configuredDispatchThreads;
+                }
+
+                if (configuredListenerQueueDepth instanceof Integer)
+                {
+                    listenerQueueDepth = (Integer)configuredListenerQueueDepth;
+                }
+            }
+        }
+
+        eventDispatcher = new OMRSEventDispatcher(topicName, dispatchThreads, listenerQueueDepth);
+
+        for (OMRSTopicListenerWrapper topicListener : internalTopicListeners)
+        {
+            eventDispatcher.addListener(topicListener);
+        }
+    }
+
+
     /**
      * Indicates that the connector is completely configured and can begin processing.
      * OMRSTopicConnector needs to pass on the start() to its embedded connectors.
@@ -253,6 +346,8 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
         }
         else
         {
+            this.createEventDispatcher();
+
             for (OpenMetadataTopicConnector eventBusConnector : eventBusConnectors)
             {
                 eventBusConnector.start();
@@ -367,13 +462,13 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
         {
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
+                String eventString = eventWriter.writeValueAsString(event);
 
                 for (OpenMetadataTopicConnector eventBusConnector : eventBusConnectors)
                 {
                     if (eventBusConnector != null)
                     {
-                        eventBusConnector.sendEvent(objectMapper.writeValueAsString(event));
+                        eventBusConnector.sendEvent(eventString);
                     }
                 }
             }
@@ -427,9 +522,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
              */
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                eventBean = objectMapper.readValue(event, OMRSEventBean.class);
+                eventBean = eventReader.readValue(event);
             }
             catch (Exception   exception)
             {
@@ -444,31 +537,46 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
             /*
              * If the event bean is successfully created then pass it on to the registered listeners.
+             * The event is complete once each listener has processed it so the future for the
+             * dispatched event is added to the processing context of the receiving thread.
              */
-            if (eventBean instanceof OMRSEventV1)
+            if ((eventBean instanceof OMRSEventV1) && (eventDispatcher != null))
             {
-                OMRSEventBean finalEventBean = eventBean;
-                internalTopicListeners.parallelStream().forEach((topicListener) ->
+                OMRSEventV1                        finalEventBean    = (OMRSEventV1) eventBean;
+                InternalOMRSEventProcessingContext processingContext = InternalOMRSEventProcessingContext.getInstance();
+
+                try
                 {
-                    try
+                    OMRSFuture eventFuture = eventDispatcher.dispatchEvent(processingContext.getCurrentMessageId(), (topicListener) ->
                     {
-                        this.processOMRSEvent((OMRSEventV1) finalEventBean, topicListener);
-                    }
-                    catch (Throwable  error)
-                    {
-                        log.debug("Unable to pass event to one of the topic listeners");
-
-                        if (auditLog != null)
+                        try
                         {
-                            auditLog.logException(methodName,
-                                                  OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event,
-                                                                                                            error.toString(),
-                                                                                                            topicListener.toString()),
-                                                  event,
-                                                  error);
+                            this.processOMRSEvent(finalEventBean, topicListener);
                         }
-                    }
-                });
+                        catch (Throwable  error)
+                        {
+                            log.debug("Unable to pass event to one of the topic listeners");
+
+                            if (auditLog != null)
+                            {
+                                auditLog.logException(methodName,
+                                                      OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event,
+                                                                                                                error.toString(),
+                                                                                                                topicListener.toString()),
+                                                      event,
+                                                      error);
+                            }
+                        }
+                    });
+
+                    processingContext.addAsyncProcessingResult(eventFuture);
+                }
+                catch (InterruptedException error)
+                {
+                    log.debug("Interrupted while waiting to pass event to the topic listeners");
+
+                    Thread.currentThread().interrupt();
+                }
             }
         }
         else
@@ -565,6 +673,14 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
             eventBusConnector.disconnect();
         }
 
+        synchronized (this)
+        {
+            if (eventDispatcher != null)
+            {
+                eventDispatcher.shutdown();
+            }
+        }
+
         if (auditLog != null)
         {
             auditLog.logMessage(actionDescription,
@@ -0,0 +1,147 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+/**
+ * OMRSTopicListenerMetrics is a snapshot of the event processing statistics for one of the listeners
+ * registered with an OMRSTopicConnector.  It shows how many events are waiting for the listener and
+ * how long the listener takes to process them.  A listener with a full queue or a high latency is
+ * slowing down the consumption of events from the topic.
+ */
+public class OMRSTopicListenerMetrics
+{
+    private final String serviceName;
+    private final int    queueDepth;
+    private final int    queueCapacity;
+    private final long   eventsProcessed;
+    private final long   averageLatency;
+    private final long   maximumLatency;
+    private final long   averageQueueWaitTime;
+
+
+    /**
+     * Constructor - all times are in milliseconds.
+     *
+     * @param serviceName name of the service that registered the listener
+     * @param queueDepth number of events waiting to be processed by the listener
+     * @param queueCapacity maximum number of events that can wait for the listener
+     * @param eventsProcessed number of events passed to the listener
+     * @param averageLatency average time taken by the listener to process an event
+     * @param maximumLatency longest time taken by the listener to process an event
+     * @param averageQueueWaitTime average time an event waits in the queue before it is passed to the listener
+     */
+    OMRSTopicListenerMetrics(String serviceName,
+                             int    queueDepth,
+                             int    queueCapacity,
+                             long   eventsProcessed,
+                             long   averageLatency,
+                             long   maximumLatency,
+                             long   averageQueueWaitTime)
+    {
+        this.serviceName = serviceName;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.eventsProcessed = eventsProcessed;
+        this.averageLatency = averageLatency;
+        this.maximumLatency = maximumLatency;
+        this.averageQueueWaitTime = averageQueueWaitTime;
+    }
+
+
+    /**
+     * Return the name of the service that registered the listener.
+     *
+     * @return service name
+     */
+    public String getServiceName()
+    {
+        return serviceName;
+    }
+
+
+    /**
+     * Return the number of events waiting to be processed by the listener.
+     *
+     * @return count of events
+     */
+    public int getQueueDepth()
+    {
+        return queueDepth;
+    }
+
+
+    /**
+     * Return the maximum number of events that can wait for the listener.  Zero means the events are
+     * passed to the listener on the thread that received them.
+     *
+     * @return count of events
+     */
+    public int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+
+    /**
+     * Return the number of events passed to the listener.
+     *
+     * @return count of events
+     */
+    public long getEventsProcessed()
+    {
+        return eventsProcessed;
+    }
+
+
+    /**
+     * Return the average time taken by the listener to process an event.
+     *
+     * @return time in milliseconds
+     */
+    public long getAverageLatency()
+    {
+        return averageLatency;
+    }
+
+
+    /**
+     * Return the longest time taken by the listener to process an event.
+     *
+     * @return time in milliseconds
+     */
+    public long getMaximumLatency()
+    {
+        return maximumLatency;
+    }
+
+
+    /**
+     * Return the average time an event waits in the queue before it is passed to the listener.
+     *
+     * @return time in milliseconds
+     */
+    public long getAverageQueueWaitTime()
+    {
+        return averageQueueWaitTime;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSTopicListenerMetrics{" +
+                "serviceName='" + serviceName + '\'' +
+                ", queueDepth=" + queueDepth +
+                ", queueCapacity=" + queueCapacity +
+                ", eventsProcessed=" + eventsProcessed +
+                ", averageLatency=" + averageLatency +
+                ", maximumLatency=" + maximumLatency +
+                ", averageQueueWaitTime=" + averageQueueWaitTime +
+                '}';
+    }
+}
@@ -13,8 +13,8 @@ import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
 /**
  * OMRSTopicListenerWrapper is a class that wraps a real OMRSTopicListener when it registers with the
  * OMRSTopicConnector.  Its sole purpose is to catch exceptions from the real OMRSTopicListener and create
- * diagnostics.  The listeners are called in parallel with no mechanism for the connector to properly
- * manage errors from the listener so this wrapper has been installed.  If the real OMRSTopicListener
+ * diagnostics.  The listeners are called from the connector's dispatch threads with no mechanism for the connector
+ * to properly manage errors from the listener so this wrapper has been installed.  If the real OMRSTopicListener
  * has been implemented properly then no errors should be handled by this wrapper class
  */
 public class OMRSTopicListenerWrapper implements OMRSTopicListener
@@ -58,6 +58,17 @@ public class OMRSTopicListenerWrapper implements OMRSTopicListener
     }
 
 
+    /**
+     * Return the name of the service that owns the topic listener.
+     *
+     * @return service name
+     */
+    String getServiceName()
+    {
+        return serviceName;
+    }
+
+
     /**
      * Log an audit log message to record an unexpected exception.  We should never see this message.
      * It indicates a logic error in the service that threw the exception.
@@ -34,6 +34,11 @@ import org.slf4j.LoggerFactory;
  *         When the server no longer needs the topic, it will call disconnect().
  *     </li>
  * </ul>
+ * The listener thread calls checkForIncomingEvents() repeatedly while it is returning events.  When there are
+ * no events, it waits for sleepTime milliseconds before checking again.  An implementation that knows when
+ * events arrive should override supportsIncomingEventSignal() to return true and call signalIncomingEvents()
+ * each time new events are ready.  The listener thread then wakes up as soon as the events arrive and
+ * sleepTime is only the longest time it waits without a signal.
  */
 public abstract class OpenMetadataTopicConnector extends ConnectorBase implements OpenMetadataTopic,
                                                                                   Runnable,
@@ -51,6 +56,9 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     private String                          topicName          = defaultTopicName;
     private int                             sleepTime          = 100;
 
+    private final Object incomingEventSignal     = new Object();
+    private boolean      incomingEventsSignalled = false;
+
     protected AuditLog auditLog = null;
 
     /**
@@ -86,12 +94,16 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
         {
             try
             {
+                boolean eventsReceived = false;
+
                 try
                 {
                     List<IncomingEvent> receivedEvents = checkForIncomingEvents();
 
                     if ((receivedEvents != null) && (!receivedEvents.isEmpty()))
                     {
+                        eventsReceived = true;
+
                         for (IncomingEvent event : receivedEvents)
                         {
                             if (event != null)
@@ -106,7 +118,13 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                     log.error("Bad exception from checkForEvents", error);
                 }
 
-                Thread.sleep(sleepTime);
+                /*
+                 * Keep draining while events are arriving - only wait when the topic is quiet.
+                 */
+                if (! eventsReceived)
+                {
+                    this.waitForIncomingEvents();
+                }
             }
             catch (InterruptedException   wakeUp)
             {
@@ -120,12 +138,75 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Wait for more events to arrive.  If the implementation signals the arrival of events, the wait ends
+     * as soon as the signal is received.  Otherwise, the thread sleeps for sleepTime milliseconds.
+     *
+     * @throws InterruptedException the thread was interrupted
+     */
+    private void waitForIncomingEvents() throws InterruptedException
+    {
+        if (this.supportsIncomingEventSignal())
+        {
+            synchronized (incomingEventSignal)
+            {
+                if ((! incomingEventsSignalled) && (keepRunning))
+                {
+                    if (sleepTime > 0)
+                    {
+                        incomingEventSignal.wait(sleepTime);
+                    }
+                    else
+                    {
+                        incomingEventSignal.wait();
+                    }
+                }
+
+                incomingEventsSignalled = false;
+            }
+        }
+        else
+        {
+            Thread.sleep(sleepTime);
+        }
+    }
+
+
+    /**
+     * Indicates whether the implementation calls signalIncomingEvents() when new events arrive.  If it does,
+     * the listener thread waits for the signal rather than polling checkForIncomingEvents() every sleepTime
+     * milliseconds.
+     *
+     * @return boolean - default is false
+     */
+    protected boolean supportsIncomingEventSignal()
+    {
+        return false;
+    }
+
+
+    /**
+     * Wake up the listener thread because there are new events to retrieve with checkForIncomingEvents().
+     * This may be called from any thread.
+     */
+    protected void signalIncomingEvents()
+    {
+        synchronized (incomingEventSignal)
+        {
+            incomingEventsSignalled = true;
+            incomingEventSignal.notifyAll();
+        }
+    }
+
+
     /**
      * Pass an event that has been received on the topic to each of the registered listeners.
+     * This is normally called by the listener thread.  An implementation may call it from its own threads
+     * providing the registered listeners are able to receive events concurrently.
      *
      * @param event OMRSEvent to distribute
      */
-    private void distributeEvent(IncomingEvent event)
+    protected void distributeEvent(IncomingEvent event)
     {
         //Initially clear the async event processing context to ensure that it will only
         //have results from processing this event
@@ -274,5 +355,7 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
         super.disconnect();
 
         keepRunning = false;
+
+        this.signalIncomingEvents();
     }
 }
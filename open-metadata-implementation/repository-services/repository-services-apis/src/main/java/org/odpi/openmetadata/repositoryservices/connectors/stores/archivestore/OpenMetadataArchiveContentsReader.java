@@ -0,0 +1,138 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * OpenMetadataArchiveContentsReader is the OpenMetadataArchiveReader for an archive that is already held in memory.
+ * It is used for archives that are built in code, and by archive store connectors that do not stream their contents.
+ */
+public class OpenMetadataArchiveContentsReader implements OpenMetadataArchiveReader
+{
+    private OpenMetadataArchiveProperties       archiveProperties = null;
+    private OpenMetadataArchiveTypeStore        archiveTypeStore  = null;
+    private List<EntityDetail>                  entities          = null;
+    private List<Relationship>                  relationships     = null;
+    private List<ClassificationEntityExtension> classifications   = null;
+
+    private int entityIndex         = 0;
+    private int relationshipIndex   = 0;
+    private int classificationIndex = 0;
+
+
+    /**
+     * Constructor.
+     *
+     * @param archiveContents contents of the archive
+     */
+    public OpenMetadataArchiveContentsReader(OpenMetadataArchive archiveContents)
+    {
+        if (archiveContents != null)
+        {
+            archiveProperties = archiveContents.getArchiveProperties();
+            archiveTypeStore  = archiveContents.getArchiveTypeStore();
+
+            OpenMetadataArchiveInstanceStore archiveInstanceStore = archiveContents.getArchiveInstanceStore();
+
+            if (archiveInstanceStore != null)
+            {
+                entities        = archiveInstanceStore.getEntities();
+                relationships   = archiveInstanceStore.getRelationships();
+                classifications = archiveInstanceStore.getClassifications();
+            }
+        }
+    }
+
+
+    /**
+     * Return details of the archive.
+     *
+     * @return OpenMetadataArchiveProperties object or null if the archive has no header
+     */
+    @Override
+    public OpenMetadataArchiveProperties getArchiveProperties()
+    {
+        return archiveProperties;
+    }
+
+
+    /**
+     * Return the TypeStore for this archive.  The TypeStore contains TypeDefs and TypeDef patches.
+     *
+     * @return OpenMetadataArchiveTypeStore object or null if the archive has no types
+     */
+    @Override
+    public OpenMetadataArchiveTypeStore getArchiveTypeStore()
+    {
+        return archiveTypeStore;
+    }
+
+
+    /**
+     * Return the next batch of instances from the archive.  A batch contains instances of only one kind
+     * (entities, relationships or classifications).
+     *
+     * @param maxBatchSize maximum number of instances to return
+     * @return instance store holding the next batch of instances or null if all of the instances have been returned
+     */
+    @Override
+    public OpenMetadataArchiveInstanceStore getNextInstanceBatch(int maxBatchSize)
+    {
+        OpenMetadataArchiveInstanceStore batch = new OpenMetadataArchiveInstanceStore();
+
+        if ((entities != null) && (entityIndex < entities.size()))
+        {
+            int batchEnd = Math.min(entities.size(), entityIndex + maxBatchSize);
+
+            batch.setEntities(new ArrayList<>(entities.subList(entityIndex, batchEnd)));
+            entityIndex = batchEnd;
+
+            return batch;
+        }
+
+        if ((relationships != null) && (relationshipIndex < relationships.size()))
+        {
+            int batchEnd = Math.min(relationships.size(), relationshipIndex + maxBatchSize);
+
+            batch.setRelationships(new ArrayList<>(relationships.subList(relationshipIndex, batchEnd)));
+            relationshipIndex = batchEnd;
+
+            return batch;
+        }
+
+        if ((classifications != null) && (classificationIndex < classifications.size()))
+        {
+            int batchEnd = Math.min(classifications.size(), classificationIndex + maxBatchSize);
+
+            batch.setClassifications(new ArrayList<>(classifications.subList(classificationIndex, batchEnd)));
+            classificationIndex = batchEnd;
+
+            return batch;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Release the contents of the archive.
+     */
+    @Override
+    public void close()
+    {
+        entities        = null;
+        relationships   = null;
+        classifications = null;
+    }
+}
@@ -0,0 +1,54 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+
+/**
+ * OpenMetadataArchiveReader returns the contents of an open metadata archive section by section so that
+ * an archive can be loaded without holding all of its instances in memory.  The archive properties and type store
+ * are available as soon as the reader is created.  The instances are then returned in batches: all of the
+ * entities first, followed by the relationships and then the classifications.  This means the entities that
+ * the relationships and classifications refer to have been returned before them.
+ */
+public interface OpenMetadataArchiveReader extends Closeable
+{
+    /**
+     * Return details of the archive.
+     *
+     * @return OpenMetadataArchiveProperties object or null if the archive has no header
+     */
+    OpenMetadataArchiveProperties getArchiveProperties();
+
+
+    /**
+     * Return the TypeStore for this archive.  The TypeStore contains TypeDefs and TypeDef patches.
+     *
+     * @return OpenMetadataArchiveTypeStore object or null if the archive has no types
+     */
+    OpenMetadataArchiveTypeStore getArchiveTypeStore();
+
+
+    /**
+     * Return the next batch of instances from the archive.  A batch contains instances of only one kind
+     * (entities, relationships or classifications).
+     *
+     * @param maxBatchSize maximum number of instances to return
+     * @return instance store holding the next batch of instances or null if all of the instances have been returned
+     * @throws IOException the archive could not be read
+     */
+    OpenMetadataArchiveInstanceStore getNextInstanceBatch(int maxBatchSize) throws IOException;
+
+
+    /**
+     * Release any resources held by the reader.
+     */
+    @Override
+    void close();
+}
@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
 
 
 /**
@@ -26,4 +27,24 @@ public abstract class OpenMetadataArchiveStoreConnector extends ConnectorBase im
     {
         this.auditLog = auditLog;
     }
+
+
+    /**
+     * Return a reader for the contents of the archive.  This implementation reads the whole archive with
+     * getArchiveContents().  Connectors to large archives should override it to return the instances as they are
+     * read from the archive store.
+     *
+     * @return OpenMetadataArchiveReader object or null if the archive is empty
+     */
+    public OpenMetadataArchiveReader getArchiveReader()
+    {
+        OpenMetadataArchive archiveContents = this.getArchiveContents();
+
+        if (archiveContents == null)
+        {
+            return null;
+        }
+
+        return new OpenMetadataArchiveContentsReader(archiveContents);
+    }
 }
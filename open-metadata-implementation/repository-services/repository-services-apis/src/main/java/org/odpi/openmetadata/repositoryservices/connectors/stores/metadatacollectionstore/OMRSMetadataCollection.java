@@ -3180,4 +3180,24 @@ public abstract class OMRSMetadataCollection implements AuditLoggingComponent
             }
         }
     }
+
+
+    /**
+     * Start an instance batch on the calling thread.  This is called before a request that creates many instances
+     * so that a repository that sends events for the new instances can send them together when the batch ends.
+     * Instance batches may be nested.  Every call must be matched by a call to endInstanceBatch(), even if the
+     * request fails.  The default implementation does nothing.
+     */
+    public void startInstanceBatch()
+    {
+    }
+
+
+    /**
+     * End the instance batch on the calling thread and send any events that were held while it was active.
+     * The default implementation does nothing.
+     */
+    public void endInstanceBatch()
+    {
+    }
 }
@@ -12,6 +12,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRegexMatcher;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -509,6 +510,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     {
         if (typeDefName != null)
         {
+            OMRSRegexMatcher      typeDefNameMatcher = OMRSRegexMatcher.getMatcher(typeDefName);
             List<TypeDef>         matchedTypeDefs = new ArrayList<>();
 
             if (allTypeDefs != null)
@@ -517,7 +519,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
                 {
                     if (typeDef != null)
                     {
-                        if (typeDef.getName().matches(typeDefName))
+                        if (typeDefNameMatcher.matches(typeDef.getName()))
                         {
                             matchedTypeDefs.add(typeDef);
                         }
@@ -533,7 +535,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
                 {
                     if (attributeTypeDef != null)
                     {
-                        if (attributeTypeDef.getName().matches(typeDefName))
+                        if (typeDefNameMatcher.matches(attributeTypeDef.getName()))
                         {
                             matchedAttributeTypeDefs.add(attributeTypeDef);
                         }
@@ -975,13 +977,14 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     {
         if (allTypes != null)
         {
-            List<TypeDef> matchedTypeDefs = new ArrayList<>();
+            OMRSRegexMatcher searchMatcher   = OMRSRegexMatcher.getMatcher(searchCriteria);
+            List<TypeDef>    matchedTypeDefs = new ArrayList<>();
 
             for (TypeDef typeDef : allTypes)
             {
                 if (typeDef != null)
                 {
-                    if (typeDef.getName().matches(searchCriteria))
+                    if (searchMatcher.matches(typeDef.getName()))
                     {
                         matchedTypeDefs.add(typeDef);
                     }
@@ -6035,6 +6038,103 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Validate all of the instances in an instance graph passed to saveInstanceReferenceCopies before any of
+     * them are saved.  Instances from the local home metadata collection are ignored (as they are by the
+     * default implementation) and the remaining instances are returned for saving.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param instances instances to save.
+     * @param methodName calling method
+     * @return instance graph of the reference copies to save
+     * @throws InvalidParameterException one of the instances is invalid.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    protected InstanceGraph referenceInstancesParameterValidation(String        userId,
+                                                                  InstanceGraph instances,
+                                                                  String        methodName) throws InvalidParameterException,
+                                                                                                   RepositoryErrorException,
+                                                                                                   UserNotAuthorizedException
+    {
+        final String entityParameterName       = "instances.entities";
+        final String relationshipParameterName = "instances.relationships";
+        final String entityOneParameterName    = "instances.relationships.entityOneProxy";
+        final String entityTwoParameterName    = "instances.relationships.entityTwoProxy";
+
+        this.basicRequestValidation(userId, methodName);
+
+        List<EntityDetail> entities      = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        if (instances != null)
+        {
+            if (instances.getEntities() != null)
+            {
+                for (EntityDetail entity : instances.getEntities())
+                {
+                    if ((entity != null) && (! metadataCollectionId.equals(entity.getMetadataCollectionId())))
+                    {
+                        repositoryValidator.validateReferenceInstanceHeader(repositoryName,
+                                                                            metadataCollectionId,
+                                                                            entityParameterName,
+                                                                            entity,
+                                                                            methodName);
+                        entities.add(entity);
+                    }
+                }
+            }
+
+            if (instances.getRelationships() != null)
+            {
+                for (Relationship relationship : instances.getRelationships())
+                {
+                    if ((relationship != null) && (! metadataCollectionId.equals(relationship.getMetadataCollectionId())))
+                    {
+                        repositoryValidator.validateReferenceInstanceHeader(repositoryName,
+                                                                            metadataCollectionId,
+                                                                            relationshipParameterName,
+                                                                            relationship,
+                                                                            methodName);
+                        this.validateRelationshipEndProxy(relationship.getEntityOneProxy(), entityOneParameterName, methodName);
+                        this.validateRelationshipEndProxy(relationship.getEntityTwoProxy(), entityTwoParameterName, methodName);
+                        relationships.add(relationship);
+                    }
+                }
+            }
+        }
+
+        return new InstanceGraph(entities, relationships);
+    }
+
+
+    /**
+     * Validate that the end of a relationship reference copy identifies an entity.
+     *
+     * @param entityProxy proxy for the entity at the end of the relationship
+     * @param proxyParameterName name of the parameter that supplied the proxy
+     * @param methodName calling method
+     * @throws InvalidParameterException the proxy or its GUID is null.
+     */
+    private void validateRelationshipEndProxy(EntityProxy entityProxy,
+                                              String      proxyParameterName,
+                                              String      methodName) throws InvalidParameterException
+    {
+        if (entityProxy == null)
+        {
+            throw new InvalidParameterException(OMRSErrorCode.NULL_ENTITY_PROXY.getMessageDefinition(repositoryName,
+                                                                                                     proxyParameterName,
+                                                                                                     methodName),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                proxyParameterName);
+        }
+
+        repositoryValidator.validateGUID(repositoryName, proxyParameterName, entityProxy.getGUID(), methodName);
+    }
+
+
     /**
      * Save the entity as a reference copy.  The id of the home metadata collection is already set up in the
      * entity.
@@ -72,7 +72,7 @@ public class EntityProxy extends EntitySummary
         {
             return null;
         }
-        else if ((uniqueProperties.getInstanceProperties() == null) &&
+        else if ((uniqueProperties.getPropertyCount() == 0) &&
                  (uniqueProperties.getEffectiveFromTime() == null) &&
                  (uniqueProperties.getEffectiveToTime() == null))
         {
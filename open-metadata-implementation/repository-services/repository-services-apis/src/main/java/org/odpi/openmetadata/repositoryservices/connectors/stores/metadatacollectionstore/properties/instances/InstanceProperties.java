@@ -56,6 +56,9 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  *         This is an ordered list of values of the same type.
  *     </li>
  * </ul>
+ * The map is shared rather than copied when an InstanceProperties object is copied.  It is only copied when
+ * one of the objects sharing it is changed.  This means the copies made by the getters of the instance objects,
+ * and by the converters that consume properties one at a time, are cheap.
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -68,6 +71,11 @@ public class InstanceProperties extends InstanceElementHeader
     private Date                                effectiveToTime = null;
     private Map<String, InstancePropertyValue>  instanceProperties = new HashMap<>();
 
+    /*
+     * Set when the map may be referenced by another object - it is copied before it is changed.
+     */
+    private boolean                             instancePropertiesShared = false;
+
 
     /**
      * Typical constructor
@@ -94,18 +102,13 @@ public class InstanceProperties extends InstanceElementHeader
         {
             this.effectiveFromTime = templateProperties.getEffectiveFromTime();
             this.effectiveToTime = templateProperties.getEffectiveToTime();
-            Iterator<String> propertyNames = templateProperties.getPropertyNames();
-
-            if (propertyNames != null)
-            {
-                while (propertyNames.hasNext())
-                {
-                    String                 newPropertyName  = propertyNames.next();
-                    InstancePropertyValue  newPropertyValue = templateProperties.getPropertyValue(newPropertyName);
 
-                    instanceProperties.put(newPropertyName, newPropertyValue);
-                }
-            }
+            /*
+             * The map is shared with the template until either object changes it.
+             */
+            templateProperties.instancePropertiesShared = true;
+            this.instanceProperties = templateProperties.instanceProperties;
+            this.instancePropertiesShared = true;
         }
     }
 
@@ -193,23 +196,46 @@ public class InstanceProperties extends InstanceElementHeader
         if (instanceProperties == null)
         {
             this.instanceProperties = new HashMap<>();
+            this.instancePropertiesShared = false;
         }
         else
         {
+            /*
+             * The caller still has a reference to the map so it is copied before it is changed.
+             */
             this.instanceProperties = instanceProperties;
+            this.instancePropertiesShared = true;
+        }
+    }
+
+
+    /**
+     * Return the map of properties ready to be changed, copying it first if it is shared.
+     *
+     * @return map owned by this object
+     */
+    private Map<String, InstancePropertyValue> getUnsharedInstanceProperties()
+    {
+        if (instancePropertiesShared)
+        {
+            instanceProperties = new HashMap<>(instanceProperties);
+            instancePropertiesShared = false;
         }
+
+        return instanceProperties;
     }
 
 
     /**
      * Returns a list of the instance properties for the element.
      * If no stored properties are present then null is returned.
+     * The iterator is read only since the names may be shared with other objects.
      *
      * @return list of properties
      */
     public Iterator<String> getPropertyNames()
     {
-        return instanceProperties.keySet().iterator();
+        return Collections.unmodifiableSet(instanceProperties.keySet()).iterator();
     }
 
 
@@ -249,11 +275,14 @@ public class InstanceProperties extends InstanceElementHeader
         }
         else if (newPropertyValue == null)
         {
-            instanceProperties.remove(newPropertyName);
+            if (instanceProperties.containsKey(newPropertyName))
+            {
+                getUnsharedInstanceProperties().remove(newPropertyName);
+            }
         }
         else
         {
-            instanceProperties.put(newPropertyName, newPropertyValue);
+            getUnsharedInstanceProperties().put(newPropertyName, newPropertyValue);
         }
     }
 
@@ -305,7 +334,7 @@ public class InstanceProperties extends InstanceElementHeader
         InstanceProperties that = (InstanceProperties) objectToCompare;
         return Objects.equals(getEffectiveFromTime(), that.getEffectiveFromTime()) &&
                 Objects.equals(getEffectiveToTime(), that.getEffectiveToTime()) &&
-                Objects.equals(getInstanceProperties(), that.getInstanceProperties());
+                Objects.equals(getComparableInstanceProperties(), that.getComparableInstanceProperties());
     }
 
 
@@ -318,7 +347,24 @@ public class InstanceProperties extends InstanceElementHeader
     public int hashCode()
     {
 
-        return Objects.hash(getEffectiveFromTime(), getEffectiveToTime(), getInstanceProperties());
+        return Objects.hash(getEffectiveFromTime(), getEffectiveToTime(), getComparableInstanceProperties());
+    }
+
+
+    /**
+     * Return the map used in equals and hashCode without copying it.  An empty map is treated as null to match
+     * getInstanceProperties.
+     *
+     * @return map or null
+     */
+    private Map<String, InstancePropertyValue> getComparableInstanceProperties()
+    {
+        if ((instanceProperties == null) || (instanceProperties.isEmpty()))
+        {
+            return null;
+        }
+
+        return instanceProperties;
     }
 }
 
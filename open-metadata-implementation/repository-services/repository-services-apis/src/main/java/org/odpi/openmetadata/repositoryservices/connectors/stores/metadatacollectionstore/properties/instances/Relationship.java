@@ -136,7 +136,7 @@ public class Relationship extends InstanceHeader
         {
             return null;
         }
-        else if ((relationshipProperties.getInstanceProperties() == null) &&
+        else if ((relationshipProperties.getPropertyCount() == 0) &&
                  (relationshipProperties.getEffectiveFromTime() == null) &&
                  (relationshipProperties.getEffectiveToTime() == null))
         {
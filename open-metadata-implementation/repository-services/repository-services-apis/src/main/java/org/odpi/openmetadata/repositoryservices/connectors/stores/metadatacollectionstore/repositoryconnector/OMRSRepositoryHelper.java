@@ -7,6 +7,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSInstancePageCollector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRepositoryPropertiesHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -38,6 +39,37 @@ public interface OMRSRepositoryHelper extends OMRSRepositoryPropertiesHelper
     List<TypeDef>  getActiveTypeDefs();
 
 
+    /**
+     * Return a value that changes each time a typeDef is added to, updated in or removed from the typeDefs
+     * active in the local repository.  Callers use it to tell when information derived from the active types
+     * needs to be rebuilt.  The default implementation derives the value from the active typeDefs, so helpers
+     * that can track the changes directly should override it.
+     *
+     * @return version of the active typeDefs
+     */
+    default long getActiveTypesVersion()
+    {
+        List<TypeDef> activeTypeDefs = getActiveTypeDefs();
+
+        if (activeTypeDefs == null)
+        {
+            return 0L;
+        }
+
+        long version = activeTypeDefs.size();
+
+        for (TypeDef typeDef : activeTypeDefs)
+        {
+            if (typeDef != null)
+            {
+                version = 31 * version + typeDef.getVersion() + ((typeDef.getGUID() == null) ? 0 : typeDef.getGUID().hashCode());
+            }
+        }
+
+        return version;
+    }
+
+
     /**
      * Return the list of attributeTypeDefs active in the local repository.
      *
@@ -970,6 +1002,57 @@ public interface OMRSRepositoryHelper extends OMRSRepositoryPropertiesHelper
                                                                                        PropertyErrorException;
 
 
+    /**
+     * Return a collector that selects one page of entities, using the paging and sequencing parameters, as the
+     * matching entities are found.  This gives the same results as formatEntityResults without needing the full
+     * list of results.  An unrestricted page size returns all of the entities in the order that they are found.
+     *
+     * @param fromElement - the starting element number of the instances to return. This is used when retrieving elements
+     *                    beyond the first page of results. Zero means start from the first element.
+     * @param sequencingProperty - String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder - Enum defining how the results should be ordered.
+     * @param pageSize - the maximum number of result entities that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return page collector
+     */
+    default OMRSInstancePageCollector<EntityDetail> getEntityPageCollector(int             fromElement,
+                                                                           String          sequencingProperty,
+                                                                           SequencingOrder sequencingOrder,
+                                                                           int             pageSize)
+    {
+        if (pageSize == 0)
+        {
+            return new OMRSInstancePageCollector<>(EntityDetail::getProperties, 0, null, null, 0);
+        }
+
+        return new OMRSInstancePageCollector<>(EntityDetail::getProperties, fromElement, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Return a collector that selects one page of relationships, using the paging and sequencing parameters, as the
+     * matching relationships are found.  This gives the same results as formatRelationshipResults without needing
+     * the full list of results.
+     *
+     * @param fromElement - the starting element number of the instances to return. This is used when retrieving elements
+     *                    beyond the first page of results. Zero means start from the first element.
+     * @param sequencingProperty - String name of the property that is to be used to sequence the results.
+     *                           Null means do not sequence on a property name (see SequencingOrder).
+     * @param sequencingOrder - Enum defining how the results should be ordered.
+     * @param pageSize - the maximum number of result relationships that can be returned on this request.  Zero means
+     *                 unrestricted return results size.
+     * @return page collector
+     */
+    default OMRSInstancePageCollector<Relationship> getRelationshipPageCollector(int             fromElement,
+                                                                                 String          sequencingProperty,
+                                                                                 SequencingOrder sequencingOrder,
+                                                                                 int             pageSize)
+    {
+        return new OMRSInstancePageCollector<>(Relationship::getProperties, fromElement, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
     /**
      * Retrieve an escaped version of the provided string that can be passed to methods that expect regular expressions,
      * without being interpreted as a regular expression (i.e. the returned string will be interpreted as a literal --
@@ -7,6 +7,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRegexMatcher;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.math.BigDecimal;
@@ -1478,6 +1479,30 @@ public interface OMRSRepositoryValidator
                                                         String             methodName) throws RepositoryErrorException;
 
 
+    /**
+     * Search for property values matching the search criteria (a regular expression) that has been compiled
+     * once for the whole search.  The default implementation passes the regular expression to the version
+     * of this method that takes the search criteria as a string.
+     *
+     * @param sourceName  source of the request (used for logging)
+     * @param properties  list of properties associated with the in instance
+     * @param searchMatcher  compiled regular expression for testing the property values
+     * @param methodName  name of the method requiring the search.
+     * @return boolean indicating whether the search criteria is located in any of the string parameter values.
+     * @throws RepositoryErrorException  the properties are not properly set up in the instance
+     */
+    default boolean verifyInstancePropertiesMatchSearchCriteria(String             sourceName,
+                                                                InstanceProperties properties,
+                                                                OMRSRegexMatcher   searchMatcher,
+                                                                String             methodName) throws RepositoryErrorException
+    {
+        return verifyInstancePropertiesMatchSearchCriteria(sourceName,
+                                                           properties,
+                                                           (searchMatcher == null) ? null : searchMatcher.getRegex(),
+                                                           methodName);
+    }
+
+
     /**
      * Search for property values matching the supplied property value
      *
@@ -0,0 +1,232 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * OMRSInstancePageCollector selects one page of results from the instances that match a query.  The matching
+ * instances are added one at a time as they are found so the complete list of matches does not need to be built.
+ * <br><br>
+ * When the results are sequenced, only the best fromElement + pageSize instances are retained, in a bounded heap
+ * that is ordered by sort keys extracted once from each instance.  Instances that sequence equally are returned
+ * in the order that they were added, which is the same result as a stable sort of the complete list followed by
+ * the selection of the page.  When the results are not sequenced, the collector is complete as soon as the
+ * requested page is filled, and the caller can stop looking for further matches.
+ *
+ * @param <T> type of instance
+ */
+public class OMRSInstancePageCollector<T extends InstanceHeader>
+{
+    private final Function<T, InstanceProperties> propertiesAccessor;
+    private final int                             fromElement;
+    private final int                             pageSize;
+    private final String                          sequencingProperty;
+    private final SequencingOrder                 sequencingOrder;
+    private final long                            pageEnd;
+
+    private final List<T>                         unsortedInstances = new ArrayList<>();
+    private final List<PageEntry<T>>              sortedInstances   = new ArrayList<>();
+    private final PriorityQueue<PageEntry<T>>     retainedInstances;
+    private long                                  instanceCount     = 0;
+
+
+    /**
+     * Constructor supplies the paging and sequencing parameters of the request.
+     *
+     * @param propertiesAccessor function to return the properties of an instance (used for property-based sequencing)
+     * @param fromElement the starting element number of the instances to return. Zero means start from the first element.
+     * @param sequencingProperty name of the property that is to be used to sequence the results
+     * @param sequencingOrder enum defining how the results should be ordered (null or ANY means no ordering)
+     * @param pageSize the maximum number of instances to return.  Zero means unrestricted.
+     */
+    public OMRSInstancePageCollector(Function<T, InstanceProperties> propertiesAccessor,
+                                     int                             fromElement,
+                                     String                          sequencingProperty,
+                                     SequencingOrder                 sequencingOrder,
+                                     int                             pageSize)
+    {
+        this.propertiesAccessor = propertiesAccessor;
+        this.fromElement        = Math.max(fromElement, 0);
+        this.pageSize           = Math.max(pageSize, 0);
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder    = OMRSInstanceSortKey.isSorted(sequencingOrder) ? sequencingOrder : null;
+        this.pageEnd            = (this.pageSize == 0) ? Long.MAX_VALUE : (long) this.fromElement + this.pageSize;
+
+        if ((this.sequencingOrder != null) && (this.pageSize > 0))
+        {
+            this.retainedInstances = new PriorityQueue<>(Collections.reverseOrder());
+        }
+        else
+        {
+            this.retainedInstances = null;
+        }
+    }
+
+
+    /**
+     * Add an instance that matches the query.
+     *
+     * @param instance matching instance
+     */
+    public void addInstance(T instance)
+    {
+        long instanceNumber = instanceCount++;
+
+        if (sequencingOrder == null)
+        {
+            if ((instanceNumber >= fromElement) && (instanceNumber < pageEnd))
+            {
+                unsortedInstances.add(instance);
+            }
+
+            return;
+        }
+
+        InstanceProperties  properties = ((instance == null) || (propertiesAccessor == null)) ? null : propertiesAccessor.apply(instance);
+        OMRSInstanceSortKey sortKey    = OMRSInstanceSortKey.getSortKey(instance, properties, sequencingProperty, sequencingOrder);
+        PageEntry<T>        entry      = new PageEntry<>(instance, sortKey, instanceNumber);
+
+        if (retainedInstances == null)
+        {
+            sortedInstances.add(entry);
+        }
+        else if (retainedInstances.size() < pageEnd)
+        {
+            retainedInstances.add(entry);
+        }
+        else if (entry.compareTo(retainedInstances.peek()) < 0)
+        {
+            /*
+             * The new instance sequences before the last instance currently retained.
+             */
+            retainedInstances.poll();
+            retainedInstances.add(entry);
+        }
+    }
+
+
+    /**
+     * Add a collection of instances that match the query.
+     *
+     * @param instances matching instances
+     */
+    public void addInstances(Iterable<T> instances)
+    {
+        if (instances != null)
+        {
+            for (T instance : instances)
+            {
+                this.addInstance(instance);
+            }
+        }
+    }
+
+
+    /**
+     * Return whether further instances would not change the page.  This is only the case when the results
+     * are not sequenced and the page is full.
+     *
+     * @return boolean
+     */
+    public boolean isComplete()
+    {
+        return (sequencingOrder == null) && (instanceCount >= pageEnd);
+    }
+
+
+    /**
+     * Return the number of instances that have been added.
+     *
+     * @return count of instances
+     */
+    public long getInstanceCount()
+    {
+        return instanceCount;
+    }
+
+
+    /**
+     * Return the requested page of instances.
+     *
+     * @return list of instances or null if the page is empty
+     */
+    public List<T> getPage()
+    {
+        List<T> page = new ArrayList<>();
+
+        if (sequencingOrder == null)
+        {
+            page.addAll(unsortedInstances);
+        }
+        else
+        {
+            List<PageEntry<T>> entries = sortedInstances;
+
+            if (retainedInstances != null)
+            {
+                entries = new ArrayList<>(retainedInstances);
+            }
+
+            entries.sort(Comparator.naturalOrder());
+
+            for (int index = fromElement; index < entries.size(); index++)
+            {
+                page.add(entries.get(index).instance);
+            }
+        }
+
+        if (page.isEmpty())
+        {
+            return null;
+        }
+
+        return page;
+    }
+
+
+    /**
+     * PageEntry links an instance to its sort key and the order that it was added.
+     *
+     * @param <T> type of instance
+     */
+    private static class PageEntry<T> implements Comparable<PageEntry<T>>
+    {
+        private final T                   instance;
+        private final OMRSInstanceSortKey sortKey;
+        private final long                instanceNumber;
+
+
+        PageEntry(T                   instance,
+                  OMRSInstanceSortKey sortKey,
+                  long                instanceNumber)
+        {
+            this.instance       = instance;
+            this.sortKey        = sortKey;
+            this.instanceNumber = instanceNumber;
+        }
+
+
+        @Override
+        public int compareTo(PageEntry<T> other)
+        {
+            int sortResult = sortKey.compareTo(other.sortKey);
+
+            if (sortResult == 0)
+            {
+                sortResult = Long.compare(instanceNumber, other.instanceNumber);
+            }
+
+            return sortResult;
+        }
+    }
+}
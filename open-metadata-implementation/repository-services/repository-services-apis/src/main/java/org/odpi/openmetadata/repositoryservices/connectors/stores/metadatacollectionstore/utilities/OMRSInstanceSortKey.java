@@ -0,0 +1,292 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+
+import java.util.Date;
+
+/**
+ * OMRSInstanceSortKey holds the value that an instance is sequenced by for a requested SequencingOrder.
+ * The value is extracted from the instance once so that sorting a large number of instances does not
+ * repeatedly look up the sequencing property in the instance properties.
+ * <br><br>
+ * Instances that have no value sort before instances that have a value.  When sequencing by property,
+ * values of different primitive types are treated as equal, as are values that are not primitives.
+ */
+public class OMRSInstanceSortKey implements Comparable<OMRSInstanceSortKey>
+{
+    /*
+     * The state of the value in the key.  These are listed in their sort order.
+     */
+    private static final int NO_INSTANCE = 0;
+    private static final int NO_VALUE    = 1;
+    private static final int HAS_VALUE   = 2;
+
+    private final SequencingOrder sequencingOrder;
+    private final boolean         propertyOrder;
+    private final int             valueState;
+    private final String          typeName;
+    private final Object          value;
+
+
+    /**
+     * Return the sort key for an instance.
+     *
+     * @param instance instance to sequence
+     * @param properties properties of the instance (used for property-based sequencing)
+     * @param sequencingProperty name of the property to sequence by (used for property-based sequencing)
+     * @param sequencingOrder requested order of the results
+     * @return sort key
+     */
+    public static OMRSInstanceSortKey getSortKey(InstanceHeader     instance,
+                                                 InstanceProperties properties,
+                                                 String             sequencingProperty,
+                                                 SequencingOrder    sequencingOrder)
+    {
+        if (isPropertyOrder(sequencingOrder))
+        {
+            return getPropertySortKey(properties, sequencingProperty, sequencingOrder);
+        }
+
+        return getInstanceSortKey(instance, sequencingOrder);
+    }
+
+
+    /**
+     * Return the sort key for an instance that is sequenced by one of its properties.
+     *
+     * @param properties properties of the instance
+     * @param sequencingProperty name of the property to sequence by
+     * @param sequencingOrder ascending or descending order
+     * @return sort key
+     */
+    public static OMRSInstanceSortKey getPropertySortKey(InstanceProperties properties,
+                                                         String             sequencingProperty,
+                                                         SequencingOrder    sequencingOrder)
+    {
+        if (properties != null)
+        {
+            InstancePropertyValue propertyValue = properties.getPropertyValue(sequencingProperty);
+
+            if ((propertyValue != null) &&
+                (propertyValue.getInstancePropertyCategory() == InstancePropertyCategory.PRIMITIVE) &&
+                (propertyValue.getTypeName() != null))
+            {
+                return new OMRSInstanceSortKey(sequencingOrder,
+                                               true,
+                                               HAS_VALUE,
+                                               propertyValue.getTypeName(),
+                                               ((PrimitivePropertyValue) propertyValue).getPrimitiveValue());
+            }
+        }
+
+        return new OMRSInstanceSortKey(sequencingOrder, true, NO_VALUE, null, null);
+    }
+
+
+    /**
+     * Return the sort key for an instance that is sequenced by its header (for example its GUID or update time).
+     *
+     * @param instance instance to sequence
+     * @param sequencingOrder requested order of the results
+     * @return sort key
+     */
+    public static OMRSInstanceSortKey getInstanceSortKey(InstanceHeader  instance,
+                                                         SequencingOrder sequencingOrder)
+    {
+        if (instance == null)
+        {
+            return new OMRSInstanceSortKey(sequencingOrder, false, NO_INSTANCE, null, null);
+        }
+
+        Object headerValue = null;
+
+        if (sequencingOrder != null)
+        {
+            switch (sequencingOrder)
+            {
+                case GUID:
+                    headerValue = instance.getGUID();
+                    break;
+
+                case LAST_UPDATE_RECENT:
+                case LAST_UPDATE_OLDEST:
+                    headerValue = instance.getUpdateTime();
+                    break;
+
+                case CREATION_DATE_RECENT:
+                case CREATION_DATE_OLDEST:
+                    headerValue = instance.getCreateTime();
+                    break;
+
+                default:
+                    break;
+            }
+        }
+
+        return new OMRSInstanceSortKey(sequencingOrder, false, (headerValue == null) ? NO_VALUE : HAS_VALUE, null, headerValue);
+    }
+
+
+    /**
+     * Return whether the sequencing order requires the results to be sorted.
+     *
+     * @param sequencingOrder requested order of the results
+     * @return boolean
+     */
+    public static boolean isSorted(SequencingOrder sequencingOrder)
+    {
+        return (sequencingOrder != null) && (sequencingOrder != SequencingOrder.ANY);
+    }
+
+
+    /**
+     * Return whether the sequencing order is based on the value of a property.
+     *
+     * @param sequencingOrder requested order of the results
+     * @return boolean
+     */
+    public static boolean isPropertyOrder(SequencingOrder sequencingOrder)
+    {
+        return (sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) || (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING);
+    }
+
+
+    /**
+     * Constructor used by the factory methods.
+     *
+     * @param sequencingOrder requested order of the results
+     * @param propertyOrder is the value from a property
+     * @param valueState whether there is an instance and value
+     * @param typeName primitive type name of a property value
+     * @param value value to compare
+     */
+    private OMRSInstanceSortKey(SequencingOrder sequencingOrder,
+                                boolean         propertyOrder,
+                                int             valueState,
+                                String          typeName,
+                                Object          value)
+    {
+        this.sequencingOrder = sequencingOrder;
+        this.propertyOrder   = propertyOrder;
+        this.valueState      = valueState;
+        this.typeName        = typeName;
+        this.value           = value;
+    }
+
+
+    /**
+     * Compare this key with the key of another instance in the requested order.
+     *
+     * @param other key of the other instance
+     * @return sort result
+     */
+    @Override
+    public int compareTo(OMRSInstanceSortKey other)
+    {
+        if (propertyOrder)
+        {
+            int sortResult = this.compareValues(other);
+
+            if (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING)
+            {
+                sortResult = -sortResult;
+            }
+
+            return sortResult;
+        }
+
+        if ((valueState == NO_INSTANCE) || (other.valueState == NO_INSTANCE))
+        {
+            return Integer.compare(valueState, other.valueState);
+        }
+
+        int sortResult = this.compareValues(other);
+
+        if ((sequencingOrder == SequencingOrder.LAST_UPDATE_RECENT) || (sequencingOrder == SequencingOrder.CREATION_DATE_RECENT))
+        {
+            sortResult = -sortResult;
+        }
+
+        return sortResult;
+    }
+
+
+    /**
+     * Compare the values of the keys in ascending order.
+     *
+     * @param other key of the other instance
+     * @return sort result
+     */
+    private int compareValues(OMRSInstanceSortKey other)
+    {
+        if ((valueState != HAS_VALUE) || (other.valueState != HAS_VALUE))
+        {
+            return Integer.compare(valueState, other.valueState);
+        }
+
+        if (propertyOrder)
+        {
+            if (! typeName.equals(other.typeName))
+            {
+                return 0;
+            }
+
+            return typeSpecificCompare(value, other.value);
+        }
+
+        if (value instanceof String)
+        {
+            return ((String) value).compareTo((String) other.value);
+        }
+
+        return ((Date) value).compareTo((Date) other.value);
+    }
+
+
+    /**
+     * Compare two primitive values of the same type.  The primitive values are all comparable Java types
+     * (for example, Integer for "int" and Long for "date").
+     *
+     * @param v1 value from instance 1
+     * @param v2 value from instance 2
+     * @return sort order
+     */
+    @SuppressWarnings("unchecked")
+    private static int typeSpecificCompare(Object v1, Object v2)
+    {
+        if ((v1 == null) || (v2 == null))
+        {
+            return Boolean.compare(v1 != null, v2 != null);
+        }
+
+        if ((v1 instanceof Comparable) && (v1.getClass().equals(v2.getClass())))
+        {
+            return ((Comparable<Object>) v1).compareTo(v2);
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSInstanceSortKey{" +
+                "sequencingOrder=" + sequencingOrder +
+                ", typeName='" + typeName + '\'' +
+                ", value=" + value +
+                '}';
+    }
+}
@@ -0,0 +1,355 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * OMRSRegexMatcher is the compiled form of a regular expression used in a repository search.  It gives the
+ * same result as String.matches(regex) but the regular expression is only compiled once.  It can be built
+ * once per request and then used to test every candidate instance.
+ * <br><br>
+ * The regular expressions built by the OMRSRepositoryHelper methods getExactMatchRegex, getStartsWithRegex,
+ * getEndsWithRegex and getContainsRegex (optionally case-insensitive) are recognized and tested with simple
+ * string comparisons rather than the regular expression engine.
+ */
+public class OMRSRegexMatcher
+{
+    /*
+     * Maximum number of compiled regular expressions kept in the cache.  The cache is emptied when it is full.
+     */
+    private static final int MAX_CACHED_MATCHERS = 1000;
+
+    private static final Map<String, OMRSRegexMatcher> matcherCache = new ConcurrentHashMap<>();
+
+    private static final String CASE_INSENSITIVE = "(?i)";
+    private static final String ANY_CHARACTERS   = ".*";
+    private static final String QUOTE_START      = "\\Q";
+    private static final String QUOTE_END        = "\\E";
+
+    /**
+     * The type of comparison performed by the matcher.
+     */
+    private enum MatchType
+    {
+        EXACT,
+        STARTS_WITH,
+        ENDS_WITH,
+        CONTAINS,
+        REGEX
+    }
+
+    private final String    regex;
+    private final MatchType matchType;
+    private final String    literal;
+    private final boolean   caseInsensitive;
+    private final Pattern   pattern;
+
+
+    /**
+     * Return the matcher for a regular expression.  Matchers are cached so a regular expression used in
+     * many requests is only compiled once.
+     *
+     * @param regex regular expression
+     * @return matcher
+     * @throws java.util.regex.PatternSyntaxException the regular expression is not valid
+     */
+    public static OMRSRegexMatcher getMatcher(String regex)
+    {
+        OMRSRegexMatcher matcher = matcherCache.get(regex);
+
+        if (matcher == null)
+        {
+            matcher = new OMRSRegexMatcher(regex);
+
+            if (matcherCache.size() >= MAX_CACHED_MATCHERS)
+            {
+                matcherCache.clear();
+            }
+
+            matcherCache.put(regex, matcher);
+        }
+
+        return matcher;
+    }
+
+
+    /**
+     * Constructor compiles the regular expression.
+     *
+     * @param regex regular expression
+     * @throws java.util.regex.PatternSyntaxException the regular expression is not valid
+     */
+    public OMRSRegexMatcher(String regex)
+    {
+        this.regex = regex;
+
+        String  quotedString = regex;
+        boolean insensitive  = false;
+
+        if (quotedString.startsWith(CASE_INSENSITIVE))
+        {
+            quotedString = quotedString.substring(CASE_INSENSITIVE.length());
+            insensitive = true;
+        }
+
+        MatchType type = MatchType.EXACT;
+
+        if ((quotedString.length() >= 2 * ANY_CHARACTERS.length()) &&
+            (quotedString.startsWith(ANY_CHARACTERS)) && (quotedString.endsWith(ANY_CHARACTERS)))
+        {
+            quotedString = quotedString.substring(ANY_CHARACTERS.length(), quotedString.length() - ANY_CHARACTERS.length());
+            type = MatchType.CONTAINS;
+        }
+        else if (quotedString.startsWith(ANY_CHARACTERS))
+        {
+            quotedString = quotedString.substring(ANY_CHARACTERS.length());
+            type = MatchType.ENDS_WITH;
+        }
+        else if (quotedString.endsWith(ANY_CHARACTERS))
+        {
+            quotedString = quotedString.substring(0, quotedString.length() - ANY_CHARACTERS.length());
+            type = MatchType.STARTS_WITH;
+        }
+
+        String quotedLiteral = getQuotedLiteral(quotedString);
+
+        if ((quotedLiteral != null) && (isSimpleLiteral(quotedLiteral, insensitive)))
+        {
+            this.matchType = type;
+            this.literal = quotedLiteral;
+            this.caseInsensitive = insensitive;
+            this.pattern = null;
+        }
+        else
+        {
+            this.matchType = MatchType.REGEX;
+            this.literal = null;
+            this.caseInsensitive = false;
+            this.pattern = Pattern.compile(regex);
+        }
+    }
+
+
+    /**
+     * Return the regular expression that this matcher was built from.
+     *
+     * @return regular expression
+     */
+    public String getRegex()
+    {
+        return regex;
+    }
+
+
+    /**
+     * Return whether the regular expression was recognized as a literal string that is tested without
+     * using the regular expression engine.
+     *
+     * @return boolean
+     */
+    public boolean isLiteralMatch()
+    {
+        return matchType != MatchType.REGEX;
+    }
+
+
+    /**
+     * Test whether the complete value matches the regular expression.
+     *
+     * @param value value to test
+     * @return boolean - same result as value.matches(regex)
+     */
+    public boolean matches(String value)
+    {
+        if (value == null)
+        {
+            return false;
+        }
+
+        int valueLength   = value.length();
+        int literalLength = (literal == null) ? 0 : literal.length();
+
+        switch (matchType)
+        {
+            case EXACT:
+                return (valueLength == literalLength) && (this.regionMatches(value, 0));
+
+            case STARTS_WITH:
+                return (valueLength >= literalLength) &&
+                       (this.regionMatches(value, 0)) &&
+                       (hasNoLineTerminator(value, literalLength, valueLength));
+
+            case ENDS_WITH:
+                return (valueLength >= literalLength) &&
+                       (this.regionMatches(value, valueLength - literalLength)) &&
+                       (hasNoLineTerminator(value, 0, valueLength - literalLength));
+
+            case CONTAINS:
+                if (! hasNoLineTerminator(value, 0, valueLength))
+                {
+                    return false;
+                }
+
+                for (int offset = 0; offset <= valueLength - literalLength; offset++)
+                {
+                    if (this.regionMatches(value, offset))
+                    {
+                        return true;
+                    }
+                }
+                return false;
+
+            default:
+                return pattern.matcher(value).matches();
+        }
+    }
+
+
+    /**
+     * Test whether the literal appears in the value at the offset.  Case-insensitive comparisons follow the
+     * default rules of the regular expression engine, which only fold the case of US-ASCII characters.
+     *
+     * @param value value to test
+     * @param offset position in the value
+     * @return boolean
+     */
+    private boolean regionMatches(String value,
+                                  int    offset)
+    {
+        if (! caseInsensitive)
+        {
+            return value.startsWith(literal, offset);
+        }
+
+        for (int index = 0; index < literal.length(); index++)
+        {
+            char literalChar = literal.charAt(index);
+            char valueChar   = value.charAt(offset + index);
+
+            if ((literalChar != valueChar) && (toLowerCaseASCII(literalChar) != toLowerCaseASCII(valueChar)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return the string quoted between \Q and \E, or null if the string is not a single quoted literal.
+     *
+     * @param quotedString string to test
+     * @return literal or null
+     */
+    private static String getQuotedLiteral(String quotedString)
+    {
+        if ((quotedString.startsWith(QUOTE_START)) &&
+            (quotedString.endsWith(QUOTE_END)) &&
+            (quotedString.length() >= QUOTE_START.length() + QUOTE_END.length()) &&
+            (quotedString.indexOf(QUOTE_END, QUOTE_START.length()) == quotedString.length() - QUOTE_END.length()))
+        {
+            return quotedString.substring(QUOTE_START.length(), quotedString.length() - QUOTE_END.length());
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return whether the literal can be compared without the regular expression engine.  Literals that include
+     * line terminators, or non-ASCII characters in a case-insensitive match, are left to the regular expression
+     * engine so that the results are always the same.
+     *
+     * @param literal literal string
+     * @param caseInsensitive whether the match ignores case
+     * @return boolean
+     */
+    private static boolean isSimpleLiteral(String  literal,
+                                           boolean caseInsensitive)
+    {
+        for (int index = 0; index < literal.length(); index++)
+        {
+            char literalChar = literal.charAt(index);
+
+            if ((isLineTerminator(literalChar)) || ((caseInsensitive) && (literalChar > 0x7F)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return whether part of the value can be matched by ".*".
+     *
+     * @param value value to test
+     * @param start first character
+     * @param end character after the last character
+     * @return boolean
+     */
+    private static boolean hasNoLineTerminator(String value,
+                                               int    start,
+                                               int    end)
+    {
+        for (int index = start; index < end; index++)
+        {
+            if (isLineTerminator(value.charAt(index)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return whether a character is one of the line terminators that "." does not match.
+     *
+     * @param character character to test
+     * @return boolean
+     */
+    private static boolean isLineTerminator(char character)
+    {
+        return (character == '\n') || (character == '\r') || (character == '\u0085') ||
+               (character == '\u2028') || (character == '\u2029');
+    }
+
+
+    /**
+     * Return the lower case version of a US-ASCII letter.
+     *
+     * @param character character
+     * @return lower case character or the original character
+     */
+    private static char toLowerCaseASCII(char character)
+    {
+        if ((character >= 'A') && (character <= 'Z'))
+        {
+            return (char)(character + ('a' - 'A'));
+        }
+
+        return character;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSRegexMatcher{" +
+                "regex='" + regex + '\'' +
+                ", matchType=" + matchType +
+                '}';
+    }
+}
@@ -30,22 +30,17 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     private static final Logger log = LoggerFactory.getLogger(OMRSRepositoryPropertiesUtilities.class);
 
     /**
-     * Remove the named property from the instance properties object.
+     * Remove the named property from the instance properties object.  The property is removed in place so
+     * the map of properties is only copied if it is shared with another instance properties object.
      *
      * @param propertyName name of property to remove
      * @param properties instance properties object to work on
      */
     protected void removeProperty(String    propertyName, InstanceProperties properties)
     {
-        if (properties != null)
+        if ((properties != null) && (propertyName != null))
         {
-            Map<String, InstancePropertyValue> instancePropertyValueMap = properties.getInstanceProperties();
-
-            if (instancePropertyValueMap != null)
-            {
-                instancePropertyValueMap.remove(propertyName);
-                properties.setInstanceProperties(instancePropertyValueMap);
-            }
+            properties.setProperty(propertyName, null);
         }
     }
 
@@ -86,7 +81,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                             if (primitivePropertyValue.getPrimitiveValue() != null)
                             {
                                 String retrievedProperty = primitivePropertyValue.getPrimitiveValue().toString();
-                                log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+                                log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
 
                                 return retrievedProperty;
                             }
@@ -100,7 +95,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             }
         }
 
-        log.debug("No " + propertyName + " property");
+        log.debug("No {} property", propertyName);
         return null;
     }
 
@@ -130,11 +125,11 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             if (retrievedProperty != null)
             {
                 this.removeProperty(propertyName, properties);
-                log.debug("Properties left: " + properties.toString());
+                log.debug("Properties left: {}", properties);
             }
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -188,10 +183,10 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
         {
             retrievedProperty = this.getEnumPropertyOrdinal(sourceName, propertyName, properties, methodName);
             this.removeProperty(propertyName, properties);
-            log.debug("Properties left: " + properties.toString());
+            log.debug("Properties left: {}", properties);
         }
 
-        log.debug("Retrieved " + propertyName + " property ordinal : " + retrievedProperty);
+        log.debug("Retrieved {} property ordinal : {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -226,7 +221,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                     {
                         MapPropertyValue mapPropertyValue = (MapPropertyValue) instancePropertyValue;
 
-                        log.debug("Retrieved map property " + propertyName);
+                        log.debug("Retrieved map property {}", propertyName);
 
                         return mapPropertyValue.getMapValues();
                     }
@@ -238,7 +233,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             }
         }
 
-        log.debug("Map property " + propertyName + " not present");
+        log.debug("Map property {} not present", propertyName);
         return null;
     }
 
@@ -271,7 +266,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                  * If it is then it can be cast to an ArrayPropertyValue in order to extract the
                  * array size and the values.
                  */
-                log.debug(thisMethodName + "retrieved array property " + propertyName + " for " + callingMethodName);
+                log.debug("{}retrieved array property {} for {}", thisMethodName, propertyName, callingMethodName);
 
                 try
                 {
@@ -284,7 +279,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                             /*
                              * There are values to extract
                              */
-                            log.debug(thisMethodName + " found that array property " + propertyName + " has " + arrayPropertyValue.getArrayCount() + " elements.");
+                            log.debug("{} found that array property {} has {} elements.", thisMethodName, propertyName, arrayPropertyValue.getArrayCount());
 
                             return getInstancePropertiesAsArray(arrayPropertyValue.getArrayValues(), callingMethodName);
                         }
@@ -297,7 +292,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             }
         }
 
-        log.debug(propertyName + " not present in " + properties);
+        log.debug("{} not present in {}", propertyName, properties);
         return null;
     }
 
@@ -328,11 +323,11 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             if (retrievedProperty != null)
             {
                 this.removeProperty(propertyName, properties);
-                log.debug("Properties left: " + properties.toString());
+                log.debug("Properties left: {}", properties);
             }
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -351,14 +346,16 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
         if (instanceProperties != null)
         {
-            Map<String, InstancePropertyValue> instancePropertyValues = instanceProperties.getInstanceProperties();
-            List<String>                       resultingArray = new ArrayList<>();
+            Iterator<String> arrayOrdinalNames = instanceProperties.getPropertyNames();
+            List<String>     resultingArray    = new ArrayList<>();
 
-            for (String arrayOrdinalName : instancePropertyValues.keySet())
+            while (arrayOrdinalNames.hasNext())
             {
+                String arrayOrdinalName = arrayOrdinalNames.next();
+
                 if (arrayOrdinalName != null)
                 {
-                    log.debug(thisMethodName + " processing array element: " + arrayOrdinalName);
+                    log.debug("{} processing array element: {}", thisMethodName, arrayOrdinalName);
 
                     int                   arrayOrdinalNumber  = Integer.decode(arrayOrdinalName);
                     InstancePropertyValue actualPropertyValue = instanceProperties.getPropertyValue(arrayOrdinalName);
@@ -386,11 +383,11 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                 }
             }
 
-            log.debug(thisMethodName + " returning array: " + resultingArray + " to method " + callingMethodName);
+            log.debug("{} returning array: {} to method {}", thisMethodName, resultingArray, callingMethodName);
             return resultingArray;
         }
 
-        log.debug(thisMethodName + " has no property values to extract for method " + callingMethodName);
+        log.debug("{} has no property values to extract for method {}", thisMethodName, callingMethodName);
         return null;
     }
 
@@ -462,11 +459,11 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             if (retrievedProperty != null)
             {
                 this.removeProperty(propertyName, properties);
-                log.debug("Properties left: " + properties.toString());
+                log.debug("Properties left: {}", properties);
             }
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -538,11 +535,11 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             if (retrievedProperty != null)
             {
                 this.removeProperty(propertyName, properties);
-                log.debug("Properties left: " + properties.toString());
+                log.debug("Properties left: {}", properties);
             }
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -614,11 +611,11 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             if (retrievedProperty != null)
             {
                 this.removeProperty(propertyName, properties);
-                log.debug("Properties left: " + properties.toString());
+                log.debug("Properties left: {}", properties);
             }
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -691,11 +688,11 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             if (retrievedProperty != null)
             {
                 this.removeProperty(propertyName, properties);
-                log.debug("Properties left: " + properties.toString());
+                log.debug("Properties left: {}", properties);
             }
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -729,7 +726,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                     {
                         MapPropertyValue mapInstancePropertyValue = (MapPropertyValue) instancePropertyValue;
 
-                        log.debug("Retrieved map property " + propertyName);
+                        log.debug("Retrieved map property {}", propertyName);
 
                         return this.getInstancePropertiesAsMap(mapInstancePropertyValue.getMapValues());
                     }
@@ -741,7 +738,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             }
         }
 
-        log.debug("Map property " + propertyName + " not present");
+        log.debug("Map property {} not present", propertyName);
         return null;
     }
 
@@ -772,11 +769,11 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             if (retrievedProperty != null)
             {
                 this.removeProperty(propertyName, properties);
-                log.debug("Properties left: " + properties.toString());
+                log.debug("Properties left: {}", properties);
             }
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -793,13 +790,15 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if (instanceProperties != null)
         {
-            Map<String, InstancePropertyValue> instancePropertyValues = instanceProperties.getInstanceProperties();
-            Map<String, Object>                resultingMap      = new HashMap<>();
+            Iterator<String>    mapPropertyNames = instanceProperties.getPropertyNames();
+            Map<String, Object> resultingMap     = new HashMap<>();
 
-            if (instancePropertyValues != null)
+            if (mapPropertyNames != null)
             {
-                for (String mapPropertyName : instancePropertyValues.keySet())
+                while (mapPropertyNames.hasNext())
                 {
+                    String mapPropertyName = mapPropertyNames.next();
+
                     InstancePropertyValue actualPropertyValue = instanceProperties.getPropertyValue(mapPropertyName);
 
                     if (actualPropertyValue != null)
@@ -822,7 +821,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                 }
             }
 
-            log.debug("Returning map: " + resultingMap);
+            log.debug("Returning map: {}", resultingMap);
             return resultingMap;
         }
 
@@ -864,7 +863,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
                         if (primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT)
                         {
-                            log.debug("Retrieved integer property " + propertyName);
+                            log.debug("Retrieved integer property {}", propertyName);
 
                             if (primitivePropertyValue.getPrimitiveValue() != null)
                             {
@@ -880,7 +879,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             }
         }
 
-        log.debug("Integer property " + propertyName + " not present");
+        log.debug("Integer property {} not present", propertyName);
 
         return 0;
     }
@@ -910,10 +909,10 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             retrievedProperty = this.getIntProperty(sourceName, propertyName, properties, methodName);
 
             this.removeProperty(propertyName, properties);
-            log.debug("Properties left: " + properties.toString());
+            log.debug("Properties left: {}", properties);
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -950,7 +949,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
                         if (primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_DATE)
                         {
-                            log.debug("Retrieved date property " + propertyName);
+                            log.debug("Retrieved date property {}", propertyName);
 
                             if (primitivePropertyValue.getPrimitiveValue() != null)
                             {
@@ -968,7 +967,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             }
         }
 
-        log.debug("Date property " + propertyName + " not present");
+        log.debug("Date property {} not present", propertyName);
 
         return null;
     }
@@ -998,10 +997,10 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             retrievedProperty = this.getDateProperty(sourceName, propertyName, properties, methodName);
 
             this.removeProperty(propertyName, properties);
-            log.debug("Properties left: " + properties.toString());
+            log.debug("Properties left: {}", properties);
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -1039,7 +1038,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
                         if (primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_BOOLEAN)
                         {
-                            log.debug("Retrieved boolean property " + propertyName);
+                            log.debug("Retrieved boolean property {}", propertyName);
 
                             if (primitivePropertyValue.getPrimitiveValue() != null)
                             {
@@ -1055,7 +1054,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             }
         }
 
-        log.debug("Boolean property " + propertyName + " not present");
+        log.debug("Boolean property {} not present", propertyName);
 
         return false;
     }
@@ -1085,10 +1084,10 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
             retrievedProperty = this.getBooleanProperty(sourceName, propertyName, properties, methodName);
 
             this.removeProperty(propertyName, properties);
-            log.debug("Properties left: " + properties.toString());
+            log.debug("Properties left: {}", properties);
         }
 
-        log.debug("Retrieved " + propertyName + " property: " + retrievedProperty);
+        log.debug("Retrieved {} property: {}", propertyName, retrievedProperty);
         return retrievedProperty;
     }
 
@@ -1115,7 +1114,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
         if (propertyValue != null)
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             if (properties == null)
             {
@@ -1168,7 +1167,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         InstanceProperties  resultingProperties;
 
-        log.debug("Adding property " + propertyName + " for " + methodName);
+        log.debug("Adding property {} for {}", propertyName, methodName);
 
         if (properties == null)
         {
@@ -1215,7 +1214,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         InstanceProperties  resultingProperties;
 
-        log.debug("Adding property " + propertyName + " for " + methodName);
+        log.debug("Adding property {} for {}", propertyName, methodName);
 
         if (properties == null)
         {
@@ -1260,7 +1259,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         InstanceProperties  resultingProperties;
 
-        log.debug("Adding property " + propertyName + " for " + methodName);
+        log.debug("Adding property {} for {}", propertyName, methodName);
 
         if (properties == null)
         {
@@ -1307,7 +1306,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
         {
             InstanceProperties resultingProperties;
 
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             if (properties == null)
             {
@@ -1359,7 +1358,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         InstanceProperties  resultingProperties;
 
-        log.debug("Adding property " + propertyName + " for " + methodName);
+        log.debug("Adding property {} for {}", propertyName, methodName);
 
         if (properties == null)
         {
@@ -1410,7 +1409,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         InstanceProperties  resultingProperties;
 
-        log.debug("Adding property " + propertyName + " for " + methodName);
+        log.debug("Adding property {} for {}", propertyName, methodName);
 
         if (properties == null)
         {
@@ -1457,7 +1456,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if (arrayValues != null)
         {
-            log.debug("Adding property " + propertyName + " for " + methodName + " from " + sourceName);
+            log.debug("Adding property {} for {} from {}", propertyName, methodName, sourceName);
 
             InstanceProperties  resultingProperties;
 
@@ -1486,7 +1485,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
             resultingProperties.setProperty(propertyName, arrayPropertyValue);
 
-            log.debug("Returning instanceProperty: " + resultingProperties.toString());
+            log.debug("Returning instanceProperty: {}", resultingProperties);
 
             return resultingProperties;
         }
@@ -1517,7 +1516,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if (mapValues != null)
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             if (! mapValues.isEmpty())
             {
@@ -1551,7 +1550,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                     mapPropertyValue.setMapValues(mapInstanceProperties);
                     resultingProperties.setProperty(propertyName, mapPropertyValue);
 
-                    log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                    log.debug("Returning instanceProperty: {}", resultingProperties);
 
                     return resultingProperties;
                 }
@@ -1584,7 +1583,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if ((mapValues != null ) && (! mapValues.isEmpty()))
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             if (! mapValues.isEmpty())
             {
@@ -1619,7 +1618,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                     mapPropertyValue.setMapValues(mapInstanceProperties);
                     resultingProperties.setProperty(propertyName, mapPropertyValue);
 
-                    log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                    log.debug("Returning instanceProperty: {}", resultingProperties);
 
                     return resultingProperties;
                 }
@@ -1652,7 +1651,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if (mapValues != null)
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             if (! mapValues.isEmpty())
             {
@@ -1687,7 +1686,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                     mapPropertyValue.setMapValues(mapInstanceProperties);
                     resultingProperties.setProperty(propertyName, mapPropertyValue);
 
-                    log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                    log.debug("Returning instanceProperty: {}", resultingProperties);
 
                     return resultingProperties;
                 }
@@ -1720,7 +1719,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if (mapValues != null)
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             if (! mapValues.isEmpty())
             {
@@ -1755,7 +1754,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                     mapPropertyValue.setMapValues(mapInstanceProperties);
                     resultingProperties.setProperty(propertyName, mapPropertyValue);
 
-                    log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                    log.debug("Returning instanceProperty: {}", resultingProperties);
 
                     return resultingProperties;
                 }
@@ -1789,7 +1788,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if (mapValues != null)
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             if (! mapValues.isEmpty())
             {
@@ -1824,7 +1823,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
                     mapPropertyValue.setMapValues(mapInstanceProperties);
                     resultingProperties.setProperty(propertyName, mapPropertyValue);
 
-                    log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                    log.debug("Returning instanceProperty: {}", resultingProperties);
 
                     return resultingProperties;
                 }
@@ -1855,7 +1854,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if ((mapValues != null) && (! mapValues.isEmpty()))
         {
-            log.debug("Building map property for " + methodName);
+            log.debug("Building map property for {}", methodName);
 
             InstanceProperties  resultingProperties;
 
@@ -2019,7 +2018,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
             if (propertyCount > 0)
             {
-                log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                log.debug("Returning instanceProperty: {}", resultingProperties);
 
                 return resultingProperties;
             }
@@ -2051,7 +2050,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if ((mapValues != null) && (! mapValues.isEmpty()))
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             InstanceProperties  resultingProperties;
 
@@ -2084,7 +2083,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
             if (propertyCount > 0)
             {
-                log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                log.debug("Returning instanceProperty: {}", resultingProperties);
 
                 return resultingProperties;
             }
@@ -2116,7 +2115,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if ((mapValues != null) && (! mapValues.isEmpty()))
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             InstanceProperties  resultingProperties;
 
@@ -2149,7 +2148,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
             if (propertyCount > 0)
             {
-                log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                log.debug("Returning instanceProperty: {}", resultingProperties);
 
                 return resultingProperties;
             }
@@ -2182,7 +2181,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if ((mapValues != null) && (! mapValues.isEmpty()))
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             InstanceProperties  resultingProperties;
 
@@ -2215,7 +2214,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
             if (propertyCount > 0)
             {
-                log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                log.debug("Returning instanceProperty: {}", resultingProperties);
 
                 return resultingProperties;
             }
@@ -2247,7 +2246,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
     {
         if ((mapValues != null) && (! mapValues.isEmpty()))
         {
-            log.debug("Adding property " + propertyName + " for " + methodName);
+            log.debug("Adding property {} for {}", propertyName, methodName);
 
             InstanceProperties  resultingProperties;
 
@@ -2280,7 +2279,7 @@ public class OMRSRepositoryPropertiesUtilities implements OMRSRepositoryProperti
 
             if (propertyCount > 0)
             {
-                log.debug("Returning instanceProperty: " + resultingProperties.toString());
+                log.debug("Returning instanceProperty: {}", resultingProperties);
 
                 return resultingProperties;
             }
@@ -386,6 +386,28 @@ public enum OMRSAuditCode implements AuditLogMessageSet
                               "or a Repository Proxy that connects to a third party repository that supports this type of metadata.  " +
                               "Detail of the different types of servers are found in the admin guide."),
 
+    ARCHIVE_LOAD_PROGRESS("OMRS-AUDIT-0056",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The Open Metadata Repository Services (OMRS) has processed {0} instances from open metadata archive {1} in {2} seconds ({3} instances per second)",
+                      "The local server is loading the instances from the open metadata archive in batches.  This message is logged periodically " +
+                              "while a large archive is loading.",
+                      "No action is required.  The archive continues to load."),
+
+    ARCHIVE_LOAD_THROUGHPUT("OMRS-AUDIT-0057",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The Open Metadata Repository Services (OMRS) loaded {0} instances from open metadata archive {1} in {2} seconds " +
+                              "({3} instances per second) using {4} loading threads",
+                      "The local server has finished loading the instances from the open metadata archive.",
+                      "If the archive takes too long to load, review the performance of the local repository."),
+
+    ARCHIVE_READ_ERROR("OMRS-AUDIT-0058",
+                      OMRSAuditLogRecordSeverity.EXCEPTION,
+                      "The Open Metadata Repository Services (OMRS) stopped reading open metadata archive {0} after {1} instances because of a {2} " +
+                              "exception with message {3}",
+                      "The local server has stopped loading the open metadata archive.  The instances read before the error have been loaded.",
+                      "Use the information in the exception to correct the archive.  Then load it again - the instances already loaded " +
+                              "are recognized as duplicates."),
+
     REGISTERED_WITH_COHORT("OMRS-AUDIT-0060",
                            OMRSAuditLogRecordSeverity.COHORT,
                            "Registering with open metadata repository cohort {0} using metadata collection id {1}",
@@ -858,6 +858,10 @@ public enum OMRSErrorCode implements ExceptionMessageSet
             "The enterprise repository services has detected a repository connector from cohort {0} for metadata collection identifier {1} that has a null metadata collection API object.",
             "There is an internal error in the OMRS Repository Connector implementation.",
             "Raise a Github issue on the Egeria project to get this fixed."),
+    FEDERATED_REQUEST_TIMEOUT(503, "OMRS-ENTERPRISE-REPOSITORY-503-004",
+            "The open metadata repository with metadata collection identifier {0} did not respond to the {1} request within {2} milliseconds",
+            "The enterprise repository services stopped waiting for this repository and returned the results from the other repositories.",
+            "Check that the repository is running and reachable.  If it is simply slow, increase the federation member timeout in the enterprise access configuration of this server."),
     NULL_CONTENT_MANAGER(503, "OMRS-LOCAL-REPOSITORY-503-001",
             "A null repository content manager has been passed to one of the local repository's components on method {0}.",
             "There is an internal error in the OMRS Local Repository Connector implementation, or the way it has been initialized.",
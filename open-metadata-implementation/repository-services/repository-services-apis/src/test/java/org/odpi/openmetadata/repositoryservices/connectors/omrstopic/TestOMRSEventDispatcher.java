@@ -0,0 +1,243 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
+import org.odpi.openmetadata.repositoryservices.events.future.OMRSFuture;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Validate that OMRSEventDispatcher passes events to each listener in order and that a slow listener
+ * does not hold up the others.
+ */
+public class TestOMRSEventDispatcher
+{
+    private static final long WAIT_TIME = 10;
+
+
+    @Test
+    void testEventsArriveInOrder() throws Exception
+    {
+        OMRSEventDispatcher dispatcher = new OMRSEventDispatcher("testTopic", 4, 10);
+        List<String>        received   = Collections.synchronizedList(new ArrayList<>());
+        List<OMRSFuture>    futures    = new ArrayList<>();
+        List<String>        expected   = new ArrayList<>();
+
+        dispatcher.addListener(new OMRSTopicListenerWrapper(new TestListener(), "testService", null));
+
+        for (int i = 0; i < 50; i++)
+        {
+            String messageId = "message-" + i;
+
+            expected.add(messageId);
+            futures.add(dispatcher.dispatchEvent(messageId,
+                                                 (listener) -> received.add(InternalOMRSEventProcessingContext.getInstance().getCurrentMessageId())));
+        }
+
+        waitForFutures(futures);
+
+        assertEquals(received, expected);
+
+        OMRSTopicListenerMetrics metrics = dispatcher.getListenerMetrics().get(0);
+
+        assertEquals(metrics.getServiceName(), "testService");
+        assertEquals(metrics.getEventsProcessed(), 50);
+        assertEquals(metrics.getQueueDepth(), 0);
+        assertEquals(metrics.getQueueCapacity(), 10);
+
+        dispatcher.shutdown();
+    }
+
+
+    @Test
+    void testSlowListenerDoesNotBlockOthers() throws Exception
+    {
+        OMRSEventDispatcher dispatcher   = new OMRSEventDispatcher("testTopic", 2, 10);
+        CountDownLatch      releaseSlow  = new CountDownLatch(1);
+        CountDownLatch      fastReceived = new CountDownLatch(3);
+        TestListener        slowListener = new TestListener();
+        TestListener        fastListener = new TestListener();
+        List<OMRSFuture>    futures      = new ArrayList<>();
+
+        dispatcher.addListener(new OMRSTopicListenerWrapper(slowListener, "slowService", null));
+        dispatcher.addListener(new OMRSTopicListenerWrapper(fastListener, "fastService", null));
+
+        for (int i = 0; i < 3; i++)
+        {
+            futures.add(dispatcher.dispatchEvent("message-" + i, (listener) ->
+            {
+                try
+                {
+                    if ("slowService".equals(((OMRSTopicListenerWrapper) listener).getServiceName()))
+                    {
+                        releaseSlow.await(WAIT_TIME, TimeUnit.SECONDS);
+                    }
+                    else
+                    {
+                        fastReceived.countDown();
+                    }
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        assertTrue(fastReceived.await(WAIT_TIME, TimeUnit.SECONDS));
+
+        for (OMRSFuture future : futures)
+        {
+            assertFalse(future.isDone());
+        }
+
+        waitForEventsProcessed(dispatcher, 1, 3);
+
+        releaseSlow.countDown();
+        waitForFutures(futures);
+
+        assertEquals(dispatcher.getListenerMetrics().get(0).getEventsProcessed(), 3);
+
+        dispatcher.shutdown();
+    }
+
+
+    @Test
+    void testSynchronousDispatch() throws Exception
+    {
+        OMRSEventDispatcher dispatcher = new OMRSEventDispatcher("testTopic", 0, 10);
+        List<String>        received   = new ArrayList<>();
+        String              threadName = Thread.currentThread().getName();
+
+        dispatcher.addListener(new OMRSTopicListenerWrapper(new TestListener(), "testService", null));
+
+        OMRSFuture future = dispatcher.dispatchEvent("message-1", (listener) -> received.add(Thread.currentThread().getName()));
+
+        assertTrue(future.isDone());
+        assertEquals(received, Collections.singletonList(threadName));
+        assertEquals(dispatcher.getListenerMetrics().get(0).getQueueCapacity(), 0);
+    }
+
+
+    @Test
+    void testShutdownReleasesBlockedReceiver() throws Exception
+    {
+        OMRSEventDispatcher dispatcher   = new OMRSEventDispatcher("testTopic", 1, 1);
+        CountDownLatch      listenerBusy = new CountDownLatch(1);
+        CountDownLatch      releaseBusy  = new CountDownLatch(1);
+        List<OMRSFuture>    futures      = Collections.synchronizedList(new ArrayList<>());
+
+        dispatcher.addListener(new OMRSTopicListenerWrapper(new TestListener(), "busyService", null));
+
+        /*
+         * The listener ignores interrupts so that its queue stays full after the shutdown.
+         */
+        futures.add(dispatcher.dispatchEvent("message-0", (listener) ->
+        {
+            listenerBusy.countDown();
+
+            while (releaseBusy.getCount() > 0)
+            {
+                try
+                {
+                    releaseBusy.await(WAIT_TIME, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException error)
+                {
+                    // keep waiting
+                }
+            }
+        }));
+
+        assertTrue(listenerBusy.await(WAIT_TIME, TimeUnit.SECONDS));
+
+        futures.add(dispatcher.dispatchEvent("message-1", (listener) -> { }));
+
+        Thread receiver = new Thread(() ->
+        {
+            try
+            {
+                futures.add(dispatcher.dispatchEvent("message-2", (listener) -> { }));
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        receiver.start();
+        Thread.sleep(WAIT_TIME * 20);
+
+        assertTrue(receiver.isAlive());
+
+        dispatcher.shutdown();
+        receiver.join(TimeUnit.SECONDS.toMillis(WAIT_TIME));
+
+        assertFalse(receiver.isAlive());
+        assertEquals(futures.size(), 3);
+
+        releaseBusy.countDown();
+
+        for (OMRSFuture future : futures.subList(1, 3))
+        {
+            assertFalse(future.isDone());
+        }
+    }
+
+
+    private void waitForEventsProcessed(OMRSEventDispatcher dispatcher,
+                                        int                 listenerIndex,
+                                        long                eventCount) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(WAIT_TIME);
+
+        while (dispatcher.getListenerMetrics().get(listenerIndex).getEventsProcessed() < eventCount)
+        {
+            assertTrue(System.currentTimeMillis() < endTime);
+            Thread.sleep(1);
+        }
+
+        assertEquals(dispatcher.getListenerMetrics().get(listenerIndex).getEventsProcessed(), eventCount);
+    }
+
+
+    private void waitForFutures(List<OMRSFuture> futures) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(WAIT_TIME);
+
+        for (OMRSFuture future : futures)
+        {
+            while (! future.isDone())
+            {
+                assertTrue(System.currentTimeMillis() < endTime);
+                Thread.sleep(1);
+            }
+        }
+    }
+
+
+    /**
+     * Listener that ignores the events.  The test actions are supplied with the dispatched events.
+     */
+    private static class TestListener implements OMRSTopicListener
+    {
+        public void processRegistryEvent(OMRSRegistryEvent event) { }
+
+        public void processTypeDefEvent(OMRSTypeDefEvent event) { }
+
+        public void processInstanceEvent(OMRSInstanceEvent event) { }
+    }
+}
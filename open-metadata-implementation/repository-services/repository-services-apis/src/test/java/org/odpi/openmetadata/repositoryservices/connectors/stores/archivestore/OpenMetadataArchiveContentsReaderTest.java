@@ -0,0 +1,132 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * OpenMetadataArchiveContentsReaderTest validates that the reader for an in-memory archive returns
+ * its instances in batches, entities before relationships before classifications.
+ */
+public class OpenMetadataArchiveContentsReaderTest
+{
+    /**
+     * Return an archive with the requested number of each kind of instance.
+     *
+     * @param instanceCount number of entities, relationships and classifications
+     * @return test archive
+     */
+    private OpenMetadataArchive getTestArchive(int instanceCount)
+    {
+        List<EntityDetail>                  entities        = new ArrayList<>();
+        List<Relationship>                  relationships   = new ArrayList<>();
+        List<ClassificationEntityExtension> classifications = new ArrayList<>();
+
+        for (int i = 0; i < instanceCount; i++)
+        {
+            EntityDetail entity = new EntityDetail();
+            entity.setGUID("entity" + i);
+            entities.add(entity);
+
+            Relationship relationship = new Relationship();
+            relationship.setGUID("relationship" + i);
+            relationships.add(relationship);
+
+            classifications.add(new ClassificationEntityExtension());
+        }
+
+        OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+
+        instanceStore.setEntities(entities);
+        instanceStore.setRelationships(relationships);
+        instanceStore.setClassifications(classifications);
+
+        OpenMetadataArchive archive = new OpenMetadataArchive();
+
+        archive.setArchiveProperties(new OpenMetadataArchiveProperties());
+        archive.setArchiveTypeStore(new OpenMetadataArchiveTypeStore());
+        archive.setArchiveInstanceStore(instanceStore);
+
+        return archive;
+    }
+
+
+    /**
+     * Validate that the instances are returned in batches of the requested size, with each kind of
+     * instance in its own batches.
+     */
+    @Test public void testBatches()
+    {
+        OpenMetadataArchiveContentsReader reader = new OpenMetadataArchiveContentsReader(getTestArchive(5));
+
+        assertEquals(reader.getArchiveProperties(), new OpenMetadataArchiveProperties());
+        assertEquals(reader.getArchiveTypeStore(), new OpenMetadataArchiveTypeStore());
+
+        OpenMetadataArchiveInstanceStore batch = reader.getNextInstanceBatch(2);
+        assertEquals(batch.getEntities().size(), 2);
+        assertEquals(batch.getEntities().get(0).getGUID(), "entity0");
+        assertNull(batch.getRelationships());
+
+        batch = reader.getNextInstanceBatch(2);
+        assertEquals(batch.getEntities().size(), 2);
+        assertEquals(batch.getEntities().get(0).getGUID(), "entity2");
+
+        batch = reader.getNextInstanceBatch(2);
+        assertEquals(batch.getEntities().size(), 1);
+        assertEquals(batch.getEntities().get(0).getGUID(), "entity4");
+
+        batch = reader.getNextInstanceBatch(10);
+        assertNull(batch.getEntities());
+        assertEquals(batch.getRelationships().size(), 5);
+        assertNull(batch.getClassifications());
+
+        batch = reader.getNextInstanceBatch(10);
+        assertNull(batch.getRelationships());
+        assertEquals(batch.getClassifications().size(), 5);
+
+        assertNull(reader.getNextInstanceBatch(10));
+
+        reader.close();
+    }
+
+
+    /**
+     * Validate that an empty archive has no batches.
+     */
+    @Test public void testEmptyArchive()
+    {
+        OpenMetadataArchiveContentsReader reader = new OpenMetadataArchiveContentsReader(new OpenMetadataArchive());
+
+        assertNull(reader.getArchiveProperties());
+        assertNull(reader.getArchiveTypeStore());
+        assertNull(reader.getNextInstanceBatch(10));
+
+        reader = new OpenMetadataArchiveContentsReader(null);
+
+        assertNull(reader.getNextInstanceBatch(10));
+    }
+
+
+    /**
+     * Validate that the default reader of an archive store connector is null when the archive is empty.
+     */
+    @Test public void testConnectorReader()
+    {
+        OpenMetadataArchiveStoreConnector connector = new MockOpenMetadataArchiveStoreConnector();
+
+        assertNull(connector.getArchiveReader());
+    }
+}
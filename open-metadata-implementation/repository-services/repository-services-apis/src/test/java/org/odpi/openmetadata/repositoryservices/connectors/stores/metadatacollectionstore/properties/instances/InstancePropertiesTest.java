@@ -0,0 +1,163 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+/**
+ * InstancePropertiesTest verifies that copies of InstanceProperties share their properties until one is changed.
+ */
+public class InstancePropertiesTest
+{
+    /**
+     * Return a string property value.
+     *
+     * @param value string
+     * @return property value
+     */
+    private PrimitivePropertyValue getStringValue(String value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(value);
+
+        return propertyValue;
+    }
+
+
+    /**
+     * Return a test object with two properties.
+     *
+     * @return test object
+     */
+    private InstanceProperties getTestObject()
+    {
+        InstanceProperties testObject = new InstanceProperties();
+
+        testObject.setProperty("qualifiedName", getStringValue("TestQualifiedName"));
+        testObject.setProperty("description", getStringValue("TestDescription"));
+
+        return testObject;
+    }
+
+
+    /**
+     * Changing a copy does not change the template and changing the template does not change the copy.
+     */
+    @Test public void testCopyIsIndependent()
+    {
+        InstanceProperties template = getTestObject();
+        InstanceProperties copy     = new InstanceProperties(template);
+
+        assertEquals(copy, template);
+        assertEquals(copy.hashCode(), template.hashCode());
+
+        copy.setProperty("qualifiedName", null);
+        copy.setProperty("name", getStringValue("TestName"));
+
+        assertEquals(template.getPropertyCount(), 2);
+        assertNotNull(template.getPropertyValue("qualifiedName"));
+        assertNull(template.getPropertyValue("name"));
+
+        template.setProperty("description", null);
+
+        assertEquals(copy.getPropertyCount(), 2);
+        assertNotNull(copy.getPropertyValue("description"));
+        assertEquals(template.getPropertyCount(), 1);
+    }
+
+
+    /**
+     * A copy of a copy is independent of both.
+     */
+    @Test public void testCopyOfCopy()
+    {
+        InstanceProperties template   = getTestObject();
+        InstanceProperties copy       = new InstanceProperties(template);
+        InstanceProperties copyOfCopy = new InstanceProperties(copy);
+
+        copy.setProperty("description", null);
+        copyOfCopy.setProperty("qualifiedName", null);
+
+        assertEquals(template.getPropertyCount(), 2);
+        assertEquals(copy.getPropertyCount(), 1);
+        assertNotNull(copy.getPropertyValue("qualifiedName"));
+        assertEquals(copyOfCopy.getPropertyCount(), 1);
+        assertNotNull(copyOfCopy.getPropertyValue("description"));
+    }
+
+
+    /**
+     * A map passed to setInstanceProperties is not changed by later updates.
+     */
+    @Test public void testSuppliedMapIsNotChanged()
+    {
+        Map<String, InstancePropertyValue> propertyMap = new HashMap<>();
+        InstanceProperties                 testObject  = new InstanceProperties();
+
+        propertyMap.put("qualifiedName", getStringValue("TestQualifiedName"));
+        testObject.setInstanceProperties(propertyMap);
+
+        testObject.setProperty("qualifiedName", null);
+        testObject.setProperty("name", getStringValue("TestName"));
+
+        assertEquals(propertyMap.size(), 1);
+        assertTrue(propertyMap.containsKey("qualifiedName"));
+        assertEquals(testObject.getPropertyCount(), 1);
+
+        testObject.setInstanceProperties(Collections.singletonMap("qualifiedName", getStringValue("TestQualifiedName")));
+        testObject.setProperty("qualifiedName", null);
+
+        assertEquals(testObject.getPropertyCount(), 0);
+        assertNull(testObject.getInstanceProperties());
+    }
+
+
+    /**
+     * The property names can not be used to change the shared map.
+     */
+    @Test public void testPropertyNamesAreReadOnly()
+    {
+        InstanceProperties template = getTestObject();
+        InstanceProperties copy     = new InstanceProperties(template);
+        Iterator<String>   names    = copy.getPropertyNames();
+
+        names.next();
+
+        try
+        {
+            names.remove();
+            fail();
+        }
+        catch (UnsupportedOperationException expectedError)
+        {
+            assertEquals(template.getPropertyCount(), 2);
+            assertEquals(copy.getPropertyCount(), 2);
+        }
+    }
+
+
+    /**
+     * Removing a property that is not present leaves the objects equal.
+     */
+    @Test public void testRemoveMissingProperty()
+    {
+        InstanceProperties template = getTestObject();
+        InstanceProperties copy     = new InstanceProperties(template);
+
+        copy.setProperty("name", null);
+
+        assertEquals(copy, template);
+        assertEquals(new InstanceProperties(), new InstanceProperties(new InstanceProperties()));
+    }
+}
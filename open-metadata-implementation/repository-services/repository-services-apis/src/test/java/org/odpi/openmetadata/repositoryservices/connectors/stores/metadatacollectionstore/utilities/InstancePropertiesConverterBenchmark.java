@@ -0,0 +1,132 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InstancePropertiesConverterBenchmark measures the time and memory used to convert the properties of an
+ * entity into a bean in the way that the OMAS converters do.  The converter takes a copy of the entity's
+ * properties, removes each property that maps to a bean attribute and passes the rest back as extended
+ * properties.  It is not run as part of the unit tests.  Run the main method (with the test classpath)
+ * to execute the benchmark - the gc.alloc.rate.norm result is the number of bytes allocated per bean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstancePropertiesConverterBenchmark
+{
+    private static final String SOURCE_NAME = "InstancePropertiesConverterBenchmark";
+    private static final String METHOD_NAME = "convert";
+
+    private OMRSRepositoryPropertiesUtilities repositoryHelper;
+    private EntityDetail                      entity;
+
+
+    /**
+     * Bean with the attributes of an asset.
+     */
+    public static class BenchmarkBean
+    {
+        String              qualifiedName;
+        String              displayName;
+        String              description;
+        String              owner;
+        int                 ownerType;
+        List<String>        zoneMembership;
+        List<String>        meanings;
+        Map<String, String> additionalProperties;
+        Map<String, Object> extendedProperties;
+    }
+
+
+    /**
+     * Build the entity to convert.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        Map<String, Object> mapValues = new HashMap<>();
+
+        mapValues.put("source", "benchmark");
+        mapValues.put("version", "1.0");
+
+        repositoryHelper = new OMRSRepositoryPropertiesUtilities();
+
+        InstanceProperties properties = null;
+
+        properties = repositoryHelper.addStringPropertyToInstance(SOURCE_NAME, properties, "qualifiedName", "Asset:benchmark", METHOD_NAME);
+        properties = repositoryHelper.addStringPropertyToInstance(SOURCE_NAME, properties, "name", "Benchmark Asset", METHOD_NAME);
+        properties = repositoryHelper.addStringPropertyToInstance(SOURCE_NAME, properties, "description", "Asset used to measure conversion", METHOD_NAME);
+        properties = repositoryHelper.addStringPropertyToInstance(SOURCE_NAME, properties, "owner", "benchmarkOwner", METHOD_NAME);
+        properties = repositoryHelper.addEnumPropertyToInstance(SOURCE_NAME, properties, "ownerType", 0, "UserId", "The owner is a user", METHOD_NAME);
+        properties = repositoryHelper.addStringArrayPropertyToInstance(SOURCE_NAME, properties, "zoneMembership", Arrays.asList("data-lake", "quarantine"), METHOD_NAME);
+        properties = repositoryHelper.addStringArrayPropertyToInstance(SOURCE_NAME, properties, "meanings", Arrays.asList("customer", "account"), METHOD_NAME);
+        properties = repositoryHelper.addMapPropertyToInstance(SOURCE_NAME, properties, "additionalProperties", mapValues, METHOD_NAME);
+        properties = repositoryHelper.addStringPropertyToInstance(SOURCE_NAME, properties, "fileType", "csv", METHOD_NAME);
+        properties = repositoryHelper.addStringPropertyToInstance(SOURCE_NAME, properties, "encoding", "UTF-8", METHOD_NAME);
+        properties = repositoryHelper.addStringPropertyToInstance(SOURCE_NAME, properties, "pathName", "/data/benchmark.csv", METHOD_NAME);
+        properties = repositoryHelper.addStringPropertyToInstance(SOURCE_NAME, properties, "deployedImplementationType", "File", METHOD_NAME);
+
+        entity = new EntityDetail();
+        entity.setGUID("benchmarkGUID");
+        entity.setProperties(properties);
+    }
+
+
+    /**
+     * Convert the entity into a bean.
+     *
+     * @return bean
+     */
+    @Benchmark
+    public BenchmarkBean convert()
+    {
+        BenchmarkBean      bean               = new BenchmarkBean();
+        InstanceProperties instanceProperties = new InstanceProperties(entity.getProperties());
+
+        bean.qualifiedName        = repositoryHelper.removeStringProperty(SOURCE_NAME, "qualifiedName", instanceProperties, METHOD_NAME);
+        bean.displayName          = repositoryHelper.removeStringProperty(SOURCE_NAME, "name", instanceProperties, METHOD_NAME);
+        bean.description          = repositoryHelper.removeStringProperty(SOURCE_NAME, "description", instanceProperties, METHOD_NAME);
+        bean.owner                = repositoryHelper.removeStringProperty(SOURCE_NAME, "owner", instanceProperties, METHOD_NAME);
+        bean.ownerType            = repositoryHelper.removeEnumPropertyOrdinal(SOURCE_NAME, "ownerType", instanceProperties, METHOD_NAME);
+        bean.zoneMembership       = repositoryHelper.removeStringArrayProperty(SOURCE_NAME, "zoneMembership", instanceProperties, METHOD_NAME);
+        bean.meanings             = repositoryHelper.removeStringArrayProperty(SOURCE_NAME, "meanings", instanceProperties, METHOD_NAME);
+        bean.additionalProperties = repositoryHelper.removeStringMapFromProperty(SOURCE_NAME, "additionalProperties", instanceProperties, METHOD_NAME);
+        bean.extendedProperties   = repositoryHelper.getInstancePropertiesAsMap(instanceProperties);
+
+        return bean;
+    }
+
+
+    /**
+     * Run the benchmark with the garbage collection profiler so the allocation per bean is reported.
+     *
+     * @param args ignored
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException
+    {
+        Options options = new OptionsBuilder().include(InstancePropertiesConverterBenchmark.class.getSimpleName())
+                                              .addProfiler(GCProfiler.class)
+                                              .build();
+
+        new Runner(options).run();
+    }
+}
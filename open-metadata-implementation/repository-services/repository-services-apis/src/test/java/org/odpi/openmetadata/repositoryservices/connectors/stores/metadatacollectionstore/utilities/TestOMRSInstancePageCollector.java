@@ -0,0 +1,187 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Validate that OMRSInstancePageCollector selects the same page as a stable sort of all of the results.
+ */
+public class TestOMRSInstancePageCollector
+{
+    private static final String PROPERTY_NAME = "count";
+
+
+    @Test
+    void testSortedPagesMatchFullSort()
+    {
+        List<EntityDetail> entities = getEntities(200);
+
+        for (SequencingOrder sequencingOrder : SequencingOrder.values())
+        {
+            List<EntityDetail> sortedEntities = new ArrayList<>(entities);
+
+            if (OMRSInstanceSortKey.isSorted(sequencingOrder))
+            {
+                sortedEntities.sort(Comparator.comparing(entity -> OMRSInstanceSortKey.getSortKey(entity,
+                                                                                                  entity.getProperties(),
+                                                                                                  PROPERTY_NAME,
+                                                                                                  sequencingOrder)));
+            }
+
+            for (int fromElement : new int[]{0, 1, 17, 199, 200, 250})
+            {
+                for (int pageSize : new int[]{0, 1, 10, 50, 300})
+                {
+                    OMRSInstancePageCollector<EntityDetail> collector = new OMRSInstancePageCollector<>(EntityDetail::getProperties,
+                                                                                                        fromElement,
+                                                                                                        PROPERTY_NAME,
+                                                                                                        sequencingOrder,
+                                                                                                        pageSize);
+                    collector.addInstances(entities);
+
+                    int toElement = (pageSize == 0) ? sortedEntities.size() : Math.min(fromElement + pageSize, sortedEntities.size());
+
+                    if (fromElement >= toElement)
+                    {
+                        assertNull(collector.getPage());
+                    }
+                    else
+                    {
+                        assertEquals(collector.getPage(),
+                                     sortedEntities.subList(fromElement, toElement),
+                                     sequencingOrder + " from " + fromElement + " page size " + pageSize);
+                    }
+                }
+            }
+        }
+    }
+
+
+    @Test
+    void testPropertyOrder()
+    {
+        List<EntityDetail> entities = getEntities(100);
+
+        OMRSInstancePageCollector<EntityDetail> collector = new OMRSInstancePageCollector<>(EntityDetail::getProperties,
+                                                                                            0,
+                                                                                            PROPERTY_NAME,
+                                                                                            SequencingOrder.PROPERTY_DESCENDING,
+                                                                                            100);
+        collector.addInstances(entities);
+
+        Integer previousValue = Integer.MAX_VALUE;
+
+        for (EntityDetail entity : collector.getPage())
+        {
+            Integer value = getCount(entity);
+
+            if (value == null)
+            {
+                previousValue = null;
+            }
+            else
+            {
+                assertTrue(previousValue != null && previousValue >= value, "Unexpected order at " + entity.getGUID());
+                previousValue = value;
+            }
+        }
+
+        assertNull(previousValue, "Entities without the property should sort last in descending order");
+    }
+
+
+    @Test
+    void testUnsortedPageIsComplete()
+    {
+        List<EntityDetail> entities = getEntities(50);
+
+        OMRSInstancePageCollector<EntityDetail> collector = new OMRSInstancePageCollector<>(EntityDetail::getProperties,
+                                                                                            5,
+                                                                                            null,
+                                                                                            SequencingOrder.ANY,
+                                                                                            10);
+
+        for (EntityDetail entity : entities)
+        {
+            collector.addInstance(entity);
+
+            if (collector.isComplete())
+            {
+                break;
+            }
+        }
+
+        assertEquals(collector.getInstanceCount(), 15);
+        assertEquals(collector.getPage(), entities.subList(5, 15));
+
+        OMRSInstancePageCollector<EntityDetail> sortedCollector = new OMRSInstancePageCollector<>(EntityDetail::getProperties,
+                                                                                                  0,
+                                                                                                  null,
+                                                                                                  SequencingOrder.GUID,
+                                                                                                  10);
+        sortedCollector.addInstances(entities);
+
+        assertFalse(sortedCollector.isComplete());
+    }
+
+
+    private List<EntityDetail> getEntities(int count)
+    {
+        Random             random   = new Random(42);
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (int i = 0; i < count; i++)
+        {
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID((random.nextInt(10) == 0) ? null : "guid-" + random.nextInt(count));
+            entity.setCreateTime(new Date(random.nextInt(20)));
+            entity.setUpdateTime((random.nextInt(5) == 0) ? null : new Date(random.nextInt(20)));
+
+            if (random.nextInt(8) != 0)
+            {
+                InstanceProperties     properties = new InstanceProperties();
+                PrimitivePropertyValue value      = new PrimitivePropertyValue();
+
+                value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT);
+                value.setTypeName(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT.getName());
+                value.setPrimitiveValue(random.nextInt(30));
+                properties.setProperty(PROPERTY_NAME, value);
+                entity.setProperties(properties);
+            }
+
+            entities.add(entity);
+        }
+
+        return entities;
+    }
+
+
+    private Integer getCount(EntityDetail entity)
+    {
+        if (entity.getProperties() == null)
+        {
+            return null;
+        }
+
+        return (Integer) ((PrimitivePropertyValue) entity.getProperties().getPropertyValue(PROPERTY_NAME)).getPrimitiveValue();
+    }
+}
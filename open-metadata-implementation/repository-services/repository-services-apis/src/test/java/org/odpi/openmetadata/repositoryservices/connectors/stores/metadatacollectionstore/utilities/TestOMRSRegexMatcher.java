@@ -0,0 +1,101 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Validate that OMRSRegexMatcher gives the same results as String.matches.
+ */
+public class TestOMRSRegexMatcher
+{
+    private static final List<String> literals = Arrays.asList("Asset", "asset", "", "a.b*c", "Name\\E", "Café", "line\nbreak");
+
+    private static final List<String> values = Arrays.asList("Asset",
+                                                             "ASSET",
+                                                             "asset",
+                                                             "MyAsset",
+                                                             "AssetName",
+                                                             "An Asset Name",
+                                                             "Asset\nName",
+                                                             "My\nAsset",
+                                                             "",
+                                                             "a.b*c",
+                                                             "abbc",
+                                                             "Name\\E",
+                                                             "Café",
+                                                             "CAFÉ",
+                                                             "line\nbreak",
+                                                             "Kelvin");
+
+
+    @Test
+    void testLiteralRegexMatchesStringMatches()
+    {
+        for (String literal : literals)
+        {
+            String quoted = Pattern.quote(literal);
+
+            for (String regex : Arrays.asList(quoted,
+                                              quoted + ".*",
+                                              ".*" + quoted,
+                                              ".*" + quoted + ".*",
+                                              "(?i)" + quoted,
+                                              "(?i)" + quoted + ".*",
+                                              "(?i).*" + quoted,
+                                              "(?i).*" + quoted + ".*"))
+            {
+                verifyMatcher(regex);
+            }
+        }
+
+        assertTrue(new OMRSRegexMatcher(Pattern.quote("Asset")).isLiteralMatch());
+        assertTrue(new OMRSRegexMatcher("(?i).*" + Pattern.quote("Asset") + ".*").isLiteralMatch());
+        assertFalse(new OMRSRegexMatcher(Pattern.quote("Name\\E")).isLiteralMatch());
+    }
+
+
+    @Test
+    void testGeneralRegexMatchesStringMatches()
+    {
+        for (String regex : Arrays.asList("Asset", "A.*", ".*", "a.b*c", "(?i)asset", "[A-Z][a-z]+", "\\QAsset", "\\QA\\E|\\QB\\E"))
+        {
+            OMRSRegexMatcher matcher = verifyMatcher(regex);
+
+            assertEquals(matcher.getRegex(), regex);
+        }
+
+        assertFalse(new OMRSRegexMatcher("[A-Z][a-z]+").isLiteralMatch());
+        assertFalse(new OMRSRegexMatcher("Asset").matches(null));
+    }
+
+
+    @Test
+    void testCache()
+    {
+        assertSame(OMRSRegexMatcher.getMatcher("Asset.*"), OMRSRegexMatcher.getMatcher("Asset.*"));
+    }
+
+
+    private OMRSRegexMatcher verifyMatcher(String regex)
+    {
+        OMRSRegexMatcher matcher = OMRSRegexMatcher.getMatcher(regex);
+
+        for (String value : values)
+        {
+            assertEquals(matcher.matches(value), value.matches(regex), "Regex " + regex + " value " + value);
+        }
+
+        return matcher;
+    }
+}
@@ -0,0 +1,105 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.archiveutilities;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+
+
+/**
+ * OMRSArchiveConverter converts an open metadata archive stored as JSON into the binary archive format
+ * supported by the binary open metadata archive connector.  The binary file is smaller because its sections are
+ * compressed, and a server that only needs the types can read them without decoding the instances.  It is intended to be run at build time, for example
+ * over the content packs, so that servers can be configured with the binary files.
+ */
+public class OMRSArchiveConverter extends OMRSArchiveWriter
+{
+    private static final String binaryFileExtension = ".bin";
+    private static final String jsonFileExtension   = ".json";
+
+
+    /**
+     * Default constructor
+     */
+    public OMRSArchiveConverter()
+    {
+    }
+
+
+    /**
+     * Convert a JSON archive file to a binary archive file.
+     *
+     * @param jsonFileName name of the JSON archive file to read
+     * @param binaryFileName name of the binary archive file to write
+     * @return boolean indicating whether the archive was read successfully
+     */
+    public boolean convertToBinary(String jsonFileName,
+                                   String binaryFileName)
+    {
+        OpenMetadataArchive openMetadataArchive = this.readOpenMetadataArchive(jsonFileName);
+
+        if ((openMetadataArchive == null) || (openMetadataArchive.getArchiveProperties() == null))
+        {
+            return false;
+        }
+
+        this.writeBinaryOpenMetadataArchive(binaryFileName, openMetadataArchive);
+
+        return true;
+    }
+
+
+    /**
+     * Return the name of the binary file to create for a JSON archive file.
+     *
+     * @param jsonFileName name of the JSON archive file
+     * @return binary file name
+     */
+    public static String getBinaryFileName(String jsonFileName)
+    {
+        if (jsonFileName.endsWith(jsonFileExtension))
+        {
+            return jsonFileName.substring(0, jsonFileName.length() - jsonFileExtension.length()) + binaryFileExtension;
+        }
+
+        return jsonFileName + binaryFileExtension;
+    }
+
+
+    /**
+     * Main program to convert archive files.  Each argument is the name of a JSON archive file.  It is
+     * converted into a binary archive file with the same name but a ".bin" extension.
+     *
+     * @param args names of the JSON archive files
+     */
+    public static void main(String[] args)
+    {
+        if ((args == null) || (args.length == 0))
+        {
+            System.out.println("Usage: OMRSArchiveConverter <jsonArchiveFile> ...");
+            System.exit(1);
+        }
+
+        OMRSArchiveConverter converter = new OMRSArchiveConverter();
+        boolean              success   = true;
+
+        for (String jsonFileName : args)
+        {
+            String binaryFileName = getBinaryFileName(jsonFileName);
+
+            if (converter.convertToBinary(jsonFileName, binaryFileName))
+            {
+                System.out.println("Converted " + jsonFileName + " to " + binaryFileName);
+            }
+            else
+            {
+                System.out.println("Unable to read open metadata archive " + jsonFileName);
+                success = false;
+            }
+        }
+
+        if (! success)
+        {
+            System.exit(1);
+        }
+    }
+}
@@ -3,6 +3,7 @@
 package org.odpi.openmetadata.repositoryservices.archiveutilities;
 
 
+import org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.binary.BinaryOpenMetadataArchiveStoreProvider;
 import org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.file.FileBasedOpenMetadataArchiveStoreProvider;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorProvider;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.*;
@@ -10,7 +11,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.odpi.openmetadata.frameworks.connectors.Connector;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBroker;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentsReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
 
 import java.util.UUID;
@@ -53,6 +57,27 @@ public class OMRSArchiveWriter
     }
 
 
+    /**
+     * Return the connection for a binary open metadata archive file.
+     *
+     * @param fileName name of the archive file
+     * @return OCF Connection used to create the binary open metadata archive
+     */
+    protected Connection getOpenMetadataArchiveBinaryConnection(String fileName)
+    {
+        Endpoint endpoint = new Endpoint();
+
+        endpoint.setAddress(fileName);
+
+        Connection connection = new Connection();
+
+        connection.setConnectorType(this.getConnectorType(BinaryOpenMetadataArchiveStoreProvider.class.getName()));
+        connection.setEndpoint(endpoint);
+
+        return connection;
+    }
+
+
     /**
      * Return the connector type for the requested connector provider.  This is best used for connector providers that
      * can return their own connector type.  Otherwise it makes one up.
@@ -172,6 +197,25 @@ public class OMRSArchiveWriter
     }
 
 
+    /**
+     * Opens a reader over an open metadata archive.
+     *
+     * @param connection connection information for the open metadata archive.
+     * @return archive reader
+     */
+    private OpenMetadataArchiveReader getOpenMetadataArchiveReader(Connection connection)
+    {
+        OpenMetadataArchiveStore openMetadataArchiveStore = this.getOpenMetadataArchive(connection);
+
+        if (openMetadataArchiveStore instanceof OpenMetadataArchiveStoreConnector)
+        {
+            return ((OpenMetadataArchiveStoreConnector) openMetadataArchiveStore).getArchiveReader();
+        }
+
+        return new OpenMetadataArchiveContentsReader(openMetadataArchiveStore.getArchiveContents());
+    }
+
+
     /**
      * Generates and writes out an open metadata archive containing all of the open metadata types.
      *
@@ -187,4 +231,68 @@ public class OMRSArchiveWriter
 
         openMetadataArchiveStore.setArchiveContents(openMetadataArchive);
     }
+
+
+    /**
+     * Writes out an open metadata archive in the binary format.  The binary file is smaller than the JSON file
+     * and the types can be read from it without decoding the instances.
+     *
+     * @param outputFileName name of file to write archive to
+     * @param openMetadataArchive archive content
+     */
+    protected void writeBinaryOpenMetadataArchive(String              outputFileName,
+                                                  OpenMetadataArchive openMetadataArchive)
+    {
+        Connection               connection               = getOpenMetadataArchiveBinaryConnection(outputFileName);
+
+        OpenMetadataArchiveStore openMetadataArchiveStore = this.getOpenMetadataArchive(connection);
+
+        openMetadataArchiveStore.setArchiveContents(openMetadataArchive);
+    }
+
+
+    /**
+     * Reads an open metadata archive from a JSON file.
+     *
+     * @param inputFileName name of file to read archive from
+     * @return archive content
+     */
+    protected OpenMetadataArchive readOpenMetadataArchive(String inputFileName)
+    {
+        Connection               connection               = getOpenMetadataArchiveFileConnection(inputFileName);
+
+        OpenMetadataArchiveStore openMetadataArchiveStore = this.getOpenMetadataArchive(connection);
+
+        return openMetadataArchiveStore.getArchiveContents();
+    }
+
+
+    /**
+     * Opens a reader over an open metadata archive in a JSON file.  The types are read straight away and the
+     * instances are read as they are requested.
+     *
+     * @param inputFileName name of file to read archive from
+     * @return archive reader
+     */
+    protected OpenMetadataArchiveReader openOpenMetadataArchive(String inputFileName)
+    {
+        Connection               connection               = getOpenMetadataArchiveFileConnection(inputFileName);
+
+        return this.getOpenMetadataArchiveReader(connection);
+    }
+
+
+    /**
+     * Opens a reader over an open metadata archive in the binary format.  The types are read straight away and the
+     * instances are read as they are requested.
+     *
+     * @param inputFileName name of file to read archive from
+     * @return archive reader
+     */
+    protected OpenMetadataArchiveReader openBinaryOpenMetadataArchive(String inputFileName)
+    {
+        Connection               connection               = getOpenMetadataArchiveBinaryConnection(inputFileName);
+
+        return this.getOpenMetadataArchiveReader(connection);
+    }
 }
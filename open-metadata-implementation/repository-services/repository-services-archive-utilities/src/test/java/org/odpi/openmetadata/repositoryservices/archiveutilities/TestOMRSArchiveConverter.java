@@ -0,0 +1,167 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.archiveutilities;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.testng.annotations.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test that an archive converted to the binary format reads back with the same contents.
+ */
+public class TestOMRSArchiveConverter
+{
+    @Test
+    public void testConvertToBinary() throws IOException
+    {
+        File directory  = Files.createTempDirectory("omrs-archive").toFile();
+        File jsonFile   = new File(directory, "test.json");
+        File binaryFile = new File(directory, OMRSArchiveConverter.getBinaryFileName("test.json"));
+
+        try
+        {
+            OMRSArchiveConverter converter = new OMRSArchiveConverter();
+            OpenMetadataArchive  archive   = getArchive(1200);
+
+            converter.writeOpenMetadataArchive(jsonFile.getPath(), archive);
+
+            assertTrue(converter.convertToBinary(jsonFile.getPath(), binaryFile.getPath()));
+            assertEquals(binaryFile.getName(), "test.bin");
+
+            List<EntityDetail> entities = new ArrayList<>();
+
+            try (OpenMetadataArchiveReader reader = converter.openBinaryOpenMetadataArchive(binaryFile.getPath()))
+            {
+                assertEquals(reader.getArchiveProperties(), archive.getArchiveProperties());
+                assertEquals(reader.getArchiveTypeStore(), archive.getArchiveTypeStore());
+
+                OpenMetadataArchiveInstanceStore batch = reader.getNextInstanceBatch(500);
+
+                while (batch != null)
+                {
+                    assertTrue(batch.getEntities().size() <= 500);
+                    assertNull(batch.getRelationships());
+                    entities.addAll(batch.getEntities());
+
+                    batch = reader.getNextInstanceBatch(500);
+                }
+            }
+
+            assertEquals(entities, archive.getArchiveInstanceStore().getEntities());
+        }
+        finally
+        {
+            jsonFile.delete();
+            binaryFile.delete();
+            directory.delete();
+        }
+    }
+
+
+    @Test
+    public void testNotBinaryArchive() throws IOException
+    {
+        File jsonFile = File.createTempFile("omrs-archive", ".json");
+
+        try
+        {
+            OMRSArchiveConverter converter = new OMRSArchiveConverter();
+
+            converter.writeOpenMetadataArchive(jsonFile.getPath(), getArchive(1));
+
+            try (OpenMetadataArchiveReader reader = converter.openBinaryOpenMetadataArchive(jsonFile.getPath()))
+            {
+                assertNull(reader.getArchiveProperties());
+                assertNull(reader.getNextInstanceBatch(500));
+            }
+        }
+        finally
+        {
+            jsonFile.delete();
+        }
+    }
+
+
+    @Test
+    public void testCorruptElementLength() throws IOException
+    {
+        File binaryFile = File.createTempFile("omrs-archive", ".bin");
+
+        try
+        {
+            /*
+             * A single uncompressed archive properties section holding an element whose length is far larger
+             * than the section.
+             */
+            try (DataOutputStream binaryStream = new DataOutputStream(new FileOutputStream(binaryFile)))
+            {
+                binaryStream.writeInt(0x4F4D4152);
+                binaryStream.writeShort(1);
+                binaryStream.writeShort(1);
+                binaryStream.writeByte(1);
+                binaryStream.writeByte(0);
+                binaryStream.writeInt(1);
+                binaryStream.writeLong(30L);
+                binaryStream.writeLong(4L);
+                binaryStream.writeInt(Integer.MAX_VALUE - 16);
+            }
+
+            OMRSArchiveConverter converter = new OMRSArchiveConverter();
+
+            try (OpenMetadataArchiveReader reader = converter.openBinaryOpenMetadataArchive(binaryFile.getPath()))
+            {
+                assertNull(reader.getArchiveProperties());
+                assertNull(reader.getNextInstanceBatch(500));
+            }
+        }
+        finally
+        {
+            binaryFile.delete();
+        }
+    }
+
+
+    private OpenMetadataArchive getArchive(int entityCount)
+    {
+        OMRSArchiveBuilder archiveBuilder = new OMRSArchiveBuilder("guid",
+                                                                   "testArchiveName",
+                                                                   "test description",
+                                                                   OpenMetadataArchiveType.CONTENT_PACK,
+                                                                   "testOwner",
+                                                                   null,
+                                                                   null);
+
+        archiveBuilder.addEntityDef(new EntityDef(TypeDefCategory.ENTITY_DEF, "1111", "EntityDefA", 1L, "1"));
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID("entity-" + i);
+            entity.setMetadataCollectionId("guid");
+            entity.setVersion(1L);
+
+            archiveBuilder.addEntity(entity);
+        }
+
+        return archiveBuilder.getOpenMetadataArchive();
+    }
+}
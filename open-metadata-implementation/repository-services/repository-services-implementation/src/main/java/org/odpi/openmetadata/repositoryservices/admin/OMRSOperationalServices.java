@@ -27,6 +27,7 @@ import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRS
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSEnterpriseConnectorManager;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSConnection;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventExchangeRule;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSConfigErrorException;
@@ -87,6 +88,7 @@ public class OMRSOperationalServices
     private String                         enterpriseMetadataCollectionId   = null;
     private String                         enterpriseMetadataCollectionName = null;
     private OMRSTopicConnector             enterpriseOMRSTopicConnector     = null;
+    private FederationWorkerPool           federationWorkerPool             = null;
     private LocalOMRSRepositoryConnector   localRepositoryConnector         = null;
     private OMRSArchiveManager             archiveManager                   = null;
     private OMRSAuditLogDestination        auditLogDestination              = null;
@@ -169,6 +171,7 @@ public class OMRSOperationalServices
 
                 omrsRepositoryConnector.setCallingServiceName(callingServiceName);
                 omrsRepositoryConnector.setMaxPageSize(maxPageSize);
+                omrsRepositoryConnector.setFederationWorkerPool(federationWorkerPool);
 
                 auditLog.logMessage(actionDescription, OMRSAuditCode.NEW_ENTERPRISE_CONNECTOR.getMessageDefinition(callingServiceName));
 
@@ -352,7 +355,9 @@ public class OMRSOperationalServices
         /*
          * The archive manager loads pre-defined types and instances that are stored in open metadata archives.
          */
-        archiveManager = initializeOpenMetadataArchives(repositoryServicesConfig.getOpenMetadataArchiveConnections());
+        archiveManager = initializeOpenMetadataArchives(repositoryServicesConfig.getOpenMetadataArchiveConnections(),
+                                                        repositoryServicesConfig.getArchiveInstanceBatchSize(),
+                                                        repositoryServicesConfig.getArchiveInstanceLoadThreads());
 
         /*
          * Start up the local repository if one is configured.
@@ -380,6 +385,8 @@ public class OMRSOperationalServices
                                                    new OMRSRepositoryContentValidator(localRepositoryContentManager),
                                                    auditLog.createNewAuditLog(OMRSAuditingComponent.REPOSITORY_EVENT_MANAGER));
 
+            localRepositoryEventManager.setInstanceBatchSize(localRepositoryConfig.getInstanceBatchSize());
+
             /*
              * If the enterprise repository services topic is active, then register an event publisher for it.
              * This topic is active if the Open Metadata Access Services (OMASs) are active.
@@ -430,7 +437,8 @@ public class OMRSOperationalServices
         {
             archiveManager.setLocalRepository(localMetadataCollectionId,
                                               localRepositoryContentManager,
-                                              localRepositoryConnector.getIncomingInstanceEventProcessor());
+                                              localRepositoryConnector.getIncomingInstanceEventProcessor(),
+                                              localRepositoryEventManager);
         }
         else
         {
@@ -679,6 +687,14 @@ public class OMRSOperationalServices
              */
             enterpriseMetadataCollectionId = enterpriseAccessConfig.getEnterpriseMetadataCollectionId();
             enterpriseMetadataCollectionName = enterpriseAccessConfig.getEnterpriseMetadataCollectionName();
+
+            /*
+             * The worker pool is shared by all of the EnterpriseOMRSConnectors of this server to issue federated
+             * queries to the members of the cohort(s) in parallel.
+             */
+            federationWorkerPool = new FederationWorkerPool(localServerName,
+                                                            enterpriseAccessConfig.getMaxFederationWorkerThreads(),
+                                                            enterpriseAccessConfig.getFederationMemberTimeout());
         }
 
         return enterpriseConnectorManager;
@@ -747,9 +763,13 @@ public class OMRSOperationalServices
      * Return an OMRS archive manager configured with the list of Open Metadata Archive Stores to use.
      *
      * @param openMetadataArchiveConnections connections to the open metadata archive stores
+     * @param instanceBatchSize number of instances read from an archive at a time (zero means the default)
+     * @param instanceLoadThreads number of threads loading the instances (zero means the default)
      * @return OMRS archive manager
      */
-    private OMRSArchiveManager initializeOpenMetadataArchives(List<Connection>    openMetadataArchiveConnections)
+    private OMRSArchiveManager initializeOpenMetadataArchives(List<Connection>    openMetadataArchiveConnections,
+                                                              int                 instanceBatchSize,
+                                                              int                 instanceLoadThreads)
     {
         ArrayList<OpenMetadataArchiveStoreConnector> openMetadataArchives = null;
 
@@ -770,7 +790,9 @@ public class OMRSOperationalServices
         }
 
         return new OMRSArchiveManager(openMetadataArchives,
-                                      auditLog.createNewAuditLog(OMRSAuditingComponent.ARCHIVE_MANAGER));
+                                      auditLog.createNewAuditLog(OMRSAuditingComponent.ARCHIVE_MANAGER),
+                                      instanceBatchSize,
+                                      instanceLoadThreads);
     }
 
 
@@ -918,6 +940,11 @@ public class OMRSOperationalServices
             }
         }
 
+        if (federationWorkerPool != null)
+        {
+            federationWorkerPool.shutdown();
+        }
+
         if (archiveManager != null)
         {
             archiveManager.close();
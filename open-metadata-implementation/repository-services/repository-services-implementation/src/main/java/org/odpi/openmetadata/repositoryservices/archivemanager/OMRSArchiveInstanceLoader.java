@@ -0,0 +1,634 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.archivemanager;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventProcessorInterface;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OMRSArchiveInstanceLoader passes the instances from an open metadata archive to the local repository.
+ * The instances are read from the archive in batches and each batch is shared between a number of loading threads
+ * (lanes).  An instance is always passed to the lane chosen by its GUID, so that successive versions of the same
+ * instance are processed in the order they appear in the archive.  The next batch is read from the archive while
+ * the lanes process the current batches.  Relationships and classifications refer to entities, so all of the entities
+ * are processed before the first relationship or classification is passed to a lane.
+ *
+ * Progress is recorded in the audit log periodically while the archive loads, and the throughput is recorded
+ * when it completes.
+ */
+class OMRSArchiveInstanceLoader
+{
+    /*
+     * Milliseconds between the progress messages logged while an archive is loading.
+     */
+    private static final long progressInterval = 10000L;
+
+    /*
+     * Number of batches that can be queued on the lanes before the reader waits for the oldest to complete.
+     */
+    private static final int maxBatchesInFlight = 2;
+
+    private final String                              localMetadataCollectionId;
+    private final OMRSInstanceEventProcessorInterface instanceProcessor;
+    private final OMRSRepositoryEventManager          localEventManager;
+    private final AuditLog                            auditLog;
+    private final int                                 loadThreads;
+
+    private final String                 archiveId;
+    private final String                 homeMetadataCollectionId;
+    private final String                 archiveName;
+    private final String                 originatorServerType;
+    private final InstanceProvenanceType provenanceType;
+    private final Date                   archiveCreationTime;
+    private final String                 originatorName;
+    private final String                 originatorOrganizationName;
+    private final String                 originatorLicense;
+
+    private final AtomicInteger          instanceCount = new AtomicInteger(0);
+
+
+    /**
+     * Constructor sets up the header information used for each instance from the archive properties.
+     *
+     * @param localMetadataCollectionId metadata collection Id of the local repository
+     * @param archiveProperties properties describing the archive
+     * @param instanceProcessor the processor to add the instances to the local repository
+     * @param localEventManager outbound event manager of the local repository used to batch the instance events (may be null)
+     * @param auditLog audit log for the archive manager
+     * @param loadThreads number of threads that pass instances to the local repository
+     */
+    OMRSArchiveInstanceLoader(String                              localMetadataCollectionId,
+                              OpenMetadataArchiveProperties       archiveProperties,
+                              OMRSInstanceEventProcessorInterface instanceProcessor,
+                              OMRSRepositoryEventManager          localEventManager,
+                              AuditLog                            auditLog,
+                              int                                 loadThreads)
+    {
+        this.localMetadataCollectionId = localMetadataCollectionId;
+        this.instanceProcessor         = instanceProcessor;
+        this.localEventManager         = localEventManager;
+        this.auditLog                  = auditLog;
+        this.loadThreads               = loadThreads;
+
+        String                 serverType = OpenMetadataArchiveType.CONTENT_PACK.getName();
+        InstanceProvenanceType provenance = InstanceProvenanceType.CONTENT_PACK;
+
+        if (archiveProperties.getArchiveType() == OpenMetadataArchiveType.METADATA_EXPORT)
+        {
+            provenance = InstanceProvenanceType.EXPORT_ARCHIVE;
+            serverType = OpenMetadataArchiveType.METADATA_EXPORT.getName();
+        }
+        else if (archiveProperties.getArchiveType() == OpenMetadataArchiveType.REPOSITORY_BACKUP)
+        {
+            provenance = InstanceProvenanceType.LOCAL_COHORT;
+            serverType = OpenMetadataArchiveType.REPOSITORY_BACKUP.getName();
+        }
+
+        this.homeMetadataCollectionId   = archiveProperties.getArchiveGUID();
+        this.archiveName                = archiveProperties.getArchiveName();
+        this.originatorServerType       = serverType;
+        this.provenanceType             = provenance;
+        this.archiveCreationTime        = archiveProperties.getCreationDate();
+        this.originatorName             = archiveProperties.getOriginatorName();
+        this.originatorOrganizationName = archiveProperties.getOriginatorOrganization();
+        this.originatorLicense          = archiveProperties.getOriginatorLicense();
+        this.archiveId                  = originatorName + " (" + archiveProperties.getArchiveVersion() + ")";
+    }
+
+
+    /**
+     * Read the instances from the archive and pass them to the local repository.  It is possible that this
+     * archive has been processed before and so any duplicates detected are ignored.  However, conflicting
+     * instances are detected.  Any problems found in applying the archive contents are recorded on the audit log.
+     *
+     * @param archiveReader reader positioned at the instances of the archive
+     * @param batchSize maximum number of instances to read from the archive at a time
+     * @return instance count
+     */
+    int loadInstances(OpenMetadataArchiveReader archiveReader,
+                      int                       batchSize)
+    {
+        final String actionDescription = "Process Open Metadata Archive";
+
+        List<ExecutorService>  lanes           = new ArrayList<>();
+        Deque<List<Future<?>>> batchesInFlight = new ArrayDeque<>();
+        long                   startTime       = System.currentTimeMillis();
+        long                   lastProgress    = startTime;
+        boolean                loadingEntities = true;
+
+        try
+        {
+            OpenMetadataArchiveInstanceStore batch = archiveReader.getNextInstanceBatch(batchSize);
+
+            if (batch != null)
+            {
+                lanes.addAll(createLanes());
+            }
+
+            while (batch != null)
+            {
+                List<EntityDetail>                  entities        = batch.getEntities();
+                List<Relationship>                  relationships   = batch.getRelationships();
+                List<ClassificationEntityExtension> classifications = batch.getClassifications();
+
+                /*
+                 * The relationships and classifications may refer to any of the entities, so wait
+                 * for all of the entities to be processed before they are passed on.
+                 */
+                if (loadingEntities && ((relationships != null) || (classifications != null)))
+                {
+                    waitForBatches(batchesInFlight, 0);
+                    loadingEntities = false;
+                }
+
+                List<List<InstanceAuditHeader>> laneInstances = new ArrayList<>();
+
+                for (int i = 0; i < Math.max(1, lanes.size()); i++)
+                {
+                    laneInstances.add(new ArrayList<>());
+                }
+
+                addToLanes(entities, laneInstances);
+                addToLanes(relationships, laneInstances);
+
+                if (classifications != null)
+                {
+                    for (ClassificationEntityExtension classificationEntityExtension : classifications)
+                    {
+                        if (classificationEntityExtension != null)
+                        {
+                            processClassification(classificationEntityExtension);
+                        }
+                    }
+                }
+
+                if (lanes.isEmpty())
+                {
+                    processInstances(laneInstances.get(0));
+                }
+                else
+                {
+                    List<Future<?>> batchTasks = new ArrayList<>();
+
+                    for (int i = 0; i < lanes.size(); i++)
+                    {
+                        List<InstanceAuditHeader> instances = laneInstances.get(i);
+
+                        if (! instances.isEmpty())
+                        {
+                            batchTasks.add(lanes.get(i).submit(() -> processInstances(instances)));
+                        }
+                    }
+
+                    batchesInFlight.addLast(batchTasks);
+                    waitForBatches(batchesInFlight, maxBatchesInFlight);
+                }
+
+                long now = System.currentTimeMillis();
+
+                if (now - lastProgress >= progressInterval)
+                {
+                    auditLog.logMessage(actionDescription,
+                                        OMRSAuditCode.ARCHIVE_LOAD_PROGRESS.getMessageDefinition(Integer.toString(instanceCount.get()),
+                                                                                                 archiveName,
+                                                                                                 formatSeconds(now - startTime),
+                                                                                                 formatRate(instanceCount.get(), now - startTime)));
+                    lastProgress = now;
+                }
+
+                batch = archiveReader.getNextInstanceBatch(batchSize);
+            }
+
+            waitForBatches(batchesInFlight, 0);
+        }
+        catch (IOException error)
+        {
+            waitForBatches(batchesInFlight, 0);
+
+            auditLog.logException(actionDescription,
+                                  OMRSAuditCode.ARCHIVE_READ_ERROR.getMessageDefinition(archiveName,
+                                                                                        Integer.toString(instanceCount.get()),
+                                                                                        error.getClass().getName(),
+                                                                                        error.getMessage()),
+                                  error);
+        }
+        finally
+        {
+            for (ExecutorService lane : lanes)
+            {
+                lane.shutdownNow();
+            }
+        }
+
+        long elapsedTime = System.currentTimeMillis() - startTime;
+
+        if (instanceCount.get() > 0)
+        {
+            auditLog.logMessage(actionDescription,
+                                OMRSAuditCode.ARCHIVE_LOAD_THROUGHPUT.getMessageDefinition(Integer.toString(instanceCount.get()),
+                                                                                           archiveName,
+                                                                                           formatSeconds(elapsedTime),
+                                                                                           formatRate(instanceCount.get(), elapsedTime),
+                                                                                           Integer.toString(Math.max(1, lanes.size()))));
+        }
+
+        return instanceCount.get();
+    }
+
+
+    /**
+     * Create the single threaded executors that pass the instances to the local repository.  No lanes are created if
+     * the instances are to be processed on the calling thread.
+     *
+     * @return list of lanes
+     */
+    private List<ExecutorService> createLanes()
+    {
+        List<ExecutorService> lanes = new ArrayList<>();
+
+        if (loadThreads > 1)
+        {
+            ThreadFactory threadFactory = new LoaderThreadFactory(archiveName);
+
+            for (int i = 0; i < loadThreads; i++)
+            {
+                lanes.add(Executors.newSingleThreadExecutor(threadFactory));
+            }
+        }
+
+        return lanes;
+    }
+
+
+    /**
+     * Add each instance to the lane chosen by its GUID.
+     *
+     * @param instances instances from the archive
+     * @param laneInstances list of instances for each lane
+     */
+    private void addToLanes(List<? extends InstanceAuditHeader> instances,
+                            List<List<InstanceAuditHeader>>     laneInstances)
+    {
+        if (instances != null)
+        {
+            for (InstanceAuditHeader instance : instances)
+            {
+                if (instance != null)
+                {
+                    int lane = 0;
+
+                    if (instance instanceof InstanceHeader && ((InstanceHeader) instance).getGUID() != null)
+                    {
+                        lane = Math.floorMod(((InstanceHeader) instance).getGUID().hashCode(), laneInstances.size());
+                    }
+
+                    laneInstances.get(lane).add(instance);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Wait until no more than the requested number of batches are in flight.  A failure in processing
+     * an instance is passed to the caller.
+     *
+     * @param batchesInFlight batches submitted to the lanes, oldest first
+     * @param maxBatches number of batches that can remain in flight
+     */
+    private void waitForBatches(Deque<List<Future<?>>> batchesInFlight,
+                                int                    maxBatches)
+    {
+        while (batchesInFlight.size() > maxBatches)
+        {
+            for (Future<?> task : batchesInFlight.removeFirst())
+            {
+                try
+                {
+                    task.get();
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while loading open metadata archive " + archiveName, interrupted);
+                }
+                catch (ExecutionException error)
+                {
+                    if (error.getCause() instanceof RuntimeException)
+                    {
+                        throw (RuntimeException) error.getCause();
+                    }
+                    else if (error.getCause() instanceof Error)
+                    {
+                        throw (Error) error.getCause();
+                    }
+
+                    throw new IllegalStateException(error.getCause());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Pass a list of entities and relationships to the local repository.  The instance events sent by the
+     * local repository for the list are batched up by its outbound event manager.
+     *
+     * @param instances instances from one lane of a batch
+     */
+    private void processInstances(List<InstanceAuditHeader> instances)
+    {
+        if (localEventManager != null)
+        {
+            localEventManager.startInstanceBatch();
+        }
+
+        try
+        {
+            for (InstanceAuditHeader instance : instances)
+            {
+                if (instance instanceof EntityDetail)
+                {
+                    processEntity((EntityDetail) instance);
+                }
+                else if (instance instanceof Relationship)
+                {
+                    processRelationship((Relationship) instance);
+                }
+
+                instanceCount.incrementAndGet();
+            }
+        }
+        finally
+        {
+            if (localEventManager != null)
+            {
+                localEventManager.endInstanceBatch();
+            }
+        }
+    }
+
+
+    /**
+     * Pass an entity to the local repository.
+     *
+     * @param entity entity from the archive
+     */
+    private void processEntity(EntityDetail entity)
+    {
+        this.setInstanceAuditHeader(entity);
+
+        /*
+         * There is no need to support delete in archive because the elements are
+         * reference copies and can be deleted from the receiving repositories.
+         */
+        if (entity.getVersion() == 1L)
+        {
+            instanceProcessor.processNewEntityEvent(archiveId,
+                                                    homeMetadataCollectionId,
+                                                    archiveName,
+                                                    originatorServerType,
+                                                    originatorOrganizationName,
+                                                    entity);
+        }
+        else
+        {
+            instanceProcessor.processUpdatedEntityEvent(archiveId,
+                                                        homeMetadataCollectionId,
+                                                        archiveName,
+                                                        originatorServerType,
+                                                        originatorOrganizationName,
+                                                        null,
+                                                        entity);
+        }
+    }
+
+
+    /**
+     * Pass a relationship to the local repository.
+     *
+     * @param relationship relationship from the archive
+     */
+    private void processRelationship(Relationship relationship)
+    {
+        this.setInstanceAuditHeader(relationship);
+
+        /*
+         * There is no need to support delete in archive because the elements are
+         * reference copies and can be deleted from the receiving repositories.
+         */
+        if (relationship.getVersion() == 1L)
+        {
+            instanceProcessor.processNewRelationshipEvent(archiveId,
+                                                          homeMetadataCollectionId,
+                                                          archiveName,
+                                                          originatorServerType,
+                                                          originatorOrganizationName,
+                                                          relationship);
+        }
+        else
+        {
+            instanceProcessor.processUpdatedRelationshipEvent(archiveId,
+                                                              homeMetadataCollectionId,
+                                                              archiveName,
+                                                              originatorServerType,
+                                                              originatorOrganizationName,
+                                                              null,
+                                                              relationship);
+        }
+    }
+
+
+    /**
+     * Set up the header of a classification from the archive.
+     *
+     * @param classificationEntityExtension classification from the archive
+     */
+    private void processClassification(ClassificationEntityExtension classificationEntityExtension)
+    {
+        Classification classification = classificationEntityExtension.getClassification();
+
+        if (classification != null)
+        {
+            this.setInstanceAuditHeader(classification);
+
+            classificationEntityExtension.setClassification(classification);
+        }
+
+        // Todo
+        /* new methods required
+        if (classification.getVersion() == 1L)
+        {
+            instanceProcessor.processNewClassificationEvent(archiveId,
+                                                            homeMetadataCollectionId,
+                                                            originatorServerName,
+                                                            originatorServerType,
+                                                            originatorOrganizationName,
+                                                            classificationEntityExtension);
+        }
+        else
+        {
+            instanceProcessor.processUpdatedClassificationEvent(archiveId,
+                                                                homeMetadataCollectionId,
+                                                                originatorServerName,
+                                                                originatorServerType,
+                                                                originatorOrganizationName,
+                                                                classificationEntityExtension);
+        }
+
+        instanceCount ++;
+        */
+    }
+
+
+    /**
+     * Set up the header of an archive instance.  The header information from the archive
+     * is used in the instance header unless it is set up explicitly in an export archive.
+     * The local metadata collection Id is set in the replicatedBy attribute to enable this
+     * repository to send out refresh events about this archive.
+     *
+     * @param instance instance to fill in
+     */
+    private void setInstanceAuditHeader(InstanceAuditHeader    instance)
+    {
+        if (provenanceType == InstanceProvenanceType.EXPORT_ARCHIVE)
+        {
+            if (instance.getMetadataCollectionId() == null)
+            {
+                instance.setMetadataCollectionId(homeMetadataCollectionId);
+            }
+
+            if (instance.getMetadataCollectionName() == null)
+            {
+                instance.setMetadataCollectionName(archiveName);
+            }
+
+            if (instance.getCreatedBy() == null)
+            {
+                instance.setCreatedBy(originatorName);
+            }
+
+            if (instance.getCreateTime() == null)
+            {
+                instance.setCreateTime(archiveCreationTime);
+            }
+
+            if (instance.getInstanceProvenanceType() == null)
+            {
+                instance.setInstanceProvenanceType(provenanceType);
+            }
+
+            if (instance.getInstanceLicense() == null)
+            {
+                instance.setInstanceLicense(originatorLicense);
+            }
+
+            if (instance.getReplicatedBy() == null)
+            {
+                instance.setReplicatedBy(localMetadataCollectionId);
+            }
+        }
+        else if (provenanceType == InstanceProvenanceType.CONTENT_PACK)
+        {
+            instance.setMetadataCollectionId(homeMetadataCollectionId);
+            instance.setMetadataCollectionName(archiveName);
+            instance.setCreatedBy(originatorName);
+            instance.setCreateTime(archiveCreationTime);
+            instance.setInstanceProvenanceType(InstanceProvenanceType.CONTENT_PACK);
+            instance.setInstanceLicense(originatorLicense);
+            instance.setReplicatedBy(localMetadataCollectionId);
+        }
+
+        /*
+         * The first version is 1 not 0.
+         */
+        if (instance.getVersion() == 0L)
+        {
+            instance.setVersion(1L);
+        }
+    }
+
+
+    /**
+     * Format a number of milliseconds as seconds for the audit log.
+     *
+     * @param elapsedTime milliseconds
+     * @return seconds to one decimal place
+     */
+    private static String formatSeconds(long elapsedTime)
+    {
+        return String.format("%.1f", elapsedTime / 1000.0);
+    }
+
+
+    /**
+     * Format the number of instances loaded per second for the audit log.
+     *
+     * @param count number of instances
+     * @param elapsedTime milliseconds
+     * @return instances per second
+     */
+    private static String formatRate(int  count,
+                                     long elapsedTime)
+    {
+        return Long.toString((count * 1000L) / Math.max(1L, elapsedTime));
+    }
+
+
+    /**
+     * LoaderThreadFactory creates daemon threads with names that identify the archive.
+     */
+    private static class LoaderThreadFactory implements ThreadFactory
+    {
+        private final String        threadNamePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+
+        /**
+         * Constructor
+         *
+         * @param archiveName name of the archive
+         */
+        LoaderThreadFactory(String archiveName)
+        {
+            this.threadNamePrefix = "ArchiveLoader-" + archiveName + "-";
+        }
+
+
+        /**
+         * Create a new loader thread.
+         *
+         * @param runnable work for the thread
+         * @return thread
+         */
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
@@ -9,18 +9,20 @@ import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.*;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventProcessorInterface;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentsReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
 import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEventProcessorInterface;
 import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconnector.LocalOMRSInstanceEventProcessor;
 import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentManager;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -33,6 +35,15 @@ public class OMRSArchiveManager
     private List<OpenMetadataArchiveStoreConnector> openMetadataArchiveStores   = new ArrayList<>();
     private OMRSRepositoryContentManager            repositoryContentManager    = null;
     private LocalOMRSInstanceEventProcessor         localInstanceEventProcessor = null;
+    private OMRSRepositoryEventManager              localEventManager           = null;
+    private int                                     instanceBatchSize;
+    private int                                     instanceLoadThreads;
+
+    /*
+     * The instances in an archive are read and passed to the local repository in batches by a number of threads.
+     */
+    private static final int defaultInstanceBatchSize   = 500;
+    private static final int defaultInstanceLoadThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
 
 
     /*
@@ -51,7 +62,28 @@ public class OMRSArchiveManager
     public OMRSArchiveManager(List<OpenMetadataArchiveStoreConnector>    startUpOpenMetadataArchives,
                               AuditLog                                   auditLog)
     {
-        this.auditLog = auditLog;
+        this(startUpOpenMetadataArchives, auditLog, defaultInstanceBatchSize, defaultInstanceLoadThreads);
+    }
+
+
+    /**
+     * Constructor to save the initial list of open metadata archives from the server startup configuration
+     * along with the settings for loading the instances from the archives.
+     *
+     * @param startUpOpenMetadataArchives  initial list of open metadata archives provided in startup configuration
+     * @param auditLog audit log for this component.
+     * @param instanceBatchSize number of instances read from an archive at a time (zero or less means the default)
+     * @param instanceLoadThreads number of threads passing instances to the local repository (1 means the calling thread,
+     *                            zero or less means the default)
+     */
+    public OMRSArchiveManager(List<OpenMetadataArchiveStoreConnector>    startUpOpenMetadataArchives,
+                              AuditLog                                   auditLog,
+                              int                                        instanceBatchSize,
+                              int                                        instanceLoadThreads)
+    {
+        this.auditLog            = auditLog;
+        this.instanceBatchSize   = (instanceBatchSize > 0) ? instanceBatchSize : defaultInstanceBatchSize;
+        this.instanceLoadThreads = (instanceLoadThreads > 0) ? instanceLoadThreads : defaultInstanceLoadThreads;
 
         if (startUpOpenMetadataArchives != null)
         {
@@ -95,10 +127,29 @@ public class OMRSArchiveManager
     public void setLocalRepository(String                           localMetadataCollectionId,
                                    OMRSRepositoryContentManager     repositoryContentManager,
                                    LocalOMRSInstanceEventProcessor  instanceProcessor)
+    {
+        this.setLocalRepository(localMetadataCollectionId, repositoryContentManager, instanceProcessor, null);
+    }
+
+
+    /**
+     * The local repository is accessed through its inbound event processors.  The outbound event manager
+     * of the local repository is used to batch up the instance events sent as the archive instances are loaded.
+     *
+     * @param localMetadataCollectionId metadata collection id of the local repository
+     * @param repositoryContentManager typeDef processor for the local repository
+     * @param instanceProcessor  instance processor for the local repository
+     * @param localEventManager outbound event manager for the local repository (may be null)
+     */
+    public void setLocalRepository(String                           localMetadataCollectionId,
+                                   OMRSRepositoryContentManager     repositoryContentManager,
+                                   LocalOMRSInstanceEventProcessor  instanceProcessor,
+                                   OMRSRepositoryEventManager       localEventManager)
     {
         this.localMetadataCollectionId = localMetadataCollectionId;
         this.repositoryContentManager = repositoryContentManager;
         this.localInstanceEventProcessor = instanceProcessor;
+        this.localEventManager = localEventManager;
 
         /*
          * The repository content manager is seeded with all of the open metadata types.
@@ -140,7 +191,10 @@ public class OMRSArchiveManager
         OpenMetadataArchive      openMetadataTypes        = openMetadataTypesArchive.getOpenMetadataArchive();
 
         repositoryContentManager.setOpenMetadataTypesOriginGUID(openMetadataTypesArchive.getArchiveGUID());
-        processOpenMetadataArchive(openMetadataTypes, "Open Metadata Types", repositoryContentManager, localInstanceEventProcessor);
+        processOpenMetadataArchive(new OpenMetadataArchiveContentsReader(openMetadataTypes),
+                                   "Open Metadata Types",
+                                   repositoryContentManager,
+                                   localInstanceEventProcessor);
     }
 
 
@@ -162,11 +216,11 @@ public class OMRSArchiveManager
         {
             /*
              * Each archive store has a header, a section of new type definitions (TypeDefs) and a section of
-             * metadata instances.
+             * metadata instances.  The reader returns the instances in batches as they are read from the store.
              */
-            OpenMetadataArchive archiveContent = archiveStore.getArchiveContents();
+            OpenMetadataArchiveReader archiveReader = archiveStore.getArchiveReader();
 
-            if (archiveContent == null)
+            if (archiveReader == null)
             {
                 final String     actionDescription = "Process Open Metadata Archive";
 
@@ -174,7 +228,14 @@ public class OMRSArchiveManager
             }
             else
             {
-                processOpenMetadataArchive(archiveContent, archiveSource, typeDefProcessor, instanceProcessor);
+                try
+                {
+                    processOpenMetadataArchive(archiveReader, archiveSource, typeDefProcessor, instanceProcessor);
+                }
+                finally
+                {
+                    archiveReader.close();
+                }
             }
         }
     }
@@ -184,27 +245,26 @@ public class OMRSArchiveManager
      * Step through the content of an open metadata archive, passing its contents to the local repository (if it
      * exists).
      *
-     * @param archiveContent open metadata archive to process
+     * @param archiveReader reader for the open metadata archive to process
      * @param archiveSource source of the archive - such as file name
      * @param typeDefProcessor processor of type definitions found in the archive
      * @param instanceProcessor processor of instances found in the archive
      */
-    private void processOpenMetadataArchive(OpenMetadataArchive                   archiveContent,
+    private void processOpenMetadataArchive(OpenMetadataArchiveReader             archiveReader,
                                             String                                archiveSource,
                                             OMRSTypeDefEventProcessorInterface    typeDefProcessor,
                                             OMRSInstanceEventProcessorInterface   instanceProcessor)
     {
         final String     actionDescription = "Process Open Metadata Archive";
 
-        OpenMetadataArchiveProperties archiveProperties = archiveContent.getArchiveProperties();
+        OpenMetadataArchiveProperties archiveProperties = archiveReader.getArchiveProperties();
 
         if (archiveProperties != null)
         {
             auditLog.logMessage(actionDescription, OMRSAuditCode.PROCESSING_ARCHIVE.getMessageDefinition(archiveProperties.getArchiveName()));
 
 
-            OpenMetadataArchiveTypeStore     archiveTypeStore     = archiveContent.getArchiveTypeStore();
-            OpenMetadataArchiveInstanceStore archiveInstanceStore = archiveContent.getArchiveInstanceStore();
+            OpenMetadataArchiveTypeStore     archiveTypeStore     = archiveReader.getArchiveTypeStore();
 
             int                              typeCount            = 0;
             int                              instanceCount        = 0;
@@ -215,9 +275,20 @@ public class OMRSArchiveManager
                 typeCount = this.processTypeDefStore(archiveProperties, archiveTypeStore, typeDefProcessor);
             }
 
-            if (archiveInstanceStore != null)
+            if (instanceProcessor != null)
             {
-                instanceCount = this.processInstanceStore(archiveProperties, archiveInstanceStore, instanceProcessor);
+                OMRSArchiveInstanceLoader instanceLoader = new OMRSArchiveInstanceLoader(localMetadataCollectionId,
+                                                                                         archiveProperties,
+                                                                                         instanceProcessor,
+                                                                                         localEventManager,
+                                                                                         auditLog,
+                                                                                         instanceLoadThreads);
+
+                instanceCount = instanceLoader.loadInstances(archiveReader, instanceBatchSize);
+            }
+            else
+            {
+                this.checkNoInstances(archiveReader);
             }
 
             auditLog.logMessage(actionDescription,
@@ -341,277 +412,27 @@ public class OMRSArchiveManager
 
 
     /**
-     * The InstanceStore is in three parts: an optional list of entities followed by an optional list
-     * of relationships followed by an optional list of classifications.
-     *
-     * It is possible that this archive has been processed before
-     * and so any duplicates detected are ignored.  However, conflicting instances are detected.
-     * Any problems found in applying the archive contents are recorded on the audit log.
-     *
-     * @param archiveProperties properties describing the archive used in logging
-     * @param archiveInstanceStore the instance store to process
-     * @param instanceProcessor the processor to add the instances to the local repository.  It may be null
-     *                          if there is no local repository configured for this server.
-     * @return instance count
-     */
-    private int  processInstanceStore(OpenMetadataArchiveProperties             archiveProperties,
-                                      OpenMetadataArchiveInstanceStore          archiveInstanceStore,
-                                      OMRSInstanceEventProcessorInterface       instanceProcessor)
-    {
-        List<EntityDetail>                  entities        = archiveInstanceStore.getEntities();
-        List<Relationship>                  relationships   = archiveInstanceStore.getRelationships();
-        List<ClassificationEntityExtension> classifications = archiveInstanceStore.getClassifications();
-        int                                 instanceCount   = 0;
-
-        if (instanceProcessor != null)
-        {
-            String                 homeMetadataCollectionId   = archiveProperties.getArchiveGUID();
-            String                 archiveName                = archiveProperties.getArchiveName();
-            String                 originatorServerType       = OpenMetadataArchiveType.CONTENT_PACK.getName();
-            InstanceProvenanceType provenanceType             = InstanceProvenanceType.CONTENT_PACK;
-            Date                   archiveCreationTime        = archiveProperties.getCreationDate();
-            String                 originatorName             = archiveProperties.getOriginatorName();
-            String                 archiveVersion             = archiveProperties.getArchiveVersion();
-            String                 originatorOrganizationName = archiveProperties.getOriginatorOrganization();
-            String                 originatorLicense          = archiveProperties.getOriginatorLicense();
-
-            String archiveId = originatorName + " (" + archiveVersion + ")";
-
-            if (archiveProperties.getArchiveType() == OpenMetadataArchiveType.METADATA_EXPORT)
-            {
-                provenanceType       = InstanceProvenanceType.EXPORT_ARCHIVE;
-                originatorServerType = OpenMetadataArchiveType.METADATA_EXPORT.getName();
-            }
-            else if (archiveProperties.getArchiveType() == OpenMetadataArchiveType.REPOSITORY_BACKUP)
-            {
-                provenanceType       = InstanceProvenanceType.LOCAL_COHORT;
-                originatorServerType = OpenMetadataArchiveType.REPOSITORY_BACKUP.getName();
-            }
-
-            if (entities != null)
-            {
-                for (EntityDetail entity : entities)
-                {
-                    if (entity != null)
-                    {
-                        this.setInstanceAuditHeader(localMetadataCollectionId,
-                                                    homeMetadataCollectionId,
-                                                    archiveName,
-                                                    originatorName,
-                                                    archiveCreationTime,
-                                                    provenanceType,
-                                                    originatorLicense,
-                                                    entity);
-
-                        /*
-                         * There is no need to support delete in archive because the elements are
-                         * reference copies and can be deleted from the receiving repositories.
-                         */
-                        if (entity.getVersion() == 1L)
-                        {
-                            instanceProcessor.processNewEntityEvent(archiveId,
-                                                                    homeMetadataCollectionId,
-                                                                    archiveName,
-                                                                    originatorServerType,
-                                                                    originatorOrganizationName,
-                                                                    entity);
-                        }
-                        else
-                        {
-                            instanceProcessor.processUpdatedEntityEvent(archiveId,
-                                                                        homeMetadataCollectionId,
-                                                                        archiveName,
-                                                                        originatorServerType,
-                                                                        originatorOrganizationName,
-                                                                        null,
-                                                                        entity);
-                        }
-
-                        instanceCount++;
-                    }
-                }
-            }
-
-            if (relationships != null)
-            {
-                for (Relationship relationship : relationships)
-                {
-                    if (relationship != null)
-                    {
-                        this.setInstanceAuditHeader(localMetadataCollectionId,
-                                                    homeMetadataCollectionId,
-                                                    archiveName,
-                                                    originatorName,
-                                                    archiveCreationTime,
-                                                    provenanceType,
-                                                    originatorLicense,
-                                                    relationship);
-
-                        /*
-                         * There is no need to support delete in archive because the elements are
-                         * reference copies and can be deleted from the receiving repositories.
-                         */
-                        if (relationship.getVersion() == 1L)
-                        {
-                            instanceProcessor.processNewRelationshipEvent(archiveId,
-                                                                          homeMetadataCollectionId,
-                                                                          archiveName,
-                                                                          originatorServerType,
-                                                                          originatorOrganizationName,
-                                                                          relationship);
-                        }
-                        else
-                        {
-                            instanceProcessor.processUpdatedRelationshipEvent(archiveId,
-                                                                              homeMetadataCollectionId,
-                                                                              archiveName,
-                                                                              originatorServerType,
-                                                                              originatorOrganizationName,
-                                                                              null,
-                                                                              relationship);
-                        }
-
-                        instanceCount ++;
-                    }
-                }
-            }
-
-
-            if (classifications != null)
-            {
-                for (ClassificationEntityExtension classificationEntityExtension : classifications)
-                {
-                    if (classificationEntityExtension != null)
-                    {
-                        Classification classification = classificationEntityExtension.getClassification();
-
-                        this.setInstanceAuditHeader(localMetadataCollectionId,
-                                                    homeMetadataCollectionId,
-                                                    archiveName,
-                                                    originatorName,
-                                                    archiveCreationTime,
-                                                    provenanceType,
-                                                    originatorLicense,
-                                                    classification);
-
-                        classificationEntityExtension.setClassification(classification);
-
-                        // Todo
-                        /* new methods required
-                        if (classification.getVersion() == 1L)
-                        {
-                            instanceProcessor.processNewClassificationEvent(archiveId,
-                                                                            homeMetadataCollectionId,
-                                                                            originatorServerName,
-                                                                            originatorServerType,
-                                                                            originatorOrganizationName,
-                                                                            classificationEntityExtension);
-                        }
-                        else
-                        {
-                            instanceProcessor.processUpdatedClassificationEvent(archiveId,
-                                                                                homeMetadataCollectionId,
-                                                                                originatorServerName,
-                                                                                originatorServerType,
-                                                                                originatorOrganizationName,
-                                                                                classificationEntityExtension);
-                        }
-
-                        instanceCount ++;
-                        */
-                    }
-                }
-            }
-        }
-        else
-        {
-            final String actionDescription = "Processing instances from archive";
-
-            auditLog.logMessage(actionDescription, OMRSAuditCode.NO_INSTANCE_PROCESSOR.getMessageDefinition());
-        }
-
-        return instanceCount;
-    }
-
-
-    /**
-     * Set up the header of an archive instance.  The header information from the archive
-     * is used in the instance header unless it is set up explicitly in an export archive.
-     * The local metadata collection Id is set in the replicatedBy attribute to enable this
-     * repository to send out refresh events about this archive.
+     * Instances can only be loaded if there is a local repository.  If the archive contains instances
+     * then record that they are not processed.
      *
-     * @param localMetadataCollectionId metadata collection Id of the local repository
-     * @param metadataCollectionId home metadata collection id
-     * @param metadataConnectionName name of the metadata collection
-     * @param originatorName originator name
-     * @param creationTime creation time of archive
-     * @param provenanceType type of archive
-     * @param originatorLicense any license info
-     * @param instance instance to fill in
+     * @param archiveReader reader positioned at the instances of the archive
      */
-    private void setInstanceAuditHeader(String                 localMetadataCollectionId,
-                                        String                 metadataCollectionId,
-                                        String                 metadataConnectionName,
-                                        String                 originatorName,
-                                        Date                   creationTime,
-                                        InstanceProvenanceType provenanceType,
-                                        String                 originatorLicense,
-                                        InstanceAuditHeader    instance)
+    private void checkNoInstances(OpenMetadataArchiveReader archiveReader)
     {
-        if (provenanceType == InstanceProvenanceType.EXPORT_ARCHIVE)
+        try
         {
-            if (instance.getMetadataCollectionId() == null)
-            {
-                instance.setMetadataCollectionId(metadataCollectionId);
-            }
-
-            if (instance.getMetadataCollectionName() == null)
-            {
-                instance.setMetadataCollectionName(metadataConnectionName);
-            }
-
-            if (instance.getCreatedBy() == null)
-            {
-                instance.setCreatedBy(originatorName);
-            }
-
-            if (instance.getCreateTime() == null)
-            {
-                instance.setCreateTime(creationTime);
-            }
-
-            if (instance.getInstanceProvenanceType() == null)
+            if (archiveReader.getNextInstanceBatch(1) != null)
             {
-                instance.setInstanceProvenanceType(provenanceType);
-            }
+                final String actionDescription = "Processing instances from archive";
 
-            if (instance.getInstanceLicense() == null)
-            {
-                instance.setInstanceLicense(originatorLicense);
-            }
-
-            if (instance.getReplicatedBy() == null)
-            {
-                instance.setReplicatedBy(localMetadataCollectionId);
+                auditLog.logMessage(actionDescription, OMRSAuditCode.NO_INSTANCE_PROCESSOR.getMessageDefinition());
             }
         }
-        else if (provenanceType == InstanceProvenanceType.CONTENT_PACK)
+        catch (IOException error)
         {
-            instance.setMetadataCollectionId(metadataCollectionId);
-            instance.setMetadataCollectionName(metadataConnectionName);
-            instance.setCreatedBy(originatorName);
-            instance.setCreateTime(creationTime);
-            instance.setInstanceProvenanceType(InstanceProvenanceType.CONTENT_PACK);
-            instance.setInstanceLicense(originatorLicense);
-            instance.setReplicatedBy(localMetadataCollectionId);
-        }
-
-        /*
-         * The first version is 1 not 0.
-         */
-        if (instance.getVersion() == 0L)
-        {
-            instance.setVersion(1L);
+            /*
+             * The instances are not being loaded so there is nothing to report.
+             */
         }
     }
 }
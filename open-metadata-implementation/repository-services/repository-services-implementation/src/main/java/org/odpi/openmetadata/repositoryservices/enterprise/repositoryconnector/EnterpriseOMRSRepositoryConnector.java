@@ -13,6 +13,9 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorConsumer;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.FederatedPagingCursorCache;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
@@ -45,7 +48,9 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     private String                              localMetadataCollectionId = null;
     private List<FederatedConnector>            remoteCohortConnectors    = new ArrayList<>();
 
-    private String callingServiceName = null;
+    private String                     callingServiceName   = null;
+    private FederationWorkerPool       federationWorkerPool = null;
+    private FederatedPagingCursorCache pagingCursorCache    = new FederatedPagingCursorCache();
 
     private static final Logger log = LoggerFactory.getLogger(EnterpriseOMRSRepositoryConnector.class);
 
@@ -106,6 +111,39 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     }
 
 
+    /**
+     * Set up the pool of worker threads used to issue federated requests to the cohort members in parallel.
+     *
+     * @param federationWorkerPool worker pool for the server (null means requests are issued sequentially)
+     */
+    public void setFederationWorkerPool(FederationWorkerPool federationWorkerPool)
+    {
+        this.federationWorkerPool = federationWorkerPool;
+    }
+
+
+    /**
+     * Return the pool of worker threads used to issue federated requests to the cohort members in parallel.
+     *
+     * @return worker pool or null
+     */
+    FederationWorkerPool getFederationWorkerPool()
+    {
+        return federationWorkerPool;
+    }
+
+
+    /**
+     * Return the continuation cursors for the paged requests issued through this connector.
+     *
+     * @return cursor cache
+     */
+    FederatedPagingCursorCache getPagingCursorCache()
+    {
+        return pagingCursorCache;
+    }
+
+
     /**
      * Indicates that the connector is completely configured and can begin processing.
      *
@@ -483,6 +521,22 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     }
 
 
+    /**
+     * Return the event manager that sends the events for the instances created in the local repository.
+     *
+     * @return event manager or null if there is no local repository
+     */
+    synchronized OMRSRepositoryEventManager getLocalOutboundEventManager()
+    {
+        if (localConnector == null)
+        {
+            return null;
+        }
+
+        return localConnector.getOutboundRepositoryEventManager();
+    }
+
+
     /**
      * Request the refresh of this instance.
      *
@@ -530,6 +584,7 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     {
         this.localMetadataCollectionId = metadataCollectionId;
         this.localConnector = localConnector;
+        this.pagingCursorCache.clear();
 
         if (localConnector != null)
         {
@@ -554,6 +609,7 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
             if (federatedConnector == null)
             {
                 remoteCohortConnectors.add(new FederatedConnector(metadataCollectionId, remoteConnector));
+                pagingCursorCache.clear();
 
                 if (auditLog != null)
                 {
@@ -603,6 +659,8 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
             }
         }
 
+        pagingCursorCache.clear();
+
         if (auditLog != null)
         {
             final String actionDescription = "Processing incoming registration request from remote cohort member";
@@ -18,6 +18,8 @@ import java.util.Map;
 /**
  * EntityAccumulator accumulates and validates entities received from a collection of open metadata
  * repositories.  It removes duplicates from the list by choosing the latest entity details object.
+ * The results from each repository are also kept in the order they were returned so that they can be
+ * merged into the requested page.
  *
  * This class may be called simultaneously from many different threads so it must be thread-safe.
  */
@@ -25,6 +27,7 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
 {
     private volatile Map<String, EntityDetail>         accumulatedEntities        = new HashMap<>();
     private volatile Map<String, List<Classification>> accumulatedClassifications = new HashMap<>();
+    private volatile Map<String, List<EntityDetail>>   memberEntities             = new HashMap<>();
 
 
     /**
@@ -149,11 +152,28 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addEntities(List<EntityDetail>   entities,
                                          String               metadataCollectionId)
     {
+        if (super.isResultsClosed())
+        {
+            return;
+        }
+
         if (entities != null)
         {
+            List<EntityDetail> validEntities = new ArrayList<>();
+
             for (EntityDetail entity : entities)
             {
                 this.addEntity(entity, metadataCollectionId);
+
+                if ((entity != null) && (entity.getGUID() != null))
+                {
+                    validEntities.add(entity);
+                }
+            }
+
+            if (metadataCollectionId != null)
+            {
+                memberEntities.put(metadataCollectionId, validEntities);
             }
 
             /*
@@ -171,10 +191,22 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
     }
 
 
+    /**
+     * Return the number of unique entities accumulated so far.
+     *
+     * @return count of entities
+     */
+    @Override
+    public synchronized int getInstanceCount()
+    {
+        return accumulatedEntities.size();
+    }
+
+
     /**
      * Extract the results - this will the a unique list of entities selected from the instances
-     * supplied to this accumulator.  It should be called once all of the executors have completed processing
-     * their request(s).
+     * supplied to this accumulator.  The results from each repository are merged to select the requested page.
+     * It should be called once all of the executors have completed processing their request(s).
      *
      * @param repositoryConnector enterprise connector
      * @param metadataCollection enterprise metadata collection
@@ -195,8 +227,15 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
 
             if (metadataCollection != null)
             {
-                for (EntityDetail accumulatedEntity : accumulatedEntities.values())
+                List<EntityDetail> page = super.selectPage(memberEntities, EntityDetail::getProperties);
+
+                for (EntityDetail pageEntity : page)
                 {
+                    /*
+                     * The page is made up of the copies returned by the repositories.  The latest version is returned.
+                     */
+                    EntityDetail accumulatedEntity = accumulatedEntities.get(pageEntity.getGUID());
+
                     if (accumulatedEntity != null)
                     {
                         EntityDetail resultEntity = new EntityDetail(accumulatedEntity);
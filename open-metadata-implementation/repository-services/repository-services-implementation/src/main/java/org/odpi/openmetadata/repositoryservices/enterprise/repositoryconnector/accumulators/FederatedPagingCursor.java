@@ -0,0 +1,74 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * FederatedPagingCursor records where a federated query has reached in the results of each member of the
+ * cohort(s).  It is created when a page of merged results is returned and is used to retrieve the next page
+ * without asking each member to re-sort and skip all of the earlier pages.  The offsets are the number of
+ * elements consumed from each member's results.  Members that are not listed have not contributed
+ * to the query yet so their offset is zero.
+ */
+public class FederatedPagingCursor
+{
+    private final Map<String, Integer> memberOffsets;
+
+
+    /**
+     * Constructor for the cursor.
+     *
+     * @param memberOffsets map of metadata collection id to the number of elements consumed from that member
+     */
+    FederatedPagingCursor(Map<String, Integer> memberOffsets)
+    {
+        this.memberOffsets = Collections.unmodifiableMap(new HashMap<>(memberOffsets));
+    }
+
+
+    /**
+     * Return the starting element to use when requesting the next results from a member.
+     *
+     * @param metadataCollectionId unique identifier for the member's metadata collection
+     * @return offset into the member's results
+     */
+    public int getMemberOffset(String metadataCollectionId)
+    {
+        Integer offset = memberOffsets.get(metadataCollectionId);
+
+        if (offset == null)
+        {
+            return 0;
+        }
+
+        return offset;
+    }
+
+
+    /**
+     * Return the offsets for all of the members that have contributed to the query.
+     *
+     * @return map of metadata collection id to offset
+     */
+    public Map<String, Integer> getMemberOffsets()
+    {
+        return memberOffsets;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "FederatedPagingCursor{" +
+                "memberOffsets=" + memberOffsets +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * FederatedPagingCursorCache holds the continuation cursors for the federated queries issued through an
+ * enterprise repository connector.  The open metadata repository services APIs only pass a starting element
+ * on a paged request, so the continuation token for the next page is the query signature combined with
+ * the starting element of the next page.  This is held here rather than passed to the caller.
+ * <br><br>
+ * The cache is bounded and discards the least recently used cursors when it is full.  A request for a page
+ * with no cursor is still answered correctly - it is just more expensive.
+ */
+public class FederatedPagingCursorCache
+{
+    /**
+     * Default number of cursors to keep.
+     */
+    public static final int DEFAULT_MAX_CURSORS = 1000;
+
+    private final Map<String, FederatedPagingCursor> cursors;
+
+
+    /**
+     * Constructor using the default size.
+     */
+    public FederatedPagingCursorCache()
+    {
+        this(DEFAULT_MAX_CURSORS);
+    }
+
+
+    /**
+     * Constructor.
+     *
+     * @param maxCursors maximum number of cursors to keep
+     */
+    public FederatedPagingCursorCache(int maxCursors)
+    {
+        this.cursors = new LinkedHashMap<String, FederatedPagingCursor>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FederatedPagingCursor> eldest)
+            {
+                return size() > maxCursors;
+            }
+        };
+    }
+
+
+    /**
+     * Return the cursor for a page of a query.
+     *
+     * @param querySignature string that uniquely identifies the query and the requesting user
+     * @param startingElement starting element of the requested page
+     * @return cursor or null if the previous page was not retrieved through this connector
+     */
+    public synchronized FederatedPagingCursor getCursor(String querySignature,
+                                                        int    startingElement)
+    {
+        return cursors.get(getContinuationToken(querySignature, startingElement));
+    }
+
+
+    /**
+     * Save the cursor for the next page of a query.
+     *
+     * @param querySignature string that uniquely identifies the query and the requesting user
+     * @param startingElement starting element of the next page
+     * @param cursor cursor to save
+     */
+    public synchronized void saveCursor(String                querySignature,
+                                        int                   startingElement,
+                                        FederatedPagingCursor cursor)
+    {
+        cursors.put(getContinuationToken(querySignature, startingElement), cursor);
+    }
+
+
+    /**
+     * Remove all of the cursors.  This is called when the membership of the cohort(s) changes since the
+     * saved offsets no longer describe the complete set of results.
+     */
+    public synchronized void clear()
+    {
+        cursors.clear();
+    }
+
+
+    /**
+     * Return the number of cursors in the cache.
+     *
+     * @return count
+     */
+    public synchronized int size()
+    {
+        return cursors.size();
+    }
+
+
+    /**
+     * Build the key of a cursor.
+     *
+     * @param querySignature string that uniquely identifies the query and the requesting user
+     * @param startingElement starting element of the page
+     * @return continuation token
+     */
+    private String getContinuationToken(String querySignature,
+                                        int    startingElement)
+    {
+        return querySignature + "#" + startingElement;
+    }
+}
@@ -23,6 +23,7 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     private int                  responsesRequired  = 0;
     private Map<String, Integer> resultsContributed = new HashMap<>();
     private boolean              resultsReturned = false;
+    private boolean              resultsClosed = false;
 
 
     /**
@@ -62,12 +63,34 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
      *
      * @return true if a request succeeded.
      */
-    public boolean resultsReturned()
+    public synchronized boolean resultsReturned()
     {
         return (resultsReturned);
     }
 
 
+    /**
+     * Stop accepting results and exceptions.  This is called when the federation control stops waiting
+     * for the repositories, so requests that are still running do not change the results that are being
+     * returned to the caller.
+     */
+    public synchronized void closeResults()
+    {
+        resultsClosed = true;
+    }
+
+
+    /**
+     * Return whether the accumulator has stopped accepting results and exceptions.
+     *
+     * @return boolean flag
+     */
+    synchronized boolean isResultsClosed()
+    {
+        return resultsClosed;
+    }
+
+
     /**
      * An executor is created for each repository that needs to be called.  Each executor should provide either an
      * exception response or a set of the desired elements.
@@ -88,8 +111,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     synchronized void setResultsReturned(String      metadataCollectionId,
                                          int         numberOfElements)
     {
-        setRequestReturned(metadataCollectionId, numberOfElements);
-        resultsReturned = true;
+        if (setRequestReturned(metadataCollectionId, numberOfElements))
+        {
+            resultsReturned = true;
+        }
     }
 
 
@@ -99,11 +124,18 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
      * @param metadataCollectionId identifier of repository's metadata collection
      * @param numberOfElements number of elements (zero could mean nothing was found or an exception was returned.
      *                         Exceptions are recorded by the superclass.
+     * @return boolean flag - false means the accumulator is closed and the response should be ignored
      */
-    private void setRequestReturned(String      metadataCollectionId,
-                                    int         numberOfElements)
+    private boolean setRequestReturned(String      metadataCollectionId,
+                                       int         numberOfElements)
     {
+        if (resultsClosed)
+        {
+            return false;
+        }
+
         resultsContributed.put(metadataCollectionId, numberOfElements);
+        return true;
     }
 
 
@@ -117,8 +149,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                          metadataCollectionId,
                                               ClassificationErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        classificationErrorException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            classificationErrorException = exception;
+        }
     }
 
 
@@ -131,8 +165,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               EntityNotKnownException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        entityNotKnownException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            entityNotKnownException = exception;
+        }
     }
 
 
@@ -146,8 +182,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                           metadataCollectionId,
                                               FunctionNotSupportedException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        functionNotSupportedException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            functionNotSupportedException = exception;
+        }
     }
 
 
@@ -160,8 +198,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               InvalidParameterException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        invalidParameterException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            invalidParameterException = exception;
+        }
     }
 
 
@@ -174,8 +214,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               PagingErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        pagingErrorException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            pagingErrorException = exception;
+        }
     }
 
 
@@ -188,8 +230,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               PropertyErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        propertyErrorException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            propertyErrorException = exception;
+        }
     }
 
 
@@ -202,8 +246,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                        metadataCollectionId,
                                               RelationshipNotKnownException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        relationshipNotKnownException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            relationshipNotKnownException = exception;
+        }
     }
 
 
@@ -216,8 +262,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               RepositoryErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        repositoryErrorException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            repositoryErrorException = exception;
+        }
     }
 
 
@@ -230,8 +278,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String               metadataCollectionId,
                                               TypeErrorException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        typeErrorException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            typeErrorException = exception;
+        }
     }
 
 
@@ -244,8 +294,10 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               UserNotAuthorizedException exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
-        userNotAuthorizedException = exception;
+        if (setRequestReturned(metadataCollectionId, 0))
+        {
+            userNotAuthorizedException = exception;
+        }
     }
 
 
@@ -260,7 +312,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
                                                      String     metadataCollectionId,
                                                      Exception  exception)
     {
-        setRequestReturned(metadataCollectionId, 0);
+        if (! setRequestReturned(metadataCollectionId, 0))
+        {
+            return;
+        }
+
         anotherException = exception;
 
         auditLog.logException(actionDescription,
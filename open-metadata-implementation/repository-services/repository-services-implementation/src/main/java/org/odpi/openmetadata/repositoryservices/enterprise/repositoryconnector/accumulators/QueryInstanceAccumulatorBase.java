@@ -4,20 +4,44 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSInstanceSortKey;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * QueryAccumulatorBase acts as a base class to the accumulators that need to visit each repository and
  * combine results.
+ * <br><br>
+ * It also manages the paging of the combined results.  Each member's results are assumed to be in the order
+ * requested by the caller.  They are merged k-way, so each member only needs to return one page of results
+ * past the point that the query has reached in its results.  This point is recorded in a
+ * FederatedPagingCursor when a page is returned.  If there is no cursor for the requested page, each member
+ * returns the results up to the end of the requested page and the earlier elements are skipped during
+ * the merge.
  */
-public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
+public abstract class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
 {
-    protected List<String>            locallyStoredInstancesGUIDs = new ArrayList<>();
+    protected Set<String>             locallyStoredInstancesGUIDs = new HashSet<>();
+
+    private int                        startingElement    = 0;
+    private int                        pageSize           = 0;
+    private String                     sequencingProperty = null;
+    private SequencingOrder            sequencingOrder    = null;
+    private FederatedPagingCursorCache cursorCache        = null;
+    private String                     querySignature     = null;
+    private FederatedPagingCursor      cursor             = null;
 
     /**
      * Construct a query accumulator.  This base class manages the common variables needed to
@@ -35,6 +59,14 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
     }
 
 
+    /**
+     * Return the number of unique instances accumulated so far.
+     *
+     * @return count of instances
+     */
+    public abstract int getInstanceCount();
+
+
     /**
      * Return a flag indicating whether the incoming element should be preferred over the current saved element.
      *
@@ -75,4 +107,277 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
     {
         return ! (locallyStoredInstancesGUIDs.contains(instanceGUID));
     }
+
+
+    /**
+     * Set up the paging parameters from the request.
+     *
+     * @param startingElement starting element of the requested page
+     * @param sequencingProperty property used for ordering (optional)
+     * @param sequencingOrder ordering of results
+     * @param pageSize maximum number of elements that can be returned
+     */
+    public synchronized void setPagingParameters(int             startingElement,
+                                                 String          sequencingProperty,
+                                                 SequencingOrder sequencingOrder,
+                                                 int             pageSize)
+    {
+        this.startingElement    = startingElement;
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder    = sequencingOrder;
+        this.pageSize           = pageSize;
+    }
+
+
+    /**
+     * Look up the cursor for the requested page.  This must be called before the requests are issued to the
+     * members of the cohort(s).
+     *
+     * @param cursorCache cache of cursors from previous pages
+     * @param querySignature string that uniquely identifies the query and the requesting user
+     */
+    public synchronized void setPagingCursor(FederatedPagingCursorCache cursorCache,
+                                             String                     querySignature)
+    {
+        this.cursorCache    = cursorCache;
+        this.querySignature = querySignature;
+
+        if ((cursorCache != null) && (pageSize > 0))
+        {
+            this.cursor = cursorCache.getCursor(querySignature, startingElement);
+        }
+    }
+
+
+    /**
+     * Return the starting element to request from a member of the cohort(s).
+     *
+     * @param metadataCollectionId unique identifier for the member's metadata collection
+     * @return starting element
+     */
+    public synchronized int getMemberStartingElement(String metadataCollectionId)
+    {
+        if (cursor == null)
+        {
+            return 0;
+        }
+
+        return cursor.getMemberOffset(metadataCollectionId);
+    }
+
+
+    /**
+     * Return the page size to request from a member of the cohort(s).  It is the page size of the request when
+     * there is a cursor, otherwise the member needs to return all of the results up to the end of the requested page.
+     *
+     * @return page size (zero means unrestricted)
+     */
+    public synchronized int getMemberPageSize()
+    {
+        if ((pageSize == 0) || (cursor != null))
+        {
+            return pageSize;
+        }
+
+        return startingElement + pageSize;
+    }
+
+
+    /**
+     * Return the key used to sequence an instance in the requested order.
+     *
+     * @param instance instance
+     * @param properties properties of the instance
+     * @return sort key
+     */
+    OMRSInstanceSortKey getSortKey(InstanceHeader     instance,
+                                   InstanceProperties properties)
+    {
+        return OMRSInstanceSortKey.getSortKey(instance, properties, sequencingProperty, sequencingOrder);
+    }
+
+
+    /**
+     * Compare the next instances from two members using the requested sequencing.  Instances that sequence
+     * equally are ordered by their unique identifiers so that the copies of an instance from different members
+     * are merged together.
+     *
+     * @param one first member
+     * @param two second member
+     * @param <T> type of instance
+     * @return sort result
+     */
+    private <T extends InstanceHeader> int compareNextInstances(MemberResults<T> one,
+                                                                MemberResults<T> two)
+    {
+        int sortResult = 0;
+
+        if (OMRSInstanceSortKey.isSorted(sequencingOrder))
+        {
+            sortResult = one.peekSortKey().compareTo(two.peekSortKey());
+        }
+
+        if (sortResult == 0)
+        {
+            sortResult = one.peek().getGUID().compareTo(two.peek().getGUID());
+        }
+
+        return sortResult;
+    }
+
+
+    /**
+     * Merge the results from each member to select the requested page.  The cursor for the next page is saved
+     * if the page is full.  Duplicate copies of an instance are only included once.
+     *
+     * @param memberResults map of metadata collection id to the results from that member in the requested order
+     * @param propertiesAccessor function returning the properties of an instance
+     * @param <T> type of instance
+     * @return selected page of instances from the members (empty list if none)
+     */
+    <T extends InstanceHeader> List<T> selectPage(Map<String, List<T>>            memberResults,
+                                                  Function<T, InstanceProperties> propertiesAccessor)
+    {
+        PriorityQueue<MemberResults<T>> memberQueue      = new PriorityQueue<>(this::compareNextInstances);
+        Map<String, Integer>            consumedElements = new HashMap<>();
+        Set<String>                     selectedGUIDs    = new HashSet<>();
+        List<T>                         page             = new ArrayList<>();
+        int                             elementsToSkip   = (cursor == null) ? startingElement : 0;
+
+        for (Map.Entry<String, List<T>> member : memberResults.entrySet())
+        {
+            if (! member.getValue().isEmpty())
+            {
+                memberQueue.add(new MemberResults<>(member.getKey(), member.getValue(), propertiesAccessor));
+            }
+        }
+
+        while ((! memberQueue.isEmpty()) && ((pageSize == 0) || (page.size() < pageSize)))
+        {
+            T instance = this.consumeNext(memberQueue, consumedElements);
+
+            if (selectedGUIDs.add(instance.getGUID()))
+            {
+                if (elementsToSkip > 0)
+                {
+                    elementsToSkip--;
+                }
+                else
+                {
+                    page.add(instance);
+                }
+            }
+        }
+
+        /*
+         * Consume any further copies of the instances on this page so they are not repeated on the next page.
+         */
+        while ((! memberQueue.isEmpty()) && (selectedGUIDs.contains(memberQueue.peek().peek().getGUID())))
+        {
+            this.consumeNext(memberQueue, consumedElements);
+        }
+
+        if ((cursorCache != null) && (pageSize > 0) && (page.size() == pageSize))
+        {
+            Map<String, Integer> memberOffsets = new HashMap<>();
+
+            if (cursor != null)
+            {
+                memberOffsets.putAll(cursor.getMemberOffsets());
+            }
+
+            for (Map.Entry<String, Integer> consumed : consumedElements.entrySet())
+            {
+                memberOffsets.put(consumed.getKey(), this.getMemberStartingElement(consumed.getKey()) + consumed.getValue());
+            }
+
+            cursorCache.saveCursor(querySignature, startingElement + pageSize, new FederatedPagingCursor(memberOffsets));
+        }
+
+        return page;
+    }
+
+
+    /**
+     * Remove the next instance from the member at the head of the queue.
+     *
+     * @param memberQueue queue of members ordered by their next instance
+     * @param consumedElements count of elements consumed from each member
+     * @param <T> type of instance
+     * @return next instance
+     */
+    private <T extends InstanceHeader> T consumeNext(PriorityQueue<MemberResults<T>> memberQueue,
+                                                     Map<String, Integer>            consumedElements)
+    {
+        MemberResults<T> member   = memberQueue.poll();
+        T                instance = member.next();
+
+        consumedElements.merge(member.metadataCollectionId, 1, Integer::sum);
+
+        if (member.hasNext())
+        {
+            memberQueue.add(member);
+        }
+
+        return instance;
+    }
+
+
+    /**
+     * MemberResults tracks the position reached in the results from one member during the merge.  The sort key
+     * of the next instance is extracted once, when the position moves, rather than on every comparison.
+     *
+     * @param <T> type of instance
+     */
+    private class MemberResults<T extends InstanceHeader>
+    {
+        private final String                          metadataCollectionId;
+        private final List<T>                         results;
+        private final Function<T, InstanceProperties> propertiesAccessor;
+        private int                                   position    = 0;
+        private OMRSInstanceSortKey                   nextSortKey = null;
+
+
+        MemberResults(String                          metadataCollectionId,
+                      List<T>                         results,
+                      Function<T, InstanceProperties> propertiesAccessor)
+        {
+            this.metadataCollectionId = metadataCollectionId;
+            this.results              = results;
+            this.propertiesAccessor   = propertiesAccessor;
+        }
+
+
+        T peek()
+        {
+            return results.get(position);
+        }
+
+
+        OMRSInstanceSortKey peekSortKey()
+        {
+            if (nextSortKey == null)
+            {
+                T instance = results.get(position);
+
+                nextSortKey = getSortKey(instance, propertiesAccessor.apply(instance));
+            }
+
+            return nextSortKey;
+        }
+
+
+        T next()
+        {
+            nextSortKey = null;
+
+            return results.get(position++);
+        }
+
+
+        boolean hasNext()
+        {
+            return position < results.size();
+        }
+    }
 }
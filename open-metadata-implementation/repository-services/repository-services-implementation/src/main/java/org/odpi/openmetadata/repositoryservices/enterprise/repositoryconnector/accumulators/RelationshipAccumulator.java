@@ -15,12 +15,15 @@ import java.util.Map;
 /**
  * RelationshipAccumulator accumulates and validates relationships received from a collection of open metadata
  * repositories.  It removes duplicates from the list by choosing the latest version.
+ * The results from each repository are also kept in the order they were returned so that they can be
+ * merged into the requested page.
  *
  * This class may be called simultaneously from many different threads so it must be thread-safe.
  */
 public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
 {
-    private volatile Map<String, Relationship> accumulatedRelationships   = new HashMap<>();
+    private volatile Map<String, Relationship>       accumulatedRelationships = new HashMap<>();
+    private volatile Map<String, List<Relationship>> memberRelationships      = new HashMap<>();
 
 
     /**
@@ -85,11 +88,28 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addRelationships(List<Relationship>   relationships,
                                               String               metadataCollectionId)
     {
+        if (super.isResultsClosed())
+        {
+            return;
+        }
+
         if (relationships != null)
         {
+            List<Relationship> validRelationships = new ArrayList<>();
+
             for (Relationship relationship : relationships)
             {
                 this.addRelationship(relationship, metadataCollectionId);
+
+                if ((relationship != null) && (relationship.getGUID() != null))
+                {
+                    validRelationships.add(relationship);
+                }
+            }
+
+            if (metadataCollectionId != null)
+            {
+                memberRelationships.put(metadataCollectionId, validRelationships);
             }
 
             /*
@@ -107,13 +127,25 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
     }
 
 
+    /**
+     * Return the number of unique relationships accumulated so far.
+     *
+     * @return count of relationships
+     */
+    @Override
+    public synchronized int getInstanceCount()
+    {
+        return accumulatedRelationships.size();
+    }
+
+
     /**
      * Extract the results - this will the a unique list of relationships selected from the instances
-     * supplied to this accumulator.  It should be called once all of the executors have completed processing
-     * their request(s).
+     * supplied to this accumulator.  The results from each repository are merged to select the requested page.
+     * It should be called once all of the executors have completed processing their request(s).
      *
      * @param repositoryConnector enterprise connector
-     * @return list of relationships
+     * @return list of relationships - null if no relationships were returned, empty if the page is beyond the results
      */
     public synchronized List<Relationship>  getResults(EnterpriseOMRSRepositoryConnector repositoryConnector)
     {
@@ -124,7 +156,24 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
         else
         {
             this.makeRefreshRecommendations(repositoryConnector);
-            return new ArrayList<>(accumulatedRelationships.values());
+
+            List<Relationship> results = new ArrayList<>();
+            List<Relationship> page    = super.selectPage(memberRelationships, Relationship::getProperties);
+
+            for (Relationship pageRelationship : page)
+            {
+                /*
+                 * The page is made up of the copies returned by the repositories.  The latest version is returned.
+                 */
+                Relationship accumulatedRelationship = accumulatedRelationships.get(pageRelationship.getGUID());
+
+                if (accumulatedRelationship != null)
+                {
+                    results.add(accumulatedRelationship);
+                }
+            }
+
+            return results;
         }
     }
 
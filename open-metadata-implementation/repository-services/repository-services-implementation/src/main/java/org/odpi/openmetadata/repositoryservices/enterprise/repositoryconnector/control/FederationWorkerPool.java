@@ -0,0 +1,124 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FederationWorkerPool is the bounded pool of worker threads that the ParallelFederationControl uses to issue
+ * a federated request to each member of the cohort(s) at the same time.  There is one pool for each server.
+ * It is shared by all of the enterprise repository connectors of the server, so the number of threads calling
+ * remote repositories is capped no matter how many requests are in flight.  Requests that arrive when all of
+ * the workers are busy are queued.
+ */
+public class FederationWorkerPool
+{
+    /**
+     * Default number of worker threads if the configuration does not supply a value.
+     */
+    public static final int  DEFAULT_MAX_WORKER_THREADS = 16;
+
+    private final ThreadPoolExecutor executorService;
+    private final long               memberTimeout;
+
+
+    /**
+     * Create the worker pool for a server.
+     *
+     * @param serverName name of the server (used to name the threads)
+     * @param maxWorkerThreads maximum number of threads calling cohort members at once
+     *                         (zero or less means use the default)
+     * @param memberTimeout number of milliseconds to wait for each cohort member to respond
+     *                      (zero or less means wait until the member responds)
+     */
+    public FederationWorkerPool(String serverName,
+                                int    maxWorkerThreads,
+                                long   memberTimeout)
+    {
+        int  poolSize = maxWorkerThreads > 0 ? maxWorkerThreads : DEFAULT_MAX_WORKER_THREADS;
+
+        this.memberTimeout   = memberTimeout;
+        this.executorService = new ThreadPoolExecutor(poolSize,
+                                                      poolSize,
+                                                      60L,
+                                                      TimeUnit.SECONDS,
+                                                      new LinkedBlockingQueue<>(),
+                                                      new WorkerThreadFactory(serverName));
+
+        this.executorService.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Return the executor service that runs the requests to the cohort members.
+     *
+     * @return executor service
+     */
+    ExecutorService getExecutorService()
+    {
+        return executorService;
+    }
+
+
+    /**
+     * Return the number of milliseconds to wait for each cohort member to respond.
+     *
+     * @return timeout in milliseconds (zero or less means no timeout)
+     */
+    long getMemberTimeout()
+    {
+        return memberTimeout;
+    }
+
+
+    /**
+     * Stop the worker threads.  Requests in progress are interrupted.
+     */
+    public void shutdown()
+    {
+        executorService.shutdownNow();
+    }
+
+
+    /**
+     * WorkerThreadFactory creates daemon threads with names that identify the server.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory
+    {
+        private final String        threadNamePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+
+        /**
+         * Constructor
+         *
+         * @param serverName name of the server
+         */
+        WorkerThreadFactory(String serverName)
+        {
+            this.threadNamePrefix = "FederationWorker-" + serverName + "-";
+        }
+
+
+        /**
+         * Create a new worker thread.
+         *
+         * @param runnable work for the thread
+         * @return thread
+         */
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
@@ -4,22 +4,39 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ParallelFederationControl uses multiple worker threads to perform the calls to different systems in parallel.
+ * The worker threads come from the server's FederationWorkerPool.  A clone of the executor is passed to each
+ * worker and they all share the same accumulator.  The calling thread waits until either every repository has
+ * responded, the accumulator has enough results to satisfy the request, or the member timeout expires.
+ * Requests that are still outstanding at that point are cancelled and the accumulator is closed so any
+ * results they return later are ignored.
+ * <br><br>
+ * If there is no worker pool, or only one repository to call, the requests are issued sequentially
+ * on the calling thread.
  */
 public class ParallelFederationControl extends FederationControlBase
 {
-    // todo at this point the parallel federation control uses a sequential since the
-    // todo worker threads are not implemented.
+    private FederationWorkerPool workerPool;
 
 
     /**
-     * Constructor for a federated query
+     * Constructor for a federated query that is issued sequentially on the calling thread.
      *
      * @param userId calling user
      * @param cohortConnectors list of connectors to call
@@ -28,9 +45,27 @@ public class ParallelFederationControl extends FederationControlBase
     public ParallelFederationControl(String                        userId,
                                      List<OMRSRepositoryConnector> cohortConnectors,
                                      String                        methodName)
+    {
+        this(userId, cohortConnectors, methodName, null);
+    }
+
+
+    /**
+     * Constructor for a federated query
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param methodName calling method
+     * @param workerPool pool of threads for calling the repositories (null means call them sequentially)
+     */
+    public ParallelFederationControl(String                        userId,
+                                     List<OMRSRepositoryConnector> cohortConnectors,
+                                     String                        methodName,
+                                     FederationWorkerPool          workerPool)
     {
         super(userId, cohortConnectors, methodName);
 
+        this.workerPool = workerPool;
     }
 
 
@@ -45,17 +80,191 @@ public class ParallelFederationControl extends FederationControlBase
     {
         if (super.cohortConnectors != null)
         {
-            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+            if ((workerPool == null) || (cohortConnectors.size() < 2) || (! (executor instanceof CloneableRepositoryExecutor)))
+            {
+                this.executeSequentially(executor);
+            }
+            else
+            {
+                this.executeInParallel(executor);
+            }
+        }
+    }
+
+
+    /**
+     * Issue the command to each repository in turn on the calling thread.
+     *
+     * @param executor command to execute
+     * @throws RepositoryErrorException null metadata collection
+     */
+    private void executeSequentially(RepositoryExecutor executor) throws RepositoryErrorException
+    {
+        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+        {
+            if (cohortConnector != null)
+            {
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
+
+                executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+            }
+        }
+    }
+
+
+    /**
+     * Issue the command to each repository on its own worker thread and wait for the results.
+     *
+     * @param executor command to execute - it must also be a CloneableRepositoryExecutor
+     * @throws RepositoryErrorException null metadata collection
+     */
+    private void executeInParallel(RepositoryExecutor executor) throws RepositoryErrorException
+    {
+        CloneableRepositoryExecutor cloneableExecutor   = (CloneableRepositoryExecutor) executor;
+        CompletionService<String>   completionService   = new ExecutorCompletionService<>(workerPool.getExecutorService());
+        Map<Future<String>, String> outstandingRequests = new HashMap<>();
+        boolean                     firstRequest        = true;
+
+        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+        {
+            if (cohortConnector != null)
             {
-                if (cohortConnector != null)
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
+
+                /*
+                 * The original executor is used for the first repository and a clone for each of the others.
+                 * They all share the same accumulator.
+                 */
+                RepositoryExecutor memberExecutor = firstRequest ? executor : (RepositoryExecutor) cloneableExecutor.getClone();
+
+                firstRequest = false;
+
+                try
+                {
+                    Future<String> request = completionService.submit(() ->
+                    {
+                        memberExecutor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+                        return metadataCollectionId;
+                    });
+
+                    outstandingRequests.put(request, metadataCollectionId);
+                }
+                catch (RejectedExecutionException error)
                 {
-                    OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+                    /*
+                     * The worker pool is shutting down so make the call on this thread.
+                     */
+                    memberExecutor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+                }
+            }
+        }
+
+        this.waitForResults(cloneableExecutor, completionService, outstandingRequests);
+    }
+
 
-                    String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
+    /**
+     * Wait for the requests to the repositories to complete.  Any requests that are outstanding when
+     * the executor has sufficient results, or the member timeout expires, are cancelled.  The accumulator
+     * is then closed, since a cancelled request that is already running is not stopped.
+     *
+     * @param executor executor that manages the shared accumulator
+     * @param completionService service returning the requests as they complete
+     * @param outstandingRequests requests that have not yet completed mapped to their metadata collection id
+     */
+    private void waitForResults(CloneableRepositoryExecutor  executor,
+                                CompletionService<String>    completionService,
+                                Map<Future<String>, String>  outstandingRequests)
+    {
+        long    memberTimeout = workerPool.getMemberTimeout();
+        long    deadline      = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(memberTimeout);
+        boolean timedOut      = false;
 
-                    executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+        try
+        {
+            while ((! outstandingRequests.isEmpty()) && (! executor.hasSufficientResults()))
+            {
+                Future<String> completedRequest;
+
+                if (memberTimeout > 0)
+                {
+                    completedRequest = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+
+                    if (completedRequest == null)
+                    {
+                        timedOut = true;
+                        break;
+                    }
+                }
+                else
+                {
+                    completedRequest = completionService.take();
                 }
+
+                this.checkCompletedRequest(executor, completedRequest, outstandingRequests.remove(completedRequest));
             }
         }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        /*
+         * Stragglers that are no longer needed are cancelled without interrupting them, so they do not record
+         * spurious errors.  Requests that have timed out are interrupted and recorded as an error in case
+         * no other repository returns results.
+         */
+        for (Map.Entry<Future<String>, String> outstandingRequest : outstandingRequests.entrySet())
+        {
+            outstandingRequest.getKey().cancel(timedOut);
+
+            if (timedOut)
+            {
+                executor.captureRepositoryError(outstandingRequest.getValue(),
+                                                new RepositoryErrorException(OMRSErrorCode.FEDERATED_REQUEST_TIMEOUT.getMessageDefinition(outstandingRequest.getValue(),
+                                                                                                                                          methodName,
+                                                                                                                                          Long.toString(memberTimeout)),
+                                                                             this.getClass().getName(),
+                                                                             methodName));
+            }
+        }
+
+        executor.closeResults();
+    }
+
+
+    /**
+     * Check whether a completed request failed with an exception that the executor did not handle
+     * (such as an Error) and record it as that repository's response.
+     *
+     * @param executor executor that manages the shared accumulator
+     * @param completedRequest request that has completed
+     * @param metadataCollectionId unique identifier of the metadata collection that the request was sent to
+     * @throws InterruptedException the calling thread was interrupted
+     */
+    private void checkCompletedRequest(CloneableRepositoryExecutor executor,
+                                       Future<String>              completedRequest,
+                                       String                      metadataCollectionId) throws InterruptedException
+    {
+        try
+        {
+            completedRequest.get();
+        }
+        catch (ExecutionException error)
+        {
+            Throwable cause = (error.getCause() == null) ? error : error.getCause();
+
+            executor.captureRepositoryError(metadataCollectionId,
+                                            new RepositoryErrorException(OMRSErrorCode.UNEXPECTED_EXCEPTION_FROM_COHORT.getMessageDefinition(cause.getClass().getName(),
+                                                                                                                                             methodName,
+                                                                                                                                             cause.getMessage()),
+                                                                         this.getClass().getName(),
+                                                                         methodName,
+                                                                         cause));
+        }
     }
 }
@@ -2,6 +2,8 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
 
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+
 /**
  * CloneableRepositoryExecutor describes the interface for a repository executor that can be cloned to run
  * in parallel.  They use a shared accumulator to gather and assemble the result.
@@ -14,4 +16,32 @@ public interface CloneableRepositoryExecutor
      * @return clone of this executor
      */
     CloneableRepositoryExecutor getClone();
+
+
+    /**
+     * Return whether the shared accumulator already holds enough results to satisfy the request.  When this is
+     * true, the requests to the repositories that have not yet responded can be abandoned.
+     *
+     * @return boolean flag
+     */
+    boolean hasSufficientResults();
+
+
+    /**
+     * Record an error detected by the federation control (such as a timeout) for a repository whose request
+     * did not complete.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param error exception describing the problem
+     */
+    void captureRepositoryError(String                   metadataCollectionId,
+                                RepositoryErrorException error);
+
+
+    /**
+     * Stop the shared accumulator accepting results.  This is called once the federation control has stopped
+     * waiting for the repositories so that requests that are still running do not change the results
+     * returned to the caller.
+     */
+    void closeResults();
 }
@@ -4,6 +4,7 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.QueryAccumulatorBase;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
 
 /**
@@ -12,12 +13,51 @@ import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.a
  */
 abstract class CloneableRepositoryExecutorBase extends RepositoryExecutorBase implements CloneableRepositoryExecutor
 {
+    private QueryAccumulatorBase queryAccumulator;
+
     CloneableRepositoryExecutorBase(String               userId,
                                     String               methodName,
                                     QueryAccumulatorBase accumulator)
     {
         super(userId, methodName);
 
+        this.queryAccumulator = accumulator;
+
         accumulator.registerExecutor();
     }
+
+
+    /**
+     * Return whether the shared accumulator already holds enough results to satisfy the request.
+     * By default, every repository must respond.
+     *
+     * @return boolean flag
+     */
+    public boolean hasSufficientResults()
+    {
+        return false;
+    }
+
+
+    /**
+     * Record an error detected by the federation control (such as a timeout) for a repository whose request
+     * did not complete.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param error exception describing the problem
+     */
+    public void captureRepositoryError(String                   metadataCollectionId,
+                                       RepositoryErrorException error)
+    {
+        queryAccumulator.captureException(metadataCollectionId, error);
+    }
+
+
+    /**
+     * Stop the shared accumulator accepting results.
+     */
+    public void closeResults()
+    {
+        queryAccumulator.closeResults();
+    }
 }
@@ -171,6 +171,20 @@ public class FindEntitiesByClassificationExecutor extends PageableRepositoryExec
     }
 
 
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    @Override
+    String getQueryCriteria()
+    {
+        return "classificationName=" + classificationName +
+                ", matchClassificationProperties=" + matchClassificationProperties +
+                ", matchCriteria=" + matchCriteria;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -191,12 +205,12 @@ public class FindEntitiesByClassificationExecutor extends PageableRepositoryExec
                                                                                          classificationName,
                                                                                          matchClassificationProperties,
                                                                                          matchCriteria,
-                                                                                         startingElement,
+                                                                                         super.getMemberStartingElement(metadataCollectionId),
                                                                                          limitResultsByStatus,
                                                                                          asOfTime,
                                                                                          sequencingProperty,
                                                                                          sequencingOrder,
-                                                                                         pageSize);
+                                                                                         super.getMemberPageSize());
 
             accumulator.addEntities(results, metadataCollectionId);
 
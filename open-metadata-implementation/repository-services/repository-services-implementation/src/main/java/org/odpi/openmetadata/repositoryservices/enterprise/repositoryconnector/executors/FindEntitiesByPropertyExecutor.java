@@ -169,6 +169,20 @@ public class FindEntitiesByPropertyExecutor extends PageableRepositoryExecutorBa
     }
 
 
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    @Override
+    String getQueryCriteria()
+    {
+        return "matchProperties=" + matchProperties +
+                ", matchCriteria=" + matchCriteria +
+                ", limitResultsByClassification=" + limitResultsByClassification;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -188,13 +202,13 @@ public class FindEntitiesByPropertyExecutor extends PageableRepositoryExecutorBa
                                                                                    instanceTypeGUID,
                                                                                    matchProperties,
                                                                                    matchCriteria,
-                                                                                   startingElement,
+                                                                                   super.getMemberStartingElement(metadataCollectionId),
                                                                                    limitResultsByStatus,
                                                                                    limitResultsByClassification,
                                                                                    asOfTime,
                                                                                    sequencingProperty,
                                                                                    sequencingOrder,
-                                                                                   pageSize);
+                                                                                   super.getMemberPageSize());
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -163,6 +163,19 @@ public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecu
     }
 
 
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    @Override
+    String getQueryCriteria()
+    {
+        return "searchCriteria=" + searchCriteria +
+                ", limitResultsByClassification=" + limitResultsByClassification;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -181,13 +194,13 @@ public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecu
             List<EntityDetail> results = metadataCollection.findEntitiesByPropertyValue(userId,
                                                                                         instanceTypeGUID,
                                                                                         searchCriteria,
-                                                                                        startingElement,
+                                                                                        super.getMemberStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         limitResultsByClassification,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        super.getMemberPageSize());
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -172,6 +172,20 @@ public class FindEntitiesExecutor extends PageableRepositoryExecutorBase
     }
 
 
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    @Override
+    String getQueryCriteria()
+    {
+        return "instanceSubtypeGUIDs=" + instanceSubtypeGUIDs +
+                ", matchProperties=" + matchProperties +
+                ", matchClassifications=" + matchClassifications;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -191,13 +205,13 @@ public class FindEntitiesExecutor extends PageableRepositoryExecutorBase
                                                                          instanceTypeGUID,
                                                                          instanceSubtypeGUIDs,
                                                                          matchProperties,
-                                                                         startingElement,
+                                                                         super.getMemberStartingElement(metadataCollectionId),
                                                                          limitResultsByStatus,
                                                                          matchClassifications,
                                                                          asOfTime,
                                                                          sequencingProperty,
                                                                          sequencingOrder,
-                                                                         pageSize);
+                                                                         super.getMemberPageSize());
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -169,6 +169,19 @@ public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecu
     }
 
 
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    @Override
+    String getQueryCriteria()
+    {
+        return "matchProperties=" + matchProperties +
+                ", matchCriteria=" + matchCriteria;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -188,12 +201,12 @@ public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecu
                                                                                         instanceTypeGUID,
                                                                                         matchProperties,
                                                                                         matchCriteria,
-                                                                                        startingElement,
+                                                                                        super.getMemberStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        super.getMemberPageSize());
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
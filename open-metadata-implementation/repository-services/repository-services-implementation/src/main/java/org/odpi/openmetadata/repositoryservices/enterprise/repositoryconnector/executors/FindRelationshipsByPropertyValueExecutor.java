@@ -158,6 +158,18 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
     }
 
 
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    @Override
+    String getQueryCriteria()
+    {
+        return "searchCriteria=" + searchCriteria;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -176,12 +188,12 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
             List<Relationship> results = metadataCollection.findRelationshipsByPropertyValue(userId,
                                                                                              instanceTypeGUID,
                                                                                              searchCriteria,
-                                                                                             startingElement,
+                                                                                             super.getMemberStartingElement(metadataCollectionId),
                                                                                              limitResultsByStatus,
                                                                                              asOfTime,
                                                                                              sequencingProperty,
                                                                                              sequencingOrder,
-                                                                                             pageSize);
+                                                                                             super.getMemberPageSize());
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
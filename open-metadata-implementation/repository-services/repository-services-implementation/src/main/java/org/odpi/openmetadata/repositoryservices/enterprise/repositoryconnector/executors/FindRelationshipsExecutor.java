@@ -167,6 +167,19 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
     }
 
 
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    @Override
+    String getQueryCriteria()
+    {
+        return "instanceSubtypeGUIDs=" + instanceSubtypeGUIDs +
+                ", matchProperties=" + matchProperties;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -186,12 +199,12 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
                                                                               instanceTypeGUID,
                                                                               instanceSubtypeGUIDs,
                                                                               matchProperties,
-                                                                              startingElement,
+                                                                              super.getMemberStartingElement(metadataCollectionId),
                                                                               limitResultsByStatus,
                                                                               asOfTime,
                                                                               sequencingProperty,
                                                                               sequencingOrder,
-                                                                              pageSize);
+                                                                              super.getMemberPageSize());
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -153,6 +153,18 @@ public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecuto
     }
 
 
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    @Override
+    String getQueryCriteria()
+    {
+        return "entityGUID=" + entityGUID;
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      *
@@ -171,12 +183,12 @@ public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecuto
             List<Relationship> results = metadataCollection.getRelationshipsForEntity(userId,
                                                                                       entityGUID,
                                                                                       instanceTypeGUID,
-                                                                                      startingElement,
+                                                                                      super.getMemberStartingElement(metadataCollectionId),
                                                                                       limitResultsByStatus,
                                                                                       asOfTime,
                                                                                       sequencingProperty,
                                                                                       sequencingOrder,
-                                                                                      pageSize);
+                                                                                      super.getMemberPageSize());
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -5,6 +5,7 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.FederatedPagingCursorCache;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.QueryInstanceAccumulatorBase;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -12,8 +13,10 @@ import java.util.Date;
 import java.util.List;
 
 /**
- * CloneableRepositoryExecutorBase provides a base class for executors that can be cloned and run in
- * parallel so the call to each repository runs in a different thread.
+ * PageableRepositoryExecutorBase provides a base class for executors that can be cloned and run in
+ * parallel so the call to each repository runs in a different thread.  The results from each repository
+ * are merged by the accumulator to select the requested page.  The accumulator also supplies the
+ * starting element and page size to request from each repository.
  */
 abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecutorBase
 {
@@ -65,6 +68,92 @@ abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecuto
         this.asOfTime = asOfTime;
 
         this.queryInstanceAccumulator = accumulator;
+
+        accumulator.setPagingParameters(startingElement, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Enable the continuation cursors for this request.  This means a request for a later page can pick up
+     * from where the previous page left off in each repository's results.  It must be called before the
+     * request is issued to the repositories.
+     *
+     * @param cursorCache cursors saved by earlier requests
+     */
+    public void setPagingCursorCache(FederatedPagingCursorCache cursorCache)
+    {
+        queryInstanceAccumulator.setPagingCursor(cursorCache, this.getQuerySignature());
+    }
+
+
+    /**
+     * Return a string that uniquely identifies the query (apart from the starting element) and the calling user.
+     *
+     * @return query signature
+     */
+    String getQuerySignature()
+    {
+        return methodName +
+                "{userId=" + userId +
+                ", instanceTypeGUID=" + instanceTypeGUID +
+                ", limitResultsByStatus=" + limitResultsByStatus +
+                ", sequencingProperty=" + sequencingProperty +
+                ", sequencingOrder=" + sequencingOrder +
+                ", pageSize=" + pageSize +
+                ", asOfTime=" + (asOfTime == null ? null : asOfTime.getTime()) +
+                ", " + this.getQueryCriteria() +
+                '}';
+    }
+
+
+    /**
+     * Return the search criteria specific to the request.  This is used to build the query signature.
+     *
+     * @return search criteria as a string
+     */
+    abstract String getQueryCriteria();
+
+
+    /**
+     * Return the starting element to request from a repository.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @return starting element
+     */
+    int getMemberStartingElement(String metadataCollectionId)
+    {
+        return queryInstanceAccumulator.getMemberStartingElement(metadataCollectionId);
+    }
+
+
+    /**
+     * Return the page size to request from each repository.
+     *
+     * @return page size
+     */
+    int getMemberPageSize()
+    {
+        return queryInstanceAccumulator.getMemberPageSize();
+    }
+
+
+    /**
+     * Return whether the shared accumulator already holds a full page of results.  This is only the case for
+     * the first page of an unsequenced request since any page-sized selection of the matching instances is a
+     * valid response.  Sequenced requests, and requests for later pages, need the results from every repository.
+     *
+     * @return boolean flag
+     */
+    @Override
+    public boolean hasSufficientResults()
+    {
+        if ((pageSize > 0) && (startingElement == 0) && (sequencingProperty == null) &&
+            ((sequencingOrder == null) || (sequencingOrder == SequencingOrder.ANY)))
+        {
+            return queryInstanceAccumulator.getInstanceCount() >= pageSize;
+        }
+
+        return false;
     }
 
 
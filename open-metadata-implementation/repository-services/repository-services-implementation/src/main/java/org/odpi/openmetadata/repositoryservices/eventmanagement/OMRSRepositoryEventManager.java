@@ -39,6 +39,13 @@ public class OMRSRepositoryEventManager extends OMRSRepositoryEventBuilder
     private OMRSRepositoryContentValidator            repositoryValidator;   /* set in constructor */
     private OMRSRepositoryEventExchangeRule           exchangeRule;          /* set in constructor */
 
+    /*
+     * When the instance batch size is greater than zero, the new entity and relationship events created while an
+     * instance batch is active on a thread are held back and sent as a single batch instances event.
+     */
+    private volatile int                              instanceBatchSize      = 0;
+    private final ThreadLocal<InstanceEventBatch>     instanceEventBatch     = new ThreadLocal<>();
+
     /*
      * The audit log provides a verifiable record of the open metadata archives that have been loaded into
      * the open metadata repository.  The Logger is for standard debug.
@@ -154,6 +161,144 @@ public class OMRSRepositoryEventManager extends OMRSRepositoryEventBuilder
     }
 
 
+    /**
+     * Set up the minimum number of new instances that are sent as a single batch instances event when they are
+     * created while an instance batch is active.  Zero (the default) means that batching is disabled and
+     * each new instance is sent in its own event.
+     *
+     * @param instanceBatchSize minimum number of new instances in a batch instances event
+     */
+    public void setInstanceBatchSize(int instanceBatchSize)
+    {
+        this.instanceBatchSize = Math.max(instanceBatchSize, 0);
+    }
+
+
+    /**
+     * Return the minimum number of new instances that are sent as a single batch instances event.
+     *
+     * @return instance batch size (zero means batching is disabled)
+     */
+    public int getInstanceBatchSize()
+    {
+        return instanceBatchSize;
+    }
+
+
+    /**
+     * Start an instance batch on the calling thread.  This is called by a local handler before it creates
+     * many instances in one request.  The instance events created on this thread are held until
+     * endInstanceBatch() is called.  Instance batches may be nested - the events are released when the
+     * outermost batch ends.  This call has no effect if batching is disabled.
+     */
+    public void startInstanceBatch()
+    {
+        if (instanceBatchSize > 0)
+        {
+            InstanceEventBatch batch = instanceEventBatch.get();
+
+            if (batch == null)
+            {
+                batch = new InstanceEventBatch();
+                instanceEventBatch.set(batch);
+            }
+
+            batch.depth++;
+        }
+    }
+
+
+    /**
+     * End the instance batch on the calling thread and send the events that it has held.  If the held events
+     * are all new entity and new relationship events from the same originator, and there are at least as many
+     * as the instance batch size, they are sent as a single batch instances event.  Otherwise, they are sent
+     * individually in the order that they were created.
+     */
+    public void endInstanceBatch()
+    {
+        InstanceEventBatch batch = instanceEventBatch.get();
+
+        if (batch == null)
+        {
+            return;
+        }
+
+        batch.depth--;
+
+        if (batch.depth > 0)
+        {
+            return;
+        }
+
+        instanceEventBatch.remove();
+
+        OMRSInstanceEvent batchEvent = this.getBatchInstancesEvent(batch.events);
+
+        if (batchEvent != null)
+        {
+            this.sendInstanceEvent(batch.sourceName, batchEvent);
+        }
+        else
+        {
+            for (OMRSInstanceEvent event : batch.events)
+            {
+                this.sendInstanceEvent(batch.sourceName, event);
+            }
+        }
+    }
+
+
+    /**
+     * Combine the held events into a batch instances event if they are all new instance events from the same
+     * originator and there are enough of them.
+     *
+     * @param events held events
+     * @return batch instances event or null if the events should be sent individually
+     */
+    private OMRSInstanceEvent getBatchInstancesEvent(List<OMRSInstanceEvent> events)
+    {
+        if (events.isEmpty() || (events.size() < instanceBatchSize))
+        {
+            return null;
+        }
+
+        OMRSEventOriginator eventOriginator      = events.get(0).getEventOriginator();
+        String              metadataCollectionId = (eventOriginator == null) ? null : eventOriginator.getMetadataCollectionId();
+        List<EntityDetail>  entities             = new ArrayList<>();
+        List<Relationship>  relationships        = new ArrayList<>();
+
+        for (OMRSInstanceEvent event : events)
+        {
+            OMRSEventOriginator originator = event.getEventOriginator();
+
+            if ((originator == null) || (metadataCollectionId == null) || (! metadataCollectionId.equals(originator.getMetadataCollectionId())))
+            {
+                return null;
+            }
+
+            if (event.getInstanceEventType() == OMRSInstanceEventType.NEW_ENTITY_EVENT)
+            {
+                entities.add(event.getEntity());
+            }
+            else if (event.getInstanceEventType() == OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT)
+            {
+                relationships.add(event.getRelationship());
+            }
+            else
+            {
+                return null;
+            }
+        }
+
+        OMRSInstanceEvent batchEvent = new OMRSInstanceEvent(OMRSInstanceEventType.BATCH_INSTANCES_EVENT,
+                                                             new InstanceGraph(entities, relationships));
+
+        batchEvent.setEventOriginator(eventOriginator);
+
+        return batchEvent;
+    }
+
+
     /**
      * Indicate that all of the event processors are registered and it is ready to
      * process events.
@@ -369,7 +514,21 @@ public class OMRSRepositoryEventManager extends OMRSRepositoryEventBuilder
     public void sendInstanceEvent(String            sourceName,
                                   OMRSInstanceEvent instanceEvent)
     {
-        if (isActive)
+        InstanceEventBatch batch = instanceEventBatch.get();
+
+        if (batch != null)
+        {
+            /*
+             * An instance batch is active on this thread so the event is held until the batch ends.
+             */
+            if (batch.sourceName == null)
+            {
+                batch.sourceName = sourceName;
+            }
+
+            batch.events.add(instanceEvent);
+        }
+        else if (isActive)
         {
             this.distributeInstanceEvent(instanceEvent);
         }
@@ -1582,4 +1741,15 @@ public class OMRSRepositoryEventManager extends OMRSRepositoryEventBuilder
                                               errorMessage);
         }
     }
+
+
+    /**
+     * InstanceEventBatch holds the instance events created on a thread while an instance batch is active.
+     */
+    private static class InstanceEventBatch
+    {
+        private final List<OMRSInstanceEvent> events     = new ArrayList<>();
+        private String                        sourceName = null;
+        private int                           depth      = 0;
+    }
 }
@@ -17,6 +17,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryeventmapper.OMRSRepositoryEventProcessor;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSTypeDefManager;
 
@@ -7071,4 +7072,31 @@ public class LocalOMRSMetadataCollection extends OMRSMetadataCollectionBase
             }
         }
     }
+
+
+    /**
+     * Start an instance batch on the calling thread.  The events for the instances created on this thread are
+     * held by the outbound event manager until the batch ends.
+     */
+    @Override
+    public void startInstanceBatch()
+    {
+        if (outboundRepositoryEventProcessor instanceof OMRSRepositoryEventManager)
+        {
+            ((OMRSRepositoryEventManager) outboundRepositoryEventProcessor).startInstanceBatch();
+        }
+    }
+
+
+    /**
+     * End the instance batch on the calling thread and send the events that the outbound event manager has held.
+     */
+    @Override
+    public void endInstanceBatch()
+    {
+        if (outboundRepositoryEventProcessor instanceof OMRSRepositoryEventManager)
+        {
+            ((OMRSRepositoryEventManager) outboundRepositoryEventProcessor).endInstanceBatch();
+        }
+    }
 }
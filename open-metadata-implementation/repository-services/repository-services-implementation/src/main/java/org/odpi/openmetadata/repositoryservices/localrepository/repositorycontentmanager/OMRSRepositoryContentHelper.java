@@ -6,6 +6,8 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.ClassificationCondition;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSInstancePageCollector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSInstanceSortKey;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRepositoryPropertiesUtilities;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
@@ -15,8 +17,6 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -77,6 +77,24 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
     }
 
 
+    /**
+     * Return a value that changes each time a typeDef is added to, updated in or removed from the typeDefs
+     * active in the local repository.  It is maintained by the repository content manager so it is cheap
+     * enough to check on every query.
+     *
+     * @return version of the active typeDefs
+     */
+    @Override
+    public long getActiveTypesVersion()
+    {
+        final String methodName = "getActiveTypesVersion";
+
+        validateRepositoryContentManager(methodName);
+
+        return repositoryContentManager.getActiveTypesVersion();
+    }
+
+
     /**
      * Return the list of typeDefs known in the cohort.
      *
@@ -2135,55 +2153,19 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
                                                    int                  pageSize) throws PagingErrorException,
                                                                                          PropertyErrorException
     {
-        if (fullResults == null)
-        {
-            return null;
-        }
-
-        if (fullResults.isEmpty())
+        if ((fullResults == null) || (fullResults.isEmpty()))
         {
             return null;
         }
 
-        if (pageSize == 0)
-        {
-            return fullResults;
-        }
-
-        int fullResultsSize = fullResults.size();
-
-        if (fromElement >= fullResultsSize)
-        {
-            return null;
-        }
-
-        // If there is no sequencing order, or it is defined as 'ANY', there is no sorting to do
-        if (sequencingOrder != null && !sequencingOrder.equals(SequencingOrder.ANY))
-        {
-            if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
-            {
-                // If the sequencing is property-based, handover to the property comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareProperties(
-                        one.getProperties(),
-                        two.getProperties(),
-                        sequencingProperty,
-                        sequencingOrder
-                ));
-            }
-            else
-            {
-                // Otherwise handover to the instance comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder));
-            }
-        }
+        OMRSInstancePageCollector<EntityDetail> pageCollector = this.getEntityPageCollector(fromElement,
+                                                                                            sequencingProperty,
+                                                                                            sequencingOrder,
+                                                                                            pageSize);
 
-        if ((fromElement == 0) && (pageSize > fullResultsSize))
-        {
-            return fullResults;
-        }
+        pageCollector.addInstances(fullResults);
 
-        int toIndex = getToIndex(fromElement, pageSize, fullResultsSize);
-        return new ArrayList<>(fullResults.subList(fromElement, toIndex));
+        return pageCollector.getPage();
     }
 
 
@@ -2212,54 +2194,19 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
                                                          int                  pageSize) throws PagingErrorException,
                                                                                                PropertyErrorException
     {
-        if (fullResults == null)
+        if ((fullResults == null) || (fullResults.isEmpty()))
         {
             return null;
         }
 
-        if (fullResults.isEmpty())
-        {
-            return null;
-        }
+        OMRSInstancePageCollector<Relationship> pageCollector = this.getRelationshipPageCollector(fromElement,
+                                                                                                  sequencingProperty,
+                                                                                                  sequencingOrder,
+                                                                                                  pageSize);
 
-        int fullResultsSize = fullResults.size();
+        pageCollector.addInstances(fullResults);
 
-        if (fromElement >= fullResultsSize)
-        {
-            return null;
-        }
-
-        // If there is no sequencing order, or it is defined as 'ANY', there is no sorting to do
-        if (sequencingOrder != null && !sequencingOrder.equals(SequencingOrder.ANY))
-        {
-            if (sequencingOrder.equals(SequencingOrder.PROPERTY_ASCENDING) || sequencingOrder.equals(SequencingOrder.PROPERTY_DESCENDING))
-            {
-                // If the sequencing is property-based, handover to the property comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareProperties(
-                        one.getProperties(),
-                        two.getProperties(),
-                        sequencingProperty,
-                        sequencingOrder
-                ));
-            }
-            else
-            {
-                // Otherwise handover to the instance comparator
-                fullResults.sort((one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder));
-            }
-        }
-
-        if ((fromElement == 0) && (pageSize == 0 || pageSize > fullResultsSize))
-        {
-            return fullResults;
-        }
-        int toIndex = fullResultsSize;
-        
-        if (pageSize != 0)
-        {
-          toIndex = getToIndex(fromElement, pageSize, fullResultsSize);
-        }
-        return new ArrayList<>(fullResults.subList(fromElement, toIndex));
+        return pageCollector.getPage();
     }
 
 
@@ -2271,118 +2218,18 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
      * @param sequencingOrder nominated non-property sort order
      * @return sort result
      */
-    private static int  compareInstances(InstanceHeader  one,
-                                         InstanceHeader  two,
-                                         SequencingOrder sequencingOrder)
+    public static int  compareInstances(InstanceHeader  one,
+                                        InstanceHeader  two,
+                                        SequencingOrder sequencingOrder)
     {
-
-        int sortResult;
-
-        if (one == null && two == null)
-        {
-            sortResult = 0;
-        }
-        else if (one != null && two == null)
-        {
-            sortResult = 1;
-        }
-        else if (one == null)
-        {
-            sortResult = -1;
-        }
-        else
-        {
-            // Both are now non-null...
-            switch (sequencingOrder)
-            {
-                case GUID:
-                    String guidOne = one.getGUID();
-                    String guidTwo = two.getGUID();
-                    if (guidOne == null && guidTwo == null)
-                    {
-                        sortResult = 0;
-                    }
-                    else if (guidOne != null && guidTwo == null)
-                    {
-                        sortResult = 1;
-                    }
-                    else if (guidOne == null)
-                    {
-                        sortResult = -1;
-                    }
-                    else
-                    {
-                        sortResult = guidOne.compareTo(guidTwo);
-                    }
-                    break;
-                case LAST_UPDATE_RECENT:
-                case LAST_UPDATE_OLDEST:
-                    Date updateOne = one.getUpdateTime();
-                    Date updateTwo = two.getUpdateTime();
-                    if (updateOne == null && updateTwo == null)
-                    {
-                        sortResult = 0;
-                    }
-                    else if (updateOne != null && updateTwo == null)
-                    {
-                        sortResult = 1;
-                    }
-                    else if (updateOne == null)
-                    {
-                        sortResult = -1;
-                    }
-                    else
-                    {
-                        sortResult = updateOne.compareTo(updateTwo);
-                    }
-                    if (sequencingOrder.equals(SequencingOrder.LAST_UPDATE_RECENT))
-                    {
-                        // invert the result
-                        sortResult = -sortResult;
-                    }
-                    break;
-                case CREATION_DATE_RECENT:
-                case CREATION_DATE_OLDEST:
-                    Date createOne = one.getCreateTime();
-                    Date createTwo = two.getCreateTime();
-                    if (createOne == null && createTwo == null)
-                    {
-                        sortResult = 0;
-                    }
-                    else if (createOne != null && createTwo == null)
-                    {
-                        sortResult = 1;
-                    }
-                    else if (createOne == null)
-                    {
-                        sortResult = -1;
-                    }
-                    else
-                    {
-                        sortResult = createOne.compareTo(createTwo);
-                    }
-                    if (sequencingOrder.equals(SequencingOrder.CREATION_DATE_RECENT))
-                    {
-                        // invert the result
-                        sortResult = -sortResult;
-                    }
-                    break;
-                case ANY:
-                default:
-                    // No differentiation in search, so consider them equivalent regardless
-                    sortResult = 0;
-                    break;
-            }
-        }
-
-        return sortResult;
-
+        return OMRSInstanceSortKey.getInstanceSortKey(one, sequencingOrder).compareTo(OMRSInstanceSortKey.getInstanceSortKey(two, sequencingOrder));
     }
 
 
     /**
      * Compare the properties of two instances and determine the sort order based on the nominated property value and
-     * sort order.
+     * sort order.  If only one instance has a primitive value for the property it is sorted higher.  Values of
+     * different types are treated as equal.
      *
      * @param instance1Properties properties from first instance
      * @param instance2Properties properties from second instance
@@ -2390,151 +2237,16 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
      * @param sequencingOrder ascending or descending order
      * @return sort result
      */
-    private static int  compareProperties(InstanceProperties     instance1Properties,
-                                          InstanceProperties     instance2Properties,
-                                          String                 propertyName,
-                                          SequencingOrder        sequencingOrder)
+    public static int  compareProperties(InstanceProperties     instance1Properties,
+                                         InstanceProperties     instance2Properties,
+                                         String                 propertyName,
+                                         SequencingOrder        sequencingOrder)
     {
-
         // todo need to add support for properties in the instance header eg createdBy
-         /*
-          * Ideally we would not include all this type inspection in the comparison
-          * function - but we do not know the types until we are comparing the
-          * pair of instances. There is no guarantee the list is homogeneous or that
-          * the objects to be compared are of the same type.
-          */
-
-         int    sortResult;
-         String o1PropertyTypeName = null;
-         String o2PropertyTypeName = null;
-         Object o1PropertyValue    = null;
-         Object o2PropertyValue    = null;
-
-         /*
-          * If instance1 has the named property, retrieve its value. Same for instance2.
-          * If neither object has the property return 0
-          * If one object has the property sort that higher: +1 if instance1, -1 if instance2
-          * If both have a value for the property, of different types, return 0.
-          * If both have a value for the property, of the same type, compare them...
-          * This is only performed for primitives, anything else is treated as ignored
-          */
-         if (instance1Properties != null)
-         {
-             InstancePropertyValue o1PropValue = instance1Properties.getPropertyValue(propertyName);
-             if (o1PropValue != null)
-             {
-                 InstancePropertyCategory o1PropCat = o1PropValue.getInstancePropertyCategory();
-                 if (o1PropCat == InstancePropertyCategory.PRIMITIVE)
-                 {
-                     o1PropertyTypeName = o1PropValue.getTypeName();
-                     o1PropertyValue = ((PrimitivePropertyValue) o1PropValue).getPrimitiveValue();
-                 }
-             }
-         }
-
-         if (instance2Properties != null)
-         {
-             InstancePropertyValue o2PropValue = instance2Properties.getPropertyValue(propertyName);
-             if (o2PropValue != null)
-             {
-                 InstancePropertyCategory o2PropCat = o2PropValue.getInstancePropertyCategory();
-                 if (o2PropCat == InstancePropertyCategory.PRIMITIVE)
-                 {
-                     o2PropertyTypeName = o2PropValue.getTypeName();
-                     o2PropertyValue = ((PrimitivePropertyValue) o2PropValue).getPrimitiveValue();
-                 }
-             }
-         }
-
-         if (o1PropertyTypeName == null && o2PropertyTypeName == null)
-         {
-             sortResult = 0;
-         }
-         else if (o1PropertyTypeName != null && o2PropertyTypeName == null)
-         {
-             sortResult = 1;
-         }
-         else if (o1PropertyTypeName == null) // implicit: o2PropertyTypeName != null
-         {
-             sortResult = -1;
-         }
-         else if (!o1PropertyTypeName.equals(o2PropertyTypeName))
-         {
-             sortResult = 0;
-         }
-         else
-         {
-             // Both objects have values, of the same type for the named property - compare...
-             sortResult = typeSpecificCompare(o1PropertyTypeName, o1PropertyValue, o2PropertyValue);
-
-         }
-         if (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING)
-         {
-             sortResult = sortResult * (-1);
-         }
-
-         return sortResult;
-
-    }
-
-
-    /**
-     * Compare two objects based on their type.
-     * It must have been previously established that both objects are of the type
-     * indicated by the supplied typeName
-     *
-     * @param typeName name of type
-     * @param v1 value from instance 1
-     * @param v2 value from instance 2
-     * @return sort order
-     */
-    private static int typeSpecificCompare(String typeName, Object v1, Object v2)
-    {
-        int sortOrder;
-        switch (typeName)
-        {
-            case "boolean":
-                sortOrder = ((Boolean) v1).compareTo((Boolean) v2);
-                break;
-            case "byte":
-                sortOrder = ((Byte) v1).compareTo((Byte) v2);
-                break;
-            case "char":
-                sortOrder = ((Character) v1).compareTo((Character) v2);
-                break;
-            case "short":
-                sortOrder = ((Short) v1).compareTo((Short) v2);
-                break;
-            case "integer":
-                sortOrder = ((Integer) v1).compareTo((Integer) v2);
-                break;
-            case "long":
-                sortOrder = ((Long) v1).compareTo((Long) v2);
-                break;
-            case "float":
-                sortOrder = ((Float) v1).compareTo((Float) v2);
-                break;
-            case "double":
-                sortOrder = ((Double) v1).compareTo((Double) v2);
-                break;
-            case "biginteger":
-                sortOrder = ((BigInteger) v1).compareTo((BigInteger) v2);
-                break;
-            case "bigdecimal":
-                sortOrder = ((BigDecimal) v1).compareTo((BigDecimal) v2);
-                break;
-            case "string":
-                sortOrder = ((String) v1).compareTo((String) v2);
-                break;
-            case "date":
-                sortOrder = ((Date) v1).compareTo((Date) v2);
-                break;
-            default:
-                log.debug("Property type not catered for in compare function");
-                sortOrder = 0;
-        }
+        OMRSInstanceSortKey instance1Key = OMRSInstanceSortKey.getPropertySortKey(instance1Properties, propertyName, sequencingOrder);
+        OMRSInstanceSortKey instance2Key = OMRSInstanceSortKey.getPropertySortKey(instance2Properties, propertyName, sequencingOrder);
 
-        return sortOrder;
+        return instance1Key.compareTo(instance2Key);
     }
 
 
@@ -3116,34 +2828,6 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
     }
 
 
-    /**
-     * When issuing find requests with paging, it can be that we have all the data, but need to only return
-     * a subset of the data based on the page size. This method is given the from index and a pageSize and calculates
-     * the to index.
-     * @param fromIndex the index into the data to start from.
-     * @param pageSize the page size to use. 0 means no paging.
-     * @param totalSize the total size of the data.
-     * @return the to index.
-     */
-    private int getToIndex(int fromIndex, int pageSize, int totalSize)
-    {
-        int toIndex;
-
-        if (totalSize < fromIndex + pageSize)
-        {
-            toIndex = totalSize;
-        }
-        else
-        {
-            toIndex = fromIndex + pageSize;
-        }
-
-        return toIndex;
-    }
-
-
-
-
     /**
      * Throws a logic error exception when the repository validator is called with invalid parameters.
      * Normally this means the repository validator methods have been called in the wrong order.
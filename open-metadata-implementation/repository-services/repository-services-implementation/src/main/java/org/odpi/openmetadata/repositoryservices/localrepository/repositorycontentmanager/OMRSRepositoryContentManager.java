@@ -21,6 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * OMRSRepositoryContentManager supports an in-memory cache of TypeDefs for the local server.  It is used by the OMRS
@@ -62,6 +63,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     private Map<String, InstanceType>       knownInstanceTypes             = new HashMap<>();
     private Map<String, String>             metadataCollectionNames        = new HashMap<>();
     private Map<String, Set<String>>        knownPropertyToTypeDefNames    = new HashMap<>();
+    private AtomicLong                      activeTypesVersion             = new AtomicLong(0L);
 
 
     /*
@@ -157,6 +159,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
         {
             activeTypeDefGUIDs.put(newTypeDef.getGUID(), newTypeDef);
             activeTypeDefNames.put(newTypeDef.getName(), newTypeDef);
+            activeTypesVersion.incrementAndGet();
 
             log.debug("New Active Type {} from {}. Full TypeDef: {}", newTypeDef.getName(), sourceName, newTypeDef);
         }
@@ -348,6 +351,7 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
             {
                 activeTypeDefGUIDs.remove(obsoleteTypeDefGUID);
                 activeTypeDefNames.remove(obsoleteTypeDefName);
+                activeTypesVersion.incrementAndGet();
 
                 log.debug("Deleted Active TypeDef " + obsoleteTypeDefName + " from " + sourceName);
             }
@@ -1158,6 +1162,18 @@ public class OMRSRepositoryContentManager extends OMRSTypeDefEventProcessor impl
     }
 
 
+    /**
+     * Return a value that changes each time a typeDef is added to, updated in or removed from the typeDefs
+     * active in the local repository.
+     *
+     * @return version of the active typeDefs
+     */
+    long getActiveTypesVersion()
+    {
+        return activeTypesVersion.get();
+    }
+
+
     /**
      * Return the list of attributeTypeDefs active in the local repository.
      *
@@ -3,6 +3,7 @@
 package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRegexMatcher;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSRepositoryPropertiesUtilities;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -3803,7 +3804,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                                                 {
                                                     try
                                                     {
-                                                        if (instancePropertyValueString.matches(matchPropertyValueString))
+                                                        if (OMRSRegexMatcher.getMatcher(matchPropertyValueString).matches(instancePropertyValueString))
                                                         {
                                                             matchingProperties++;
                                                         }
@@ -3862,7 +3863,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                     if (matchValue != null)
                     {
-                        if (expectedValue.matches(matchValue))
+                        if (OMRSRegexMatcher.getMatcher(matchValue).matches(expectedValue))
                         {
                             result = true;
                         }
@@ -4220,7 +4221,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                             else
                             {
                                 String actual = actualValue.valueAsString();
-                                matchesProperties = actual.matches(test);
+                                matchesProperties = OMRSRegexMatcher.getMatcher(test).matches(actual);
                             }
                         }
                         else
@@ -4293,11 +4294,15 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                 boolean isClassified = verifyEntityIsClassified(classificationName, entity);
                 SearchProperties properties = condition.getMatchProperties();
                 boolean classificationMatches = false;
-                for (Classification classification : classifications)
+                /* An unclassified entity matches none of the conditions (so it is returned by a NONE search) */
+                if (classifications != null)
                 {
-                    if (classificationName.equals(classification.getName()))
+                    for (Classification classification : classifications)
                     {
-                        classificationMatches = verifyMatchingInstancePropertyValues(properties, entity, classification.getProperties());
+                        if (classificationName.equals(classification.getName()))
+                        {
+                            classificationMatches = verifyMatchingInstancePropertyValues(properties, entity, classification.getProperties());
+                        }
                     }
                 }
                 matchingClassificationCount += (isClassified && classificationMatches) ? 1 : 0;
@@ -4444,6 +4449,50 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
             return false;
         }
 
+        OMRSRegexMatcher searchMatcher;
+
+        try
+        {
+            searchMatcher = OMRSRegexMatcher.getMatcher(searchCriteria);
+        }
+        catch (Exception   error)
+        {
+            throw new RepositoryErrorException(OMRSErrorCode.BAD_PROPERTY_FOR_INSTANCE.getMessageDefinition(error.getClass().getName(),
+                                                                                                            searchCriteria,
+                                                                                                            methodName,
+                                                                                                            sourceName,
+                                                                                                            error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+
+        return this.verifyInstancePropertiesMatchSearchCriteria(sourceName, properties, searchMatcher, methodName);
+    }
+
+
+    /**
+     * Search for property values matching the search criteria that has been compiled by the caller.
+     * This avoids compiling the regular expression for every instance tested by a search.
+     *
+     * @param sourceName source of the request (used for logging)
+     * @param properties list of properties associated with the in instance
+     * @param searchMatcher compiled regular expression for testing the property values
+     * @param methodName name of the method requiring the search.
+     * @return boolean indicating whether the search criteria is located in any of the string parameter values.
+     * @throws RepositoryErrorException the properties are not properly set up in the instance
+     */
+    @Override
+    public boolean verifyInstancePropertiesMatchSearchCriteria(String              sourceName,
+                                                               InstanceProperties  properties,
+                                                               OMRSRegexMatcher    searchMatcher,
+                                                               String              methodName) throws RepositoryErrorException
+    {
+        if (properties == null)
+        {
+            return false;
+        }
+
         Iterator<String>  propertyNames = properties.getPropertyNames();
 
         try
@@ -4462,7 +4511,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                             if (stringProperty != null)
                             {
-                                if (stringProperty.matches(searchCriteria))
+                                if (searchMatcher.matches(stringProperty))
                                 {
                                     return true;
                                 }
@@ -4476,7 +4525,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
                         String  enumValue = enumPropertyValue.getSymbolicName();
                         if (enumValue != null)
                         {
-                            if (enumValue.matches(searchCriteria))
+                            if (searchMatcher.matches(enumValue))
                             {
                                 return true;
                             }
@@ -4488,7 +4537,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                         if (verifyInstancePropertiesMatchSearchCriteria(sourceName,
                                                                         structPropertyValue.getAttributes(),
-                                                                        searchCriteria,
+                                                                        searchMatcher,
                                                                         methodName))
                         {
                             return true;
@@ -4500,7 +4549,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                         if (verifyInstancePropertiesMatchSearchCriteria(sourceName,
                                                                         arrayPropertyValue.getArrayValues(),
-                                                                        searchCriteria,
+                                                                        searchMatcher,
                                                                         methodName))
                         {
                             return true;
@@ -4512,7 +4561,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
 
                         if (verifyInstancePropertiesMatchSearchCriteria(sourceName,
                                                                         mapPropertyValue.getMapValues(),
-                                                                        searchCriteria,
+                                                                        searchMatcher,
                                                                         methodName))
                         {
                             return true;
@@ -4527,7 +4576,7 @@ public class OMRSRepositoryContentValidator implements OMRSRepositoryValidator
              * Probably a class cast error which should never occur.
              */
             throw new RepositoryErrorException(OMRSErrorCode.BAD_PROPERTY_FOR_INSTANCE.getMessageDefinition(error.getClass().getName(),
-                                                                                                            searchCriteria,
+                                                                                                            searchMatcher.getRegex(),
                                                                                                             methodName,
                                                                                                             sourceName,
                                                                                                             error.getMessage()),
@@ -0,0 +1,212 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.archivemanager;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentsReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventProcessorInterface;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Test that the OMRSArchiveInstanceLoader passes all of the entities to the local repository before any
+ * relationship, and that a failure in one of the loading threads is returned to the caller.
+ */
+public class TestOMRSArchiveInstanceLoader
+{
+    private static final String localMetadataCollectionId = "b3a7a7ad-8d0f-4b3c-9a4a-6a57b0a0f1a4";
+    private static final int    entityCount               = 40;
+    private static final int    relationshipCount         = 20;
+    private static final int    batchSize                 = 5;
+    private static final int    loadThreads               = 4;
+
+
+    /**
+     * Each relationship must be passed to the local repository after every entity in the archive has been processed,
+     * even though the entities are spread over several lanes and batches.  Every instance batch started on the
+     * event manager is ended.
+     */
+    @Test
+    public void testEntitiesProcessedBeforeRelationships()
+    {
+        OMRSInstanceEventProcessorInterface instanceProcessor    = mock(OMRSInstanceEventProcessorInterface.class);
+        OMRSRepositoryEventManager          eventManager         = mock(OMRSRepositoryEventManager.class);
+        AtomicInteger                       processedEntities    = new AtomicInteger(0);
+        AtomicInteger                       earlyRelationships   = new AtomicInteger(0);
+        AtomicInteger                       processedRelations   = new AtomicInteger(0);
+        AtomicInteger                       openInstanceBatches  = new AtomicInteger(0);
+        AtomicInteger                       startedInstanceBatch = new AtomicInteger(0);
+
+        doAnswer(invocation ->
+                 {
+                     /*
+                      * Slow the entities down so that the relationships would overtake them without the barrier.
+                      */
+                     Thread.sleep(2);
+                     processedEntities.incrementAndGet();
+                     return null;
+                 }).when(instanceProcessor).processNewEntityEvent(any(), any(), any(), any(), any(), any(EntityDetail.class));
+
+        doAnswer(invocation ->
+                 {
+                     if (processedEntities.get() < entityCount)
+                     {
+                         earlyRelationships.incrementAndGet();
+                     }
+
+                     processedRelations.incrementAndGet();
+                     return null;
+                 }).when(instanceProcessor).processNewRelationshipEvent(any(), any(), any(), any(), any(), any(Relationship.class));
+
+        doAnswer(invocation ->
+                 {
+                     startedInstanceBatch.incrementAndGet();
+                     openInstanceBatches.incrementAndGet();
+                     return null;
+                 }).when(eventManager).startInstanceBatch();
+
+        doAnswer(invocation ->
+                 {
+                     openInstanceBatches.decrementAndGet();
+                     return null;
+                 }).when(eventManager).endInstanceBatch();
+
+        OMRSArchiveInstanceLoader loader = new OMRSArchiveInstanceLoader(localMetadataCollectionId,
+                                                                         getArchiveProperties(),
+                                                                         instanceProcessor,
+                                                                         eventManager,
+                                                                         mock(AuditLog.class),
+                                                                         loadThreads);
+
+        int instanceCount = loader.loadInstances(getArchiveReader(), batchSize);
+
+        assertEquals(instanceCount, entityCount + relationshipCount);
+        assertEquals(processedEntities.get(), entityCount);
+        assertEquals(processedRelations.get(), relationshipCount);
+        assertEquals(earlyRelationships.get(), 0);
+        assertTrue(startedInstanceBatch.get() > 0);
+        assertEquals(openInstanceBatches.get(), 0);
+    }
+
+
+    /**
+     * A failure to process an instance on one of the lanes stops the load and is passed back to the caller.
+     */
+    @Test
+    public void testFailureInOneLane()
+    {
+        final String failingEntityGUID = "entity-17";
+
+        OMRSInstanceEventProcessorInterface instanceProcessor  = mock(OMRSInstanceEventProcessorInterface.class);
+        AtomicInteger                       processedRelations = new AtomicInteger(0);
+
+        doAnswer(invocation ->
+                 {
+                     EntityDetail entity = invocation.getArgument(5);
+
+                     if (failingEntityGUID.equals(entity.getGUID()))
+                     {
+                         throw new IllegalStateException("Unable to store " + failingEntityGUID);
+                     }
+
+                     return null;
+                 }).when(instanceProcessor).processNewEntityEvent(any(), any(), any(), any(), any(), any(EntityDetail.class));
+
+        doAnswer(invocation ->
+                 {
+                     processedRelations.incrementAndGet();
+                     return null;
+                 }).when(instanceProcessor).processNewRelationshipEvent(any(), any(), any(), any(), any(), any(Relationship.class));
+
+        OMRSArchiveInstanceLoader loader = new OMRSArchiveInstanceLoader(localMetadataCollectionId,
+                                                                         getArchiveProperties(),
+                                                                         instanceProcessor,
+                                                                         null,
+                                                                         mock(AuditLog.class),
+                                                                         loadThreads);
+
+        IllegalStateException error = expectThrows(IllegalStateException.class,
+                                                   () -> loader.loadInstances(getArchiveReader(), batchSize));
+
+        assertTrue(error.getMessage().contains(failingEntityGUID));
+
+        /*
+         * The relationships are only started once all of the entities have been processed successfully.
+         */
+        assertEquals(processedRelations.get(), 0);
+    }
+
+
+    /**
+     * Return the properties of the test archive.
+     *
+     * @return archive properties
+     */
+    private OpenMetadataArchiveProperties getArchiveProperties()
+    {
+        OpenMetadataArchiveProperties archiveProperties = new OpenMetadataArchiveProperties();
+
+        archiveProperties.setArchiveGUID("0a6c7d0e-5c4f-4b8e-8d6b-1c4c3f0c6e21");
+        archiveProperties.setArchiveName("TestArchiveInstanceLoader");
+        archiveProperties.setArchiveType(OpenMetadataArchiveType.CONTENT_PACK);
+        archiveProperties.setOriginatorName("TestOriginator");
+        archiveProperties.setCreationDate(new Date());
+
+        return archiveProperties;
+    }
+
+
+    /**
+     * Return a reader for an archive holding the test entities followed by relationships between them.
+     *
+     * @return reader
+     */
+    private OpenMetadataArchiveContentsReader getArchiveReader()
+    {
+        List<EntityDetail> entities      = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID("entity-" + i);
+            entities.add(entity);
+        }
+
+        for (int i = 0; i < relationshipCount; i++)
+        {
+            Relationship relationship = new Relationship();
+
+            relationship.setGUID("relationship-" + i);
+            relationships.add(relationship);
+        }
+
+        OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+        OpenMetadataArchive              archive       = new OpenMetadataArchive();
+
+        instanceStore.setEntities(entities);
+        instanceStore.setRelationships(relationships);
+        archive.setArchiveInstanceStore(instanceStore);
+
+        return new OpenMetadataArchiveContentsReader(archive);
+    }
+}
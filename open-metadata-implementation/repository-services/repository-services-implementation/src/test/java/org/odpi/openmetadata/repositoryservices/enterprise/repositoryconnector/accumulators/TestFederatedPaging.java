@@ -0,0 +1,335 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestFederatedPaging
+{
+    private static final String QUERY_SIGNATURE = "findEntities{userId=testUser}";
+    private static final String SORT_PROPERTY   = "qualifiedName";
+    private static final int    PAGE_SIZE       = 5;
+
+    private final OMRSMetadataCollection metadataCollection = mock(OMRSMetadataCollection.class);
+
+
+    @Test
+    void testPagesWithCursorMatchGlobalOrder()
+    {
+        Map<String, List<EntityDetail>> members         = getMembers();
+        List<String>                    expectedOrder   = getExpectedOrder(members);
+        FederatedPagingCursorCache      cursorCache     = new FederatedPagingCursorCache();
+        List<String>                    pagedOrder      = new ArrayList<>();
+        int                             startingElement = 0;
+        List<EntityDetail>              page;
+
+        do
+        {
+            EntityAccumulator accumulator = new EntityAccumulator(null, null, null);
+
+            accumulator.setPagingParameters(startingElement, SORT_PROPERTY, SequencingOrder.PROPERTY_ASCENDING, PAGE_SIZE);
+            accumulator.setPagingCursor(cursorCache, QUERY_SIGNATURE);
+
+            if (startingElement > 0)
+            {
+                /*
+                 * The previous page left a cursor so each member only returns one page.
+                 */
+                assertEquals(accumulator.getMemberPageSize(), PAGE_SIZE);
+            }
+
+            page = this.issueRequests(accumulator, members);
+
+            if (page != null)
+            {
+                assertTrue(page.size() <= PAGE_SIZE);
+                pagedOrder.addAll(getGUIDs(page));
+            }
+
+            startingElement += PAGE_SIZE;
+        }
+        while ((page != null) && (page.size() == PAGE_SIZE));
+
+        assertEquals(pagedOrder, expectedOrder);
+    }
+
+
+    @Test
+    void testPageWithoutCursor()
+    {
+        Map<String, List<EntityDetail>> members       = getMembers();
+        List<String>                    expectedOrder = getExpectedOrder(members);
+        EntityAccumulator               accumulator   = new EntityAccumulator(null, null, null);
+
+        accumulator.setPagingParameters(PAGE_SIZE * 2, SORT_PROPERTY, SequencingOrder.PROPERTY_ASCENDING, PAGE_SIZE);
+        accumulator.setPagingCursor(new FederatedPagingCursorCache(), QUERY_SIGNATURE);
+
+        assertEquals(accumulator.getMemberStartingElement("member1"), 0);
+        assertEquals(accumulator.getMemberPageSize(), PAGE_SIZE * 3);
+
+        List<EntityDetail> page = this.issueRequests(accumulator, members);
+
+        assertNotNull(page);
+        assertEquals(getGUIDs(page), expectedOrder.subList(PAGE_SIZE * 2, PAGE_SIZE * 3));
+    }
+
+
+    @Test
+    void testDuplicatesReturnLatestVersionOnce()
+    {
+        EntityAccumulator accumulator = new EntityAccumulator(null, null, null);
+
+        accumulator.setPagingParameters(0, SORT_PROPERTY, SequencingOrder.PROPERTY_ASCENDING, PAGE_SIZE);
+
+        accumulator.addEntities(Arrays.asList(getEntity("guid-a", "a", 1L), getEntity("guid-b", "b", 1L)), "member1");
+        accumulator.addEntities(Arrays.asList(getEntity("guid-a", "a", 2L), getEntity("guid-c", "c", 1L)), "member2");
+
+        List<EntityDetail> page = accumulator.getResults(null, metadataCollection);
+
+        assertNotNull(page);
+        assertEquals(getGUIDs(page), Arrays.asList("guid-a", "guid-b", "guid-c"));
+        assertEquals(page.get(0).getVersion(), 2L);
+    }
+
+
+    @Test
+    void testPageBeyondResults()
+    {
+        EntityAccumulator accumulator = new EntityAccumulator(null, null, null);
+
+        accumulator.setPagingParameters(10, SORT_PROPERTY, SequencingOrder.PROPERTY_ASCENDING, PAGE_SIZE);
+        accumulator.addEntities(Collections.singletonList(getEntity("guid-a", "a", 1L)), "member1");
+
+        assertNull(accumulator.getResults(null, metadataCollection));
+    }
+
+
+    @Test
+    void testClosedAccumulatorIgnoresLateResults() throws RepositoryErrorException
+    {
+        EntityAccumulator accumulator = new EntityAccumulator(null, null, null);
+
+        accumulator.registerExecutor();
+        accumulator.setPagingParameters(0, SORT_PROPERTY, SequencingOrder.PROPERTY_ASCENDING, PAGE_SIZE);
+        accumulator.addEntities(Collections.singletonList(getEntity("guid-a", "a", 1L)), "member1");
+        accumulator.closeResults();
+
+        accumulator.addEntities(Collections.singletonList(getEntity("guid-b", "b", 1L)), "member2");
+        accumulator.captureException("member2",
+                                     new RepositoryErrorException(OMRSErrorCode.FEDERATED_REQUEST_TIMEOUT.getMessageDefinition("member2", "findEntities", "0"),
+                                                                  this.getClass().getName(),
+                                                                  "findEntities"));
+
+        List<EntityDetail> page = accumulator.getResults(null, metadataCollection);
+
+        assertNotNull(page);
+        assertEquals(getGUIDs(page), Collections.singletonList("guid-a"));
+        assertEquals(accumulator.getInstanceCount(), 1);
+        assertFalse(accumulator.areResultsComplete());
+        accumulator.throwCapturedRepositoryErrorException();
+    }
+
+
+    @Test
+    void testRelationshipShortPageFromOneMember()
+    {
+        Map<String, List<Relationship>> members         = new HashMap<>();
+        FederatedPagingCursorCache      cursorCache     = new FederatedPagingCursorCache();
+        List<String>                    expectedOrder   = new ArrayList<>();
+        List<String>                    pagedOrder      = new ArrayList<>();
+        int                             startingElement = 0;
+        List<Relationship>              page;
+
+        /*
+         * Member 1 runs out of results part way through the first page.
+         */
+        for (int member = 1; member <= 3; member++)
+        {
+            List<Relationship> memberResults = new ArrayList<>();
+            int                memberSize    = (member == 1) ? 2 : 8;
+
+            for (int i = 0; i < memberSize; i++)
+            {
+                String name = String.format("name-%03d", (i * 3) + member);
+
+                memberResults.add(getRelationship("guid-" + name, name));
+                expectedOrder.add("guid-" + name);
+            }
+
+            members.put("member" + member, memberResults);
+        }
+
+        Collections.sort(expectedOrder);
+
+        do
+        {
+            RelationshipAccumulator accumulator = new RelationshipAccumulator(null, null, null);
+
+            accumulator.setPagingParameters(startingElement, SORT_PROPERTY, SequencingOrder.PROPERTY_ASCENDING, PAGE_SIZE);
+            accumulator.setPagingCursor(cursorCache, QUERY_SIGNATURE);
+
+            for (Map.Entry<String, List<Relationship>> member : members.entrySet())
+            {
+                List<Relationship> memberResults = member.getValue();
+                int                fromIndex     = Math.min(accumulator.getMemberStartingElement(member.getKey()), memberResults.size());
+                int                toIndex       = Math.min(fromIndex + accumulator.getMemberPageSize(), memberResults.size());
+
+                accumulator.addRelationships(new ArrayList<>(memberResults.subList(fromIndex, toIndex)), member.getKey());
+            }
+
+            page = accumulator.getResults(null);
+
+            assertNotNull(page);
+            assertTrue(page.size() <= PAGE_SIZE);
+
+            for (Relationship relationship : page)
+            {
+                pagedOrder.add(relationship.getGUID());
+            }
+
+            startingElement += PAGE_SIZE;
+        }
+        while (page.size() == PAGE_SIZE);
+
+        assertEquals(pagedOrder, expectedOrder);
+    }
+
+
+    @Test
+    void testRelationshipPageBeyondResults()
+    {
+        RelationshipAccumulator accumulator = new RelationshipAccumulator(null, null, null);
+
+        accumulator.setPagingParameters(10, SORT_PROPERTY, SequencingOrder.PROPERTY_ASCENDING, PAGE_SIZE);
+        accumulator.addRelationships(Collections.singletonList(getRelationship("guid-a", "a")), "member1");
+
+        List<Relationship> page = accumulator.getResults(null);
+
+        assertNotNull(page);
+        assertTrue(page.isEmpty());
+    }
+
+
+    /**
+     * Simulate the members of the cohort returning the elements requested by the accumulator.
+     */
+    private List<EntityDetail> issueRequests(EntityAccumulator               accumulator,
+                                             Map<String, List<EntityDetail>> members)
+    {
+        for (Map.Entry<String, List<EntityDetail>> member : members.entrySet())
+        {
+            List<EntityDetail> memberResults = member.getValue();
+            int                fromIndex     = Math.min(accumulator.getMemberStartingElement(member.getKey()), memberResults.size());
+            int                toIndex       = Math.min(fromIndex + accumulator.getMemberPageSize(), memberResults.size());
+
+            accumulator.addEntities(new ArrayList<>(memberResults.subList(fromIndex, toIndex)), member.getKey());
+        }
+
+        return accumulator.getResults(null, metadataCollection);
+    }
+
+
+    /**
+     * Three members each holding sorted results.  Member 3 holds copies of some of member 1's entities.
+     */
+    private Map<String, List<EntityDetail>> getMembers()
+    {
+        Map<String, List<EntityDetail>> members = new HashMap<>();
+
+        for (int member = 1; member <= 3; member++)
+        {
+            List<EntityDetail> memberResults = new ArrayList<>();
+
+            for (int i = 0; i < 12; i++)
+            {
+                int    value = (member == 3) ? (i * 3) + 1 : (i * 3) + member;
+                String name  = String.format("name-%03d", value);
+
+                memberResults.add(getEntity("guid-" + name, name, 1L));
+            }
+
+            members.put("member" + member, memberResults);
+        }
+
+        return members;
+    }
+
+
+    private List<String> getExpectedOrder(Map<String, List<EntityDetail>> members)
+    {
+        SortedSet<String> guids = new TreeSet<>();
+
+        for (List<EntityDetail> memberResults : members.values())
+        {
+            guids.addAll(getGUIDs(memberResults));
+        }
+
+        return new ArrayList<>(guids);
+    }
+
+
+    private List<String> getGUIDs(List<EntityDetail> entities)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (EntityDetail entity : entities)
+        {
+            guids.add(entity.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    private Relationship getRelationship(String guid,
+                                         String qualifiedName)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setVersion(1L);
+        relationship.setProperties(getEntity(guid, qualifiedName, 1L).getProperties());
+
+        return relationship;
+    }
+
+
+    private EntityDetail getEntity(String guid,
+                                   String qualifiedName,
+                                   long   version)
+    {
+        EntityDetail           entity     = new EntityDetail();
+        InstanceProperties     properties = new InstanceProperties();
+        PrimitivePropertyValue value      = new PrimitivePropertyValue();
+
+        value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        value.setPrimitiveValue(qualifiedName);
+        value.setTypeName("string");
+        properties.setProperty(SORT_PROPERTY, value);
+
+        entity.setGUID(guid);
+        entity.setVersion(version);
+        entity.setProperties(properties);
+
+        return entity;
+    }
+}
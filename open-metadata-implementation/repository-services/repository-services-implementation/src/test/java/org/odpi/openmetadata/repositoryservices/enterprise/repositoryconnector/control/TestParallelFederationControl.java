@@ -0,0 +1,307 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestParallelFederationControl
+{
+    private static final String USER_ID     = "testUser";
+    private static final String METHOD_NAME = "findEntities";
+
+    private static final long   FAILING_REQUEST = -1L;
+
+    private FederationWorkerPool workerPool;
+
+
+    @BeforeMethod
+    void setUp()
+    {
+        workerPool = new FederationWorkerPool("testServer", 4, 2000);
+    }
+
+
+    @AfterMethod
+    void tearDown()
+    {
+        workerPool.shutdown();
+    }
+
+
+    @Test
+    void testMembersAreCalledConcurrently() throws Exception
+    {
+        Map<String, Long>             responseTimes = new HashMap<>();
+        List<OMRSRepositoryConnector> connectors    = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++)
+        {
+            responseTimes.put("member" + i, 300L);
+            connectors.add(getConnector("member" + i));
+        }
+
+        TestExecutor              executor = new TestExecutor(responseTimes);
+        ParallelFederationControl control  = new ParallelFederationControl(USER_ID, connectors, METHOD_NAME, workerPool);
+
+        long start = System.currentTimeMillis();
+        control.executeCommand(executor);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(executor.state.completedMembers, responseTimes.keySet());
+        assertTrue(elapsed < 1000, "Federated request took " + elapsed + "ms");
+        assertTrue(executor.state.errors.isEmpty());
+    }
+
+
+    @Test
+    void testSlowMemberTimesOut() throws Exception
+    {
+        FederationWorkerPool timeoutPool = new FederationWorkerPool("testServer", 4, 200);
+
+        try
+        {
+            Map<String, Long> responseTimes = new HashMap<>();
+
+            responseTimes.put("fastMember", 10L);
+            responseTimes.put("slowMember", 10000L);
+
+            List<OMRSRepositoryConnector> connectors = Arrays.asList(getConnector("fastMember"), getConnector("slowMember"));
+
+            TestExecutor              executor = new TestExecutor(responseTimes);
+            ParallelFederationControl control  = new ParallelFederationControl(USER_ID, connectors, METHOD_NAME, timeoutPool);
+
+            long start = System.currentTimeMillis();
+            control.executeCommand(executor);
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue(elapsed < 5000, "Federated request took " + elapsed + "ms");
+            assertEquals(executor.state.completedMembers, Collections.singleton("fastMember"));
+            assertEquals(executor.state.errors.keySet(), Collections.singleton("slowMember"));
+        }
+        finally
+        {
+            timeoutPool.shutdown();
+        }
+    }
+
+
+    @Test
+    void testSufficientResultsCancelsStragglers() throws Exception
+    {
+        Map<String, Long> responseTimes = new HashMap<>();
+
+        responseTimes.put("fastMember", 10L);
+        responseTimes.put("slowMember", 10000L);
+
+        List<OMRSRepositoryConnector> connectors = Arrays.asList(getConnector("fastMember"), getConnector("slowMember"));
+
+        TestExecutor executor = new TestExecutor(responseTimes);
+        executor.state.sufficientResults = 1;
+
+        long start = System.currentTimeMillis();
+        new ParallelFederationControl(USER_ID, connectors, METHOD_NAME, workerPool).executeCommand(executor);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertTrue(elapsed < 1500, "Federated request took " + elapsed + "ms");
+        assertEquals(executor.state.completedMembers, Collections.singleton("fastMember"));
+        assertTrue(executor.state.errors.isEmpty());
+    }
+
+
+    @Test
+    void testStragglerResultsAreIgnored() throws Exception
+    {
+        Map<String, Long> responseTimes = new HashMap<>();
+
+        responseTimes.put("fastMember", 10L);
+        responseTimes.put("slowMember", 300L);
+
+        List<OMRSRepositoryConnector> connectors = Arrays.asList(getConnector("fastMember"), getConnector("slowMember"));
+
+        TestExecutor executor = new TestExecutor(responseTimes);
+        executor.state.sufficientResults = 1;
+
+        new ParallelFederationControl(USER_ID, connectors, METHOD_NAME, workerPool).executeCommand(executor);
+
+        /*
+         * The slow member is still running after the request completes.  Its results arrive once the results
+         * are closed.
+         */
+        Thread.sleep(600);
+
+        assertEquals(executor.state.completedMembers, Collections.singleton("fastMember"));
+        assertEquals(executor.state.lateMembers, Collections.singleton("slowMember"));
+    }
+
+
+    @Test
+    void testFailedRequestIsRecorded() throws Exception
+    {
+        Map<String, Long> responseTimes = new HashMap<>();
+
+        responseTimes.put("goodMember", 10L);
+        responseTimes.put("failingMember", FAILING_REQUEST);
+
+        List<OMRSRepositoryConnector> connectors = Arrays.asList(getConnector("goodMember"), getConnector("failingMember"));
+
+        TestExecutor executor = new TestExecutor(responseTimes);
+
+        new ParallelFederationControl(USER_ID, connectors, METHOD_NAME, workerPool).executeCommand(executor);
+
+        assertEquals(executor.state.completedMembers, Collections.singleton("goodMember"));
+        assertEquals(executor.state.errors.keySet(), Collections.singleton("failingMember"));
+        assertTrue(executor.state.errors.get("failingMember").getCause() instanceof StackOverflowError);
+    }
+
+
+    @Test
+    void testNoWorkerPoolRunsSequentially() throws Exception
+    {
+        Map<String, Long> responseTimes = new HashMap<>();
+
+        responseTimes.put("member1", 0L);
+        responseTimes.put("member2", 0L);
+
+        List<OMRSRepositoryConnector> connectors = Arrays.asList(getConnector("member1"), getConnector("member2"));
+
+        TestExecutor executor = new TestExecutor(responseTimes);
+
+        new ParallelFederationControl(USER_ID, connectors, METHOD_NAME).executeCommand(executor);
+
+        assertEquals(executor.state.completedMembers, responseTimes.keySet());
+        assertEquals(executor.state.callingThreads, Collections.singleton(Thread.currentThread().getName()));
+    }
+
+
+    private OMRSRepositoryConnector getConnector(String metadataCollectionId) throws RepositoryErrorException
+    {
+        OMRSRepositoryConnector connector          = mock(OMRSRepositoryConnector.class);
+        OMRSMetadataCollection  metadataCollection = mock(OMRSMetadataCollection.class);
+
+        when(metadataCollection.getMetadataCollectionId(USER_ID)).thenReturn(metadataCollectionId);
+        when(connector.getMetadataCollection()).thenReturn(metadataCollection);
+
+        return connector;
+    }
+
+
+    /**
+     * Results shared between an executor and its clones, in the same way as an accumulator.
+     */
+    private static class SharedState
+    {
+        final Set<String>                           completedMembers  = Collections.synchronizedSet(new HashSet<>());
+        final Set<String>                           lateMembers       = Collections.synchronizedSet(new HashSet<>());
+        final Set<String>                           callingThreads    = Collections.synchronizedSet(new HashSet<>());
+        final Map<String, RepositoryErrorException> errors            = Collections.synchronizedMap(new HashMap<>());
+        volatile int                                sufficientResults = Integer.MAX_VALUE;
+        boolean                                     closed            = false;
+    }
+
+
+    /**
+     * Executor that simulates repositories that take different lengths of time to respond.
+     */
+    private static class TestExecutor implements RepositoryExecutor, CloneableRepositoryExecutor
+    {
+        private final Map<String, Long> responseTimes;
+        private final SharedState       state;
+
+
+        TestExecutor(Map<String, Long> responseTimes)
+        {
+            this(responseTimes, new SharedState());
+        }
+
+
+        TestExecutor(Map<String, Long> responseTimes,
+                     SharedState       state)
+        {
+            this.responseTimes = responseTimes;
+            this.state         = state;
+        }
+
+
+        @Override
+        public boolean issueRequestToRepository(String                 metadataCollectionId,
+                                                OMRSMetadataCollection metadataCollection)
+        {
+            state.callingThreads.add(Thread.currentThread().getName());
+
+            if (responseTimes.get(metadataCollectionId) == FAILING_REQUEST)
+            {
+                throw new StackOverflowError();
+            }
+
+            try
+            {
+                Thread.sleep(responseTimes.get(metadataCollectionId));
+
+                synchronized (state)
+                {
+                    if (state.closed)
+                    {
+                        state.lateMembers.add(metadataCollectionId);
+                    }
+                    else
+                    {
+                        state.completedMembers.add(metadataCollectionId);
+                    }
+                }
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            return false;
+        }
+
+
+        @Override
+        public CloneableRepositoryExecutor getClone()
+        {
+            return new TestExecutor(responseTimes, state);
+        }
+
+
+        @Override
+        public boolean hasSufficientResults()
+        {
+            return state.completedMembers.size() >= state.sufficientResults;
+        }
+
+
+        @Override
+        public void captureRepositoryError(String                   metadataCollectionId,
+                                           RepositoryErrorException error)
+        {
+            state.errors.put(metadataCollectionId, error);
+        }
+
+
+        @Override
+        public void closeResults()
+        {
+            synchronized (state)
+            {
+                state.closed = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.eventmanagement;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventProcessor;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentValidator;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+
+/**
+ * Validate that OMRSRepositoryEventManager combines the new instance events created during an instance batch.
+ */
+public class TestOMRSRepositoryEventManager
+{
+    private static final String SOURCE_NAME            = "testSource";
+    private static final String METADATA_COLLECTION_ID = "test-metadata-collection-id";
+
+    private OMRSRepositoryEventManager eventManager;
+    private OMRSInstanceEventProcessor eventConsumer;
+
+
+    @BeforeMethod
+    void setUp()
+    {
+        OMRSRepositoryEventExchangeRule exchangeRule = mock(OMRSRepositoryEventExchangeRule.class);
+        OMRSRepositoryContentValidator  validator    = mock(OMRSRepositoryContentValidator.class);
+
+        when(exchangeRule.processInstanceEvent(any(), any())).thenReturn(true);
+        when(exchangeRule.processInstanceEvent(any(InstanceHeader.class))).thenReturn(true);
+        when(validator.validEntity(anyString(), any(EntityDetail.class))).thenReturn(true);
+        when(validator.validRelationship(anyString(), any(Relationship.class))).thenReturn(true);
+
+        eventConsumer = mock(OMRSInstanceEventProcessor.class);
+        eventManager  = new OMRSRepositoryEventManager("test", exchangeRule, validator, mock(AuditLog.class));
+
+        eventManager.registerInstanceProcessor(eventConsumer);
+        eventManager.start();
+    }
+
+
+    @Test
+    void testNewInstancesAreBatched()
+    {
+        eventManager.setInstanceBatchSize(3);
+
+        eventManager.startInstanceBatch();
+        eventManager.startInstanceBatch();
+        sendNewEntityEvent("1111");
+        sendNewEntityEvent("2222");
+        eventManager.endInstanceBatch();
+        sendNewRelationshipEvent("3333");
+        eventManager.endInstanceBatch();
+
+        List<OMRSInstanceEvent> events = getSentEvents(1);
+
+        assertEquals(events.get(0).getInstanceEventType(), OMRSInstanceEventType.BATCH_INSTANCES_EVENT);
+        assertEquals(events.get(0).getInstanceBatch().getEntities().size(), 2);
+        assertEquals(events.get(0).getInstanceBatch().getRelationships().size(), 1);
+        assertEquals(events.get(0).getEventOriginator().getMetadataCollectionId(), METADATA_COLLECTION_ID);
+    }
+
+
+    @Test
+    void testSmallBatchIsSentIndividually()
+    {
+        eventManager.setInstanceBatchSize(3);
+
+        eventManager.startInstanceBatch();
+        sendNewEntityEvent("1111");
+        sendNewEntityEvent("2222");
+        eventManager.endInstanceBatch();
+
+        List<OMRSInstanceEvent> events = getSentEvents(2);
+
+        assertEquals(events.get(0).getInstanceEventType(), OMRSInstanceEventType.NEW_ENTITY_EVENT);
+        assertEquals(events.get(0).getEntity().getGUID(), "1111");
+        assertEquals(events.get(1).getEntity().getGUID(), "2222");
+    }
+
+
+    @Test
+    void testBatchingDisabledByDefault()
+    {
+        eventManager.startInstanceBatch();
+        sendNewEntityEvent("1111");
+        sendNewEntityEvent("2222");
+        sendNewEntityEvent("3333");
+
+        getSentEvents(3);
+
+        eventManager.endInstanceBatch();
+
+        getSentEvents(3);
+    }
+
+
+    private void sendNewEntityEvent(String guid)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setMetadataCollectionId(METADATA_COLLECTION_ID);
+
+        eventManager.processNewEntityEvent(SOURCE_NAME, METADATA_COLLECTION_ID, "server", "type", "org", entity);
+    }
+
+
+    private void sendNewRelationshipEvent(String guid)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setMetadataCollectionId(METADATA_COLLECTION_ID);
+
+        eventManager.processNewRelationshipEvent(SOURCE_NAME, METADATA_COLLECTION_ID, "server", "type", "org", relationship);
+    }
+
+
+    private List<OMRSInstanceEvent> getSentEvents(int expectedCount)
+    {
+        ArgumentCaptor<OMRSInstanceEvent> captor = ArgumentCaptor.forClass(OMRSInstanceEvent.class);
+
+        verify(eventConsumer, times(expectedCount)).sendInstanceEvent(anyString(), captor.capture());
+
+        return captor.getAllValues();
+    }
+}
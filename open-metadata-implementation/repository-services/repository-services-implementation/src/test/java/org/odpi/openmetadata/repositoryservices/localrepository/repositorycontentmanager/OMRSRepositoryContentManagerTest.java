@@ -0,0 +1,54 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+/**
+ * Verify the version of the active types that is used by connectors to know when their type-derived caches
+ * are out of date.
+ */
+public class OMRSRepositoryContentManagerTest
+{
+    private static final String sourceName = "OMRSRepositoryContentManagerTest";
+
+
+    /**
+     * The version changes whenever an active type is added or updated, and not when the types are read.
+     */
+    @Test
+    public void testActiveTypesVersion()
+    {
+        OMRSRepositoryContentManager contentManager   = new OMRSRepositoryContentManager(sourceName, null);
+        OMRSRepositoryHelper         repositoryHelper = new OMRSRepositoryContentHelper(contentManager);
+
+        long initialVersion = repositoryHelper.getActiveTypesVersion();
+
+        EntityDef entityDef = new EntityDef();
+
+        entityDef.setGUID("test-entity-guid");
+        entityDef.setName("TestEntity");
+        entityDef.setVersion(1L);
+
+        contentManager.addTypeDef(sourceName, entityDef);
+
+        long addedVersion = repositoryHelper.getActiveTypesVersion();
+
+        assertNotEquals(addedVersion, initialVersion);
+        assertEquals(repositoryHelper.getActiveTypeDefs().size(), 1);
+        assertEquals(repositoryHelper.getActiveTypesVersion(), addedVersion);
+
+        EntityDef updatedEntityDef = new EntityDef(entityDef);
+
+        updatedEntityDef.setVersion(2L);
+
+        contentManager.updateTypeDef(sourceName, updatedEntityDef);
+
+        assertNotEquals(repositoryHelper.getActiveTypesVersion(), addedVersion);
+    }
+}
@@ -77,6 +77,9 @@ public class OMAGServerPlatform
     @Value("${startup.server.list}")
     String startupServers;
 
+    @Value("${startup.max.threads:8}")
+    int startupMaxThreads;
+
     @Autowired
     private Environment env;
 
@@ -102,6 +105,7 @@ public class OMAGServerPlatform
                 log.warn("strict.ssl is set to false! Invalid certificates will be accepted for connection!");
                 HttpHelper.noStrictSSL();
             }
+            OMAGServerOperationalServices.setMaxStartupThreads(startupMaxThreads);
             autoStartConfig();
         };
     }
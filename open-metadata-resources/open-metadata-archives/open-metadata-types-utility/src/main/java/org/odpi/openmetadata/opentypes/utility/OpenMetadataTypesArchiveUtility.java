@@ -13,7 +13,7 @@ import org.odpi.openmetadata.opentypes.OpenMetadataTypesArchiveWriter;
 public class OpenMetadataTypesArchiveUtility
 {
     /**
-     * Main program to control the archive writer.
+     * Main program to control the archive writer.  It writes the archive in both the JSON and binary formats.
      * Note: See issue #3392 if logging is needed
      *
      * @param args ignored arguments
@@ -23,5 +23,6 @@ public class OpenMetadataTypesArchiveUtility
         OpenMetadataTypesArchiveWriter archiveWriter = new OpenMetadataTypesArchiveWriter();
 
         archiveWriter.writeOpenMetadataTypesArchive();
+        archiveWriter.writeOpenMetadataTypesBinaryArchive();
     }
 }
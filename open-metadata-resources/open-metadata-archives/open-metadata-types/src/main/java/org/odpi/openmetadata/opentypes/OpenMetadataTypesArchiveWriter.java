@@ -12,7 +12,8 @@ import org.odpi.openmetadata.repositoryservices.archiveutilities.OMRSArchiveWrit
  */
 public class OpenMetadataTypesArchiveWriter extends OMRSArchiveWriter
 {
-    private static final String defaultOpenMetadataArchiveFileName = "OpenMetadataTypes.json";
+    private static final String defaultOpenMetadataArchiveFileName       = "OpenMetadataTypes.json";
+    private static final String defaultOpenMetadataBinaryArchiveFileName = "OpenMetadataTypes.bin";
 
     /**
      * Default constructor
@@ -33,4 +34,17 @@ public class OpenMetadataTypesArchiveWriter extends OMRSArchiveWriter
                                       openMetadataTypesArchive.getOpenMetadataArchive());
     }
 
+
+    /**
+     * Generates and writes out an open metadata archive containing all of the open metadata types in the
+     * binary archive format.
+     */
+    public void writeOpenMetadataTypesBinaryArchive()
+    {
+        OpenMetadataTypesArchive openMetadataTypesArchive = new OpenMetadataTypesArchive();
+
+        this.writeBinaryOpenMetadataArchive(defaultOpenMetadataBinaryArchiveFileName,
+                                            openMetadataTypesArchive.getOpenMetadataArchive());
+    }
+
 }
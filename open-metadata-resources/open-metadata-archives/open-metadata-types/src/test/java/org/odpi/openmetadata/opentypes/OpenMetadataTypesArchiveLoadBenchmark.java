@@ -0,0 +1,333 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.opentypes;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenMetadataTypesArchiveLoadBenchmark measures the cold-start time for a server to have the open metadata types
+ * loaded from each form of the open metadata types archive: built by the Java code, parsed from the JSON file,
+ * streamed from the JSON file and read from the binary file.  The archive is optionally padded with entities
+ * to show how the time to load the types, and then all of the instances, grows with the size of a content pack.
+ * Each measurement is a single shot in a new JVM so the class loading and JIT costs a starting server pays are
+ * included.  It is not run as part of the unit tests.  Run the main method (with the test classpath) which writes
+ * the archive files and then runs the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class OpenMetadataTypesArchiveLoadBenchmark
+{
+    private static final String JSON_FILE_NAME   = "OpenMetadataTypes.json";
+    private static final String BINARY_FILE_NAME = "OpenMetadataTypes.bin";
+    private static final int    BATCH_SIZE       = 500;
+
+    @Param({""})
+    public String archiveDirectory;
+
+    @Param({"0", "20000"})
+    public int entityCount;
+
+    private ArchiveLoader archiveLoader;
+    private String        jsonFileName;
+    private String        binaryFileName;
+
+
+    /**
+     * Locate the archive files written by the main method.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        File directory  = new File(archiveDirectory, Integer.toString(entityCount));
+        File jsonFile   = new File(directory, JSON_FILE_NAME);
+        File binaryFile = new File(directory, BINARY_FILE_NAME);
+
+        if ((! jsonFile.exists()) || (! binaryFile.exists()))
+        {
+            throw new IllegalStateException("Archive files not found in " + archiveDirectory + ": run the main method");
+        }
+
+        archiveLoader  = new ArchiveLoader();
+        jsonFileName   = jsonFile.getPath();
+        binaryFileName = binaryFile.getPath();
+    }
+
+
+    /**
+     * Build the types with the Java code in this module.
+     *
+     * @return type store
+     */
+    @Benchmark
+    public OpenMetadataArchiveTypeStore javaArchive()
+    {
+        return new OpenMetadataTypesArchive().getOpenMetadataArchive().getArchiveTypeStore();
+    }
+
+
+    /**
+     * Parse the whole JSON archive file into memory.
+     *
+     * @return type store
+     */
+    @Benchmark
+    public OpenMetadataArchiveTypeStore jsonArchive()
+    {
+        return archiveLoader.readOpenMetadataArchive(jsonFileName).getArchiveTypeStore();
+    }
+
+
+    /**
+     * Stream the types from the JSON archive file.
+     *
+     * @return type store
+     */
+    @Benchmark
+    public OpenMetadataArchiveTypeStore jsonArchiveReader()
+    {
+        try (OpenMetadataArchiveReader archiveReader = archiveLoader.openOpenMetadataArchive(jsonFileName))
+        {
+            return archiveReader.getArchiveTypeStore();
+        }
+    }
+
+
+    /**
+     * Read the types from the binary archive file.
+     *
+     * @return type store
+     */
+    @Benchmark
+    public OpenMetadataArchiveTypeStore binaryArchiveReader()
+    {
+        try (OpenMetadataArchiveReader archiveReader = archiveLoader.openBinaryOpenMetadataArchive(binaryFileName))
+        {
+            return archiveReader.getArchiveTypeStore();
+        }
+    }
+
+
+    /**
+     * Stream the types and then all of the instances from the JSON archive file.
+     *
+     * @return number of instances
+     * @throws IOException the file could not be read
+     */
+    @Benchmark
+    public int jsonArchiveReaderInstances() throws IOException
+    {
+        try (OpenMetadataArchiveReader archiveReader = archiveLoader.openOpenMetadataArchive(jsonFileName))
+        {
+            return readInstances(archiveReader);
+        }
+    }
+
+
+    /**
+     * Read the types and then all of the instances from the binary archive file.
+     *
+     * @return number of instances
+     * @throws IOException the file could not be read
+     */
+    @Benchmark
+    public int binaryArchiveReaderInstances() throws IOException
+    {
+        try (OpenMetadataArchiveReader archiveReader = archiveLoader.openBinaryOpenMetadataArchive(binaryFileName))
+        {
+            return readInstances(archiveReader);
+        }
+    }
+
+
+    /**
+     * Read all of the instances from an archive in the batches used by the archive manager.
+     *
+     * @param archiveReader reader for the archive
+     * @return number of instances
+     * @throws IOException the file could not be read
+     */
+    private int readInstances(OpenMetadataArchiveReader archiveReader) throws IOException
+    {
+        int                              instanceCount = (archiveReader.getArchiveTypeStore() == null) ? 0 : 1;
+        OpenMetadataArchiveInstanceStore batch         = archiveReader.getNextInstanceBatch(BATCH_SIZE);
+
+        while (batch != null)
+        {
+            if (batch.getEntities() != null)
+            {
+                instanceCount += batch.getEntities().size();
+            }
+
+            batch = archiveReader.getNextInstanceBatch(BATCH_SIZE);
+        }
+
+        return instanceCount;
+    }
+
+
+    /**
+     * ArchiveLoader gives the benchmark access to the archive file connectors.
+     */
+    private static class ArchiveLoader extends OpenMetadataTypesArchiveWriter
+    {
+        /**
+         * Write the open metadata types archive in both formats.
+         *
+         * @param directory directory for the files
+         * @param entityCount number of entities to add to the archive
+         */
+        void writeArchives(File directory,
+                           int  entityCount)
+        {
+            OpenMetadataArchive openMetadataArchive = new OpenMetadataTypesArchive().getOpenMetadataArchive();
+
+            if (entityCount > 0)
+            {
+                OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+                List<EntityDetail>               entities      = new ArrayList<>();
+
+                for (int i = 0; i < entityCount; i++)
+                {
+                    entities.add(getEntity(i));
+                }
+
+                instanceStore.setEntities(entities);
+                openMetadataArchive.setArchiveInstanceStore(instanceStore);
+            }
+
+            writeOpenMetadataArchive(new File(directory, JSON_FILE_NAME).getPath(), openMetadataArchive);
+            writeBinaryOpenMetadataArchive(new File(directory, BINARY_FILE_NAME).getPath(), openMetadataArchive);
+        }
+
+
+        /**
+         * Return an entity with a type and a couple of properties, similar in size to those in the content packs.
+         *
+         * @param index index of the entity
+         * @return entity
+         */
+        private EntityDetail getEntity(int index)
+        {
+            EntityDetail       entity     = new EntityDetail();
+            InstanceType       type       = new InstanceType();
+            InstanceProperties properties = new InstanceProperties();
+
+            type.setTypeDefCategory(TypeDefCategory.ENTITY_DEF);
+            type.setTypeDefGUID("a32316b8-dc8c-48c5-b12b-71c1b2a080bf");
+            type.setTypeDefName("Referenceable");
+            type.setTypeDefVersion(1L);
+
+            properties.setProperty("qualifiedName", getStringValue("Benchmark::Entity::" + index));
+            properties.setProperty("description", getStringValue("Entity " + index + " added to the types archive for the load benchmark"));
+
+            entity.setGUID(UUID.randomUUID().toString());
+            entity.setMetadataCollectionId("bce3b0a0-662a-4f87-b8dc-844078a11a6e");
+            entity.setInstanceProvenanceType(InstanceProvenanceType.CONTENT_PACK);
+            entity.setStatus(InstanceStatus.ACTIVE);
+            entity.setVersion(1L);
+            entity.setCreatedBy("benchmark");
+            entity.setCreateTime(new Date());
+            entity.setType(type);
+            entity.setProperties(properties);
+
+            return entity;
+        }
+
+
+        /**
+         * Return a string property value.
+         *
+         * @param value string
+         * @return property value
+         */
+        private PrimitivePropertyValue getStringValue(String value)
+        {
+            PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+            propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+            propertyValue.setPrimitiveValue(value);
+
+            return propertyValue;
+        }
+
+
+        @Override
+        protected OpenMetadataArchive readOpenMetadataArchive(String inputFileName)
+        {
+            return super.readOpenMetadataArchive(inputFileName);
+        }
+
+
+        @Override
+        protected OpenMetadataArchiveReader openOpenMetadataArchive(String inputFileName)
+        {
+            return super.openOpenMetadataArchive(inputFileName);
+        }
+
+
+        @Override
+        protected OpenMetadataArchiveReader openBinaryOpenMetadataArchive(String inputFileName)
+        {
+            return super.openBinaryOpenMetadataArchive(inputFileName);
+        }
+    }
+
+
+    /**
+     * Write the archive files to a temporary directory and run the benchmark against them.
+     *
+     * @param args ignored
+     * @throws IOException the temporary directory could not be created
+     * @throws RunnerException the benchmark failed
+     */
+    public static void main(String[] args) throws IOException, RunnerException
+    {
+        File          directory     = Files.createTempDirectory("open-metadata-types").toFile();
+        ArchiveLoader archiveLoader = new ArchiveLoader();
+
+        for (int entityCount : new int[]{0, 20000})
+        {
+            File entityDirectory = new File(directory, Integer.toString(entityCount));
+
+            if (! entityDirectory.mkdir())
+            {
+                throw new IOException("Unable to create " + entityDirectory);
+            }
+
+            archiveLoader.writeArchives(entityDirectory, entityCount);
+
+            System.out.println(entityCount + " entities: JSON archive " + new File(entityDirectory, JSON_FILE_NAME).length() +
+                                       " bytes, binary archive " + new File(entityDirectory, BINARY_FILE_NAME).length() + " bytes");
+        }
+
+        Options options = new OptionsBuilder().include(OpenMetadataTypesArchiveLoadBenchmark.class.getSimpleName())
+                                              .param("archiveDirectory", directory.getPath())
+                                              .build();
+
+        new Runner(options).run();
+    }
+}